@@ -0,0 +1,125 @@
+package gcm.components;
+
+import java.util.List;
+
+import gcm.scenario.CompartmentId;
+import gcm.scenario.PersonId;
+import gcm.scenario.PersonPropertyId;
+import gcm.scenario.RegionId;
+import gcm.scenario.ResourceId;
+import gcm.simulation.Environment;
+import gcm.util.annotations.Source;
+
+/**
+ * An optional extension of the {@link Component} interface for components that
+ * aggregate large numbers of person-level observations. A component opts in to
+ * batched delivery by implementing this interface.
+ *
+ * The person-level observations that have a batch counterpart in this
+ * interface are not delivered through the corresponding single observation
+ * methods of {@link Component}. Instead, the simulation collects them as the
+ * observation queue is processed and delivers them once all other pending
+ * observations have been delivered. Each invocation carries all of the
+ * collected people for a single observation type and identifier, in the order
+ * in which the observations were generated. Observations that arise from the
+ * processing of a batch are collected into new batches and the cycle repeats
+ * until no observations remain. Thus, a batched observation is delivered at the
+ * same simulation time as it would have been without batching, but possibly
+ * after other components have acted upon it.
+ *
+ * Observations of people departing the simulation are never batched. A
+ * departure is delivered through
+ * {@link Component#observeGlobalPersonDeparture(Environment, PersonId)} in
+ * the order in which it was generated, and so reaches the component before
+ * any pending batch that still names the departed person. The component can
+ * release its state for that person promptly, and it should expect batches
+ * to contain people who no longer exist, for whom
+ * {@link Environment#personExists(PersonId)} returns false.
+ *
+ * The list of people passed to each method belongs to the component.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public interface BatchObservingComponent extends Component {
+
+	/**
+	 * An alert from the simulation to the component indicating that people
+	 * have arrived at the component's compartment.
+	 *
+	 * @param personIds
+	 */
+	public void observeCompartmentPersonArrivals(Environment environment, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component indicating that people
+	 * have departed a compartment.
+	 *
+	 * @param compartmentId
+	 *            -- the compartmentId the people have departed from
+	 * @param personIds
+	 */
+	public void observeCompartmentPersonDepartures(Environment environment, CompartmentId compartmentId, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component that people have arrived
+	 * into the simulation.
+	 *
+	 * @param personIds
+	 */
+	public void observeGlobalPersonArrivals(Environment environment, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component indicating that people
+	 * have moved to new compartments.
+	 *
+	 * @param personIds
+	 */
+	public void observePersonCompartmentChanges(Environment environment, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component indicating that the given
+	 * property value has changed for people.
+	 *
+	 * @param personPropertyId
+	 * @param personIds
+	 */
+	public void observePersonPropertyChanges(Environment environment, PersonPropertyId personPropertyId, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component indicating that people
+	 * have moved to new regions.
+	 *
+	 * @param personIds
+	 */
+	public void observePersonRegionChanges(Environment environment, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component indicating that people
+	 * have had a change to the level of the given resource.
+	 *
+	 * @param resourceId
+	 * @param personIds
+	 */
+	public void observePersonResourceChanges(Environment environment, ResourceId resourceId, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component indicating that people
+	 * have arrived in the component's region.
+	 *
+	 * @param personIds
+	 */
+	public void observeRegionPersonArrivals(Environment environment, List<PersonId> personIds);
+
+	/**
+	 * An alert from the simulation to the component indicating that people
+	 * have departed from a region.
+	 *
+	 * @param regionId
+	 *            -- the regionId the people have departed from
+	 * @param personIds
+	 */
+	public void observeRegionPersonDepartures(Environment environment, RegionId regionId, List<PersonId> personIds);
+
+}
@@ -3,6 +3,7 @@ package gcm.experiment;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -15,9 +16,12 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import gcm.experiment.ExperimentProgressLog.ExperimentProgressLogBuilder;
+import gcm.output.OutputItem;
 import gcm.output.OutputItemHandler;
+import gcm.output.reports.NIOReportItemHandler;
 import gcm.output.reports.Report;
 import gcm.output.reports.ReportPeriod;
 import gcm.output.reports.NIOReportItemHandlerImpl.NIOReportItemHandlerBuilder;
@@ -53,7 +57,9 @@ import gcm.scenario.ReplicationId;
 import gcm.scenario.ResourceId;
 import gcm.scenario.Scenario;
 import gcm.scenario.ScenarioId;
+import gcm.simulation.PlanningQueueType;
 import gcm.simulation.Simulation;
+import gcm.simulation.SimulationSnapshot;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 import net.jcip.annotations.Immutable;
@@ -86,6 +92,14 @@ public final class ExperimentExecutor {
 		private double memoryReportInterval;
 		private Path planningQueueReportPath;
 		private long planningQueueReportThreshold;
+		private PlanningQueueType planningQueueType = PlanningQueueType.RECORD;
+		private boolean observationCoalescing;
+		private Path checkpointDirectory;
+		private double checkpointInterval;
+		private double forkTime;
+		private int filterEvaluationThreadCount;
+		private ForkJoinPool filterEvaluationPool;
+		private int parallelFilterEvaluationThreshold;
 		private NIOReportItemHandlerBuilder nioReportItemHandlerBuilder = new NIOReportItemHandlerBuilder();
 	}
 
@@ -158,11 +172,37 @@ public final class ExperimentExecutor {
 
 		private final List<OutputItemHandler> outputItemHandlers;
 
+		private final PlanningQueueType planningQueueType;
+
+		private final boolean observationCoalescing;
+
+		private final Path checkpointDirectory;
+
+		private final double checkpointInterval;
+
+		private final SimulationSnapshot snapshot;
+
+		private final ForkJoinPool filterEvaluationPool;
+
+		private final int parallelFilterEvaluationThreshold;
+
 		/*
-		 * All construction arguments are thread safe implementations.
+		 * All construction arguments are thread safe implementations. The
+		 * snapshot is null unless the simulation is forked from a warm-up
+		 * simulation. The filter evaluation pool is null unless filter tests
+		 * may run in parallel and a non-positive threshold leaves the
+		 * simulation's default in place.
 		 */
-		private SimulationCallable(final Scenario scenario, final Replication replication, final List<OutputItemHandler> outputItemHandlers) {
+		private SimulationCallable(final Scenario scenario, final Replication replication, final List<OutputItemHandler> outputItemHandlers, final PlanningQueueType planningQueueType, final boolean observationCoalescing,
+				final Path checkpointDirectory, final double checkpointInterval, final SimulationSnapshot snapshot, final ForkJoinPool filterEvaluationPool, final int parallelFilterEvaluationThreshold) {
 			this.replication = replication;
+			this.filterEvaluationPool = filterEvaluationPool;
+			this.parallelFilterEvaluationThreshold = parallelFilterEvaluationThreshold;
+			this.snapshot = snapshot;
+			this.planningQueueType = planningQueueType;
+			this.observationCoalescing = observationCoalescing;
+			this.checkpointDirectory = checkpointDirectory;
+			this.checkpointInterval = checkpointInterval;
 			this.scenario = scenario;
 			this.outputItemHandlers = new ArrayList<>(outputItemHandlers);
 		}
@@ -179,6 +219,21 @@ public final class ExperimentExecutor {
 			final Simulation simulation = new Simulation();
 			simulation.setScenario(scenario);
 			simulation.setReplication(replication);
+			simulation.setPlanningQueueType(planningQueueType);
+			simulation.setObservationCoalescing(observationCoalescing);
+			if (checkpointDirectory != null) {
+				simulation.setCheckpointDirectory(checkpointDirectory);
+			}
+			simulation.setCheckpointInterval(checkpointInterval);
+			if (snapshot != null) {
+				simulation.setSnapshot(snapshot);
+			}
+			if (filterEvaluationPool != null) {
+				simulation.setFilterEvaluationPool(filterEvaluationPool);
+			}
+			if (parallelFilterEvaluationThreshold > 0) {
+				simulation.setParallelFilterEvaluationThreshold(parallelFilterEvaluationThreshold);
+			}
 			for (OutputItemHandler outputItemHandler : outputItemHandlers) {
 				simulation.addOutputItemHandler(outputItemHandler);
 			}
@@ -198,6 +253,167 @@ public final class ExperimentExecutor {
 
 	}
 
+	/*
+	 * A Callable implementor that runs the warm-up simulation of a replication
+	 * to the fork time and returns its snapshot. Thread safety follows that of
+	 * the SimulationCallable. The snapshot is immutable and is shared by the
+	 * simulations forked from it.
+	 */
+	private static class WarmUpCallable implements Callable<SimulationSnapshot> {
+
+		private final Scenario scenario;
+
+		private final Replication replication;
+
+		private final List<OutputItemHandler> outputItemHandlers;
+
+		private final PlanningQueueType planningQueueType;
+
+		private final boolean observationCoalescing;
+
+		private final double forkTime;
+
+		private final ForkJoinPool filterEvaluationPool;
+
+		private final int parallelFilterEvaluationThreshold;
+
+		private WarmUpCallable(final Scenario scenario, final Replication replication, final List<OutputItemHandler> outputItemHandlers, final PlanningQueueType planningQueueType, final boolean observationCoalescing,
+				final double forkTime, final ForkJoinPool filterEvaluationPool, final int parallelFilterEvaluationThreshold) {
+			this.filterEvaluationPool = filterEvaluationPool;
+			this.parallelFilterEvaluationThreshold = parallelFilterEvaluationThreshold;
+			this.scenario = scenario;
+			this.replication = replication;
+			this.outputItemHandlers = new ArrayList<>(outputItemHandlers);
+			this.planningQueueType = planningQueueType;
+			this.observationCoalescing = observationCoalescing;
+			this.forkTime = forkTime;
+		}
+
+		@Override
+		public SimulationSnapshot call() throws Exception {
+			final Simulation simulation = new Simulation();
+			simulation.setScenario(scenario);
+			simulation.setReplication(replication);
+			simulation.setPlanningQueueType(planningQueueType);
+			simulation.setObservationCoalescing(observationCoalescing);
+			if (filterEvaluationPool != null) {
+				simulation.setFilterEvaluationPool(filterEvaluationPool);
+			}
+			if (parallelFilterEvaluationThreshold > 0) {
+				simulation.setParallelFilterEvaluationThreshold(parallelFilterEvaluationThreshold);
+			}
+			for (OutputItemHandler outputItemHandler : outputItemHandlers) {
+				simulation.addOutputItemHandler(outputItemHandler);
+			}
+			return simulation.executeToSnapshot(forkTime);
+		}
+	}
+
+	/*
+	 * Supplies the reports of an NIOReportItemHandler to a warm-up simulation
+	 * so that the reports are part of the snapshot, but handles no output
+	 * items. Output released during the warm-up period is not recorded.
+	 */
+	private static class WarmUpReportItemHandler implements NIOReportItemHandler {
+
+		private final NIOReportItemHandler nioReportItemHandler;
+
+		private WarmUpReportItemHandler(final NIOReportItemHandler nioReportItemHandler) {
+			this.nioReportItemHandler = nioReportItemHandler;
+		}
+
+		@Override
+		public void openSimulation(final ScenarioId scenarioId, final ReplicationId replicationId) {
+		}
+
+		@Override
+		public void openExperiment(final ExperimentProgressLog experimentProgressLog) {
+		}
+
+		@Override
+		public void closeSimulation(final ScenarioId scenarioId, final ReplicationId replicationId) {
+		}
+
+		@Override
+		public void closeExperiment() {
+		}
+
+		@Override
+		public void handle(final OutputItem outputItem) {
+		}
+
+		@Override
+		public Set<Class<? extends OutputItem>> getHandledClasses() {
+			return new LinkedHashSet<>();
+		}
+
+		@Override
+		public Set<Object> getInitializationData(final Report report) {
+			return nioReportItemHandler.getInitializationData(report);
+		}
+
+		@Override
+		public Set<Report> getReports() {
+			return nioReportItemHandler.getReports();
+		}
+	}
+
+	/*
+	 * Supplies the snapshots of the warm-up simulations to the jobs forked
+	 * from them. The jobs of each replication are submitted consecutively and
+	 * only the snapshot of the replication whose jobs are being submitted is
+	 * retained, so a snapshot is released once the last job forked from it
+	 * has been submitted and is collected once those jobs have finished. The
+	 * warm-up simulation of a replication executes the first scenario of the
+	 * experiment in the calling thread as its first job is submitted.
+	 */
+	private class SnapshotSupplier {
+
+		private final List<Replication> replications;
+
+		private final List<OutputItemHandler> warmUpHandlers = new ArrayList<>();
+
+		private Scenario warmUpScenario;
+
+		private int replicationIndex = -1;
+
+		private SimulationSnapshot snapshot;
+
+		private SnapshotSupplier(final List<Replication> replications) {
+			this.replications = replications;
+			for (OutputItemHandler outputItemHandler : scaffold.outputItemHandlers) {
+				if (outputItemHandler instanceof NIOReportItemHandler) {
+					warmUpHandlers.add(new WarmUpReportItemHandler((NIOReportItemHandler) outputItemHandler));
+				}
+			}
+		}
+
+		/*
+		 * Returns the snapshot that simulations of the replication are forked
+		 * from, or null if simulations are not forked
+		 */
+		private SimulationSnapshot getSnapshot(final int replicationIndex) {
+			if (scaffold.forkTime <= 0) {
+				return null;
+			}
+			if (replicationIndex != this.replicationIndex) {
+				snapshot = null;
+				if (warmUpScenario == null) {
+					warmUpScenario = scaffold.experiment.getScenario(0);
+				}
+				final WarmUpCallable warmUpCallable = new WarmUpCallable(warmUpScenario, replications.get(replicationIndex), warmUpHandlers, scaffold.planningQueueType,
+						scaffold.observationCoalescing, scaffold.forkTime, scaffold.filterEvaluationPool, scaffold.parallelFilterEvaluationThreshold);
+				try {
+					snapshot = warmUpCallable.call();
+				} catch (final Exception e) {
+					throw new RuntimeException(e);
+				}
+				this.replicationIndex = replicationIndex;
+			}
+			return snapshot;
+		}
+	}
+
 	private Scaffold scaffold = new Scaffold();
 
 	/**
@@ -219,7 +435,8 @@ public final class ExperimentExecutor {
 	 * ExperimentExecutor returns to an empty and idle state.
 	 * 
 	 * @throws RuntimeException
-	 *             if the experiment was not set
+	 *             <li>if the experiment was not set
+	 *             <li>if both a fork time and a checkpoint interval were set
 	 */
 	public void execute() {
 
@@ -252,10 +469,32 @@ public final class ExperimentExecutor {
 			throw new RuntimeException("null experiment");
 		}
 
-		if (scaffold.threadCount > 0) {
-			executeMultiThreaded();
+		if (scaffold.forkTime > 0 && scaffold.checkpointInterval > 0) {
+			throw new RuntimeException("fork time and checkpoint interval are mutually exclusive");
+		}
+
+		/*
+		 * The filter evaluation pool is dedicated to this execution and is
+		 * shared by its simulations
+		 */
+		final ForkJoinPool filterEvaluationPool;
+		if (scaffold.filterEvaluationThreadCount > 0) {
+			filterEvaluationPool = new ForkJoinPool(scaffold.filterEvaluationThreadCount);
 		} else {
-			executeSingleThreaded();
+			filterEvaluationPool = null;
+		}
+		scaffold.filterEvaluationPool = filterEvaluationPool;
+
+		try {
+			if (scaffold.threadCount > 0) {
+				executeMultiThreaded();
+			} else {
+				executeSingleThreaded();
+			}
+		} finally {
+			if (filterEvaluationPool != null) {
+				filterEvaluationPool.shutdown();
+			}
 		}
 	}
 
@@ -361,6 +600,15 @@ public final class ExperimentExecutor {
 
 			// Collections.sort(jobs);
 
+			/*
+			 * Simulations forked from warm-up snapshots are executed in
+			 * replication order so that each snapshot is needed only while the
+			 * jobs of its replication are submitted.
+			 */
+			if (scaffold.forkTime > 0) {
+				Collections.sort(jobs);
+			}
+
 			/*
 			 * If there is nothing to do, then do not engage.
 			 */
@@ -373,6 +621,13 @@ public final class ExperimentExecutor {
 				final ExecutorService executorService = Executors.newFixedThreadPool(scaffold.threadCount);
 				final CompletionService<SimResult> completionService = new ExecutorCompletionService<>(executorService);
 
+				/*
+				 * The warm-up simulations run to the fork time as the jobs of
+				 * their replications are submitted so that each job may be
+				 * forked from the snapshot of its replication.
+				 */
+				final SnapshotSupplier snapshotSupplier = new SnapshotSupplier(replications);
+
 				/*
 				 * Start the initial threads. Don't exceed the thread count or
 				 * the job count. Each time a thread is cleared, a new
@@ -384,7 +639,9 @@ public final class ExperimentExecutor {
 					//Scenario scenario = scaffold.experiment.getScenario(job.scenarioIndex);
 					Scenario scenario = scenarioCache.getScenario(job.scenarioIndex);
 					Replication replication = replications.get(job.replicationIndex);
-					completionService.submit(new SimulationCallable(scenario, replication, scaffold.outputItemHandlers));
+					completionService.submit(new SimulationCallable(scenario, replication, scaffold.outputItemHandlers, scaffold.planningQueueType, scaffold.observationCoalescing,
+								scaffold.checkpointDirectory, scaffold.checkpointInterval, snapshotSupplier.getSnapshot(job.replicationIndex), scaffold.filterEvaluationPool,
+								scaffold.parallelFilterEvaluationThreshold));
 					jobIndex++;
 				}
 
@@ -401,7 +658,9 @@ public final class ExperimentExecutor {
 						//Scenario scenario = scaffold.experiment.getScenario(job.scenarioIndex);
 						Scenario scenario = scenarioCache.getScenario(job.scenarioIndex);
 						Replication replication = replications.get(job.replicationIndex);
-						completionService.submit(new SimulationCallable(scenario, replication, scaffold.outputItemHandlers));
+						completionService.submit(new SimulationCallable(scenario, replication, scaffold.outputItemHandlers, scaffold.planningQueueType, scaffold.observationCoalescing,
+								scaffold.checkpointDirectory, scaffold.checkpointInterval, snapshotSupplier.getSnapshot(job.replicationIndex), scaffold.filterEvaluationPool,
+								scaffold.parallelFilterEvaluationThreshold));
 						jobIndex++;
 					}
 
@@ -477,29 +736,61 @@ public final class ExperimentExecutor {
 
 			/*
 			 * Execute each scenario/replication pair that is not contained in
-			 * the experiment progress log.
+			 * the experiment progress log. Simulations forked from warm-up
+			 * snapshots are executed in replication order so that each
+			 * snapshot is needed only while the simulations of its replication
+			 * execute.
 			 */
-
+			final ScenarioCache scenarioCache = new ScenarioCache(scaffold.replicationCount, scaffold.experiment);
+			final List<Job> jobs = new ArrayList<>();
 			for (int i = 0; i < scaffold.experiment.getScenarioCount(); i++) {
-				Scenario scenario = scaffold.experiment.getScenario(i);
-				for (final Replication replication : replications) {
-					if (!scaffold.experimentProgressLog.contains(scenario.getScenarioId(), replication.getId())) {
-						final Simulation simulation = new Simulation();
-						simulation.setReplication(replication);
-						simulation.setScenario(scenario);
-						for (OutputItemHandler outputItemHandler : scaffold.outputItemHandlers) {
-							simulation.addOutputItemHandler(outputItemHandler);
-						}
-						try {
-							simulation.execute();
-
-						} catch (final Exception e) {
-							System.err.println("Simulation failure for scenario " + scenario.getScenarioId() + " and replication " + replication.getId());
-							e.printStackTrace();
-						}
+				for (int j = 0; j < replications.size(); j++) {
+					if (!scaffold.experimentProgressLog.contains(scaffold.experiment.getScenarioId(i), replications.get(j).getId())) {
+						Job job = new Job();
+						job.scenarioIndex = i;
+						job.replicationIndex = j;
+						jobs.add(job);
 					}
 				}
 			}
+			if (scaffold.forkTime > 0) {
+				Collections.sort(jobs);
+			}
+
+			final SnapshotSupplier snapshotSupplier = new SnapshotSupplier(replications);
+			for (final Job job : jobs) {
+				final Scenario scenario = scenarioCache.getScenario(job.scenarioIndex);
+				final Replication replication = replications.get(job.replicationIndex);
+				final Simulation simulation = new Simulation();
+				simulation.setReplication(replication);
+				simulation.setScenario(scenario);
+				simulation.setPlanningQueueType(scaffold.planningQueueType);
+				simulation.setObservationCoalescing(scaffold.observationCoalescing);
+				if (scaffold.checkpointDirectory != null) {
+					simulation.setCheckpointDirectory(scaffold.checkpointDirectory);
+				}
+				simulation.setCheckpointInterval(scaffold.checkpointInterval);
+				final SimulationSnapshot snapshot = snapshotSupplier.getSnapshot(job.replicationIndex);
+				if (snapshot != null) {
+					simulation.setSnapshot(snapshot);
+				}
+				if (scaffold.filterEvaluationPool != null) {
+					simulation.setFilterEvaluationPool(scaffold.filterEvaluationPool);
+				}
+				if (scaffold.parallelFilterEvaluationThreshold > 0) {
+					simulation.setParallelFilterEvaluationThreshold(scaffold.parallelFilterEvaluationThreshold);
+				}
+				for (OutputItemHandler outputItemHandler : scaffold.outputItemHandlers) {
+					simulation.addOutputItemHandler(outputItemHandler);
+				}
+				try {
+					simulation.execute();
+
+				} catch (final Exception e) {
+					System.err.println("Simulation failure for scenario " + scenario.getScenarioId() + " and replication " + replication.getId());
+					e.printStackTrace();
+				}
+			}
 
 			for (OutputItemHandler outputItemHandler : scaffold.outputItemHandlers) {
 				outputItemHandler.closeExperiment();
@@ -574,6 +865,104 @@ public final class ExperimentExecutor {
 		scaffold.threadCount = threadCount;
 	}
 
+	/**
+	 * Sets the number of threads of a fork/join pool dedicated to the
+	 * experiment that the simulations use to test large numbers of people
+	 * against filters concurrently. The pool is shared by the simulations and
+	 * is shut down when the experiment completes. Setting the count to zero
+	 * keeps all filter tests sequential. Default value is zero.
+	 * 
+	 * @throws RuntimeException
+	 *             if the filter evaluation thread count is negative
+	 */
+	public void setFilterEvaluationThreadCount(final int filterEvaluationThreadCount) {
+		if (filterEvaluationThreadCount < 0) {
+			throw new RuntimeException("negative filter evaluation thread count");
+		}
+		scaffold.filterEvaluationThreadCount = filterEvaluationThreadCount;
+	}
+
+	/**
+	 * Sets the number of people at or above which a filter test uses the
+	 * filter evaluation pool. Default value is that of
+	 * {@link Simulation#setParallelFilterEvaluationThreshold(int)}.
+	 * 
+	 * @throws RuntimeException
+	 *             if the threshold is less than one
+	 */
+	public void setParallelFilterEvaluationThreshold(final int parallelFilterEvaluationThreshold) {
+		if (parallelFilterEvaluationThreshold < 1) {
+			throw new RuntimeException("parallel filter evaluation threshold is less than one");
+		}
+		scaffold.parallelFilterEvaluationThreshold = parallelFilterEvaluationThreshold;
+	}
+
+	/**
+	 * Sets the {@link PlanningQueueType} used by each simulation. Default value
+	 * is {@link PlanningQueueType#RECORD}.
+	 * 
+	 * @throws RuntimeException
+	 *             if the planning queue type is null
+	 */
+	public void setPlanningQueueType(final PlanningQueueType planningQueueType) {
+		if (planningQueueType == null) {
+			throw new RuntimeException("null planning queue type");
+		}
+		scaffold.planningQueueType = planningQueueType;
+	}
+
+	/**
+	 * Sets whether each simulation coalesces duplicate observations that are
+	 * pending delivery. Default value is false.
+	 */
+	public void setObservationCoalescing(final boolean observationCoalescing) {
+		scaffold.observationCoalescing = observationCoalescing;
+	}
+
+	/**
+	 * Sets the directory for simulation checkpoint files. The simulations of
+	 * the experiment share the directory. A scenario/replication pair that was
+	 * interrupted after writing a checkpoint is resumed from its checkpoint
+	 * when the experiment is executed again with the same directory and
+	 * experiment progress log.
+	 * 
+	 * @throws RuntimeException
+	 *             if the path is null
+	 */
+	public void setCheckpointDirectory(final Path checkpointDirectory) {
+		if (checkpointDirectory == null) {
+			throw new RuntimeException("null checkpoint directory");
+		}
+		scaffold.checkpointDirectory = checkpointDirectory;
+	}
+
+	/**
+	 * Sets the interval in days between simulation checkpoints. A non-positive
+	 * value turns off checkpoints. Default value is zero. Checkpoints require
+	 * that the components, plans and other modeler contributed objects held
+	 * by the simulation are serializable and are not supported in combination
+	 * with profile reports.
+	 */
+	public void setCheckpointInterval(final double checkpointInterval) {
+		scaffold.checkpointInterval = checkpointInterval;
+	}
+
+	/**
+	 * Sets the fork time in days. When positive, a warm-up simulation of the
+	 * first scenario of the experiment is executed to the fork time for each
+	 * replication and every scenario/replication pair is then forked from the
+	 * snapshot of its replication's warm-up simulation rather than repeating
+	 * the warm-up period. The scenarios of the experiment must share the
+	 * global properties, components and resources of the first scenario and
+	 * may differ only in their global property values, which are assigned at
+	 * the fork time. Output released before the fork time is not recorded.
+	 * The fork time may not be combined with a checkpoint interval. A
+	 * non-positive value turns off forking. Default value is zero.
+	 */
+	public void setForkTime(final double forkTime) {
+		scaffold.forkTime = forkTime;
+	}
+
 	/**
 	 * Turns on or off the logging of experiment progress to standard out.
 	 * Default value is false.
@@ -1,5 +1,7 @@
 package gcm.output;
 
+import java.io.Serializable;
+
 import gcm.scenario.ReplicationId;
 import gcm.scenario.ScenarioId;
 import gcm.util.annotations.Source;
@@ -7,13 +9,15 @@ import net.jcip.annotations.Immutable;
 
 /**
  * The base interface for all data items produced by the the experiment.
+ * Output items are serializable so that the items released by a simulation can
+ * be retained with its checkpoints.
  * 
  * @author Shawn Hatch
  *
  */
 @Source
 @Immutable
-public interface OutputItem {
+public interface OutputItem extends Serializable {
 
 	/**
 	 * Returns the {@link ScenarioId} of the assigned scenario of the simulation
@@ -1,5 +1,6 @@
 package gcm.output.reports;
 
+import java.io.Serializable;
 import java.util.Set;
 
 import gcm.scenario.BatchId;
@@ -31,7 +32,9 @@ import gcm.util.annotations.TestStatus;
  *
  */
 @Source(status = TestStatus.UNEXPECTED)
-public abstract class AbstractReport implements Report {
+public abstract class AbstractReport implements Report, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	@Override
 	public void close(ObservableEnvironment observableEnvironment) {
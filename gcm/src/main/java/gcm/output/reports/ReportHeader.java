@@ -1,5 +1,6 @@
 package gcm.output.reports;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,7 +18,9 @@ import net.jcip.annotations.NotThreadSafe;
  */
 @Immutable
 @Source(status = TestStatus.UNEXPECTED)
-public final class ReportHeader {
+public final class ReportHeader implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private final List<String> headerStrings;
 
@@ -24,6 +24,8 @@ import net.jcip.annotations.ThreadSafe;
 @Source(status = TestStatus.UNEXPECTED)
 public final class ReportItem implements OutputItem {
 
+	private static final long serialVersionUID = 1L;
+
 	@NotThreadSafe
 	public final static class ReportItemBuilder {
 		private Scaffold scaffold = new Scaffold();
@@ -51,6 +51,8 @@ import gcm.util.annotations.TestStatus;
  */
 @Source(status = TestStatus.UNEXPECTED)
 public final class BatchStatusReport extends AbstractReport {
+
+	private static final long serialVersionUID = 1L;
 	
 	private Set<BatchId> updatedBatches = new LinkedHashSet<>();
 
@@ -1,5 +1,6 @@
 package gcm.output.reports.commonreports;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -36,11 +37,16 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class CompartmentPopulationReport extends PeriodicReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Static class the represents the number of people in a
 	 * (region,compartment) pair
 	 */
-	private static class Counter {
+	private static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		int count;
 	}
 
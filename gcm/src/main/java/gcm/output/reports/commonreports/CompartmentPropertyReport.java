@@ -33,6 +33,8 @@ import gcm.util.annotations.TestStatus;
  */
 @Source(status = TestStatus.UNEXPECTED)
 public final class CompartmentPropertyReport extends AbstractReport {
+
+	private static final long serialVersionUID = 1L;
 	
 
 	private ReportHeader reportHeader;
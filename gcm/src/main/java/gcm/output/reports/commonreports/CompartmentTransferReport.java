@@ -1,5 +1,6 @@
 package gcm.output.reports.commonreports;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -39,11 +40,16 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class CompartmentTransferReport extends PeriodicReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Static class that counts the number of transfers between two compartment
 	 * within a region
 	 */
-	private static class Counter {
+	private static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		int count;
 	}
 
@@ -31,6 +31,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class GlobalPropertyReport extends AbstractReport {
 
+	private static final long serialVersionUID = 1L;
+
 	private ReportHeader reportHeader;
 
 	/*
@@ -1,5 +1,6 @@
 package gcm.output.reports.commonreports;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -35,12 +36,14 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class GroupPopulationReport extends PeriodicReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * 
 	 * Count of the number of groups having a particular person count for a particular group type
 	 *
 	 */
-	private static class Counter {
+	private static class Counter implements Serializable {
 		int count;
 	}
 
@@ -1,5 +1,6 @@
 package gcm.output.reports.commonreports;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -43,6 +44,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class GroupPropertyReport extends PeriodicReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * A container for (GroupType,GroupPropertyId) pairs that are used to define
 	 * which group properties are reported.
@@ -57,7 +60,7 @@ public final class GroupPropertyReport extends PeriodicReport {
 	/*
 	 * Implementor for GroupPropertyReportSettings
 	 */
-	private final static class GroupPropertyReportSettingsImpl implements GroupPropertyReportSettings {
+	private final static class GroupPropertyReportSettingsImpl implements GroupPropertyReportSettings, Serializable {
 
 		private final Map<GroupTypeId, Set<GroupPropertyId>> propertyIdMap;
 
@@ -123,7 +126,10 @@ public final class GroupPropertyReport extends PeriodicReport {
 
 	}
 
-	private static class Counter {
+	private static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		int count;
 	}
 
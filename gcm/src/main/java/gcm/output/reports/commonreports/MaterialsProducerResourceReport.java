@@ -38,6 +38,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class MaterialsProducerResourceReport extends AbstractReport {
 
+	private static final long serialVersionUID = 1L;
+
 	private static enum Action {
 		/*
 		 * Used when a resource is directly added to a materials producer which
@@ -20,6 +20,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public abstract class PeriodicReport extends AbstractReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Assume a daily report period and let it be overridden
 	 */
@@ -1,5 +1,6 @@
 package gcm.output.reports.commonreports;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -44,11 +45,16 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class PersonPropertyInteractionReport extends PeriodicReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Represents a count of people in a particular region, particular
 	 * compartment and having a particular tuple of property values.
 	 */
-	private static class Counter {
+	private static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		int count;
 	}
 
@@ -1,5 +1,6 @@
 package gcm.output.reports.commonreports;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -43,11 +44,16 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class PersonPropertyReport extends PeriodicReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * A counter for people having the tuple (Region, Compartment, Person
 	 * Property, Property Value)
 	 */
-	private final static class Counter {
+	private final static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		int count;
 	}
 
@@ -43,6 +43,9 @@ import gcm.util.annotations.TestStatus;
  */
 @Source(status = TestStatus.UNEXPECTED)
 public final class PersonResourceReport extends PeriodicReport {
+
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * An enumeration that represents two boolean options for this report. They
 	 * are implemented as an enumeration so that they can be passes
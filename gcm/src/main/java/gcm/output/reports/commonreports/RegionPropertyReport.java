@@ -34,6 +34,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class RegionPropertyReport extends AbstractReport {
 
+	private static final long serialVersionUID = 1L;
+
 	private ReportHeader reportHeader;
 
 	/*
@@ -1,5 +1,6 @@
 package gcm.output.reports.commonreports;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -94,6 +95,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class ResourceReport extends PeriodicReport {
 
+	private static final long serialVersionUID = 1L;
+
 	private static enum Activity {
 		PERSON_ARRIVAL("PersonAddition"),
 		PERSON_DEPARTURE("PersonDeparture"),
@@ -118,7 +121,10 @@ public final class ResourceReport extends PeriodicReport {
 		}
 	}
 
-	private static class Counter {
+	private static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private int actionCount;
 		private long itemCount;
 
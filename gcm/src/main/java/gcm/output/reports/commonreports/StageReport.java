@@ -45,6 +45,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.UNEXPECTED)
 public final class StageReport extends AbstractReport {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * An enumeration mirroring the cause of a change to a stage
 	 */
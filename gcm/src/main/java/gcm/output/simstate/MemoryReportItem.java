@@ -19,6 +19,8 @@ import net.jcip.annotations.ThreadSafe;
 @Source
 public final class MemoryReportItem implements OutputItem {
 
+	private static final long serialVersionUID = 1L;
+
 	/**
 	 * Builder class for {@link MemoryReportItem}
 	 * 
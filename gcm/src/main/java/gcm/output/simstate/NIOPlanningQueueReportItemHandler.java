@@ -75,6 +75,10 @@ public final class NIOPlanningQueueReportItemHandler extends NIOHeaderedOutputIt
 		sb.append("\t");
 		sb.append("Cancellations");
 		sb.append("\t");
+		sb.append("Tombstones");
+		sb.append("\t");
+		sb.append("Purges");
+		sb.append("\t");
 		sb.append("Count");
 		sb.append("\t");
 		sb.append("Min");
@@ -111,6 +115,10 @@ public final class NIOPlanningQueueReportItemHandler extends NIOHeaderedOutputIt
 		sb.append(planningQueueReportItem.getRemovalCount());
 		sb.append("\t");
 		sb.append(planningQueueReportItem.getCancellationCount());
+		sb.append("\t");
+		sb.append(planningQueueReportItem.getTombstoneCount());
+		sb.append("\t");
+		sb.append(planningQueueReportItem.getPurgeCount());
 
 		
 		Stat stat = planningQueueReportItem.getStat();
@@ -26,6 +26,8 @@ import net.jcip.annotations.NotThreadSafe;
 @Source
 public final class PlanningQueueReportItem implements OutputItem {
 
+	private static final long serialVersionUID = 1L;
+
 	private static class Scaffold {
 		private ScenarioId scenarioId;
 		private ReplicationId replicationId;
@@ -38,6 +40,8 @@ public final class PlanningQueueReportItem implements OutputItem {
 		private long additionCount;
 		private long removalCount;
 		private long cancellationCount;
+		private long tombstoneCount;
+		private long purgeCount;
 	}
 
 	/*
@@ -98,6 +102,12 @@ public final class PlanningQueueReportItem implements OutputItem {
 			if (scaffold.cancellationCount < 0) {
 				throw new RuntimeException("cancellation count is negative");
 			}
+			if (scaffold.tombstoneCount < 0) {
+				throw new RuntimeException("tombstone count is negative");
+			}
+			if (scaffold.purgeCount < 0) {
+				throw new RuntimeException("purge count is negative");
+			}
 
 		}
 
@@ -219,6 +229,22 @@ public final class PlanningQueueReportItem implements OutputItem {
 			scaffold.cancellationCount = cancellationCount;
 		}		
 
+		/**
+		 * Sets the number of cancelled plans that remain in the planning queue
+		 * as tombstones at the end of the reporting period
+		 */
+		public void setTombstoneCount(long tombstoneCount) {
+			scaffold.tombstoneCount = tombstoneCount;
+		}
+
+		/**
+		 * Sets the number of tombstones purged from the planning queue during
+		 * the reporting period
+		 */
+		public void setPurgeCount(long purgeCount) {
+			scaffold.purgeCount = purgeCount;
+		}
+
 		/**
 		 * Sets the start time
 		 * 
@@ -343,4 +369,21 @@ public final class PlanningQueueReportItem implements OutputItem {
 		return scaffold.cancellationCount;
 	}
 
+	/**
+	 * Returns the number of cancelled plans that remain in the planning queue
+	 * as tombstones at the end of the period represented by this
+	 * {@link PlanningQueueReportItem}
+	 */
+	public long getTombstoneCount() {
+		return scaffold.tombstoneCount;
+	}
+
+	/**
+	 * Returns the number of tombstones purged from the planning queue during
+	 * the period represented by this {@link PlanningQueueReportItem}
+	 */
+	public long getPurgeCount() {
+		return scaffold.purgeCount;
+	}
+
 }
@@ -36,6 +36,8 @@ import net.jcip.annotations.NotThreadSafe;
 @Source(status = TestStatus.UNEXPECTED)
 public final class ProfileItem implements OutputItem {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * 
 	 * Container class for collecting the data for the ProfileItem
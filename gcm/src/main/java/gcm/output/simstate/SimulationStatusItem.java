@@ -21,6 +21,8 @@ import net.jcip.annotations.NotThreadSafe;
 @Source(status = TestStatus.UNEXPECTED)
 public final class SimulationStatusItem implements SimulationOutputItem {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Container class for SimulationStatusItem
 	 */
@@ -5,6 +5,8 @@ import gcm.scenario.ScenarioId;
 
 public class SimulationWarningItem implements SimulationOutputItem {
 
+	private static final long serialVersionUID = 1L;
+
 	private final String warning;
 	private final ScenarioId scenarioId;
 	private final ReplicationId replicationId;
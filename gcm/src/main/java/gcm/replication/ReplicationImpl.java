@@ -1,5 +1,7 @@
 package gcm.replication;
 
+import java.io.Serializable;
+
 import gcm.scenario.ReplicationId;
 import gcm.util.annotations.Source;
 import net.jcip.annotations.Immutable;
@@ -17,7 +19,9 @@ import net.jcip.annotations.Immutable;
  */
 @Immutable
 @Source
-public final class ReplicationImpl implements Replication {
+public final class ReplicationImpl implements Replication, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * Returns a list of Replication having the size indicated by the
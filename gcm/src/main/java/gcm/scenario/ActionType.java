@@ -40,6 +40,7 @@ public enum ActionType {
 	REGION_MAP_OPTION_ASSIGNMENT("region_map_option_assignment"),
 	MATERIALS_PRODUCER_RESOURCE_ASSIGNMENT("materials_producer_resource_assignment"),
 	RESOURCE_TIME_TRACKING_ASSIGNMENT("resource_time_tracking_assignment"),
+	RESOURCE_MAP_OPTION_ASSIGNMENT("resource_map_option_assignment"),
 
 	// assignments of associations
 	GROUP_MEMBERSHIP_ASSIGNMENT("group_membership_assignment"),
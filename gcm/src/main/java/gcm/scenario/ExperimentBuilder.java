@@ -1457,6 +1457,24 @@ public final class ExperimentBuilder {
 		scaffold.putScenarioData(ActionType.REGION_MAP_OPTION_ASSIGNMENT, mapOption);
 	}
 
+	/**
+	 * Sets the mapping option for the people holding the given resource in all
+	 * scenarios. Defaulted to NONE.
+	 *
+	 * @throws ModelException
+	 *             <li>{@link ScenarioErrorType#NULL_RESOURCE_ID} if the
+	 *             resource id is null
+	 *             <li>{@link ScenarioErrorType#UNKNOWN_RESOURCE_ID} if the
+	 *             resource id is unknown
+	 *             <li>{@link ScenarioErrorType#NULL_RESOURCE_MAP_OPTION} if the
+	 *             mapOption is null
+	 *             <li>{@link ScenarioErrorType#PREVIOUSLY_ASSIGNED_VALUE} if
+	 *             the resource mapOption was previously set
+	 */
+	public void setResourceMapOption(final ResourceId resourceId, final MapOption mapOption) {
+		scaffold.putScenarioData(ActionType.RESOURCE_MAP_OPTION_ASSIGNMENT, resourceId, mapOption);
+	}
+
 	/**
 	 * Sets the resource time tracking policy for resource assignments to people
 	 *
@@ -1818,6 +1836,12 @@ public final class ExperimentBuilder {
 				scenarioBuilder.setResourceTimeTracking(resourceId, timeTrackingPolicy);
 			});
 
+			actionMap.put(ActionType.RESOURCE_MAP_OPTION_ASSIGNMENT, (scenarioBuilder, multiKey) -> {
+				ResourceId resourceId = multiKey.getKey(1);
+				MapOption mapOption = multiKey.getKey(2);
+				scenarioBuilder.setResourceMapOption(resourceId, mapOption);
+			});
+
 			actionMap.put(ActionType.RESOURCE_PROPERTY_DEFINITION, (scenarioBuilder, multiKey) -> {
 				ResourceId resourceId = multiKey.getKey(1);
 				ResourcePropertyId resourcePropertyId = multiKey.getKey(2);
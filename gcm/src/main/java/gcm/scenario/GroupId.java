@@ -14,6 +14,8 @@ import net.jcip.annotations.Immutable;
 @Source(status = TestStatus.PROXY,proxy = IntId.class)
 public final class GroupId extends IntId{
 
+	private static final long serialVersionUID = 1L;
+
 	public GroupId(int id) {
 		super(id);
 	}
@@ -1,5 +1,7 @@
 package gcm.scenario;
 
+import java.io.Serializable;
+
 import gcm.util.annotations.Source;
 import net.jcip.annotations.Immutable;
 
@@ -14,7 +16,9 @@ import net.jcip.annotations.Immutable;
  */
 @Immutable
 @Source
-public class IntId implements Comparable<IntId> {
+public class IntId implements Comparable<IntId>, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private final int value;
 
@@ -27,5 +27,25 @@ public enum MapOption {
 	 * Reverse mapping is supported and will be generally fast, but will require
 	 * the most memory of these option.
 	 */
-	HASH
+	HASH,
+
+	/**
+	 * Reverse mapping is supported using compressed bitmaps of the person id
+	 * values. This requires the least memory of these options, especially
+	 * when the mapped sets of people are large, and is nearly as fast as the
+	 * array based methodology.
+	 */
+	BITMAP,
+
+	/**
+	 * Reverse mapping is supported using an index that holds people in the
+	 * order of their property values, so that people whose values are less
+	 * than, greater than or unequal to a given value can be counted, listed
+	 * and randomly selected without examining the entire population. Counts
+	 * and random selections take logarithmic time. Applies only to person
+	 * properties having a Byte, Short, Integer, Long, Float or Double type.
+	 * Regions, compartments and resources mapped with this option are mapped
+	 * as with ARRAY.
+	 */
+	RANGE
 }
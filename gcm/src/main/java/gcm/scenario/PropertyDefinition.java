@@ -1,5 +1,6 @@
 package gcm.scenario;
 
+import java.io.Serializable;
 import java.util.Optional;
 
 import gcm.util.annotations.Source;
@@ -14,7 +15,9 @@ import net.jcip.annotations.ThreadSafe;
  */
 @ThreadSafe
 @Source
-public final class PropertyDefinition {
+public final class PropertyDefinition implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	public static Builder builder() {
 		return new Builder();
@@ -30,6 +33,8 @@ public final class PropertyDefinition {
 		private Object defaultValue = null;
 
 		private TimeTrackingPolicy timeTrackingPolicy = TimeTrackingPolicy.DO_NOT_TRACK_TIME;
+
+		private StorageOption storageOption = StorageOption.HEAP;
 	}
 
 	/**
@@ -48,8 +53,11 @@ public final class PropertyDefinition {
 		 * Builds the property definition
 		 * 
 		 * @throws RuntimeException
-		 *             if the class type of the definition is not assigned or
-		 *             null
+		 *             <li>if the class type of the definition is not assigned
+		 *             or null
+		 *             <li>if the map option is {@link MapOption#RANGE} and
+		 *             the class type is not Byte, Short, Integer, Long, Float
+		 *             or Double
 		 */
 		public PropertyDefinition build() {
 			try {				
@@ -102,6 +110,15 @@ public final class PropertyDefinition {
 			scaffold.timeTrackingPolicy = timeTrackingPolicy;
 			return this;
 		}
+
+		/**
+		 * Sets the {@linkplain StorageOption}. Default value is
+		 * {@link StorageOption#HEAP}
+		 */
+		public Builder setStorageOption(StorageOption storageOption) {
+			scaffold.storageOption = storageOption;
+			return this;
+		}
 	}
 
 	private final Class<?> type;
@@ -114,12 +131,21 @@ public final class PropertyDefinition {
 
 	private final TimeTrackingPolicy timeTrackingPolicy;
 
+	private final StorageOption storageOption;
+
+	private static boolean isRangeMappable(Class<?> type) {
+		return type == Byte.class || type == Short.class || type == Integer.class || type == Long.class || type == Float.class || type == Double.class;
+	}
+
 	private PropertyDefinition(Scaffold scaffold) {
 		if(scaffold.type == null) {
 			throw new RuntimeException("property definition requires a non-null type");
 		}
 		this.type = scaffold.type;
 
+		if (scaffold.mapOption == MapOption.RANGE && !isRangeMappable(scaffold.type)) {
+			throw new RuntimeException("range map option requires a numeric primitive wrapper type rather than " + scaffold.type.getName());
+		}
 		this.mapOption = scaffold.mapOption;
 
 		this.propertyValuesAreMutable = scaffold.propertyValuesAreMutable;
@@ -127,6 +153,8 @@ public final class PropertyDefinition {
 		this.defaultValue = scaffold.defaultValue;
 
 		this.timeTrackingPolicy = scaffold.timeTrackingPolicy;
+
+		this.storageOption = scaffold.storageOption;
 	}
 
 	/**
@@ -194,6 +222,13 @@ public final class PropertyDefinition {
 		return timeTrackingPolicy;
 	}
 
+	/**
+	 * Returns the storage option for the property.
+	 */
+	public StorageOption getStorageOption() {
+		return storageOption;
+	}
+
 	/**
 	 * Boilerplate implementation that uses all fields.
 	 */
@@ -205,6 +240,7 @@ public final class PropertyDefinition {
 		result = prime * result + ((defaultValue == null) ? 0 : defaultValue.hashCode());
 		result = prime * result + ((mapOption == null) ? 0 : mapOption.hashCode());
 		result = prime * result + ((timeTrackingPolicy == null) ? 0 : timeTrackingPolicy.hashCode());
+		result = prime * result + ((storageOption == null) ? 0 : storageOption.hashCode());
 		result = prime * result + ((type == null) ? 0 : type.hashCode());
 		return result;
 	}
@@ -232,6 +268,8 @@ public final class PropertyDefinition {
 			return false;
 		if (timeTrackingPolicy != other.timeTrackingPolicy)
 			return false;
+		if (storageOption != other.storageOption)
+			return false;
 		if (type == null) {
 			return other.type == null;
 		} else
@@ -243,7 +281,7 @@ public final class PropertyDefinition {
 	 * 
 	 * PropertyDefinition [type=someType,mapOption=mapOption,
 	 * constantPropertyValues=true, defaultValue=someValue,
-	 * timeTrackingPolicy=policy]
+	 * timeTrackingPolicy=policy, storageOption=storageOption]
 	 */
 
 	@Override
@@ -259,6 +297,8 @@ public final class PropertyDefinition {
 		builder.append(defaultValue);
 		builder.append(", timeTrackingPolicy=");
 		builder.append(timeTrackingPolicy);
+		builder.append(", storageOption=");
+		builder.append(storageOption);
 		builder.append("]");
 		return builder.toString();
 	}
@@ -544,6 +544,18 @@ public interface Scenario {
 
 	public MapOption getRegionMapOption();
 
+	/**
+	 * Returns the MapOption associated with the people holding the given
+	 * resource
+	 * 
+	 * @throws ModelException
+	 *             <li>{@link SimulationErrorType#NULL_RESOURCE_ID} if the
+	 *             resource id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_RESOURCE_ID} if the
+	 *             resource id is unknown
+	 */
+	public MapOption getResourceMapOption(ResourceId resourceId);
+
 	/**
 	 * Returns the group type identifiers for this scenario.
 	 */
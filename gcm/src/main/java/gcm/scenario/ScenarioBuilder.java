@@ -658,6 +658,24 @@ public interface ScenarioBuilder {
 	 */
 	public void setRegionResourceLevel(final RegionId regionId, final ResourceId resourceId, final long amount);
 
+	/**
+	 * Sets the mapping option for the people holding the given resource.
+	 * Defaulted to NONE. When mapped, the people having a non-zero level of
+	 * the resource are retrieved and counted without examining the entire
+	 * population. RANGE is treated as ARRAY.
+	 *
+	 * @throws ScenarioException
+	 *             <li>{@link ScenarioErrorType#NULL_RESOURCE_ID} if the
+	 *             resource id is null
+	 *             <li>{@link ScenarioErrorType#UNKNOWN_RESOURCE_ID} if the
+	 *             resource id is unknown
+	 *             <li>{@link ScenarioErrorType#NULL_RESOURCE_MAP_OPTION} if the
+	 *             mapOption is null
+	 *             <li>{@link ScenarioErrorType#PREVIOUSLY_ASSIGNED_VALUE} if
+	 *             the resource mapOption was previously set
+	 */
+	public void setResourceMapOption(final ResourceId resourceId, final MapOption mapOption);
+
 	/**
 	 * Sets a resource property value for the given property.
 	 *
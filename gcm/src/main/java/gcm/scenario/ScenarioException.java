@@ -83,6 +83,7 @@ public class ScenarioException extends RuntimeException {
 		NULL_REGION_PROPERTY_VALUE("Null region property value"),
 		NULL_REGION_TRACKING_POLICY("Null region tracking policy"),
 		NULL_RESOURCE_ID("Null resource id"),
+		NULL_RESOURCE_MAP_OPTION("Null resource map option"),
 		NULL_RESOURCE_PROPERTY_DEFINITION("Null resource property definition"),
 		NULL_RESOURCE_PROPERTY_ID("Null resource property id"),
 		NULL_RESOURCE_PROPERTY_VALUE("Null resource property value"),
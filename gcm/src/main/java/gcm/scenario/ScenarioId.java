@@ -14,6 +14,8 @@ import net.jcip.annotations.Immutable;
 @Source(status = TestStatus.PROXY,proxy = IntId.class)
 public final class ScenarioId extends IntId{
 
+	private static final long serialVersionUID = 1L;
+
 	public ScenarioId(int id) {
 		super(id);
 	}
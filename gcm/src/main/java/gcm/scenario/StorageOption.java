@@ -0,0 +1,28 @@
+package gcm.scenario;
+
+import gcm.util.annotations.Source;
+
+/**
+ * Enumeration for the control of where the simulation stores the values of
+ * person properties.
+ * 
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public enum StorageOption {
+	/**
+	 * Property values are stored in the Java heap.
+	 */
+	HEAP,
+
+	/**
+	 * Property values are stored outside of the Java heap in direct buffers,
+	 * so that they neither count against the heap nor lengthen garbage
+	 * collection. Access is slightly slower than for heap storage. Applies only
+	 * to person properties having a Boolean, Byte, Short, Integer, Long, Float,
+	 * Double or Enum type, along with their assignment times if tracked. Values
+	 * of other types are stored in the heap.
+	 */
+	OFF_HEAP
+}
@@ -1,5 +1,6 @@
 package gcm.scenario;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -49,7 +50,9 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 	/*
 	 * A container class for holding the data of a scenario.
 	 */
-	private final static class ScenarioData {
+	private final static class ScenarioData implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private ScenarioId scenarioId;
 
@@ -127,6 +130,8 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 
 		private final Map<ResourceId, TimeTrackingPolicy> resourceTimeTrackingPolicies = new LinkedHashMap<>();
 
+		private final Map<ResourceId, MapOption> resourceMapOptions = new LinkedHashMap<>();
+
 		private final Map<GroupId, Set<PersonId>> groupMemberships = new LinkedHashMap<>();
 
 		private final Map<StageId, Set<BatchId>> stageBatches = new LinkedHashMap<>();
@@ -196,6 +201,7 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 			result = prime * result + ((regionPropertyValues == null) ? 0 : regionPropertyValues.hashCode());
 			result = prime * result + ((regionResourceLevels == null) ? 0 : regionResourceLevels.hashCode());
 			result = prime * result + ((resourceIds == null) ? 0 : resourceIds.hashCode());
+			result = prime * result + ((resourceMapOptions == null) ? 0 : resourceMapOptions.hashCode());
 			result = prime * result + ((resourcePropertyDefinitions == null) ? 0 : resourcePropertyDefinitions.hashCode());
 			result = prime * result + ((resourcePropertyValues == null) ? 0 : resourcePropertyValues.hashCode());
 			result = prime * result + ((resourceTimeTrackingPolicies == null) ? 0 : resourceTimeTrackingPolicies.hashCode());
@@ -494,6 +500,13 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 			} else if (!resourcePropertyValues.equals(other.resourcePropertyValues)) {
 				return false;
 			}
+			if (resourceMapOptions == null) {
+				if (other.resourceMapOptions != null) {
+					return false;
+				}
+			} else if (!resourceMapOptions.equals(other.resourceMapOptions)) {
+				return false;
+			}
 			if (resourceTimeTrackingPolicies == null) {
 				if (other.resourceTimeTrackingPolicies != null) {
 					return false;
@@ -551,7 +564,9 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 	/*
 	 * Private implementor class for Scenario.
 	 */
-	private final static class ScenarioImpl implements Scenario {
+	private final static class ScenarioImpl implements Scenario, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		@Override
 		public int hashCode() {
@@ -1020,6 +1035,16 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 			return scenarioData.regionMapOption;
 		}
 
+		@Override
+		public MapOption getResourceMapOption(final ResourceId resourceId) {
+			validateResourceExists(scenarioData, resourceId);
+			MapOption result = scenarioData.resourceMapOptions.get(resourceId);
+			if (result == null) {
+				result = MapOption.NONE;
+			}
+			return result;
+		}
+
 		@Override
 		public PropertyDefinition getRegionPropertyDefinition(final RegionPropertyId regionPropertyId) {
 			validateRegionPropertyIsDefined(scenarioData, regionPropertyId);
@@ -1761,6 +1786,12 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 		}
 	}
 
+	private static void validateResourceMapOptionNotSet(final ScenarioData scenarioData, final ResourceId resourceId) {
+		if (scenarioData.resourceMapOptions.get(resourceId) != null) {
+			throwPreviouslyAssignedValueException("resource map option for " + resourceId);
+		}
+	}
+
 	private static void validateResourceTimeTrackingNotSet(final ScenarioData scenarioData, final ResourceId resourceId) {
 		if (scenarioData.resourceTimeTrackingPolicies.get(resourceId) != null) {
 			throwPreviouslyAssignedValueException("resource time tracking for " + resourceId);
@@ -2100,6 +2131,9 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 				if (timeTrackingPolicy == null) {
 					scenarioData.resourceTimeTrackingPolicies.put(resourceId, TimeTrackingPolicy.DO_NOT_TRACK_TIME);
 				}
+				if (scenarioData.resourceMapOptions.get(resourceId) == null) {
+					scenarioData.resourceMapOptions.put(resourceId, MapOption.NONE);
+				}
 			}
 
 			if (useDefaultPropertyNullChecks) {
@@ -2668,6 +2702,20 @@ public final class StructuredScenarioBuilder implements ScenarioBuilder {
 
 	}
 
+	@Override
+	public void setResourceMapOption(final ResourceId resourceId, final MapOption mapOption) {
+		acquireLock();
+		try {
+			validateResourceExists(scenarioData, resourceId);
+			validateNotNull(ScenarioErrorType.NULL_RESOURCE_MAP_OPTION, mapOption);
+			validateResourceMapOptionNotSet(scenarioData, resourceId);
+			scenarioData.resourceMapOptions.put(resourceId, mapOption);
+		} finally {
+			releaseLock();
+		}
+
+	}
+
 	@Override
 	public void setResourcePropertyValue(final ResourceId resourceId, final ResourcePropertyId resourcePropertyId, final Object resourcePropertyValue) {
 		acquireLock();
@@ -5,11 +5,44 @@ import gcm.util.annotations.Source;
 /**
  * An enumeration used to control the modeler choice of tracking the last
  * assignment times of properties and other values.
- * 
+ *
+ * <li>TRACK_TIME : assignment times are recorded with full double precision
+ * <li>DO_NOT_TRACK_TIME : assignment times are not recorded
+ * <li>TRACK_TIME_FLOAT : assignment times are recorded with float precision,
+ * halving the memory required to store them
+ * <li>TRACK_TIME_DAYS : assignment times are recorded as the whole number of
+ * days, i.e. the time rounded down to the nearest integer
+ *
  * @author Shawn Hatch
  *
  */
 @Source
 public enum TimeTrackingPolicy {
-	TRACK_TIME, DO_NOT_TRACK_TIME
+	TRACK_TIME, DO_NOT_TRACK_TIME, TRACK_TIME_FLOAT, TRACK_TIME_DAYS;
+
+	/**
+	 * Returns true if and only if this policy records assignment times
+	 */
+	public boolean isTracked() {
+		return this != DO_NOT_TRACK_TIME;
+	}
+
+	/**
+	 * Returns the time as it is recorded under this policy.
+	 *
+	 * @throws RuntimeException
+	 *             if this policy does not record assignment times
+	 */
+	public double getRecordedTime(double time) {
+		switch (this) {
+		case TRACK_TIME:
+			return time;
+		case TRACK_TIME_FLOAT:
+			return (float) time;
+		case TRACK_TIME_DAYS:
+			return Math.floor(time);
+		default:
+			throw new RuntimeException("assignment times are not recorded under " + this);
+		}
+	}
 }
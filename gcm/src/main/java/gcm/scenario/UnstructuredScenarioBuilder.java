@@ -233,6 +233,12 @@ public final class UnstructuredScenarioBuilder implements ScenarioBuilder {
 				structuredScenarioBuilder.setResourceTimeTracking(resourceId, timeTrackingPolicy);
 			}
 
+			for (final MultiKey multiKey : get(ActionType.RESOURCE_MAP_OPTION_ASSIGNMENT)) {
+				final ResourceId resourceId = multiKey.getKey(0);
+				final MapOption mapOption = multiKey.getKey(1);
+				structuredScenarioBuilder.setResourceMapOption(resourceId, mapOption);
+			}
+
 			for (final MultiKey multiKey : get(ActionType.RESOURCE_PROPERTY_VALUE_ASSIGNMENT)) {
 				final ResourceId resourceId = multiKey.getKey(0);
 				final ResourcePropertyId resourcePropertyId = multiKey.getKey(1);
@@ -489,6 +495,11 @@ public final class UnstructuredScenarioBuilder implements ScenarioBuilder {
 
 	}
 
+	@Override
+	public void setResourceMapOption(final ResourceId resourceId, final MapOption mapOption) {
+		put(ActionType.RESOURCE_MAP_OPTION_ASSIGNMENT, resourceId, mapOption);
+	}
+
 	@Override
 	public void setResourcePropertyValue(final ResourceId resourceId, final ResourcePropertyId resourcePropertyId, final Object propertyValue) {
 		put(ActionType.RESOURCE_PROPERTY_VALUE_ASSIGNMENT, resourceId, resourcePropertyId, propertyValue);
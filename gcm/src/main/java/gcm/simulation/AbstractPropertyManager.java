@@ -1,39 +1,58 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
+
+import org.apache.commons.math3.random.RandomGenerator;
 
 import gcm.scenario.MapOption;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.StorageOption;
 import gcm.scenario.TimeTrackingPolicy;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 import gcm.util.containers.ArrayIntSet;
-import gcm.util.containers.DoubleValueContainer;
+import gcm.util.containers.BitmapIntSet;
 import gcm.util.containers.HashIntSet;
 import gcm.util.containers.IntSet;
+import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.OffHeapValueContainer;
+import gcm.util.containers.PagedDoubleValueContainer;
+import gcm.util.containers.PagedFloatValueContainer;
+import gcm.util.containers.PagedIntValueContainer;
+import gcm.util.containers.RangeIndex;
 
 /**
  * The abstract base class for all PropertyManager implementors.
  * 
  * It implements all property time recording and reverse mapping of property
- * values to people. Its implementation of these methods is final.
+ * values to people. Its implementation of these methods is final. Properties
+ * with the RANGE map option are reverse mapped with a RangeIndex over an
+ * order preserving long encoding of their numeric values rather than with a
+ * map of values to IntSets.
  * 
  * It also implements setPropertyValue() and descendant classes are expected to
  * invoke super.setPropertyValue()
  * 
  * Finally, it leaves the implementation of getPropertyValue() to its descendant
- * classes
+ * classes. Its implementations of the primitive getters unbox the result of
+ * getPropertyValue() and its implementations of the primitive setters box the
+ * value for setPropertyValue(). Both are overridden by descendants that store
+ * primitive values.
  * 
  * @author Shawn Hatch
  *
  */
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
-public abstract class AbstractPropertyManager implements PersonPropertyManager {
+public abstract class AbstractPropertyManager implements PersonPropertyManager, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private PersonIdManager personIdManager;
 
@@ -46,16 +65,53 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 	private Map<Object, IntSet<PersonId>> propertyValuesToPeopleMap;
 
 	/*
-	 * Contains the assignment times for this property value. Subject to
-	 * tracking policy.
+	 * Holds the people in the order of their property values. Used instead of
+	 * the propertyValuesToPeopleMap under the RANGE map option.
+	 */
+	private RangeIndex rangeIndex;
+
+	/*
+	 * True if the range index keys are derived from floating point values
+	 */
+	private boolean floatingPointRangeKeys;
+
+	/*
+	 * Contains the assignment times for this property value under the
+	 * TRACK_TIME policy. Allocated when the first time is recorded.
+	 */
+	private PagedDoubleValueContainer timeTrackingContainer;
+
+	/*
+	 * Contains the assignment times under the TRACK_TIME_FLOAT policy.
+	 * Allocated when the first time is recorded.
 	 */
-	private DoubleValueContainer timeTrackingContainer;
+	private PagedFloatValueContainer floatTimeTrackingContainer;
+
+	/*
+	 * Contains the assignment days under the TRACK_TIME_DAYS policy. Allocated
+	 * when the first time is recorded.
+	 */
+	private PagedIntValueContainer dayTimeTrackingContainer;
+
+	/*
+	 * Contains the assignment times, as double bits, float bits or days
+	 * depending on the tracking policy, outside of the heap. Used instead of
+	 * the other time tracking containers when the property is stored off heap.
+	 * Allocated when the first time is recorded.
+	 */
+	private OffHeapValueContainer offHeapTimeTrackingContainer;
 
 	/*
 	 * The time tracking policy.
 	 */
+	private final TimeTrackingPolicy timeTrackingPolicy;
+
 	private final boolean trackTime;
 
+	private final boolean offHeap;
+
+	private final int suggestedPopulationSize;
+
 	/*
 	 * The property that this AbstractProperty Manager represents.
 	 */
@@ -65,9 +121,15 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 	 * The scenario-defined mapping option that determines which, if any, IntSet
 	 * implementor we are to use. ArrayIntSet is slightly slower, but takes much
 	 * less memory. HashIntSet is just a wrapper around a LinkedHashSet.
+	 * BitmapIntSet stores only the int values of the people.
 	 */
 	private final MapOption mapOption;
 
+	/*
+	 * Reconstitutes the people held in BitmapIntSets from their int values
+	 */
+	private IntFunction<PersonId> personIdFactory;
+
 	/*
 	 * Constructs an IntSet based on the mapOption setting.
 	 */
@@ -77,12 +139,89 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 			return new ArrayIntSet<>();
 		case HASH:
 			return new HashIntSet<>();
+		case BITMAP:
+			return new BitmapIntSet<>(personIdFactory);
+		case RANGE:// fall through
 		case NONE:// fall through
 		default:
 			throw new RuntimeException("unhandled map option " + mapOption);
 		}
 	}
 
+	/*
+	 * Returns a long that orders the numeric property value as compareTo()
+	 * does. Floating point values are mapped through their bit patterns, with
+	 * the non-sign bits of negative values inverted so that the ordering of
+	 * the signed bit patterns matches the ordering of the values.
+	 */
+	private long getRangeKey(Object propertyValue) {
+		Number number = (Number) propertyValue;
+		if (floatingPointRangeKeys) {
+			long bits = Double.doubleToLongBits(number.doubleValue());
+			if (bits < 0) {
+				bits ^= Long.MAX_VALUE;
+			}
+			return bits;
+		}
+		return number.longValue();
+	}
+
+	/*
+	 * Returns the positions within the range index of the people whose values
+	 * satisfy the comparison as the two half-open intervals [result[0],
+	 * result[1]) and [result[2], result[3])
+	 */
+	private int[] getRangeIndexPositions(Equality equality, Object propertyValue) {
+		long key = getRangeKey(propertyValue);
+		int lessCount = rangeIndex.rank(key, false);
+		int lessOrEqualCount = rangeIndex.rank(key, true);
+		int n = rangeIndex.size();
+		switch (equality) {
+		case LESS_THAN:
+			return new int[] { 0, lessCount, n, n };
+		case LESS_THAN_EQUAL:
+			return new int[] { 0, lessOrEqualCount, n, n };
+		case EQUAL:
+			return new int[] { lessCount, lessOrEqualCount, n, n };
+		case NOT_EQUAL:
+			return new int[] { 0, lessCount, lessOrEqualCount, n };
+		case GREATER_THAN_EQUAL:
+			return new int[] { lessCount, n, n, n };
+		case GREATER_THAN:
+			return new int[] { lessOrEqualCount, n, n, n };
+		default:
+			throw new RuntimeException("unhandled equality " + equality);
+		}
+	}
+
+	private List<PersonId> getPeopleAtRangeIndexPositions(int[] positions) {
+		List<PersonId> result = new ArrayList<>(positions[1] - positions[0] + positions[3] - positions[2]);
+		for (int i = 0; i < positions.length; i += 2) {
+			for (int personIndex : rangeIndex.getValues(positions[i], positions[i + 1])) {
+				result.add(personIdManager.getBoxedPersonId(personIndex));
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Returns true if and only if the person property value compares to the
+	 * given value as specified by the equality. Mirrors the evaluation of
+	 * property filters.
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private static boolean isCompatibleValue(Object personPropertyValue, Equality equality, Object propertyValue) {
+		switch (equality) {
+		case EQUAL:
+			return personPropertyValue.equals(propertyValue);
+		case NOT_EQUAL:
+			return !personPropertyValue.equals(propertyValue);
+		default:
+			int evaluation = ((Comparable) personPropertyValue).compareTo(propertyValue);
+			return equality.isCompatibleComparisonValue(evaluation);
+		}
+	}
+
 	/**
 	 * Constructs an AbstractPropertyManger. Establishes the time tracking and
 	 * map option policies from the environment. Establishes the property value
@@ -96,15 +235,24 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 		this.personIdManager = context.getPersonIdManager();
 		this.eventManger = context.getEventManager();
 		this.personPropertyId = personPropertyId;
-		trackTime = propertyDefinition.getTimeTrackingPolicy() == TimeTrackingPolicy.TRACK_TIME;
-		int suggestedPopulationSize = context.getScenario().getSuggestedPopulationSize();
-		timeTrackingContainer = new DoubleValueContainer(0, suggestedPopulationSize);
+		timeTrackingPolicy = propertyDefinition.getTimeTrackingPolicy();
+		trackTime = timeTrackingPolicy.isTracked();
+		offHeap = propertyDefinition.getStorageOption() == StorageOption.OFF_HEAP;
+		suggestedPopulationSize = context.getScenario().getSuggestedPopulationSize();
 		mapOption = propertyDefinition.getMapOption();
 		switch (mapOption) {
 		case ARRAY:
 		case HASH:
 			propertyValuesToPeopleMap = new LinkedHashMap<>();
 			break;
+		case BITMAP:
+			propertyValuesToPeopleMap = new LinkedHashMap<>();
+			personIdFactory = (IntFunction<PersonId> & Serializable) personIdManager::getBoxedPersonId;
+			break;
+		case RANGE:
+			rangeIndex = new RangeIndex(suggestedPopulationSize);
+			floatingPointRangeKeys = propertyDefinition.getType() == Double.class || propertyDefinition.getType() == Float.class;
+			break;
 		case NONE:// fall through
 		default:
 			// do nothing
@@ -113,13 +261,165 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 
 	}
 
+	@Override
+	public int getPropertyIntValue(PersonId personId) {
+		Number value = getPropertyValue(personId);
+		return value.intValue();
+	}
+
+	@Override
+	public long getPropertyLongValue(PersonId personId) {
+		Number value = getPropertyValue(personId);
+		return value.longValue();
+	}
+
+	@Override
+	public double getPropertyDoubleValue(PersonId personId) {
+		Number value = getPropertyValue(personId);
+		return value.doubleValue();
+	}
+
+	@Override
+	public boolean getPropertyBooleanValue(PersonId personId) {
+		Boolean value = getPropertyValue(personId);
+		return value;
+	}
+
+	/*
+	 * The block reads below box the values and are replaced by the managers
+	 * of the primitive and enum types
+	 */
+	@Override
+	public void getPropertyLongValues(int firstPersonIdValue, long candidates, long[] values) {
+		while (candidates != 0) {
+			final int bit = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			values[bit] = getPropertyLongValue(new PersonId(firstPersonIdValue + bit));
+		}
+	}
+
+	@Override
+	public void getPropertyDoubleValues(int firstPersonIdValue, long candidates, double[] values) {
+		while (candidates != 0) {
+			final int bit = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			values[bit] = getPropertyDoubleValue(new PersonId(firstPersonIdValue + bit));
+		}
+	}
+
+	@Override
+	public void getPropertyOrdinals(int firstPersonIdValue, long candidates, int[] ordinals) {
+		while (candidates != 0) {
+			final int bit = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			final Enum<?> value = getPropertyValue(new PersonId(firstPersonIdValue + bit));
+			ordinals[bit] = value.ordinal();
+		}
+	}
+
+	@Override
+	public long getPropertyBooleanValues(int firstPersonIdValue, long candidates) {
+		long result = 0;
+		long remaining = candidates;
+		while (remaining != 0) {
+			final long bit = Long.lowestOneBit(remaining);
+			remaining ^= bit;
+			if (getPropertyBooleanValue(new PersonId(firstPersonIdValue + Long.numberOfTrailingZeros(bit)))) {
+				result |= bit;
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Records the current time as the assignment time for the person under
+	 * the time tracking policy, allocating the time tracking container if
+	 * this is the first time recorded.
+	 */
+	private void recordTime(int personIndex) {
+		double time = eventManger.getTime();
+		if (offHeap) {
+			if (offHeapTimeTrackingContainer == null) {
+				IntValueType intValueType = timeTrackingPolicy == TimeTrackingPolicy.TRACK_TIME ? IntValueType.LONG : IntValueType.INT;
+				offHeapTimeTrackingContainer = new OffHeapValueContainer(intValueType, 0, suggestedPopulationSize);
+			}
+			switch (timeTrackingPolicy) {
+			case TRACK_TIME:
+				offHeapTimeTrackingContainer.setValue(personIndex, Double.doubleToRawLongBits(time));
+				break;
+			case TRACK_TIME_FLOAT:
+				offHeapTimeTrackingContainer.setValue(personIndex, Float.floatToRawIntBits((float) time));
+				break;
+			default:
+				offHeapTimeTrackingContainer.setValue(personIndex, (int) timeTrackingPolicy.getRecordedTime(time));
+				break;
+			}
+			return;
+		}
+		switch (timeTrackingPolicy) {
+		case TRACK_TIME:
+			if (timeTrackingContainer == null) {
+				timeTrackingContainer = new PagedDoubleValueContainer(0, suggestedPopulationSize);
+			}
+			timeTrackingContainer.setValue(personIndex, time);
+			break;
+		case TRACK_TIME_FLOAT:
+			if (floatTimeTrackingContainer == null) {
+				floatTimeTrackingContainer = new PagedFloatValueContainer(0, suggestedPopulationSize);
+			}
+			floatTimeTrackingContainer.setValue(personIndex, (float) time);
+			break;
+		default:
+			if (dayTimeTrackingContainer == null) {
+				dayTimeTrackingContainer = new PagedIntValueContainer(0, suggestedPopulationSize);
+			}
+			dayTimeTrackingContainer.setIntValue(personIndex, (int) timeTrackingPolicy.getRecordedTime(time));
+			break;
+		}
+	}
+
+	/*
+	 * Returns the recorded assignment time for the person, or zero if no time
+	 * has been recorded for any person
+	 */
+	private double getRecordedTime(int personIndex) {
+		if (offHeap) {
+			if (offHeapTimeTrackingContainer == null) {
+				return 0;
+			}
+			long value = offHeapTimeTrackingContainer.getValue(personIndex);
+			switch (timeTrackingPolicy) {
+			case TRACK_TIME:
+				return Double.longBitsToDouble(value);
+			case TRACK_TIME_FLOAT:
+				return Float.intBitsToFloat((int) value);
+			default:
+				return value;
+			}
+		}
+		switch (timeTrackingPolicy) {
+		case TRACK_TIME:
+			return timeTrackingContainer == null ? 0 : timeTrackingContainer.getValue(personIndex);
+		case TRACK_TIME_FLOAT:
+			return floatTimeTrackingContainer == null ? 0 : floatTimeTrackingContainer.getValue(personIndex);
+		default:
+			return dayTimeTrackingContainer == null ? 0 : dayTimeTrackingContainer.getValueAsInt(personIndex);
+		}
+	}
+
 	@Override
 	public void setPropertyValue(PersonId personId, Object personPropertyValue) {
+		Object oldValue = null;
+		if (trackTime || propertyValuesToPeopleMap != null) {
+			oldValue = getPropertyValue(personId);
+		}
+
 		/*
-		 * Record the time value if we are tracking assignment times.
+		 * Record the time value if we are tracking assignment times and the
+		 * value is changing.
 		 */
-		if (trackTime) {
-			timeTrackingContainer.setValue(personId.getValue(), eventManger.getTime());
+		if (trackTime && !oldValue.equals(personPropertyValue)) {
+			recordTime(personId.getValue());
 		}
 
 		/*
@@ -127,7 +427,6 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 		 * container for the old property value to the new one.
 		 */
 		if (propertyValuesToPeopleMap != null) {
-			Object oldValue = getPropertyValue(personId);
 			IntSet<PersonId> intSet = propertyValuesToPeopleMap.get(oldValue);
 			intSet.remove(personId);
 			intSet = propertyValuesToPeopleMap.get(personPropertyValue);
@@ -137,10 +436,58 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 			}
 			intSet.add(personId);
 		}
+		if (rangeIndex != null) {
+			rangeIndex.add(personId.getValue(), getRangeKey(personPropertyValue));
+		}
 	}
 	
+	@Override
+	public void setPropertyIntValue(PersonId personId, int personPropertyValue) {
+		setPropertyValue(personId, Integer.valueOf(personPropertyValue));
+	}
+
+	@Override
+	public void setPropertyLongValue(PersonId personId, long personPropertyValue) {
+		setPropertyValue(personId, Long.valueOf(personPropertyValue));
+	}
+
+	@Override
+	public void setPropertyDoubleValue(PersonId personId, double personPropertyValue) {
+		setPropertyValue(personId, Double.valueOf(personPropertyValue));
+	}
+
+	@Override
+	public void setPropertyBooleanValue(PersonId personId, boolean personPropertyValue) {
+		setPropertyValue(personId, Boolean.valueOf(personPropertyValue));
+	}
+
+	/*
+	 * Returns true if property values are mapped to people, in which case the
+	 * primitive setters of descendant classes must box the value and defer to
+	 * setPropertyValue()
+	 */
+	protected final boolean isValueMapped() {
+		return propertyValuesToPeopleMap != null || rangeIndex != null;
+	}
+
+	/*
+	 * Performs the time recording of setPropertyValue() for a primitive
+	 * assignment to a property whose values are not mapped to people. The
+	 * descendant class determines whether the value is changing from its
+	 * stored primitive value.
+	 */
+	protected final void handleUnboxedAssignment(PersonId personId, boolean valueChanged) {
+		if (trackTime && valueChanged) {
+			recordTime(personId.getValue());
+		}
+	}
+
 	@Override
 	public int getPersonCountForPropertyValue(final Object propertyValue) {
+		if (rangeIndex != null) {
+			long key = getRangeKey(propertyValue);
+			return rangeIndex.rank(key, true) - rangeIndex.rank(key, false);
+		}
 		/*
 		 * If we are supporting the mapping of property values to people, then
 		 * we simply return what values are in the IntSet
@@ -174,6 +521,9 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 	
 	@Override
 	public final List<PersonId> getPeopleWithPropertyValue(final Object propertyValue) {
+		if (rangeIndex != null) {
+			return getPeopleAtRangeIndexPositions(getRangeIndexPositions(Equality.EQUAL, propertyValue));
+		}
 
 		/*
 		 * If we are supporting the mapping of property values to people, then
@@ -222,8 +572,87 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 		return result;
 	}
 
+	@Override
+	public final List<PersonId> getPeopleForPropertyComparison(final Equality equality, final Object propertyValue) {
+		if (rangeIndex != null) {
+			return getPeopleAtRangeIndexPositions(getRangeIndexPositions(equality, propertyValue));
+		}
+		if (equality == Equality.EQUAL) {
+			return getPeopleWithPropertyValue(propertyValue);
+		}
+		List<PersonId> result = new ArrayList<>();
+		int n = personIdManager.getPersonIdLimit();
+		for (int personIndex = 0; personIndex < n; personIndex++) {
+			if (personIdManager.personIndexExists(personIndex)) {
+				PersonId personId = personIdManager.getBoxedPersonId(personIndex);
+				if (isCompatibleValue(getPropertyValue(personId), equality, propertyValue)) {
+					result.add(personId);
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public final int getPersonCountForPropertyComparison(final Equality equality, final Object propertyValue) {
+		if (rangeIndex != null) {
+			int[] positions = getRangeIndexPositions(equality, propertyValue);
+			return positions[1] - positions[0] + positions[3] - positions[2];
+		}
+		if (equality == Equality.EQUAL) {
+			return getPersonCountForPropertyValue(propertyValue);
+		}
+		int count = 0;
+		if (equality == Equality.NOT_EQUAL && propertyValuesToPeopleMap != null) {
+			for (Map.Entry<Object, IntSet<PersonId>> entry : propertyValuesToPeopleMap.entrySet()) {
+				if (!entry.getKey().equals(propertyValue)) {
+					count += entry.getValue().size();
+				}
+			}
+			return count;
+		}
+		int n = personIdManager.getPersonIdLimit();
+		for (int personIndex = 0; personIndex < n; personIndex++) {
+			if (personIdManager.personIndexExists(personIndex)) {
+				PersonId personId = personIdManager.getBoxedPersonId(personIndex);
+				if (isCompatibleValue(getPropertyValue(personId), equality, propertyValue)) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public final PersonId getRandomPersonForPropertyComparison(final Equality equality, final Object propertyValue, final RandomGenerator randomGenerator) {
+		if (rangeIndex != null) {
+			int[] positions = getRangeIndexPositions(equality, propertyValue);
+			int firstCount = positions[1] - positions[0];
+			int count = firstCount + positions[3] - positions[2];
+			if (count == 0) {
+				return null;
+			}
+			int selection = randomGenerator.nextInt(count);
+			int position;
+			if (selection < firstCount) {
+				position = positions[0] + selection;
+			} else {
+				position = positions[2] + selection - firstCount;
+			}
+			return personIdManager.getBoxedPersonId(rangeIndex.select(position));
+		}
+		List<PersonId> people = getPeopleForPropertyComparison(equality, propertyValue);
+		if (people.isEmpty()) {
+			return null;
+		}
+		return people.get(randomGenerator.nextInt(people.size()));
+	}
+
 	@Override
 	public final void handlePersonAddition(final PersonId personId) {
+		if (rangeIndex != null) {
+			rangeIndex.add(personId.getValue(), getRangeKey(getPropertyValue(personId)));
+		}
 		if (propertyValuesToPeopleMap != null) {
 			Object personPropertyValue = getPropertyValue(personId);
 			IntSet<PersonId> intSet = propertyValuesToPeopleMap.get(personPropertyValue);
@@ -238,6 +667,9 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 
 	@Override
 	public final void handlePersonRemoval(final PersonId personId) {
+		if (rangeIndex != null) {
+			rangeIndex.remove(personId.getValue());
+		}
 		if (propertyValuesToPeopleMap != null) {
 			Object propertyValue = getPropertyValue(personId);
 			IntSet<PersonId> intSet = propertyValuesToPeopleMap.get(propertyValue);
@@ -245,11 +677,18 @@ public abstract class AbstractPropertyManager implements PersonPropertyManager {
 		}
 	}
 
+	@Override
+	public void close() {
+		if (offHeapTimeTrackingContainer != null) {
+			offHeapTimeTrackingContainer.close();
+		}
+	}
+
 	@Override
 	public final double getPropertyTime(PersonId personId) {
 		double result = 0;
 		if (trackTime) {
-			result = timeTrackingContainer.getValue(personId.getValue());
+			result = getRecordedTime(personId.getValue());
 		} else {
 			throw new RuntimeException("Property time values are not being tracked for this property " + personPropertyId);
 		}
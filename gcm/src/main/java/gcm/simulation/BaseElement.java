@@ -1,18 +1,23 @@
 package gcm.simulation;
 
+import java.io.Serializable;
+
 import gcm.util.MemoryPartition;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 
 /**
  * A convenience implementor of Element that throws RuntimeExceptions
- * if init() is invoked more than once.
+ * if init() is invoked more than once. Elements are serializable so that
+ * the state of the simulation can be written to checkpoints.
  * 
  * @author Shawn Hatch
  *
  */
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
-public class BaseElement implements Element {
+public class BaseElement implements Element, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private boolean initialized;
 
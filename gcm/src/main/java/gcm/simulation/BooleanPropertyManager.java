@@ -3,9 +3,12 @@ package gcm.simulation;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.StorageOption;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 import gcm.util.containers.BooleanContainer;
+import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.OffHeapValueContainer;
 
 /**
  * Implementor of PropertyManager that compresses Boolean property values into a
@@ -17,11 +20,20 @@ import gcm.util.containers.BooleanContainer;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class BooleanPropertyManager extends AbstractPropertyManager {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * A container, indexed by person id, that stores boolean values as bits.
 	 */
 	private BooleanContainer boolContainer;
 
+	/*
+	 * A container, indexed by person id, that stores boolean values as bytes
+	 * outside of the heap. Used instead of the boolContainer when the property
+	 * is stored off heap.
+	 */
+	private OffHeapValueContainer offHeapValueContainer;
+
 	/**
 	 * Constructs this BooleanPropertyManager.
 	 * 
@@ -39,20 +51,90 @@ public final class BooleanPropertyManager extends AbstractPropertyManager {
 		}
 		boolean defaultValue = (Boolean) propertyDefinition.getDefaultValue().get();
 		int suggestedPopulationSize = context.getScenario().getSuggestedPopulationSize();
-		boolContainer = new BooleanContainer(defaultValue, suggestedPopulationSize);
+		if (propertyDefinition.getStorageOption() == StorageOption.OFF_HEAP) {
+			offHeapValueContainer = new OffHeapValueContainer(IntValueType.BYTE, defaultValue ? 1 : 0, suggestedPopulationSize);
+		} else {
+			boolContainer = new BooleanContainer(defaultValue, suggestedPopulationSize);
+		}
+	}
+
+	private boolean getValue(PersonId personId) {
+		if (offHeapValueContainer != null) {
+			return offHeapValueContainer.getValue(personId.getValue()) != 0;
+		}
+		return boolContainer.get(personId.getValue());
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T getPropertyValue(PersonId personId) {
-		Boolean result = boolContainer.get(personId.getValue());
+		Boolean result = getValue(personId);
 		return (T) result;
 	}
 
+	@Override
+	public boolean getPropertyBooleanValue(PersonId personId) {
+		return getValue(personId);
+	}
+
+	@Override
+	public long getPropertyBooleanValues(int firstPersonIdValue, long candidates) {
+		long result = 0;
+		long remaining = candidates;
+		if (offHeapValueContainer != null) {
+			while (remaining != 0) {
+				final long bit = Long.lowestOneBit(remaining);
+				remaining ^= bit;
+				if (offHeapValueContainer.getValue(firstPersonIdValue + Long.numberOfTrailingZeros(bit)) != 0) {
+					result |= bit;
+				}
+			}
+		} else {
+			while (remaining != 0) {
+				final long bit = Long.lowestOneBit(remaining);
+				remaining ^= bit;
+				if (boolContainer.get(firstPersonIdValue + Long.numberOfTrailingZeros(bit))) {
+					result |= bit;
+				}
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public void setPropertyValue(PersonId personId, Object personPropertyValue) {
 		super.setPropertyValue(personId, personPropertyValue);
 		Boolean b = (Boolean) personPropertyValue;
-		boolContainer.set(personId.getValue(), b.booleanValue());
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), b ? 1 : 0);
+		} else {
+			boolContainer.set(personId.getValue(), b.booleanValue());
+		}
+	}
+
+	/*
+	 * Writes the stored value directly unless property values are mapped to
+	 * people.
+	 */
+	@Override
+	public void setPropertyBooleanValue(PersonId personId, boolean personPropertyValue) {
+		if (isValueMapped()) {
+			super.setPropertyBooleanValue(personId, personPropertyValue);
+			return;
+		}
+		handleUnboxedAssignment(personId, getValue(personId) != personPropertyValue);
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), personPropertyValue ? 1 : 0);
+		} else {
+			boolContainer.set(personId.getValue(), personPropertyValue);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.close();
+		}
+		super.close();
 	}
 }
@@ -0,0 +1,145 @@
+package gcm.simulation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import gcm.output.OutputItem;
+import gcm.scenario.ReplicationId;
+import gcm.scenario.ScenarioId;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * Manages the checkpoint files of a single simulation instance within a
+ * checkpoint directory. Since the files are named by the scenario and
+ * replication ids, the simulation instances of an experiment may share a
+ * single directory.
+ *
+ * A checkpoint is composed of a context file holding the serialized state of
+ * the simulation and a sequence of output item segment files. Each time a
+ * checkpoint is written, the output items released since the previous
+ * checkpoint are written as the next segment, followed by the context. All
+ * files are written to a temporary file and then moved into place, so that a
+ * failure while writing leaves the previous checkpoint intact. Segments beyond
+ * the segment count recorded in the context are ignored and are overwritten by
+ * later checkpoints.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = Simulation.class)
+public final class CheckpointStore {
+
+	private final Path directory;
+
+	private final String baseName;
+
+	/**
+	 * Constructs the CheckpointStore for the given scenario and replication
+	 *
+	 * @throws RuntimeException
+	 *             if the directory is null
+	 */
+	public CheckpointStore(final Path directory, final ScenarioId scenarioId, final ReplicationId replicationId) {
+		if (directory == null) {
+			throw new RuntimeException("null checkpoint directory");
+		}
+		this.directory = directory;
+		baseName = "scenario_" + scenarioId.getValue() + "_replication_" + replicationId.getValue();
+	}
+
+	private Path getContextPath() {
+		return directory.resolve(baseName + ".checkpoint");
+	}
+
+	private Path getSegmentPath(final int segment) {
+		return directory.resolve(baseName + "_" + segment + ".items");
+	}
+
+	private static void write(final Path path, final Object value) {
+		final Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			Files.createDirectories(path.getParent());
+			try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tempPath)))) {
+				objectOutputStream.writeObject(value);
+			}
+			try {
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static Object read(final Path path) {
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			return objectInputStream.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Returns true if and only if a checkpoint exists
+	 */
+	public boolean exists() {
+		return Files.exists(getContextPath());
+	}
+
+	/**
+	 * Writes the given output items as the segment with the given index
+	 */
+	public void writeOutputItems(final int segment, final List<OutputItem> outputItems) {
+		write(getSegmentPath(segment), outputItems);
+	}
+
+	/**
+	 * Returns the output items of the segment with the given index
+	 */
+	@SuppressWarnings("unchecked")
+	public List<OutputItem> readOutputItems(final int segment) {
+		return (List<OutputItem>) read(getSegmentPath(segment));
+	}
+
+	/**
+	 * Writes the context, replacing any previous checkpoint
+	 */
+	public void writeContext(final Context context) {
+		write(getContextPath(), context);
+	}
+
+	/**
+	 * Returns the context of the checkpoint
+	 */
+	public Context readContext() {
+		return (Context) read(getContextPath());
+	}
+
+	/**
+	 * Deletes all checkpoint files for the scenario and replication
+	 */
+	public void delete() {
+		if (!Files.isDirectory(directory)) {
+			return;
+		}
+		try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory, baseName + "{.checkpoint,_*.items}*")) {
+			for (final Path path : directoryStream) {
+				Files.deleteIfExists(path);
+			}
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
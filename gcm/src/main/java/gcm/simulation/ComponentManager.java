@@ -38,6 +38,14 @@ public interface ComponentManager extends Element {
 	 */
 	public void setFocus(ComponentId componentId);
 
+	/**
+	 * Sets the focus on the component with the given component index
+	 * 
+	 * @throws RuntimeException
+	 *             if the component index is unknown
+	 */
+	public void setFocus(int componentIndex);
+
 	/**
 	 * Returns the Component that is currently in focus. Returns null if no
 	 * component has focus.
@@ -50,6 +58,30 @@ public interface ComponentManager extends Element {
 	 */
 	public <T extends ComponentId> T getFocalComponentId();
 
+	/**
+	 * Returns the component index of the Component that is currently in focus.
+	 * Component indices are dense, non-negative and assigned in the order that
+	 * components are added.
+	 */
+	public int getFocalComponentIndex();
+
+	/**
+	 * Returns the id of the Component with the given component index
+	 * 
+	 * @throws RuntimeException
+	 *             if the component index is unknown
+	 */
+	public <T extends ComponentId> T getComponentId(int componentIndex);
+
+	/**
+	 * Returns the Component with the given component index. Returns null for
+	 * placeholder component ids that have no corresponding Component.
+	 * 
+	 * @throws RuntimeException
+	 *             if the component index is unknown
+	 */
+	public Component getComponent(int componentIndex);
+
 	/**
 	 * Returns the id of the Component that is currently in focus. Returns
 	 * ComponentType.SIM if no component has focus.
@@ -1,7 +1,10 @@
 package gcm.simulation;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -26,7 +29,11 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class ComponentManagerImpl extends BaseElement implements ComponentManager {
 
-	private static class ComponentRecord {
+	private static final long serialVersionUID = 1L;
+
+	private static class ComponentRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private Component component;
 
@@ -34,6 +41,8 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 
 		private final ComponentId componentId;
 
+		private int componentIndex;
+
 		public ComponentRecord(final Component component, final ComponentType componentType, final ComponentId componentId) {
 			this.component = component;
 			this.componentType = componentType;
@@ -46,12 +55,24 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 	 * Produce a ComponentId that can be used when no Component has focus and
 	 * that is guaranteed to not match any other ComponentId.
 	 */
-	private static final ComponentId GCM = new ComponentId() {
+	private static final ComponentId GCM = new SimComponentId();
+
+	private static final class SimComponentId implements ComponentId, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public String toString() {
 			return "GCM";
 		}
-	};
+
+		/*
+		 * Preserves the singleton when a checkpoint is restored
+		 */
+		private Object readResolve() {
+			return GCM;
+		}
+	}
 
 	private ProfileManager profileManager;
 
@@ -59,6 +80,29 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 
 	private final Map<ComponentId, ComponentRecord> componentRecords = new LinkedHashMap<>();
 
+	/*
+	 * The component records indexed by component index
+	 */
+	private final List<ComponentRecord> indexedComponentRecords = new ArrayList<>();
+
+	/*
+	 * Adds the component record, assigning it the next component index. A
+	 * record that replaces an existing record retains the existing index.
+	 */
+	private void addComponentRecord(final ComponentRecord componentRecord) {
+		final ComponentRecord oldComponentRecord = componentRecords.put(componentRecord.componentId, componentRecord);
+		if (oldComponentRecord == null) {
+			componentRecord.componentIndex = indexedComponentRecords.size();
+			indexedComponentRecords.add(componentRecord);
+		} else {
+			componentRecord.componentIndex = oldComponentRecord.componentIndex;
+			indexedComponentRecords.set(componentRecord.componentIndex, componentRecord);
+		}
+		if (oldComponentRecord != null && focalComponentRecord == oldComponentRecord) {
+			focalComponentRecord = componentRecord;
+		}
+	}
+
 	@Override
 	public void clearFocus() {
 		setFocus(GCM);
@@ -104,6 +148,28 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 		return (T) focalComponentRecord.componentId;
 	}
 
+	@Override
+	public int getFocalComponentIndex() {
+		return focalComponentRecord.componentIndex;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends ComponentId> T getComponentId(final int componentIndex) {
+		if (componentIndex < 0 || componentIndex >= indexedComponentRecords.size()) {
+			throw new RuntimeException("unknown component index " + componentIndex);
+		}
+		return (T) indexedComponentRecords.get(componentIndex).componentId;
+	}
+
+	@Override
+	public Component getComponent(final int componentIndex) {
+		if (componentIndex < 0 || componentIndex >= indexedComponentRecords.size()) {
+			throw new RuntimeException("unknown component index " + componentIndex);
+		}
+		return indexedComponentRecords.get(componentIndex).component;
+	}
+
 	@Override
 	public ComponentType getFocalComponentType() {
 		return focalComponentRecord.componentType;
@@ -114,12 +180,17 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 	 * one is needed.
 	 */
 	private InternalComponentId getMemoryReportComponentId() {
-		return new InternalComponentId() {
-			@Override
-			public String toString() {
-				return "Memory Report Internal ComponentId";
-			}
-		};
+		return new MemoryReportComponentId();
+	}
+
+	private static final class MemoryReportComponentId implements InternalComponentId, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String toString() {
+			return "Memory Report Internal ComponentId";
+		}
 	}
 
 	@Override
@@ -139,24 +210,24 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 		for (final GlobalComponentId globalComponentId : scenario.getGlobalComponentIds()) {
 			final Class<? extends Component> componentClass = scenario.getGlobalComponentClass(globalComponentId);
 			final Component component = getComponent(componentClass);
-			componentRecords.put(globalComponentId, new ComponentRecord(component, ComponentType.GLOBAL, globalComponentId));
+			addComponentRecord(new ComponentRecord(component, ComponentType.GLOBAL, globalComponentId));
 		}
 		for (final RegionId regionId : scenario.getRegionIds()) {
 			final Class<? extends Component> componentClass = scenario.getRegionComponentClass(regionId);
 			final Component component = getComponent(componentClass);
-			componentRecords.put(regionId, new ComponentRecord(component, ComponentType.REGION, regionId));
+			addComponentRecord(new ComponentRecord(component, ComponentType.REGION, regionId));
 		}
 
 		for (final CompartmentId compartmentId : scenario.getCompartmentIds()) {
 			final Class<? extends Component> componentClass = scenario.getCompartmentComponentClass(compartmentId);
 			final Component component = getComponent(componentClass);
-			componentRecords.put(compartmentId, new ComponentRecord(component, ComponentType.COMPARTMENT, compartmentId));
+			addComponentRecord(new ComponentRecord(component, ComponentType.COMPARTMENT, compartmentId));
 		}
 
 		for (final MaterialsProducerId materialsProducerId : scenario.getMaterialsProducerIds()) {
 			final Class<? extends Component> componentClass = scenario.getMaterialsProducerComponentClass(materialsProducerId);
 			final Component component = getComponent(componentClass);
-			componentRecords.put(materialsProducerId, new ComponentRecord(component, ComponentType.MATERIALS_PRODUCER, materialsProducerId));
+			addComponentRecord(new ComponentRecord(component, ComponentType.MATERIALS_PRODUCER, materialsProducerId));
 		}
 
 		/*
@@ -166,7 +237,7 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 		if (context.getMemoryReportInterval() > 0) {
 			final MemoryReportComponent memoryReportComponent = new MemoryReportComponent(context);
 			final InternalComponentId memoryReportComponentId = getMemoryReportComponentId();
-			componentRecords.put(memoryReportComponentId, new ComponentRecord(memoryReportComponent, ComponentType.INTERNAL, memoryReportComponentId));
+			addComponentRecord(new ComponentRecord(memoryReportComponent, ComponentType.INTERNAL, memoryReportComponentId));
 		}
 
 		/*
@@ -174,7 +245,7 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 		 * modeler provided identifiers since it does not implement any of the
 		 * required marker interfaces.
 		 */
-		componentRecords.put(GCM, new ComponentRecord(null, ComponentType.SIM, GCM));
+		addComponentRecord(new ComponentRecord(null, ComponentType.SIM, GCM));
 
 		// initialize the focus
 		setFocus(GCM);
@@ -198,10 +269,18 @@ public final class ComponentManagerImpl extends BaseElement implements Component
 		focalComponentRecord = componentRecord;
 	}
 
+	@Override
+	public void setFocus(final int componentIndex) {
+		if (componentIndex < 0 || componentIndex >= indexedComponentRecords.size()) {
+			throw new RuntimeException("unknown component index " + componentIndex);
+		}
+		focalComponentRecord = indexedComponentRecords.get(componentIndex);
+	}
+
 	@Override
 	public void addGlobalComponent(GlobalComponentId globalComponentId, Class<? extends Component> globalComponentClass) {
 		//TODO -- proxy wrapping not addressed
 		final Component component = getComponent(globalComponentClass);
-		componentRecords.put(globalComponentId, new ComponentRecord(component, ComponentType.GLOBAL, globalComponentId));
+		addComponentRecord(new ComponentRecord(component, ComponentType.GLOBAL, globalComponentId));
 	}
 }
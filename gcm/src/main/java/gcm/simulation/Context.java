@@ -1,14 +1,19 @@
 package gcm.simulation;
 
+import java.io.Serializable;
+import java.nio.file.Path;
 import java.util.ArrayList;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+import gcm.output.OutputItem;
 import gcm.output.OutputItemHandler;
 import gcm.output.simstate.NIOMemoryReportItemHandler;
 import gcm.output.simstate.NIOPlanningQueueReportItemHandler;
 import gcm.output.simstate.ProfileItem;
 import gcm.replication.Replication;
+import gcm.scenario.GlobalPropertyId;
 import gcm.scenario.Scenario;
 import gcm.util.MemoryPartition;
 import gcm.util.annotations.Source;
@@ -24,12 +29,28 @@ import net.jcip.annotations.NotThreadSafe;
  * 
  * Construction is managed through the contained builder class.
  * 
+ * The Context is serializable so that the state of a simulation can be written
+ * to periodic checkpoints. A Context built while a checkpoint for its scenario
+ * and replication exists in the checkpoint directory is restored from that
+ * checkpoint and resumes execution from the time of the checkpoint. Output item
+ * handlers are not part of the checkpoint and are supplied anew to the restored
+ * Context.
+ * 
+ * Serialization also supports snapshots. A Context built with a snapshot time
+ * suspends once all plans due before that time have been executed and captures
+ * its state in a {@link SimulationSnapshot}. A Context built from a snapshot is
+ * a fork of the suspended simulation that continues under its own scenario and
+ * replication.
+ * 
  * @author Shawn Hatch
  *
  */
 @Source(status = TestStatus.PROXY, proxy = Simulation.class)
 @NotThreadSafe
-public final class Context implements MemoryReportParticipant {
+public final class Context implements MemoryReportParticipant, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
 
 	private Replication replication;
 	private Scenario scenario;
@@ -51,7 +72,7 @@ public final class Context implements MemoryReportParticipant {
 	private PersonIdManager personIdManager;
 	private ExternalAccessManager externalAccessManager;
 	private MutationResolver mutationResolver;
-	private List<OutputItemHandler> outputItemHandlers;
+	private transient List<OutputItemHandler> outputItemHandlers;
 	private OutputItemManager outputItemManager;
 	private ProfileManager profileManager;
 	private PlanningQueueReportItemManager planningQueueReportItemManager;
@@ -59,6 +80,48 @@ public final class Context implements MemoryReportParticipant {
 	private double memoryReportInterval;
 	private boolean produceProfileItems;
 	private long planningQueueReportThreshold;
+	private final PlanningQueueType planningQueueType;
+	private final boolean observationCoalescing;
+	private final double checkpointInterval;
+
+	/*
+	 * The checkpoint store is null if the simulation is not checkpointing. The
+	 * segment count is the number of output item segments in the store.
+	 */
+	private transient CheckpointStore checkpointStore;
+	private int checkpointSegmentCount;
+
+	/*
+	 * True if this Context was restored from a checkpoint
+	 */
+	private transient boolean restored;
+
+	/*
+	 * The time at which this Context suspends to produce a snapshot. A
+	 * non-positive value indicates that no snapshot is produced.
+	 */
+	private transient double snapshotTime;
+
+	private transient SimulationSnapshot snapshot;
+
+	/*
+	 * The scenario and replication under which a Context forked from a
+	 * snapshot continues. Null unless this Context was forked from a snapshot.
+	 */
+	private transient Scenario forkScenario;
+
+	private transient Replication forkReplication;
+
+	/*
+	 * The pool used to test large numbers of people against filters
+	 * concurrently and the number of people at or above which it is used. The
+	 * pool is null if all filter tests are sequential. Neither is part of the
+	 * state of the simulation, so both are supplied anew to restored and
+	 * forked contexts.
+	 */
+	private transient ForkJoinPool filterEvaluationPool;
+
+	private transient int parallelFilterEvaluationThreshold;
 
 	private Context(Scaffold scaffold) {
 		/*
@@ -67,6 +130,15 @@ public final class Context implements MemoryReportParticipant {
 
 		scenario = scaffold.scenario;
 		replication = scaffold.replication;
+		planningQueueType = scaffold.planningQueueType;
+		observationCoalescing = scaffold.observationCoalescing;
+		checkpointInterval = scaffold.checkpointInterval;
+		snapshotTime = scaffold.snapshotTime;
+		filterEvaluationPool = scaffold.filterEvaluationPool;
+		parallelFilterEvaluationThreshold = scaffold.parallelFilterEvaluationThreshold;
+		if (checkpointInterval > 0) {
+			checkpointStore = new CheckpointStore(scaffold.checkpointDirectory, scenario.getScenarioId(), replication.getId());
+		}
 		profileManager = new ProfileManager();
 		outputItemManager = new OutputItemManagerImpl();
 		simulationWarningManager = new SimulationWarningManagerImpl(); 
@@ -92,6 +164,12 @@ public final class Context implements MemoryReportParticipant {
 		memoryReportManager = new MemoryReportManagerImpl();
 	}
 
+	/*
+	 * Below this number of people the cost of splitting a filter test across
+	 * the threads of a pool outweighs its benefit
+	 */
+	private static final int DEFAULT_PARALLEL_FILTER_EVALUATION_THRESHOLD = 1 << 16;
+
 	/*
 	 * Container class for the builder
 	 */
@@ -99,6 +177,14 @@ public final class Context implements MemoryReportParticipant {
 		private Scenario scenario;
 		private Replication replication;
 		private List<OutputItemHandler> outputItemHandlers = new ArrayList<>();
+		private PlanningQueueType planningQueueType = PlanningQueueType.RECORD;
+		private boolean observationCoalescing;
+		private Path checkpointDirectory;
+		private double checkpointInterval;
+		private double snapshotTime;
+		private SimulationSnapshot snapshot;
+		private ForkJoinPool filterEvaluationPool;
+		private int parallelFilterEvaluationThreshold = DEFAULT_PARALLEL_FILTER_EVALUATION_THRESHOLD;
 	}
 
 	/*
@@ -113,6 +199,16 @@ public final class Context implements MemoryReportParticipant {
 		}
 		started = true;
 
+		if (restored) {
+			resume();
+			return;
+		}
+
+		if (forkScenario != null) {
+			fork();
+			return;
+		}
+
 		/*
 		 * Determine if we are producing profile items.
 		 */
@@ -122,6 +218,17 @@ public final class Context implements MemoryReportParticipant {
 			produceProfileItems |= outputItemHandler.getHandledClasses().contains(ProfileItem.class);
 		}
 
+		/*
+		 * Profiling replaces the managers with proxies that cannot be
+		 * serialized
+		 */
+		if (produceProfileItems && checkpointStore != null) {
+			throw new RuntimeException("Checkpoints are not supported when producing profile items");
+		}
+		if (produceProfileItems && snapshotTime > 0) {
+			throw new RuntimeException("Snapshots are not supported when producing profile items");
+		}
+
 		/*
 		 * Determine if we are producing memory reports
 		 */
@@ -245,8 +352,109 @@ public final class Context implements MemoryReportParticipant {
 		 * react to observations.
 		 */
 		externalAccessManager.releaseGlobalWriteAccessLock();
+		if (snapshotTime > 0) {
+			eventManager.setSuspensionTime(snapshotTime);
+		}
 		eventManager.execute();
 
+		takeSnapshot();
+		finish();
+	}
+
+	/*
+	 * Captures the state of a suspended Context in a snapshot if a snapshot
+	 * time was set
+	 */
+	private void takeSnapshot() {
+		if (snapshotTime > 0) {
+			if (!eventManager.isSuspended()) {
+				finish();
+				throw new RuntimeException("The simulation ended before the snapshot time " + snapshotTime);
+			}
+			snapshot = new SimulationSnapshot(this, snapshotTime);
+		}
+	}
+
+	/*
+	 * Continues a Context restored from a snapshot under the fork scenario and
+	 * replication. The snapshot was taken between plans, so no locks are held,
+	 * no component has focus and there are no pending observations. Global
+	 * property values that the fork scenario sets differently from the
+	 * snapshot scenario are assigned before time resumes so that the
+	 * components observe the change. The random generators are reseeded if
+	 * the fork replication has a different seed.
+	 */
+	private void fork() {
+		Scenario snapshotScenario = scenario;
+		Replication snapshotReplication = replication;
+		scenario = forkScenario;
+		replication = forkReplication;
+
+		outputItemManager.resume(this, new ArrayList<>());
+
+		if (!replication.getSeed().equals(snapshotReplication.getSeed())) {
+			stochasticsManager.reseed(replication.getSeed());
+		}
+
+		for (GlobalPropertyId globalPropertyId : scenario.getGlobalPropertyIds()) {
+			Object globalPropertyValue = scenario.getGlobalPropertyValue(globalPropertyId);
+			if (globalPropertyValue != null && !globalPropertyValue.equals(snapshotScenario.getGlobalPropertyValue(globalPropertyId))) {
+				mutationResolver.setGlobalPropertyValue(globalPropertyId, globalPropertyValue);
+			}
+		}
+
+		eventManager.setSuspensionTime(snapshotTime > 0 ? snapshotTime : Double.POSITIVE_INFINITY);
+		eventManager.resume();
+
+		takeSnapshot();
+		finish();
+	}
+
+	/**
+	 * Returns the snapshot taken by this Context. Returns null if no snapshot
+	 * time was set or the Context has not yet executed.
+	 */
+	public SimulationSnapshot getSnapshot() {
+		return snapshot;
+	}
+
+	/*
+	 * Resumes a Context that was restored from a checkpoint. The checkpoint
+	 * was written between plans, so no locks are held, no component has focus
+	 * and there are no pending observations.
+	 */
+	private void resume() {
+		List<OutputItem> previousOutputItems = new ArrayList<>();
+		for (int segment = 0; segment < checkpointSegmentCount; segment++) {
+			previousOutputItems.addAll(checkpointStore.readOutputItems(segment));
+		}
+		outputItemManager.resume(this, previousOutputItems);
+		eventManager.resume();
+		finish();
+	}
+
+	/**
+	 * Writes a checkpoint of the simulation. Invoked by the event manager
+	 * between plans.
+	 * 
+	 * @throws RuntimeException
+	 *             if the simulation is not checkpointing
+	 */
+	public void writeCheckpoint() {
+		if (checkpointStore == null) {
+			throw new RuntimeException("checkpoints are not enabled");
+		}
+		checkpointStore.writeOutputItems(checkpointSegmentCount, outputItemManager.drainRetainedOutputItems());
+		checkpointSegmentCount++;
+		checkpointStore.writeContext(this);
+	}
+
+	private void finish() {
+		/*
+		 * Release the off-heap memory held for person property values
+		 */
+		propertyManager.close();
+
 		/*
 		 * Close the various reporting mechanisms
 		 */
@@ -259,6 +467,13 @@ public final class Context implements MemoryReportParticipant {
 		 * Turn off external access to the Environment
 		 */
 		externalAccessManager.acquireGlobalWriteAccessLock();
+
+		/*
+		 * The simulation is complete, so its checkpoint is no longer needed
+		 */
+		if (checkpointStore != null) {
+			checkpointStore.delete();
+		}
 	}
 
 	/**
@@ -278,21 +493,98 @@ public final class Context implements MemoryReportParticipant {
 		 * @throws RuntimeException
 		 *             <li>if no scenario was set
 		 *             <li>if no replication was set
+		 *             <li>if a checkpoint interval was set without a
+		 *             checkpoint directory
+		 *             <li>if a checkpoint interval was set in combination with
+		 *             a snapshot time or a snapshot
+		 *             <li>if a checkpoint exists for the scenario and
+		 *             replication ids that was not written by a simulation of
+		 *             an equivalent scenario and the same replication seed
+		 *             <li>if the scenario differs from the scenario of the
+		 *             snapshot in anything other than its scenario id and
+		 *             global property values
 		 */
 		public Context build() {
 			try {
+				if (scaffold.snapshot != null) {
+					return buildFork();
+				}
 				if (scaffold.scenario == null) {
 					throw new RuntimeException("Scenario not set");
 				}
 				if (scaffold.replication == null) {
 					throw new RuntimeException("Replication not set");
 				}
+				if (scaffold.checkpointInterval > 0 && scaffold.checkpointDirectory == null) {
+					throw new RuntimeException("Checkpoint directory not set");
+				}
+				if (scaffold.checkpointInterval > 0 && scaffold.snapshotTime > 0) {
+					throw new RuntimeException("Checkpoints are not supported in combination with snapshots");
+				}
+				if (scaffold.checkpointInterval > 0) {
+					CheckpointStore checkpointStore = new CheckpointStore(scaffold.checkpointDirectory, scaffold.scenario.getScenarioId(), scaffold.replication.getId());
+					if (checkpointStore.exists()) {
+						Context context = checkpointStore.readContext();
+						/*
+						 * The checkpoint is found by the scenario and
+						 * replication ids alone, so we make sure that it was
+						 * written by a simulation of the same scenario and
+						 * replication
+						 */
+						if (!ScenarioComparison.isEquivalent(context.scenario, scaffold.scenario) || !context.replication.getSeed().equals(scaffold.replication.getSeed())) {
+							throw new RuntimeException("The checkpoint for scenario " + scaffold.scenario.getScenarioId() + " and replication " + scaffold.replication.getId()
+									+ " does not match the scenario and replication");
+						}
+						context.checkpointStore = checkpointStore;
+						context.outputItemHandlers = new ArrayList<>(scaffold.outputItemHandlers);
+						context.filterEvaluationPool = scaffold.filterEvaluationPool;
+						context.parallelFilterEvaluationThreshold = scaffold.parallelFilterEvaluationThreshold;
+						context.restored = true;
+						context.started = false;
+						return context;
+					}
+				}
 				return new Context(scaffold);
 			} finally {
 				scaffold = new Scaffold();
 			}
 		}
 
+		/*
+		 * Restores a Context from the snapshot. The scenario and replication
+		 * default to those of the snapshot.
+		 */
+		private Context buildFork() {
+			SimulationSnapshot snapshot = scaffold.snapshot;
+			if (scaffold.checkpointInterval > 0) {
+				throw new RuntimeException("Checkpoints are not supported in combination with snapshots");
+			}
+			Scenario scenario = scaffold.scenario;
+			if (scenario == null) {
+				scenario = snapshot.getScenario();
+			}
+			Replication replication = scaffold.replication;
+			if (replication == null) {
+				replication = snapshot.getReplication();
+			}
+			/*
+			 * The fork only applies differences in global property values,
+			 * so every other difference is rejected
+			 */
+			if (!ScenarioComparison.isEquivalentExceptGlobalPropertyValues(snapshot.getScenario(), scenario)) {
+				throw new RuntimeException("Scenario " + scenario.getScenarioId() + " is not compatible with the scenario of the snapshot");
+			}
+			Context context = snapshot.restoreContext();
+			context.forkScenario = scenario;
+			context.forkReplication = replication;
+			context.outputItemHandlers = new ArrayList<>(scaffold.outputItemHandlers);
+			context.snapshotTime = scaffold.snapshotTime;
+			context.filterEvaluationPool = scaffold.filterEvaluationPool;
+			context.parallelFilterEvaluationThreshold = scaffold.parallelFilterEvaluationThreshold;
+			context.started = false;
+			return context;
+		}
+
 		/**
 		 * Sets the {@link Replication}
 		 * 
@@ -331,6 +623,153 @@ public final class Context implements MemoryReportParticipant {
 			}
 			scaffold.scenario = scenario;
 		}
+
+		/**
+		 * Sets the {@link PlanningQueueType}. Defaults to
+		 * {@link PlanningQueueType#RECORD}.
+		 * 
+		 * @throws RuntimeException
+		 *             if the planning queue type is null
+		 */
+		public void setPlanningQueueType(final PlanningQueueType planningQueueType) {
+			if (planningQueueType == null) {
+				throw new RuntimeException("Planning queue type is null");
+			}
+			scaffold.planningQueueType = planningQueueType;
+		}
+
+		/**
+		 * Sets whether duplicate observations are coalesced. When true, an
+		 * observation that is identical in observer, type and arguments to an
+		 * observation that is still awaiting delivery is dropped. Defaults to
+		 * false.
+		 */
+		public void setObservationCoalescing(final boolean observationCoalescing) {
+			scaffold.observationCoalescing = observationCoalescing;
+		}
+
+		/**
+		 * Sets the directory for checkpoint files. A Context built while a
+		 * checkpoint for its scenario and replication exists in this directory
+		 * is restored from the checkpoint.
+		 * 
+		 * @throws RuntimeException
+		 *             if the checkpoint directory is null
+		 */
+		public void setCheckpointDirectory(final Path checkpointDirectory) {
+			if (checkpointDirectory == null) {
+				throw new RuntimeException("Checkpoint directory is null");
+			}
+			scaffold.checkpointDirectory = checkpointDirectory;
+		}
+
+		/**
+		 * Sets the interval in days between checkpoints. A checkpoint is
+		 * written after the first plan executed at or beyond each multiple of
+		 * the interval. A non-positive value turns off checkpoints. Defaults
+		 * to zero.
+		 */
+		public void setCheckpointInterval(final double checkpointInterval) {
+			scaffold.checkpointInterval = checkpointInterval;
+		}
+
+		/**
+		 * Sets the time at which the Context suspends and captures its state in
+		 * a snapshot. A non-positive value turns off snapshots. Defaults to
+		 * zero.
+		 */
+		public void setSnapshotTime(final double snapshotTime) {
+			scaffold.snapshotTime = snapshotTime;
+		}
+
+		/**
+		 * Sets the snapshot from which the Context is forked. The scenario and
+		 * replication become optional and default to those of the snapshot.
+		 * The planning queue type and observation coalescing of the snapshot
+		 * apply to the fork.
+		 * 
+		 * @throws RuntimeException
+		 *             if the snapshot is null
+		 */
+		public void setSnapshot(final SimulationSnapshot snapshot) {
+			if (snapshot == null) {
+				throw new RuntimeException("Snapshot is null");
+			}
+			scaffold.snapshot = snapshot;
+		}
+
+		/**
+		 * Sets the fork/join pool used to test large numbers of people against
+		 * filters concurrently. The pool is not shut down by the Context and
+		 * may be shared by concurrently executing simulations. Without a pool,
+		 * all filter tests are sequential.
+		 * 
+		 * @throws RuntimeException
+		 *             if the pool is null
+		 */
+		public void setFilterEvaluationPool(final ForkJoinPool filterEvaluationPool) {
+			if (filterEvaluationPool == null) {
+				throw new RuntimeException("Filter evaluation pool is null");
+			}
+			scaffold.filterEvaluationPool = filterEvaluationPool;
+		}
+
+		/**
+		 * Sets the number of people at or above which a filter test uses the
+		 * filter evaluation pool. Defaults to 65536.
+		 * 
+		 * @throws RuntimeException
+		 *             if the threshold is less than one
+		 */
+		public void setParallelFilterEvaluationThreshold(final int parallelFilterEvaluationThreshold) {
+			if (parallelFilterEvaluationThreshold < 1) {
+				throw new RuntimeException("Parallel filter evaluation threshold is less than one");
+			}
+			scaffold.parallelFilterEvaluationThreshold = parallelFilterEvaluationThreshold;
+		}
+	}
+
+	/**
+	 * Returns the interval in days between checkpoints. A non-positive value
+	 * indicates that checkpoints are turned off.
+	 */
+	public double getCheckpointInterval() {
+		return checkpointInterval;
+	}
+
+	/**
+	 * Returns the fork/join pool used to test large numbers of people against
+	 * filters concurrently. Returns null if filter tests are sequential, which
+	 * is always the case when producing profile items since the profiled
+	 * managers are not safe for concurrent use.
+	 */
+	public ForkJoinPool getFilterEvaluationPool() {
+		if (produceProfileItems) {
+			return null;
+		}
+		return filterEvaluationPool;
+	}
+
+	/**
+	 * Returns the number of people at or above which a filter test uses the
+	 * filter evaluation pool
+	 */
+	public int getParallelFilterEvaluationThreshold() {
+		return parallelFilterEvaluationThreshold;
+	}
+
+	/**
+	 * Returns the planning queue type for the simulation instance
+	 */
+	public PlanningQueueType getPlanningQueueType() {
+		return planningQueueType;
+	}
+
+	/**
+	 * Returns true if and only if duplicate pending observations are coalesced
+	 */
+	public boolean isObservationCoalescing() {
+		return observationCoalescing;
 	}
 
 	/**
@@ -3,9 +3,12 @@ package gcm.simulation;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.StorageOption;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
-import gcm.util.containers.DoubleValueContainer;
+import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.OffHeapValueContainer;
+import gcm.util.containers.PagedDoubleValueContainer;
 
 /**
  * Implementor of PropertyManager that compresses Double property values into a
@@ -16,12 +19,21 @@ import gcm.util.containers.DoubleValueContainer;
  */
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class DoublePropertyManager extends AbstractPropertyManager {
+
+	private static final long serialVersionUID = 1L;
 	
 	/*
 	 * A container, indexed by person id, that stores Double values as an array
 	 * of double.
 	 */
-	private DoubleValueContainer doubleValueContainer;
+	private PagedDoubleValueContainer doubleValueContainer;
+
+	/*
+	 * A container, indexed by person id, that stores Double values as their
+	 * bits outside of the heap. Used instead of the doubleValueContainer when
+	 * the property is stored off heap.
+	 */
+	private OffHeapValueContainer offHeapValueContainer;
 	
 
 	/**
@@ -45,21 +57,84 @@ public final class DoublePropertyManager extends AbstractPropertyManager {
 		Double defaultValue = (Double)propertyDefinition.getDefaultValue().get();
 		
 		int suggestedPopulationSize = context.getScenario().getSuggestedPopulationSize();
-		doubleValueContainer = new DoubleValueContainer(defaultValue, suggestedPopulationSize);		
+		if (propertyDefinition.getStorageOption() == StorageOption.OFF_HEAP) {
+			offHeapValueContainer = new OffHeapValueContainer(IntValueType.LONG, Double.doubleToRawLongBits(defaultValue), suggestedPopulationSize);
+		} else {
+			doubleValueContainer = new PagedDoubleValueContainer(defaultValue, suggestedPopulationSize);
+		}
+	}
+
+	private double getValue(PersonId personId) {
+		if (offHeapValueContainer != null) {
+			return Double.longBitsToDouble(offHeapValueContainer.getValue(personId.getValue()));
+		}
+		return doubleValueContainer.getValue(personId.getValue());
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T getPropertyValue(PersonId personId) {
-		Double result = doubleValueContainer.getValue(personId.getValue());
+		Double result = getValue(personId);
 		return (T) result;
 	}
 
+	@Override
+	public double getPropertyDoubleValue(PersonId personId) {
+		return getValue(personId);
+	}
+
+	@Override
+	public void getPropertyDoubleValues(int firstPersonIdValue, long candidates, double[] values) {
+		if (offHeapValueContainer != null) {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				values[bit] = Double.longBitsToDouble(offHeapValueContainer.getValue(firstPersonIdValue + bit));
+			}
+		} else {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				values[bit] = doubleValueContainer.getValue(firstPersonIdValue + bit);
+			}
+		}
+	}
+
 	@Override
 	public void setPropertyValue(PersonId personId, Object personPropertyValue) {
 		super.setPropertyValue(personId, personPropertyValue);
 		Double d = (Double) personPropertyValue;
-		doubleValueContainer.setValue(personId.getValue(), d);
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), Double.doubleToRawLongBits(d));
+		} else {
+			doubleValueContainer.setValue(personId.getValue(), d);
+		}
 	}
 
+	/*
+	 * Writes the stored value directly unless property values are mapped to
+	 * people. The value is changing if its bits differ, as with
+	 * Double.equals().
+	 */
+	@Override
+	public void setPropertyDoubleValue(PersonId personId, double personPropertyValue) {
+		if (isValueMapped()) {
+			super.setPropertyDoubleValue(personId, personPropertyValue);
+			return;
+		}
+		handleUnboxedAssignment(personId, Double.doubleToLongBits(getValue(personId)) != Double.doubleToLongBits(personPropertyValue));
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), Double.doubleToRawLongBits(personPropertyValue));
+		} else {
+			doubleValueContainer.setValue(personId.getValue(), personPropertyValue);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.close();
+		}
+		super.close();
+	}
 }
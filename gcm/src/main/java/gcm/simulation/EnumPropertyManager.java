@@ -3,9 +3,12 @@ package gcm.simulation;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.StorageOption;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 import gcm.util.containers.EnumContainer;
+import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.OffHeapValueContainer;
 
 /**
  * Implementor of PropertyManager that compresses Enum property values into a
@@ -16,11 +19,27 @@ import gcm.util.containers.EnumContainer;
  */
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class EnumPropertyManager extends AbstractPropertyManager {
+
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * The storage container.
 	 */
 	private EnumContainer enumContainer;
 
+	/*
+	 * A container, indexed by person id, that stores the ordinals of the enum
+	 * values outside of the heap. Used instead of the enumContainer when the
+	 * property is stored off heap.
+	 */
+	private OffHeapValueContainer offHeapValueContainer;
+
+	/*
+	 * The members of the enumeration, indexed by ordinal. Used only with the
+	 * offHeapValueContainer.
+	 */
+	private Object[] enumConstants;
+
 	/**
 	 * Constructs this EnumPropertyManager.
 	 * 
@@ -36,19 +55,64 @@ public final class EnumPropertyManager extends AbstractPropertyManager {
 			throw new RuntimeException("default value is not present for "+propertyDefinition);
 		}
 		
-		enumContainer = new EnumContainer(propertyDefinition.getType(), propertyDefinition.getDefaultValue().get(),suggestedPopulationSize);
+		if (propertyDefinition.getStorageOption() == StorageOption.OFF_HEAP) {
+			enumConstants = propertyDefinition.getType().getEnumConstants();
+			IntValueType intValueType;
+			if (enumConstants.length <= Byte.MAX_VALUE + 1) {
+				intValueType = IntValueType.BYTE;
+			} else if (enumConstants.length <= Short.MAX_VALUE + 1) {
+				intValueType = IntValueType.SHORT;
+			} else {
+				intValueType = IntValueType.INT;
+			}
+			int defaultOrdinal = ((Enum<?>) propertyDefinition.getDefaultValue().get()).ordinal();
+			offHeapValueContainer = new OffHeapValueContainer(intValueType, defaultOrdinal, suggestedPopulationSize);
+		} else {
+			enumContainer = new EnumContainer(propertyDefinition.getType(), propertyDefinition.getDefaultValue().get(), suggestedPopulationSize);
+		}
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T getPropertyValue(PersonId personId) {
+		if (offHeapValueContainer != null) {
+			return (T) enumConstants[(int) offHeapValueContainer.getValue(personId.getValue())];
+		}
 		return (T) enumContainer.getValue(personId.getValue());
 	}
 
+	@Override
+	public void getPropertyOrdinals(int firstPersonIdValue, long candidates, int[] ordinals) {
+		if (offHeapValueContainer != null) {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				ordinals[bit] = (int) offHeapValueContainer.getValue(firstPersonIdValue + bit);
+			}
+		} else {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				ordinals[bit] = enumContainer.getOrdinal(firstPersonIdValue + bit);
+			}
+		}
+	}
+
 	@Override
 	public void setPropertyValue(PersonId personId, Object personPropertyValue) {
 		super.setPropertyValue(personId, personPropertyValue);
-		enumContainer.setValue(personId.getValue(), personPropertyValue);
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), ((Enum<?>) personPropertyValue).ordinal());
+		} else {
+			enumContainer.setValue(personId.getValue(), personPropertyValue);
+		}
 	}
 
+	@Override
+	public void close() {
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.close();
+		}
+		super.close();
+	}
 }
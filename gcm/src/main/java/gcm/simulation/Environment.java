@@ -272,6 +272,41 @@ public interface Environment extends Element {
 	 */
 	public void addPlan(final Plan plan, final double planTime, final Object key);
 
+	/**
+	 * Schedules a recurring plan. The plan is first returned to the invoking
+	 * component at the start time and is then returned again after each
+	 * passing of the interval. The plan remains associated with its key for
+	 * as long as it recurs and the plan time retrieved via the key is the time
+	 * of its next occurrence. The recurrence ends only when the plan is
+	 * removed via {@link #removePlan(Object)}, which may be done while the
+	 * plan is being executed. Note that a simulation does not end while a
+	 * recurring plan remains in its planning queue.
+	 *
+	 * Each occurrence reuses the simulation's record of the plan, so a
+	 * recurring plan is cheaper than a plan that is re-added each time it is
+	 * executed.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PLAN} if the plan is null
+	 *             <li>{@link SimulationErrorType#PAST_PLANNING_TIME} if the
+	 *             start time is in the past
+	 *             <li>{@link SimulationErrorType#NON_POSITIVE_PLAN_INTERVAL} if
+	 *             the interval is not positive
+	 *             <li>{@link SimulationErrorType#NON_FINITE_PLAN_INTERVAL} if
+	 *             the interval is infinite
+	 *             <li>{@link SimulationErrorType#NULL_PLAN_KEY} if the key is
+	 *             null
+	 *             <li>{@link SimulationErrorType#DUPLICATE_PLAN_KEY} if the key
+	 *             corresponds to an active plan
+	 *             <li>{@link SimulationErrorType#COMPONENT_LACKS_PERMISSION} if
+	 *             the invoking component is not a global component, a region
+	 *             component or a compartment component or a materials producer
+	 *             component
+	 *
+	 */
+	public void addRecurringPlan(final Plan plan, final double startTime, final double interval, final Object key);
+
 	/**
 	 * Adds an indexed population using the supplied filter.
 	 *
@@ -303,6 +338,34 @@ public interface Environment extends Element {
 	 */
 	public void addPopulationIndex(final Filter filter, final Object key);
 
+	/**
+	 * Adds a population index that supports the selection of people in
+	 * proportion to a weight. The weight of a person is determined by the
+	 * weighting function when the person enters the index and again whenever
+	 * any of the given person properties changes for that person, so the
+	 * function should depend only on those properties and on other state that
+	 * does not change while the person is in the index. Weighted selections
+	 * and weight updates are O(log n) in the size of the population.
+	 *
+	 * @throws ModelException
+	 *             <li>{@link SimulationErrorType#NULL_FILTER} if the filter is
+	 *             null
+	 *             <li>{@link SimulationErrorType#NULL_POPULATION_INDEX_KEY} if
+	 *             the key is null
+	 *             <li>{@link SimulationErrorType#DUPLICATE_INDEXED_POPULATION}
+	 *             if the key corresponds to an existing population index
+	 *             <li>{@link SimulationErrorType#NULL_WEIGHTING_FUNCTION} if
+	 *             the weighting function is null
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             any of the weight property ids is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID}
+	 *             if any of the weight property ids is unknown
+	 *             <li>{@link SimulationErrorType#COMPONENT_LACKS_PERMISSION} if
+	 *             this method is invoked while the simulation has no active
+	 *             component
+	 */
+	public void addWeightedPopulationIndex(final Filter filter, final Object key, final IndexWeightingFunction indexWeightingFunction, final PersonPropertyId... weightPropertyIds);
+
 	/**
 	 * Adds the amount of resource to the given region.
 	 *
@@ -532,6 +595,13 @@ public interface Environment extends Element {
 	 * Returns the simulation time when the property value was last set for the
 	 * given batch and property identifiers.
 	 *
+	 * Assignment times of batch properties are recorded only when the
+	 * property's time tracking policy tracks them, and then at the precision
+	 * of that policy. Earlier versions recorded the time for every batch
+	 * property; batches now hold no times for a property whose policy is
+	 * {@link TimeTrackingPolicy#DO_NOT_TRACK_TIME}, and this method fails for
+	 * such a property.
+	 *
 	 * @throws ModelException
 	 *
 	 *             <li>{@link SimulationErrorType#NULL_BATCH_ID} if the batch id
@@ -542,6 +612,9 @@ public interface Environment extends Element {
 	 *             property id is null
 	 *             <li>{@link SimulationErrorType#UNKNOWN_BATCH_PROPERTY_ID} if
 	 *             the property is unknown
+	 *             <li>{@link SimulationErrorType#PROPERTY_ASSIGNMENT_TIME_NOT_TRACKED}
+	 *             if the property's time tracking policy does not track
+	 *             assignment times
 	 *
 	 */
 	public double getBatchPropertyTime(final BatchId batchId, final BatchPropertyId batchPropertyId);
@@ -900,6 +973,13 @@ public interface Environment extends Element {
 	 * Returns the simulation time when the property value was last set for the
 	 * given group and property identifiers.
 	 *
+	 * Assignment times of group properties are recorded only when the
+	 * property's time tracking policy tracks them, and then at the precision
+	 * of that policy. Earlier versions recorded the time for every group
+	 * property; groups now hold no times for a property whose policy is
+	 * {@link TimeTrackingPolicy#DO_NOT_TRACK_TIME}, and this method fails for
+	 * such a property.
+	 *
 	 * @throws ModelException
 	 *
 	 *             <li>{@link SimulationErrorType#NULL_GROUP_ID} if the group id
@@ -910,6 +990,9 @@ public interface Environment extends Element {
 	 *             property id is null
 	 *             <li>{@link SimulationErrorType#UNKNOWN_GROUP_PROPERTY_ID} if
 	 *             the property is unknown
+	 *             <li>{@link SimulationErrorType#PROPERTY_ASSIGNMENT_TIME_NOT_TRACKED}
+	 *             if the property's time tracking policy does not track
+	 *             assignment times
 	 *
 	 */
 	public double getGroupPropertyTime(final GroupId groupId, final GroupPropertyId groupPropertyId);
@@ -1432,6 +1515,109 @@ public interface Environment extends Element {
 	 */
 	public int getPersonCountForPropertyValue(final PersonPropertyId personPropertyId, final Object personPropertyValue);
 
+	/**
+	 * Returns the list of person identifier values for all people whose values
+	 * for the given person property compare to the given value as specified
+	 * by the equality. For example, LESS_THAN selects the people whose values
+	 * are less than the given value. Values are compared as they are in
+	 * property filters. The search is logarithmic in the population size for
+	 * properties defined with {@link MapOption#RANGE} and requires a full
+	 * population scan for inequalities otherwise.
+	 *
+	 * throws ModelException
+	 *
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if the property
+	 * id is null
+	 * <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if the
+	 * property id is unknown
+	 * <li>{@link SimulationErrorType#NULL_EQUALITY_OPERATOR} if the equality
+	 * is null
+	 * <li>{@link SimulationErrorType#NON_COMPARABLE_PROPERTY} if the equality
+	 * is an inequality and the property type is not Comparable
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_VALUE} if the
+	 * property value is null
+	 * <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the property value
+	 * is not compatible with the property definition
+	 */
+	public List<PersonId> getPeopleForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue);
+
+	/**
+	 * Returns the number of people whose values for the given person property
+	 * compare to the given value as specified by the equality. The count takes
+	 * logarithmic time for properties defined with {@link MapOption#RANGE}.
+	 *
+	 * throws ModelException
+	 *
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if the property
+	 * id is null
+	 * <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if the
+	 * property id is unknown
+	 * <li>{@link SimulationErrorType#NULL_EQUALITY_OPERATOR} if the equality
+	 * is null
+	 * <li>{@link SimulationErrorType#NON_COMPARABLE_PROPERTY} if the equality
+	 * is an inequality and the property type is not Comparable
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_VALUE} if the
+	 * property value is null
+	 * <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the property value
+	 * is not compatible with the property definition
+	 */
+	public int getPersonCountForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue);
+
+	/**
+	 * Returns a person selected uniformly from the people whose values for the
+	 * given person property compare to the given value as specified by the
+	 * equality, using the default random generator. Returns an empty optional
+	 * if there are no such people. The selection takes logarithmic time for
+	 * properties defined with {@link MapOption#RANGE}.
+	 *
+	 * throws ModelException
+	 *
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if the property
+	 * id is null
+	 * <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if the
+	 * property id is unknown
+	 * <li>{@link SimulationErrorType#NULL_EQUALITY_OPERATOR} if the equality
+	 * is null
+	 * <li>{@link SimulationErrorType#NON_COMPARABLE_PROPERTY} if the equality
+	 * is an inequality and the property type is not Comparable
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_VALUE} if the
+	 * property value is null
+	 * <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the property value
+	 * is not compatible with the property definition
+	 */
+	public Optional<PersonId> getRandomPersonForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue);
+
+	/**
+	 * Returns a person selected uniformly from the people whose values for the
+	 * given person property compare to the given value as specified by the
+	 * equality, using the random generator associated with the given id.
+	 * Returns an empty optional if there are no such people. The selection
+	 * takes logarithmic time for properties defined with
+	 * {@link MapOption#RANGE}.
+	 *
+	 * throws ModelException
+	 *
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if the property
+	 * id is null
+	 * <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if the
+	 * property id is unknown
+	 * <li>{@link SimulationErrorType#NULL_EQUALITY_OPERATOR} if the equality
+	 * is null
+	 * <li>{@link SimulationErrorType#NON_COMPARABLE_PROPERTY} if the equality
+	 * is an inequality and the property type is not Comparable
+	 * <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_VALUE} if the
+	 * property value is null
+	 * <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the property value
+	 * is not compatible with the property definition
+	 * <li>{@link SimulationErrorType#NULL_RANDOM_NUMBER_GENERATOR_ID} if the
+	 * randomNumberGeneratorId is null
+	 * <li>{@link SimulationErrorType#UNKNOWN_RANDOM_NUMBER_GENERATOR_ID} if the
+	 * randomNumberGeneratorId does not correspond to an existing random number
+	 * generator id in the scenario
+	 */
+	public Optional<PersonId> getRandomPersonForPropertyComparisonFromGenerator(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue,
+			RandomNumberGeneratorId randomNumberGeneratorId);
+
 	/**
 	 * Returns the list of person identifier values for all people currently
 	 * having at least one unit of the given resource identifier.
@@ -1445,6 +1631,21 @@ public interface Environment extends Element {
 	 */
 	public List<PersonId> getPeopleWithResource(final ResourceId resourceId);
 
+	/**
+	 * Returns the number of people currently having at least one unit of the
+	 * given resource identifier. Takes constant time for resources mapped with
+	 * a {@link MapOption} other than NONE and requires a full population scan
+	 * otherwise.
+	 *
+	 * throws ModelException
+	 *
+	 * <li>{@link SimulationErrorType#NULL_RESOURCE_ID} if the resource id is
+	 * null
+	 * <li>{@link SimulationErrorType#UNKNOWN_RESOURCE_ID} if the resource id is
+	 * not known
+	 */
+	public int getPersonCountForResource(final ResourceId resourceId);
+
 	/**
 	 * Returns the compartment identifier for the given person.
 	 *
@@ -1531,8 +1732,13 @@ public interface Environment extends Element {
 	public <T extends PersonPropertyId> Set<T> getPersonPropertyIds();
 
 	/**
-	 * Returns the simulation time when the property value was last set for the
-	 * given person and person property identifiers.
+	 * Returns the simulation time when the property value was last changed for
+	 * the given person and person property identifiers. Assigning a value equal
+	 * to the current value does not change the recorded time. The time is
+	 * recorded at the precision of the property's {@link TimeTrackingPolicy}:
+	 * exactly under TRACK_TIME, rounded to float precision under
+	 * TRACK_TIME_FLOAT and rounded down to a whole number of days under
+	 * TRACK_TIME_DAYS.
 	 *
 	 * @throws ModelException
 	 *
@@ -1568,6 +1774,88 @@ public interface Environment extends Element {
 	 */
 	public <T> T getPersonPropertyValue(final PersonId personId, final PersonPropertyId personPropertyId);
 
+	/**
+	 * Returns the value associated with the given person and property
+	 * identifier as an int. The value is read directly from the primitive storage
+	 * of the property without boxing.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is not a person property
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Byte, Short or
+	 *             Integer
+	 */
+	public int getPersonPropertyInt(final PersonId personId, final PersonPropertyId personPropertyId);
+
+	/**
+	 * Returns the value associated with the given person and property
+	 * identifier as a long. The value is read directly from the primitive storage
+	 * of the property without boxing.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is not a person property
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Byte, Short,
+	 *             Integer or Long
+	 */
+	public long getPersonPropertyLong(final PersonId personId, final PersonPropertyId personPropertyId);
+
+	/**
+	 * Returns the value associated with the given person and property
+	 * identifier as a double. The value is read directly from the primitive storage
+	 * of the property without boxing.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is not a person property
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Float or Double
+	 */
+	public double getPersonPropertyDouble(final PersonId personId, final PersonPropertyId personPropertyId);
+
+	/**
+	 * Returns the value associated with the given person and property
+	 * identifier as a boolean. The value is read directly from the primitive storage
+	 * of the property without boxing.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is not a person property
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Boolean
+	 */
+	public boolean getPersonPropertyBoolean(final PersonId personId, final PersonPropertyId personPropertyId);
+
 	/**
 	 * Returns the region identifier for the given person.
 	 *
@@ -1751,6 +2039,30 @@ public interface Environment extends Element {
 	 */
 	public Optional<PersonId> getRandomIndexedPersonFromGenerator(final Object key, RandomNumberGeneratorId randomNumberGeneratorId);
 
+	/**
+	 * Returns a list of distinct person identifiers chosen uniformly at random
+	 * without replacement from an indexed population, in the order of their
+	 * selection. The list contains all of the people in the index, in random
+	 * order, if the sample count is at least the size of the index. The index
+	 * is not copied, so sampling is efficient for large indexes.
+	 *
+	 * @throws ModelException
+	 *             <li>{@link SimulationErrorType#NULL_POPULATION_INDEX_KEY} if
+	 *             the key is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_POPULATION_INDEX_KEY}
+	 *             if the key does not correspond to an existing population
+	 *             index
+	 *             <li>{@link SimulationErrorType#NEGATIVE_SAMPLE_COUNT} if the
+	 *             sample count is negative
+	 *             <li>{@link SimulationErrorType#NULL_RANDOM_NUMBER_GENERATOR_ID}
+	 *             if the randomNumberGeneratorId is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_RANDOM_NUMBER_GENERATOR_ID}
+	 *             if the randomNumberGeneratorId does not correspond to an
+	 *             existing random Number Generator Id in the scenario
+	 * 
+	 */
+	public List<PersonId> sampleIndexedPeople(final Object key, final int sampleCount, RandomNumberGeneratorId randomNumberGeneratorId);
+
 	/**
 	 * Returns a randomly selected person identifier from an indexed population
 	 * excluding the given person identifier if that parameter is not null.
@@ -1796,6 +2108,54 @@ public interface Environment extends Element {
 	 */
 	public Optional<PersonId> getRandomIndexedPersonWithExclusionFromGenerator(final PersonId excludedPersonId, final Object key, RandomNumberGeneratorId randomNumberGeneratorId);
 
+	/**
+	 * Returns a person selected from a weighted population index with
+	 * probability proportional to the person's weight. Returns an empty
+	 * Optional if the index holds no person with a positive weight.
+	 *
+	 * @throws ModelException
+	 *             <li>{@link SimulationErrorType#NULL_POPULATION_INDEX_KEY} if
+	 *             the key is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_POPULATION_INDEX_KEY}
+	 *             if the key does not correspond to an existing population
+	 *             index
+	 *             <li>{@link SimulationErrorType#NON_WEIGHTED_POPULATION_INDEX}
+	 *             if the population index was not added with a weighting
+	 *             function
+	 *             <li>{@link SimulationErrorType#MALFORMED_WEIGHTING_FUNCTION}
+	 *             if the weighting function returned a negative or non-finite
+	 *             weight for a person in the index or the sum of the weights
+	 *             is not finite
+	 */
+	public Optional<PersonId> getWeightedRandomIndexedPerson(final Object key);
+
+	/**
+	 * Returns a person selected from a weighted population index with
+	 * probability proportional to the person's weight using the random number
+	 * generator associated with the given id. Returns an empty Optional if the
+	 * index holds no person with a positive weight.
+	 *
+	 * @throws ModelException
+	 *             <li>{@link SimulationErrorType#NULL_POPULATION_INDEX_KEY} if
+	 *             the key is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_POPULATION_INDEX_KEY}
+	 *             if the key does not correspond to an existing population
+	 *             index
+	 *             <li>{@link SimulationErrorType#NON_WEIGHTED_POPULATION_INDEX}
+	 *             if the population index was not added with a weighting
+	 *             function
+	 *             <li>{@link SimulationErrorType#NULL_RANDOM_NUMBER_GENERATOR_ID}
+	 *             if the randomNumberGeneratorId is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_RANDOM_NUMBER_GENERATOR_ID}
+	 *             if the randomNumberGeneratorId does not correspond to an
+	 *             existing random Number Generator Id in the scenario
+	 *             <li>{@link SimulationErrorType#MALFORMED_WEIGHTING_FUNCTION}
+	 *             if the weighting function returned a negative or non-finite
+	 *             weight for a person in the index or the sum of the weights
+	 *             is not finite
+	 */
+	public Optional<PersonId> getWeightedRandomIndexedPersonFromGenerator(final Object key, RandomNumberGeneratorId randomNumberGeneratorId);
+
 	/**
 	 * Returns the set of region component identifiers as provided during
 	 * simulation construction.
@@ -1809,6 +2169,18 @@ public interface Environment extends Element {
 	 */
 	public MapOption getRegionMapOption();
 
+	/**
+	 * Returns the MapOption for the people holding the given resource
+	 *
+	 * throws ModelException
+	 *
+	 * <li>{@link SimulationErrorType#NULL_RESOURCE_ID} if the resource id is
+	 * null
+	 * <li>{@link SimulationErrorType#UNKNOWN_RESOURCE_ID} if the resource id is
+	 * not known
+	 */
+	public MapOption getResourceMapOption(final ResourceId resourceId);
+
 	/**
 	 * Returns the number of people currently in the simulation.
 	 *
@@ -3014,6 +3386,114 @@ public interface Environment extends Element {
 	 */
 	public void setPersonPropertyValue(final PersonId personId, final PersonPropertyId personPropertyId, final Object personPropertyValue);
 
+	/**
+	 * Sets the int property value for the given person and property. Has the
+	 * effect of {@link #setPersonPropertyValue(PersonId, PersonPropertyId, Object)}
+	 * with the boxed value, but writes the value without boxing it unless the
+	 * property is indexed or person property assignments are reported.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person id is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is unknown
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Integer
+	 *             <li>{@link SimulationErrorType#IMMUTABLE_VALUE} if the
+	 *             property has been defined as immutable
+	 *             <li>{@link SimulationErrorType#COMPONENT_LACKS_PERMISSION} if
+	 *             the invoker is not a global component or the the person's
+	 *             current region or the the person's current compartment
+	 *
+	 */
+	public void setPersonPropertyInt(final PersonId personId, final PersonPropertyId personPropertyId, final int personPropertyValue);
+
+	/**
+	 * Sets the long property value for the given person and property. Has the
+	 * effect of {@link #setPersonPropertyValue(PersonId, PersonPropertyId, Object)}
+	 * with the boxed value, but writes the value without boxing it unless the
+	 * property is indexed or person property assignments are reported.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person id is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is unknown
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Long
+	 *             <li>{@link SimulationErrorType#IMMUTABLE_VALUE} if the
+	 *             property has been defined as immutable
+	 *             <li>{@link SimulationErrorType#COMPONENT_LACKS_PERMISSION} if
+	 *             the invoker is not a global component or the the person's
+	 *             current region or the the person's current compartment
+	 *
+	 */
+	public void setPersonPropertyLong(final PersonId personId, final PersonPropertyId personPropertyId, final long personPropertyValue);
+
+	/**
+	 * Sets the double property value for the given person and property. Has the
+	 * effect of {@link #setPersonPropertyValue(PersonId, PersonPropertyId, Object)}
+	 * with the boxed value, but writes the value without boxing it unless the
+	 * property is indexed or person property assignments are reported.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person id is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is unknown
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Double
+	 *             <li>{@link SimulationErrorType#IMMUTABLE_VALUE} if the
+	 *             property has been defined as immutable
+	 *             <li>{@link SimulationErrorType#COMPONENT_LACKS_PERMISSION} if
+	 *             the invoker is not a global component or the the person's
+	 *             current region or the the person's current compartment
+	 *
+	 */
+	public void setPersonPropertyDouble(final PersonId personId, final PersonPropertyId personPropertyId, final double personPropertyValue);
+
+	/**
+	 * Sets the boolean property value for the given person and property. Has the
+	 * effect of {@link #setPersonPropertyValue(PersonId, PersonPropertyId, Object)}
+	 * with the boxed value, but writes the value without boxing it unless the
+	 * property is indexed or person property assignments are reported.
+	 *
+	 * @throws ModelException
+	 *
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_ID} if the person
+	 *             id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_ID} if the
+	 *             person id is unknown
+	 *             <li>{@link SimulationErrorType#NULL_PERSON_PROPERTY_ID} if
+	 *             the property id is null
+	 *             <li>{@link SimulationErrorType#UNKNOWN_PERSON_PROPERTY_ID} if
+	 *             the property id is unknown
+	 *             <li>{@link SimulationErrorType#INCOMPATIBLE_VALUE} if the
+	 *             property is not of type Boolean
+	 *             <li>{@link SimulationErrorType#IMMUTABLE_VALUE} if the
+	 *             property has been defined as immutable
+	 *             <li>{@link SimulationErrorType#COMPONENT_LACKS_PERMISSION} if
+	 *             the invoker is not a global component or the the person's
+	 *             current region or the the person's current compartment
+	 *
+	 */
+	public void setPersonPropertyBoolean(final PersonId personId, final PersonPropertyId personPropertyId, final boolean personPropertyValue);
+
 	/**
 	 * Sets the person's region. Region assignment may only be set by the owning
 	 * compartment, except for person creation.
@@ -3668,7 +4148,9 @@ public interface Environment extends Element {
 
 	/**
 	 * Returns the set of plan keys for the current Component as a list. Items
-	 * on the list are unique.
+	 * on the list are unique. The order of the keys is unspecified: keys that
+	 * are {@link gcm.scenario.IntId} values may be listed in hash order rather
+	 * than the order in which their plans were added.
 	 */
 	public List<Object> getPlanKeys();
 
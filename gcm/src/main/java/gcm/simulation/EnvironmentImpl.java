@@ -3,6 +3,7 @@ package gcm.simulation;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -96,6 +97,8 @@ import net.jcip.annotations.NotThreadSafe;
 @Source
 public final class EnvironmentImpl extends BaseElement implements Environment {
 
+	private static final long serialVersionUID = 1L;
+
 	private Context context;
 
 	/*
@@ -176,8 +179,6 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 	private Set<MaterialsProducerPropertyId> materialsProducerPropertyIds;
 
 	private Scenario scenario;
-	private ScenarioId scenarioId;
-	private ReplicationId replicationId;
 
 	@Override
 	public GroupId addGroup(final GroupTypeId groupTypeId) {
@@ -246,6 +247,22 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public void addRecurringPlan(final Plan plan, final double startTime, final double interval, final Object key) {
+		externalAccessManager.acquireWriteAccess();
+		try {
+			validatePlanKeyNotNull(key);
+			validatePlanKeyNotDuplicate(key);
+			validatePlanNotNull(plan);
+			validatePlanTime(startTime);
+			validatePlanInterval(interval);
+			validateComponentHasFocus();
+			mutationResolver.addRecurringPlan(plan, startTime, interval, key);
+		} finally {
+			externalAccessManager.releaseWriteAccess();
+		}
+	}
+
 	@Override
 	public void addPopulationIndex(final Filter filter, final Object key) {
 		externalAccessManager.acquireWriteAccess();
@@ -260,6 +277,28 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public void addWeightedPopulationIndex(final Filter filter, final Object key, final IndexWeightingFunction indexWeightingFunction, final PersonPropertyId... weightPropertyIds) {
+		externalAccessManager.acquireWriteAccess();
+		try {
+			validateComponentHasFocus();
+			validateFilter(filter);
+			validatePopulationIndexKeyNotNull(key);
+			validatePopulationIndexDoesNotExist(key);
+			validateIndexWeightingFunctionNotNull(indexWeightingFunction);
+			final Set<PersonPropertyId> weightPropertyIdSet = new LinkedHashSet<>();
+			if (weightPropertyIds != null) {
+				for (final PersonPropertyId personPropertyId : weightPropertyIds) {
+					validatePersonPropertyId(personPropertyId);
+					weightPropertyIdSet.add(personPropertyId);
+				}
+			}
+			mutationResolver.addWeightedPopulationIndex(componentManager.getFocalComponentId(), filter, key, indexWeightingFunction, weightPropertyIdSet);
+		} finally {
+			externalAccessManager.releaseWriteAccess();
+		}
+	}
+
 	@Override
 	public void addResourceToRegion(final ResourceId resourceId, final RegionId regionId, final long amount) {
 		externalAccessManager.acquireWriteAccess();
@@ -468,6 +507,7 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 			validateBatchId(batchId);
 			final MaterialId materialId = materialsManager.getBatchMaterial(batchId);
 			validateBatchPropertyId(materialId, batchPropertyId);
+			validateBatchPropertyAssignmentTimesTracked(materialId, batchPropertyId);
 			return propertyManager.getBatchPropertyTime(batchId, batchPropertyId);
 		} finally {
 			externalAccessManager.releaseReadAccess();
@@ -815,6 +855,7 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 			validateGroupExists(groupId);
 			final GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
 			validateGroupPropertyId(groupTypeId, groupPropertyId);
+			validateGroupPropertyAssignmentTimesTracked(groupTypeId, groupPropertyId);
 			return propertyManager.getGroupPropertyTime(groupId, groupPropertyId);
 		} finally {
 			externalAccessManager.releaseReadAccess();
@@ -1262,6 +1303,74 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public List<PersonId> getPeopleForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonPropertyId(personPropertyId);
+			validateEquality(equality);
+			final PropertyDefinition propertyDefinition = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId);
+			validateEqualityCompatibility(personPropertyId, propertyDefinition, equality);
+			validatePersonPropertyValueNotNull(personPropertyValue);
+			validateValueCompatibility(personPropertyId, propertyDefinition, personPropertyValue);
+			return propertyManager.getPeopleForPropertyComparison(personPropertyId, equality, personPropertyValue);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
+	@Override
+	public int getPersonCountForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonPropertyId(personPropertyId);
+			validateEquality(equality);
+			final PropertyDefinition propertyDefinition = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId);
+			validateEqualityCompatibility(personPropertyId, propertyDefinition, equality);
+			validatePersonPropertyValueNotNull(personPropertyValue);
+			validateValueCompatibility(personPropertyId, propertyDefinition, personPropertyValue);
+			return propertyManager.getPersonCountForPropertyComparison(personPropertyId, equality, personPropertyValue);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
+	@Override
+	public Optional<PersonId> getRandomPersonForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonPropertyId(personPropertyId);
+			validateEquality(equality);
+			final PropertyDefinition propertyDefinition = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId);
+			validateEqualityCompatibility(personPropertyId, propertyDefinition, equality);
+			validatePersonPropertyValueNotNull(personPropertyValue);
+			validateValueCompatibility(personPropertyId, propertyDefinition, personPropertyValue);
+			final RandomGenerator randomGenerator = context.getStochasticsManager().getRandomGenerator();
+			return Optional.ofNullable(propertyManager.getRandomPersonForPropertyComparison(personPropertyId, equality, personPropertyValue, randomGenerator));
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
+	@Override
+	public Optional<PersonId> getRandomPersonForPropertyComparisonFromGenerator(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue,
+			final RandomNumberGeneratorId randomNumberGeneratorId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonPropertyId(personPropertyId);
+			validateEquality(equality);
+			final PropertyDefinition propertyDefinition = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId);
+			validateEqualityCompatibility(personPropertyId, propertyDefinition, equality);
+			validatePersonPropertyValueNotNull(personPropertyValue);
+			validateValueCompatibility(personPropertyId, propertyDefinition, personPropertyValue);
+			validateRandomNumberGeneratorId(randomNumberGeneratorId);
+			final RandomGenerator randomGenerator = context.getStochasticsManager().getRandomGeneratorFromId(randomNumberGeneratorId);
+			return Optional.ofNullable(propertyManager.getRandomPersonForPropertyComparison(personPropertyId, equality, personPropertyValue, randomGenerator));
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
 	@Override
 	public List<PersonId> getPeopleWithResource(final ResourceId resourceId) {
 		externalAccessManager.acquireReadAccess();
@@ -1273,6 +1382,17 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public int getPersonCountForResource(final ResourceId resourceId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validateResourceId(resourceId);
+			return resourceManager.getPersonCountForResource(resourceId);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
 	@Override
 	public <T extends CompartmentId> T getPersonCompartment(final PersonId personId) {
 		externalAccessManager.acquireReadAccess();
@@ -1375,6 +1495,58 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public int getPersonPropertyInt(final PersonId personId, final PersonPropertyId personPropertyId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonExists(personId);
+			validatePersonPropertyId(personPropertyId);
+			validatePersonPropertyType(personPropertyId, Byte.class, Short.class, Integer.class);
+			return propertyManager.getPersonPropertyIntValue(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
+	@Override
+	public long getPersonPropertyLong(final PersonId personId, final PersonPropertyId personPropertyId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonExists(personId);
+			validatePersonPropertyId(personPropertyId);
+			validatePersonPropertyType(personPropertyId, Byte.class, Short.class, Integer.class, Long.class);
+			return propertyManager.getPersonPropertyLongValue(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
+	@Override
+	public double getPersonPropertyDouble(final PersonId personId, final PersonPropertyId personPropertyId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonExists(personId);
+			validatePersonPropertyId(personPropertyId);
+			validatePersonPropertyType(personPropertyId, Float.class, Double.class);
+			return propertyManager.getPersonPropertyDoubleValue(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
+	@Override
+	public boolean getPersonPropertyBoolean(final PersonId personId, final PersonPropertyId personPropertyId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePersonExists(personId);
+			validatePersonPropertyId(personPropertyId);
+			validatePersonPropertyType(personPropertyId, Boolean.class);
+			return propertyManager.getPersonPropertyBooleanValue(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
 	@Override
 	public <T extends RegionId> T getPersonRegion(final PersonId personId) {
 		externalAccessManager.acquireReadAccess();
@@ -1540,6 +1712,20 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public List<PersonId> sampleIndexedPeople(final Object key, final int sampleCount, RandomNumberGeneratorId randomNumberGeneratorId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePopulationIndexKeyNotNull(key);
+			validatePopulationIndexExists(key);
+			validateSampleCount(sampleCount);
+			validateRandomNumberGeneratorId(randomNumberGeneratorId);
+			return indexedPopulationManager.sampleIndexedPeople(key, sampleCount, randomNumberGeneratorId);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
 	@Override
 	public Optional<PersonId> getRandomIndexedPersonWithExclusionFromGenerator(final PersonId excludedPersonId, final Object key, RandomNumberGeneratorId randomNumberGeneratorId) {
 		externalAccessManager.acquireReadAccess();
@@ -1558,6 +1744,43 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public Optional<PersonId> getWeightedRandomIndexedPerson(final Object key) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePopulationIndexKeyNotNull(key);
+			validatePopulationIndexExists(key);
+			validatePopulationIndexIsWeighted(key);
+			final StochasticPersonSelection stochasticPersonSelection = indexedPopulationManager.getWeightedRandomIndexedPersonFromGenerator(key, null);
+			validateStochasticPersonSelection(stochasticPersonSelection);
+			if (stochasticPersonSelection.getPersonId() == null) {
+				return Optional.empty();
+			}
+			return Optional.of(stochasticPersonSelection.getPersonId());
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
+	@Override
+	public Optional<PersonId> getWeightedRandomIndexedPersonFromGenerator(final Object key, RandomNumberGeneratorId randomNumberGeneratorId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validatePopulationIndexKeyNotNull(key);
+			validatePopulationIndexExists(key);
+			validatePopulationIndexIsWeighted(key);
+			validateRandomNumberGeneratorId(randomNumberGeneratorId);
+			final StochasticPersonSelection stochasticPersonSelection = indexedPopulationManager.getWeightedRandomIndexedPersonFromGenerator(key, randomNumberGeneratorId);
+			validateStochasticPersonSelection(stochasticPersonSelection);
+			if (stochasticPersonSelection.getPersonId() == null) {
+				return Optional.empty();
+			}
+			return Optional.of(stochasticPersonSelection.getPersonId());
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
 	@Override
 	public Set<RegionId> getRegionIds() {
 		externalAccessManager.acquireReadAccess();
@@ -1578,6 +1801,17 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	@Override
+	public MapOption getResourceMapOption(final ResourceId resourceId) {
+		externalAccessManager.acquireReadAccess();
+		try {
+			validateResourceId(resourceId);
+			return context.getScenario().getResourceMapOption(resourceId);
+		} finally {
+			externalAccessManager.releaseReadAccess();
+		}
+	}
+
 	@Override
 	public int getRegionPopulationCount(final RegionId regionId) {
 		externalAccessManager.acquireReadAccess();
@@ -1673,7 +1907,7 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 	public ReplicationId getReplicationId() {
 		externalAccessManager.acquireReadAccess();
 		try {
-			return replicationId;
+			return context.getReplication().getId();
 		} finally {
 			externalAccessManager.releaseReadAccess();
 		}
@@ -1739,7 +1973,7 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 	public ScenarioId getScenarioId() {
 		externalAccessManager.acquireReadAccess();
 		try {
-			return scenarioId;
+			return context.getScenario().getScenarioId();
 		} finally {
 			externalAccessManager.releaseReadAccess();
 		}
@@ -1849,8 +2083,6 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 
 		// initialize data structures that aid with input validation
 		scenario = context.getScenario();
-		scenarioId = scenario.getScenarioId();
-		replicationId = context.getReplication().getId();
 
 		regionIds = scenario.getRegionIds();
 		materialsProducerIds = scenario.getMaterialsProducerIds();
@@ -2551,6 +2783,54 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 
 	}
 
+	@Override
+	public void setPersonPropertyInt(final PersonId personId, final PersonPropertyId personPropertyId, final int personPropertyValue) {
+		externalAccessManager.acquireWriteAccess();
+		try {
+			validatePersonPropertyAssignment(personId, personPropertyId, Integer.class);
+			final PersonId cleanedPersonId = personIdManager.getCleanedPersonId(personId);
+			mutationResolver.setPersonPropertyIntValue(cleanedPersonId, personPropertyId, personPropertyValue);
+		} finally {
+			externalAccessManager.releaseWriteAccess();
+		}
+	}
+
+	@Override
+	public void setPersonPropertyLong(final PersonId personId, final PersonPropertyId personPropertyId, final long personPropertyValue) {
+		externalAccessManager.acquireWriteAccess();
+		try {
+			validatePersonPropertyAssignment(personId, personPropertyId, Long.class);
+			final PersonId cleanedPersonId = personIdManager.getCleanedPersonId(personId);
+			mutationResolver.setPersonPropertyLongValue(cleanedPersonId, personPropertyId, personPropertyValue);
+		} finally {
+			externalAccessManager.releaseWriteAccess();
+		}
+	}
+
+	@Override
+	public void setPersonPropertyDouble(final PersonId personId, final PersonPropertyId personPropertyId, final double personPropertyValue) {
+		externalAccessManager.acquireWriteAccess();
+		try {
+			validatePersonPropertyAssignment(personId, personPropertyId, Double.class);
+			final PersonId cleanedPersonId = personIdManager.getCleanedPersonId(personId);
+			mutationResolver.setPersonPropertyDoubleValue(cleanedPersonId, personPropertyId, personPropertyValue);
+		} finally {
+			externalAccessManager.releaseWriteAccess();
+		}
+	}
+
+	@Override
+	public void setPersonPropertyBoolean(final PersonId personId, final PersonPropertyId personPropertyId, final boolean personPropertyValue) {
+		externalAccessManager.acquireWriteAccess();
+		try {
+			validatePersonPropertyAssignment(personId, personPropertyId, Boolean.class);
+			final PersonId cleanedPersonId = personIdManager.getCleanedPersonId(personId);
+			mutationResolver.setPersonPropertyBooleanValue(cleanedPersonId, personPropertyId, personPropertyValue);
+		} finally {
+			externalAccessManager.releaseWriteAccess();
+		}
+	}
+
 	@Override
 	public void setPersonRegion(final PersonId personId, final RegionId regionId) {
 		externalAccessManager.acquireWriteAccess();
@@ -3227,6 +3507,12 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	private void validateIndexWeightingFunctionNotNull(final IndexWeightingFunction indexWeightingFunction) {
+		if (indexWeightingFunction == null) {
+			throwModelException(SimulationErrorType.NULL_WEIGHTING_FUNCTION);
+		}
+	}
+
 	private void validateMonoWeightingFunctionNotNull(final MonoWeightingFunction monoWeightingFunction) {
 		if (monoWeightingFunction == null) {
 			throwModelException(SimulationErrorType.NULL_WEIGHTING_FUNCTION);
@@ -3257,7 +3543,7 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 	}
 
 	private void validatePersonCompartmentArrivalsTimesTracked() {
-		if (scenario.getPersonCompartmentArrivalTrackingPolicy() != TimeTrackingPolicy.TRACK_TIME) {
+		if (!scenario.getPersonCompartmentArrivalTrackingPolicy().isTracked()) {
 			throwModelException(SimulationErrorType.COMPARTMENT_ARRIVAL_TIMES_NOT_TRACKED);
 		}
 	}
@@ -3304,13 +3590,62 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	/*
+	 * Precondition : the batch property id is valid
+	 */
+	private void validateBatchPropertyAssignmentTimesTracked(final MaterialId materialId, final BatchPropertyId batchPropertyId) {
+		final PropertyDefinition batchPropertyDefinition = propertyDefinitionManager.getBatchPropertyDefinition(materialId, batchPropertyId);
+		if (!batchPropertyDefinition.getTimeTrackingPolicy().isTracked()) {
+			throwModelException(SimulationErrorType.PROPERTY_ASSIGNMENT_TIME_NOT_TRACKED);
+		}
+	}
+
+	/*
+	 * Precondition : the group property id is valid
+	 */
+	private void validateGroupPropertyAssignmentTimesTracked(final GroupTypeId groupTypeId, final GroupPropertyId groupPropertyId) {
+		final PropertyDefinition groupPropertyDefinition = propertyDefinitionManager.getGroupPropertyDefinition(groupTypeId, groupPropertyId);
+		if (!groupPropertyDefinition.getTimeTrackingPolicy().isTracked()) {
+			throwModelException(SimulationErrorType.PROPERTY_ASSIGNMENT_TIME_NOT_TRACKED);
+		}
+	}
+
 	private void validatePersonPropertyAssignmentTimesTracked(final PersonPropertyId personPropertyId) {
 		final PropertyDefinition personPropertyDefinition = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId);
-		if (personPropertyDefinition.getTimeTrackingPolicy() != TimeTrackingPolicy.TRACK_TIME) {
+		if (!personPropertyDefinition.getTimeTrackingPolicy().isTracked()) {
 			throwModelException(SimulationErrorType.PROPERTY_ASSIGNMENT_TIME_NOT_TRACKED);
 		}
 	}
 
+	/*
+	 * Precondition : the person property id is valid
+	 */
+	/*
+	 * Validates the assignment of a primitive value of the given type to the
+	 * person property, as setPersonPropertyValue() validates the assignment of
+	 * an object value
+	 */
+	private void validatePersonPropertyAssignment(final PersonId personId, final PersonPropertyId personPropertyId, final Class<?> type) {
+		validatePersonExists(personId);
+		validatePersonPropertyId(personPropertyId);
+		validatePersonPropertyType(personPropertyId, type);
+		final PropertyDefinition propertyDefinition = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId);
+		validatePropertyMutability(propertyDefinition);
+		final RegionId regionId = personLocationManger.getPersonRegion(personId);
+		final CompartmentId compartmentId = personLocationManger.getPersonCompartment(personId);
+		validateFocalComponent(true, false, false, false, regionId, compartmentId, null);
+	}
+
+	private void validatePersonPropertyType(final PersonPropertyId personPropertyId, final Class<?>... types) {
+		final Class<?> type = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId).getType();
+		for (final Class<?> c : types) {
+			if (c == type) {
+				return;
+			}
+		}
+		throwModelException(SimulationErrorType.INCOMPATIBLE_VALUE, "person property " + personPropertyId + " is of type " + type.getSimpleName());
+	}
+
 	private void validatePersonPropertyId(final PersonPropertyId personPropertyId) {
 		if (personPropertyId == null) {
 			throwModelException(SimulationErrorType.NULL_PERSON_PROPERTY_ID);
@@ -3321,13 +3656,13 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 	}
 
 	private void validatePersonRegionArrivalsTimesTracked() {
-		if (scenario.getPersonRegionArrivalTrackingPolicy() != TimeTrackingPolicy.TRACK_TIME) {
+		if (!scenario.getPersonRegionArrivalTrackingPolicy().isTracked()) {
 			throwModelException(SimulationErrorType.REGION_ARRIVAL_TIMES_NOT_TRACKED);
 		}
 	}
 
 	private void validatePersonResourceTimesTracked(final ResourceId resourceId) {
-		if (scenario.getPersonResourceTimeTrackingPolicy(resourceId) != TimeTrackingPolicy.TRACK_TIME) {
+		if (!scenario.getPersonResourceTimeTrackingPolicy(resourceId).isTracked()) {
 			throwModelException(SimulationErrorType.RESOURCE_ASSIGNMENT_TIME_NOT_TRACKED);
 		}
 	}
@@ -3344,6 +3679,15 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	private void validatePlanInterval(final double interval) {
+		if (!(interval > 0)) {
+			throwModelException(SimulationErrorType.NON_POSITIVE_PLAN_INTERVAL);
+		}
+		if (Double.isInfinite(interval)) {
+			throwModelException(SimulationErrorType.NON_FINITE_PLAN_INTERVAL);
+		}
+	}
+
 	private void validatePlanNotNull(final Plan plan) {
 		if (plan == null) {
 			throwModelException(SimulationErrorType.NULL_PLAN);
@@ -3383,6 +3727,12 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	private void validatePopulationIndexIsWeighted(final Object key) {
+		if (!indexedPopulationManager.isWeightedIndex(key)) {
+			throwModelException(SimulationErrorType.NON_WEIGHTED_POPULATION_INDEX, key);
+		}
+	}
+
 	private void validatePopulationIndexIsOwnedByFocalComponent(final Object key) {
 		if (!indexedPopulationManager.getOwningComponent(key).equals(componentManager.getFocalComponentId())) {
 			throwModelException(SimulationErrorType.INDEXED_POPULATION_DELETION_BY_NON_OWNER, key);
@@ -3521,6 +3871,20 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 		}
 	}
 
+	/*
+	 * Validates a sample count
+	 *
+	 * @throws ModelException
+	 *
+	 * <li>{@link SimulationErrorType#NEGATIVE_SAMPLE_COUNT} if the sample count
+	 * is negative
+	 */
+	private void validateSampleCount(final int sampleCount) {
+		if (sampleCount < 0) {
+			throwModelException(SimulationErrorType.NEGATIVE_SAMPLE_COUNT, sampleCount);
+		}
+	}
+
 	private void validateStageIsNotOffered(final StageId stageId) {
 		if (materialsManager.isStageOffered(stageId)) {
 			throwModelException(SimulationErrorType.OFFERED_STAGE_UNALTERABLE);
@@ -3576,11 +3940,11 @@ public final class EnvironmentImpl extends BaseElement implements Environment {
 			throwModelException(SimulationErrorType.NULL_OUTPUT_ITEM);
 		}
 
-		if (!reportItem.getScenarioId().equals(scenarioId)) {
+		if (!reportItem.getScenarioId().equals(context.getScenario().getScenarioId())) {
 			throwModelException(SimulationErrorType.INCORRECT_SCENARIO_ID_FOR_OUTPUT_ITEM);
 		}
 
-		if (!reportItem.getReplicationId().equals(replicationId)) {
+		if (!reportItem.getReplicationId().equals(context.getReplication().getId())) {
 			throwModelException(SimulationErrorType.INCORRECT_REPLICATION_ID_FOR_OUTPUT_ITEM);
 		}
 
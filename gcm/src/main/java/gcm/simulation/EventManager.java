@@ -30,6 +30,29 @@ public interface EventManager extends Element {
 	 */
 	public void execute();
 
+	/**
+	 * Resumes the flow of time for a simulation restored from a checkpoint or
+	 * forked from a snapshot. The components are not re-initialized. Any plans
+	 * or observations that arose while the simulation was suspended are
+	 * processed first and processing then continues with the plan that follows
+	 * the last plan executed before the checkpoint or snapshot was taken.
+	 */
+	public void resume();
+
+	/**
+	 * Sets the time at which the flow of time is suspended. Once all plans due
+	 * before the suspension time have been executed, execute() and resume()
+	 * return without closing the components so that the state of the
+	 * simulation may be captured in a snapshot. Defaults to positive infinity.
+	 */
+	public void setSuspensionTime(double suspensionTime);
+
+	/**
+	 * Returns true if and only if the most recent invocation of execute() or
+	 * resume() returned because the suspension time was reached
+	 */
+	public boolean isSuspended();
+
 	/**
 	 * Halts the flow of time. This is a graceful halt and some plans and
 	 * observations may still be processed after the halt() is invoked. Once
@@ -70,6 +93,13 @@ public interface EventManager extends Element {
 	 */
 	public void addPlan(final Plan plan, final double planTime, final Object key);
 
+	/**
+	 * Adds a recurring plan with the given key. The plan is first due at the
+	 * start time and then recurs at the given interval until it is removed.
+	 * Each occurrence reuses the planning queue's record of the plan.
+	 */
+	public void addRecurringPlan(final Plan plan, final double startTime, final double interval, final Object key);
+
 	/**
 	 * Returns true if and only if this EventManager has not had halt() invoked
 	 * and has at least one plan in the planning queue. The intended use is for
@@ -80,7 +110,7 @@ public interface EventManager extends Element {
 	
 	/**
 	 * Returns the set of plan keys for the current Component as a list. Items
-	 * on the list are unique.
+	 * on the list are unique. The order of the keys is unspecified.
 	 */
 	public List<Object> getPlanKeys();
 	
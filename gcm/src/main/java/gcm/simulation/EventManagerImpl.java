@@ -1,15 +1,14 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.PriorityQueue;
 import java.util.Set;
 
+import gcm.components.BatchObservingComponent;
 import gcm.components.Component;
 import gcm.output.reports.GroupInfo;
 import gcm.scenario.CompartmentId;
@@ -33,60 +32,8 @@ import gcm.util.annotations.TestStatus;
 
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class EventManagerImpl extends BaseElement implements EventManager {
-	/*
-	 * Each plan that is added is given a plan id value, incrementing the
-	 * masterPlanId. The plan id values are used to resolve ties in the priority
-	 * of the planQueue.
-	 */
-	private long masterPlanId;
-
-	/*
-	 * A data class for managing the plans submitted by components.
-	 *
-	 * The plan created by the component is not understood by the Environment
-	 * per se. Instead, it records the focalId (the identifier of the component)
-	 * and the key for the plan. This plan key is prepended with the focalId so
-	 * that it is impossible for a component to effect another components plans.
-	 * The planTime is the future time when the plan is sent back to the
-	 * component and is the driver to progress time in GCM. PlanRecords are
-	 * stored in a priority queue based on the plan time. When plans are
-	 * cancelled the plan is set to null.When a cancelled plan pops out of the
-	 * queue, it is ignored.
-	 */
-	private static class PlanRecord {
-		private final ComponentId componentId;
-		private final Object key;
-		private Plan plan;
-		private final double planTime;
-		private final long planId;
-
-		@Override
-		public String toString() {
-			StringBuilder builder = new StringBuilder();
-			builder.append("PlanRecord [componentId=");
-			builder.append(componentId);
-			builder.append(", key=");
-			builder.append(key);
-			builder.append(", plan=");
-			builder.append(plan);
-			builder.append(", planTime=");
-			builder.append(planTime);
-			builder.append(", planId=");
-			builder.append(planId);
-			builder.append("]");
-			return builder.toString();
-		}
-
-		public PlanRecord(final ComponentId componentId, final Object key, final Plan plan, final double planTime, final long planId) {
-			super();
-			this.key = key;
-			this.componentId = componentId;
-			this.plan = plan;
-			this.planTime = planTime;
-			this.planId = planId;
-		}
 
-	}
+	private static final long serialVersionUID = 1L;
 
 	private ComponentManager componentManager;
 
@@ -96,13 +43,45 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 
 	private PlanningQueueReportItemManager planningQueueReportItemManager;
 
+	private Context context;
+
+	/*
+	 * The interval between checkpoints and the time at or beyond which the
+	 * next checkpoint is due. A non-positive interval indicates that
+	 * checkpoints are turned off.
+	 */
+	private double checkpointInterval;
+
+	private double nextCheckpointTime;
+
+	/*
+	 * Plans due at or after the suspension time are not executed until the
+	 * simulation is resumed.
+	 */
+	private double suspensionTime = Double.POSITIVE_INFINITY;
+
+	private boolean suspended;
+
 	@Override
 	public void init(Context context) {
 		super.init(context);
+		this.context = context;
+		this.checkpointInterval = context.getCheckpointInterval();
+		this.nextCheckpointTime = checkpointInterval;
 		this.componentManager = context.getComponentManager();
 		this.environment = context.getEnvironment();
 		this.observationManager = context.getObservationManager();
 		this.planningQueueReportItemManager = context.getPlanningQueueReportItemManager();
+		switch (context.getPlanningQueueType()) {
+		case PRIMITIVE:
+			this.planningQueue = new PrimitivePlanningQueue(planningQueueReportItemManager);
+			break;
+		case RECORD:
+			this.planningQueue = new RecordPlanningQueue(planningQueueReportItemManager);
+			break;
+		default:
+			throw new RuntimeException("unhandled case " + context.getPlanningQueueType());
+		}
 	}
 
 	/*
@@ -141,19 +120,59 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 		 */
 		executeInitQueue();
 		executeObservationQueue();
-		
+
+		processPlans();
+	}
+
+	@Override
+	public void resume() {
+		suspended = false;
+		executeInitQueue();
+		executeObservationQueue();
+		processPlans();
+	}
+
+	@Override
+	public void setSuspensionTime(final double suspensionTime) {
+		this.suspensionTime = suspensionTime;
+	}
+
+	@Override
+	public boolean isSuspended() {
+		return suspended;
+	}
+
+	/*
+	 * Executes plans until the planning queue is exhausted or the simulation is
+	 * halted and then closes the components. Returns without closing the
+	 * components if the next plan is due at or after the suspension time.
+	 */
+	private void processPlans() {
 		/*
 		 * The flow of time is determined by the progress of planning. Note that
 		 * plans that are cancelled do not move time forward.
 		 */
 
-		while (processEvents && !planQueue.isEmpty()) {
-			final PlanRecord planRecord = planQueue.poll();
-			if (planRecord.plan != null) {
-				time = planRecord.planTime;
-				executePlan(planRecord);
-				executeInitQueue();
-				executeObservationQueue();
+		while (processEvents && !planningQueue.isEmpty()) {
+			if (planningQueue.getNextPlanTime() >= suspensionTime) {
+				suspended = true;
+				return;
+			}
+			planningQueue.pollPlan();
+			time = planningQueue.getCurrentPlanTime();
+			executePlan();
+			executeInitQueue();
+			executeObservationQueue();
+
+			/*
+			 * All observations resulting from the plan have been delivered, so
+			 * the simulation is in a consistent state for a checkpoint. The
+			 * next checkpoint time is advanced first so that a restored
+			 * simulation does not immediately write another checkpoint.
+			 */
+			if (checkpointInterval > 0 && time >= nextCheckpointTime) {
+				nextCheckpointTime = (Math.floor(time / checkpointInterval) + 1) * checkpointInterval;
+				context.writeCheckpoint();
 			}
 		}
 
@@ -174,7 +193,7 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 
 	@Override
 	public boolean isActive() {
-		return processEvents && !planQueue.isEmpty();
+		return processEvents && !planningQueue.isEmpty();
 	}
 
 	/*
@@ -186,6 +205,11 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 	 * immediately or plan for future action. Thus the observation queue can
 	 * grow while we are processing it and we do not leave this method until the
 	 * queue is exhausted.
+	 *
+	 * Person-level observations bound for a BatchObservingComponent are
+	 * collected into batches rather than delivered individually. The batches
+	 * are delivered whenever the queue runs dry, and we do not leave this
+	 * method until both the queue and the batches are exhausted.
 	 */
 	private void executeObservationQueue() {
 		/*
@@ -193,20 +217,28 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 		 * left to observe.
 		 */
 
+		final ObservationQueue observationQueue = observationManager.getObservationQueue();
 		while (processEvents) {
-			final ObservationRecord observationRecord = observationManager.getNextObservation();
-			if (observationRecord == null) {
-				break;
+			if (!observationQueue.poll()) {
+				if (observationBatches.isEmpty()) {
+					break;
+				}
+				executeObservationBatches();
+				continue;
+			}
+
+			if (batchObservation(observationQueue)) {
+				continue;
 			}
 
 			/*
 			 * First, switch the focus to the component that will be sent the
 			 * observation
 			 */
-			componentManager.setFocus(observationRecord.getComponentId());
+			componentManager.setFocus(observationQueue.getCurrentComponentIndex());
 
 			final Component component = componentManager.getFocalComponent();
-			final ObservationType observationType = observationRecord.getArgument(0);
+			final ObservationType observationType = observationQueue.getCurrentObservationType();
 
 			RegionId regionId;
 			MaterialsProducerId materialsProducerId;
@@ -227,132 +259,131 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 			Object key;
 
 			/*
-			 * Based on the type of event being observed, unpack the
-			 * observationRecord.observedInfoKey and convert its elements into
-			 * the arguments matching the appropriate observation method of the
-			 * component interface.
+			 * Based on the type of event being observed, convert the arguments
+			 * of the current observation into the arguments matching the
+			 * appropriate observation method of the component interface.
 			 */
 
 			switch (observationType) {
 			case COMPARTMENT_PERSON_ARRIVAL:
-				personId = observationRecord.getArgument(1);
+				personId = observationQueue.getCurrentFirstArgument();
 				component.observeCompartmentPersonArrival(environment, personId);
 				break;
 			case COMPARTMENT_PERSON_DEPARTURE:
-				compartmentId = observationRecord.getArgument(1);
-				personId = observationRecord.getArgument(2);
+				compartmentId = observationQueue.getCurrentFirstArgument();
+				personId = observationQueue.getCurrentSecondArgument();
 				component.observeCompartmentPersonDeparture(environment, compartmentId, personId);
 				break;
 			case COMPARTMENT_PROPERTY:
-				compartmentId = observationRecord.getArgument(1);
-				compartmentPropertyId = observationRecord.getArgument(2);
+				compartmentId = observationQueue.getCurrentFirstArgument();
+				compartmentPropertyId = observationQueue.getCurrentSecondArgument();
 				component.observeCompartmentPropertyChange(environment, compartmentId, compartmentPropertyId);
 				break;
 			case GLOBAL_PERSON_ARRIVAL:
-				personId = observationRecord.getArgument(1);
+				personId = observationQueue.getCurrentFirstArgument();
 				component.observeGlobalPersonArrival(environment, personId);
 				break;
 			case GLOBAL_PERSON_DEPARTURE:
-				personId = observationRecord.getArgument(1);
+				personId = observationQueue.getCurrentFirstArgument();
 				component.observeGlobalPersonDeparture(environment, personId);
 				break;
 			case GLOBAL_PROPERTY:
-				globalPropertyId = observationRecord.getArgument(1);
+				globalPropertyId = observationQueue.getCurrentFirstArgument();
 				component.observeGlobalPropertyChange(environment, globalPropertyId);
 				break;
 			case PERSON_COMPARTMENT:
-				personId = observationRecord.getArgument(1);
+				personId = observationQueue.getCurrentFirstArgument();
 				component.observePersonCompartmentChange(environment, personId);
 				break;
 			case PERSON_PROPERTY:
-				personId = observationRecord.getArgument(1);
-				personPropertyId = observationRecord.getArgument(2);
+				personId = observationQueue.getCurrentFirstArgument();
+				personPropertyId = observationQueue.getCurrentSecondArgument();
 				component.observePersonPropertyChange(environment, personId, personPropertyId);
 				break;
 			case PERSON_REGION:
-				personId = observationRecord.getArgument(1);
+				personId = observationQueue.getCurrentFirstArgument();
 				component.observePersonRegionChange(environment, personId);
 				break;
 			case PERSON_RESOURCE:
-				personId = observationRecord.getArgument(1);
-				resourceId = observationRecord.getArgument(2);
+				personId = observationQueue.getCurrentFirstArgument();
+				resourceId = observationQueue.getCurrentSecondArgument();
 				component.observePersonResourceChange(environment, personId, resourceId);
 				break;
 			case REGION_PERSON_ARRIVAL:
-				personId = observationRecord.getArgument(1);
+				personId = observationQueue.getCurrentFirstArgument();
 				component.observeRegionPersonArrival(environment, personId);
 				break;
 			case REGION_PERSON_DEPARTURE:
-				regionId = observationRecord.getArgument(1);
-				personId = observationRecord.getArgument(2);
+				regionId = observationQueue.getCurrentFirstArgument();
+				personId = observationQueue.getCurrentSecondArgument();
 				component.observeRegionPersonDeparture(environment, regionId, personId);
 				break;
 			case REGION_PROPERTY:
-				regionId = observationRecord.getArgument(1);
-				regionPropertyId = observationRecord.getArgument(2);
+				regionId = observationQueue.getCurrentFirstArgument();
+				regionPropertyId = observationQueue.getCurrentSecondArgument();
 				component.observeRegionPropertyChange(environment, regionId, regionPropertyId);
 				break;
 			case REGION_RESOURCE:
-				regionId = observationRecord.getArgument(1);
-				resourceId = observationRecord.getArgument(2);
+				regionId = observationQueue.getCurrentFirstArgument();
+				resourceId = observationQueue.getCurrentSecondArgument();
 				component.observeRegionResourceChange(environment, regionId, resourceId);
 				break;
 			case RESOURCE_PROPERTY:
-				resourceId = observationRecord.getArgument(1);
-				resourcePropertyId = observationRecord.getArgument(2);
+				resourceId = observationQueue.getCurrentFirstArgument();
+				resourcePropertyId = observationQueue.getCurrentSecondArgument();
 				component.observeResourcePropertyChange(environment, resourceId, resourcePropertyId);
 				break;
 			case MATERIALS_PRODUCER_PROPERTY:
-				materialsProducerId = observationRecord.getArgument(1);
-				materialsProducerPropertyId = observationRecord.getArgument(2);
+				materialsProducerId = observationQueue.getCurrentFirstArgument();
+				materialsProducerPropertyId = observationQueue.getCurrentSecondArgument();
 				component.observeMaterialsProducerPropertyChange(environment, materialsProducerId, materialsProducerPropertyId);
 				break;
 			case STAGE_OFFER:
-				stageId = observationRecord.getArgument(1);
+				stageId = observationQueue.getCurrentFirstArgument();
 				component.observeStageOfferChange(environment, stageId);
 				break;
 			case STAGE_TRANSFER:
-				stageId = observationRecord.getArgument(1);
-				materialsProducerId = observationRecord.getArgument(2);
-				materialsProducerId2 = observationRecord.getArgument(3);
+				stageId = observationQueue.getCurrentFirstArgument();
+				materialsProducerId = observationQueue.getCurrentSecondArgument();
+				materialsProducerId2 = observationQueue.getCurrentThirdArgument();
 				component.observeStageTransfer(environment, stageId,materialsProducerId,materialsProducerId2);
 				break;
 			case MATERIALS_PRODUCER_RESOURCE:
-				materialsProducerId = observationRecord.getArgument(1);
-				resourceId = observationRecord.getArgument(2);
+				materialsProducerId = observationQueue.getCurrentFirstArgument();
+				resourceId = observationQueue.getCurrentSecondArgument();
 				component.observeMaterialsProducerResourceChange(environment, materialsProducerId, resourceId);
 				break;
 			case GROUP_CONSTRUCTION:
-				groupId = observationRecord.getArgument(1);
+				groupId = observationQueue.getCurrentFirstArgument();
 				component.observeGroupConstruction(environment, groupId);
 				break;
 			case GROUP_DESTRUCTION:
-				groupInfo = observationRecord.getArgument(1);
+				groupInfo = observationQueue.getCurrentFirstArgument();
 				component.observeGroupDestruction(environment, groupInfo);
 				break;
 			case GROUP_PERSON_ARRIVAL:
-				groupId = observationRecord.getArgument(1);
-				personId = observationRecord.getArgument(2);
+				groupId = observationQueue.getCurrentFirstArgument();
+				personId = observationQueue.getCurrentSecondArgument();
 				component.observeGroupPersonArrival(environment, groupId, personId);
 				break;
 			case GROUP_PERSON_DEPARTURE:
-				groupId = observationRecord.getArgument(1);
-				personId = observationRecord.getArgument(2);
+				groupId = observationQueue.getCurrentFirstArgument();
+				personId = observationQueue.getCurrentSecondArgument();
 				component.observeGroupPersonDeparture(environment, groupId, personId);
 				break;
 			case GROUP_PROPERTY:
-				groupId = observationRecord.getArgument(1);
-				groupPropertyId = observationRecord.getArgument(2);
+				groupId = observationQueue.getCurrentFirstArgument();
+				groupPropertyId = observationQueue.getCurrentSecondArgument();
 				component.observeGroupPropertyChange(environment, groupId, groupPropertyId);
 				break;
 			case POPULATION_INDEX_PERSON_ADDITION:
-				key = observationRecord.getArgument(1);
-				personId = observationRecord.getArgument(2);
+				key = observationQueue.getCurrentFirstArgument();
+				personId = observationQueue.getCurrentSecondArgument();
 				component.observePopulationIndexPersonAddition(environment, key, personId);
 				break;
 			case POPULATION_INDEX_PERSON_REMOVAL:
-				key = observationRecord.getArgument(1);
-				personId = observationRecord.getArgument(2);
+				key = observationQueue.getCurrentFirstArgument();
+				personId = observationQueue.getCurrentSecondArgument();
 				component.observePopulationIndexPersonRemoval(environment, key, personId);
 				break;				
 			default:
@@ -366,23 +397,164 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 	}
 
 	/*
-	 * Stimulates the current focus component to execute a plan that has come
-	 * due.
+	 * A collection of person-level observations of a single type and
+	 * identifier that are bound for a single BatchObservingComponent
 	 */
-	private void executePlan(final PlanRecord planRecord) {
+	private static class ObservationBatch implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
+		private final int componentIndex;
+		private final ObservationType observationType;
+		private final Object key;
+		private final List<PersonId> personIds = new ArrayList<>();
 		/*
-		 * We are going to stimulate a component, so we record the focus
+		 * The next open batch for the same component
 		 */
-		componentManager.setFocus(planRecord.componentId);
+		private ObservationBatch next;
+
+		private ObservationBatch(final int componentIndex, final ObservationType observationType, final Object key) {
+			this.componentIndex = componentIndex;
+			this.observationType = observationType;
+			this.key = key;
+		}
+	}
+
+	/*
+	 * The open observation batches in order of creation
+	 */
+	private final List<ObservationBatch> observationBatches = new ArrayList<>();
+
+	/*
+	 * The most recently created open observation batch for each component,
+	 * indexed by component index. Each batch links to the batch created before
+	 * it for the same component.
+	 */
+	private ObservationBatch[] observationBatchesByComponent = new ObservationBatch[0];
+
+	/*
+	 * Adds the current observation of the observation queue to an observation
+	 * batch if the observation type supports batching and the observing
+	 * component is a BatchObservingComponent. Returns true if the observation
+	 * was batched.
+	 */
+	private boolean batchObservation(final ObservationQueue observationQueue) {
+		final ObservationType observationType = observationQueue.getCurrentObservationType();
+		final PersonId personId;
+		final Object key;
+		switch (observationType) {
+		case COMPARTMENT_PERSON_ARRIVAL:
+		case GLOBAL_PERSON_ARRIVAL:
+		case PERSON_COMPARTMENT:
+		case PERSON_REGION:
+		case REGION_PERSON_ARRIVAL:
+			personId = observationQueue.getCurrentFirstArgument();
+			key = null;
+			break;
+		case PERSON_PROPERTY:
+		case PERSON_RESOURCE:
+			personId = observationQueue.getCurrentFirstArgument();
+			key = observationQueue.getCurrentSecondArgument();
+			break;
+		case COMPARTMENT_PERSON_DEPARTURE:
+		case REGION_PERSON_DEPARTURE:
+			key = observationQueue.getCurrentFirstArgument();
+			personId = observationQueue.getCurrentSecondArgument();
+			break;
+		default:
+			return false;
+		}
+
+		final int componentIndex = observationQueue.getCurrentComponentIndex();
+		if (!(componentManager.getComponent(componentIndex) instanceof BatchObservingComponent)) {
+			return false;
+		}
+
+		if (componentIndex >= observationBatchesByComponent.length) {
+			observationBatchesByComponent = Arrays.copyOf(observationBatchesByComponent, Math.max(componentIndex + 1, observationBatchesByComponent.length << 1));
+		}
+
+		ObservationBatch observationBatch = observationBatchesByComponent[componentIndex];
+		while (observationBatch != null) {
+			if (observationBatch.observationType == observationType && (observationBatch.key == key || (key != null && key.equals(observationBatch.key)))) {
+				break;
+			}
+			observationBatch = observationBatch.next;
+		}
+		if (observationBatch == null) {
+			observationBatch = new ObservationBatch(componentIndex, observationType, key);
+			observationBatch.next = observationBatchesByComponent[componentIndex];
+			observationBatchesByComponent[componentIndex] = observationBatch;
+			observationBatches.add(observationBatch);
+		}
+		observationBatch.personIds.add(personId);
+		return true;
+	}
+
+	/*
+	 * Delivers the open observation batches to their components in order of
+	 * batch creation. Observations generated by the components are placed on
+	 * the observation queue and may form new batches.
+	 */
+	private void executeObservationBatches() {
+		final List<ObservationBatch> batches = new ArrayList<>(observationBatches);
+		observationBatches.clear();
+		Arrays.fill(observationBatchesByComponent, null);
+
+		for (final ObservationBatch observationBatch : batches) {
+			if (!processEvents) {
+				break;
+			}
+			componentManager.setFocus(observationBatch.componentIndex);
+			final BatchObservingComponent component = (BatchObservingComponent) componentManager.getFocalComponent();
+			final List<PersonId> personIds = observationBatch.personIds;
+			switch (observationBatch.observationType) {
+			case COMPARTMENT_PERSON_ARRIVAL:
+				component.observeCompartmentPersonArrivals(environment, personIds);
+				break;
+			case COMPARTMENT_PERSON_DEPARTURE:
+				component.observeCompartmentPersonDepartures(environment, (CompartmentId) observationBatch.key, personIds);
+				break;
+			case GLOBAL_PERSON_ARRIVAL:
+				component.observeGlobalPersonArrivals(environment, personIds);
+				break;
+			case PERSON_COMPARTMENT:
+				component.observePersonCompartmentChanges(environment, personIds);
+				break;
+			case PERSON_PROPERTY:
+				component.observePersonPropertyChanges(environment, (PersonPropertyId) observationBatch.key, personIds);
+				break;
+			case PERSON_REGION:
+				component.observePersonRegionChanges(environment, personIds);
+				break;
+			case PERSON_RESOURCE:
+				component.observePersonResourceChanges(environment, (ResourceId) observationBatch.key, personIds);
+				break;
+			case REGION_PERSON_ARRIVAL:
+				component.observeRegionPersonArrivals(environment, personIds);
+				break;
+			case REGION_PERSON_DEPARTURE:
+				component.observeRegionPersonDepartures(environment, (RegionId) observationBatch.key, personIds);
+				break;
+			default:
+				throw new RuntimeException("unhandled observation batch case " + observationBatch.observationType);
+			}
+			componentManager.clearFocus();
+		}
+	}
+
+	/*
+	 * Stimulates the current focus component to execute a plan that has come
+	 * due. The plan is the current plan of the planning queue.
+	 */
+	private void executePlan() {
+		final ComponentId componentId = planningQueue.getCurrentComponentId();
+		final Plan plan = planningQueue.getCurrentPlan();
 
 		/*
-		 * We are releasing custody of the plan, so we remove it from our
-		 * tracking map
+		 * We are going to stimulate a component, so we record the focus
 		 */
-		if (planRecord.key != null) {
-			planMap.get(planRecord.componentId).remove(planRecord.key);
-		}
+		componentManager.setFocus(componentId);
 
 		/*
 		 * Determine the component from the current focal id
@@ -390,10 +562,18 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 		final Component component = componentManager.getFocalComponent();
 
 		/*
-		 *  
+		 * The planning queue has already released custody of the plan and its
+		 * key, so we record the removal.
 		 */
 		if (planningQueueReportItemManager.isActive()) {
-			planningQueueReportItemManager.reportPlanningQueueRemoval(planRecord.componentId, planRecord.plan, planRecord.key);
+			planningQueueReportItemManager.reportPlanningQueueRemoval(componentId, plan, planningQueue.getCurrentKey());
+			/*
+			 * A recurring plan has already been rescheduled by the planning
+			 * queue, so we record its re-addition.
+			 */
+			if (planningQueue.isCurrentPlanRecurring()) {
+				planningQueueReportItemManager.reportPlanningQueueAddition(componentId, plan, planningQueue.getCurrentKey());
+			}
 		}
 
 		/*
@@ -402,7 +582,7 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 		 * assume any action on its part.
 		 */
 
-		component.executePlan(environment, planRecord.plan);
+		component.executePlan(environment, plan);
 
 		/*
 		 * Now that the component is done we clear the focus
@@ -416,39 +596,13 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 	private boolean processEvents = true;
 
 	/*
-	 * The planQueue and the planMap contain an identical set of records and
-	 * those records do not contain past plans.The planQueue sorts the plans by
-	 * ascending planning time and arrival order and thus represent the intended
-	 * order of execution for plans. Plans drive the flow of time and time is
-	 * moved forward by setting it to the scheduled time of the plan at the head
-	 * of the queue. The planQueue is non-performant for retrieving or canceling
-	 * plans, so the planMap is used for these functions.
-	 */
-	private PriorityQueue<PlanRecord> planQueue = new PriorityQueue<>(new Comparator<PlanRecord>() {
-		/*
-		 * We sort by plan time ascending. Ties are broken by the planId, which
-		 * is incremented as plans are added.
-		 */
-		@Override
-		public int compare(final PlanRecord plan1, final PlanRecord plan2) {
-			int result = Double.compare(plan1.planTime, plan2.planTime);
-			if (result == 0) {
-				result = Long.compare(plan1.planId, plan2.planId);
-			}
-			return result;
-		}
-	});
-
-	/*
-	 *
-	 * The planQueue and the planMap contain an identical set of identified plan
-	 * records and do not contain past plans. Plan's that are not associated
-	 * with an identifier are not contained in the planMap and are not
-	 * retrievable or removable. The planMap allows for the O(1) retrieval and
-	 * cancellation of plans, but does not contain those records in the order of
-	 * their execution.
+	 * The planningQueue sorts the plans by ascending planning time and arrival
+	 * order and thus represents the intended order of execution for plans.
+	 * Plans drive the flow of time and time is moved forward by setting it to
+	 * the scheduled time of the next plan in the queue. The planningQueue also
+	 * supports the retrieval and cancellation of keyed plans.
 	 */
-	private Map<ComponentId, Map<Object, PlanRecord>> planMap = new LinkedHashMap<>();
+	private PlanningQueue planningQueue;
 
 	/*
 	 * The current time in the simulation. It is measured in days and start at
@@ -469,29 +623,12 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T extends Plan> T getPlan(final Object key) {
-		T t = null;
-		Map<Object, PlanRecord> map = planMap.get(componentManager.getFocalComponentId());
-		if (map != null) {
-			final PlanRecord planRecord = map.get(key);
-			if (planRecord != null) {
-				t = (T) planRecord.plan;
-			}
-		}
-		return t;
+		return (T) planningQueue.getPlan(componentManager.getFocalComponentId(), key);
 	}
 
 	@Override
 	public double getPlanTime(final Object key) {
-		Map<Object, PlanRecord> map = planMap.get(componentManager.getFocalComponentId());
-		double result = -1;
-		if (map != null) {
-			final PlanRecord planRecord = map.get(key);
-			if (planRecord != null) {
-				result = planRecord.planTime;
-			}
-		}
-
-		return result;
+		return planningQueue.getPlanTime(componentManager.getFocalComponentId(), key);
 	}
 
 	@Override
@@ -500,90 +637,53 @@ public final class EventManagerImpl extends BaseElement implements EventManager
 
 		/*
 		 * We drop the plan out of the plan map and thus have no way to
-		 * reference the plan directly. However, we do not remove the plan from
-		 * the planQueue and instead simply mark the plan record as cancelled.
-		 * When the cancelled plan record reaches the top of the queue, it is
-		 * popped off and ignored. This avoids the inefficiency of walking the
-		 * queue and removing the plan.
+		 * reference the plan directly. However, the planning queue does not
+		 * immediately remove the plan from its heap and instead simply
+		 * marks the plan as cancelled. Cancelled plans are purged
+		 * when they reach the top of the queue or when the queue compacts
+		 * itself. This avoids the inefficiency of walking the queue and
+		 * removing the plan.
 		 *
 		 * Note that we are allowing components to delete plans that do not
 		 * exist. This was done to ease any bookkeeping burdens on the component
 		 * and seems generally harmless.
+		 *
+		 * The planning queue reports the cancellation itself so that it is
+		 * recorded before any compaction purges the cancelled plan.
 		 */
 		ComponentId focalComponentId = componentManager.getFocalComponentId();
-		Map<Object, PlanRecord> map = planMap.get(focalComponentId);
-		T result = null;
-		if (map != null) {
-			final PlanRecord planRecord = map.remove(key);
-			if (planRecord != null) {
-				if (planningQueueReportItemManager.isActive()) {
-					planningQueueReportItemManager.reportPlanningQueueCancellation(focalComponentId, planRecord.plan, key);
-				}
-				result = (T) planRecord.plan;
-				planRecord.plan = null;
-			}
-		}
-
-		if (result == null) {
+		final Plan plan = planningQueue.removePlan(focalComponentId, key);
+		if (plan == null) {
 			return Optional.empty();
 		}
-		return Optional.of(result);
+		return Optional.of((T) plan);
 	}
 
 	@Override
 	public void addPlan(final Plan plan, final double planTime, final Object key) {
-
-		PlanRecord planRecord;
-		if (key != null) {
-			/*
-			 * Make sure that the component is not registering a plan on top of
-			 * an existing plan. We have chosen to throw an exception if this
-			 * happens rather than overwrite the plan, forcing the component to
-			 * explicitly remove the existing plan first
-			 */
-			ComponentId focalComponentId = componentManager.getFocalComponentId();
-			Map<Object, PlanRecord> map = planMap.get(focalComponentId);
-			if (map != null) {
-				if (map.containsKey(key)) {
-					throw new RuntimeException("Plan already exists for key = " + key);
-				}
-			}
-
-			/*
-			 * Finally, if it all looks good, build the plan record and put it
-			 * in on the planMap and the planQueue. The planMap allows us to
-			 * remove/retrieve plans and the planQueue allows us to return plans
-			 * back to their creators when the scheduled time occurs.
-			 */
-
-			planRecord = new PlanRecord(focalComponentId, key, plan, planTime, masterPlanId++);
-			if (planningQueueReportItemManager.isActive()) {
-				planningQueueReportItemManager.reportPlanningQueueAddition(focalComponentId, plan, key);
-			}
-
-			if (map == null) {
-				map = new LinkedHashMap<>();
-				planMap.put(focalComponentId, map);
-			}
-			map.put(planRecord.key, planRecord);
-		} else {
-			/*
-			 * The plan will not be retrievable via the plan map.
-			 */
-			planRecord = new PlanRecord(componentManager.getFocalComponentId(), null, plan, planTime, masterPlanId++);
-			if (planningQueueReportItemManager.isActive()) {
-				planningQueueReportItemManager.reportPlanningQueueAddition(componentManager.getFocalComponentId(), plan, key);
-			}
+		/*
+		 * Keyed plans are retrievable and removable via the planning queue.
+		 * Plans without keys are not.
+		 */
+		ComponentId focalComponentId = componentManager.getFocalComponentId();
+		planningQueue.addPlan(focalComponentId, plan, planTime, key);
+		if (planningQueueReportItemManager.isActive()) {
+			planningQueueReportItemManager.reportPlanningQueueAddition(focalComponentId, plan, key);
 		}
-		planQueue.add(planRecord);
+	}
 
+	@Override
+	public void addRecurringPlan(final Plan plan, final double startTime, final double interval, final Object key) {
+		ComponentId focalComponentId = componentManager.getFocalComponentId();
+		planningQueue.addRecurringPlan(focalComponentId, plan, startTime, interval, key);
+		if (planningQueueReportItemManager.isActive()) {
+			planningQueueReportItemManager.reportPlanningQueueAddition(focalComponentId, plan, key);
+		}
 	}
 
 	@Override
 	public List<Object> getPlanKeys() {
-		ComponentId focalComponentId = componentManager.getFocalComponentId();
-		Map<Object, PlanRecord> map = planMap.get(focalComponentId);
-		return new ArrayList<>(map.keySet());
+		return planningQueue.getPlanKeys(componentManager.getFocalComponentId());
 	}
 	
 	private void executeInitQueue() {
@@ -13,6 +13,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class ExternalAccessManagerImpl extends BaseElement implements ExternalAccessManager{
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * When true, all writes are blocked. This is used to turn off all writing
 	 * of data from model contributed classes during the early stage of
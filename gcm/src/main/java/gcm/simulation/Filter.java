@@ -1,5 +1,6 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -36,7 +37,7 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public abstract class Filter {
+public abstract class Filter implements Serializable {
 
 
 	static class AllPeopleFilter extends Filter {
@@ -1,14 +1,23 @@
 package gcm.simulation;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import gcm.scenario.CompartmentId;
 import gcm.scenario.GroupId;
 import gcm.scenario.GroupTypeId;
+import gcm.scenario.MapOption;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
+import gcm.scenario.PropertyDefinition;
 import gcm.scenario.RegionId;
 import gcm.scenario.ResourceId;
+import gcm.scenario.Scenario;
 import gcm.simulation.FilterInfo.AndFilterInfo;
 import gcm.simulation.FilterInfo.CompartmentFilterInfo;
 import gcm.simulation.FilterInfo.FilterInfoType;
@@ -24,13 +33,16 @@ import gcm.simulation.FilterInfo.ResourceFilterInfo;
 
 /**
  * A utility class that evaluates a FilterInfo against the current state of the
- * simulation for individual people.
+ * simulation for individual people or, through bit masks, for many people at
+ * once.
  * 
  * @author Shawn Hatch
  *
  */
 
-public abstract class FilterEvaluator {
+public abstract class FilterEvaluator implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private FilterEvaluator() {
 	}
@@ -85,24 +97,40 @@ public abstract class FilterEvaluator {
 
 	private static class AllPeopleFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public boolean evaluate(Environment environment, PersonId personId) {
 			return true;
 		}
 
+		@Override
+		void evaluate(Environment environment, PersonIdManager personIdManager, long[] mask, int wordOffset, Scratch scratch) {
+			// every candidate passes
+		}
+
 	}
 
 	private static class EmptyPeopleFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public boolean evaluate(Environment environment, PersonId personId) {
 			return false;
 		}
 
+		@Override
+		void evaluate(Environment environment, PersonIdManager personIdManager, long[] mask, int wordOffset, Scratch scratch) {
+			Arrays.fill(mask, 0L);
+		}
+
 	}
 
 	private static final class CompartmentFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final CompartmentId compartmentId;
 
 		public CompartmentFilterEvaluator(CompartmentId compartmentId) {
@@ -118,6 +146,8 @@ public abstract class FilterEvaluator {
 
 	private static final class RegionFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		//the region ids will be an unmodifiable list
 		private final Set<RegionId> regionIds;
 
@@ -133,6 +163,8 @@ public abstract class FilterEvaluator {
 
 	private static final class AndFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final FilterEvaluator a;
 		private final FilterEvaluator b;
 
@@ -146,10 +178,21 @@ public abstract class FilterEvaluator {
 			return a.evaluate(environment, personId) && b.evaluate(environment, personId);
 		}
 
+		/*
+		 * The second evaluator only sees the candidates that pass the first
+		 */
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			a.evaluate(environment, personIdManager, mask, wordOffset, scratch);
+			b.evaluate(environment, personIdManager, mask, wordOffset, scratch);
+		}
+
 	}
 
 	private static final class OrFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final FilterEvaluator a;
 		private final FilterEvaluator b;
 
@@ -163,10 +206,29 @@ public abstract class FilterEvaluator {
 			return a.evaluate(environment, personId) || b.evaluate(environment, personId);
 		}
 
+		/*
+		 * The second evaluator only sees the candidates that fail the first
+		 */
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final long[] aMask = scratch.acquireMask(mask);
+			a.evaluate(environment, personIdManager, aMask, wordOffset, scratch);
+			for (int i = 0; i < mask.length; i++) {
+				mask[i] &= ~aMask[i];
+			}
+			b.evaluate(environment, personIdManager, mask, wordOffset, scratch);
+			for (int i = 0; i < mask.length; i++) {
+				mask[i] |= aMask[i];
+			}
+			scratch.releaseMask();
+		}
+
 	}
 
 	private static final class NegateFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final FilterEvaluator a;
 
 		public NegateFilterEvaluator(FilterEvaluator a) {
@@ -178,10 +240,22 @@ public abstract class FilterEvaluator {
 			return !a.evaluate(environment, personId);
 		}
 
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final long[] aMask = scratch.acquireMask(mask);
+			a.evaluate(environment, personIdManager, aMask, wordOffset, scratch);
+			for (int i = 0; i < mask.length; i++) {
+				mask[i] &= ~aMask[i];
+			}
+			scratch.releaseMask();
+		}
+
 	}
 
 	private static final class PropertyFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final PersonPropertyId personPropertyId;
 		private final Object personPropertyValue;
 		private final Equality equality;
@@ -214,6 +288,8 @@ public abstract class FilterEvaluator {
 
 	private static final class ResourceFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final ResourceId resourceId;
 		private final long resourceValue;
 		private final Equality equality;
@@ -234,6 +310,8 @@ public abstract class FilterEvaluator {
 
 	private static final class GroupMemberFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final GroupId groupId;
 
 		public GroupMemberFilterEvaluator(GroupId groupId) {
@@ -249,6 +327,8 @@ public abstract class FilterEvaluator {
 
 	private static final class GroupsForPersonAndGroupTypeFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final GroupTypeId groupTypeId;
 		private final Equality equality;
 		private final int groupCount;
@@ -270,6 +350,8 @@ public abstract class FilterEvaluator {
 
 	private static final class GroupsForPersonFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final Equality equality;
 		private final int groupCount;
 
@@ -289,6 +371,8 @@ public abstract class FilterEvaluator {
 
 	private static final class GroupTypesForPersonFilterEvaluator extends FilterEvaluator {
 
+		private static final long serialVersionUID = 1L;
+
 		private final Equality equality;
 		private final int groupTypeCount;
 
@@ -305,6 +389,819 @@ public abstract class FilterEvaluator {
 		}
 	}
 
+	/**
+	 * Returns a FilterEvaluator for the FilterInfo that reads the state of the
+	 * simulation directly from the managers of the context rather than through
+	 * the environment, which is ignored by the returned evaluator. Property
+	 * comparisons are resolved to primitive comparisons or to truth tables
+	 * over boolean values and enum ordinals. The branches of AND and OR
+	 * filters are ordered so that the branch most likely to decide the result
+	 * at the least cost is evaluated first, using the population counts
+	 * available at the time of compilation.
+	 */
+	public static FilterEvaluator compile(FilterInfo filterInfo, Context context) {
+		return new FilterCompiler(context).compile(filterInfo).filterEvaluator;
+	}
+
+	/*
+	 * A compiled filter evaluator along with its estimated cost of evaluation
+	 * and its estimated probability of passing a person
+	 */
+	private static final class CompiledFilter {
+		private final FilterEvaluator filterEvaluator;
+		private final double cost;
+		private final double passProbability;
+
+		private CompiledFilter(FilterEvaluator filterEvaluator, double cost, double passProbability) {
+			this.filterEvaluator = filterEvaluator;
+			this.cost = cost;
+			this.passProbability = Math.max(0, Math.min(1, passProbability));
+		}
+	}
+
+	private static final class FilterCompiler {
+
+		/*
+		 * Relative costs of evaluating the filters for a single person
+		 */
+		private static final double CONSTANT_COST = 0;
+		private static final double LOCATION_COST = 1;
+		private static final double PRIMITIVE_COST = 2;
+		private static final double OBJECT_COST = 3;
+		private static final double GROUP_COST = 4;
+
+		/*
+		 * The pass probability used when there is no cheap way to estimate it
+		 */
+		private static final double UNKNOWN_PASS_PROBABILITY = 0.5;
+
+		private final Scenario scenario;
+		private final PropertyManager propertyManager;
+		private final PropertyDefinitionManager propertyDefinitionManager;
+		private final PersonLocationManger personLocationManger;
+		private final ResourceManager resourceManager;
+		private final PersonGroupManger personGroupManger;
+		private final int populationCount;
+
+		private FilterCompiler(Context context) {
+			scenario = context.getScenario();
+			propertyManager = context.getPropertyManager();
+			propertyDefinitionManager = context.getPropertyDefinitionsManager();
+			personLocationManger = context.getPersonLocationManger();
+			resourceManager = context.getResourceManager();
+			personGroupManger = context.getPersonGroupManger();
+			populationCount = personLocationManger.getPopulationCount();
+		}
+
+		private double getFraction(int count) {
+			if (populationCount == 0) {
+				return UNKNOWN_PASS_PROBABILITY;
+			}
+			return (double) count / populationCount;
+		}
+
+		/*
+		 * Returns the expected cost of evaluating the filter before it can short
+		 * circuit the evaluation of its sibling
+		 */
+		private static double getRank(double cost, double shortCircuitProbability) {
+			if (shortCircuitProbability <= 0) {
+				return Double.POSITIVE_INFINITY;
+			}
+			return cost / shortCircuitProbability;
+		}
+
+		private CompiledFilter compile(FilterInfo filterInfo) {
+			FilterInfoType filterInfoType = filterInfo.getFilterInfoType();
+			switch (filterInfoType) {
+			case AND: {
+				AndFilterInfo andFilterInfo = (AndFilterInfo) filterInfo;
+				CompiledFilter first = compile(andFilterInfo.getA());
+				CompiledFilter second = compile(andFilterInfo.getB());
+				if (getRank(second.cost, 1 - second.passProbability) < getRank(first.cost, 1 - first.passProbability)) {
+					CompiledFilter temp = first;
+					first = second;
+					second = temp;
+				}
+				return new CompiledFilter(new AndFilterEvaluator(first.filterEvaluator, second.filterEvaluator), first.cost + first.passProbability * second.cost,
+						first.passProbability * second.passProbability);
+			}
+			case OR: {
+				OrFilterInfo orFilterInfo = (OrFilterInfo) filterInfo;
+				CompiledFilter first = compile(orFilterInfo.getA());
+				CompiledFilter second = compile(orFilterInfo.getB());
+				if (getRank(second.cost, second.passProbability) < getRank(first.cost, first.passProbability)) {
+					CompiledFilter temp = first;
+					first = second;
+					second = temp;
+				}
+				return new CompiledFilter(new OrFilterEvaluator(first.filterEvaluator, second.filterEvaluator), first.cost + (1 - first.passProbability) * second.cost,
+						first.passProbability + second.passProbability - first.passProbability * second.passProbability);
+			}
+			case NEGATE: {
+				NegateFilterInfo negateFilterInfo = (NegateFilterInfo) filterInfo;
+				CompiledFilter compiledFilter = compile(negateFilterInfo.getA());
+				return new CompiledFilter(new NegateFilterEvaluator(compiledFilter.filterEvaluator), compiledFilter.cost, 1 - compiledFilter.passProbability);
+			}
+			case ALL:
+				return new CompiledFilter(new AllPeopleFilterEvaluator(), CONSTANT_COST, 1);
+			case EMPTY:
+				return new CompiledFilter(new EmptyPeopleFilterEvaluator(), CONSTANT_COST, 0);
+			case COMPARTMENT: {
+				CompartmentId compartmentId = ((CompartmentFilterInfo) filterInfo).getCompartmentId();
+				int compartmentIndex = personLocationManger.getCompartmentIndex(compartmentId);
+				double passProbability = getFraction(personLocationManger.getCompartmentPopulationCount(compartmentId));
+				return new CompiledFilter(new CompiledCompartmentFilterEvaluator(personLocationManger, compartmentIndex), LOCATION_COST, passProbability);
+			}
+			case REGION: {
+				Set<RegionId> regionIds = ((RegionFilterInfo) filterInfo).getRegionIds();
+				/*
+				 * Region indices start at one, with zero reserved for people
+				 * who have no region
+				 */
+				boolean[] regionIndices = new boolean[scenario.getRegionIds().size() + 1];
+				int count = 0;
+				for (RegionId regionId : regionIds) {
+					int regionIndex = personLocationManger.getRegionIndex(regionId);
+					if (regionIndex > 0) {
+						regionIndices[regionIndex] = true;
+						count += personLocationManger.getRegionPopulationCount(regionId);
+					}
+				}
+				return new CompiledFilter(new CompiledRegionFilterEvaluator(personLocationManger, regionIndices), LOCATION_COST, getFraction(count));
+			}
+			case PROPERTY:
+				return compileProperty((PropertyFilterInfo) filterInfo);
+			case RESOURCE: {
+				ResourceFilterInfo resourceFilterInfo = (ResourceFilterInfo) filterInfo;
+				return new CompiledFilter(new CompiledResourceFilterEvaluator(resourceManager, resourceFilterInfo.getResourceId(), resourceFilterInfo.getEquality(), resourceFilterInfo.getResourceValue()),
+						PRIMITIVE_COST, UNKNOWN_PASS_PROBABILITY);
+			}
+			case GROUP_MEMBER: {
+				GroupId groupId = ((GroupMemberFilterInfo) filterInfo).getGroupId();
+				double passProbability = getFraction(personGroupManger.getPersonCountForGroup(groupId));
+				return new CompiledFilter(new CompiledGroupMemberFilterEvaluator(personGroupManger, groupId), GROUP_COST, passProbability);
+			}
+			case GROUPS_FOR_PERSON_AND_GROUP_TYPE: {
+				GroupsForPersonAndGroupTypeFilterInfo groupsForPersonAndGroupTypeFilterInfo = (GroupsForPersonAndGroupTypeFilterInfo) filterInfo;
+				return new CompiledFilter(new CompiledGroupsForPersonAndGroupTypeFilterEvaluator(personGroupManger, groupsForPersonAndGroupTypeFilterInfo.getGroupTypeId(),
+						groupsForPersonAndGroupTypeFilterInfo.getEquality(), groupsForPersonAndGroupTypeFilterInfo.getGroupCount()), GROUP_COST, UNKNOWN_PASS_PROBABILITY);
+			}
+			case GROUPS_FOR_PERSON: {
+				GroupsForPersonFilterInfo groupsForPersonFilterInfo = (GroupsForPersonFilterInfo) filterInfo;
+				return new CompiledFilter(new CompiledGroupsForPersonFilterEvaluator(personGroupManger, groupsForPersonFilterInfo.getEquality(), groupsForPersonFilterInfo.getGroupCount()), GROUP_COST,
+						UNKNOWN_PASS_PROBABILITY);
+			}
+			case GROUP_TYPES_FOR_PERSON: {
+				GroupTypesForPersonFilterInfo groupTypesForPersonFilterInfo = (GroupTypesForPersonFilterInfo) filterInfo;
+				return new CompiledFilter(new CompiledGroupTypesForPersonFilterEvaluator(personGroupManger, groupTypesForPersonFilterInfo.getEquality(), groupTypesForPersonFilterInfo.getGroupTypeCount()),
+						GROUP_COST, UNKNOWN_PASS_PROBABILITY);
+			}
+			default:
+				throw new RuntimeException("unhandled filter info type " + filterInfoType);
+			}
+		}
+
+		private CompiledFilter compileProperty(PropertyFilterInfo propertyFilterInfo) {
+			PersonPropertyId personPropertyId = propertyFilterInfo.getPersonPropertyId();
+			Equality equality = propertyFilterInfo.getEquality();
+			Object personPropertyValue = propertyFilterInfo.getPersonPropertyValue();
+			PropertyDefinition propertyDefinition = propertyDefinitionManager.getPersonPropertyDefinition(personPropertyId);
+			PersonPropertyManager personPropertyManager = propertyManager.getPersonPropertyManager(personPropertyId);
+			Class<?> type = propertyDefinition.getType();
+
+			/*
+			 * Estimate the pass probability from the mapping of values to
+			 * people when it is available
+			 */
+			double passProbability = UNKNOWN_PASS_PROBABILITY;
+			MapOption mapOption = propertyDefinition.getMapOption();
+			if (mapOption == MapOption.RANGE) {
+				passProbability = getFraction(propertyManager.getPersonCountForPropertyComparison(personPropertyId, equality, personPropertyValue));
+			} else if (mapOption != MapOption.NONE && (equality == Equality.EQUAL || equality == Equality.NOT_EQUAL)) {
+				passProbability = getFraction(propertyManager.getPersonCountForPropertyValue(personPropertyId, personPropertyValue));
+				if (equality == Equality.NOT_EQUAL) {
+					passProbability = 1 - passProbability;
+				}
+			}
+
+			if (type == Boolean.class) {
+				boolean value = (Boolean) personPropertyValue;
+				boolean passesWhenFalse = equality.isCompatibleComparisonValue(Boolean.compare(false, value));
+				boolean passesWhenTrue = equality.isCompatibleComparisonValue(Boolean.compare(true, value));
+				return new CompiledFilter(new CompiledBooleanPropertyFilterEvaluator(personPropertyManager, passesWhenFalse, passesWhenTrue), PRIMITIVE_COST, passProbability);
+			}
+			if (type.isEnum()) {
+				int ordinal = ((Enum<?>) personPropertyValue).ordinal();
+				boolean[] passingOrdinals = new boolean[type.getEnumConstants().length];
+				for (int i = 0; i < passingOrdinals.length; i++) {
+					passingOrdinals[i] = equality.isCompatibleComparisonValue(Integer.compare(i, ordinal));
+				}
+				return new CompiledFilter(new CompiledEnumPropertyFilterEvaluator(personPropertyManager, passingOrdinals), PRIMITIVE_COST, passProbability);
+			}
+			if (type == Byte.class || type == Short.class || type == Integer.class || type == Long.class) {
+				long value = ((Number) personPropertyValue).longValue();
+				return new CompiledFilter(new CompiledLongPropertyFilterEvaluator(personPropertyManager, equality, value), PRIMITIVE_COST, passProbability);
+			}
+			if (type == Float.class || type == Double.class) {
+				double value = ((Number) personPropertyValue).doubleValue();
+				return new CompiledFilter(new CompiledDoublePropertyFilterEvaluator(personPropertyManager, equality, value), PRIMITIVE_COST, passProbability);
+			}
+			return new CompiledFilter(new CompiledObjectPropertyFilterEvaluator(personPropertyManager, equality, personPropertyValue), OBJECT_COST, passProbability);
+		}
+	}
+
+	/*
+	 * Returns whether the equality passes the comparison values -1, 0 and 1,
+	 * indexed by the comparison value plus one
+	 */
+	private static boolean[] getPassingComparisons(Equality equality) {
+		boolean[] result = new boolean[3];
+		for (int i = 0; i < 3; i++) {
+			result[i] = equality.isCompatibleComparisonValue(i - 1);
+		}
+		return result;
+	}
+
+	private static final class CompiledCompartmentFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonLocationManger personLocationManger;
+		private final int compartmentIndex;
+
+		public CompiledCompartmentFilterEvaluator(PersonLocationManger personLocationManger, int compartmentIndex) {
+			this.personLocationManger = personLocationManger;
+			this.compartmentIndex = compartmentIndex;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			return personLocationManger.getPersonCompartmentIndex(personId) == compartmentIndex;
+		}
+
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final int[] indices = scratch.intValues;
+			for (int i = 0; i < mask.length; i++) {
+				final long word = mask[i];
+				if (word == 0) {
+					continue;
+				}
+				personLocationManger.getPersonCompartmentIndices((wordOffset + i) << 6, word, indices);
+				long result = word;
+				long remaining = word;
+				while (remaining != 0) {
+					final int bit = Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+					if (indices[bit] != compartmentIndex) {
+						result &= ~(1L << bit);
+					}
+				}
+				mask[i] = result;
+			}
+		}
+	}
+
+	private static final class CompiledRegionFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonLocationManger personLocationManger;
+
+		// indexed by region index
+		private final boolean[] regionIndices;
+
+		public CompiledRegionFilterEvaluator(PersonLocationManger personLocationManger, boolean[] regionIndices) {
+			this.personLocationManger = personLocationManger;
+			this.regionIndices = regionIndices;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			return regionIndices[personLocationManger.getPersonRegionIndex(personId)];
+		}
+
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final int[] indices = scratch.intValues;
+			for (int i = 0; i < mask.length; i++) {
+				final long word = mask[i];
+				if (word == 0) {
+					continue;
+				}
+				personLocationManger.getPersonRegionIndices((wordOffset + i) << 6, word, indices);
+				long result = word;
+				long remaining = word;
+				while (remaining != 0) {
+					final int bit = Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+					if (!regionIndices[indices[bit]]) {
+						result &= ~(1L << bit);
+					}
+				}
+				mask[i] = result;
+			}
+		}
+	}
+
+	private static final class CompiledBooleanPropertyFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonPropertyManager personPropertyManager;
+		private final boolean passesWhenFalse;
+		private final boolean passesWhenTrue;
+
+		public CompiledBooleanPropertyFilterEvaluator(PersonPropertyManager personPropertyManager, boolean passesWhenFalse, boolean passesWhenTrue) {
+			this.personPropertyManager = personPropertyManager;
+			this.passesWhenFalse = passesWhenFalse;
+			this.passesWhenTrue = passesWhenTrue;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			if (personPropertyManager.getPropertyBooleanValue(personId)) {
+				return passesWhenTrue;
+			}
+			return passesWhenFalse;
+		}
+
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			if (passesWhenTrue && passesWhenFalse) {
+				return;
+			}
+			if (!passesWhenTrue && !passesWhenFalse) {
+				Arrays.fill(mask, 0L);
+				return;
+			}
+			for (int i = 0; i < mask.length; i++) {
+				final long word = mask[i];
+				if (word == 0) {
+					continue;
+				}
+				final long trueBits = personPropertyManager.getPropertyBooleanValues((wordOffset + i) << 6, word);
+				mask[i] = passesWhenTrue ? trueBits : word & ~trueBits;
+			}
+		}
+	}
+
+	private static final class CompiledEnumPropertyFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonPropertyManager personPropertyManager;
+
+		// indexed by the ordinals of the enumeration
+		private final boolean[] passingOrdinals;
+
+		public CompiledEnumPropertyFilterEvaluator(PersonPropertyManager personPropertyManager, boolean[] passingOrdinals) {
+			this.personPropertyManager = personPropertyManager;
+			this.passingOrdinals = passingOrdinals;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			final Enum<?> value = personPropertyManager.getPropertyValue(personId);
+			return passingOrdinals[value.ordinal()];
+		}
+
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final int[] ordinals = scratch.intValues;
+			for (int i = 0; i < mask.length; i++) {
+				final long word = mask[i];
+				if (word == 0) {
+					continue;
+				}
+				personPropertyManager.getPropertyOrdinals((wordOffset + i) << 6, word, ordinals);
+				long result = word;
+				long remaining = word;
+				while (remaining != 0) {
+					final int bit = Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+					if (!passingOrdinals[ordinals[bit]]) {
+						result &= ~(1L << bit);
+					}
+				}
+				mask[i] = result;
+			}
+		}
+	}
+
+	private static final class CompiledLongPropertyFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonPropertyManager personPropertyManager;
+		private final Equality equality;
+		private final long personPropertyValue;
+
+		// indexed by the comparison value plus one
+		private final boolean[] passingComparisons;
+
+		public CompiledLongPropertyFilterEvaluator(PersonPropertyManager personPropertyManager, Equality equality, long personPropertyValue) {
+			this.personPropertyManager = personPropertyManager;
+			this.equality = equality;
+			this.personPropertyValue = personPropertyValue;
+			this.passingComparisons = getPassingComparisons(equality);
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			final long value = personPropertyManager.getPropertyLongValue(personId);
+			return equality.isCompatibleComparisonValue(Long.compare(value, personPropertyValue));
+		}
+
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final long[] values = scratch.longValues;
+			for (int i = 0; i < mask.length; i++) {
+				final long word = mask[i];
+				if (word == 0) {
+					continue;
+				}
+				personPropertyManager.getPropertyLongValues((wordOffset + i) << 6, word, values);
+				long result = word;
+				long remaining = word;
+				while (remaining != 0) {
+					final int bit = Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+					if (!passingComparisons[Long.compare(values[bit], personPropertyValue) + 1]) {
+						result &= ~(1L << bit);
+					}
+				}
+				mask[i] = result;
+			}
+		}
+	}
+
+	private static final class CompiledDoublePropertyFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonPropertyManager personPropertyManager;
+		private final Equality equality;
+		private final double personPropertyValue;
+
+		// indexed by the comparison value plus one
+		private final boolean[] passingComparisons;
+
+		public CompiledDoublePropertyFilterEvaluator(PersonPropertyManager personPropertyManager, Equality equality, double personPropertyValue) {
+			this.personPropertyManager = personPropertyManager;
+			this.equality = equality;
+			this.personPropertyValue = personPropertyValue;
+			this.passingComparisons = getPassingComparisons(equality);
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			/*
+			 * Double.compare() agrees with the equals() and compareTo() methods
+			 * of both Float and Double
+			 */
+			final double value = personPropertyManager.getPropertyDoubleValue(personId);
+			return equality.isCompatibleComparisonValue(Double.compare(value, personPropertyValue));
+		}
+
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final double[] values = scratch.doubleValues;
+			for (int i = 0; i < mask.length; i++) {
+				final long word = mask[i];
+				if (word == 0) {
+					continue;
+				}
+				personPropertyManager.getPropertyDoubleValues((wordOffset + i) << 6, word, values);
+				long result = word;
+				long remaining = word;
+				while (remaining != 0) {
+					final int bit = Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+					if (!passingComparisons[Double.compare(values[bit], personPropertyValue) + 1]) {
+						result &= ~(1L << bit);
+					}
+				}
+				mask[i] = result;
+			}
+		}
+	}
+
+	private static final class CompiledObjectPropertyFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonPropertyManager personPropertyManager;
+		private final Equality equality;
+		private final Object personPropertyValue;
+
+		public CompiledObjectPropertyFilterEvaluator(PersonPropertyManager personPropertyManager, Equality equality, Object personPropertyValue) {
+			this.personPropertyManager = personPropertyManager;
+			this.equality = equality;
+			this.personPropertyValue = personPropertyValue;
+		}
+
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			final Object propVal = personPropertyManager.getPropertyValue(personId);
+			if (equality == Equality.EQUAL) {
+				return propVal.equals(personPropertyValue);
+			} else if (equality == Equality.NOT_EQUAL) {
+				return !propVal.equals(personPropertyValue);
+			} else {
+				Comparable comparablePropertyValue = (Comparable) propVal;
+				return equality.isCompatibleComparisonValue(comparablePropertyValue.compareTo(personPropertyValue));
+			}
+		}
+	}
+
+	private static final class CompiledResourceFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ResourceManager resourceManager;
+		private final ResourceId resourceId;
+		private final Equality equality;
+		private final long resourceValue;
+
+		// indexed by the comparison value plus one
+		private final boolean[] passingComparisons;
+
+		public CompiledResourceFilterEvaluator(ResourceManager resourceManager, ResourceId resourceId, Equality equality, long resourceValue) {
+			this.resourceManager = resourceManager;
+			this.resourceId = resourceId;
+			this.equality = equality;
+			this.resourceValue = resourceValue;
+			this.passingComparisons = getPassingComparisons(equality);
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			final long level = resourceManager.getPersonResourceLevel(resourceId, personId);
+			return equality.isCompatibleComparisonValue(Long.compare(level, resourceValue));
+		}
+
+		@Override
+		void evaluate(final Environment environment, final PersonIdManager personIdManager, final long[] mask, final int wordOffset, final Scratch scratch) {
+			final long[] levels = scratch.longValues;
+			for (int i = 0; i < mask.length; i++) {
+				final long word = mask[i];
+				if (word == 0) {
+					continue;
+				}
+				resourceManager.getPersonResourceLevels(resourceId, (wordOffset + i) << 6, word, levels);
+				long result = word;
+				long remaining = word;
+				while (remaining != 0) {
+					final int bit = Long.numberOfTrailingZeros(remaining);
+					remaining &= remaining - 1;
+					if (!passingComparisons[Long.compare(levels[bit], resourceValue) + 1]) {
+						result &= ~(1L << bit);
+					}
+				}
+				mask[i] = result;
+			}
+		}
+	}
+
+	private static final class CompiledGroupMemberFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonGroupManger personGroupManger;
+		private final GroupId groupId;
+
+		public CompiledGroupMemberFilterEvaluator(PersonGroupManger personGroupManger, GroupId groupId) {
+			this.personGroupManger = personGroupManger;
+			this.groupId = groupId;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			return personGroupManger.isGroupMember(groupId, personId);
+		}
+	}
+
+	private static final class CompiledGroupsForPersonAndGroupTypeFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonGroupManger personGroupManger;
+		private final GroupTypeId groupTypeId;
+		private final Equality equality;
+		private final int groupCount;
+
+		public CompiledGroupsForPersonAndGroupTypeFilterEvaluator(PersonGroupManger personGroupManger, GroupTypeId groupTypeId, Equality equality, int groupCount) {
+			this.personGroupManger = personGroupManger;
+			this.groupTypeId = groupTypeId;
+			this.equality = equality;
+			this.groupCount = groupCount;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			final int count = personGroupManger.getGroupCountForGroupTypeAndPerson(groupTypeId, personId);
+			return equality.isCompatibleComparisonValue(Integer.compare(count, groupCount));
+		}
+	}
+
+	private static final class CompiledGroupsForPersonFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonGroupManger personGroupManger;
+		private final Equality equality;
+		private final int groupCount;
+
+		public CompiledGroupsForPersonFilterEvaluator(PersonGroupManger personGroupManger, Equality equality, int groupCount) {
+			this.personGroupManger = personGroupManger;
+			this.equality = equality;
+			this.groupCount = groupCount;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			final int count = personGroupManger.getGroupCountForPerson(personId);
+			return equality.isCompatibleComparisonValue(Integer.compare(count, groupCount));
+		}
+	}
+
+	private static final class CompiledGroupTypesForPersonFilterEvaluator extends FilterEvaluator {
+
+		private static final long serialVersionUID = 1L;
+
+		private final PersonGroupManger personGroupManger;
+		private final Equality equality;
+		private final int groupTypeCount;
+
+		public CompiledGroupTypesForPersonFilterEvaluator(PersonGroupManger personGroupManger, Equality equality, int groupTypeCount) {
+			this.personGroupManger = personGroupManger;
+			this.equality = equality;
+			this.groupTypeCount = groupTypeCount;
+		}
+
+		@Override
+		public boolean evaluate(final Environment environment, final PersonId personId) {
+			final int count = personGroupManger.getGroupTypeCountForPersonId(personId);
+			return equality.isCompatibleComparisonValue(Integer.compare(count, groupTypeCount));
+		}
+	}
+
 	public abstract boolean evaluate(Environment environment, PersonId personId);
 
+	/**
+	 * Evaluates the filter for a set of candidate people at once. The mask holds
+	 * one bit per person id value, with person id value i held in bit (i % 64)
+	 * of mask[i / 64], and has the bits of the candidates set. On return, only
+	 * the bits of the candidates who pass the filter remain set.
+	 *
+	 * AND, OR and negation filters combine the masks of their sub-filters
+	 * word by word, so that each sub-filter is evaluated for all of its
+	 * candidates in a single pass rather than walking the filter for each
+	 * person. Words with no candidates are skipped. Compiled boolean, enum,
+	 * numeric, region, compartment and resource filters read the values of all
+	 * candidates of a word from their manager in a single call.
+	 */
+	public final void evaluate(Environment environment, PersonIdManager personIdManager, long[] mask) {
+		evaluate(environment, personIdManager, mask, 0, new Scratch(mask.length));
+	}
+
+	/**
+	 * Evaluates the filter in bulk as in
+	 * {@link #evaluate(Environment, PersonIdManager, long[])}, splitting the
+	 * words of the mask into segments that are evaluated concurrently in the
+	 * given fork/join pool. The results are identical to those of the
+	 * sequential evaluation. The pool should be dedicated to the simulation
+	 * or to its experiment, rather than the common pool, so that the
+	 * evaluation does not compete with unrelated tasks.
+	 *
+	 * The evaluator may only read the state of the simulation and that state
+	 * must not change during the evaluation. Evaluators returned by
+	 * {@link #compile(FilterInfo, Context)} read the managers directly and
+	 * meet this requirement, provided that the equals() and compareTo()
+	 * methods of any person property values are free of side effects.
+	 *
+	 * @throws RuntimeException
+	 *             if the fork/join pool is null
+	 */
+	public final void evaluateInParallel(Environment environment, PersonIdManager personIdManager, long[] mask, ForkJoinPool forkJoinPool) {
+		if (forkJoinPool == null) {
+			throw new RuntimeException("null fork/join pool");
+		}
+		forkJoinPool.invoke(new MaskSegmentAction(this, environment, personIdManager, mask, 0, mask.length));
+	}
+
+	/*
+	 * Evaluates a range of the words of a mask, splitting the range in half
+	 * until it is no longer than SEGMENT_LENGTH. Each segment is evaluated in
+	 * its own copy and written back only to its own words of the mask, so the
+	 * segments need no coordination.
+	 */
+	private static final class MaskSegmentAction extends RecursiveAction {
+
+		/*
+		 * The number of mask words, each holding 64 people, evaluated by a
+		 * single task
+		 */
+		private static final int SEGMENT_LENGTH = 1 << 10;
+
+		private final FilterEvaluator filterEvaluator;
+		private final Environment environment;
+		private final PersonIdManager personIdManager;
+		private final long[] mask;
+		private final int fromIndex;
+		private final int toIndex;
+
+		private MaskSegmentAction(FilterEvaluator filterEvaluator, Environment environment, PersonIdManager personIdManager, long[] mask, int fromIndex, int toIndex) {
+			this.filterEvaluator = filterEvaluator;
+			this.environment = environment;
+			this.personIdManager = personIdManager;
+			this.mask = mask;
+			this.fromIndex = fromIndex;
+			this.toIndex = toIndex;
+		}
+
+		@Override
+		protected void compute() {
+			if (toIndex - fromIndex <= SEGMENT_LENGTH) {
+				final long[] segment = Arrays.copyOfRange(mask, fromIndex, toIndex);
+				filterEvaluator.evaluate(environment, personIdManager, segment, fromIndex, new Scratch(segment.length));
+				System.arraycopy(segment, 0, mask, fromIndex, segment.length);
+				return;
+			}
+			int midIndex = (fromIndex + toIndex) >>> 1;
+			invokeAll(new MaskSegmentAction(filterEvaluator, environment, personIdManager, mask, fromIndex, midIndex),
+					new MaskSegmentAction(filterEvaluator, environment, personIdManager, mask, midIndex, toIndex));
+		}
+	}
+
+	/*
+	 * Working storage for a single bulk evaluation of a mask segment. The
+	 * masks are used by the OR and negation filters to hold the result of
+	 * their first sub-filter and are reused as a stack, since a filter needs
+	 * its mask only until its own evaluation completes. The value arrays hold
+	 * the values of a single word of candidates read by the compiled leaf
+	 * filters, which do not nest.
+	 */
+	private static final class Scratch {
+
+		private final int length;
+
+		private final List<long[]> masks = new ArrayList<>();
+
+		private int depth;
+
+		private final long[] longValues = new long[64];
+
+		private final double[] doubleValues = new double[64];
+
+		private final int[] intValues = new int[64];
+
+		private Scratch(int length) {
+			this.length = length;
+		}
+
+		/*
+		 * Returns a scratch mask holding a copy of the given mask
+		 */
+		private long[] acquireMask(long[] mask) {
+			if (depth == masks.size()) {
+				masks.add(new long[length]);
+			}
+			final long[] result = masks.get(depth++);
+			System.arraycopy(mask, 0, result, 0, length);
+			return result;
+		}
+
+		/*
+		 * Releases the most recently acquired mask
+		 */
+		private void releaseMask() {
+			depth--;
+		}
+	}
+
+	/*
+	 * Bulk evaluation of a segment of a mask. Word i of the segment holds the
+	 * people with person id values from 64 * (wordOffset + i) to 64 *
+	 * (wordOffset + i) + 63.
+	 */
+	void evaluate(Environment environment, PersonIdManager personIdManager, long[] mask, int wordOffset, Scratch scratch) {
+		for (int i = 0; i < mask.length; i++) {
+			long word = mask[i];
+			long remaining = word;
+			while (remaining != 0) {
+				final long bit = Long.lowestOneBit(remaining);
+				remaining ^= bit;
+				final int personIdValue = ((wordOffset + i) << 6) + Long.numberOfTrailingZeros(bit);
+				if (!evaluate(environment, personIdManager.getBoxedPersonId(personIdValue))) {
+					word ^= bit;
+				}
+			}
+			mask[i] = word;
+		}
+	}
+
 }
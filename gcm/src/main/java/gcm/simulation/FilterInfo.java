@@ -1,5 +1,6 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -35,7 +36,9 @@ import gcm.simulation.Filter.ResourceFilter;
  *
  */
 
-public abstract class FilterInfo {
+public abstract class FilterInfo implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	public abstract FilterInfoType getFilterInfoType();
 
@@ -203,6 +206,8 @@ public abstract class FilterInfo {
 
 	public static class AllPeopleFilterInfo extends FilterInfo {
 
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.ALL;
@@ -211,6 +216,9 @@ public abstract class FilterInfo {
 	}
 
 	public static class EmptyPeopleFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.EMPTY;
@@ -218,6 +226,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class CompartmentFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.COMPARTMENT;
@@ -236,6 +247,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class RegionFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.REGION;
@@ -255,6 +269,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class AndFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.AND;
@@ -286,6 +303,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class OrFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.OR;
@@ -317,6 +337,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class NegateFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.NEGATE;
@@ -340,6 +363,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class PropertyFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.PROPERTY;
@@ -369,6 +395,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class ResourceFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.RESOURCE;
@@ -398,6 +427,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class GroupMemberFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.GROUP_MEMBER;
@@ -417,6 +449,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class GroupsForPersonAndGroupTypeFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.GROUPS_FOR_PERSON_AND_GROUP_TYPE;
@@ -448,6 +483,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class GroupsForPersonFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.GROUPS_FOR_PERSON;
@@ -473,6 +511,9 @@ public abstract class FilterInfo {
 	}
 
 	public static final class GroupTypesForPersonFilterInfo extends FilterInfo {
+
+		private static final long serialVersionUID = 1L;
+
 		@Override
 		public FilterInfoType getFilterInfoType() {
 			return FilterInfoType.GROUP_TYPES_FOR_PERSON;
@@ -12,6 +12,7 @@ import gcm.simulation.FilterInfo.NegateFilterInfo;
 import gcm.simulation.FilterInfo.OrFilterInfo;
 import gcm.simulation.FilterInfo.PropertyFilterInfo;
 import gcm.simulation.FilterInfo.RegionFilterInfo;
+import gcm.simulation.FilterInfo.ResourceFilterInfo;
 
 /**
  * A static utility class for determining which attributes of a filter could
@@ -48,6 +49,13 @@ public class FilterMapOptionAnalyzer {
 				}
 			}
 			break;
+		case RESOURCE:
+			ResourceFilterInfo resourceFilterInfo = (ResourceFilterInfo) filterInfo;
+			MapOption resourceMapOption = context.getScenario().getResourceMapOption(resourceFilterInfo.getResourceId());
+			if (resourceMapOption == MapOption.NONE) {
+				response.add(resourceFilterInfo.getResourceId());
+			}
+			break;
 		case NEGATE:
 			NegateFilterInfo negateFilterInfo = (NegateFilterInfo) filterInfo;
 			processNode(negateFilterInfo.getA(), response, !negation);
@@ -97,8 +105,7 @@ public class FilterMapOptionAnalyzer {
 		case GROUPS_FOR_PERSON:// fall through
 		case GROUPS_FOR_PERSON_AND_GROUP_TYPE:// fall through
 		case GROUP_MEMBER:// fall through
-		case GROUP_TYPES_FOR_PERSON:// fall through
-		case RESOURCE:
+		case GROUP_TYPES_FOR_PERSON:
 			// do nothing
 			break;
 		default:
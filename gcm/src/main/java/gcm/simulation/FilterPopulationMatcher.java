@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
 
 import gcm.scenario.CompartmentId;
 import gcm.scenario.GroupId;
@@ -13,6 +13,7 @@ import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
 import gcm.scenario.RegionId;
+import gcm.scenario.ResourceId;
 import gcm.simulation.FilterInfo.AndFilterInfo;
 import gcm.simulation.FilterInfo.CompartmentFilterInfo;
 import gcm.simulation.FilterInfo.GroupMemberFilterInfo;
@@ -20,6 +21,7 @@ import gcm.simulation.FilterInfo.NegateFilterInfo;
 import gcm.simulation.FilterInfo.OrFilterInfo;
 import gcm.simulation.FilterInfo.PropertyFilterInfo;
 import gcm.simulation.FilterInfo.RegionFilterInfo;
+import gcm.simulation.FilterInfo.ResourceFilterInfo;
 
 /**
  * A static utility class for determining which people match a filter. This is
@@ -29,6 +31,7 @@ import gcm.simulation.FilterInfo.RegionFilterInfo;
  *
  */
 public class FilterPopulationMatcher {
+
 	private static interface PersonIdSupplier {
 		public List<PersonId> supply();
 	}
@@ -98,15 +101,32 @@ public class FilterPopulationMatcher {
 			return personIds;
 		}
 		/*
-		 * Since there are possible false positives, test each person id against
-		 * the filter and return only those that pass
+		 * Since there are possible false positives, test the person ids against
+		 * the filter in bulk and return only those that pass, preserving the
+		 * order of the supplied person ids. Large tests are run in the
+		 * context's filter evaluation pool, if it has one, relying on the state
+		 * of the simulation remaining unchanged while the matcher executes on
+		 * the simulation thread.
 		 */
+		final long[] mask = new long[(personIdManager.getPersonIdLimit() + 63) >> 6];
+		for (final PersonId personId : personIds) {
+			final int personIdValue = personId.getValue();
+			mask[personIdValue >> 6] |= 1L << personIdValue;
+		}
+		if (filterEvaluationPool != null && personIds.size() >= parallelFilterEvaluationThreshold) {
+			filterEvaluator.evaluateInParallel(environment, personIdManager, mask, filterEvaluationPool);
+		} else {
+			filterEvaluator.evaluate(environment, personIdManager, mask);
+		}
 
-		FilterEvaluator filterEvaluator = FilterEvaluator.build(filterInfo);
-
-		return personIds.stream()//
-						.filter(personId -> filterEvaluator.evaluate(environment, personId))//
-						.collect(Collectors.toCollection(ArrayList::new));//
+		final List<PersonId> result = new ArrayList<>();
+		for (final PersonId personId : personIds) {
+			final int personIdValue = personId.getValue();
+			if ((mask[personIdValue >> 6] & (1L << personIdValue)) != 0) {
+				result.add(personId);
+			}
+		}
+		return result;
 
 	}
 
@@ -328,11 +348,32 @@ public class FilterPopulationMatcher {
 					final int personCountForPropertyValue = environment.getPersonCountForPropertyValue(personPropertyId, personPropertyValue);
 					return new FilterSolution(() -> environment.getPeopleWithPropertyValue(personPropertyId, personPropertyValue), personCountForPropertyValue, false);
 				}
+
+				/*
+				 * Properties mapped with a range index resolve inequalities
+				 * directly. Since the values are totally ordered, the negation
+				 * of an inequality is simply the complementary inequality.
+				 */
+				if (personPropertyDefinition.getMapOption() == MapOption.RANGE) {
+					Equality equalityAfterNegation = equality;
+					if (negation) {
+						equalityAfterNegation = Equality.getNegation(equalityAfterNegation);
+					}
+					final Equality rangeEquality = equalityAfterNegation;
+					final int personCountForPropertyComparison = environment.getPersonCountForPropertyComparison(personPropertyId, rangeEquality, personPropertyValue);
+					return new FilterSolution(() -> environment.getPeopleForPropertyComparison(personPropertyId, rangeEquality, personPropertyValue), personCountForPropertyComparison, false);
+				}
 			}
 			return getFullPopulationFilterSolution(environment, true);
 		case ALL:
+			if (negation) {
+				return getEmptyPopulationFilterSolution();
+			}
 			return getFullPopulationFilterSolution(environment, false);
 		case EMPTY:
+			if (negation) {
+				return getFullPopulationFilterSolution(environment, false);
+			}
 			return getEmptyPopulationFilterSolution();
 		case GROUPS_FOR_PERSON:
 			/*
@@ -371,8 +412,12 @@ public class FilterPopulationMatcher {
 			 */
 			return getFullPopulationFilterSolution(environment, true);
 		case RESOURCE:
-			// currently, there is no support for anything other than a
-			// brute force walk
+			ResourceFilterInfo resourceFilterInfo = (ResourceFilterInfo) filterInfo;
+			if (environment.getResourceMapOption(resourceFilterInfo.getResourceId()) != MapOption.NONE) {
+				return getMappedResourceFilterSolution(resourceFilterInfo, negation);
+			}
+			// without a mapping of resource holders, there is no support for
+			// anything other than a brute force walk
 			return getFullPopulationFilterSolution(environment, true);
 		default:
 			throw new RuntimeException("unhandled FilterInfoType " + filterInfo.getFilterInfoType());
@@ -380,16 +425,97 @@ public class FilterPopulationMatcher {
 
 	}
 
-	public static List<PersonId> getMatchingPeople(FilterInfo filterInfo, Environment environment) {
-		return new FilterPopulationMatcher(filterInfo, environment).execute();
+	/*
+	 * Resolves a resource filter against the mapped holders of the resource.
+	 * Since person resource levels are never negative, the comparison divides
+	 * the population into the people with a zero level, who either all pass or
+	 * all fail, and the holders, some or all of whom may pass.
+	 */
+	private FilterSolution getMappedResourceFilterSolution(ResourceFilterInfo resourceFilterInfo, boolean negation) {
+		final ResourceId resourceId = resourceFilterInfo.getResourceId();
+		final long resourceValue = resourceFilterInfo.getResourceValue();
+		Equality equality = resourceFilterInfo.getEquality();
+		if (negation) {
+			equality = Equality.getNegation(equality);
+		}
+
+		final boolean nonHoldersPass = equality.isCompatibleComparisonValue(Long.compare(0, resourceValue));
+		final boolean someHoldersPass;
+		final boolean allHoldersPass;
+		switch (equality) {
+		case EQUAL:
+			someHoldersPass = resourceValue > 0;
+			allHoldersPass = false;
+			break;
+		case NOT_EQUAL:
+			someHoldersPass = true;
+			allHoldersPass = resourceValue <= 0;
+			break;
+		case GREATER_THAN:
+			someHoldersPass = true;
+			allHoldersPass = resourceValue <= 0;
+			break;
+		case GREATER_THAN_EQUAL:
+			someHoldersPass = true;
+			allHoldersPass = resourceValue <= 1;
+			break;
+		case LESS_THAN:
+			someHoldersPass = resourceValue > 1;
+			allHoldersPass = false;
+			break;
+		case LESS_THAN_EQUAL:
+			someHoldersPass = resourceValue > 0;
+			allHoldersPass = false;
+			break;
+		default:
+			throw new RuntimeException("unhandled case " + equality);
+		}
+
+		final int holderCount = environment.getPersonCountForResource(resourceId);
+		if (nonHoldersPass) {
+			if (allHoldersPass) {
+				return getFullPopulationFilterSolution(environment, false);
+			}
+			if (someHoldersPass) {
+				return getFullPopulationFilterSolution(environment, true);
+			}
+			final int nonHolderCount = environment.getPopulationCount() - holderCount;
+			return new FilterSolution(() -> environment.getPeopleWithoutResource(resourceId), nonHolderCount, false);
+		}
+		if (someHoldersPass) {
+			return new FilterSolution(() -> environment.getPeopleWithResource(resourceId), holderCount, !allHoldersPass);
+		}
+		return getEmptyPopulationFilterSolution();
+	}
+
+	public static List<PersonId> getMatchingPeople(FilterInfo filterInfo, Context context) {
+		return new FilterPopulationMatcher(filterInfo, FilterEvaluator.compile(filterInfo, context), context).execute();
+	}
+
+	/**
+	 * Returns the people matching the filter, using the given evaluator for
+	 * the people who cannot be resolved without evaluating the filter. The
+	 * evaluator must be safe for concurrent use, as are those returned by
+	 * {@link FilterEvaluator#compile(FilterInfo, Context)}.
+	 */
+	public static List<PersonId> getMatchingPeople(FilterInfo filterInfo, FilterEvaluator filterEvaluator, Context context) {
+		return new FilterPopulationMatcher(filterInfo, filterEvaluator, context).execute();
 	}
 
 	private final FilterInfo filterInfo;
+	private final FilterEvaluator filterEvaluator;
 	private final Environment environment;
+	private final PersonIdManager personIdManager;
+	private final ForkJoinPool filterEvaluationPool;
+	private final int parallelFilterEvaluationThreshold;
 
-	private FilterPopulationMatcher(FilterInfo filterInfo, Environment environment) {
+	private FilterPopulationMatcher(FilterInfo filterInfo, FilterEvaluator filterEvaluator, Context context) {
 		this.filterInfo = filterInfo;
-		this.environment = environment;
+		this.filterEvaluator = filterEvaluator;
+		this.environment = context.getEnvironment();
+		this.personIdManager = context.getPersonIdManager();
+		this.filterEvaluationPool = context.getFilterEvaluationPool();
+		this.parallelFilterEvaluationThreshold = context.getParallelFilterEvaluationThreshold();
 	}
 
 }
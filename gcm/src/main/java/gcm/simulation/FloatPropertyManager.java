@@ -3,9 +3,12 @@ package gcm.simulation;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.StorageOption;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
-import gcm.util.containers.FloatValueContainer;
+import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.OffHeapValueContainer;
+import gcm.util.containers.PagedFloatValueContainer;
 
 /**
  * Implementor of PropertyManager that compresses Float property values into a
@@ -17,13 +20,22 @@ import gcm.util.containers.FloatValueContainer;
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class FloatPropertyManager extends AbstractPropertyManager {
 
+	private static final long serialVersionUID = 1L;
+
 	
 
 	/*
 	 * A container, indexed by person id, that stores Double values as an array
 	 * of float.
 	 */
-	private FloatValueContainer floatValueContainer;
+	private PagedFloatValueContainer floatValueContainer;
+
+	/*
+	 * A container, indexed by person id, that stores Float values as their
+	 * bits outside of the heap. Used instead of the floatValueContainer when
+	 * the property is stored off heap.
+	 */
+	private OffHeapValueContainer offHeapValueContainer;
 	
 	/**
 	 * Constructs this FloatPropertyManager.
@@ -42,22 +54,66 @@ public final class FloatPropertyManager extends AbstractPropertyManager {
 		}
 		Float defaultValue = (Float) propertyDefinition.getDefaultValue().get();
 		int suggestedPopulationSize = context.getScenario().getSuggestedPopulationSize();
-		floatValueContainer = new FloatValueContainer(defaultValue, suggestedPopulationSize);
+		if (propertyDefinition.getStorageOption() == StorageOption.OFF_HEAP) {
+			offHeapValueContainer = new OffHeapValueContainer(IntValueType.INT, Float.floatToRawIntBits(defaultValue), suggestedPopulationSize);
+		} else {
+			floatValueContainer = new PagedFloatValueContainer(defaultValue, suggestedPopulationSize);
+		}
+	}
+
+	private float getValue(PersonId personId) {
+		if (offHeapValueContainer != null) {
+			return Float.intBitsToFloat((int) offHeapValueContainer.getValue(personId.getValue()));
+		}
+		return floatValueContainer.getValue(personId.getValue());
 	}
 
 	
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T getPropertyValue(PersonId personId) {
-		Float result = floatValueContainer.getValue(personId.getValue());
+		Float result = getValue(personId);
 		return (T) result;
 	}
 
+	@Override
+	public double getPropertyDoubleValue(PersonId personId) {
+		return getValue(personId);
+	}
+
+	@Override
+	public void getPropertyDoubleValues(int firstPersonIdValue, long candidates, double[] values) {
+		if (offHeapValueContainer != null) {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				values[bit] = Float.intBitsToFloat((int) offHeapValueContainer.getValue(firstPersonIdValue + bit));
+			}
+		} else {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				values[bit] = floatValueContainer.getValue(firstPersonIdValue + bit);
+			}
+		}
+	}
+
 	@Override
 	public void setPropertyValue(PersonId personId, Object personPropertyValue) {
 		super.setPropertyValue(personId, personPropertyValue);
 		Float f = (Float) personPropertyValue;
-		floatValueContainer.setValue(personId.getValue(), f);
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), Float.floatToRawIntBits(f));
+		} else {
+			floatValueContainer.setValue(personId.getValue(), f);
+		}
 	}
 
+	@Override
+	public void close() {
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.close();
+		}
+		super.close();
+	}
 }
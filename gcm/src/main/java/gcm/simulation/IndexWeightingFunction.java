@@ -0,0 +1,28 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+
+import gcm.scenario.PersonId;
+import gcm.util.annotations.Source;
+
+/**
+ * A functional interface for selecting people from a population index based on
+ * assigning a weighting value to a person. The function is held by the
+ * population index and so is serialized with the simulation when it is
+ * checkpointed.
+ * 
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public interface IndexWeightingFunction extends Serializable {
+	/**
+	 * Returns a non-negative, finite and stable value for the given person.
+	 * The weight of a person is determined when the person enters the index
+	 * and again whenever one of the person properties declared for the
+	 * weighting changes for that person. It should therefore depend only on
+	 * those person property values and on state that does not change while
+	 * the person is in the index. The person will be a member of the index.
+	 */
+	public double getWeight(ObservableEnvironment observableEnvironment, PersonId personId);
+}
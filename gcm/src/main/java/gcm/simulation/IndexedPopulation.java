@@ -59,6 +59,37 @@ public interface IndexedPopulation {
 	 * empty or only contains the excluded person.
 	 */
 	public PersonId getRandomPersonFromGenerator(final PersonId excludedPersonId, RandomNumberGeneratorId randomNumberGeneratorId);
+
+	/**
+	 * Returns a list of distinct people chosen uniformly at random from the
+	 * index without replacement, using the random number generator associated
+	 * with the given id. The list contains min(sampleCount, size) people in the
+	 * order of their selection.
+	 */
+	public List<PersonId> samplePeople(final int sampleCount, RandomNumberGeneratorId randomNumberGeneratorId);
+
+	/**
+	 * Returns true if and only if this index was created with a weighting
+	 * function
+	 */
+	public boolean isWeighted();
+
+	/**
+	 * Re-evaluates the weight of the person if the person is a member of this
+	 * weighted index. Has no effect on indexes that are not weighted.
+	 */
+	public void updateWeight(final PersonId personId);
+
+	/**
+	 * Returns a person chosen from the index with probability proportional to
+	 * the person's weight, using the random number generator associated with
+	 * the given id or the default generator if the id is null. The selected
+	 * person is null if the index holds no person with a positive weight.
+	 * 
+	 * @throws RuntimeException
+	 *             if the index is not weighted
+	 */
+	public StochasticPersonSelection getWeightedRandomPersonFromGenerator(RandomNumberGeneratorId randomNumberGeneratorId);
 	
 	/**
 	 * Returns true if and only if the person is contained in the population
@@ -1,8 +1,11 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -14,6 +17,7 @@ import gcm.scenario.PersonId;
 import gcm.scenario.RandomNumberGeneratorId;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
+import gcm.util.containers.IntValueContainer;
 
 /**
  * Note: IndexedPopulation is not exposed to the Components by GCM. The relevant
@@ -37,7 +41,9 @@ import gcm.util.annotations.TestStatus;
  *
  */
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
-public final class IndexedPopulationImpl implements IndexedPopulation{
+public final class IndexedPopulationImpl implements IndexedPopulation, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/*
 	 * Represents the triggering threshold of 0.5% of the population. When an
@@ -78,7 +84,9 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 	 * number of people in the set is less than 0.5% of the total population.
 	 */
 
-	private static class MapPeopleContainer implements PeopleContainer {
+	private static class MapPeopleContainer implements PeopleContainer, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		public MapPeopleContainer() {
 		}
@@ -167,6 +175,34 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 			}
 			return null;
 		}
+
+		@Override
+		public List<PersonId> sample(int sampleCount, RandomGenerator randomGenerator) {
+			int n = Math.min(sampleCount, map.size());
+			List<PersonId> result = new ArrayList<>(n);
+			/*
+			 * A partial Fisher-Yates shuffle of the positions in the list, 0 to
+			 * size-1, recording only the positions that have been swapped so
+			 * that neither the list nor the map is copied. Positions holding
+			 * removed people are rejected, but the list is compacted whenever
+			 * it exceeds twice the size of the map, so on average at most two
+			 * positions are drawn per selection.
+			 */
+			int size = list.size();
+			Map<Integer, Integer> swappedPositions = new HashMap<>();
+			for (int i = 0; i < size && result.size() < n; i++) {
+				int j = i + randomGenerator.nextInt(size - i);
+				Integer position = swappedPositions.get(j);
+				int selectedPosition = position == null ? j : position;
+				position = swappedPositions.get(i);
+				swappedPositions.put(j, position == null ? i : position);
+				PersonId personId = list.get(selectedPosition);
+				if (personId != null) {
+					result.add(personId);
+				}
+			}
+			return result;
+		}
 	}
 
 	/*
@@ -178,7 +214,10 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 	 * population.
 	 */
 
-	private static final class TreeBitSetPeopleContainer implements PeopleContainer {
+	private static final class TreeBitSetPeopleContainer implements PeopleContainer, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		// MAX_POWER is the highest power of two in a positive integer
 		private final int MAX_POWER = 30;
 		// BLOCK_POWER is the power of two that is the block length -- i.e. 64
@@ -379,10 +418,17 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 
 			/*
 			 * We need to use an integer that is at least one, so we add one to
-			 * the randomly selected index. We will reduce this amount until it
-			 * reaches zero.
+			 * the randomly selected index.
 			 */
-			int targetCount = randomGenerator.nextInt(size()) + 1;
+			return getPersonId(randomGenerator.nextInt(size()) + 1);
+		}
+
+		/*
+		 * Returns the person who is the targetCount-th(one-based) person in
+		 * the container in order of person id. We will reduce the target count
+		 * until it reaches zero.
+		 */
+		private PersonId getPersonId(int targetCount) {
 
 			/*
 			 * Find the mid point of the tree. Think of the tree array as a
@@ -425,13 +471,38 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 			}
 			return null;
 		}
+
+		@Override
+		public List<PersonId> sample(int sampleCount, RandomGenerator randomGenerator) {
+			int n = Math.min(sampleCount, size());
+			List<PersonId> result = new ArrayList<>(n);
+			/*
+			 * A partial Fisher-Yates shuffle of the ranks of the people in the
+			 * container, 0 to size-1. Only the ranks that have been swapped are
+			 * recorded, so the tree is never modified. Each selection is O(log
+			 * n), being the descent of the tree for the selected rank.
+			 */
+			int size = size();
+			Map<Integer, Integer> swappedRanks = new HashMap<>();
+			for (int i = 0; i < n; i++) {
+				int j = i + randomGenerator.nextInt(size - i);
+				Integer rank = swappedRanks.get(j);
+				int selectedRank = rank == null ? j : rank;
+				rank = swappedRanks.get(i);
+				swappedRanks.put(j, rank == null ? i : rank);
+				result.add(getPersonId(selectedRank + 1));
+			}
+			return result;
+		}
 	}
 
 	/*
 	 * Implementor of PeopleContainer that acts as a dynamic switching mechanism
 	 * between the two lower-level PeopleContainer implementors
 	 */
-	private static class BasePeopleContainer implements PeopleContainer {
+	private static class BasePeopleContainer implements PeopleContainer, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		/*
 		 * indexed populations start small and so we default to
@@ -533,6 +604,216 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 		public PersonId getRandomPersonId(RandomGenerator randomGenerator) {
 			return internalPeopleContainer.getRandomPersonId(randomGenerator);
 		}
+
+		@Override
+		public List<PersonId> sample(int sampleCount, RandomGenerator randomGenerator) {
+			return internalPeopleContainer.sample(sampleCount, randomGenerator);
+		}
+	}
+
+	/*
+	 * A Fenwick(binary indexed) tree of the weights of the people in a weighted
+	 * index. Each person in the index occupies a slot and the slots are kept
+	 * contiguous, so the weights and the tree are sized to the number of people
+	 * in the index rather than to the person id limit. Only the mapping from
+	 * person id to slot spans the person id limit, stored in an
+	 * IntValueContainer that uses as few bytes per person as the slot values
+	 * allow. Weight updates, additions, removals and weighted selections are
+	 * O(log n) in the size of the index.
+	 */
+	private static final class WeightTree implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		/*
+		 * The slot of each person in the index, indexed by person id value.
+		 * People who are not in the index have a slot of -1.
+		 */
+		private final IntValueContainer slots = new IntValueContainer(-1);
+
+		/*
+		 * The person id value held in each slot
+		 */
+		private int[] personIdValues = new int[1];
+
+		/*
+		 * The weights of each slot. Invalid weights are recorded as NaN and
+		 * contribute zero to the tree.
+		 */
+		private double[] weights = new double[1];
+
+		/*
+		 * The one-based Fenwick tree of length capacity + 1. The capacity is
+		 * always a power of two so that tree[capacity] holds the total weight.
+		 */
+		private double[] tree = new double[2];
+
+		private int capacity = 1;
+
+		/*
+		 * The number of occupied slots, i.e. the number of people in the tree
+		 */
+		private int count;
+
+		/*
+		 * The number of people with a positive, valid weight
+		 */
+		private int positiveWeightCount;
+
+		/*
+		 * The number of people whose weight is negative or not finite
+		 */
+		private int invalidWeightCount;
+
+		/*
+		 * The number of updates since the tree was last rebuilt from the
+		 * weights. Rebuilding once per capacity updates bounds the round off
+		 * error accumulated by repeated additions and subtractions.
+		 */
+		private int updateCount;
+
+		/*
+		 * Sets the capacity, which must be a power of two that is at least the
+		 * count, and rebuilds the tree
+		 */
+		private void setCapacity(int newCapacity) {
+			personIdValues = Arrays.copyOf(personIdValues, newCapacity);
+			weights = Arrays.copyOf(weights, newCapacity);
+			capacity = newCapacity;
+			rebuild();
+		}
+
+		/*
+		 * Rebuilds the tree from the weights in linear time
+		 */
+		private void rebuild() {
+			tree = new double[capacity + 1];
+			for (int i = 1; i <= capacity; i++) {
+				double weight = weights[i - 1];
+				if (weight > 0) {
+					tree[i] += weight;
+				}
+				int parent = i + (i & -i);
+				if (parent <= capacity) {
+					tree[parent] += tree[i];
+				}
+			}
+			updateCount = 0;
+		}
+
+		/*
+		 * Replaces the weight recorded for the slot. Negative and non-finite
+		 * weights must already be recorded as NaN.
+		 */
+		private void setSlotWeight(int slot, double weight) {
+			double oldWeight = weights[slot];
+			if (Double.isNaN(oldWeight)) {
+				invalidWeightCount--;
+				oldWeight = 0;
+			} else if (oldWeight > 0) {
+				positiveWeightCount--;
+			}
+			weights[slot] = weight;
+			double newWeight = weight;
+			if (Double.isNaN(newWeight)) {
+				invalidWeightCount++;
+				newWeight = 0;
+			} else if (newWeight > 0) {
+				positiveWeightCount++;
+			}
+			double delta = newWeight - oldWeight;
+			if (delta != 0) {
+				for (int i = slot + 1; i <= capacity; i += i & -i) {
+					tree[i] += delta;
+				}
+				if (++updateCount >= capacity) {
+					rebuild();
+				}
+			}
+		}
+
+		/*
+		 * Adds the person to the tree if they are not already present and sets
+		 * their weight, treating negative and non-finite weights as invalid
+		 */
+		public void setWeight(int personIdValue, double weight) {
+			if (!Double.isFinite(weight) || weight < 0) {
+				weight = Double.NaN;
+			}
+			int slot = slots.getValueAsInt(personIdValue);
+			if (slot < 0) {
+				if (count == capacity) {
+					setCapacity(capacity << 1);
+				}
+				slot = count++;
+				slots.setIntValue(personIdValue, slot);
+				personIdValues[slot] = personIdValue;
+			}
+			setSlotWeight(slot, weight);
+		}
+
+		/*
+		 * Removes the person from the tree, moving the person in the last slot
+		 * into the vacated slot. The capacity is halved once the tree is a
+		 * quarter full.
+		 */
+		public void remove(int personIdValue) {
+			int slot = slots.getValueAsInt(personIdValue);
+			if (slot < 0) {
+				return;
+			}
+			int lastSlot = count - 1;
+			setSlotWeight(slot, 0);
+			if (slot != lastSlot) {
+				double lastWeight = weights[lastSlot];
+				setSlotWeight(lastSlot, 0);
+				setSlotWeight(slot, lastWeight);
+				int lastPersonIdValue = personIdValues[lastSlot];
+				personIdValues[slot] = lastPersonIdValue;
+				slots.setIntValue(lastPersonIdValue, slot);
+			}
+			slots.setIntValue(personIdValue, -1);
+			count = lastSlot;
+			if (capacity > 1 && count <= capacity >> 2) {
+				setCapacity(capacity >> 1);
+			}
+		}
+
+		/*
+		 * Returns a person id value selected with probability proportional to
+		 * weight. Returns -1 if there are no positive weights.
+		 */
+		public int select(RandomGenerator randomGenerator) {
+			if (positiveWeightCount == 0) {
+				return -1;
+			}
+			while (true) {
+				double target = randomGenerator.nextDouble() * tree[capacity];
+				/*
+				 * Descend the tree to find the first slot whose cumulative
+				 * weight exceeds the target
+				 */
+				int position = 0;
+				for (int step = capacity; step > 0; step >>= 1) {
+					int next = position + step;
+					if (next <= capacity && tree[next] <= target) {
+						position = next;
+						target -= tree[next];
+					}
+				}
+				/*
+				 * Round off may rarely land on a slot with no weight, in which
+				 * case we simply draw again
+				 */
+				if (position < count && weights[position] > 0) {
+					return personIdValues[position];
+				}
+			}
+		}
+
+		public boolean hasInvalidWeights() {
+			return invalidWeightCount > 0 || !Double.isFinite(tree[capacity]);
+		}
 	}
 
 	/*
@@ -576,6 +857,14 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 		 * Returns null otherwise.
 		 */
 		public PersonId getRandomPersonId(RandomGenerator randomGenerator);
+
+		/*
+		 * Returns a list of distinct people selected uniformly at random
+		 * without replacement, in the order of selection. The list contains
+		 * all of the people in the container if the sample count is at least
+		 * the size of the container.
+		 */
+		public List<PersonId> sample(int sampleCount, RandomGenerator randomGenerator);
 	}
 
 	/*
@@ -612,6 +901,20 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 
 	private final Environment environment;
 
+	private final Context context;
+
+	/*
+	 * The weighting function and the weights of the people in the index. Both
+	 * are null for indexes that are not weighted.
+	 */
+	private final IndexWeightingFunction indexWeightingFunction;
+
+	private final WeightTree weightTree;
+
+	private final ObservableEnvironment observableEnvironment;
+
+	private final PersonIdManager personIdManager;
+
 	private final ObservationManager observationManager;
 
 	/**
@@ -627,6 +930,19 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 	 *             <li>if filter is null
 	 */
 	public IndexedPopulationImpl(final Context context, final ComponentId componentId, Object key, final FilterInfo filterInfo) {
+		this(context, componentId, key, filterInfo, null);
+	}
+
+	/**
+	 * Constructs an IndexedPopulation that supports weighted selection of its
+	 * people when the weighting function is not null.
+	 * 
+	 * @throws RuntimeException
+	 *             <li>if context is null
+	 *             <li>if owner key is null
+	 *             <li>if filter is null
+	 */
+	public IndexedPopulationImpl(final Context context, final ComponentId componentId, Object key, final FilterInfo filterInfo, final IndexWeightingFunction indexWeightingFunction) {
 		if (context == null) {
 			throw new RuntimeException("null context");
 		}
@@ -641,9 +957,30 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 		this.observationManager = context.getObservationManager();
 		this.stochasticsManager = context.getStochasticsManager();
 		this.filterInfo = filterInfo;
-		this.filterEvaluator = FilterEvaluator.build(filterInfo);
+		this.filterEvaluator = FilterEvaluator.compile(filterInfo, context);
 		peopleContainer = new BasePeopleContainer(context);
 		environment = context.getEnvironment();
+		this.context = context;
+		this.indexWeightingFunction = indexWeightingFunction;
+		if (indexWeightingFunction != null) {
+			weightTree = new WeightTree();
+		} else {
+			weightTree = null;
+		}
+		observableEnvironment = context.getObservableEnvironment();
+		personIdManager = context.getPersonIdManager();
+	}
+
+	/*
+	 * Adds the person to the people container, recording the person's weight if
+	 * this index is weighted
+	 */
+	private boolean addPerson(final PersonId personId) {
+		boolean added = peopleContainer.add(personId);
+		if (added && weightTree != null) {
+			weightTree.setWeight(personId.getValue(), indexWeightingFunction.getWeight(observableEnvironment, personId));
+		}
+		return added;
 	}
 
 	/**
@@ -653,7 +990,7 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 	public void evaluate(final PersonId personId) {
 
 		if (filterEvaluator.evaluate(environment, personId)) {
-			boolean added = peopleContainer.add(personId);
+			boolean added = addPerson(personId);
 			if (added) {
 				observationManager.handlePopulationIndexPersonAddition(key, personId);
 			}
@@ -747,6 +1084,59 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 		return result;
 	}
 
+	/**
+	 * Returns a list of distinct people chosen uniformly at random from the
+	 * index without replacement, in the order of their selection. The list
+	 * contains min(sampleCount, size) people.
+	 */
+	@Override
+	public List<PersonId> samplePeople(final int sampleCount, RandomNumberGeneratorId randomNumberGeneratorId) {
+		RandomGenerator randomGenerator = stochasticsManager.getRandomGeneratorFromId(randomNumberGeneratorId);
+		return peopleContainer.sample(sampleCount, randomGenerator);
+	}
+
+	@Override
+	public boolean isWeighted() {
+		return weightTree != null;
+	}
+
+	@Override
+	public void updateWeight(final PersonId personId) {
+		if (weightTree != null && peopleContainer.contains(personId)) {
+			weightTree.setWeight(personId.getValue(), indexWeightingFunction.getWeight(observableEnvironment, personId));
+		}
+	}
+
+	/**
+	 * Returns a person chosen from the index with probability proportional to
+	 * the person's weight. The selection reports an error if any person in the
+	 * index has a negative or non-finite weight or the total weight is not
+	 * finite.
+	 * 
+	 * @throws RuntimeException
+	 *             if the index is not weighted
+	 */
+	@Override
+	public StochasticPersonSelection getWeightedRandomPersonFromGenerator(RandomNumberGeneratorId randomNumberGeneratorId) {
+		if (weightTree == null) {
+			throw new RuntimeException("population index is not weighted");
+		}
+		if (weightTree.hasInvalidWeights()) {
+			return new StochasticPersonSelection(null, true);
+		}
+		RandomGenerator randomGenerator;
+		if (randomNumberGeneratorId == null) {
+			randomGenerator = stochasticsManager.getRandomGenerator();
+		} else {
+			randomGenerator = stochasticsManager.getRandomGeneratorFromId(randomNumberGeneratorId);
+		}
+		int personIdValue = weightTree.select(randomGenerator);
+		if (personIdValue < 0) {
+			return new StochasticPersonSelection(null, false);
+		}
+		return new StochasticPersonSelection(personIdManager.getBoxedPersonId(personIdValue), false);
+	}
+
 	/**
 	 * Returns true if and only if the person is contained in the population
 	 * index
@@ -778,8 +1168,8 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 		 * search for people who match the filter to just those having property
 		 * value X.
 		 */
-		FilterPopulationMatcher	.getMatchingPeople(filterInfo, environment)//
-								.forEach(personId -> peopleContainer.add(personId));//
+		FilterPopulationMatcher	.getMatchingPeople(filterInfo, filterEvaluator, context)//
+								.forEach(personId -> addPerson(personId));//
 	}
 
 	/**
@@ -789,7 +1179,11 @@ public final class IndexedPopulationImpl implements IndexedPopulation{
 	 */
 	@Override
 	public boolean remove(final PersonId personId) {
-		return peopleContainer.remove(personId);
+		boolean removed = peopleContainer.remove(personId);
+		if (removed && weightTree != null) {
+			weightTree.remove(personId.getValue());
+		}
+		return removed;
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package gcm.simulation;
 
 import java.util.List;
+import java.util.Set;
 
 import gcm.scenario.CompartmentId;
 import gcm.scenario.ComponentId;
@@ -36,6 +37,18 @@ public interface IndexedPopulationManager extends Element {
 
 	public void addIndex(final ComponentId componentId, final Filter filter, final Object key);
 
+	/**
+	 * Adds a population index for the given key that supports weighted
+	 * selection of its people. The weight of a person is re-evaluated whenever
+	 * any of the given person properties changes for that person. The key must
+	 * not duplicate an existing key.
+	 *
+	 * @throws ModelException
+	 *             <li>{@link SimulationErrorType#DUPLICATE_INDEXED_POPULATION}
+	 *             if the key is already associated with a population index
+	 */
+	public void addWeightedIndex(final ComponentId componentId, final Filter filter, final Object key, final IndexWeightingFunction indexWeightingFunction, final Set<PersonPropertyId> weightPropertyIds);
+
 	/**
 	 * Returns the list of person identifiers in the index for the given keys.
 	 *
@@ -79,6 +92,28 @@ public interface IndexedPopulationManager extends Element {
 	 */
 	public PersonId getRandomIndexedPersonFromGenerator(final PersonId excludedPersonId, final Object key, RandomNumberGeneratorId randomNumberGeneratorId);
 
+	/**
+	 * Returns a list of distinct people chosen uniformly at random without
+	 * replacement from the given index. The list contains min(sampleCount,
+	 * size) people in the order of their selection. Random selection is from
+	 * the RandomGenerator instance associated with the RandomNumberGeneratorId.
+	 */
+	public List<PersonId> sampleIndexedPeople(final Object key, final int sampleCount, RandomNumberGeneratorId randomNumberGeneratorId);
+
+	/**
+	 * Returns true if and only if the population index for the key was added
+	 * with a weighting function.
+	 */
+	public boolean isWeightedIndex(final Object key);
+
+	/**
+	 * Returns a person selected from the given weighted index with probability
+	 * proportional to the person's weight. Random selection is from the
+	 * RandomGenerator instance associated with the RandomNumberGeneratorId, or
+	 * the default RandomGenerator if the id is null.
+	 */
+	public StochasticPersonSelection getWeightedRandomIndexedPersonFromGenerator(final Object key, RandomNumberGeneratorId randomNumberGeneratorId);
+
 	/**
 	 * Returns true if and only if the person is contained in the population
 	 * corresponding to the key. The key must correspond to an existing indexed
@@ -157,6 +192,13 @@ public interface IndexedPopulationManager extends Element {
 	 */
 	public void handlePersonPropertyValueChange(final PersonId personId, final PersonPropertyId personPropertyId, final Object oldValue, final Object newValue);
 
+	/**
+	 * Returns true if and only if some indexed population is updated when the
+	 * person property changes, so that a change to the property must be
+	 * reported through handlePersonPropertyValueChange().
+	 */
+	public boolean isPersonPropertyIndexed(final PersonPropertyId personPropertyId);
+
 	/**
 	 * Returns the ComponentId of the component that added the indexed
 	 * population. The key must correspond to an existing indexed population.
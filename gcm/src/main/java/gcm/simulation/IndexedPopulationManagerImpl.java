@@ -47,6 +47,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class IndexedPopulationManagerImpl extends BaseElement implements IndexedPopulationManager {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * The principle container for all contained IndexedPopulations.
 	 */
@@ -102,6 +104,18 @@ public final class IndexedPopulationManagerImpl extends BaseElement implements I
 	 */
 	private final Map<GroupTypeId, Set<IndexedPopulation>> groupTypeIndexedPopulations = new LinkedHashMap<>();
 
+	/*
+	 * Matches weighted indexes to the person properties that determine their
+	 * weights.
+	 */
+	private final Map<PersonPropertyId, Set<IndexedPopulation>> weightPropertyIndexedPopulations = new LinkedHashMap<>();
+
+	/*
+	 * The person properties that determine the weights of each weighted index,
+	 * keyed by the index key.
+	 */
+	private final Map<Object, Set<PersonPropertyId>> weightPropertyIdsByKey = new LinkedHashMap<>();
+
 	private PersonLocationManger personLocationManger;
 
 	private PropertyManager propertyManager;
@@ -130,6 +144,15 @@ public final class IndexedPopulationManagerImpl extends BaseElement implements I
 
 	@Override
 	public void addIndex(final ComponentId componentId, final Filter filter, final Object key) {
+		addIndex(componentId, filter, key, null, new LinkedHashSet<>());
+	}
+
+	@Override
+	public void addWeightedIndex(final ComponentId componentId, final Filter filter, final Object key, final IndexWeightingFunction indexWeightingFunction, final Set<PersonPropertyId> weightPropertyIds) {
+		addIndex(componentId, filter, key, indexWeightingFunction, weightPropertyIds);
+	}
+
+	private void addIndex(final ComponentId componentId, final Filter filter, final Object key, final IndexWeightingFunction indexWeightingFunction, final Set<PersonPropertyId> weightPropertyIds) {
 		/*
 		 * 
 		 * We must integrate the indexedPopulation into the various mapping
@@ -172,7 +195,7 @@ public final class IndexedPopulationManagerImpl extends BaseElement implements I
 			simulationWarningManager.processPopulationIndexEfficiencyWarning(populationIndexEfficiencyWarning);
 		}
 
-		IndexedPopulation indexedPopulation = new IndexedPopulationImpl(context, componentId, key, filterInfo);
+		IndexedPopulation indexedPopulation = new IndexedPopulationImpl(context, componentId, key, filterInfo, indexWeightingFunction);
 		if (useProfiledFilters) {
 			indexedPopulation = profileManager.getProfiledProxy(indexedPopulation);
 		}
@@ -277,6 +300,18 @@ public final class IndexedPopulationManagerImpl extends BaseElement implements I
 			unfilteredIndexedPopulations.add(indexedPopulation);
 		}
 
+		if (indexWeightingFunction != null) {
+			for (final PersonPropertyId personPropertyId : weightPropertyIds) {
+				Set<IndexedPopulation> indexedPopulations = weightPropertyIndexedPopulations.get(personPropertyId);
+				if (indexedPopulations == null) {
+					indexedPopulations = new LinkedHashSet<>();
+					weightPropertyIndexedPopulations.put(personPropertyId, indexedPopulations);
+				}
+				indexedPopulations.add(indexedPopulation);
+			}
+			weightPropertyIdsByKey.put(key, new LinkedHashSet<>(weightPropertyIds));
+		}
+
 		indexedPopulation.init();
 		indexedPopulationMap.put(key, indexedPopulation);
 
@@ -302,6 +337,21 @@ public final class IndexedPopulationManagerImpl extends BaseElement implements I
 		return indexedPopulationMap.get(key).getRandomPersonFromGenerator(excludedPersonId, randomNumberGeneratorId);
 	}
 
+	@Override
+	public List<PersonId> sampleIndexedPeople(final Object key, final int sampleCount, RandomNumberGeneratorId randomNumberGeneratorId) {
+		return indexedPopulationMap.get(key).samplePeople(sampleCount, randomNumberGeneratorId);
+	}
+
+	@Override
+	public boolean isWeightedIndex(final Object key) {
+		return indexedPopulationMap.get(key).isWeighted();
+	}
+
+	@Override
+	public StochasticPersonSelection getWeightedRandomIndexedPersonFromGenerator(final Object key, RandomNumberGeneratorId randomNumberGeneratorId) {
+		return indexedPopulationMap.get(key).getWeightedRandomPersonFromGenerator(randomNumberGeneratorId);
+	}
+
 	@Override
 	public boolean personInPopulationIndex(final PersonId personId, final Object key) {
 		return indexedPopulationMap.get(key).personInPopulationIndex(personId);
@@ -683,6 +733,23 @@ public final class IndexedPopulationManagerImpl extends BaseElement implements I
 
 		unfilteredIndexedPopulations.remove(indexedPopulation);
 
+		final Set<PersonPropertyId> weightPropertyIds = weightPropertyIdsByKey.remove(key);
+		if (weightPropertyIds != null) {
+			for (final PersonPropertyId personPropertyId : weightPropertyIds) {
+				final Set<IndexedPopulation> indexedPopulations = weightPropertyIndexedPopulations.get(personPropertyId);
+				indexedPopulations.remove(indexedPopulation);
+				if (indexedPopulations.size() == 0) {
+					weightPropertyIndexedPopulations.remove(personPropertyId);
+				}
+			}
+		}
+
+	}
+
+	@Override
+	public boolean isPersonPropertyIndexed(final PersonPropertyId personPropertyId) {
+		return !unfilteredIndexedPopulations.isEmpty() || propertyIdIndexedPopulations.containsKey(personPropertyId) || propertyValueIndexedPopulations.containsKey(personPropertyId)
+				|| weightPropertyIndexedPopulations.containsKey(personPropertyId);
 	}
 
 	@Override
@@ -727,6 +794,17 @@ public final class IndexedPopulationManagerImpl extends BaseElement implements I
 		for (final IndexedPopulation indexedPopulation : unfilteredIndexedPopulations) {
 			indexedPopulation.evaluate(personId);
 		}
+
+		/*
+		 * Weighted indexes whose weights depend on the property re-weight the
+		 * person now that any change to membership has been resolved
+		 */
+		indexedPopulations = weightPropertyIndexedPopulations.get(personPropertyId);
+		if (indexedPopulations != null) {
+			for (final IndexedPopulation indexedPopulation : indexedPopulations) {
+				indexedPopulation.updateWeight(personId);
+			}
+		}
 	}
 
 	@Override
@@ -3,10 +3,12 @@ package gcm.simulation;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.StorageOption;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
-import gcm.util.containers.IntValueContainer;
 import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.OffHeapValueContainer;
+import gcm.util.containers.PagedIntValueContainer;
 
 /**
  * Implementor of PropertyManager that compresses Byte, Short, Integer or Long
@@ -18,11 +20,20 @@ import gcm.util.containers.IntValueContainer.IntValueType;
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class IntPropertyManager extends AbstractPropertyManager {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * A container, indexed by person id, that stores the various Boxed integral
 	 * types values as bytes.
 	 */
-	private IntValueContainer intValueContainer;
+	private PagedIntValueContainer intValueContainer;
+
+	/*
+	 * A container, indexed by person id, that stores the values at the width
+	 * of the property type outside of the heap. Used instead of the
+	 * intValueContainer when the property is stored off heap.
+	 */
+	private OffHeapValueContainer offHeapValueContainer;
 
 	/*
 	 * The particular IntValueType for this property manager as determined by
@@ -80,35 +91,85 @@ public final class IntPropertyManager extends AbstractPropertyManager {
 		}
 		
 		int suggestedPopulationSize = context.getScenario().getSuggestedPopulationSize();
-		intValueContainer = new IntValueContainer(longDefaultValue, suggestedPopulationSize);
+		if (propertyDefinition.getStorageOption() == StorageOption.OFF_HEAP) {
+			offHeapValueContainer = new OffHeapValueContainer(intValueType, longDefaultValue, suggestedPopulationSize);
+		} else {
+			intValueContainer = new PagedIntValueContainer(longDefaultValue, suggestedPopulationSize);
+		}
+	}
+
+	/*
+	 * The stored value is returned as a long regardless of the value type and
+	 * is known to be compatible with the value type.
+	 */
+	private long getValue(PersonId personId) {
+		if (offHeapValueContainer != null) {
+			return offHeapValueContainer.getValue(personId.getValue());
+		}
+		return intValueContainer.getValueAsLong(personId.getValue());
 	}
 
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T getPropertyValue(PersonId personId) {
-		
+		long value = getValue(personId);
 		switch (intValueType) {
 		case BYTE:
-			Byte b = intValueContainer.getValueAsByte(personId.getValue());
+			Byte b = (byte) value;
 			return (T) b;
 		case INT:
-			Integer i = intValueContainer.getValueAsInt(personId.getValue());
+			Integer i = (int) value;
 			return (T) i;
 		case LONG:
-			Long l = intValueContainer.getValueAsLong(personId.getValue());
+			Long l = value;
 			return (T) l;
 		case SHORT:
-			Short s = intValueContainer.getValueAsShort(personId.getValue());
+			Short s = (short) value;
 			return (T) s;
 		default:
 			throw new RuntimeException("unhandled type");
 		}
 	}
 
+	/*
+	 * The value is known by the environment to be compatible with int.
+	 */
+	@Override
+	public int getPropertyIntValue(PersonId personId) {
+		return (int) getValue(personId);
+	}
+
+	@Override
+	public long getPropertyLongValue(PersonId personId) {
+		return getValue(personId);
+	}
+
+	@Override
+	public void getPropertyLongValues(int firstPersonIdValue, long candidates, long[] values) {
+		if (offHeapValueContainer != null) {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				values[bit] = offHeapValueContainer.getValue(firstPersonIdValue + bit);
+			}
+		} else {
+			while (candidates != 0) {
+				final int bit = Long.numberOfTrailingZeros(candidates);
+				candidates &= candidates - 1;
+				values[bit] = intValueContainer.getValueAsLong(firstPersonIdValue + bit);
+			}
+		}
+	}
+
 	@Override
 	public void setPropertyValue(PersonId personId, Object personPropertyValue) {
 		super.setPropertyValue(personId, personPropertyValue);
 
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), ((Number) personPropertyValue).longValue());
+			return;
+		}
+
 		switch (intValueType) {
 		case BYTE:
 			Byte b = (Byte) personPropertyValue;
@@ -131,4 +192,43 @@ public final class IntPropertyManager extends AbstractPropertyManager {
 		}
 	}
 
+	/*
+	 * The primitive setters write the stored value directly unless property
+	 * values are mapped to people.
+	 */
+	@Override
+	public void setPropertyIntValue(PersonId personId, int personPropertyValue) {
+		if (isValueMapped()) {
+			super.setPropertyIntValue(personId, personPropertyValue);
+			return;
+		}
+		handleUnboxedAssignment(personId, getValue(personId) != personPropertyValue);
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), personPropertyValue);
+		} else {
+			intValueContainer.setIntValue(personId.getValue(), personPropertyValue);
+		}
+	}
+
+	@Override
+	public void setPropertyLongValue(PersonId personId, long personPropertyValue) {
+		if (isValueMapped()) {
+			super.setPropertyLongValue(personId, personPropertyValue);
+			return;
+		}
+		handleUnboxedAssignment(personId, getValue(personId) != personPropertyValue);
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.setValue(personId.getValue(), personPropertyValue);
+		} else {
+			intValueContainer.setLongValue(personId.getValue(), personPropertyValue);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (offHeapValueContainer != null) {
+			offHeapValueContainer.close();
+		}
+		super.close();
+	}
 }
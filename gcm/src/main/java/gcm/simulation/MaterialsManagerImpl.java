@@ -1,5 +1,6 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -23,10 +24,14 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class MaterialsManagerImpl extends BaseElement implements MaterialsManager {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Represents the batch
 	 */
-	private static class BatchRecord {
+	private static class BatchRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 		
 		private final BatchId batchId;
 		/*
@@ -58,7 +63,9 @@ public final class MaterialsManagerImpl extends BaseElement implements Materials
 	/*
 	 * Represents the materials producer
 	 */
-	private static class MaterialsProducerRecord {
+	private static class MaterialsProducerRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		/*
 		 * Identifier for the materials producer
@@ -80,7 +87,10 @@ public final class MaterialsManagerImpl extends BaseElement implements Materials
 	/*
 	 * Represents the stage
 	 */
-	private static class StageRecord {
+	private static class StageRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		/*
 		 * The owning material producer
 		 */
@@ -1,5 +1,7 @@
 package gcm.simulation;
 
+import java.io.Serializable;
+
 import gcm.components.AbstractComponent;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
@@ -16,12 +18,16 @@ import gcm.util.annotations.TestStatus;
  */
 
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
-public final  class MemoryReportComponent extends AbstractComponent {
+public final  class MemoryReportComponent extends AbstractComponent implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/*
 	 * A empty Plan implementor
 	 */
-	private static class MemoryReportPlan implements Plan {
+	private static class MemoryReportPlan implements Plan, Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 	}
 
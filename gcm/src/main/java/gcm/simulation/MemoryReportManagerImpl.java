@@ -26,6 +26,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class MemoryReportManagerImpl extends BaseElement implements MemoryReportManager {
 
+	private static final long serialVersionUID = 1L;
+
 	private Context context;
 
 	/*
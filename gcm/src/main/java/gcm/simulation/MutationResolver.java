@@ -1,6 +1,7 @@
 package gcm.simulation;
 
 import java.util.Optional;
+import java.util.Set;
 
 import gcm.components.Component;
 import gcm.scenario.BatchId;
@@ -73,6 +74,14 @@ public interface MutationResolver extends Element {
 
 	public void setPersonPropertyValue(final PersonId personId, final PersonPropertyId personPropertyId, final Object personPropertyValue);
 
+	public void setPersonPropertyIntValue(final PersonId personId, final PersonPropertyId personPropertyId, final int personPropertyValue);
+
+	public void setPersonPropertyLongValue(final PersonId personId, final PersonPropertyId personPropertyId, final long personPropertyValue);
+
+	public void setPersonPropertyDoubleValue(final PersonId personId, final PersonPropertyId personPropertyId, final double personPropertyValue);
+
+	public void setPersonPropertyBooleanValue(final PersonId personId, final PersonPropertyId personPropertyId, final boolean personPropertyValue);
+
 	public void addResourceToRegion(final ResourceId resourceId, final RegionId regionId, final long amount);
 
 	public GroupId addGroup(GroupTypeId groupTypeId);
@@ -83,8 +92,12 @@ public interface MutationResolver extends Element {
 
 	public void addPlan(final Plan plan, final double planTime, final Object key);
 
+	public void addRecurringPlan(final Plan plan, final double startTime, final double interval, final Object key);
+
 	public void addPopulationIndex(ComponentId componentId, final Filter filter, final Object key);
 
+	public void addWeightedPopulationIndex(ComponentId componentId, final Filter filter, final Object key, final IndexWeightingFunction indexWeightingFunction, final Set<PersonPropertyId> weightPropertyIds);
+
 	public BatchId convertStageToBatch(final StageId stageId, final MaterialId materialId, final double amount);
 
 	public void convertStageToResource(final StageId stageId, final ResourceId resourceId, final long amount);
@@ -71,6 +71,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class MutationResolverImpl extends BaseElement implements MutationResolver {
 
+	private static final long serialVersionUID = 1L;
+
 	private IndexedPopulationManager indexedPopulationManager;
 	private ObservationManager observationManager;
 	private MaterialsManager materialsManager;
@@ -448,6 +450,76 @@ public final class MutationResolverImpl extends BaseElement implements MutationR
 		reportsManager.handlePersonPropertyValueAssignment(personId, personPropertyId, oldValue);
 	}
 
+	/*
+	 * Returns true if an index or a report needs the old and new values of a
+	 * change to the person property, in which case the primitive setters box
+	 * the value and defer to setPersonPropertyValue(). Observers are notified
+	 * of the change without its values and so do not require boxing.
+	 */
+	private boolean requiresBoxedPersonPropertyValues(final PersonPropertyId personPropertyId) {
+		return indexedPopulationManager.isPersonPropertyIndexed(personPropertyId) || reportsManager.hasPersonPropertyValueAssignmentReports();
+	}
+
+	@Override
+	public void setPersonPropertyIntValue(final PersonId personId, final PersonPropertyId personPropertyId, final int personPropertyValue) {
+		if (requiresBoxedPersonPropertyValues(personPropertyId)) {
+			setPersonPropertyValue(personId, personPropertyId, Integer.valueOf(personPropertyValue));
+			return;
+		}
+		externalAccessManager.acquireGlobalReadAccessLock();
+		try {
+			propertyManager.setPersonPropertyIntValue(personId, personPropertyId, personPropertyValue);
+			observationManager.handlePersonPropertyChange(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseGlobalReadAccessLock();
+		}
+	}
+
+	@Override
+	public void setPersonPropertyLongValue(final PersonId personId, final PersonPropertyId personPropertyId, final long personPropertyValue) {
+		if (requiresBoxedPersonPropertyValues(personPropertyId)) {
+			setPersonPropertyValue(personId, personPropertyId, Long.valueOf(personPropertyValue));
+			return;
+		}
+		externalAccessManager.acquireGlobalReadAccessLock();
+		try {
+			propertyManager.setPersonPropertyLongValue(personId, personPropertyId, personPropertyValue);
+			observationManager.handlePersonPropertyChange(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseGlobalReadAccessLock();
+		}
+	}
+
+	@Override
+	public void setPersonPropertyDoubleValue(final PersonId personId, final PersonPropertyId personPropertyId, final double personPropertyValue) {
+		if (requiresBoxedPersonPropertyValues(personPropertyId)) {
+			setPersonPropertyValue(personId, personPropertyId, Double.valueOf(personPropertyValue));
+			return;
+		}
+		externalAccessManager.acquireGlobalReadAccessLock();
+		try {
+			propertyManager.setPersonPropertyDoubleValue(personId, personPropertyId, personPropertyValue);
+			observationManager.handlePersonPropertyChange(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseGlobalReadAccessLock();
+		}
+	}
+
+	@Override
+	public void setPersonPropertyBooleanValue(final PersonId personId, final PersonPropertyId personPropertyId, final boolean personPropertyValue) {
+		if (requiresBoxedPersonPropertyValues(personPropertyId)) {
+			setPersonPropertyValue(personId, personPropertyId, Boolean.valueOf(personPropertyValue));
+			return;
+		}
+		externalAccessManager.acquireGlobalReadAccessLock();
+		try {
+			propertyManager.setPersonPropertyBooleanValue(personId, personPropertyId, personPropertyValue);
+			observationManager.handlePersonPropertyChange(personId, personPropertyId);
+		} finally {
+			externalAccessManager.releaseGlobalReadAccessLock();
+		}
+	}
+
 	private void loadRegionResources(final Scenario scenario) {
 		for (final RegionId regionId : scenario.getRegionIds()) {
 			for (final ResourceId resourceId : scenario.getResourceIds()) {
@@ -605,6 +677,16 @@ public final class MutationResolverImpl extends BaseElement implements MutationR
 		}
 	}
 
+	@Override
+	public void addRecurringPlan(final Plan plan, final double startTime, final double interval, final Object key) {
+		externalAccessManager.acquireGlobalReadAccessLock();
+		try {
+			eventManager.addRecurringPlan(plan, startTime, interval, key);
+		} finally {
+			externalAccessManager.releaseGlobalReadAccessLock();
+		}
+	}
+
 	@Override
 	public void addPopulationIndex(ComponentId componentId, final Filter filter, final Object key) {
 		// externalAccessManager.acquireExternalReadAccessLock();
@@ -615,6 +697,11 @@ public final class MutationResolverImpl extends BaseElement implements MutationR
 		// }
 		indexedPopulationManager.addIndex(componentId, filter, key);
 	}
+
+	@Override
+	public void addWeightedPopulationIndex(ComponentId componentId, final Filter filter, final Object key, final IndexWeightingFunction indexWeightingFunction, final Set<PersonPropertyId> weightPropertyIds) {
+		indexedPopulationManager.addWeightedIndex(componentId, filter, key, indexWeightingFunction, weightPropertyIds);
+	}
 	/*
 	 * Creates the information needed to support reports after the stage has
 	 * been removed from the simulation
@@ -660,6 +747,7 @@ public final class MutationResolverImpl extends BaseElement implements MutationR
 		try {
 			stageInfo = getStageInfo(stageId, true);
 			batchId = materialsManager.convertStageToBatch(stageId, materialId, amount);
+			propertyManager.handleBatchAddition(batchId, materialId);
 			observationManager.handleStageDestruction(stageId);
 		} finally {
 			externalAccessManager.releaseGlobalReadAccessLock();
@@ -714,8 +802,8 @@ public final class MutationResolverImpl extends BaseElement implements MutationR
 			if (reportsManager.hasBatchDestructionReports()) {
 				batchInfo = getBatchInfo(batchId);
 			}
-			materialsManager.destroyBatch(batchId);
 			propertyManager.handleBatchRemoval(batchId);
+			materialsManager.destroyBatch(batchId);
 		} finally {
 			externalAccessManager.releaseGlobalReadAccessLock();
 		}
@@ -1100,8 +1188,8 @@ public final class MutationResolverImpl extends BaseElement implements MutationR
 			for (PersonId personId : peopleForGroup) {
 				indexedPopulationManager.handlePersonGroupRemoval(groupId, personId);
 			}
-			personGroupManger.removeGroup(groupId);
 			propertyManager.handleGroupRemoval(groupId);
+			personGroupManger.removeGroup(groupId);
 			if (observationManagerRequiresGroupInfo) {
 				observationManager.handleGroupRemovalByGroupInfo(groupInfo);
 			} else {
@@ -1165,6 +1253,7 @@ public final class MutationResolverImpl extends BaseElement implements MutationR
 
 			indexedPopulationManager.handlePersonRemoval(personId);
 			propertyManager.handlePersonRemoval(personId);
+			resourceManager.handlePersonRemoval(personId);
 			if (observationManagerRequiresPersonInfo) {
 				observationManager.handlePersonRemovalByPersonInfo(personInfo);
 			} else {
@@ -1,49 +1,89 @@
 package gcm.simulation;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
+import gcm.util.containers.DictionaryValueContainer;
 import gcm.util.containers.ObjectValueContainer;
 
 /**
- * Implementor of PropertyManager that stores Object property values in an
- * Object array based data structure.
- * 
+ * Implementor of PropertyManager that stores Object property values. Values of
+ * the immutable types String, Character, BigInteger and BigDecimal are stored
+ * as dictionary codes in a byte-based data structure of the various int-like
+ * primitives, reverting to an Object array based data structure if the
+ * property takes on too many distinct values. Values of all other types are
+ * stored in an Object array based data structure, so that each person retains
+ * the very instance assigned to them.
+ *
  * @author Shawn Hatch
  *
  */
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class ObjectPropertyManager extends AbstractPropertyManager {
 
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The types whose values are dictionary encoded. Dictionary encoding
+	 * returns the first instance equal to an assigned value, which cannot be
+	 * told apart from the value itself only for immutable types with no
+	 * identity based behavior.
+	 */
+	private static final Set<Class<?>> DICTIONARY_ENCODED_TYPES = new HashSet<>(Arrays.asList(String.class, Character.class, BigInteger.class, BigDecimal.class));
+
+	/*
+	 * A container, indexed by person id, that stores Objects as dictionary
+	 * codes. Null if the property type is not dictionary encoded.
+	 */
+	private DictionaryValueContainer dictionaryValueContainer;
+
 	/*
-	 * A container, indexed by person id, that stores Objects as an array.
+	 * A container, indexed by person id, that stores Objects as an array. Null
+	 * if the property type is dictionary encoded.
 	 */
 	private ObjectValueContainer objectValueContainer;
 
 	public ObjectPropertyManager(Context context, PropertyDefinition propertyDefinition, PersonPropertyId propertyId) {
-		super(context, propertyDefinition, propertyId);	
-		
+		super(context, propertyDefinition, propertyId);
+
 		if(!propertyDefinition.getDefaultValue().isPresent()) {
 			throw new RuntimeException("default value is not present for "+propertyDefinition);
 		}
 
-		
-		Object defaultValue = propertyDefinition.getDefaultValue().get();		
+
+		Object defaultValue = propertyDefinition.getDefaultValue().get();
 		int suggestedPopulationSize = context.getScenario().getSuggestedPopulationSize();
-		objectValueContainer = new ObjectValueContainer(defaultValue, suggestedPopulationSize);
+		if (DICTIONARY_ENCODED_TYPES.contains(propertyDefinition.getType())) {
+			dictionaryValueContainer = new DictionaryValueContainer(defaultValue, suggestedPopulationSize);
+		} else {
+			objectValueContainer = new ObjectValueContainer(defaultValue, suggestedPopulationSize);
+		}
 	}
 
 	@Override
-	public <T> T getPropertyValue(PersonId personId) {		
+	public <T> T getPropertyValue(PersonId personId) {
+		if (dictionaryValueContainer != null) {
+			return dictionaryValueContainer.getValue(personId.getValue());
+		}
 		return objectValueContainer.getValue(personId.getValue());
 	}
 
 	@Override
 	public void setPropertyValue(PersonId personId, Object personPropertyValue) {
 		super.setPropertyValue(personId, personPropertyValue);
-		objectValueContainer.setValue(personId.getValue(), personPropertyValue);
+		if (dictionaryValueContainer != null) {
+			dictionaryValueContainer.setValue(personId.getValue(), personPropertyValue);
+		} else {
+			objectValueContainer.setValue(personId.getValue(), personPropertyValue);
+		}
 	}
 
 }
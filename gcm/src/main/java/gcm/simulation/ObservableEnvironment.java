@@ -120,6 +120,7 @@ public interface ObservableEnvironment extends Element {
 	 *             <li>if the batch id is unknown
 	 *             <li>if the property id is null
 	 *             <li>if the property is unknown
+	 *             <li>if the property's assignment times are not tracked
 	 *
 	 */
 	public double getBatchPropertyTime(final BatchId batchId, final BatchPropertyId batchPropertyId);
@@ -368,6 +369,7 @@ public interface ObservableEnvironment extends Element {
 	 *             <li>if the group id is unknown
 	 *             <li>if the property id is null
 	 *             <li>if the property is unknown
+	 *             <li>if the property's assignment times are not tracked
 	 *
 	 */
 	public double getGroupPropertyTime(final GroupId groupId, final GroupPropertyId groupPropertyId);
@@ -697,6 +699,19 @@ public interface ObservableEnvironment extends Element {
 	 */
 	public List<PersonId> getPeopleWithResource(final ResourceId resourceId);
 
+	/**
+	 * Returns the number of people currently having at least one unit of the
+	 * given resource identifier.
+	 *
+	 * throws ModelException
+	 *
+	 * <pre>
+	 * <li>if the resource id is null
+	 * <li>if the resource id is not known
+	 * </pre>
+	 */
+	public int getPersonCountForResource(final ResourceId resourceId);
+
 	/**
 	 * Returns the compartment identifier for the given person.
 	 *
@@ -774,8 +789,13 @@ public interface ObservableEnvironment extends Element {
 	public <T extends PersonPropertyId> Set<T> getPersonPropertyIds();
 
 	/**
-	 * Returns the simulation time when the property value was last set for the
-	 * given person and person property identifiers.
+	 * Returns the simulation time when the property value was last changed for
+	 * the given person and person property identifiers. Assigning a value equal
+	 * to the current value does not change the recorded time. The time is
+	 * recorded at the precision of the property's {@link TimeTrackingPolicy}:
+	 * exactly under TRACK_TIME, rounded to float precision under
+	 * TRACK_TIME_FLOAT and rounded down to a whole number of days under
+	 * TRACK_TIME_DAYS.
 	 *
 	 * @throws ModelException
 	 *
@@ -784,6 +804,7 @@ public interface ObservableEnvironment extends Element {
 	 * <li>if the person is unknown
 	 * <li>if the property id is null
 	 * <li>if the property is unknown
+	 * <li>if the property's assignment times are not tracked
 	 *             </pre>
 	 *
 	 */
@@ -909,6 +930,18 @@ public interface ObservableEnvironment extends Element {
 	 */
 	public MapOption getRegionMapOption();
 
+	/**
+	 * Returns the MapOption for the people holding the given resource
+	 *
+	 * throws ModelException
+	 *
+	 * <pre>
+	 * <li>if the resource id is null
+	 * <li>if the resource id is not known
+	 * </pre>
+	 */
+	public MapOption getResourceMapOption(final ResourceId resourceId);
+
 	/**
 	 * Returns the number of people currently in the simulation.
 	 *
@@ -45,6 +45,8 @@ import net.jcip.annotations.NotThreadSafe;
 @Source(status = TestStatus.UNEXPECTED)
 public final class ObservableEnvironmentImpl extends BaseElement implements ObservableEnvironment {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * The mutable Environment that is wrapped by this ObservableEnvironment
 	 */
@@ -341,6 +343,11 @@ public final class ObservableEnvironmentImpl extends BaseElement implements Obse
 		return environment.getPeopleWithResource(resourceId);
 	}
 
+	@Override
+	public int getPersonCountForResource(final ResourceId resourceId) {
+		return environment.getPersonCountForResource(resourceId);
+	}
+
 	@Override
 	public <T> T getPersonCompartment(final PersonId personId) {
 		return environment.getPersonCompartment(personId);
@@ -436,6 +443,11 @@ public final class ObservableEnvironmentImpl extends BaseElement implements Obse
 		return environment.getRegionMapOption();
 	}
 
+	@Override
+	public MapOption getResourceMapOption(final ResourceId resourceId) {
+		return environment.getResourceMapOption(resourceId);
+	}
+
 	@Override
 	public int getRegionPopulationCount(final RegionId regionId) {
 		return environment.getRegionPopulationCount(regionId);
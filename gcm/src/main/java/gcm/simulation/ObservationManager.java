@@ -28,10 +28,10 @@ import gcm.util.annotations.Source;
  * are observing.
  *
  * The manager coordinates the observed mutations with the component's need to
- * observe by storing these observations as Observation Records. When the
- * {@link EventManager} has completed activity with the current active
- * component, it retrieves these Observation Records and distributes them to the
- * observing components.
+ * observe by storing these observations in an {@link ObservationQueue}. When
+ * the {@link EventManager} has completed activity with the current active
+ * component, it polls these observations and distributes them to the observing
+ * components.
  *
  * @author Shawn Hatch
  *
@@ -40,10 +40,10 @@ import gcm.util.annotations.Source;
 public interface ObservationManager extends Element {
 
 	/**
-	 * Returns the next stored observation record, releasing it from storage.
-	 * Returns null if there are no observation records.
+	 * Returns the queue of stored observations. Observations are released from
+	 * storage as they are polled from the queue.
 	 */
-	public ObservationRecord getNextObservation();
+	public ObservationQueue getObservationQueue();
 
 	/**
 	 * Creates observation records for component observers for a change to a
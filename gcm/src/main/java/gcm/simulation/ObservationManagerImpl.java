@@ -1,17 +1,12 @@
 package gcm.simulation;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.Map;
-import java.util.Set;
 
 import gcm.output.reports.GroupInfo;
 import gcm.output.reports.PersonInfo;
 import gcm.scenario.CompartmentId;
 import gcm.scenario.CompartmentPropertyId;
-import gcm.scenario.ComponentId;
 import gcm.scenario.GlobalPropertyId;
 import gcm.scenario.GroupId;
 import gcm.scenario.GroupPropertyId;
@@ -38,15 +33,7 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class ObservationManagerImpl extends BaseElement implements ObservationManager {
 
-	/*
-	 * The threshold for rebuilding the observation queue when the queue is
-	 * empty. Like most core java collections, a Deque does not reduce its
-	 * memory footprint or shrink as it loses contained elements. Occasionally a
-	 * modeler may commit some mutations that spawn millions of observations,
-	 * leaving a very large memory allocation in the observation queue that
-	 * holds no observations. When this happens, we rebuild the deque.
-	 */
-	private final static int OBSERVATION_QUEUE_REBUILD_THRESHOLD = 1000;
+	private static final long serialVersionUID = 1L;
 
 	private ComponentManager componentManager;
 
@@ -60,131 +47,138 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 * 
 	 */
 
-	private final Map<GlobalPropertyId, Set<ComponentId>> globalPropertyChangeObservers = new LinkedHashMap<>();
+	private final Map<GlobalPropertyId, ObserverSet> globalPropertyChangeObservers = new LinkedHashMap<>();
+
+	private final PersonObserverStore<ObserverSet[]> individualPersonPropertyChangeObservers = new PersonObserverStore<>();
+
+	/*
+	 * Observers of person properties and person resources that are tied to
+	 * regions and compartments are stored in arrays. Regions and compartments
+	 * are indexed in the same manner as the PersonLocationManger, so that the
+	 * region and compartment of a person can be resolved to an array index
+	 * without hashing. Person property ids and resource ids are indexed by
+	 * their iteration order in the scenario.
+	 */
+	private final Map<RegionId, Integer> regionIndices = new LinkedHashMap<>();
+
+	private final Map<CompartmentId, Integer> compartmentIndices = new LinkedHashMap<>();
+
+	private final Map<PersonPropertyId, Integer> personPropertyIndices = new LinkedHashMap<>();
 
-	private final Map<PersonId, Map<PersonPropertyId, Set<ComponentId>>> individualPersonPropertyChangeObservers = new LinkedHashMap<>();
+	private final Map<ResourceId, Integer> resourceIndices = new LinkedHashMap<>();
 
-	private final Map<CompartmentId, Map<PersonPropertyId, Set<ComponentId>>> compartmentPersonPropertyChangeObservers = new LinkedHashMap<>();
+	private ObserverSet[][] compartmentPersonPropertyChangeObservers;
 
-	private final Map<RegionId, Map<PersonPropertyId, Set<ComponentId>>> regionPersonPropertyChangeObservers = new LinkedHashMap<>();
+	private ObserverSet[][] regionPersonPropertyChangeObservers;
 
-	private final Map<PersonPropertyId, Set<ComponentId>> globalPersonPropertyChangeObservers = new LinkedHashMap<>();
+	private ObserverSet[] globalPersonPropertyChangeObservers;
 
-	private final Map<PersonId, Map<ResourceId, Set<ComponentId>>> individualPersonResourceObservers = new LinkedHashMap<>();
+	private final PersonObserverStore<ObserverSet[]> individualPersonResourceObservers = new PersonObserverStore<>();
 
-	private final Map<RegionId, Map<ResourceId, Set<ComponentId>>> regionPersonResourceObservers = new LinkedHashMap<>();
+	private ObserverSet[][] regionPersonResourceObservers;
 
-	private final Map<CompartmentId, Map<ResourceId, Set<ComponentId>>> compartmentPersonResourceObservers = new LinkedHashMap<>();
+	private ObserverSet[][] compartmentPersonResourceObservers;
 
-	private final Map<ResourceId, Set<ComponentId>> globalPersonResourceObservers = new LinkedHashMap<>();
+	private ObserverSet[] globalPersonResourceObservers;
 
-	private final Map<PersonId, Set<ComponentId>> individualPersonRegionChangeObservers = new LinkedHashMap<>();
+	private final PersonObserverStore<ObserverSet> individualPersonRegionChangeObservers = new PersonObserverStore<>();
 
-	private final Map<PersonId, Set<ComponentId>> individualPersonCompartmentChangeObservers = new LinkedHashMap<>();
+	private final PersonObserverStore<ObserverSet> individualPersonCompartmentChangeObservers = new PersonObserverStore<>();
 
-	private final Map<CompartmentId, Set<ComponentId>> compartmentArrivalObservers = new LinkedHashMap<>();
+	private ObserverSet[] compartmentArrivalObservers;
 
-	private final Map<CompartmentId, Set<ComponentId>> compartmentDepartureObservers = new LinkedHashMap<>();
+	private ObserverSet[] compartmentDepartureObservers;
 
-	private final Map<RegionId, Set<ComponentId>> regionArrivalObservers = new LinkedHashMap<>();
+	private ObserverSet[] regionArrivalObservers;
 
-	private final Map<RegionId, Set<ComponentId>> regionDepartureObservers = new LinkedHashMap<>();
+	private ObserverSet[] regionDepartureObservers;
 
-	private final Set<ComponentId> globalArrivalObservers = new LinkedHashSet<>();
+	private final ObserverSet globalArrivalObservers = new ObserverSet();
 
-	private final Set<ComponentId> globalDepartureObservers = new LinkedHashSet<>();
+	private final ObserverSet globalDepartureObservers = new ObserverSet();
 
-	private final Map<CompartmentId, Map<CompartmentPropertyId, Set<ComponentId>>> compartmentPropertyObservers = new LinkedHashMap<>();
+	private final Map<CompartmentId, Map<CompartmentPropertyId, ObserverSet>> compartmentPropertyObservers = new LinkedHashMap<>();
 
-	private final Map<RegionId, Map<RegionPropertyId, Set<ComponentId>>> regionPropertyObservers = new LinkedHashMap<>();
+	private final Map<RegionId, Map<RegionPropertyId, ObserverSet>> regionPropertyObservers = new LinkedHashMap<>();
 	
-	private final Map<RegionPropertyId, Set<ComponentId>> globalRegionPropertyObservers = new LinkedHashMap<>();
+	private final Map<RegionPropertyId, ObserverSet> globalRegionPropertyObservers = new LinkedHashMap<>();
 
-	private final Map<MaterialsProducerId, Map<MaterialsProducerPropertyId, Set<ComponentId>>> materialsProducerPropertyObservers = new LinkedHashMap<>();
+	private final Map<MaterialsProducerId, Map<MaterialsProducerPropertyId, ObserverSet>> materialsProducerPropertyObservers = new LinkedHashMap<>();
 
-	private final Map<ResourceId, Map<ResourcePropertyId, Set<ComponentId>>> resourcePropertyObservers = new LinkedHashMap<>();
+	private final Map<ResourceId, Map<ResourcePropertyId, ObserverSet>> resourcePropertyObservers = new LinkedHashMap<>();
 
-	private final Map<RegionId, Map<ResourceId, Set<ComponentId>>> regionResourceObservers = new LinkedHashMap<>();
+	private final Map<RegionId, Map<ResourceId, ObserverSet>> regionResourceObservers = new LinkedHashMap<>();
 
-	private final Map<MaterialsProducerId, Map<ResourceId, Set<ComponentId>>> individualMaterialsProducersResourceObservers = new LinkedHashMap<>();
+	private final Map<MaterialsProducerId, Map<ResourceId, ObserverSet>> individualMaterialsProducersResourceObservers = new LinkedHashMap<>();
 
-	private final Map<ResourceId, Set<ComponentId>> materialsProducersResourceObservers = new LinkedHashMap<>();
+	private final Map<ResourceId, ObserverSet> materialsProducersResourceObservers = new LinkedHashMap<>();
 
-	private final Map<StageId, Set<ComponentId>> individualStageOfferObservers = new LinkedHashMap<>();
+	private final Map<StageId, ObserverSet> individualStageOfferObservers = new LinkedHashMap<>();
 
-	private final Set<ComponentId> stageOfferObservers = new LinkedHashSet<>();
+	private final ObserverSet stageOfferObservers = new ObserverSet();
 
-	private final Map<StageId, Set<ComponentId>> individualStageTransferObservers = new LinkedHashMap<>();
+	private final Map<StageId, ObserverSet> individualStageTransferObservers = new LinkedHashMap<>();
 	
-	private final Map<Object, Set<ComponentId>> populationIndexObservers = new LinkedHashMap<>();
+	private final Map<Object, ObserverSet> populationIndexObservers = new LinkedHashMap<>();
 
-	private final Set<ComponentId> stageTransferObservers = new LinkedHashSet<>();
+	private final ObserverSet stageTransferObservers = new ObserverSet();
 	
-	private final Map<MaterialsProducerId,Set<ComponentId>> sourceStageTransferObservers = new LinkedHashMap<>();
+	private final Map<MaterialsProducerId,ObserverSet> sourceStageTransferObservers = new LinkedHashMap<>();
 	
-	private final Map<MaterialsProducerId,Set<ComponentId>> destinationStageTransferObservers = new LinkedHashMap<>();
+	private final Map<MaterialsProducerId,ObserverSet> destinationStageTransferObservers = new LinkedHashMap<>();
 
 	/*
 	 * As mutations are executed, the components that registered for passive
 	 * observation of those mutations must be alerted after the current
-	 * component completes its activities. These alerts are stored as
-	 * ObservationRecords in a queue that is flushed immediately (by invocation
-	 * of observation methods on the observing components) after the active
-	 * component completes its actions.
-	 */
-	private Deque<ObservationRecord> observationQueue = new ArrayDeque<>();
-
-	/*
-	 * The max number of elements that have been stored in the observationQueue
-	 * during its life span. If this number is very large relative to the
-	 * current size of the queue, then it may be warranted to rebuild the queue
-	 * to recover memory.
+	 * component completes its activities. These alerts are stored in a queue
+	 * that is flushed immediately (by invocation of observation methods on the
+	 * observing components) after the active component completes its actions.
 	 */
-	private int observationQueueCapacity;
+	private ObservationQueue observationQueue;
 
-	private final Set<ComponentId> groupArrivalObservers = new LinkedHashSet<>();
+	private final ObserverSet groupArrivalObservers = new ObserverSet();
 
-	private final Map<GroupId, Set<ComponentId>> groupArrivalObserversByGroup = new LinkedHashMap<>();
+	private final Map<GroupId, ObserverSet> groupArrivalObserversByGroup = new LinkedHashMap<>();
 
-	private final Map<GroupId, Map<PersonId, Set<ComponentId>>> groupArrivalObserversByGroupAndPerson = new LinkedHashMap<>();
+	private final Map<GroupId, Map<PersonId, ObserverSet>> groupArrivalObserversByGroupAndPerson = new LinkedHashMap<>();
 
-	private final Map<PersonId, Set<ComponentId>> groupArrivalObserversByPerson = new LinkedHashMap<>();
+	private final PersonObserverStore<ObserverSet> groupArrivalObserversByPerson = new PersonObserverStore<>();
 
-	private final Map<GroupTypeId, Set<ComponentId>> groupArrivalObserversByType = new LinkedHashMap<>();
+	private final Map<GroupTypeId, ObserverSet> groupArrivalObserversByType = new LinkedHashMap<>();
 
-	private final Map<GroupTypeId, Map<PersonId, Set<ComponentId>>> groupArrivalObserversByTypeAndPerson = new LinkedHashMap<>();
+	private final Map<GroupTypeId, PersonObserverStore<ObserverSet>> groupArrivalObserversByTypeAndPerson = new LinkedHashMap<>();
 
-	private final Set<ComponentId> groupConstructionObservers = new LinkedHashSet<>();
+	private final ObserverSet groupConstructionObservers = new ObserverSet();
 
-	private final Map<GroupTypeId, Set<ComponentId>> groupConstructionObserversByType = new LinkedHashMap<>();
+	private final Map<GroupTypeId, ObserverSet> groupConstructionObserversByType = new LinkedHashMap<>();
 
-	private final Set<ComponentId> groupDepartureObservers = new LinkedHashSet<>();
+	private final ObserverSet groupDepartureObservers = new ObserverSet();
 
-	private final Map<GroupId, Set<ComponentId>> groupDepartureObserversByGroup = new LinkedHashMap<>();
+	private final Map<GroupId, ObserverSet> groupDepartureObserversByGroup = new LinkedHashMap<>();
 
-	private final Map<GroupId, Map<PersonId, Set<ComponentId>>> groupDepartureObserversByGroupAndPerson = new LinkedHashMap<>();
+	private final Map<GroupId, Map<PersonId, ObserverSet>> groupDepartureObserversByGroupAndPerson = new LinkedHashMap<>();
 
-	private final Map<PersonId, Set<ComponentId>> groupDepartureObserversByPerson = new LinkedHashMap<>();
+	private final PersonObserverStore<ObserverSet> groupDepartureObserversByPerson = new PersonObserverStore<>();
 	
-	private final Map<GroupTypeId, Set<ComponentId>> groupDepartureObserversByType = new LinkedHashMap<>();
+	private final Map<GroupTypeId, ObserverSet> groupDepartureObserversByType = new LinkedHashMap<>();
 
-	private final Map<GroupTypeId, Map<PersonId, Set<ComponentId>>> groupDepartureObserversByTypeAndPerson = new LinkedHashMap<>();
+	private final Map<GroupTypeId, PersonObserverStore<ObserverSet>> groupDepartureObserversByTypeAndPerson = new LinkedHashMap<>();
 
-	private final Set<ComponentId> groupDestructionObservers = new LinkedHashSet<>();
+	private final ObserverSet groupDestructionObservers = new ObserverSet();
 
-	private final Map<GroupId, Set<ComponentId>> groupDestructionObserversByGroup = new LinkedHashMap<>();
+	private final Map<GroupId, ObserverSet> groupDestructionObserversByGroup = new LinkedHashMap<>();
 
-	private final Map<GroupTypeId, Set<ComponentId>> groupDestructionObserversByType = new LinkedHashMap<>();
+	private final Map<GroupTypeId, ObserverSet> groupDestructionObserversByType = new LinkedHashMap<>();
 
-	private final Set<ComponentId> groupPropertyChangeObservers = new LinkedHashSet<>();
+	private final ObserverSet groupPropertyChangeObservers = new ObserverSet();
 
-	private final Map<GroupId, Set<ComponentId>> groupPropertyChangeObserversByGroup = new LinkedHashMap<>();
+	private final Map<GroupId, ObserverSet> groupPropertyChangeObserversByGroup = new LinkedHashMap<>();
 
-	private final Map<GroupTypeId, Map<GroupPropertyId, Map<GroupId, Set<ComponentId>>>> groupPropertyChangeObserversByPropertyAndGroup = new LinkedHashMap<>();
+	private final Map<GroupTypeId, Map<GroupPropertyId, Map<GroupId, ObserverSet>>> groupPropertyChangeObserversByPropertyAndGroup = new LinkedHashMap<>();
 
-	private final Map<GroupTypeId, Set<ComponentId>> groupPropertyChangeObserversByType = new LinkedHashMap<>();
+	private final Map<GroupTypeId, ObserverSet> groupPropertyChangeObserversByType = new LinkedHashMap<>();
 
-	private final Map<GroupTypeId, Map<GroupPropertyId, Set<ComponentId>>> groupPropertyChangeObserversByTypeAndProperty = new LinkedHashMap<>();
+	private final Map<GroupTypeId, Map<GroupPropertyId, ObserverSet>> groupPropertyChangeObserversByTypeAndProperty = new LinkedHashMap<>();
 
 	/*
 	 * For each change that occurs in GCM, we may have zero to many registered
@@ -192,52 +186,47 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 *
 	 * This is a delaying technique so that we are not invoking an observeXXX()
 	 * method on one component whilst another component is active. We store
-	 * instead the arguments that would have been in the observeXXX() method in
-	 * an ObservationRecord, with the first element of that ObservationRecord
-	 * being the ObservationType that indicates which method we should call
-	 * later.
+	 * instead the ObservationType that indicates which method we should call
+	 * later along with the arguments that would have been in the observeXXX()
+	 * method.
 	 *
 	 * It seems odd to stimulate a component with observations of changes that
 	 * the component committed on the Environment, so we exclude the current
 	 * focal component from receiving the observation.
 	 */
-	private void addToObservationQueue(final Set<ComponentId> observers, final Object... arguments) {
-		final ComponentId focalComponentId = componentManager.getFocalComponentId();
-		for (final ComponentId observer : observers) {
+	private void addToObservationQueue(final ObserverSet observers, final ObservationType observationType, final Object firstArgument, final Object secondArgument,
+			final Object thirdArgument) {
+		final int focalComponentIndex = componentManager.getFocalComponentIndex();
+		final int observerCount = observers.size();
+		for (int i = 0; i < observerCount; i++) {
+			final int observer = observers.get(i);
 			/*
 			 * Make sure that we do not have the mutating component be an
 			 * observer of its own mutation
 			 */
-			if (!focalComponentId.equals(observer)) {
-				final ObservationRecord observationRecord = new ObservationRecord(observer, arguments);
-				observationQueueCapacity++;
-				observationQueue.add(observationRecord);
+			if (observer != focalComponentIndex) {
+				observationQueue.add(observer, observationType, firstArgument, secondArgument, thirdArgument);
 			}
 		}
 	}
 
+	private void addToObservationQueue(final ObserverSet observers, final ObservationType observationType, final Object firstArgument, final Object secondArgument) {
+		addToObservationQueue(observers, observationType, firstArgument, secondArgument, null);
+	}
+
+	private void addToObservationQueue(final ObserverSet observers, final ObservationType observationType, final Object firstArgument) {
+		addToObservationQueue(observers, observationType, firstArgument, null, null);
+	}
+
 	@Override
-	public ObservationRecord getNextObservation() {
-		/*
-		 * If the observationQueue is empty and its current capacity(max number
-		 * of items it has held in the past) exceeds the
-		 * OBSERVATION_QUEUE_REBUILD_THRESHOLD then we rebuild the
-		 * observationQueue to release unused memory bound up in the queue.
-		 */
-		if (observationQueue.isEmpty()) {
-			if (observationQueueCapacity > OBSERVATION_QUEUE_REBUILD_THRESHOLD) {
-				observationQueueCapacity = 0;
-				observationQueue = new ArrayDeque<>();
-			}
-			return null;
-		}
-		return observationQueue.pop();
+	public ObservationQueue getObservationQueue() {
+		return observationQueue;
 	}
 
 	@Override
 	public void handleCompartmentPropertyChange(final CompartmentId compartmentId, final CompartmentPropertyId compartmentPropertyId) {
-		final Map<CompartmentPropertyId, Set<ComponentId>> map = compartmentPropertyObservers.get(compartmentId);
-		final Set<ComponentId> set = map.get(compartmentPropertyId);
+		final Map<CompartmentPropertyId, ObserverSet> map = compartmentPropertyObservers.get(compartmentId);
+		final ObserverSet set = map.get(compartmentPropertyId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.COMPARTMENT_PROPERTY, compartmentId, compartmentPropertyId);
 		}
@@ -245,7 +234,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handleGlobalPropertyChange(final GlobalPropertyId globalPropertyId) {
-		final Set<ComponentId> set = globalPropertyChangeObservers.get(globalPropertyId);
+		final ObserverSet set = globalPropertyChangeObservers.get(globalPropertyId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.GLOBAL_PROPERTY, globalPropertyId);
 		}
@@ -257,7 +246,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			addToObservationQueue(groupConstructionObservers, ObservationType.GROUP_CONSTRUCTION, groupId);
 		}
 		final GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
-		final Set<ComponentId> set = groupConstructionObserversByType.get(groupTypeId);
+		final ObserverSet set = groupConstructionObserversByType.get(groupTypeId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.GROUP_CONSTRUCTION, groupId);
 		}
@@ -270,14 +259,14 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		}
 
 		final GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
-		final Map<GroupPropertyId, Map<GroupId, Set<ComponentId>>> map = groupPropertyChangeObserversByPropertyAndGroup.get(groupTypeId);
-		final Map<GroupId, Set<ComponentId>> map2 = map.get(groupPropertyId);
-		Set<ComponentId> observers = map2.get(groupId);
+		final Map<GroupPropertyId, Map<GroupId, ObserverSet>> map = groupPropertyChangeObserversByPropertyAndGroup.get(groupTypeId);
+		final Map<GroupId, ObserverSet> map2 = map.get(groupPropertyId);
+		ObserverSet observers = map2.get(groupId);
 		if ((observers != null) && !observers.isEmpty()) {
 			addToObservationQueue(observers, ObservationType.GROUP_PROPERTY, groupId, groupPropertyId);
 		}
 
-		final Map<GroupPropertyId, Set<ComponentId>> map3 = groupPropertyChangeObserversByTypeAndProperty.get(groupTypeId);
+		final Map<GroupPropertyId, ObserverSet> map3 = groupPropertyChangeObserversByTypeAndProperty.get(groupTypeId);
 		observers = map3.get(groupPropertyId);
 		if ((observers != null) && !observers.isEmpty()) {
 			addToObservationQueue(observers, ObservationType.GROUP_PROPERTY, groupId, groupPropertyId);
@@ -302,8 +291,8 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		groupArrivalObserversByGroupAndPerson.remove(groupInfo.getGroupId());
 		groupDepartureObserversByGroupAndPerson.remove(groupInfo.getGroupId());
 
-		Map<GroupPropertyId, Map<GroupId, Set<ComponentId>>> map = groupPropertyChangeObserversByPropertyAndGroup.get(groupInfo.getGroupTypeId());
-		for (Map<GroupId, Set<ComponentId>> subMap : map.values()) {
+		Map<GroupPropertyId, Map<GroupId, ObserverSet>> map = groupPropertyChangeObserversByPropertyAndGroup.get(groupInfo.getGroupTypeId());
+		for (Map<GroupId, ObserverSet> subMap : map.values()) {
 			subMap.remove(groupInfo.getGroupId());
 		}
 
@@ -311,7 +300,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			addToObservationQueue(groupDestructionObservers, ObservationType.GROUP_DESTRUCTION, groupInfo);
 		}
 
-		Set<ComponentId> observers = groupDestructionObserversByGroup.get(groupInfo.getGroupId());
+		ObserverSet observers = groupDestructionObserversByGroup.get(groupInfo.getGroupId());
 		if ((observers != null) && !observers.isEmpty()) {
 			addToObservationQueue(observers, ObservationType.GROUP_DESTRUCTION, groupInfo);
 		}
@@ -330,8 +319,8 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		groupArrivalObserversByGroupAndPerson.remove(groupId);
 		groupDepartureObserversByGroupAndPerson.remove(groupId);
 
-		for (Map<GroupPropertyId, Map<GroupId, Set<ComponentId>>> map : groupPropertyChangeObserversByPropertyAndGroup.values()) {
-			for (Map<GroupId, Set<ComponentId>> subMap : map.values()) {
+		for (Map<GroupPropertyId, Map<GroupId, ObserverSet>> map : groupPropertyChangeObserversByPropertyAndGroup.values()) {
+			for (Map<GroupId, ObserverSet> subMap : map.values()) {
 				subMap.remove(groupId);
 			}
 		}
@@ -339,8 +328,8 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handleMaterialsProducerPropertyChange(final MaterialsProducerId materialsProducerId, final MaterialsProducerPropertyId materialsProducerPropertyId) {
-		final Map<MaterialsProducerPropertyId, Set<ComponentId>> map = materialsProducerPropertyObservers.get(materialsProducerId);
-		final Set<ComponentId> set = map.get(materialsProducerPropertyId);
+		final Map<MaterialsProducerPropertyId, ObserverSet> map = materialsProducerPropertyObservers.get(materialsProducerId);
+		final ObserverSet set = map.get(materialsProducerPropertyId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.MATERIALS_PRODUCER_PROPERTY, materialsProducerId, materialsProducerPropertyId);
 		}
@@ -348,11 +337,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handleMaterialsProducerResourceChange(final MaterialsProducerId materialsProducerId, final ResourceId resourceId) {
-		Set<ComponentId> set = materialsProducersResourceObservers.get(resourceId);
+		ObserverSet set = materialsProducersResourceObservers.get(resourceId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.MATERIALS_PRODUCER_RESOURCE, materialsProducerId, resourceId);
 		}
-		final Map<ResourceId, Set<ComponentId>> map = individualMaterialsProducersResourceObservers.get(materialsProducerId);
+		final Map<ResourceId, ObserverSet> map = individualMaterialsProducersResourceObservers.get(materialsProducerId);
 		set = map.get(resourceId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.MATERIALS_PRODUCER_RESOURCE, materialsProducerId, resourceId);
@@ -362,14 +351,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void handlePersonAddition(final PersonId personId) {
 
-		final CompartmentId compartmentId = personLocationManger.getPersonCompartment(personId);
-		Set<ComponentId> set = compartmentArrivalObservers.get(compartmentId);
+		ObserverSet set = compartmentArrivalObservers[personLocationManger.getPersonCompartmentIndex(personId)];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.COMPARTMENT_PERSON_ARRIVAL, personId);
 		}
 
-		final RegionId regionId = personLocationManger.getPersonRegion(personId);
-		set = regionArrivalObservers.get(regionId);
+		set = regionArrivalObservers[personLocationManger.getPersonRegionIndex(personId)];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.REGION_PERSON_ARRIVAL, personId);
 		}
@@ -383,18 +370,18 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void handlePersonCompartmentChange(final PersonId personId, final CompartmentId oldCompartmentId, final CompartmentId newCompartmentId) {
 
-		Set<ComponentId> set = individualPersonCompartmentChangeObservers.get(personId);
+		ObserverSet set = individualPersonCompartmentChangeObservers.get(personId);
 		if (set != null) {
 			if (!set.isEmpty()) {
 				addToObservationQueue(set, ObservationType.PERSON_COMPARTMENT, personId);
 			}
 		}
 
-		set = compartmentArrivalObservers.get(newCompartmentId);
+		set = compartmentArrivalObservers[compartmentIndices.get(newCompartmentId)];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.COMPARTMENT_PERSON_ARRIVAL, personId);
 		}
-		set = compartmentDepartureObservers.get(oldCompartmentId);
+		set = compartmentDepartureObservers[compartmentIndices.get(oldCompartmentId)];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.COMPARTMENT_PERSON_DEPARTURE, oldCompartmentId, personId);
 		}
@@ -407,7 +394,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			addToObservationQueue(groupArrivalObservers, ObservationType.GROUP_PERSON_ARRIVAL, groupId, personId);
 		}
 
-		Set<ComponentId> observers = groupArrivalObserversByGroup.get(groupId);
+		ObserverSet observers = groupArrivalObserversByGroup.get(groupId);
 		if ((observers != null) && !observers.isEmpty()) {
 			addToObservationQueue(observers, ObservationType.GROUP_PERSON_ARRIVAL, groupId, personId);
 		}
@@ -423,13 +410,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			addToObservationQueue(observers, ObservationType.GROUP_PERSON_ARRIVAL, groupId, personId);
 		}
 
-		Map<PersonId, Set<ComponentId>> map = groupArrivalObserversByTypeAndPerson.get(groupTypeId);
-		observers = map.get(personId);
+		observers = groupArrivalObserversByTypeAndPerson.get(groupTypeId).get(personId);
 		if ((observers != null) && !observers.isEmpty()) {
 			addToObservationQueue(observers, ObservationType.GROUP_PERSON_ARRIVAL, groupId, personId);
 		}
 
-		map = groupArrivalObserversByGroupAndPerson.get(groupId);
+		final Map<PersonId, ObserverSet> map = groupArrivalObserversByGroupAndPerson.get(groupId);
 		if (map != null) {
 			observers = map.get(personId);
 			if ((observers != null) && !observers.isEmpty()) {
@@ -444,7 +430,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			addToObservationQueue(groupDepartureObservers, ObservationType.GROUP_PERSON_DEPARTURE, groupId, personId);
 		}
 
-		Set<ComponentId> observers = groupDepartureObserversByGroup.get(groupId);
+		ObserverSet observers = groupDepartureObserversByGroup.get(groupId);
 		if ((observers != null) && !observers.isEmpty()) {
 			addToObservationQueue(observers, ObservationType.GROUP_PERSON_DEPARTURE, groupId, personId);
 		}
@@ -460,13 +446,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			addToObservationQueue(observers, ObservationType.GROUP_PERSON_DEPARTURE, groupId, personId);
 		}
 
-		Map<PersonId, Set<ComponentId>> map = groupDepartureObserversByTypeAndPerson.get(groupTypeId);
-		observers = map.get(personId);
+		observers = groupDepartureObserversByTypeAndPerson.get(groupTypeId).get(personId);
 		if ((observers != null) && !observers.isEmpty()) {
 			addToObservationQueue(observers, ObservationType.GROUP_PERSON_DEPARTURE, groupId, personId);
 		}
 
-		map = groupDepartureObserversByGroupAndPerson.get(groupId);
+		final Map<PersonId, ObserverSet> map = groupDepartureObserversByGroupAndPerson.get(groupId);
 		if (map != null) {
 			observers = map.get(personId);
 			if ((observers != null) && !observers.isEmpty()) {
@@ -478,9 +463,9 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void handlePersonPropertyChange(final PersonId personId, final PersonPropertyId personPropertyId) {
 
-		Map<PersonPropertyId, Set<ComponentId>> map = individualPersonPropertyChangeObservers.get(personId);
-		if (map != null) {
-			final Set<ComponentId> set = map.get(personPropertyId);
+		final ObserverSet[] observerSets = individualPersonPropertyChangeObservers.get(personId);
+		if (observerSets != null) {
+			final ObserverSet set = observerSets[personPropertyIndices.get(personPropertyId)];
 			if (set != null) {
 				if (!set.isEmpty()) {
 					addToObservationQueue(set, ObservationType.PERSON_PROPERTY, personId, personPropertyId);
@@ -488,19 +473,19 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			}
 		}
 
-		Set<ComponentId> set = globalPersonPropertyChangeObservers.get(personPropertyId);
+		final int personPropertyIndex = personPropertyIndices.get(personPropertyId);
+
+		ObserverSet set = globalPersonPropertyChangeObservers[personPropertyIndex];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.PERSON_PROPERTY, personId, personPropertyId);
 		}
 
-		map = regionPersonPropertyChangeObservers.get(personLocationManger.getPersonRegion(personId));
-		set = map.get(personPropertyId);
+		set = regionPersonPropertyChangeObservers[personLocationManger.getPersonRegionIndex(personId)][personPropertyIndex];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.PERSON_PROPERTY, personId, personPropertyId);
 		}
 
-		map = compartmentPersonPropertyChangeObservers.get(personLocationManger.getPersonCompartment(personId));
-		set = map.get(personPropertyId);
+		set = compartmentPersonPropertyChangeObservers[personLocationManger.getPersonCompartmentIndex(personId)][personPropertyIndex];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.PERSON_PROPERTY, personId, personPropertyId);
 		}
@@ -508,18 +493,18 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handlePersonRegionChange(final PersonId personId, final RegionId oldRegionId, final RegionId newRegionId) {
-		Set<ComponentId> set = individualPersonRegionChangeObservers.get(personId);
+		ObserverSet set = individualPersonRegionChangeObservers.get(personId);
 		if (set != null) {
 			if (!set.isEmpty()) {
 				addToObservationQueue(set, ObservationType.PERSON_REGION, personId);
 			}
 		}
 
-		set = regionArrivalObservers.get(newRegionId);
+		set = regionArrivalObservers[regionIndices.get(newRegionId)];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.REGION_PERSON_ARRIVAL, personId);
 		}
-		set = regionDepartureObservers.get(oldRegionId);
+		set = regionDepartureObservers[regionIndices.get(oldRegionId)];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.REGION_PERSON_DEPARTURE, oldRegionId, personId);
 		}
@@ -528,10 +513,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handlePersonRemovalByPersonInfo(final PersonInfo personInfo) {
-		individualPersonCompartmentChangeObservers.remove(personInfo.getPersonId());
-		individualPersonPropertyChangeObservers.remove(personInfo.getPersonId());
-		individualPersonRegionChangeObservers.remove(personInfo.getPersonId());
-		individualPersonResourceObservers.remove(personInfo.getPersonId());
+		handlePersonRemoval(personInfo.getPersonId());
 
 		if (!globalDepartureObservers.isEmpty()) {
 			addToObservationQueue(globalDepartureObservers, ObservationType.GLOBAL_PERSON_DEPARTURE, personInfo.getPersonId());
@@ -550,14 +532,22 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		individualPersonPropertyChangeObservers.remove(personId);
 		individualPersonRegionChangeObservers.remove(personId);
 		individualPersonResourceObservers.remove(personId);
+		groupArrivalObserversByPerson.remove(personId);
+		groupDepartureObserversByPerson.remove(personId);
+		for (final PersonObserverStore<ObserverSet> personObserverStore : groupArrivalObserversByTypeAndPerson.values()) {
+			personObserverStore.remove(personId);
+		}
+		for (final PersonObserverStore<ObserverSet> personObserverStore : groupDepartureObserversByTypeAndPerson.values()) {
+			personObserverStore.remove(personId);
+		}
 	}
 
 	@Override
 	public void handlePersonResourceChange(final PersonId personId, final ResourceId resourceId) {
 
-		Map<ResourceId, Set<ComponentId>> map = individualPersonResourceObservers.get(personId);
-		if (map != null) {
-			final Set<ComponentId> set = map.get(resourceId);
+		final ObserverSet[] observerSets = individualPersonResourceObservers.get(personId);
+		if (observerSets != null) {
+			final ObserverSet set = observerSets[resourceIndices.get(resourceId)];
 			if (set != null) {
 				if (!set.isEmpty()) {
 					addToObservationQueue(set, ObservationType.PERSON_RESOURCE, personId, resourceId);
@@ -565,19 +555,19 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			}
 		}
 
-		map = regionPersonResourceObservers.get(personLocationManger.getPersonRegion(personId));
-		Set<ComponentId> set = map.get(resourceId);
+		final int resourceIndex = resourceIndices.get(resourceId);
+
+		ObserverSet set = regionPersonResourceObservers[personLocationManger.getPersonRegionIndex(personId)][resourceIndex];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.PERSON_RESOURCE, personId, resourceId);
 		}
 
-		map = compartmentPersonResourceObservers.get(personLocationManger.getPersonCompartment(personId));
-		set = map.get(resourceId);
+		set = compartmentPersonResourceObservers[personLocationManger.getPersonCompartmentIndex(personId)][resourceIndex];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.PERSON_RESOURCE, personId, resourceId);
 		}
 
-		set = globalPersonResourceObservers.get(resourceId);
+		set = globalPersonResourceObservers[resourceIndex];
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.PERSON_RESOURCE, personId, resourceId);
 		}
@@ -585,8 +575,8 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handleRegionPropertyChange(final RegionId regionId, final RegionPropertyId regionPropertyId) {
-		final Map<RegionPropertyId, Set<ComponentId>> map = regionPropertyObservers.get(regionId);
-		Set<ComponentId> set = map.get(regionPropertyId);
+		final Map<RegionPropertyId, ObserverSet> map = regionPropertyObservers.get(regionId);
+		ObserverSet set = map.get(regionPropertyId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.REGION_PROPERTY, regionId, regionPropertyId);
 		}
@@ -599,8 +589,8 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handleRegionResourceChange(final RegionId regionId, final ResourceId resourceId) {
-		final Map<ResourceId, Set<ComponentId>> map = regionResourceObservers.get(regionId);
-		final Set<ComponentId> set = map.get(resourceId);
+		final Map<ResourceId, ObserverSet> map = regionResourceObservers.get(regionId);
+		final ObserverSet set = map.get(resourceId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.REGION_RESOURCE, regionId, resourceId);
 		}
@@ -608,8 +598,8 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handleResourcePropertyChange(final ResourceId resourceId, final ResourcePropertyId resourcePropertyId) {
-		final Map<ResourcePropertyId, Set<ComponentId>> map = resourcePropertyObservers.get(resourceId);
-		final Set<ComponentId> set = map.get(resourcePropertyId);
+		final Map<ResourcePropertyId, ObserverSet> map = resourcePropertyObservers.get(resourceId);
+		final ObserverSet set = map.get(resourcePropertyId);
 		if (!set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.RESOURCE_PROPERTY, resourceId, resourcePropertyId);
 		}
@@ -625,7 +615,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		if (!stageOfferObservers.isEmpty()) {
 			addToObservationQueue(stageOfferObservers, ObservationType.STAGE_OFFER, stageId);
 		}
-		final Set<ComponentId> set = individualStageOfferObservers.get(stageId);
+		final ObserverSet set = individualStageOfferObservers.get(stageId);
 		if (set != null) {
 			if (!set.isEmpty()) {
 				addToObservationQueue(set, ObservationType.STAGE_OFFER, stageId);
@@ -638,7 +628,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		if (!stageTransferObservers.isEmpty()) {
 			addToObservationQueue(stageTransferObservers, ObservationType.STAGE_TRANSFER, stageId,sourceMaterialsProducerId,destinationMaterialsProducerId);
 		}
-		Set<ComponentId> set = individualStageTransferObservers.get(stageId);
+		ObserverSet set = individualStageTransferObservers.get(stageId);
 		if (set != null) {
 			if (!set.isEmpty()) {
 				addToObservationQueue(set, ObservationType.STAGE_TRANSFER, stageId,sourceMaterialsProducerId,destinationMaterialsProducerId);
@@ -666,7 +656,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 			return true;
 		}
 
-		Set<ComponentId> observers = groupDestructionObserversByGroup.get(groupId);
+		ObserverSet observers = groupDestructionObserversByGroup.get(groupId);
 		if (observers != null && observers.size() > 0) {
 			return true;
 		}
@@ -686,6 +676,34 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		return !globalDepartureObservers.isEmpty();
 	}
 
+	/*
+	 * Returns true if and only if the array contains no observer sets
+	 */
+	private static boolean isEmpty(final ObserverSet[] observerSets) {
+		for (final ObserverSet observerSet : observerSets) {
+			if (observerSet != null) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static ObserverSet[] createObserverSets(final int length) {
+		final ObserverSet[] result = new ObserverSet[length];
+		for (int i = 0; i < length; i++) {
+			result[i] = new ObserverSet();
+		}
+		return result;
+	}
+
+	private static ObserverSet[][] createObserverSets(final int length, final int subLength) {
+		final ObserverSet[][] result = new ObserverSet[length][];
+		for (int i = 0; i < length; i++) {
+			result[i] = createObserverSets(subLength);
+		}
+		return result;
+	}
+
 	@Override
 	public void init(final Context context) {
 		super.init(context);
@@ -695,6 +713,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 		componentManager = context.getComponentManager();
 		personLocationManger = context.getPersonLocationManger();
+		observationQueue = new ObservationQueue(context.isObservationCoalescing());
 
 		/*
 		 * We initialize all collections that have a fixed set of keys. Stages
@@ -703,196 +722,184 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 		 */
 
 		for (final GlobalPropertyId globalPropertyId : scenario.getGlobalPropertyIds()) {
-			globalPropertyChangeObservers.put(globalPropertyId, new LinkedHashSet<>());
+			globalPropertyChangeObservers.put(globalPropertyId, new ObserverSet());
 		}
-		for (final CompartmentId compartmentId : scenario.getCompartmentIds()) {
-			compartmentArrivalObservers.put(compartmentId, new LinkedHashSet<>());
-		}
-		for (final CompartmentId compartmentId : scenario.getCompartmentIds()) {
-			compartmentDepartureObservers.put(compartmentId, new LinkedHashSet<>());
+		/*
+		 * Region and compartment indices start at one to match the
+		 * PersonLocationManger, so index zero of the location based arrays is
+		 * unused.
+		 */
+		int index = 1;
+		for (final RegionId regionId : scenario.getRegionIds()) {
+			regionIndices.put(regionId, index++);
 		}
+		final int regionIndexLimit = index;
+
+		index = 1;
 		for (final CompartmentId compartmentId : scenario.getCompartmentIds()) {
-			final Map<PersonPropertyId, Set<ComponentId>> map = new LinkedHashMap<>();
-			compartmentPersonPropertyChangeObservers.put(compartmentId, map);
-			for (final PersonPropertyId personPropertyId : scenario.getPersonPropertyIds()) {
-				map.put(personPropertyId, new LinkedHashSet<>());
-			}
+			compartmentIndices.put(compartmentId, index++);
 		}
+		final int compartmentIndexLimit = index;
 
-		for (final RegionId regionID : scenario.getRegionIds()) {
-			final Map<PersonPropertyId, Set<ComponentId>> map = new LinkedHashMap<>();
-			regionPersonPropertyChangeObservers.put(regionID, map);
-			for (final PersonPropertyId personPropertyId : scenario.getPersonPropertyIds()) {
-				map.put(personPropertyId, new LinkedHashSet<>());
-			}
-		}
-		for (final RegionId regionID : scenario.getRegionIds()) {
-			regionArrivalObservers.put(regionID, new LinkedHashSet<>());
-		}
-		for (final RegionId regionID : scenario.getRegionIds()) {
-			regionDepartureObservers.put(regionID, new LinkedHashSet<>());
-		}
+		index = 0;
 		for (final PersonPropertyId personPropertyId : scenario.getPersonPropertyIds()) {
-			globalPersonPropertyChangeObservers.put(personPropertyId, new LinkedHashSet<>());
+			personPropertyIndices.put(personPropertyId, index++);
 		}
+		final int personPropertyCount = index;
+
+		index = 0;
+		for (final ResourceId resourceId : scenario.getResourceIds()) {
+			resourceIndices.put(resourceId, index++);
+		}
+		final int resourceCount = index;
+
+		compartmentArrivalObservers = createObserverSets(compartmentIndexLimit);
+		compartmentDepartureObservers = createObserverSets(compartmentIndexLimit);
+		regionArrivalObservers = createObserverSets(regionIndexLimit);
+		regionDepartureObservers = createObserverSets(regionIndexLimit);
+
+		globalPersonPropertyChangeObservers = createObserverSets(personPropertyCount);
+		regionPersonPropertyChangeObservers = createObserverSets(regionIndexLimit, personPropertyCount);
+		compartmentPersonPropertyChangeObservers = createObserverSets(compartmentIndexLimit, personPropertyCount);
+
+		globalPersonResourceObservers = createObserverSets(resourceCount);
+		regionPersonResourceObservers = createObserverSets(regionIndexLimit, resourceCount);
+		compartmentPersonResourceObservers = createObserverSets(compartmentIndexLimit, resourceCount);
 
 		for (final CompartmentId compartmentId : scenario.getCompartmentIds()) {
-			final Map<CompartmentPropertyId, Set<ComponentId>> map = new LinkedHashMap<>();
+			final Map<CompartmentPropertyId, ObserverSet> map = new LinkedHashMap<>();
 			compartmentPropertyObservers.put(compartmentId, map);
 			for (final CompartmentPropertyId compartmentPropertyId : scenario.getCompartmentPropertyIds(compartmentId)) {
-				map.put(compartmentPropertyId, new LinkedHashSet<>());
+				map.put(compartmentPropertyId, new ObserverSet());
 			}
 		}
 		for (final RegionId regionId : scenario.getRegionIds()) {
-			final Map<RegionPropertyId, Set<ComponentId>> map = new LinkedHashMap<>();
+			final Map<RegionPropertyId, ObserverSet> map = new LinkedHashMap<>();
 			regionPropertyObservers.put(regionId, map);
 			for (final RegionPropertyId regionPropertyId : scenario.getRegionPropertyIds()) {
-				map.put(regionPropertyId, new LinkedHashSet<>());
+				map.put(regionPropertyId, new ObserverSet());
 			}
 		}
 		for (final RegionPropertyId regionPropertyId : scenario.getRegionPropertyIds()) {
-			globalRegionPropertyObservers.put(regionPropertyId, new LinkedHashSet<>());
+			globalRegionPropertyObservers.put(regionPropertyId, new ObserverSet());
 		}
 		
 		for (final MaterialsProducerId materialsProducerId : scenario.getMaterialsProducerIds()) {
-			final Map<MaterialsProducerPropertyId, Set<ComponentId>> map = new LinkedHashMap<>();
+			final Map<MaterialsProducerPropertyId, ObserverSet> map = new LinkedHashMap<>();
 			materialsProducerPropertyObservers.put(materialsProducerId, map);
 			for (final MaterialsProducerPropertyId materialsProducerPropertyId : scenario.getMaterialsProducerPropertyIds()) {
-				map.put(materialsProducerPropertyId, new LinkedHashSet<>());
-			}
-		}
-
-		for (final RegionId regionId : scenario.getRegionIds()) {
-			final Map<ResourceId, Set<ComponentId>> map = new LinkedHashMap<>();
-			regionPersonResourceObservers.put(regionId, map);
-			for (final ResourceId resourceId : scenario.getResourceIds()) {
-				map.put(resourceId, new LinkedHashSet<>());
-			}
-		}
-
-		for (final CompartmentId compartmentId : scenario.getCompartmentIds()) {
-			final Map<ResourceId, Set<ComponentId>> map = new LinkedHashMap<>();
-			compartmentPersonResourceObservers.put(compartmentId, map);
-			for (final ResourceId resourceId : scenario.getResourceIds()) {
-				map.put(resourceId, new LinkedHashSet<>());
+				map.put(materialsProducerPropertyId, new ObserverSet());
 			}
 		}
 
 		for (final ResourceId resourceId : scenario.getResourceIds()) {
-			globalPersonResourceObservers.put(resourceId, new LinkedHashSet<>());
-		}
-
-		for (final ResourceId resourceId : scenario.getResourceIds()) {
-			final Map<ResourcePropertyId, Set<ComponentId>> map = new LinkedHashMap<>();
+			final Map<ResourcePropertyId, ObserverSet> map = new LinkedHashMap<>();
 			resourcePropertyObservers.put(resourceId, map);
 			for (final ResourcePropertyId resourcePropertyId : scenario.getResourcePropertyIds(resourceId)) {
-				map.put(resourcePropertyId, new LinkedHashSet<>());
+				map.put(resourcePropertyId, new ObserverSet());
 			}
 		}
 
 		for (final RegionId regionId : scenario.getRegionIds()) {
-			final Map<ResourceId, Set<ComponentId>> map = new LinkedHashMap<>();
+			final Map<ResourceId, ObserverSet> map = new LinkedHashMap<>();
 			regionResourceObservers.put(regionId, map);
 			for (final ResourceId resourceId : scenario.getResourceIds()) {
-				map.put(resourceId, new LinkedHashSet<>());
+				map.put(resourceId, new ObserverSet());
 			}
 		}
 
 		for (final MaterialsProducerId materialsProducerId : scenario.getMaterialsProducerIds()) {
-			final Map<ResourceId, Set<ComponentId>> map = new LinkedHashMap<>();
+			final Map<ResourceId, ObserverSet> map = new LinkedHashMap<>();
 			individualMaterialsProducersResourceObservers.put(materialsProducerId, map);
 			for (final ResourceId resourceId : scenario.getResourceIds()) {
-				map.put(resourceId, new LinkedHashSet<>());
+				map.put(resourceId, new ObserverSet());
 			}
 		}
 		for (final ResourceId resourceId : scenario.getResourceIds()) {
-			materialsProducersResourceObservers.put(resourceId, new LinkedHashSet<>());
+			materialsProducersResourceObservers.put(resourceId, new ObserverSet());
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Map<GroupPropertyId, Map<GroupId, Set<ComponentId>>> propertyMap = new LinkedHashMap<>();
+			final Map<GroupPropertyId, Map<GroupId, ObserverSet>> propertyMap = new LinkedHashMap<>();
 			groupPropertyChangeObserversByPropertyAndGroup.put(groupTypeId, propertyMap);
 			for (final GroupPropertyId groupPropertyId : scenario.getGroupPropertyIds(groupTypeId)) {
-				final Map<GroupId, Set<ComponentId>> groupMap = new LinkedHashMap<>();
+				final Map<GroupId, ObserverSet> groupMap = new LinkedHashMap<>();
 				propertyMap.put(groupPropertyId, groupMap);
 			}
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Map<GroupPropertyId, Set<ComponentId>> propertyMap = new LinkedHashMap<>();
+			final Map<GroupPropertyId, ObserverSet> propertyMap = new LinkedHashMap<>();
 			groupPropertyChangeObserversByTypeAndProperty.put(groupTypeId, propertyMap);
 			for (final GroupPropertyId groupPropertyId : scenario.getGroupPropertyIds(groupTypeId)) {
-				final Set<ComponentId> set = new LinkedHashSet<>();
+				final ObserverSet set = new ObserverSet();
 				propertyMap.put(groupPropertyId, set);
 			}
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Map<PersonId, Set<ComponentId>> map = new LinkedHashMap<>();
-			groupArrivalObserversByTypeAndPerson.put(groupTypeId, map);
+			final PersonObserverStore<ObserverSet> personObserverStore = new PersonObserverStore<>();
+			groupArrivalObserversByTypeAndPerson.put(groupTypeId, personObserverStore);
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Map<PersonId, Set<ComponentId>> map = new LinkedHashMap<>();
-			groupDepartureObserversByTypeAndPerson.put(groupTypeId, map);
+			final PersonObserverStore<ObserverSet> personObserverStore = new PersonObserverStore<>();
+			groupDepartureObserversByTypeAndPerson.put(groupTypeId, personObserverStore);
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Set<ComponentId> set = new LinkedHashSet<>();
+			final ObserverSet set = new ObserverSet();
 			groupArrivalObserversByType.put(groupTypeId, set);
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Set<ComponentId> set = new LinkedHashSet<>();
+			final ObserverSet set = new ObserverSet();
 			groupConstructionObserversByType.put(groupTypeId, set);
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Set<ComponentId> set = new LinkedHashSet<>();
+			final ObserverSet set = new ObserverSet();
 			groupDepartureObserversByType.put(groupTypeId, set);
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Set<ComponentId> set = new LinkedHashSet<>();
+			final ObserverSet set = new ObserverSet();
 			groupDestructionObserversByType.put(groupTypeId, set);
 		}
 
 		for (final GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
-			final Set<ComponentId> set = new LinkedHashSet<>();
+			final ObserverSet set = new ObserverSet();
 			groupPropertyChangeObserversByType.put(groupTypeId, set);
 		}
 	}
 
 	@Override
 	public void observeCompartmentalPersonPropertyChange(final boolean observe, final CompartmentId compartmentId, final PersonPropertyId personPropertyId) {
-		final Map<PersonPropertyId, Set<ComponentId>> map = compartmentPersonPropertyChangeObservers.get(compartmentId);
-		final Set<ComponentId> set = map.get(personPropertyId);
+		final ObserverSet set = compartmentPersonPropertyChangeObservers[compartmentIndices.get(compartmentId)][personPropertyIndices.get(personPropertyId)];
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeCompartmentalPersonResourceChange(final boolean observe, final CompartmentId compartmentId, final ResourceId resourceId) {
-		final Map<ResourceId, Set<ComponentId>> map = compartmentPersonResourceObservers.get(compartmentId);
-		final Set<ComponentId> set = map.get(resourceId);
+		final ObserverSet set = compartmentPersonResourceObservers[compartmentIndices.get(compartmentId)][resourceIndices.get(resourceId)];
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeCompartmentPersonArrivals(final boolean observe, final CompartmentId compartmentId) {
+		final ObserverSet set = compartmentArrivalObservers[compartmentIndices.get(compartmentId)];
 		if (observe) {
-			final Set<ComponentId> set = compartmentArrivalObservers.get(compartmentId);
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = compartmentArrivalObservers.get(compartmentId);
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -907,12 +914,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeCompartmentPersonDepartures(final boolean observe, final CompartmentId compartmentId) {
+		final ObserverSet set = compartmentDepartureObservers[compartmentIndices.get(compartmentId)];
 		if (observe) {
-			final Set<ComponentId> set = compartmentDepartureObservers.get(compartmentId);
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = compartmentDepartureObservers.get(compartmentId);
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -929,12 +935,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeCompartmentPropertyChange(final boolean observe, final CompartmentId compartmentId, final CompartmentPropertyId compartmentPropertyId) {
-		final Map<CompartmentPropertyId, Set<ComponentId>> map = compartmentPropertyObservers.get(compartmentId);
-		final Set<ComponentId> set = map.get(compartmentPropertyId);
+		final Map<CompartmentPropertyId, ObserverSet> map = compartmentPropertyObservers.get(compartmentId);
+		final ObserverSet set = map.get(compartmentPropertyId);
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -948,10 +954,10 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGlobalPersonArrivals(final boolean observe) {
 		if (observe) {
-			globalArrivalObservers.add(componentManager.getFocalComponentId());
+			globalArrivalObservers.add(componentManager.getFocalComponentIndex());
 
 		} else {
-			globalArrivalObservers.remove(componentManager.getFocalComponentId());
+			globalArrivalObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -965,10 +971,10 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGlobalPersonDepartures(final boolean observe) {
 		if (observe) {
-			globalDepartureObservers.add(componentManager.getFocalComponentId());
+			globalDepartureObservers.add(componentManager.getFocalComponentIndex());
 
 		} else {
-			globalDepartureObservers.remove(componentManager.getFocalComponentId());
+			globalDepartureObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -984,11 +990,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeGlobalPersonPropertyChange(final boolean observe, final PersonPropertyId personPropertyId) {
-		final Set<ComponentId> set = globalPersonPropertyChangeObservers.get(personPropertyId);
+		final ObserverSet set = globalPersonPropertyChangeObservers[personPropertyIndices.get(personPropertyId)];
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1004,11 +1010,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeGlobalPersonResourceChange(final boolean observe, final ResourceId resourceId) {
-		final Set<ComponentId> set = globalPersonResourceObservers.get(resourceId);
+		final ObserverSet set = globalPersonResourceObservers[resourceIndices.get(resourceId)];
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1024,34 +1030,34 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGlobalPropertyChange(final boolean observe, final GlobalPropertyId globalPropertyId) {
 		if (observe) {
-			globalPropertyChangeObservers.get(globalPropertyId).add(componentManager.getFocalComponentId());
+			globalPropertyChangeObservers.get(globalPropertyId).add(componentManager.getFocalComponentIndex());
 		} else {
-			globalPropertyChangeObservers.get(globalPropertyId).remove(componentManager.getFocalComponentId());
+			globalPropertyChangeObservers.get(globalPropertyId).remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupArrival(final boolean observe) {
 		if (observe) {
-			groupArrivalObservers.add(componentManager.getFocalComponentId());
+			groupArrivalObservers.add(componentManager.getFocalComponentIndex());
 		} else {
-			groupArrivalObservers.remove(componentManager.getFocalComponentId());
+			groupArrivalObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupArrivalByGroup(final boolean observe, final GroupId groupId) {
 		if (observe) {
-			Set<ComponentId> set = groupArrivalObserversByGroup.get(groupId);
+			ObserverSet set = groupArrivalObserversByGroup.get(groupId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				groupArrivalObserversByGroup.put(groupId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupArrivalObserversByGroup.get(groupId);
+			final ObserverSet set = groupArrivalObserversByGroup.get(groupId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1059,23 +1065,23 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupArrivalByGroupAndPerson(final boolean observe, final GroupId groupId, final PersonId personId) {
 		if (observe) {
-			Map<PersonId, Set<ComponentId>> map = groupArrivalObserversByGroupAndPerson.get(groupId);
+			Map<PersonId, ObserverSet> map = groupArrivalObserversByGroupAndPerson.get(groupId);
 			if (map == null) {
 				map = new LinkedHashMap<>();
 				groupArrivalObserversByGroupAndPerson.put(groupId, map);
 			}
-			Set<ComponentId> set = map.get(personId);
+			ObserverSet set = map.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				map.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Map<PersonId, Set<ComponentId>> map = groupArrivalObserversByGroupAndPerson.get(groupId);
+			final Map<PersonId, ObserverSet> map = groupArrivalObserversByGroupAndPerson.get(groupId);
 			if (map != null) {
-				final Set<ComponentId> set = map.get(personId);
+				final ObserverSet set = map.get(personId);
 				if (set != null) {
-					set.remove(componentManager.getFocalComponentId());
+					set.remove(componentManager.getFocalComponentIndex());
 				}
 			}
 		}
@@ -1084,16 +1090,16 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupArrivalByPerson(final boolean observe, final PersonId personId) {
 		if (observe) {
-			Set<ComponentId> set = groupArrivalObserversByPerson.get(personId);
+			ObserverSet set = groupArrivalObserversByPerson.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				groupArrivalObserversByPerson.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupArrivalObserversByPerson.get(personId);
+			final ObserverSet set = groupArrivalObserversByPerson.get(personId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1101,29 +1107,29 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupArrivalByType(final boolean observe, final GroupTypeId groupTypeId) {
 		if (observe) {
-			final Set<ComponentId> set = groupArrivalObserversByType.get(groupTypeId);
-			set.add(componentManager.getFocalComponentId());
+			final ObserverSet set = groupArrivalObserversByType.get(groupTypeId);
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupArrivalObserversByType.get(groupTypeId);
-			set.remove(componentManager.getFocalComponentId());
+			final ObserverSet set = groupArrivalObserversByType.get(groupTypeId);
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupArrivalByTypeAndPerson(final boolean observe, final GroupTypeId groupTypeId, final PersonId personId) {
 		if (observe) {
-			final Map<PersonId, Set<ComponentId>> map = groupArrivalObserversByTypeAndPerson.get(groupTypeId);
-			Set<ComponentId> set = map.get(personId);
+			final PersonObserverStore<ObserverSet> personObserverStore = groupArrivalObserversByTypeAndPerson.get(groupTypeId);
+			ObserverSet set = personObserverStore.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
-				map.put(personId, set);
+				set = new ObserverSet();
+				personObserverStore.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Map<PersonId, Set<ComponentId>> map = groupArrivalObserversByTypeAndPerson.get(groupTypeId);
-			final Set<ComponentId> set = map.get(personId);
+			final PersonObserverStore<ObserverSet> personObserverStore = groupArrivalObserversByTypeAndPerson.get(groupTypeId);
+			final ObserverSet set = personObserverStore.get(personId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1131,45 +1137,45 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupConstruction(final boolean observe) {
 		if (observe) {
-			groupConstructionObservers.add(componentManager.getFocalComponentId());
+			groupConstructionObservers.add(componentManager.getFocalComponentIndex());
 		} else {
-			groupConstructionObservers.remove(componentManager.getFocalComponentId());
+			groupConstructionObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupConstructionByType(final boolean observe, final GroupTypeId groupTypeId) {
 		if (observe) {
-			final Set<ComponentId> set = groupConstructionObserversByType.get(groupTypeId);
-			set.add(componentManager.getFocalComponentId());
+			final ObserverSet set = groupConstructionObserversByType.get(groupTypeId);
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupConstructionObserversByType.get(groupTypeId);
-			set.remove(componentManager.getFocalComponentId());
+			final ObserverSet set = groupConstructionObserversByType.get(groupTypeId);
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupDeparture(final boolean observe) {
 		if (observe) {
-			groupDepartureObservers.add(componentManager.getFocalComponentId());
+			groupDepartureObservers.add(componentManager.getFocalComponentIndex());
 		} else {
-			groupDepartureObservers.remove(componentManager.getFocalComponentId());
+			groupDepartureObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupDepartureByGroup(final boolean observe, final GroupId groupId) {
 		if (observe) {
-			Set<ComponentId> set = groupDepartureObserversByGroup.get(groupId);
+			ObserverSet set = groupDepartureObserversByGroup.get(groupId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				groupDepartureObserversByGroup.put(groupId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupDepartureObserversByGroup.get(groupId);
+			final ObserverSet set = groupDepartureObserversByGroup.get(groupId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1177,23 +1183,23 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupDepartureByGroupAndPerson(final boolean observe, final GroupId groupId, final PersonId personId) {
 		if (observe) {
-			Map<PersonId, Set<ComponentId>> map = groupDepartureObserversByGroupAndPerson.get(groupId);
+			Map<PersonId, ObserverSet> map = groupDepartureObserversByGroupAndPerson.get(groupId);
 			if (map == null) {
 				map = new LinkedHashMap<>();
 				groupDepartureObserversByGroupAndPerson.put(groupId, map);
 			}
-			Set<ComponentId> set = map.get(personId);
+			ObserverSet set = map.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				map.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Map<PersonId, Set<ComponentId>> map = groupDepartureObserversByGroupAndPerson.get(groupId);
+			final Map<PersonId, ObserverSet> map = groupDepartureObserversByGroupAndPerson.get(groupId);
 			if (map != null) {
-				final Set<ComponentId> set = map.get(personId);
+				final ObserverSet set = map.get(personId);
 				if (set != null) {
-					set.remove(componentManager.getFocalComponentId());
+					set.remove(componentManager.getFocalComponentIndex());
 				}
 			}
 		}
@@ -1202,16 +1208,16 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupDepartureByPerson(final boolean observe, final PersonId personId) {
 		if (observe) {
-			Set<ComponentId> set = groupDepartureObserversByPerson.get(personId);
+			ObserverSet set = groupDepartureObserversByPerson.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				groupDepartureObserversByPerson.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupDepartureObserversByPerson.get(personId);
+			final ObserverSet set = groupDepartureObserversByPerson.get(personId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1219,30 +1225,30 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupDepartureByType(final boolean observe, final GroupTypeId groupTypeId) {
 		if (observe) {
-			final Set<ComponentId> set = groupDepartureObserversByType.get(groupTypeId);
-			set.add(componentManager.getFocalComponentId());
+			final ObserverSet set = groupDepartureObserversByType.get(groupTypeId);
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupDepartureObserversByType.get(groupTypeId);
-			set.remove(componentManager.getFocalComponentId());
+			final ObserverSet set = groupDepartureObserversByType.get(groupTypeId);
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupDepartureByTypeAndPerson(final boolean observe, final GroupTypeId groupTypeId, final PersonId personId) {
 		if (observe) {
-			final Map<PersonId, Set<ComponentId>> map = groupDepartureObserversByTypeAndPerson.get(groupTypeId);
-			Set<ComponentId> set = map.get(personId);
+			final PersonObserverStore<ObserverSet> personObserverStore = groupDepartureObserversByTypeAndPerson.get(groupTypeId);
+			ObserverSet set = personObserverStore.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
-				map.put(personId, set);
+				set = new ObserverSet();
+				personObserverStore.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Map<PersonId, Set<ComponentId>> map = groupDepartureObserversByTypeAndPerson.get(groupTypeId);
+			final PersonObserverStore<ObserverSet> personObserverStore = groupDepartureObserversByTypeAndPerson.get(groupTypeId);
 
-			final Set<ComponentId> set = map.get(personId);
+			final ObserverSet set = personObserverStore.get(personId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1250,25 +1256,25 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupDestruction(final boolean observe) {
 		if (observe) {
-			groupDestructionObservers.add(componentManager.getFocalComponentId());
+			groupDestructionObservers.add(componentManager.getFocalComponentIndex());
 		} else {
-			groupDestructionObservers.remove(componentManager.getFocalComponentId());
+			groupDestructionObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupDestructionByGroup(final boolean observe, final GroupId groupId) {
 		if (observe) {
-			Set<ComponentId> set = groupDestructionObserversByGroup.get(groupId);
+			ObserverSet set = groupDestructionObserversByGroup.get(groupId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				groupDestructionObserversByGroup.put(groupId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupDestructionObserversByGroup.get(groupId);
+			final ObserverSet set = groupDestructionObserversByGroup.get(groupId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1276,36 +1282,36 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupDestructionByType(final boolean observe, final GroupTypeId groupTypeId) {
 		if (observe) {
-			final Set<ComponentId> set = groupDestructionObserversByType.get(groupTypeId);
-			set.add(componentManager.getFocalComponentId());
+			final ObserverSet set = groupDestructionObserversByType.get(groupTypeId);
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupDestructionObserversByType.get(groupTypeId);
-			set.remove(componentManager.getFocalComponentId());
+			final ObserverSet set = groupDestructionObserversByType.get(groupTypeId);
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupPropertyChange(final boolean observe) {
 		if (observe) {
-			groupPropertyChangeObservers.add(componentManager.getFocalComponentId());
+			groupPropertyChangeObservers.add(componentManager.getFocalComponentIndex());
 		} else {
-			groupPropertyChangeObservers.remove(componentManager.getFocalComponentId());
+			groupPropertyChangeObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupPropertyChangeByGroup(final boolean observe, final GroupId groupId) {
 		if (observe) {
-			Set<ComponentId> set = groupPropertyChangeObserversByGroup.get(groupId);
+			ObserverSet set = groupPropertyChangeObserversByGroup.get(groupId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				groupPropertyChangeObserversByGroup.put(groupId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupPropertyChangeObserversByGroup.get(groupId);
+			final ObserverSet set = groupPropertyChangeObserversByGroup.get(groupId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1314,21 +1320,21 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	public void observeGroupPropertyChangeByGroupAndProperty(final boolean observe, final GroupPropertyId groupPropertyId, final GroupId groupId) {
 		if (observe) {
 			final GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
-			final Map<GroupPropertyId, Map<GroupId, Set<ComponentId>>> map1 = groupPropertyChangeObserversByPropertyAndGroup.get(groupTypeId);
-			final Map<GroupId, Set<ComponentId>> map2 = map1.get(groupPropertyId);
-			Set<ComponentId> set = map2.get(groupId);
+			final Map<GroupPropertyId, Map<GroupId, ObserverSet>> map1 = groupPropertyChangeObserversByPropertyAndGroup.get(groupTypeId);
+			final Map<GroupId, ObserverSet> map2 = map1.get(groupPropertyId);
+			ObserverSet set = map2.get(groupId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				map2.put(groupId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 			final GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
-			final Map<GroupPropertyId, Map<GroupId, Set<ComponentId>>> map1 = groupPropertyChangeObserversByPropertyAndGroup.get(groupTypeId);
-			final Map<GroupId, Set<ComponentId>> map2 = map1.get(groupPropertyId);
-			final Set<ComponentId> set = map2.get(groupId);
+			final Map<GroupPropertyId, Map<GroupId, ObserverSet>> map1 = groupPropertyChangeObserversByPropertyAndGroup.get(groupTypeId);
+			final Map<GroupId, ObserverSet> map2 = map1.get(groupPropertyId);
+			final ObserverSet set = map2.get(groupId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 			}
 		}
 	}
@@ -1336,24 +1342,24 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeGroupPropertyChangeByType(final boolean observe, final GroupTypeId groupTypeId) {
 		if (observe) {
-			final Set<ComponentId> set = groupPropertyChangeObserversByType.get(groupTypeId);
-			set.add(componentManager.getFocalComponentId());
+			final ObserverSet set = groupPropertyChangeObserversByType.get(groupTypeId);
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = groupPropertyChangeObserversByType.get(groupTypeId);
-			set.remove(componentManager.getFocalComponentId());
+			final ObserverSet set = groupPropertyChangeObserversByType.get(groupTypeId);
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
 	@Override
 	public void observeGroupPropertyChangeByTypeAndProperty(final boolean observe, final GroupTypeId groupTypeId, final GroupPropertyId groupPropertyId) {
 		if (observe) {
-			final Map<GroupPropertyId, Set<ComponentId>> map = groupPropertyChangeObserversByTypeAndProperty.get(groupTypeId);
-			final Set<ComponentId> set = map.get(groupPropertyId);
-			set.add(componentManager.getFocalComponentId());
+			final Map<GroupPropertyId, ObserverSet> map = groupPropertyChangeObserversByTypeAndProperty.get(groupTypeId);
+			final ObserverSet set = map.get(groupPropertyId);
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Map<GroupPropertyId, Set<ComponentId>> map = groupPropertyChangeObserversByTypeAndProperty.get(groupTypeId);
-			final Set<ComponentId> set = map.get(groupPropertyId);
-			set.remove(componentManager.getFocalComponentId());
+			final Map<GroupPropertyId, ObserverSet> map = groupPropertyChangeObserversByTypeAndProperty.get(groupTypeId);
+			final ObserverSet set = map.get(groupPropertyId);
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1370,17 +1376,17 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	public void observeIndividualPersonCompartmentChange(final boolean observe, final PersonId personId) {
 		if (observe) {
 
-			Set<ComponentId> set = individualPersonCompartmentChangeObservers.get(personId);
+			ObserverSet set = individualPersonCompartmentChangeObservers.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				individualPersonCompartmentChangeObservers.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 
-			final Set<ComponentId> set = individualPersonCompartmentChangeObservers.get(personId);
+			final ObserverSet set = individualPersonCompartmentChangeObservers.get(personId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 				if (set.isEmpty()) {
 					individualPersonCompartmentChangeObservers.remove(personId);
 				}
@@ -1403,26 +1409,28 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	public void observeIndividualPersonPropertyChange(final boolean observe, final PersonId personId, final PersonPropertyId personPropertyId) {
 		if (observe) {
 
-			Map<PersonPropertyId, Set<ComponentId>> map = individualPersonPropertyChangeObservers.get(personId);
-			if (map == null) {
-				map = new LinkedHashMap<>();
-				individualPersonPropertyChangeObservers.put(personId, map);
+			ObserverSet[] observerSets = individualPersonPropertyChangeObservers.get(personId);
+			if (observerSets == null) {
+				observerSets = new ObserverSet[personPropertyIndices.size()];
+				individualPersonPropertyChangeObservers.put(personId, observerSets);
 			}
-			Set<ComponentId> set = map.get(personPropertyId);
+			final int index = personPropertyIndices.get(personPropertyId);
+			ObserverSet set = observerSets[index];
 			if (set == null) {
-				set = new LinkedHashSet<>();
-				map.put(personPropertyId, set);
+				set = new ObserverSet();
+				observerSets[index] = set;
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Map<PersonPropertyId, Set<ComponentId>> map = individualPersonPropertyChangeObservers.get(personId);
-			if (map != null) {
-				final Set<ComponentId> set = map.get(personPropertyId);
+			final ObserverSet[] observerSets = individualPersonPropertyChangeObservers.get(personId);
+			if (observerSets != null) {
+				final int index = personPropertyIndices.get(personPropertyId);
+				final ObserverSet set = observerSets[index];
 				if (set != null) {
-					set.remove(componentManager.getFocalComponentId());
+					set.remove(componentManager.getFocalComponentIndex());
 					if (set.isEmpty()) {
-						map.remove(personPropertyId);
-						if (map.isEmpty()) {
+						observerSets[index] = null;
+						if (isEmpty(observerSets)) {
 							individualPersonPropertyChangeObservers.remove(personId);
 						}
 					}
@@ -1443,17 +1451,17 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeIndividualPersonRegionChange(final boolean observe, final PersonId personId) {
 		if (observe) {
-			Set<ComponentId> set = individualPersonRegionChangeObservers.get(personId);
+			ObserverSet set = individualPersonRegionChangeObservers.get(personId);
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				individualPersonRegionChangeObservers.put(personId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 
-			final Set<ComponentId> set = individualPersonRegionChangeObservers.get(personId);
+			final ObserverSet set = individualPersonRegionChangeObservers.get(personId);
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 				if (set.isEmpty()) {
 					individualPersonRegionChangeObservers.remove(personId);
 				}
@@ -1476,26 +1484,28 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	public void observeIndividualPersonResourceChange(final boolean observe, final PersonId personId, final ResourceId resourceId) {
 		if (observe) {
 
-			Map<ResourceId, Set<ComponentId>> map = individualPersonResourceObservers.get(personId);
-			if (map == null) {
-				map = new LinkedHashMap<>();
-				individualPersonResourceObservers.put(personId, map);
+			ObserverSet[] observerSets = individualPersonResourceObservers.get(personId);
+			if (observerSets == null) {
+				observerSets = new ObserverSet[resourceIndices.size()];
+				individualPersonResourceObservers.put(personId, observerSets);
 			}
-			Set<ComponentId> set = map.get(resourceId);
+			final int index = resourceIndices.get(resourceId);
+			ObserverSet set = observerSets[index];
 			if (set == null) {
-				set = new LinkedHashSet<>();
-				map.put(resourceId, set);
+				set = new ObserverSet();
+				observerSets[index] = set;
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Map<ResourceId, Set<ComponentId>> map = individualPersonResourceObservers.get(personId);
-			if (map != null) {
-				final Set<ComponentId> set = map.get(resourceId);
+			final ObserverSet[] observerSets = individualPersonResourceObservers.get(personId);
+			if (observerSets != null) {
+				final int index = resourceIndices.get(resourceId);
+				final ObserverSet set = observerSets[index];
 				if (set != null) {
-					set.remove(componentManager.getFocalComponentId());
+					set.remove(componentManager.getFocalComponentIndex());
 					if (set.isEmpty()) {
-						map.remove(resourceId);
-						if (map.isEmpty()) {
+						observerSets[index] = null;
+						if (isEmpty(observerSets)) {
 							individualPersonResourceObservers.remove(personId);
 						}
 					}
@@ -1518,12 +1528,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeMaterialsProducerPropertyChange(final boolean observe, final MaterialsProducerId materialProducerId, final MaterialsProducerPropertyId materialsProducerPropertyId) {
-		final Map<MaterialsProducerPropertyId, Set<ComponentId>> map = materialsProducerPropertyObservers.get(materialProducerId);
-		final Set<ComponentId> set = map.get(materialsProducerPropertyId);
+		final Map<MaterialsProducerPropertyId, ObserverSet> map = materialsProducerPropertyObservers.get(materialProducerId);
+		final ObserverSet set = map.get(materialsProducerPropertyId);
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1540,12 +1550,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeMaterialsProducerResourceChangeByResourceId(final boolean observe, final MaterialsProducerId materialProducerId, final ResourceId resourceId) {
-		final Map<ResourceId, Set<ComponentId>> map = individualMaterialsProducersResourceObservers.get(materialProducerId);
-		final Set<ComponentId> set = map.get(resourceId);
+		final Map<ResourceId, ObserverSet> map = individualMaterialsProducersResourceObservers.get(materialProducerId);
+		final ObserverSet set = map.get(resourceId);
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1559,12 +1569,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeMaterialsProducerResourceChange(final boolean observe, final ResourceId resourceId) {
-		final Set<ComponentId> set = materialsProducersResourceObservers.get(resourceId);
+		final ObserverSet set = materialsProducersResourceObservers.get(resourceId);
 
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1579,12 +1589,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeRegionPersonArrivals(final boolean observe, final RegionId regionId) {
+		final ObserverSet set = regionArrivalObservers[regionIndices.get(regionId)];
 		if (observe) {
-			final Set<ComponentId> set = regionArrivalObservers.get(regionId);
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = regionArrivalObservers.get(regionId);
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1599,12 +1608,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeRegionPersonDepartures(final boolean observe, final RegionId regionId) {
+		final ObserverSet set = regionDepartureObservers[regionIndices.get(regionId)];
 		if (observe) {
-			final Set<ComponentId> set = regionDepartureObservers.get(regionId);
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			final Set<ComponentId> set = regionDepartureObservers.get(regionId);
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1622,12 +1630,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeRegionPersonPropertyChange(final boolean observe, final RegionId regionId, final PersonPropertyId personPropertyId) {
-		final Map<PersonPropertyId, Set<ComponentId>> map = regionPersonPropertyChangeObservers.get(regionId);
-		final Set<ComponentId> set = map.get(personPropertyId);
+		final ObserverSet set = regionPersonPropertyChangeObservers[regionIndices.get(regionId)][personPropertyIndices.get(personPropertyId)];
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1645,12 +1652,11 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeRegionPersonResourceChange(final boolean observe, final RegionId regionId, final ResourceId resourceId) {
-		final Map<ResourceId, Set<ComponentId>> map = regionPersonResourceObservers.get(regionId);
-		final Set<ComponentId> set = map.get(resourceId);
+		final ObserverSet set = regionPersonResourceObservers[regionIndices.get(regionId)][resourceIndices.get(resourceId)];
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1667,22 +1673,22 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeRegionPropertyChange(final boolean observe, final RegionId regionId, final RegionPropertyId regionPropertyId) {
-		final Map<RegionPropertyId, Set<ComponentId>> map = regionPropertyObservers.get(regionId);
-		final Set<ComponentId> set = map.get(regionPropertyId);
+		final Map<RegionPropertyId, ObserverSet> map = regionPropertyObservers.get(regionId);
+		final ObserverSet set = map.get(regionPropertyId);
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 	
 	@Override
 	public void observeGlobalRegionPropertyChange(final boolean observe, final RegionPropertyId regionPropertyId) {
-		final Set<ComponentId> set = globalRegionPropertyObservers.get(regionPropertyId);		
+		final ObserverSet set = globalRegionPropertyObservers.get(regionPropertyId);		
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1699,12 +1705,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeRegionResourceChange(final boolean observe, final RegionId regionId, final ResourceId resourceId) {
-		final Map<ResourceId, Set<ComponentId>> map = regionResourceObservers.get(regionId);
-		final Set<ComponentId> set = map.get(resourceId);
+		final Map<ResourceId, ObserverSet> map = regionResourceObservers.get(regionId);
+		final ObserverSet set = map.get(resourceId);
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1721,12 +1727,12 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeResourcePropertyChange(final boolean observe, final ResourceId resourceId, final ResourcePropertyId resourcePropertyId) {
-		final Map<ResourcePropertyId, Set<ComponentId>> map = resourcePropertyObservers.get(resourceId);
-		final Set<ComponentId> set = map.get(resourcePropertyId);
+		final Map<ResourcePropertyId, ObserverSet> map = resourcePropertyObservers.get(resourceId);
+		final ObserverSet set = map.get(resourcePropertyId);
 		if (observe) {
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
-			set.remove(componentManager.getFocalComponentId());
+			set.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1740,9 +1746,9 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeStageOfferChange(final boolean observe) {
 		if (observe) {
-			stageOfferObservers.add(componentManager.getFocalComponentId());
+			stageOfferObservers.add(componentManager.getFocalComponentIndex());
 		} else {
-			stageOfferObservers.remove(componentManager.getFocalComponentId());
+			stageOfferObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1757,16 +1763,16 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeStageOfferChangeByStageId(final boolean observe, final StageId stageId) {
-		Set<ComponentId> set = individualStageOfferObservers.get(stageId);
+		ObserverSet set = individualStageOfferObservers.get(stageId);
 		if (observe) {
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				individualStageOfferObservers.put(stageId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 				if (set.isEmpty()) {
 					individualStageOfferObservers.remove(stageId);
 				}
@@ -1784,9 +1790,9 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	@Override
 	public void observeStageTransfer(final boolean observe) {
 		if (observe) {
-			stageTransferObservers.add(componentManager.getFocalComponentId());
+			stageTransferObservers.add(componentManager.getFocalComponentIndex());
 		} else {
-			stageTransferObservers.remove(componentManager.getFocalComponentId());
+			stageTransferObservers.remove(componentManager.getFocalComponentIndex());
 		}
 	}
 
@@ -1801,16 +1807,16 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	 */
 	@Override
 	public void observeStageTransferByStageId(final boolean observe, final StageId stageId) {
-		Set<ComponentId> set = individualStageTransferObservers.get(stageId);
+		ObserverSet set = individualStageTransferObservers.get(stageId);
 		if (observe) {
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				individualStageTransferObservers.put(stageId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 				if (set.isEmpty()) {
 					individualStageTransferObservers.remove(stageId);
 				}
@@ -1820,16 +1826,16 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void observePopulationIndexChange(boolean observe, Object key) {
-		Set<ComponentId> set = populationIndexObservers.get(key);
+		ObserverSet set = populationIndexObservers.get(key);
 		if (observe) {
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				populationIndexObservers.put(key, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 				if (set.isEmpty()) {
 					populationIndexObservers.remove(key);
 				}
@@ -1839,7 +1845,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handlePopulationIndexPersonAddition(Object key, PersonId personId) {
-		Set<ComponentId> set = populationIndexObservers.get(key);
+		ObserverSet set = populationIndexObservers.get(key);
 		if(set != null && !set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.POPULATION_INDEX_PERSON_ADDITION, key,personId);
 		}
@@ -1847,7 +1853,7 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void handlePopulationIndexPersonRemoval(Object key, PersonId personId) {
-		Set<ComponentId> set = populationIndexObservers.get(key);
+		ObserverSet set = populationIndexObservers.get(key);
 		if(set != null && !set.isEmpty()) {
 			addToObservationQueue(set, ObservationType.POPULATION_INDEX_PERSON_REMOVAL, key,personId);
 		}		
@@ -1855,16 +1861,16 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 	
 	@Override
 	public void observeStageTransferBySourceMaterialsProducerId(boolean observe, MaterialsProducerId sourceMaterialsProducerId) {
-		Set<ComponentId> set = sourceStageTransferObservers.get(sourceMaterialsProducerId);
+		ObserverSet set = sourceStageTransferObservers.get(sourceMaterialsProducerId);
 		if (observe) {
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				sourceStageTransferObservers.put(sourceMaterialsProducerId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 				if (set.isEmpty()) {
 					sourceStageTransferObservers.remove(sourceMaterialsProducerId);
 				}
@@ -1874,16 +1880,16 @@ public final class ObservationManagerImpl extends BaseElement implements Observa
 
 	@Override
 	public void observeStageTransferByDestinationMaterialsProducerId(boolean observe, MaterialsProducerId destinationMaterialsProducerId) {
-		Set<ComponentId> set = destinationStageTransferObservers.get(destinationMaterialsProducerId);
+		ObserverSet set = destinationStageTransferObservers.get(destinationMaterialsProducerId);
 		if (observe) {
 			if (set == null) {
-				set = new LinkedHashSet<>();
+				set = new ObserverSet();
 				destinationStageTransferObservers.put(destinationMaterialsProducerId, set);
 			}
-			set.add(componentManager.getFocalComponentId());
+			set.add(componentManager.getFocalComponentIndex());
 		} else {
 			if (set != null) {
-				set.remove(componentManager.getFocalComponentId());
+				set.remove(componentManager.getFocalComponentIndex());
 				if (set.isEmpty()) {
 					destinationStageTransferObservers.remove(destinationMaterialsProducerId);
 				}
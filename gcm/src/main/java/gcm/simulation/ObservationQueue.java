@@ -0,0 +1,342 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * A first-in-first-out queue of the observations that are pending delivery to
+ * observing components. As the active component changes the state of the
+ * simulation, those changes will often result in an observation on the part of
+ * other components. These non-focal components cannot immediately act upon the
+ * simulation's state since that would violate the reasonable assumption of
+ * state invariance on the part of the current component. Thus we must delay
+ * these observations by storing them in this queue, which is processed
+ * immediately after each component activation.
+ *
+ * An observation is composed of the component index of the observing
+ * component, the ObservationType that selects the observation method to invoke
+ * and up to three ordered arguments for that method. Rather than allocating a
+ * record and an argument array per observation, the queue stores each part in
+ * its own array of a circular buffer. The buffer doubles in size when full and is
+ * reallocated at its initial size when it empties after having grown beyond
+ * the rebuild threshold.
+ *
+ * The next observation is removed via {@link #poll()} and is then described by
+ * the various getCurrent methods.
+ *
+ * If the queue is coalescing, an observation that is identical in observer,
+ * type and arguments to an observation that is still pending is dropped. The
+ * pending observations are found through an open addressing hash table of
+ * observation sequence numbers, so coalescing does not allocate per
+ * observation.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
+public final class ObservationQueue implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The initial length of the buffer arrays. Must be a power of two.
+	 */
+	private static final int INITIAL_CAPACITY = 64;
+
+	/*
+	 * The threshold for rebuilding the buffer when the queue is empty.
+	 * Occasionally a modeler may commit some mutations that spawn millions of
+	 * observations, leaving a very large memory allocation in the queue that
+	 * holds no observations. When this happens, we rebuild the buffer.
+	 */
+	private static final int REBUILD_THRESHOLD = 1024;
+
+	/*
+	 * The initial length of the coalescing hash table. Must be a power of two.
+	 */
+	private static final int INITIAL_TABLE_CAPACITY = 128;
+
+	private final boolean coalescing;
+
+	private int[] componentIndices;
+
+	private ObservationType[] observationTypes;
+
+	private Object[] firstArguments;
+
+	private Object[] secondArguments;
+
+	private Object[] thirdArguments;
+
+	/*
+	 * The length of the buffer arrays less one. Since the length is a power of
+	 * two, the mask wraps indices around the buffer.
+	 */
+	private int mask;
+
+	/*
+	 * The index of the next observation to poll
+	 */
+	private int head;
+
+	/*
+	 * The number of observations in the queue
+	 */
+	private int size;
+
+	/*
+	 * Each observation is assigned a sequence number as it is added. The
+	 * observation at the head has the head sequence number.
+	 */
+	private long headSequence;
+
+	/*
+	 * The coalescing hash table. Entries are one more than the sequence number
+	 * of an observation so that zero marks an empty entry. Entries for
+	 * observations that have been polled are stale and are ignored. They are
+	 * discarded when the queue empties or the table is rebuilt.
+	 */
+	private long[] table;
+
+	/*
+	 * The number of non-empty entries in the table, including stale entries
+	 */
+	private int tableCount;
+
+	/*
+	 * The content of the observation most recently removed by poll()
+	 */
+	private int currentComponentIndex;
+
+	private ObservationType currentObservationType;
+
+	private Object currentFirstArgument;
+
+	private Object currentSecondArgument;
+
+	private Object currentThirdArgument;
+
+	/**
+	 * Constructs an empty ObservationQueue
+	 * 
+	 * @param coalescing
+	 *            if true, observations that duplicate a pending observation
+	 *            are dropped
+	 */
+	public ObservationQueue(final boolean coalescing) {
+		this.coalescing = coalescing;
+		allocate(INITIAL_CAPACITY);
+		if (coalescing) {
+			table = new long[INITIAL_TABLE_CAPACITY];
+		}
+	}
+
+	private static int hash(final int componentIndex, final ObservationType observationType, final Object firstArgument, final Object secondArgument, final Object thirdArgument) {
+		int result = componentIndex;
+		result = 31 * result + observationType.ordinal();
+		result = 31 * result + Objects.hashCode(firstArgument);
+		result = 31 * result + Objects.hashCode(secondArgument);
+		result = 31 * result + Objects.hashCode(thirdArgument);
+		return result ^ (result >>> 16);
+	}
+
+	/*
+	 * Returns the buffer index of the pending observation with the given
+	 * sequence number
+	 */
+	private int getBufferIndex(final long sequence) {
+		return (int) (head + (sequence - headSequence)) & mask;
+	}
+
+	/*
+	 * Rebuilds the coalescing table from the pending observations, discarding
+	 * stale entries.
+	 */
+	private void rebuildTable() {
+		int capacity = INITIAL_TABLE_CAPACITY;
+		while (capacity < (size << 2)) {
+			capacity <<= 1;
+		}
+		table = new long[capacity];
+		tableCount = 0;
+		final int tableMask = capacity - 1;
+		for (int i = 0; i < size; i++) {
+			final int index = (head + i) & mask;
+			int tableIndex = hash(componentIndices[index], observationTypes[index], firstArguments[index], secondArguments[index], thirdArguments[index]) & tableMask;
+			while (table[tableIndex] != 0) {
+				tableIndex = (tableIndex + 1) & tableMask;
+			}
+			table[tableIndex] = headSequence + i + 1;
+			tableCount++;
+		}
+	}
+
+	private void allocate(final int capacity) {
+		componentIndices = new int[capacity];
+		observationTypes = new ObservationType[capacity];
+		firstArguments = new Object[capacity];
+		secondArguments = new Object[capacity];
+		thirdArguments = new Object[capacity];
+		mask = capacity - 1;
+		head = 0;
+	}
+
+	/*
+	 * Doubles the length of the buffer arrays, unwrapping the current content
+	 * so that the head is at index zero.
+	 */
+	private void grow() {
+		final int[] oldComponentIndices = componentIndices;
+		final ObservationType[] oldObservationTypes = observationTypes;
+		final Object[] oldFirstArguments = firstArguments;
+		final Object[] oldSecondArguments = secondArguments;
+		final Object[] oldThirdArguments = thirdArguments;
+		final int oldCapacity = oldComponentIndices.length;
+		final int oldHead = head;
+
+		allocate(oldCapacity << 1);
+
+		final int headLength = oldCapacity - oldHead;
+		System.arraycopy(oldComponentIndices, oldHead, componentIndices, 0, headLength);
+		System.arraycopy(oldComponentIndices, 0, componentIndices, headLength, oldHead);
+		System.arraycopy(oldObservationTypes, oldHead, observationTypes, 0, headLength);
+		System.arraycopy(oldObservationTypes, 0, observationTypes, headLength, oldHead);
+		System.arraycopy(oldFirstArguments, oldHead, firstArguments, 0, headLength);
+		System.arraycopy(oldFirstArguments, 0, firstArguments, headLength, oldHead);
+		System.arraycopy(oldSecondArguments, oldHead, secondArguments, 0, headLength);
+		System.arraycopy(oldSecondArguments, 0, secondArguments, headLength, oldHead);
+		System.arraycopy(oldThirdArguments, oldHead, thirdArguments, 0, headLength);
+		System.arraycopy(oldThirdArguments, 0, thirdArguments, headLength, oldHead);
+	}
+
+	/**
+	 * Adds an observation to the end of the queue. Unused arguments should be
+	 * null.
+	 */
+	public void add(final int componentIndex, final ObservationType observationType, final Object firstArgument, final Object secondArgument, final Object thirdArgument) {
+		if (coalescing) {
+			final int tableMask = table.length - 1;
+			int tableIndex = hash(componentIndex, observationType, firstArgument, secondArgument, thirdArgument) & tableMask;
+			long entry;
+			while ((entry = table[tableIndex]) != 0) {
+				final long sequence = entry - 1;
+				if (sequence >= headSequence) {
+					final int index = getBufferIndex(sequence);
+					if (componentIndices[index] == componentIndex && observationTypes[index] == observationType && Objects.equals(firstArguments[index], firstArgument)
+							&& Objects.equals(secondArguments[index], secondArgument) && Objects.equals(thirdArguments[index], thirdArgument)) {
+						return;
+					}
+				}
+				tableIndex = (tableIndex + 1) & tableMask;
+			}
+			table[tableIndex] = headSequence + size + 1;
+			tableCount++;
+		}
+
+		if (size == componentIndices.length) {
+			grow();
+		}
+		final int index = (head + size) & mask;
+		componentIndices[index] = componentIndex;
+		observationTypes[index] = observationType;
+		firstArguments[index] = firstArgument;
+		secondArguments[index] = secondArgument;
+		thirdArguments[index] = thirdArgument;
+		size++;
+
+		if (coalescing && (tableCount << 1) > table.length) {
+			rebuildTable();
+		}
+	}
+
+	/**
+	 * Removes the observation at the front of the queue, making it the current
+	 * observation. Returns false if the queue is empty, in which case the
+	 * current observation is unchanged.
+	 */
+	public boolean poll() {
+		if (size == 0) {
+			if (componentIndices.length > REBUILD_THRESHOLD) {
+				allocate(INITIAL_CAPACITY);
+			}
+			if (tableCount > 0) {
+				if (table.length > INITIAL_TABLE_CAPACITY) {
+					table = new long[INITIAL_TABLE_CAPACITY];
+				} else {
+					Arrays.fill(table, 0);
+				}
+				tableCount = 0;
+			}
+			return false;
+		}
+		currentComponentIndex = componentIndices[head];
+		currentObservationType = observationTypes[head];
+		currentFirstArgument = firstArguments[head];
+		currentSecondArgument = secondArguments[head];
+		currentThirdArgument = thirdArguments[head];
+
+		/*
+		 * Release the references so that the buffer does not retain
+		 * observations that have already been delivered
+		 */
+		firstArguments[head] = null;
+		secondArguments[head] = null;
+		thirdArguments[head] = null;
+
+		head = (head + 1) & mask;
+		headSequence++;
+		size--;
+		return true;
+	}
+
+	/**
+	 * Returns the number of observations in the queue
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the component index of the observing component of the current
+	 * observation
+	 */
+	public int getCurrentComponentIndex() {
+		return currentComponentIndex;
+	}
+
+	/**
+	 * Returns the observation type of the current observation
+	 */
+	public ObservationType getCurrentObservationType() {
+		return currentObservationType;
+	}
+
+	/**
+	 * Returns the first argument of the current observation
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getCurrentFirstArgument() {
+		return (T) currentFirstArgument;
+	}
+
+	/**
+	 * Returns the second argument of the current observation
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getCurrentSecondArgument() {
+		return (T) currentSecondArgument;
+	}
+
+	/**
+	 * Returns the third argument of the current observation
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getCurrentThirdArgument() {
+		return (T) currentThirdArgument;
+	}
+
+}
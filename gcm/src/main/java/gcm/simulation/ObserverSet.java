@@ -0,0 +1,112 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * A set of observing components for a particular observable mutation. The
+ * components are represented by the dense component indices assigned by the
+ * {@link ComponentManager}. Membership is tracked with a bit mask and the
+ * indices are also held in an int array in order of registration so that
+ * observations are delivered in the same order as they would be from a
+ * LinkedHashSet of component ids.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
+public final class ObserverSet implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int[] EMPTY_INDICES = new int[0];
+
+	private static final long[] EMPTY_WORDS = new long[0];
+
+	/*
+	 * The component indices in order of registration
+	 */
+	private int[] indices = EMPTY_INDICES;
+
+	private int size;
+
+	/*
+	 * Bit mask of the contained component indices
+	 */
+	private long[] words = EMPTY_WORDS;
+
+	/**
+	 * Returns true if and only if the component index is contained in this set
+	 */
+	public boolean contains(final int componentIndex) {
+		final int wordIndex = componentIndex >>> 6;
+		if (wordIndex >= words.length) {
+			return false;
+		}
+		return (words[wordIndex] & (1L << componentIndex)) != 0;
+	}
+
+	/**
+	 * Adds the component index to this set. Has no effect if the index is
+	 * already contained.
+	 */
+	public void add(final int componentIndex) {
+		final int wordIndex = componentIndex >>> 6;
+		if (wordIndex >= words.length) {
+			words = Arrays.copyOf(words, wordIndex + 1);
+		}
+		final long mask = 1L << componentIndex;
+		if ((words[wordIndex] & mask) != 0) {
+			return;
+		}
+		words[wordIndex] |= mask;
+		if (size == indices.length) {
+			indices = Arrays.copyOf(indices, Math.max(4, size << 1));
+		}
+		indices[size++] = componentIndex;
+	}
+
+	/**
+	 * Removes the component index from this set. Has no effect if the index is
+	 * not contained. The registration order of the remaining indices is
+	 * preserved.
+	 */
+	public void remove(final int componentIndex) {
+		if (!contains(componentIndex)) {
+			return;
+		}
+		words[componentIndex >>> 6] &= ~(1L << componentIndex);
+		for (int i = 0; i < size; i++) {
+			if (indices[i] == componentIndex) {
+				System.arraycopy(indices, i + 1, indices, i, size - i - 1);
+				size--;
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns true if and only if this set is empty
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of component indices in this set
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the component index at the given position in registration order
+	 */
+	public int get(final int position) {
+		return indices[position];
+	}
+
+}
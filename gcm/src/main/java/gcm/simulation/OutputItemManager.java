@@ -1,5 +1,7 @@
 package gcm.simulation;
 
+import java.util.List;
+
 import gcm.output.OutputItem;
 import gcm.output.OutputItemHandler;
 import gcm.util.annotations.Source;
@@ -28,4 +30,25 @@ public interface OutputItemManager extends Element {
 	 * {@link OutputItemHandler} instances that the simulation is closing.
 	 */
 	public void close();
-}
+
+	/**
+	 * Returns the output items released since the previous invocation of this
+	 * method, in the order of their release. Output items are retained only
+	 * when the simulation is writing checkpoints.
+	 * 
+	 * @throws RuntimeException
+	 *             if the simulation is not writing checkpoints
+	 */
+	public List<OutputItem> drainRetainedOutputItems();
+
+	/**
+	 * Invoked once on a simulation restored from a checkpoint or forked from a
+	 * snapshot in place of init(). Signals to each of the context's
+	 * {@link OutputItemHandler} instances that the simulation has started under
+	 * the context's scenario and replication and then publishes the given
+	 * output items that were released before the checkpoint was written, so
+	 * that the handlers receive the same output items as they would from an
+	 * uninterrupted simulation.
+	 */
+	public void resume(Context context, List<OutputItem> previousOutputItems);
+}
\ No newline at end of file
@@ -24,58 +24,106 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class OutputItemManagerImpl extends BaseElement implements OutputItemManager {
 
-	private final Map<Class<? extends OutputItem>, Set<OutputItemHandler>> handlerMap = new LinkedHashMap<>();
-	private final List<OutputItemHandler> outputItemHandlers = new ArrayList<>();
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The handlers are not part of the state of the simulation and are
+	 * re-attached when the simulation is restored from a checkpoint.
+	 */
+	private transient Map<Class<? extends OutputItem>, Set<OutputItemHandler>> handlerMap;
+	private transient List<OutputItemHandler> outputItemHandlers;
 	private ScenarioId scenarioId;
 	private ReplicationId replicationId;
 
+	/*
+	 * The output items released since the last checkpoint. Null when the
+	 * simulation is not checkpointing.
+	 */
+	private transient List<OutputItem> retainedOutputItems;
+	private boolean retainingOutputItems;
+
 	@Override
 	public void init(Context context) {
 		super.init(context);
 		scenarioId = context.getScenario().getScenarioId();
 		replicationId = context.getReplication().getId();
+		retainingOutputItems = context.getCheckpointInterval() > 0;
 
 		/*
 		 * If the profile report is active, then wrap each output item handler
 		 * in a proxy so that we can differentiate run time characteristics at
 		 * the handler level
 		 */
+		List<OutputItemHandler> handlers = new ArrayList<>();
 		if (context.produceProfileItems()) {
 			ProfileManager profileManager = context.getProfileManager();
 			for (OutputItemHandler outputItemHandler : context.getOutputItemHandlers()) {
 				OutputItemHandler proxiedOutputItemHandler = profileManager.getProfiledProxy(outputItemHandler);
-				outputItemHandlers.add(proxiedOutputItemHandler);
+				handlers.add(proxiedOutputItemHandler);
 			}
 		} else {
-			for (OutputItemHandler outputItemHandler : context.getOutputItemHandlers()) {
-				outputItemHandlers.add(outputItemHandler);
-			}
+			handlers.addAll(context.getOutputItemHandlers());
+		}
+		attachOutputItemHandlers(handlers);
+	}
+
+	/*
+	 * Maps the handlers to the output item sub-types they handle and informs
+	 * each handler that the simulation has started.
+	 */
+	private void attachOutputItemHandlers(List<OutputItemHandler> handlers) {
+		outputItemHandlers = new ArrayList<>(handlers);
+		handlerMap = new LinkedHashMap<>();
+		if (retainingOutputItems) {
+			retainedOutputItems = new ArrayList<>();
 		}
 
-		/*
-		 * Map the handlers to the output item sub-types they handle.
-		 */
 		for (OutputItemHandler outputItemHandler : outputItemHandlers) {
 			Set<Class<? extends OutputItem>> handledClasses = outputItemHandler.getHandledClasses();
 			for (Class<? extends OutputItem> outputItemClass : handledClasses) {
-				Set<OutputItemHandler> handlers = handlerMap.get(outputItemClass);
-				if (handlers == null) {
-					handlers = new LinkedHashSet<>();
-					handlerMap.put(outputItemClass, handlers);
+				Set<OutputItemHandler> handlerSet = handlerMap.get(outputItemClass);
+				if (handlerSet == null) {
+					handlerSet = new LinkedHashSet<>();
+					handlerMap.put(outputItemClass, handlerSet);
 				}
-				handlers.add(outputItemHandler);
+				handlerSet.add(outputItemHandler);
 			}
 		}
-		/*
-		 * Inform each output item handler that the simulation has started.
-		 */
+
 		for (OutputItemHandler outputItemHandler : outputItemHandlers) {
-			outputItemHandler.openSimulation(context.getScenario().getScenarioId(), context.getReplication().getId());
+			outputItemHandler.openSimulation(scenarioId, replicationId);
+		}
+	}
+
+	@Override
+	public void resume(Context context, List<OutputItem> previousOutputItems) {
+		scenarioId = context.getScenario().getScenarioId();
+		replicationId = context.getReplication().getId();
+		attachOutputItemHandlers(context.getOutputItemHandlers());
+		for (OutputItem outputItem : previousOutputItems) {
+			distributeOutputItem(outputItem);
+		}
+	}
+
+	@Override
+	public List<OutputItem> drainRetainedOutputItems() {
+		if (!retainingOutputItems) {
+			throw new RuntimeException("output items are not retained");
 		}
+		List<OutputItem> result = retainedOutputItems;
+		retainedOutputItems = new ArrayList<>();
+		return result;
 	}
 
 	@Override
 	public void releaseOutputItem(OutputItem outputItem) {
+		if (retainingOutputItems) {
+			retainedOutputItems.add(outputItem);
+		}
+		distributeOutputItem(outputItem);
+	}
+
+	private void distributeOutputItem(OutputItem outputItem) {
 		Set<OutputItemHandler> handlers = handlerMap.get(outputItem.getClass());
 
 		/*
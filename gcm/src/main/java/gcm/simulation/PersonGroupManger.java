@@ -11,6 +11,10 @@ import gcm.util.annotations.Source;
 /**
  * Manager for all group membership for the simulation.
  *
+ * The membership and group count queries for people only read the manager and
+ * may run concurrently during a parallel filter evaluation, provided that no
+ * group memberships change in the meantime.
+ *
  * @author Shawn Hatch
  *
  */
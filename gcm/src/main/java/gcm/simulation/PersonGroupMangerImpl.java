@@ -50,6 +50,8 @@ import gcm.util.containers.ObjectValueContainer;
  */
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class PersonGroupMangerImpl extends BaseElement implements PersonGroupManger {
+
+	private static final long serialVersionUID = 1L;
 		
 	/*
 	 * Used to generate new group id values
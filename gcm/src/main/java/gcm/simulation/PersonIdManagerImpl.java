@@ -9,6 +9,9 @@ import gcm.util.annotations.TestStatus;
 
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class PersonIdManagerImpl extends BaseElement implements PersonIdManager{
+
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * We keep the person records in a list rather than a map so that we can
 	 * retrieve a person record by index (personId).
@@ -5,6 +5,7 @@ import java.util.List;
 import gcm.scenario.CompartmentId;
 import gcm.scenario.PersonId;
 import gcm.scenario.RegionId;
+import gcm.scenario.Scenario;
 import gcm.util.annotations.Source;
 
 /**
@@ -12,6 +13,10 @@ import gcm.util.annotations.Source;
  * includes arrival time tracking, population counts and mapping of compartment
  * and regions to their associated people.
  *
+ * The region and compartment queries for people do not modify the manager and
+ * are safe for concurrent use by the threads of a parallel filter evaluation,
+ * provided that no person moves while the evaluation runs.
+ *
  * @author Shawn Hatch
  *
  */
@@ -67,6 +72,40 @@ public interface PersonLocationManger extends Element {
 	 */
 	public <T extends CompartmentId> T getPersonCompartment(final PersonId personId);
 
+	/**
+	 * Returns the index of the compartment associated with the given person
+	 * id. Compartment indices start at one and follow the iteration order of
+	 * {@link Scenario#getCompartmentIds()}.
+	 * 
+	 * @param personId
+	 *            should not be null
+	 */
+	public int getPersonCompartmentIndex(final PersonId personId);
+
+	/**
+	 * Returns the index of the given compartment as returned by
+	 * {@link #getPersonCompartmentIndex(PersonId)}. Returns -1 if the
+	 * compartment is unknown.
+	 * 
+	 * @param compartmentId
+	 *            should not be null
+	 */
+	public int getCompartmentIndex(final CompartmentId compartmentId);
+
+	/**
+	 * Reads the compartment indices of a block of 64 consecutive person id
+	 * values. Bit i of the candidates selects the person id value
+	 * firstPersonIdValue + i, whose compartment index is stored in indices[i].
+	 * The other entries of the indices array are left unchanged.
+	 * 
+	 * @param firstPersonIdValue
+	 *            a multiple of 64
+	 * @param candidates
+	 * @param indices
+	 *            an array of length 64
+	 */
+	public void getPersonCompartmentIndices(int firstPersonIdValue, long candidates, int[] indices);
+
 	/**
 	 * Returns the time when then person arrived at their current compartment.
 	 * 
@@ -85,6 +124,32 @@ public interface PersonLocationManger extends Element {
 	 */
 	public <T extends RegionId> T getPersonRegion(final PersonId personId);
 
+	/**
+	 * Returns the index of the region associated with the given person id.
+	 * Region indices start at one and follow the iteration order of
+	 * {@link Scenario#getRegionIds()}.
+	 * 
+	 * @param personId
+	 *            should not be null
+	 */
+	public int getPersonRegionIndex(final PersonId personId);
+
+	/**
+	 * Returns the index of the given region as returned by
+	 * {@link #getPersonRegionIndex(PersonId)}. Returns -1 if the region is
+	 * unknown.
+	 * 
+	 * @param regionId
+	 *            should not be null
+	 */
+	public int getRegionIndex(final RegionId regionId);
+
+	/**
+	 * Reads the region indices of a block of 64 consecutive person id values,
+	 * as in {@link #getPersonCompartmentIndices(int, long, int[])}.
+	 */
+	public void getPersonRegionIndices(int firstPersonIdValue, long candidates, int[] indices);
+
 	/**
 	 * Returns the time when then person arrived at their current region.
 	 * 
@@ -1,10 +1,12 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntFunction;
 
 import gcm.scenario.CompartmentId;
 import gcm.scenario.MapOption;
@@ -15,10 +17,11 @@ import gcm.scenario.TimeTrackingPolicy;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 import gcm.util.containers.ArrayIntSet;
-import gcm.util.containers.DoubleValueContainer;
+import gcm.util.containers.BitmapIntSet;
 import gcm.util.containers.HashIntSet;
 import gcm.util.containers.IntSet;
-import gcm.util.containers.IntValueContainer;
+import gcm.util.containers.PagedDoubleValueContainer;
+import gcm.util.containers.PagedIntValueContainer;
 
 /**
  * Implementor of PersonLocationManger
@@ -29,13 +32,18 @@ import gcm.util.containers.IntValueContainer;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class PersonLocationMangerImpl extends BaseElement implements PersonLocationManger {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Record for maintaining the number of people either globally, regionally
 	 * or by compartment. Also maintains the time when the population count was
 	 * last changed. PopulationRecords are maintained to eliminate iterations
 	 * over other tracking structures to answer queries about population counts.
 	 */
-	private static class PopulationRecord {
+	private static class PopulationRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private int populationCount;
 		private double assignmentTime;
 	}
@@ -79,24 +87,32 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 	/*
 	 * Stores region identifiers as int values indexed by person id values
 	 */
-	private IntValueContainer regionValues;
+	private PagedIntValueContainer regionValues;
 
 	/*
 	 * Stores compartment identifiers as int values indexed by person id values
 	 */
-	private IntValueContainer compartmentValues;
+	private PagedIntValueContainer compartmentValues;
 
 	/*
 	 * Stores double region arrival values indexed by person id values.
 	 * Maintenance depends upon tracking policy.
 	 */
-	private DoubleValueContainer regionArrivalTimes;
+	private PagedDoubleValueContainer regionArrivalTimes;
 
 	/*
 	 * Stores double compartment arrival values indexed by person id values.
 	 * Maintenance depends upon tracking policy.
 	 */
-	private DoubleValueContainer compartmentArrivalTimes;
+	private PagedDoubleValueContainer compartmentArrivalTimes;
+
+	/*
+	 * The tracking policies that determine the precision of the recorded
+	 * arrival times
+	 */
+	private TimeTrackingPolicy regionArrivalTimeTrackingPolicy;
+
+	private TimeTrackingPolicy compartmentArrivalTimeTrackingPolicy;
 
 	/*
 	 * Aids with conversion of int based person identifiers into the existing
@@ -104,6 +120,11 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 	 */
 	private PersonIdManager personIdManager;
 
+	/*
+	 * Reconstitutes the people held in BitmapIntSets from their int values
+	 */
+	private IntFunction<PersonId> personIdFactory;
+
 	/*
 	 * Stores the mapping of compartments to people. Maintenance depends upon
 	 * mapping policy.
@@ -136,6 +157,7 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 		super.init(context);
 
 		personIdManager = context.getPersonIdManager();
+		personIdFactory = (IntFunction<PersonId> & Serializable) personIdManager::getBoxedPersonId;
 
 		Scenario scenario = context.getScenario();
 		eventManager = context.getEventManager();
@@ -150,16 +172,18 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 		 * 
 		 * The same holds true for compartments.
 		 */
-		regionValues = new IntValueContainer(0, suggestedPopulationSize);
+		regionValues = new PagedIntValueContainer(0, suggestedPopulationSize);
 		
-		compartmentValues = new IntValueContainer(0, suggestedPopulationSize);
+		compartmentValues = new PagedIntValueContainer(0, suggestedPopulationSize);
 
-		if (scenario.getPersonCompartmentArrivalTrackingPolicy() == TimeTrackingPolicy.TRACK_TIME) {
-			compartmentArrivalTimes = new DoubleValueContainer(0,suggestedPopulationSize);
+		compartmentArrivalTimeTrackingPolicy = scenario.getPersonCompartmentArrivalTrackingPolicy();
+		if (compartmentArrivalTimeTrackingPolicy.isTracked()) {
+			compartmentArrivalTimes = new PagedDoubleValueContainer(0,suggestedPopulationSize);
 		}
 
-		if (scenario.getPersonRegionArrivalTrackingPolicy() == TimeTrackingPolicy.TRACK_TIME) {		
-			regionArrivalTimes = new DoubleValueContainer(0, suggestedPopulationSize);
+		regionArrivalTimeTrackingPolicy = scenario.getPersonRegionArrivalTrackingPolicy();
+		if (regionArrivalTimeTrackingPolicy.isTracked()) {		
+			regionArrivalTimes = new PagedDoubleValueContainer(0, suggestedPopulationSize);
 		}
 
 		for (final RegionId regionId : scenario.getRegionIds()) {
@@ -273,6 +297,29 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 		return (T) indexToCompartmentMap[compartmentIndex];
 	}
 
+	@Override
+	public int getPersonCompartmentIndex(final PersonId personId) {
+		return compartmentValues.getValueAsInt(personId.getValue());
+	}
+
+	@Override
+	public int getCompartmentIndex(final CompartmentId compartmentId) {
+		final Integer compartmentIndex = compartmentToIndexMap.get(compartmentId);
+		if (compartmentIndex == null) {
+			return -1;
+		}
+		return compartmentIndex;
+	}
+
+	@Override
+	public void getPersonCompartmentIndices(int firstPersonIdValue, long candidates, int[] indices) {
+		while (candidates != 0) {
+			final int bit = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			indices[bit] = compartmentValues.getValueAsInt(firstPersonIdValue + bit);
+		}
+	}
+
 	@Override
 	public double getPersonCompartmentArrivalTime(final PersonId personId) {
 		return compartmentArrivalTimes.getValue(personId.getValue());
@@ -287,6 +334,29 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 		return (T) indexToRegionMap[r];
 	}
 
+	@Override
+	public int getPersonRegionIndex(final PersonId personId) {
+		return regionValues.getValueAsInt(personId.getValue());
+	}
+
+	@Override
+	public int getRegionIndex(final RegionId regionId) {
+		final Integer regionIndex = regionToIndexMap.get(regionId);
+		if (regionIndex == null) {
+			return -1;
+		}
+		return regionIndex;
+	}
+
+	@Override
+	public void getPersonRegionIndices(int firstPersonIdValue, long candidates, int[] indices) {
+		while (candidates != 0) {
+			final int bit = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			indices[bit] = regionValues.getValueAsInt(firstPersonIdValue + bit);
+		}
+	}
+
 	@Override
 	public double getPersonRegionArrivalTime(final PersonId personId) {
 		// pop
@@ -320,10 +390,13 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 	 */
 	private IntSet<PersonId> newIntSetForCompartment() {
 		switch (compartmentMapOption) {
+		case RANGE:// fall through
 		case ARRAY:
 			return new ArrayIntSet<>();
 		case HASH:
 			return new HashIntSet<>();
+		case BITMAP:
+			return new BitmapIntSet<>(personIdFactory);
 		case NONE:// fall through
 		default:
 			throw new RuntimeException("unhandled map option " + regionMapOption);
@@ -337,10 +410,13 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 	 */
 	private IntSet<PersonId> newIntSetForRegion() {
 		switch (regionMapOption) {
+		case RANGE:// fall through
 		case ARRAY:
 			return new ArrayIntSet<>();
 		case HASH:
 			return new HashIntSet<>();
+		case BITMAP:
+			return new BitmapIntSet<>(personIdFactory);
 		case NONE:// fall through
 		default:
 			throw new RuntimeException("unhandled map option " + regionMapOption);
@@ -453,7 +529,7 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 		 * If compartment arrival times are being tracked, do so.
 		 */
 		if (compartmentArrivalTimes != null) {
-			compartmentArrivalTimes.setValue(personId.getValue(), eventManager.getTime());
+			compartmentArrivalTimes.setValue(personId.getValue(), compartmentArrivalTimeTrackingPolicy.getRecordedTime(eventManager.getTime()));
 		}
 
 		/*
@@ -528,7 +604,7 @@ public final class PersonLocationMangerImpl extends BaseElement implements Perso
 		 */
 		if (regionArrivalTimes != null) {
 			// pop
-			regionArrivalTimes.setValue(personId.getValue(), eventManager.getTime());
+			regionArrivalTimes.setValue(personId.getValue(), regionArrivalTimeTrackingPolicy.getRecordedTime(eventManager.getTime()));
 		}
 		/*
 		 * If region to people maps are being maintained, do so.
@@ -0,0 +1,97 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import gcm.scenario.PersonId;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+import gcm.util.containers.IntValueContainer;
+import gcm.util.containers.ObjectValueContainer;
+
+/**
+ * A sparse store of per-person observer registrations. Observed people are
+ * assigned a slot and the slot number for each person is held in an
+ * {@link IntValueContainer} indexed by person id value, with zero indicating
+ * that the person has no registrations. The values are held in an
+ * {@link ObjectValueContainer} indexed by slot. The per-person cost of
+ * unobserved people is thus a single byte or short in most simulations rather
+ * than a hash map entry for each observed person. Released slots are reused.
+ *
+ * @author Shawn Hatch
+ *
+ * @param <T>
+ *            the type of the per-person registration value
+ */
+@Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
+public final class PersonObserverStore<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * Maps person id values to slots. Slots start at one.
+	 */
+	private final IntValueContainer slots = new IntValueContainer(0);
+
+	private final ObjectValueContainer values = new ObjectValueContainer(null, 16);
+
+	/*
+	 * The highest slot that has been assigned
+	 */
+	private int slotCount;
+
+	/*
+	 * A stack of released slots that may be reused
+	 */
+	private int[] freeSlots = new int[16];
+
+	private int freeSlotCount;
+
+	/**
+	 * Returns the value associated with the person. Returns null if there is no
+	 * value.
+	 */
+	public T get(final PersonId personId) {
+		final int slot = slots.getValueAsInt(personId.getValue());
+		if (slot == 0) {
+			return null;
+		}
+		return values.getValue(slot);
+	}
+
+	/**
+	 * Associates the value with the person, replacing any existing value.
+	 */
+	public void put(final PersonId personId, final T value) {
+		final int personIndex = personId.getValue();
+		int slot = slots.getValueAsInt(personIndex);
+		if (slot == 0) {
+			if (freeSlotCount > 0) {
+				slot = freeSlots[--freeSlotCount];
+			} else {
+				slot = ++slotCount;
+			}
+			slots.setIntValue(personIndex, slot);
+		}
+		values.setValue(slot, value);
+	}
+
+	/**
+	 * Removes the value associated with the person. Has no effect if there is
+	 * no value.
+	 */
+	public void remove(final PersonId personId) {
+		final int personIndex = personId.getValue();
+		final int slot = slots.getValueAsInt(personIndex);
+		if (slot == 0) {
+			return;
+		}
+		slots.setIntValue(personIndex, 0);
+		values.setValue(slot, null);
+		if (freeSlotCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeSlotCount << 1);
+		}
+		freeSlots[freeSlotCount++] = slot;
+	}
+
+}
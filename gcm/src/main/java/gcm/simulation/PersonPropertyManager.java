@@ -2,6 +2,8 @@ package gcm.simulation;
 
 import java.util.List;
 
+import org.apache.commons.math3.random.RandomGenerator;
+
 import gcm.scenario.PersonId;
 import gcm.util.annotations.Source;
 
@@ -10,6 +12,11 @@ import gcm.util.annotations.Source;
  * manages all the property values for people for a particular person property
  * identifier.
  * 
+ * The value getters, including the block reads of a word of people, only read
+ * the state of the manager. They may be called concurrently, as they are
+ * during the parallel evaluation of a filter, provided that no values are set
+ * while they run.
+ * 
  * @author Shawn Hatch
  *
  */
@@ -28,6 +35,100 @@ public interface PersonPropertyManager {
 	 */
 	public <T> T getPropertyValue(PersonId personId);
 
+	/**
+	 * Returns the property value stored for the given person as an int without
+	 * boxing. The property must be of type Byte, Short or Integer. Note that
+	 * this does not imply that the person exists in the simulation. The
+	 * environment must guard against access to removed people.
+	 * 
+	 * @throws RuntimeException
+	 *             if the person is null
+	 * 
+	 * @param personId
+	 */
+	public int getPropertyIntValue(PersonId personId);
+
+	/**
+	 * Returns the property value stored for the given person as a long
+	 * without boxing. The property must be of type Byte, Short, Integer or
+	 * Long. Note that this does not imply that the person exists in the
+	 * simulation. The environment must guard against access to removed
+	 * people.
+	 * 
+	 * @throws RuntimeException
+	 *             if the person is null
+	 * 
+	 * @param personId
+	 */
+	public long getPropertyLongValue(PersonId personId);
+
+	/**
+	 * Returns the property value stored for the given person as a double
+	 * without boxing. The property must be of type Float or Double. Note that
+	 * this does not imply that the person exists in the simulation. The
+	 * environment must guard against access to removed people.
+	 * 
+	 * @throws RuntimeException
+	 *             if the person is null
+	 * 
+	 * @param personId
+	 */
+	public double getPropertyDoubleValue(PersonId personId);
+
+	/**
+	 * Returns the property value stored for the given person as a boolean
+	 * without boxing. The property must be of type Boolean. Note that this
+	 * does not imply that the person exists in the simulation. The environment
+	 * must guard against access to removed people.
+	 * 
+	 * @throws RuntimeException
+	 *             if the person is null
+	 * 
+	 * @param personId
+	 */
+	public boolean getPropertyBooleanValue(PersonId personId);
+
+	/**
+	 * Reads the property values of a block of 64 consecutive person id values
+	 * as longs without boxing. Bit i of the candidates selects the person id
+	 * value firstPersonIdValue + i, whose value is stored in values[i]. The
+	 * other entries of the values array are left unchanged. The property must
+	 * be of type Byte, Short, Integer or Long.
+	 * 
+	 * @param firstPersonIdValue
+	 *            a multiple of 64
+	 * @param candidates
+	 * @param values
+	 *            an array of length 64
+	 */
+	public void getPropertyLongValues(int firstPersonIdValue, long candidates, long[] values);
+
+	/**
+	 * Reads the property values of a block of 64 consecutive person id values
+	 * as doubles without boxing, as in
+	 * {@link #getPropertyLongValues(int, long, long[])}. The property must be
+	 * of type Float or Double.
+	 */
+	public void getPropertyDoubleValues(int firstPersonIdValue, long candidates, double[] values);
+
+	/**
+	 * Reads the property values of a block of 64 consecutive person id values
+	 * as enum ordinals, as in {@link #getPropertyLongValues(int, long, long[])}.
+	 * The property must be of an enumeration type.
+	 */
+	public void getPropertyOrdinals(int firstPersonIdValue, long candidates, int[] ordinals);
+
+	/**
+	 * Returns the candidates whose property values are true. Bit i of the
+	 * candidates selects the person id value firstPersonIdValue + i. The
+	 * property must be of type Boolean.
+	 * 
+	 * @param firstPersonIdValue
+	 *            a multiple of 64
+	 * @param candidates
+	 */
+	public long getPropertyBooleanValues(int firstPersonIdValue, long candidates);
+
 	/**
 	 * Returns the assignment time when the person's property was last set. Note
 	 * that this does not imply that the person exists in the simulation. The
@@ -57,6 +158,41 @@ public interface PersonPropertyManager {
 	 */
 	public void setPropertyValue(PersonId personId, Object personPropertyValue);
 
+	/**
+	 * Sets the property value stored for the given person from an int without
+	 * boxing. The property must be of type Integer. Note that this does not
+	 * imply that the person exists in the simulation. The environment must
+	 * guard against access to removed people.
+	 * 
+	 * @throws RuntimeException
+	 *             if the person is null
+	 * 
+	 * @param personId
+	 * @param personPropertyValue
+	 */
+	public void setPropertyIntValue(PersonId personId, int personPropertyValue);
+
+	/**
+	 * Sets the property value stored for the given person from a long without
+	 * boxing, as in {@link #setPropertyIntValue(PersonId, int)}. The property
+	 * must be of type Long.
+	 */
+	public void setPropertyLongValue(PersonId personId, long personPropertyValue);
+
+	/**
+	 * Sets the property value stored for the given person from a double
+	 * without boxing, as in {@link #setPropertyIntValue(PersonId, int)}. The
+	 * property must be of type Double.
+	 */
+	public void setPropertyDoubleValue(PersonId personId, double personPropertyValue);
+
+	/**
+	 * Sets the property value stored for the given person from a boolean
+	 * without boxing, as in {@link #setPropertyIntValue(PersonId, int)}. The
+	 * property must be of type Boolean.
+	 */
+	public void setPropertyBooleanValue(PersonId personId, boolean personPropertyValue);
+
 	/**
 	 * Returns the List of people who have a particular property value. The
 	 * returned list will only include people who currently exist in the
@@ -75,6 +211,39 @@ public interface PersonPropertyManager {
 	 */
 	public int getPersonCountForPropertyValue(final Object personPropertyValue);
 
+	/**
+	 * Returns the List of people whose property values compare to the given
+	 * value as specified by the equality. Equal and not equal comparisons use
+	 * equals() and the other comparisons use compareTo(), as with property
+	 * filters. The returned list will only include people who currently exist
+	 * in the simulation given that handlePersonRemoval() has been executed for
+	 * each person removal from the simulation.
+	 * 
+	 * @param equality
+	 * @param personPropertyValue
+	 */
+	public List<PersonId> getPeopleForPropertyComparison(final Equality equality, final Object personPropertyValue);
+
+	/**
+	 * Returns the number of people whose property values compare to the given
+	 * value as specified by the equality.
+	 * 
+	 * @param equality
+	 * @param personPropertyValue
+	 */
+	public int getPersonCountForPropertyComparison(final Equality equality, final Object personPropertyValue);
+
+	/**
+	 * Returns a person selected uniformly from the people whose property
+	 * values compare to the given value as specified by the equality. Returns
+	 * null if there are no such people.
+	 * 
+	 * @param equality
+	 * @param personPropertyValue
+	 * @param randomGenerator
+	 */
+	public PersonId getRandomPersonForPropertyComparison(final Equality equality, final Object personPropertyValue, final RandomGenerator randomGenerator);
+
 	/**
 	 * Integrate the person into this PropertyManager with the default value
 	 * associated with property's definition. Note that this does not imply that
@@ -96,4 +265,10 @@ public interface PersonPropertyManager {
 	 * @param personId
 	 */
 	public void handlePersonRemoval(final PersonId personId);
+
+	/**
+	 * Releases any off-heap memory held by this manager. The manager may not be
+	 * used once it is closed.
+	 */
+	public void close();
 }
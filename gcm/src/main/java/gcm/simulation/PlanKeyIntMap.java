@@ -0,0 +1,359 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import gcm.scenario.IntId;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * A map of the plan keys of a single component to non-negative int values,
+ * such as the slots of the {@link PrimitivePlanningQueue}. It holds no objects
+ * per entry other than the keys themselves. {@link PlanKeyMap} maps the keys
+ * to object values through it.
+ *
+ * The first {@link IntId} class used as a key is assigned to an open
+ * addressing table that hashes and compares the int values of the keys
+ * directly. All other keys are held in a second table whose entries are kept
+ * in the order of their addition, with an open addressing index of entry
+ * positions. Removed entries are dropped when that table is next rebuilt.
+ *
+ * Null keys and negative values are not supported.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
+public final class PlanKeyIntMap implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The initial length of the table arrays. Must be a power of two.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/*
+	 * Marks an empty position in the int table values and in the object index
+	 */
+	private static final int EMPTY = -1;
+
+	/*
+	 * Marks a position in the object index whose entry has been removed
+	 */
+	private static final int REMOVED = -2;
+
+	/*
+	 * The class of the IntId keys held in the int table. Null until the first
+	 * IntId key is added.
+	 */
+	private Class<?> intKeyClass;
+
+	/*
+	 * The int table as parallel arrays. An entry is empty if its value is
+	 * EMPTY. The key objects are retained so that the keys can be listed.
+	 */
+	private int[] intKeys;
+
+	private Object[] intKeyObjects;
+
+	private int[] intValues;
+
+	private int intCount;
+
+	private int intMask;
+
+	/*
+	 * The entries of all other keys in the order of their addition. A removed
+	 * entry has a null key. Created on demand.
+	 */
+	private Object[] objectKeys;
+
+	private int[] objectValues;
+
+	/*
+	 * The number of entry positions used, including removed entries
+	 */
+	private int objectEntryCount;
+
+	/*
+	 * The number of entries that have not been removed
+	 */
+	private int objectCount;
+
+	/*
+	 * The open addressing index of entry positions, twice the length of the
+	 * entry arrays
+	 */
+	private int[] objectIndex;
+
+	private int objectMask;
+
+	private static int hash(final int value) {
+		final int h = value * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private boolean isIntKey(final Object key) {
+		return key.getClass() == intKeyClass;
+	}
+
+	/*
+	 * Returns the int table index of the int key or -1 if the key is not
+	 * present
+	 */
+	private int indexOfInt(final int value) {
+		if (intCount == 0) {
+			return -1;
+		}
+		int index = hash(value) & intMask;
+		while (intValues[index] != EMPTY) {
+			if (intKeys[index] == value) {
+				return index;
+			}
+			index = (index + 1) & intMask;
+		}
+		return -1;
+	}
+
+	private void allocateInts(final int capacity) {
+		intKeys = new int[capacity];
+		intKeyObjects = new Object[capacity];
+		intValues = new int[capacity];
+		Arrays.fill(intValues, EMPTY);
+		intMask = capacity - 1;
+	}
+
+	/*
+	 * Places an entry known to be absent into the int table without checking
+	 * the load
+	 */
+	private void insertInt(final int value, final Object keyObject, final int mappedValue) {
+		int index = hash(value) & intMask;
+		while (intValues[index] != EMPTY) {
+			index = (index + 1) & intMask;
+		}
+		intKeys[index] = value;
+		intKeyObjects[index] = keyObject;
+		intValues[index] = mappedValue;
+	}
+
+	private void growInts() {
+		final int[] oldKeys = intKeys;
+		final Object[] oldKeyObjects = intKeyObjects;
+		final int[] oldValues = intValues;
+		allocateInts(oldValues.length << 1);
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] != EMPTY) {
+				insertInt(oldKeys[i], oldKeyObjects[i], oldValues[i]);
+			}
+		}
+	}
+
+	/*
+	 * Empties the int table entry at the given index and shifts back any
+	 * following entries of the same probe sequence so that no tombstones are
+	 * needed.
+	 */
+	private void deleteIntAt(int index) {
+		int next = (index + 1) & intMask;
+		while (intValues[next] != EMPTY) {
+			final int home = hash(intKeys[next]) & intMask;
+			/*
+			 * The entry at next may fill the hole at index only if its home
+			 * position does not lie cyclically within (index, next]
+			 */
+			if (((next - home) & intMask) >= ((next - index) & intMask)) {
+				intKeys[index] = intKeys[next];
+				intKeyObjects[index] = intKeyObjects[next];
+				intValues[index] = intValues[next];
+				index = next;
+			}
+			next = (next + 1) & intMask;
+		}
+		intKeyObjects[index] = null;
+		intValues[index] = EMPTY;
+	}
+
+	/*
+	 * Returns the object index position of the key or -1 if the key is not
+	 * present
+	 */
+	private int indexOfObject(final Object key) {
+		if (objectCount == 0) {
+			return -1;
+		}
+		int index = hash(key.hashCode()) & objectMask;
+		int entry;
+		while ((entry = objectIndex[index]) != EMPTY) {
+			if (entry != REMOVED && objectKeys[entry].equals(key)) {
+				return index;
+			}
+			index = (index + 1) & objectMask;
+		}
+		return -1;
+	}
+
+	/*
+	 * Rebuilds the object table with the given entry capacity, dropping
+	 * removed entries while retaining the order of the others
+	 */
+	private void rebuildObjects(final int capacity) {
+		final Object[] oldKeys = objectKeys;
+		final int[] oldValues = objectValues;
+		final int oldEntryCount = objectEntryCount;
+		objectKeys = new Object[capacity];
+		objectValues = new int[capacity];
+		objectIndex = new int[capacity << 1];
+		Arrays.fill(objectIndex, EMPTY);
+		objectMask = objectIndex.length - 1;
+		objectEntryCount = 0;
+		for (int i = 0; i < oldEntryCount; i++) {
+			if (oldKeys[i] != null) {
+				appendObject(oldKeys[i], oldValues[i]);
+			}
+		}
+	}
+
+	/*
+	 * Appends an entry known to be absent, assuming there is room for it
+	 */
+	private void appendObject(final Object key, final int value) {
+		final int entry = objectEntryCount++;
+		objectKeys[entry] = key;
+		objectValues[entry] = value;
+		int index = hash(key.hashCode()) & objectMask;
+		while (objectIndex[index] >= 0) {
+			index = (index + 1) & objectMask;
+		}
+		objectIndex[index] = entry;
+	}
+
+	/**
+	 * Returns the value associated with the key. Returns -1 if there is no
+	 * value.
+	 */
+	public int get(final Object key) {
+		if (isIntKey(key)) {
+			final int index = indexOfInt(((IntId) key).getValue());
+			if (index < 0) {
+				return -1;
+			}
+			return intValues[index];
+		}
+		final int index = indexOfObject(key);
+		if (index < 0) {
+			return -1;
+		}
+		return objectValues[objectIndex[index]];
+	}
+
+	/**
+	 * Returns true if and only if there is a value associated with the key
+	 */
+	public boolean containsKey(final Object key) {
+		return get(key) >= 0;
+	}
+
+	/**
+	 * Associates the value with the key, replacing any existing value.
+	 *
+	 * @throws RuntimeException
+	 *             if the value is negative
+	 */
+	public void put(final Object key, final int value) {
+		if (value < 0) {
+			throw new RuntimeException("negative value " + value);
+		}
+		if (intKeyClass == null && key instanceof IntId) {
+			intKeyClass = key.getClass();
+			allocateInts(INITIAL_CAPACITY);
+		}
+		if (isIntKey(key)) {
+			final int intKey = ((IntId) key).getValue();
+			final int index = indexOfInt(intKey);
+			if (index >= 0) {
+				intValues[index] = value;
+				return;
+			}
+			if ((intCount + 1) << 1 > intValues.length) {
+				growInts();
+			}
+			insertInt(intKey, key, value);
+			intCount++;
+			return;
+		}
+		final int index = indexOfObject(key);
+		if (index >= 0) {
+			objectValues[objectIndex[index]] = value;
+			return;
+		}
+		if (objectKeys == null) {
+			rebuildObjects(INITIAL_CAPACITY);
+		} else if (objectEntryCount == objectKeys.length) {
+			/*
+			 * Grow only if removed entries are not the cause of the table
+			 * being full
+			 */
+			int capacity = objectKeys.length;
+			if (objectCount >= (capacity >> 1)) {
+				capacity <<= 1;
+			}
+			rebuildObjects(capacity);
+		}
+		appendObject(key, value);
+		objectCount++;
+	}
+
+	/**
+	 * Removes and returns the value associated with the key. Returns -1 if
+	 * there is no value.
+	 */
+	public int remove(final Object key) {
+		if (isIntKey(key)) {
+			final int index = indexOfInt(((IntId) key).getValue());
+			if (index < 0) {
+				return -1;
+			}
+			final int result = intValues[index];
+			deleteIntAt(index);
+			intCount--;
+			return result;
+		}
+		final int index = indexOfObject(key);
+		if (index < 0) {
+			return -1;
+		}
+		final int entry = objectIndex[index];
+		objectIndex[index] = REMOVED;
+		objectKeys[entry] = null;
+		objectCount--;
+		return objectValues[entry];
+	}
+
+	/**
+	 * Returns the keys as a list. Keys that are not held in the int table are
+	 * listed first in the order of their addition, followed by the IntId keys
+	 * in no particular order.
+	 */
+	public List<Object> getKeys() {
+		final List<Object> result = new ArrayList<>(intCount + objectCount);
+		for (int i = 0; i < objectEntryCount; i++) {
+			if (objectKeys[i] != null) {
+				result.add(objectKeys[i]);
+			}
+		}
+		if (intCount > 0) {
+			for (int i = 0; i < intValues.length; i++) {
+				if (intValues[i] != EMPTY) {
+					result.add(intKeyObjects[i]);
+				}
+			}
+		}
+		return result;
+	}
+
+}
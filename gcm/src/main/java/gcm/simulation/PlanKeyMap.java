@@ -0,0 +1,132 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import gcm.scenario.IntId;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * A map of the plan keys of a single component to the planning queue's
+ * internal representation of the corresponding plans.
+ *
+ * Components often key large numbers of plans by {@link IntId} values such as
+ * {@link gcm.scenario.PersonId}. The keys are held in a {@link PlanKeyIntMap},
+ * which resolves the keys of the first IntId class used by the component
+ * without the virtual hashCode() and equals() invocations and the entry
+ * objects of a general purpose map. It maps each key to the slot of its value
+ * in an array of values. Slots are reused after their keys are removed.
+ *
+ * Null keys and values are not supported.
+ *
+ * @author Shawn Hatch
+ *
+ * @param <T>
+ *            the type of the mapped values
+ */
+@Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
+public final class PlanKeyMap<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The initial length of the value and free slot arrays
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/*
+	 * Maps each key to the slot of its value
+	 */
+	private final PlanKeyIntMap slots = new PlanKeyIntMap();
+
+	private Object[] values = new Object[INITIAL_CAPACITY];
+
+	/*
+	 * The number of slots that have been used, including freed slots
+	 */
+	private int slotCount;
+
+	/*
+	 * A stack of the slots freed by removals
+	 */
+	private int[] freeSlots = new int[INITIAL_CAPACITY];
+
+	private int freeSlotCount;
+
+	private int allocateSlot() {
+		if (freeSlotCount > 0) {
+			return freeSlots[--freeSlotCount];
+		}
+		if (slotCount == values.length) {
+			values = Arrays.copyOf(values, slotCount << 1);
+		}
+		return slotCount++;
+	}
+
+	private void freeSlot(final int slot) {
+		values[slot] = null;
+		if (freeSlotCount == freeSlots.length) {
+			freeSlots = Arrays.copyOf(freeSlots, freeSlotCount << 1);
+		}
+		freeSlots[freeSlotCount++] = slot;
+	}
+
+	/**
+	 * Returns the value associated with the key. Returns null if there is no
+	 * value.
+	 */
+	@SuppressWarnings("unchecked")
+	public T get(final Object key) {
+		final int slot = slots.get(key);
+		if (slot < 0) {
+			return null;
+		}
+		return (T) values[slot];
+	}
+
+	/**
+	 * Returns true if and only if there is a value associated with the key
+	 */
+	public boolean containsKey(final Object key) {
+		return slots.containsKey(key);
+	}
+
+	/**
+	 * Associates the value with the key, replacing any existing value.
+	 */
+	public void put(final Object key, final T value) {
+		int slot = slots.get(key);
+		if (slot < 0) {
+			slot = allocateSlot();
+			slots.put(key, slot);
+		}
+		values[slot] = value;
+	}
+
+	/**
+	 * Removes and returns the value associated with the key. Returns null if
+	 * there is no value.
+	 */
+	@SuppressWarnings("unchecked")
+	public T remove(final Object key) {
+		final int slot = slots.remove(key);
+		if (slot < 0) {
+			return null;
+		}
+		final T result = (T) values[slot];
+		freeSlot(slot);
+		return result;
+	}
+
+	/**
+	 * Returns the keys as a list. Keys that are not IntId keys of the first
+	 * IntId class added are listed first in the order of their addition,
+	 * followed by the remaining IntId keys in no particular order.
+	 */
+	public List<Object> getKeys() {
+		return slots.getKeys();
+	}
+
+}
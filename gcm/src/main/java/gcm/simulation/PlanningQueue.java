@@ -0,0 +1,147 @@
+package gcm.simulation;
+
+import java.util.List;
+
+import gcm.scenario.ComponentId;
+import gcm.util.annotations.Source;
+
+/**
+ * The event calendar used by the {@link EventManagerImpl} to hold the plans
+ * submitted by components. Implementors order plans by ascending plan time
+ * with ties broken by the order in which the plans were added. This ordering
+ * is identical across implementors so that the choice of
+ * {@link PlanningQueueType} never alters the results of a simulation.
+ *
+ * Keyed plans are retrievable and removable by their component id and key.
+ * Removed plans may be retained internally as tombstones until they are
+ * purged, but are never returned by {@link #pollPlan()}.
+ *
+ * Recurring plans are always keyed. When a recurring plan is removed by
+ * {@link #pollPlan()} it is immediately rescheduled in place for its next
+ * occurrence and retains its key, so it recurs until it is removed via
+ * {@link #removePlan(ComponentId, Object)}.
+ *
+ * The next plan due is removed via {@link #pollPlan()} and is then described
+ * by the various getCurrent methods. This avoids the need for implementors to
+ * expose their internal records.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public interface PlanningQueue {
+
+	/**
+	 * Adds a plan for the given component. The key may be null, in which case
+	 * the plan is not retrievable or removable.
+	 *
+	 * @throws RuntimeException
+	 *             if a plan already exists for the component and key
+	 */
+	public void addPlan(ComponentId componentId, Plan plan, double planTime, Object key);
+
+	/**
+	 * Adds a recurring plan for the given component. The plan is first due at
+	 * the start time and then at each successive multiple of the interval
+	 * after the start time.
+	 *
+	 * @throws RuntimeException
+	 *             <li>if the key is null
+	 *             <li>if the interval is not positive
+	 *             <li>if a plan already exists for the component and key
+	 */
+	public void addRecurringPlan(ComponentId componentId, Plan plan, double startTime, double interval, Object key);
+
+	/**
+	 * Returns the plan associated with the component and key. Returns null if
+	 * no plan is found.
+	 */
+	public Plan getPlan(ComponentId componentId, Object key);
+
+	/**
+	 * Returns the plan time for the plan associated with the component and
+	 * key. Returns -1 if no plan is found.
+	 */
+	public double getPlanTime(ComponentId componentId, Object key);
+
+	/**
+	 * Cancels and returns the plan associated with the component and key.
+	 * Returns null if no plan is found. The cancellation is reported to the
+	 * {@link PlanningQueueReportItemManager} when it is active, before the
+	 * resulting tombstone can be purged.
+	 */
+	public Plan removePlan(ComponentId componentId, Object key);
+
+	/**
+	 * Removes the next live plan from this queue, purging any cancelled plans
+	 * that precede it. The removed plan becomes the current plan. The plan's
+	 * key is released so that the component may reuse it unless the plan is
+	 * recurring, in which case the plan is rescheduled for its next occurrence
+	 * and remains in the queue under its key.
+	 *
+	 * @throws RuntimeException
+	 *             if the queue has no live plans
+	 */
+	public void pollPlan();
+
+	/**
+	 * Returns the plan time of the next live plan in this queue, purging any
+	 * cancelled plans that precede it. The plan is not removed.
+	 *
+	 * @throws RuntimeException
+	 *             if the queue has no live plans
+	 */
+	public double getNextPlanTime();
+
+	/**
+	 * Returns the component id of the plan most recently removed by
+	 * {@link #pollPlan()}
+	 */
+	public ComponentId getCurrentComponentId();
+
+	/**
+	 * Returns the plan most recently removed by {@link #pollPlan()}
+	 */
+	public Plan getCurrentPlan();
+
+	/**
+	 * Returns the key of the plan most recently removed by {@link #pollPlan()}.
+	 * May be null.
+	 */
+	public Object getCurrentKey();
+
+	/**
+	 * Returns the plan time of the plan most recently removed by
+	 * {@link #pollPlan()}
+	 */
+	public double getCurrentPlanTime();
+
+	/**
+	 * Returns true if and only if the plan most recently removed by
+	 * {@link #pollPlan()} is a recurring plan that was rescheduled
+	 */
+	public boolean isCurrentPlanRecurring();
+
+	/**
+	 * Returns true if and only if there are no live plans in this queue
+	 */
+	public boolean isEmpty();
+
+	/**
+	 * Returns the number of live plans in this queue
+	 */
+	public int getPlanCount();
+
+	/**
+	 * Returns the number of cancelled plans that have not yet been purged from
+	 * this queue
+	 */
+	public int getTombstoneCount();
+
+	/**
+	 * Returns the keys of the live plans for the given component. Items on
+	 * the list are unique. The order of the keys is unspecified.
+	 */
+	public List<Object> getPlanKeys(ComponentId componentId);
+
+}
@@ -50,6 +50,17 @@ public interface PlanningQueueReportItemManager extends Element {
 	 */
 	public void reportPlanningQueueCancellation(ComponentId componentId, Plan plan, Object key);
 
+	/**
+	 * 
+	 * Records that a cancelled plan (a tombstone) was purged from the planning
+	 * queue, releasing the memory it held
+	 * 
+	 * @throws RuntimeException
+	 *             <li>if the calculated tombstone count from previous
+	 *             cancellations and purges is non-positive.
+	 */
+	public void reportPlanningQueuePurge(ComponentId componentId, Plan plan, Object key);
+
 	/**
 	 * Should be called at the end of the simulation to signal that any
 	 * remaining {@link PlanningQueueReportItem} items should be sent to the
@@ -1,5 +1,6 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -14,12 +15,18 @@ import gcm.util.stats.MutableStat;
 @Source(status = TestStatus.PROXY,proxy = EnvironmentImpl.class)
 public final class PlanningQueueReportItemManagerImpl extends BaseElement implements PlanningQueueReportItemManager {
 
-	private static class Counter {
+	private static final long serialVersionUID = 1L;
+
+	private static class Counter implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private long count;
 		private long additions;
 		private long removals;
 		private long cancellations;
+		private long tombstones;
+		private long purges;
 
 		public long getAdditions() {
 			return additions;
@@ -33,11 +40,20 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 			return cancellations;
 		}
 
+		public long getTombstones() {
+			return tombstones;
+		}
+
+		public long getPurges() {
+			return purges;
+		}
+
 		private final MutableStat mutableStat = new MutableStat();
 
 		public void decrement(boolean fromCancellation) {
 			if(fromCancellation) {
 				cancellations++;
+				tombstones++;
 			}else {
 				removals++;
 			}
@@ -48,6 +64,15 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 			mutableStat.add(count);
 		}
 
+		public void purge() {
+			if (tombstones <= 0) {
+				throw new RuntimeException("cannot purge tombstone");
+			}
+			tombstones--;
+			purges++;
+			mutableStat.add(count);
+		}
+
 		public void increment() {
 			additions++;
 			count++;
@@ -58,6 +83,7 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 			additions = 0;
 			removals = 0;
 			cancellations = 0;
+			purges = 0;
 			mutableStat.clear();
 		}
 	}
@@ -74,9 +100,8 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 
 	private final Map<ComponentId, Map<Class<? extends Plan>, Map<Boolean, Counter>>> counterMap = new LinkedHashMap<>();
 
-	private ScenarioId scenarioId;
+	private Context context;
 
-	private ReplicationId replicationId;
 	private EventManager eventManager;
 
 	@Override
@@ -89,6 +114,8 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 		final double reportEndTime = eventManager.getTime();
 
 		final PlanningQueueReportItemBuilder planningQueueReportItemBuilder = new PlanningQueueReportItemBuilder();
+		final ScenarioId scenarioId = context.getScenario().getScenarioId();
+		final ReplicationId replicationId = context.getReplication().getId();
 
 		for (final ComponentId componentId : counterMap.keySet()) {
 			final Map<Class<? extends Plan>, Map<Boolean, Counter>> planningMap = counterMap.get(componentId);
@@ -108,6 +135,8 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 						planningQueueReportItemBuilder.setAdditionCount(counter.getAdditions());
 						planningQueueReportItemBuilder.setRemovalCount(counter.getRemovals());
 						planningQueueReportItemBuilder.setCancellationCount(counter.getCancellations());
+						planningQueueReportItemBuilder.setTombstoneCount(counter.getTombstones());
+						planningQueueReportItemBuilder.setPurgeCount(counter.getPurges());
 						counter.clear();
 						final PlanningQueueReportItem planningQueueReportItem = planningQueueReportItemBuilder.build();
 						outputItemManager.releaseOutputItem(planningQueueReportItem);
@@ -147,8 +176,7 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 		eventManager = context.getEventManager();
 		planningQueueReportThreshold = context.getPlanningQueueReportThreshold();
 		active = planningQueueReportThreshold > 0;
-		scenarioId = context.getScenario().getScenarioId();
-		replicationId = context.getReplication().getId();
+		this.context = context;
 		outputItemManager = context.getOutputItemManager();
 	}
 
@@ -183,6 +211,15 @@ public final class PlanningQueueReportItemManagerImpl extends BaseElement implem
 		}
 	}
 
+	@Override
+	public void reportPlanningQueuePurge(final ComponentId componentId, final Plan plan, final Object key) {
+		if (active) {
+			final Counter counter = getCounter(componentId, plan, key);
+			counter.purge();
+			updateActionCount();
+		}
+	}
+
 	private void updateActionCount() {
 		actionCount++;
 		if (actionCount >= planningQueueReportThreshold) {
@@ -0,0 +1,28 @@
+package gcm.simulation;
+
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * Enumeration for the selection of the {@link PlanningQueue} implementation
+ * used by a simulation. All implementations execute plans in the same order,
+ * so the selection affects only memory use and run time.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.UNREQUIRED)
+public enum PlanningQueueType {
+	/**
+	 * Each plan is stored in its own record object within a binary heap. This
+	 * is the default and performs well for moderately sized planning queues.
+	 */
+	RECORD,
+
+	/**
+	 * Plans are stored in parallel primitive arrays ordered by a four-way heap
+	 * and no per-plan record objects are allocated. Intended for simulations
+	 * that execute very large numbers of plans.
+	 */
+	PRIMITIVE
+}
@@ -0,0 +1,517 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import gcm.scenario.ComponentId;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * A {@link PlanningQueue} that stores plans in parallel arrays rather than as
+ * individual record objects.
+ *
+ * Each plan occupies a slot in the slot arrays that hold the plan, its
+ * component id, its key and its plan time. Slots are recycled as plans are
+ * executed or purged. The ordering of plans is maintained by a four-way heap
+ * whose entries are held in three parallel arrays: the plan time, the plan id
+ * and the slot index. Comparisons during heap maintenance thus read only
+ * primitive values that are contiguous in memory. Ties in plan time are broken
+ * by the plan id, which increments as plans are added, so plans are executed
+ * in exactly the same order as the {@link RecordPlanningQueue}.
+ *
+ * Cancelled plans remain in the heap as tombstones and keep their slot until
+ * they are purged. Tombstones are lazily purged as they reach the top of the
+ * heap and the heap is compacted in linear time once tombstones outnumber
+ * live plans.
+ *
+ * A recurring plan keeps its slot for its whole life. Each time it reaches the
+ * top of the heap, its time and plan id are advanced and the top entry is
+ * sifted down in place rather than being popped and re-added.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
+public final class PrimitivePlanningQueue implements PlanningQueue, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The minimum number of tombstones that must be present before compaction
+	 * is considered. This prevents frequent rebuilds of small heaps.
+	 */
+	private static final int MINIMUM_COMPACTION_TOMBSTONE_COUNT = 1024;
+
+	/*
+	 * The heap is four-way, so the children of the entry at index i are found
+	 * at 4i+1 through 4i+4
+	 */
+	private static final int ARITY_SHIFT = 2;
+
+	private static final int ARITY = 1 << ARITY_SHIFT;
+
+	private final PlanningQueueReportItemManager planningQueueReportItemManager;
+
+	/*
+	 * Each plan that is added is given a plan id value, incrementing the
+	 * masterPlanId. The plan id values are used to resolve ties in the
+	 * priority of the heap.
+	 */
+	private long masterPlanId;
+
+	/*
+	 * The heap entries, including tombstones, in three parallel arrays. The
+	 * entry at index zero is the next entry due.
+	 */
+	private double[] heapTimes = new double[16];
+
+	private long[] heapIds = new long[16];
+
+	private int[] heapSlots = new int[16];
+
+	/*
+	 * The number of entries, including tombstones, in the heap
+	 */
+	private int heapSize;
+
+	/*
+	 * The number of cancelled entries still present in the heap
+	 */
+	private int tombstoneCount;
+
+	/*
+	 * The slot arrays. A slot holds the content of a plan from its addition
+	 * until it is either executed or purged.
+	 */
+	private Plan[] slotPlans = new Plan[16];
+
+	private ComponentId[] slotComponentIds = new ComponentId[16];
+
+	private Object[] slotKeys = new Object[16];
+
+	private double[] slotTimes = new double[16];
+
+	private boolean[] slotCancelled = new boolean[16];
+
+	/*
+	 * The recurrence of each slot. Slots holding plans that do not recur have
+	 * a zero interval.
+	 */
+	private double[] slotStartTimes = new double[16];
+
+	private double[] slotIntervals = new double[16];
+
+	private long[] slotOccurrenceCounts = new long[16];
+
+	/*
+	 * The number of slots that have ever been used
+	 */
+	private int slotCount;
+
+	/*
+	 * A stack of slots that have been released and may be reused
+	 */
+	private int[] freeSlots = new int[16];
+
+	private int freeSlotCount;
+
+	/*
+	 * Maps the keys of live plans to their slots. Plans that are not
+	 * associated with a key are not contained in the planMap and are not
+	 * retrievable or removable. The keys of each component are held in a
+	 * PlanKeyIntMap so that IntId keys are resolved without boxed hashing and
+	 * slots are held without boxing.
+	 */
+	private final Map<ComponentId, PlanKeyIntMap> planMap = new LinkedHashMap<>();
+
+	/*
+	 * The content of the plan most recently removed by pollPlan()
+	 */
+	private ComponentId currentComponentId;
+
+	private Plan currentPlan;
+
+	private Object currentKey;
+
+	private double currentPlanTime;
+
+	private boolean currentPlanRecurring;
+
+	/**
+	 * Constructs the PrimitivePlanningQueue
+	 */
+	public PrimitivePlanningQueue(final PlanningQueueReportItemManager planningQueueReportItemManager) {
+		this.planningQueueReportItemManager = planningQueueReportItemManager;
+	}
+
+	/*
+	 * We sort by plan time ascending. Ties are broken by the planId, which is
+	 * incremented as plans are added.
+	 */
+	private static boolean isBefore(final double time1, final long id1, final double time2, final long id2) {
+		int result = Double.compare(time1, time2);
+		if (result == 0) {
+			result = Long.compare(id1, id2);
+		}
+		return result < 0;
+	}
+
+	private int acquireSlot() {
+		if (freeSlotCount > 0) {
+			return freeSlots[--freeSlotCount];
+		}
+		if (slotCount == slotPlans.length) {
+			final int capacity = slotCount + (slotCount >> 1);
+			slotPlans = Arrays.copyOf(slotPlans, capacity);
+			slotComponentIds = Arrays.copyOf(slotComponentIds, capacity);
+			slotKeys = Arrays.copyOf(slotKeys, capacity);
+			slotTimes = Arrays.copyOf(slotTimes, capacity);
+			slotCancelled = Arrays.copyOf(slotCancelled, capacity);
+			slotStartTimes = Arrays.copyOf(slotStartTimes, capacity);
+			slotIntervals = Arrays.copyOf(slotIntervals, capacity);
+			slotOccurrenceCounts = Arrays.copyOf(slotOccurrenceCounts, capacity);
+			freeSlots = Arrays.copyOf(freeSlots, capacity);
+		}
+		return slotCount++;
+	}
+
+	private void releaseSlot(final int slot) {
+		slotPlans[slot] = null;
+		slotComponentIds[slot] = null;
+		slotKeys[slot] = null;
+		slotCancelled[slot] = false;
+		slotIntervals[slot] = 0;
+		slotOccurrenceCounts[slot] = 0;
+		freeSlots[freeSlotCount++] = slot;
+	}
+
+	/*
+	 * Moves the given entry up from the hole at the given index until its
+	 * parent is due before it.
+	 */
+	private void siftUp(int index, final double time, final long id, final int slot) {
+		while (index > 0) {
+			final int parentIndex = (index - 1) >>> ARITY_SHIFT;
+			if (!isBefore(time, id, heapTimes[parentIndex], heapIds[parentIndex])) {
+				break;
+			}
+			heapTimes[index] = heapTimes[parentIndex];
+			heapIds[index] = heapIds[parentIndex];
+			heapSlots[index] = heapSlots[parentIndex];
+			index = parentIndex;
+		}
+		heapTimes[index] = time;
+		heapIds[index] = id;
+		heapSlots[index] = slot;
+	}
+
+	/*
+	 * Moves the given entry down from the hole at the given index until none
+	 * of its children are due before it.
+	 */
+	private void siftDown(int index, final double time, final long id, final int slot) {
+		while (true) {
+			final int firstChildIndex = (index << ARITY_SHIFT) + 1;
+			if (firstChildIndex >= heapSize) {
+				break;
+			}
+			final int lastChildIndex = Math.min(firstChildIndex + ARITY, heapSize);
+			int bestIndex = firstChildIndex;
+			double bestTime = heapTimes[firstChildIndex];
+			long bestId = heapIds[firstChildIndex];
+			for (int childIndex = firstChildIndex + 1; childIndex < lastChildIndex; childIndex++) {
+				final double childTime = heapTimes[childIndex];
+				final long childId = heapIds[childIndex];
+				if (isBefore(childTime, childId, bestTime, bestId)) {
+					bestIndex = childIndex;
+					bestTime = childTime;
+					bestId = childId;
+				}
+			}
+			if (!isBefore(bestTime, bestId, time, id)) {
+				break;
+			}
+			heapTimes[index] = bestTime;
+			heapIds[index] = bestId;
+			heapSlots[index] = heapSlots[bestIndex];
+			index = bestIndex;
+		}
+		heapTimes[index] = time;
+		heapIds[index] = id;
+		heapSlots[index] = slot;
+	}
+
+	/*
+	 * Removes the entry at the top of the heap and returns its slot
+	 */
+	private int pop() {
+		final int result = heapSlots[0];
+		heapSize--;
+		if (heapSize > 0) {
+			siftDown(0, heapTimes[heapSize], heapIds[heapSize], heapSlots[heapSize]);
+		}
+		return result;
+	}
+
+	private void purgeTombstone(final int slot) {
+		tombstoneCount--;
+		if (planningQueueReportItemManager.isActive()) {
+			planningQueueReportItemManager.reportPlanningQueuePurge(slotComponentIds[slot], slotPlans[slot], slotKeys[slot]);
+		}
+		releaseSlot(slot);
+	}
+
+	/*
+	 * Removes all tombstones from the heap and restores the heap property in
+	 * linear time. The heap arrays are trimmed if they have become much larger
+	 * than needed.
+	 */
+	private void compact() {
+		int liveCount = 0;
+		for (int i = 0; i < heapSize; i++) {
+			final int slot = heapSlots[i];
+			if (slotCancelled[slot]) {
+				purgeTombstone(slot);
+			} else {
+				heapTimes[liveCount] = heapTimes[i];
+				heapIds[liveCount] = heapIds[i];
+				heapSlots[liveCount] = slot;
+				liveCount++;
+			}
+		}
+		heapSize = liveCount;
+
+		if (heapTimes.length > 16 && heapSize < (heapTimes.length >> 2)) {
+			final int capacity = Math.max(16, heapSize << 1);
+			heapTimes = Arrays.copyOf(heapTimes, capacity);
+			heapIds = Arrays.copyOf(heapIds, capacity);
+			heapSlots = Arrays.copyOf(heapSlots, capacity);
+		}
+
+		if (heapSize > 1) {
+			for (int i = (heapSize - 2) >>> ARITY_SHIFT; i >= 0; i--) {
+				siftDown(i, heapTimes[i], heapIds[i], heapSlots[i]);
+			}
+		}
+	}
+
+	private int getSlot(final ComponentId componentId, final Object key) {
+		final PlanKeyIntMap map = planMap.get(componentId);
+		if (map == null) {
+			return -1;
+		}
+		return map.get(key);
+	}
+
+	@Override
+	public void addPlan(final ComponentId componentId, final Plan plan, final double planTime, final Object key) {
+		addPlan(componentId, plan, planTime, 0, key);
+	}
+
+	@Override
+	public void addRecurringPlan(final ComponentId componentId, final Plan plan, final double startTime, final double interval, final Object key) {
+		if (key == null) {
+			throw new RuntimeException("Recurring plans require a key");
+		}
+		if (!(interval > 0)) {
+			throw new RuntimeException("Recurring plan interval is not positive " + interval);
+		}
+		addPlan(componentId, plan, startTime, interval, key);
+	}
+
+	/*
+	 * Adds the plan, which recurs if the interval is positive
+	 */
+	private void addPlan(final ComponentId componentId, final Plan plan, final double planTime, final double interval, final Object key) {
+		PlanKeyIntMap map = null;
+		if (key != null) {
+			/*
+			 * Make sure that the component is not registering a plan on top of
+			 * an existing plan. We have chosen to throw an exception if this
+			 * happens rather than overwrite the plan, forcing the component to
+			 * explicitly remove the existing plan first
+			 */
+			map = planMap.get(componentId);
+			if (map != null && map.containsKey(key)) {
+				throw new RuntimeException("Plan already exists for key = " + key);
+			}
+		}
+
+		final int slot = acquireSlot();
+		slotPlans[slot] = plan;
+		slotComponentIds[slot] = componentId;
+		slotKeys[slot] = key;
+		slotTimes[slot] = planTime;
+		slotStartTimes[slot] = planTime;
+		slotIntervals[slot] = interval;
+
+		if (key != null) {
+			if (map == null) {
+				map = new PlanKeyIntMap();
+				planMap.put(componentId, map);
+			}
+			map.put(key, slot);
+		}
+
+		if (heapSize == heapTimes.length) {
+			final int capacity = heapSize + (heapSize >> 1);
+			heapTimes = Arrays.copyOf(heapTimes, capacity);
+			heapIds = Arrays.copyOf(heapIds, capacity);
+			heapSlots = Arrays.copyOf(heapSlots, capacity);
+		}
+		heapSize++;
+		siftUp(heapSize - 1, planTime, masterPlanId++, slot);
+	}
+
+	@Override
+	public Plan getPlan(final ComponentId componentId, final Object key) {
+		final int slot = getSlot(componentId, key);
+		if (slot < 0) {
+			return null;
+		}
+		return slotPlans[slot];
+	}
+
+	@Override
+	public double getPlanTime(final ComponentId componentId, final Object key) {
+		final int slot = getSlot(componentId, key);
+		if (slot < 0) {
+			return -1;
+		}
+		return slotTimes[slot];
+	}
+
+	/*
+	 * The entry remains in the heap as a tombstone and the heap is compacted
+	 * if tombstones dominate.
+	 */
+	@Override
+	public Plan removePlan(final ComponentId componentId, final Object key) {
+		final PlanKeyIntMap map = planMap.get(componentId);
+		if (map == null) {
+			return null;
+		}
+		final int slot = map.remove(key);
+		if (slot < 0) {
+			return null;
+		}
+		final Plan result = slotPlans[slot];
+		slotCancelled[slot] = true;
+		tombstoneCount++;
+		/*
+		 * The cancellation must be reported before compaction since the
+		 * compaction may purge this very tombstone
+		 */
+		if (planningQueueReportItemManager.isActive()) {
+			planningQueueReportItemManager.reportPlanningQueueCancellation(componentId, result, key);
+		}
+		if (tombstoneCount >= MINIMUM_COMPACTION_TOMBSTONE_COUNT && tombstoneCount > heapSize - tombstoneCount) {
+			compact();
+		}
+		return result;
+	}
+
+	@Override
+	public void pollPlan() {
+		while (heapSize > 0) {
+			final int slot = heapSlots[0];
+			if (slotCancelled[slot]) {
+				pop();
+				purgeTombstone(slot);
+			} else {
+				currentComponentId = slotComponentIds[slot];
+				currentPlan = slotPlans[slot];
+				currentKey = slotKeys[slot];
+				currentPlanTime = slotTimes[slot];
+				currentPlanRecurring = slotIntervals[slot] > 0;
+				if (currentPlanRecurring) {
+					/*
+					 * The next occurrence is computed from the start time to
+					 * avoid the accumulation of rounding errors.
+					 */
+					final long occurrenceCount = ++slotOccurrenceCounts[slot];
+					final double planTime = slotStartTimes[slot] + occurrenceCount * slotIntervals[slot];
+					slotTimes[slot] = planTime;
+					siftDown(0, planTime, masterPlanId++, slot);
+				} else {
+					pop();
+					if (currentKey != null) {
+						planMap.get(currentComponentId).remove(currentKey);
+					}
+					releaseSlot(slot);
+				}
+				return;
+			}
+		}
+		throw new RuntimeException("planning queue is empty");
+	}
+
+	@Override
+	public double getNextPlanTime() {
+		while (heapSize > 0) {
+			final int slot = heapSlots[0];
+			if (slotCancelled[slot]) {
+				pop();
+				purgeTombstone(slot);
+			} else {
+				return heapTimes[0];
+			}
+		}
+		throw new RuntimeException("planning queue is empty");
+	}
+
+	@Override
+	public ComponentId getCurrentComponentId() {
+		return currentComponentId;
+	}
+
+	@Override
+	public Plan getCurrentPlan() {
+		return currentPlan;
+	}
+
+	@Override
+	public Object getCurrentKey() {
+		return currentKey;
+	}
+
+	@Override
+	public double getCurrentPlanTime() {
+		return currentPlanTime;
+	}
+
+	@Override
+	public boolean isCurrentPlanRecurring() {
+		return currentPlanRecurring;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heapSize == tombstoneCount;
+	}
+
+	@Override
+	public int getPlanCount() {
+		return heapSize - tombstoneCount;
+	}
+
+	@Override
+	public int getTombstoneCount() {
+		return tombstoneCount;
+	}
+
+	@Override
+	public List<Object> getPlanKeys(final ComponentId componentId) {
+		final PlanKeyIntMap map = planMap.get(componentId);
+		if (map == null) {
+			return new ArrayList<>();
+		}
+		return map.getKeys();
+	}
+
+}
@@ -1,5 +1,6 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -39,6 +40,9 @@ import gcm.util.stats.MutableStat;
  */
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class ProfileManager extends BaseElement {
+
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * A class representing a node in a tree that mirrors the execution tree for
 	 * methods loaded on the stack. The same method may have multiple nodes
@@ -47,7 +51,10 @@ public final class ProfileManager extends BaseElement {
 	 *
 	 *
 	 */
-	private static class MethodRecord {
+	private static class MethodRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		/*
 		 * Unique identifier used to link parent to child in the report. A
 		 * method will have a stable id in the context of the stack and the
@@ -31,6 +31,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class PropertyDefinitionManagerImpl extends BaseElement implements PropertyDefinitionManager {
 
+	private static final long serialVersionUID = 1L;
+
 	@Override
 	public void init(Context context) {
 		super.init(context);
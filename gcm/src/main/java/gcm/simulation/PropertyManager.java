@@ -2,6 +2,8 @@ package gcm.simulation;
 
 import java.util.List;
 
+import org.apache.commons.math3.random.RandomGenerator;
+
 import gcm.scenario.BatchId;
 import gcm.scenario.BatchPropertyId;
 import gcm.scenario.CompartmentId;
@@ -35,6 +37,35 @@ public interface PropertyManager extends Element {
 	 */
 	public <T> T getPersonPropertyValue(PersonId personId, PersonPropertyId personPropertyId);
 
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public int getPersonPropertyIntValue(PersonId personId, PersonPropertyId personPropertyId);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public long getPersonPropertyLongValue(PersonId personId, PersonPropertyId personPropertyId);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public double getPersonPropertyDoubleValue(PersonId personId, PersonPropertyId personPropertyId);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public boolean getPersonPropertyBooleanValue(PersonId personId, PersonPropertyId personPropertyId);
+
+	/**
+	 * Returns the PersonPropertyManager holding the values of the given person
+	 * property so that repeated reads can avoid the lookup by property id.
+	 *
+	 * @param personPropertyId
+	 *            cannot be null
+	 */
+	public PersonPropertyManager getPersonPropertyManager(PersonPropertyId personPropertyId);
+
 	/**
 	 * Pass-through method. See PersonPropertyManager for details.
 	 */
@@ -47,6 +78,26 @@ public interface PropertyManager extends Element {
 
 	public void setPersonPropertyValue(PersonId personId, PersonPropertyId personPropertyId, Object personPropertyValue);
 
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public void setPersonPropertyIntValue(PersonId personId, PersonPropertyId personPropertyId, int personPropertyValue);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public void setPersonPropertyLongValue(PersonId personId, PersonPropertyId personPropertyId, long personPropertyValue);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public void setPersonPropertyDoubleValue(PersonId personId, PersonPropertyId personPropertyId, double personPropertyValue);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public void setPersonPropertyBooleanValue(PersonId personId, PersonPropertyId personPropertyId, boolean personPropertyValue);
+
 	/**
 	 * Pass-through method. See PersonPropertyManager for details.
 	 */
@@ -57,6 +108,21 @@ public interface PropertyManager extends Element {
 	 * Pass-through method. See PersonPropertyManager for details.
 	 */
 	public int getPersonCountForPropertyValue(final PersonPropertyId personPropertyId, final Object personPropertyValue);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public List<PersonId> getPeopleForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public int getPersonCountForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue);
+
+	/**
+	 * Pass-through method. See PersonPropertyManager for details.
+	 */
+	public PersonId getRandomPersonForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue, final RandomGenerator randomGenerator);
 	
 	/**
 	 * Pass-through method. See PersonPropertyManager for details.
@@ -321,4 +387,10 @@ public interface PropertyManager extends Element {
 	 * to validate the inputs.
 	 */
 	public void setGroupPropertyValue(final GroupId groupId, GroupPropertyId groupPropertyId, Object groupPropertyValue);
+
+	/**
+	 * Releases the off-heap memory held by the person property managers. This
+	 * should be invoked once the simulation is complete.
+	 */
+	public void close();
 }
@@ -1,9 +1,11 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+
+import org.apache.commons.math3.random.RandomGenerator;
 
 import gcm.scenario.BatchId;
 import gcm.scenario.BatchPropertyId;
@@ -24,9 +26,15 @@ import gcm.scenario.RegionPropertyId;
 import gcm.scenario.ResourceId;
 import gcm.scenario.ResourcePropertyId;
 import gcm.scenario.Scenario;
+import gcm.scenario.TimeTrackingPolicy;
 import gcm.util.MemoryPartition;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
+import gcm.util.containers.BooleanContainer;
+import gcm.util.containers.DictionaryValueContainer;
+import gcm.util.containers.PagedDoubleValueContainer;
+import gcm.util.containers.PagedFloatValueContainer;
+import gcm.util.containers.PagedIntValueContainer;
 
 /**
  * Implementor of {@link PropertyManager}
@@ -37,12 +45,16 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class PropertyManagerImpl extends BaseElement implements PropertyManager {
 
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * Record for holding the value and assignment time for a property. People
 	 * property values, being numerous, are stored in specialized classes. All
 	 * other property values are stored via maps to PropertyValueRecord.
 	 */
-	private static class PropertyValueRecord {
+	private static class PropertyValueRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
 
 		private Object propertyValue;
 		private double assignmentTime;
@@ -69,6 +81,147 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 		}
 	}
 
+	/*
+	 * Column of values and assignment times for a single group or batch
+	 * property, covering the groups of a single group type or the batches of a
+	 * single material and indexed by the int value of the group or batch id.
+	 * Values are stored in the typed container suited to the property type.
+	 * Assignment times are stored only when the property's time tracking
+	 * policy calls for them and their container is allocated when the first
+	 * time is recorded.
+	 */
+	private static class PropertyColumn implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Class<?> type;
+
+		/*
+		 * May be null if the property definition has no default value
+		 */
+		private final Object defaultValue;
+
+		private final TimeTrackingPolicy timeTrackingPolicy;
+
+		private BooleanContainer booleanContainer;
+
+		private PagedIntValueContainer intValueContainer;
+
+		private PagedFloatValueContainer floatValueContainer;
+
+		private PagedDoubleValueContainer doubleValueContainer;
+
+		private DictionaryValueContainer dictionaryValueContainer;
+
+		private PagedDoubleValueContainer timeContainer;
+
+		public PropertyColumn(PropertyDefinition propertyDefinition) {
+			type = propertyDefinition.getType();
+			timeTrackingPolicy = propertyDefinition.getTimeTrackingPolicy();
+			defaultValue = propertyDefinition.getDefaultValue().orElse(null);
+			if (defaultValue == null) {
+				dictionaryValueContainer = new DictionaryValueContainer(null, 0);
+			} else if (type == Boolean.class) {
+				booleanContainer = new BooleanContainer((Boolean) defaultValue);
+			} else if (type == Byte.class || type == Short.class || type == Integer.class || type == Long.class) {
+				intValueContainer = new PagedIntValueContainer(((Number) defaultValue).longValue());
+			} else if (type == Float.class) {
+				floatValueContainer = new PagedFloatValueContainer((Float) defaultValue);
+			} else if (type == Double.class) {
+				doubleValueContainer = new PagedDoubleValueContainer((Double) defaultValue);
+			} else {
+				dictionaryValueContainer = new DictionaryValueContainer(defaultValue, 0);
+			}
+		}
+
+		/*
+		 * Returns the value at the index, or null if no value has been set and
+		 * the property has no default value
+		 */
+		public Object getValue(int index) {
+			if (booleanContainer != null) {
+				return booleanContainer.get(index);
+			}
+			if (intValueContainer != null) {
+				if (type == Byte.class) {
+					return intValueContainer.getValueAsByte(index);
+				}
+				if (type == Short.class) {
+					return intValueContainer.getValueAsShort(index);
+				}
+				if (type == Integer.class) {
+					return intValueContainer.getValueAsInt(index);
+				}
+				return intValueContainer.getValueAsLong(index);
+			}
+			if (floatValueContainer != null) {
+				return floatValueContainer.getValue(index);
+			}
+			if (doubleValueContainer != null) {
+				return doubleValueContainer.getValue(index);
+			}
+			return dictionaryValueContainer.getValue(index);
+		}
+
+		private void storeValue(int index, Object value) {
+			if (booleanContainer != null) {
+				booleanContainer.set(index, (Boolean) value);
+			} else if (intValueContainer != null) {
+				intValueContainer.setLongValue(index, ((Number) value).longValue());
+			} else if (floatValueContainer != null) {
+				floatValueContainer.setValue(index, (Float) value);
+			} else if (doubleValueContainer != null) {
+				doubleValueContainer.setValue(index, (Double) value);
+			} else {
+				dictionaryValueContainer.setValue(index, value);
+			}
+		}
+
+		/*
+		 * Sets the value at the index and records the assignment time if times
+		 * are tracked
+		 */
+		public void setValue(int index, Object value, double time) {
+			storeValue(index, value);
+			recordTime(index, time);
+		}
+
+		/*
+		 * Records the assignment time at the index if times are tracked
+		 */
+		public void recordTime(int index, double time) {
+			if (timeTrackingPolicy.isTracked()) {
+				if (timeContainer == null) {
+					timeContainer = new PagedDoubleValueContainer(0);
+				}
+				timeContainer.setValue(index, timeTrackingPolicy.getRecordedTime(time));
+			}
+		}
+
+		/*
+		 * Returns the assignment time at the index, or zero if no time has been
+		 * recorded
+		 */
+		public double getTime(int index) {
+			if (timeContainer == null) {
+				return 0;
+			}
+			return timeContainer.getValue(index);
+		}
+
+		/*
+		 * Restores the default value and zero assignment time at the index so
+		 * that the column does not retain the values of removed groups and
+		 * batches
+		 */
+		public void clear(int index) {
+			storeValue(index, defaultValue);
+			if (timeContainer != null) {
+				timeContainer.setValue(index, 0);
+			}
+		}
+	}
+
 	private Map<RegionId, Map<RegionPropertyId, PropertyValueRecord>> regionPropertyMap = new LinkedHashMap<>();
 
 	private Map<CompartmentId, Map<CompartmentPropertyId, PropertyValueRecord>> compartmentPropertyMap = new LinkedHashMap<>();
@@ -79,11 +232,15 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 
 	private Map<GlobalPropertyId, PropertyValueRecord> globalPropertyMap = new LinkedHashMap<>();
 
-	private Map<BatchId, Map<BatchPropertyId, PropertyValueRecord>> batchPropertyMap = new LinkedHashMap<>();
-
-	private Map<MaterialId, Set<BatchPropertyId>> batchPropertyIdMap = new LinkedHashMap<>();
+	/*
+	 * The batch property columns for each material
+	 */
+	private Map<MaterialId, Map<BatchPropertyId, PropertyColumn>> batchPropertyColumns = new LinkedHashMap<>();
 
-	private Map<GroupId, Map<GroupPropertyId, PropertyValueRecord>> groupPropertyMap = new LinkedHashMap<>();
+	/*
+	 * The group property columns for each group type
+	 */
+	private Map<GroupTypeId, Map<GroupPropertyId, PropertyColumn>> groupPropertyColumns = new LinkedHashMap<>();
 
 	/*
 	 * Stores for person property a PersonPropertyManager instance. Each
@@ -98,6 +255,8 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 
 	private PersonGroupManger personGroupManger;
 
+	private MaterialsManager materialsManager;
+
 	@Override
 	public void init(Context context) {
 		super.init(context);
@@ -106,6 +265,7 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 		eventManager = context.getEventManager();
 		propertyDefinitionManager = context.getPropertyDefinitionsManager();
 		personGroupManger = context.getPersonGroupManger();
+		materialsManager = context.getMaterialsManager();
 		Scenario scenario = context.getScenario();
 
 		/*
@@ -193,10 +353,22 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 			globalPropertyMap.put(globalPropertyId, propertyValueRecord);
 		}
 
-		// initializing batchPropertyIdMap
+		// initializing the batch property columns
 		for (MaterialId materialId : scenario.getMaterialIds()) {
-			Set<BatchPropertyId> batchPropertyIds = scenario.getBatchPropertyIds(materialId);
-			batchPropertyIdMap.put(materialId, batchPropertyIds);
+			Map<BatchPropertyId, PropertyColumn> map = new LinkedHashMap<>();
+			batchPropertyColumns.put(materialId, map);
+			for (BatchPropertyId batchPropertyId : scenario.getBatchPropertyIds(materialId)) {
+				map.put(batchPropertyId, new PropertyColumn(scenario.getBatchPropertyDefinition(materialId, batchPropertyId)));
+			}
+		}
+
+		// initializing the group property columns
+		for (GroupTypeId groupTypeId : scenario.getGroupTypeIds()) {
+			Map<GroupPropertyId, PropertyColumn> map = new LinkedHashMap<>();
+			groupPropertyColumns.put(groupTypeId, map);
+			for (GroupPropertyId groupPropertyId : scenario.getGroupPropertyIds(groupTypeId)) {
+				map.put(groupPropertyId, new PropertyColumn(scenario.getGroupPropertyDefinition(groupTypeId, groupPropertyId)));
+			}
 		}
 
 		/*
@@ -240,6 +412,31 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 		return (T) personPropertyManagerMap.get(personPropertyId).getPropertyValue(personId);
 	}
 
+	@Override
+	public int getPersonPropertyIntValue(PersonId personId, PersonPropertyId personPropertyId) {
+		return personPropertyManagerMap.get(personPropertyId).getPropertyIntValue(personId);
+	}
+
+	@Override
+	public long getPersonPropertyLongValue(PersonId personId, PersonPropertyId personPropertyId) {
+		return personPropertyManagerMap.get(personPropertyId).getPropertyLongValue(personId);
+	}
+
+	@Override
+	public double getPersonPropertyDoubleValue(PersonId personId, PersonPropertyId personPropertyId) {
+		return personPropertyManagerMap.get(personPropertyId).getPropertyDoubleValue(personId);
+	}
+
+	@Override
+	public boolean getPersonPropertyBooleanValue(PersonId personId, PersonPropertyId personPropertyId) {
+		return personPropertyManagerMap.get(personPropertyId).getPropertyBooleanValue(personId);
+	}
+
+	@Override
+	public PersonPropertyManager getPersonPropertyManager(PersonPropertyId personPropertyId) {
+		return personPropertyManagerMap.get(personPropertyId);
+	}
+
 	@Override
 	public double getPersonPropertyTime(PersonId personId, PersonPropertyId personPropertyId) {
 		return personPropertyManagerMap.get(personPropertyId).getPropertyTime(personId);
@@ -250,6 +447,26 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 		personPropertyManagerMap.get(personPropertyId).setPropertyValue(personId, personPropertyValue);
 	}
 
+	@Override
+	public void setPersonPropertyIntValue(PersonId personId, PersonPropertyId personPropertyId, int personPropertyValue) {
+		personPropertyManagerMap.get(personPropertyId).setPropertyIntValue(personId, personPropertyValue);
+	}
+
+	@Override
+	public void setPersonPropertyLongValue(PersonId personId, PersonPropertyId personPropertyId, long personPropertyValue) {
+		personPropertyManagerMap.get(personPropertyId).setPropertyLongValue(personId, personPropertyValue);
+	}
+
+	@Override
+	public void setPersonPropertyDoubleValue(PersonId personId, PersonPropertyId personPropertyId, double personPropertyValue) {
+		personPropertyManagerMap.get(personPropertyId).setPropertyDoubleValue(personId, personPropertyValue);
+	}
+
+	@Override
+	public void setPersonPropertyBooleanValue(PersonId personId, PersonPropertyId personPropertyId, boolean personPropertyValue) {
+		personPropertyManagerMap.get(personPropertyId).setPropertyBooleanValue(personId, personPropertyValue);
+	}
+
 	@Override
 	public List<PersonId> getPeopleWithPropertyValue(final PersonPropertyId personPropertyId, final Object personPropertyValue) {
 		return personPropertyManagerMap.get(personPropertyId).getPeopleWithPropertyValue(personPropertyValue);
@@ -260,6 +477,21 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 		return personPropertyManagerMap.get(personPropertyId).getPersonCountForPropertyValue(personPropertyValue);
 	}
 
+	@Override
+	public List<PersonId> getPeopleForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue) {
+		return personPropertyManagerMap.get(personPropertyId).getPeopleForPropertyComparison(equality, personPropertyValue);
+	}
+
+	@Override
+	public int getPersonCountForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue) {
+		return personPropertyManagerMap.get(personPropertyId).getPersonCountForPropertyComparison(equality, personPropertyValue);
+	}
+
+	@Override
+	public PersonId getRandomPersonForPropertyComparison(final PersonPropertyId personPropertyId, final Equality equality, final Object personPropertyValue, final RandomGenerator randomGenerator) {
+		return personPropertyManagerMap.get(personPropertyId).getRandomPersonForPropertyComparison(equality, personPropertyValue, randomGenerator);
+	}
+
 	@Override
 	public void handlePersonAddition(final PersonId personId) {
 		for (PersonPropertyManager propertyManager : personPropertyManagerMap.values()) {
@@ -274,6 +506,13 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 		}
 	}
 
+	@Override
+	public void close() {
+		for (PersonPropertyManager propertyManager : personPropertyManagerMap.values()) {
+			propertyManager.close();
+		}
+	}
+
 	@Override
 	public void setRegionPropertyValue(RegionId regionId, RegionPropertyId regionPropertyId, Object regionPropertyValue) {
 		regionPropertyMap.get(regionId).get(regionPropertyId).setPropertyValue(regionPropertyValue);
@@ -354,140 +593,102 @@ public final class PropertyManagerImpl extends BaseElement implements PropertyMa
 		return globalPropertyMap.get(globalPropertyId).getAssignmentTime();
 	}
 
+	private PropertyColumn getBatchPropertyColumn(BatchId batchId, BatchPropertyId batchPropertyId) {
+		MaterialId materialId = materialsManager.getBatchMaterial(batchId);
+		PropertyColumn propertyColumn = batchPropertyColumns.get(materialId).get(batchPropertyId);
+		if (propertyColumn == null) {
+			throw new RuntimeException("property not found " + batchPropertyId + " for batch " + batchId);
+		}
+		return propertyColumn;
+	}
+
 	@Override
 	public double getBatchPropertyTime(BatchId batchId, BatchPropertyId batchPropertyId) {
-		Map<BatchPropertyId, PropertyValueRecord> map = batchPropertyMap.get(batchId);
-		if (map == null) {
-			throw new RuntimeException("batch not contained " + batchId);
-		}
-		PropertyValueRecord propertyValueRecord = map.get(batchPropertyId);
-		return propertyValueRecord.getAssignmentTime();
+		return getBatchPropertyColumn(batchId, batchPropertyId).getTime(batchId.getValue());
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> T getBatchPropertyValue(BatchId batchId, BatchPropertyId batchPropertyId) {
-		Map<BatchPropertyId, PropertyValueRecord> map = batchPropertyMap.get(batchId);
-		if (map == null) {
-			throw new RuntimeException("batch not contained " + batchId);
-		}
-		PropertyValueRecord propertyValueRecord = map.get(batchPropertyId);
-		if (propertyValueRecord == null) {
-			throw new RuntimeException("property not found " + batchPropertyId + " for batch " + batchId);
-		}
-		return (T) propertyValueRecord.getValue();
+		return (T) getBatchPropertyColumn(batchId, batchPropertyId).getValue(batchId.getValue());
 	}
 
 	@Override
 	public void setBatchPropertyValue(BatchId batchId, BatchPropertyId batchPropertyId, Object batchPropertyValue) {
-		Map<BatchPropertyId, PropertyValueRecord> map = batchPropertyMap.get(batchId);
-		if (map == null) {
-			throw new RuntimeException("batch not contained " + batchId);
-		}
-		PropertyValueRecord propertyValueRecord = map.get(batchPropertyId);
-		if (propertyValueRecord == null) {
-			propertyValueRecord = new PropertyValueRecord(eventManager);
-			map.put(batchPropertyId, propertyValueRecord);
-		}
-		propertyValueRecord.setPropertyValue(batchPropertyValue);
+		getBatchPropertyColumn(batchId, batchPropertyId).setValue(batchId.getValue(), batchPropertyValue, eventManager.getTime());
 	}
 
 	@Override
 	public void handleBatchAddition(final BatchId batchId, MaterialId materialId) {
-		if (batchPropertyMap.containsKey(batchId)) {
-			throw new RuntimeException("batch already contained " + batchId);
-		}
-		Map<BatchPropertyId, PropertyValueRecord> map = new LinkedHashMap<>();
-
-		Set<BatchPropertyId> batchPropertyIds = batchPropertyIdMap.get(materialId);
-
-		for (BatchPropertyId batchPropertyId : batchPropertyIds) {
-			PropertyDefinition propertyDefinition = propertyDefinitionManager.getBatchPropertyDefinition(materialId, batchPropertyId);
-			PropertyValueRecord propertyValueRecord = new PropertyValueRecord(eventManager);
-			if (propertyDefinition.getDefaultValue().isPresent()) {
-				propertyValueRecord.setPropertyValue(propertyDefinition.getDefaultValue().get());
-			} else {
-				throw new RuntimeException("Batch property id : " + batchPropertyId + " has a null default property value for its property definition: " + propertyDefinition);
+		/*
+		 * The batch starts with the default values, assigned at the time of
+		 * its creation
+		 */
+		for (Map.Entry<BatchPropertyId, PropertyColumn> entry : batchPropertyColumns.get(materialId).entrySet()) {
+			PropertyColumn propertyColumn = entry.getValue();
+			if (propertyColumn.defaultValue == null) {
+				PropertyDefinition propertyDefinition = propertyDefinitionManager.getBatchPropertyDefinition(materialId, entry.getKey());
+				throw new RuntimeException("Batch property id : " + entry.getKey() + " has a null default property value for its property definition: " + propertyDefinition);
 			}
-
-			map.put(batchPropertyId, propertyValueRecord);
+			propertyColumn.recordTime(batchId.getValue(), eventManager.getTime());
 		}
-
-		batchPropertyMap.put(batchId, map);
 	}
 
 	@Override
 	public void handleBatchRemoval(final BatchId batchId) {
-		if (!batchPropertyMap.containsKey(batchId)) {
-			throw new RuntimeException("batch not contained " + batchId);
+		MaterialId materialId = materialsManager.getBatchMaterial(batchId);
+		for (PropertyColumn propertyColumn : batchPropertyColumns.get(materialId).values()) {
+			propertyColumn.clear(batchId.getValue());
 		}
-		batchPropertyMap.remove(batchId);
 	}
 
 	@Override
 	public void handleGroupRemoval(final GroupId groupId) {
-		groupPropertyMap.remove(groupId);
+		GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
+		for (PropertyColumn propertyColumn : groupPropertyColumns.get(groupTypeId).values()) {
+			propertyColumn.clear(groupId.getValue());
+		}
+	}
+
+	private PropertyColumn getGroupPropertyColumn(final GroupId groupId, GroupPropertyId groupPropertyId) {
+		GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
+		return groupPropertyColumns.get(groupTypeId).get(groupPropertyId);
 	}
 
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T> T getGroupPropertyValue(final GroupId groupId, GroupPropertyId groupPropertyId) {
-		Map<GroupPropertyId, PropertyValueRecord> propertyMap = groupPropertyMap.get(groupId);
 		/*
-		 * If we cannot find a property value record we will use the default
-		 * value associated with the property definition.
+		 * Groups that have not had the property set hold the default value
+		 * associated with the property definition.
 		 */
-		PropertyValueRecord propertyValueRecord = null;
-		if (propertyMap != null) {
-			propertyValueRecord = propertyMap.get(groupPropertyId);
-		}
-		if (propertyValueRecord == null) {
+		Object result = getGroupPropertyColumn(groupId, groupPropertyId).getValue(groupId.getValue());
+		if (result == null) {
 			GroupTypeId groupTypeId = personGroupManger.getGroupType(groupId);
 			PropertyDefinition propertyDefinition = propertyDefinitionManager.getGroupPropertyDefinition(groupTypeId, groupPropertyId);
-			if (propertyDefinition.getDefaultValue().isPresent()) {
-				return (T) propertyDefinition.getDefaultValue().get();
-			} else {
-				throw new RuntimeException("Group property id : " + groupPropertyId + " has a null default property value for its property definition: " + propertyDefinition);
-			}
+			throw new RuntimeException("Group property id : " + groupPropertyId + " has a null default property value for its property definition: " + propertyDefinition);
 		}
-		return (T) propertyValueRecord.getValue();
+		return (T) result;
 	}
 
 	@Override
 	public double getGroupPropertyTime(final GroupId groupId, GroupPropertyId groupPropertyId) {
-		Map<GroupPropertyId, PropertyValueRecord> propertyMap = groupPropertyMap.get(groupId);
 		/*
 		 * If we cannot find a property assignment time, then we assume it is
 		 * time zero.
 		 */
-		PropertyValueRecord propertyValueRecord = null;
-		if (propertyMap != null) {
-			propertyValueRecord = propertyMap.get(groupPropertyId);
-		}
-		if (propertyValueRecord == null) {
-			return 0;
-		}
-		return propertyValueRecord.assignmentTime;
+		return getGroupPropertyColumn(groupId, groupPropertyId).getTime(groupId.getValue());
 	}
 
 	@Override
 	public void setGroupPropertyValue(final GroupId groupId, GroupPropertyId groupPropertyId, Object groupPropertyValue) {
-		Map<GroupPropertyId, PropertyValueRecord> propertyMap = groupPropertyMap.get(groupId);
-		if (propertyMap == null) {
-			propertyMap = new LinkedHashMap<>();
-			groupPropertyMap.put(groupId, propertyMap);
-		}
-
-		PropertyValueRecord propertyValueRecord = propertyMap.get(groupPropertyId);
-		if (propertyValueRecord == null) {
-			propertyValueRecord = new PropertyValueRecord(eventManager);
-			propertyMap.put(groupPropertyId, propertyValueRecord);
-		}
-		propertyValueRecord.setPropertyValue(groupPropertyValue);
+		getGroupPropertyColumn(groupId, groupPropertyId).setValue(groupId.getValue(), groupPropertyValue, eventManager.getTime());
 	}
 
 	@Override
 	public void collectMemoryLinks(MemoryPartition memoryPartition) {
+		memoryPartition.addMemoryLink(this, groupPropertyColumns, "Group Property Columns");
+		memoryPartition.addMemoryLink(this, batchPropertyColumns, "Batch Property Columns");
 		memoryPartition.addMemoryLink(this, personPropertyManagerMap, "Person Property Manager Map");
 		for (PersonPropertyId personPropertyId : personPropertyManagerMap.keySet()) {
 			PersonPropertyManager personPropertyManager = personPropertyManagerMap.get(personPropertyId);
@@ -0,0 +1,461 @@
+package gcm.simulation;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import gcm.scenario.ComponentId;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * A {@link PlanningQueue} that stores each plan as a PlanRecord in an
+ * array-based binary heap ordered by ascending plan time with ties broken by
+ * the order of addition.
+ *
+ * Cancelled plans are not removed from the heap since doing so would require a
+ * linear search. Instead, the record is marked as cancelled and remains in the
+ * heap as a tombstone. Tombstones are lazily purged as they reach the top of
+ * the heap. Models that reschedule heavily can accumulate far more tombstones
+ * than live plans, so the queue also tracks the ratio of tombstones to live
+ * plans and compacts the heap in linear time once tombstones dominate.
+ *
+ * A recurring plan keeps its record for its whole life. Each time it reaches
+ * the top of the heap, its plan time and plan id are advanced and it is sifted
+ * down in place rather than being popped and re-added.
+ *
+ * Cancellations and purged tombstones are reported to the
+ * {@link PlanningQueueReportItemManager} when it is active.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
+public final class RecordPlanningQueue implements PlanningQueue, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The minimum number of tombstones that must be present before compaction
+	 * is considered. This prevents frequent rebuilds of small heaps.
+	 */
+	private static final int MINIMUM_COMPACTION_TOMBSTONE_COUNT = 1024;
+
+	/*
+	 * A data class for managing the plans submitted by components.
+	 *
+	 * The plan created by the component is not understood by the Environment
+	 * per se. Instead, it records the focalId (the identifier of the
+	 * component) and the key for the plan. This plan key is prepended with the
+	 * focalId so that it is impossible for a component to effect another
+	 * components plans. The planTime is the future time when the plan is sent
+	 * back to the component and is the driver to progress time in GCM. When
+	 * plans are cancelled the record is marked as cancelled and is ignored
+	 * when it is purged from the queue. Recurring plans have a positive
+	 * interval and their plan time and plan id advance with each occurrence.
+	 */
+	private static final class PlanRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final ComponentId componentId;
+		private final Object key;
+		private final Plan plan;
+		private double planTime;
+		private long planId;
+		private boolean cancelled;
+		private final double startTime;
+		private final double interval;
+		private long occurrenceCount;
+
+		private PlanRecord(final ComponentId componentId, final Object key, final Plan plan, final double planTime, final long planId) {
+			this(componentId, key, plan, planTime, 0, planId);
+		}
+
+		private PlanRecord(final ComponentId componentId, final Object key, final Plan plan, final double startTime, final double interval, final long planId) {
+			this.key = key;
+			this.componentId = componentId;
+			this.plan = plan;
+			this.planTime = startTime;
+			this.planId = planId;
+			this.startTime = startTime;
+			this.interval = interval;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder builder = new StringBuilder();
+			builder.append("PlanRecord [componentId=");
+			builder.append(componentId);
+			builder.append(", key=");
+			builder.append(key);
+			builder.append(", plan=");
+			builder.append(plan);
+			builder.append(", planTime=");
+			builder.append(planTime);
+			builder.append(", planId=");
+			builder.append(planId);
+			builder.append(", cancelled=");
+			builder.append(cancelled);
+			builder.append(", interval=");
+			builder.append(interval);
+			builder.append("]");
+			return builder.toString();
+		}
+	}
+
+	private final PlanningQueueReportItemManager planningQueueReportItemManager;
+
+	/*
+	 * Each plan that is added is given a plan id value, incrementing the
+	 * masterPlanId. The plan id values are used to resolve ties in the
+	 * priority of the heap.
+	 */
+	private long masterPlanId;
+
+	/*
+	 * The binary heap of plan records, including tombstones. The record at
+	 * index zero is the next record due.
+	 */
+	private PlanRecord[] heap = new PlanRecord[16];
+
+	/*
+	 * The number of records, including tombstones, in the heap
+	 */
+	private int heapSize;
+
+	/*
+	 * The number of cancelled records still present in the heap
+	 */
+	private int tombstoneCount;
+
+	/*
+	 * The planMap contains the live keyed plan records and does not contain
+	 * past or cancelled plans. Plans that are not associated with a key are
+	 * not contained in the planMap and are not retrievable or removable. The
+	 * planMap allows for the O(1) retrieval and cancellation of plans, but
+	 * does not contain those records in the order of their execution. The
+	 * keys of each component are held in a PlanKeyMap so that IntId keys are
+	 * resolved without boxed hashing.
+	 */
+	private final Map<ComponentId, PlanKeyMap<PlanRecord>> planMap = new LinkedHashMap<>();
+
+	/*
+	 * The plan record most recently removed by pollPlan()
+	 */
+	private PlanRecord currentPlanRecord;
+
+	private double currentPlanTime;
+
+	private boolean currentPlanRecurring;
+
+	/**
+	 * Constructs the RecordPlanningQueue
+	 */
+	public RecordPlanningQueue(final PlanningQueueReportItemManager planningQueueReportItemManager) {
+		this.planningQueueReportItemManager = planningQueueReportItemManager;
+	}
+
+	/*
+	 * We sort by plan time ascending. Ties are broken by the planId, which is
+	 * incremented as plans are added.
+	 */
+	private static boolean isBefore(final PlanRecord planRecord1, final PlanRecord planRecord2) {
+		int result = Double.compare(planRecord1.planTime, planRecord2.planTime);
+		if (result == 0) {
+			result = Long.compare(planRecord1.planId, planRecord2.planId);
+		}
+		return result < 0;
+	}
+
+	private void siftUp(int index) {
+		final PlanRecord planRecord = heap[index];
+		while (index > 0) {
+			final int parentIndex = (index - 1) >>> 1;
+			final PlanRecord parent = heap[parentIndex];
+			if (!isBefore(planRecord, parent)) {
+				break;
+			}
+			heap[index] = parent;
+			index = parentIndex;
+		}
+		heap[index] = planRecord;
+	}
+
+	private void siftDown(int index) {
+		final PlanRecord planRecord = heap[index];
+		final int half = heapSize >>> 1;
+		while (index < half) {
+			int childIndex = (index << 1) + 1;
+			PlanRecord child = heap[childIndex];
+			final int rightIndex = childIndex + 1;
+			if (rightIndex < heapSize && isBefore(heap[rightIndex], child)) {
+				childIndex = rightIndex;
+				child = heap[childIndex];
+			}
+			if (!isBefore(child, planRecord)) {
+				break;
+			}
+			heap[index] = child;
+			index = childIndex;
+		}
+		heap[index] = planRecord;
+	}
+
+	/*
+	 * Removes and returns the record at the top of the heap
+	 */
+	private PlanRecord pop() {
+		final PlanRecord result = heap[0];
+		heapSize--;
+		final PlanRecord last = heap[heapSize];
+		heap[heapSize] = null;
+		if (heapSize > 0) {
+			heap[0] = last;
+			siftDown(0);
+		}
+		return result;
+	}
+
+	private void purgeTombstone(final PlanRecord planRecord) {
+		tombstoneCount--;
+		if (planningQueueReportItemManager.isActive()) {
+			planningQueueReportItemManager.reportPlanningQueuePurge(planRecord.componentId, planRecord.plan, planRecord.key);
+		}
+	}
+
+	/*
+	 * Removes all tombstones from the heap and restores the heap property in
+	 * linear time. The heap array is trimmed if it has become much larger than
+	 * needed.
+	 */
+	private void compact() {
+		int liveCount = 0;
+		for (int i = 0; i < heapSize; i++) {
+			final PlanRecord planRecord = heap[i];
+			if (planRecord.cancelled) {
+				purgeTombstone(planRecord);
+			} else {
+				heap[liveCount++] = planRecord;
+			}
+		}
+		Arrays.fill(heap, liveCount, heapSize, null);
+		heapSize = liveCount;
+
+		if (heap.length > 16 && heapSize < (heap.length >> 2)) {
+			heap = Arrays.copyOf(heap, Math.max(16, heapSize << 1));
+		}
+
+		for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+			siftDown(i);
+		}
+	}
+
+	/*
+	 * Adds the record to the plan map, making sure that the component is not
+	 * registering a plan on top of an existing plan. We have chosen to throw an
+	 * exception if this happens rather than overwrite the plan, forcing the
+	 * component to explicitly remove the existing plan first
+	 */
+	private void addToPlanMap(final PlanRecord planRecord) {
+		PlanKeyMap<PlanRecord> map = planMap.get(planRecord.componentId);
+		if (map != null && map.containsKey(planRecord.key)) {
+			throw new RuntimeException("Plan already exists for key = " + planRecord.key);
+		}
+		if (map == null) {
+			map = new PlanKeyMap<>();
+			planMap.put(planRecord.componentId, map);
+		}
+		map.put(planRecord.key, planRecord);
+	}
+
+	@Override
+	public void addPlan(final ComponentId componentId, final Plan plan, final double planTime, final Object key) {
+		/*
+		 * Plans without keys will not be retrievable via the plan map.
+		 */
+		final PlanRecord planRecord = new PlanRecord(componentId, key, plan, planTime, masterPlanId);
+		if (key != null) {
+			addToPlanMap(planRecord);
+		}
+		masterPlanId++;
+		addToHeap(planRecord);
+	}
+
+	@Override
+	public void addRecurringPlan(final ComponentId componentId, final Plan plan, final double startTime, final double interval, final Object key) {
+		if (key == null) {
+			throw new RuntimeException("Recurring plans require a key");
+		}
+		if (!(interval > 0)) {
+			throw new RuntimeException("Recurring plan interval is not positive " + interval);
+		}
+		final PlanRecord planRecord = new PlanRecord(componentId, key, plan, startTime, interval, masterPlanId);
+		addToPlanMap(planRecord);
+		masterPlanId++;
+		addToHeap(planRecord);
+	}
+
+	private void addToHeap(final PlanRecord planRecord) {
+		if (heapSize == heap.length) {
+			heap = Arrays.copyOf(heap, heapSize + (heapSize >> 1));
+		}
+		heap[heapSize] = planRecord;
+		siftUp(heapSize);
+		heapSize++;
+	}
+
+	private PlanRecord getPlanRecord(final ComponentId componentId, final Object key) {
+		final PlanKeyMap<PlanRecord> map = planMap.get(componentId);
+		if (map == null) {
+			return null;
+		}
+		return map.get(key);
+	}
+
+	@Override
+	public Plan getPlan(final ComponentId componentId, final Object key) {
+		final PlanRecord planRecord = getPlanRecord(componentId, key);
+		if (planRecord == null) {
+			return null;
+		}
+		return planRecord.plan;
+	}
+
+	@Override
+	public double getPlanTime(final ComponentId componentId, final Object key) {
+		final PlanRecord planRecord = getPlanRecord(componentId, key);
+		if (planRecord == null) {
+			return -1;
+		}
+		return planRecord.planTime;
+	}
+
+	/*
+	 * The record remains in the heap as a tombstone and the heap is compacted
+	 * if tombstones dominate.
+	 */
+	@Override
+	public Plan removePlan(final ComponentId componentId, final Object key) {
+		final PlanKeyMap<PlanRecord> map = planMap.get(componentId);
+		if (map == null) {
+			return null;
+		}
+		final PlanRecord planRecord = map.remove(key);
+		if (planRecord == null) {
+			return null;
+		}
+		planRecord.cancelled = true;
+		tombstoneCount++;
+		/*
+		 * The cancellation must be reported before compaction since the
+		 * compaction may purge this very tombstone
+		 */
+		if (planningQueueReportItemManager.isActive()) {
+			planningQueueReportItemManager.reportPlanningQueueCancellation(componentId, planRecord.plan, key);
+		}
+		if (tombstoneCount >= MINIMUM_COMPACTION_TOMBSTONE_COUNT && tombstoneCount > heapSize - tombstoneCount) {
+			compact();
+		}
+		return planRecord.plan;
+	}
+
+	@Override
+	public void pollPlan() {
+		while (heapSize > 0) {
+			final PlanRecord planRecord = heap[0];
+			if (planRecord.cancelled) {
+				pop();
+				purgeTombstone(planRecord);
+			} else {
+				currentPlanRecord = planRecord;
+				currentPlanTime = planRecord.planTime;
+				currentPlanRecurring = planRecord.interval > 0;
+				if (currentPlanRecurring) {
+					/*
+					 * The next occurrence is computed from the start time to
+					 * avoid the accumulation of rounding errors.
+					 */
+					planRecord.occurrenceCount++;
+					planRecord.planTime = planRecord.startTime + planRecord.occurrenceCount * planRecord.interval;
+					planRecord.planId = masterPlanId++;
+					siftDown(0);
+				} else {
+					pop();
+					if (planRecord.key != null) {
+						planMap.get(planRecord.componentId).remove(planRecord.key);
+					}
+				}
+				return;
+			}
+		}
+		throw new RuntimeException("planning queue is empty");
+	}
+
+	@Override
+	public double getNextPlanTime() {
+		while (heapSize > 0) {
+			final PlanRecord planRecord = heap[0];
+			if (planRecord.cancelled) {
+				pop();
+				purgeTombstone(planRecord);
+			} else {
+				return planRecord.planTime;
+			}
+		}
+		throw new RuntimeException("planning queue is empty");
+	}
+
+	@Override
+	public ComponentId getCurrentComponentId() {
+		return currentPlanRecord.componentId;
+	}
+
+	@Override
+	public Plan getCurrentPlan() {
+		return currentPlanRecord.plan;
+	}
+
+	@Override
+	public Object getCurrentKey() {
+		return currentPlanRecord.key;
+	}
+
+	@Override
+	public double getCurrentPlanTime() {
+		return currentPlanTime;
+	}
+
+	@Override
+	public boolean isCurrentPlanRecurring() {
+		return currentPlanRecurring;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heapSize == tombstoneCount;
+	}
+
+	@Override
+	public int getPlanCount() {
+		return heapSize - tombstoneCount;
+	}
+
+	@Override
+	public int getTombstoneCount() {
+		return tombstoneCount;
+	}
+
+	@Override
+	public List<Object> getPlanKeys(final ComponentId componentId) {
+		final PlanKeyMap<PlanRecord> map = planMap.get(componentId);
+		if (map == null) {
+			return new ArrayList<>();
+		}
+		return map.getKeys();
+	}
+
+}
@@ -248,6 +248,15 @@ public interface ReportsManager extends Element {
 	 */
 	public boolean hasGroupRemovalReports();
 
+	/**
+	 * A convenience method to ensure that the environment does not
+	 * unnecessarily box the previous value that needs to be passed when
+	 * reporting the assignment of a person property value.
+	 * 
+	 * @return
+	 */
+	public boolean hasPersonPropertyValueAssignmentReports();
+
 	/**
 	 * Handler for StateChange.PERSON_RESOURCE_ADDITION
 	 *
@@ -43,6 +43,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class ReportsManagerImpl extends BaseElement implements ReportsManager {
 
+	private static final long serialVersionUID = 1L;
+
 	private final Map<Report, Set<Object>> reports = new LinkedHashMap<>();
 
 	private ObservableEnvironment observableEnvironment;
@@ -315,6 +317,12 @@ public final class ReportsManagerImpl extends BaseElement implements ReportsMana
 		return (reports != null) && (reports.size() > 0);
 	}
 
+	@Override
+	public boolean hasPersonPropertyValueAssignmentReports() {
+		final Set<Report> reports = reportMap.get(StateChange.PERSON_PROPERTY_VALUE_ASSIGNMENT);
+		return (reports != null) && (reports.size() > 0);
+	}
+
 	@Override
 	public void handlePersonResourceAddition(final PersonId personId, final ResourceId resourceId, final long amount) {
 		final Set<Report> reports = reportMap.get(StateChange.PERSON_RESOURCE_ADDITION);
@@ -12,6 +12,10 @@ import gcm.util.annotations.Source;
 /**
  * Manager for all resources.
  *
+ * Person resource level queries only read the manager and may run concurrently
+ * during a parallel filter evaluation, provided that no resource levels change
+ * in the meantime.
+ *
  * @author Shawn Hatch
  *
  */
@@ -30,17 +34,28 @@ public interface ResourceManager extends Element {
 	public void decrementPersonResourceLevel(final ResourceId resourceId, final PersonId personId, final long resourceAmount);
 
 	/**
-	 * Returns a List of people who have a zero level of the resource
+	 * Returns a List of people who have a zero level of the resource, in
+	 * ascending order of person id
 	 * 
 	 * @param resourceId
 	 */
 	public List<PersonId> getPeopleWithoutResource(final ResourceId resourceId);
 	/**
-	 * Returns a List of people who have a non-zero level of the resource
+	 * Returns a List of people who have a non-zero level of the resource, in
+	 * ascending order of person id
 	 * 
 	 * @param resourceId
 	 */
 	public List<PersonId> getPeopleWithResource(final ResourceId resourceId);
+
+	/**
+	 * Returns the number of people who have a non-zero level of the resource.
+	 * Constant time for resources that are mapped to their holders.
+	 * 
+	 * @param resourceId
+	 */
+	public int getPersonCountForResource(final ResourceId resourceId);
+
 	/**
 	 * Returns the resource level for the given person and resource
 	 * 
@@ -49,6 +64,21 @@ public interface ResourceManager extends Element {
 	 */
 	public long getPersonResourceLevel(final ResourceId resourceId, final PersonId personId);
 
+	/**
+	 * Reads the resource levels of a block of 64 consecutive person id values.
+	 * Bit i of the candidates selects the person id value firstPersonIdValue
+	 * + i, whose level is stored in levels[i]. The other entries of the levels
+	 * array are left unchanged.
+	 * 
+	 * @param resourceId
+	 * @param firstPersonIdValue
+	 *            a multiple of 64
+	 * @param candidates
+	 * @param levels
+	 *            an array of length 64
+	 */
+	public void getPersonResourceLevels(final ResourceId resourceId, int firstPersonIdValue, long candidates, long[] levels);
+
 	/**
 	 * 
 	 * @param resourceId
@@ -161,4 +191,13 @@ public interface ResourceManager extends Element {
 	 */
 	public TimeTrackingPolicy getPersonResourceTimeTrackingPolicy(ResourceId resourceId);
 
+	/**
+	 * Removes the person from the mapping of resources to the people holding
+	 * them
+	 * 
+	 * @param personId
+	 *            cannot be null
+	 */
+	public void handlePersonRemoval(PersonId personId);
+
 }
@@ -1,10 +1,14 @@
 package gcm.simulation;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
 
+import gcm.scenario.MapOption;
 import gcm.scenario.MaterialsProducerId;
 import gcm.scenario.PersonId;
 import gcm.scenario.RegionId;
@@ -13,7 +17,11 @@ import gcm.scenario.Scenario;
 import gcm.scenario.TimeTrackingPolicy;
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
+import gcm.util.containers.ArrayIntSet;
+import gcm.util.containers.BitmapIntSet;
 import gcm.util.containers.DoubleValueContainer;
+import gcm.util.containers.HashIntSet;
+import gcm.util.containers.IntSet;
 import gcm.util.containers.IntValueContainer;
 
 /**
@@ -25,6 +33,8 @@ import gcm.util.containers.IntValueContainer;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class ResourceManagerImpl extends BaseElement implements ResourceManager {
 
+	private static final long serialVersionUID = 1L;
+
 	private PersonIdManager personIdManager;
 	private EventManager eventManager;
 
@@ -41,11 +51,21 @@ public final class ResourceManagerImpl extends BaseElement implements ResourceMa
 
 	private final Map<ResourceId, TimeTrackingPolicy> resourceTimeTrackingPolicies = new LinkedHashMap<>();
 
+	/*
+	 * Stores the people having a non-zero resource level keyed by the
+	 * resourceId. Key existence subject to the map options specified by the
+	 * scenario.
+	 */
+	private final Map<ResourceId, IntSet<PersonId>> resourceHolders = new LinkedHashMap<>();
+
 	/*
 	 * Static utility class for tracking component resources. Used for regions
 	 * and materials producers.
 	 */
-	private static class ComponentResourceRecord {
+	private static class ComponentResourceRecord implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private final EventManager eventManager;
 
 		public ComponentResourceRecord(EventManager eventManager) {
@@ -133,7 +153,7 @@ public final class ResourceManagerImpl extends BaseElement implements ResourceMa
 			IntValueContainer intValueContainer = new IntValueContainer(0L);
 			intValueContainer.setCapacity(suggestedPopulationSize);
 			personResourceValues.put(resourceId, intValueContainer);
-			if (resourceTimeTrackingPolicy == TimeTrackingPolicy.TRACK_TIME) {
+			if (resourceTimeTrackingPolicy.isTracked()) {
 				DoubleValueContainer doubleValueContainer = new DoubleValueContainer(0D);
 				doubleValueContainer.setCapacity(suggestedPopulationSize);
 				personResourceTimes.put(resourceId, doubleValueContainer);
@@ -145,24 +165,78 @@ public final class ResourceManagerImpl extends BaseElement implements ResourceMa
 			resourceTimeTrackingPolicies.put(resourceId, personResourceTimeTrackingPolicy);
 		}
 
+		/*
+		 * For each resource that is mapped, associate an IntSet of the people
+		 * holding the resource.
+		 */
+		final IntFunction<PersonId> personIdFactory = (IntFunction<PersonId> & Serializable) personIdManager::getBoxedPersonId;
+		for (final ResourceId resourceId : scenario.getResourceIds()) {
+			final MapOption mapOption = scenario.getResourceMapOption(resourceId);
+			switch (mapOption) {
+			case NONE:
+				break;
+			case RANGE:// fall through
+			case ARRAY:
+				resourceHolders.put(resourceId, new ArrayIntSet<>());
+				break;
+			case HASH:
+				resourceHolders.put(resourceId, new HashIntSet<>());
+				break;
+			case BITMAP:
+				resourceHolders.put(resourceId, new BitmapIntSet<>(personIdFactory));
+				break;
+			default:
+				throw new RuntimeException("unhandled map option " + mapOption);
+			}
+		}
+
 	}
 
 	@Override
 	public void decrementPersonResourceLevel(final ResourceId resourceId, final PersonId personId, final long resourceAmount) {
-		personResourceValues.get(resourceId).decrementLongValue(personId.getValue(), resourceAmount);
+		final IntValueContainer intValueContainer = personResourceValues.get(resourceId);
+		final long previousLevel = intValueContainer.getValueAsLong(personId.getValue());
+		intValueContainer.decrementLongValue(personId.getValue(), resourceAmount);
+		/*
+		 * if the resource holders are being mapped, then drop the person once
+		 * their level is no longer positive
+		 */
+		final IntSet<PersonId> holders = resourceHolders.get(resourceId);
+		if (holders != null && previousLevel > 0 && intValueContainer.getValueAsLong(personId.getValue()) <= 0) {
+			holders.remove(personId);
+		}
 		/*
 		 * if the resource assignment times are being tracked, then record the
 		 * resource time.
 		 */
 		final DoubleValueContainer doubleValueContainer = personResourceTimes.get(resourceId);
 		if (doubleValueContainer != null) {
-			doubleValueContainer.setValue(personId.getValue(), eventManager.getTime());
+			doubleValueContainer.setValue(personId.getValue(), resourceTimeTrackingPolicies.get(resourceId).getRecordedTime(eventManager.getTime()));
 		}
 	}
 
 	@Override
 	public List<PersonId> getPeopleWithoutResource(final ResourceId resourceId) {
 
+		/*
+		 * If the resource holders are mapped, we need only a single pass that
+		 * skips the holders
+		 */
+		final IntSet<PersonId> holders = resourceHolders.get(resourceId);
+		if (holders != null) {
+			final List<PersonId> result = new ArrayList<>();
+			final int n = personIdManager.getPersonIdLimit();
+			for (int personIndex = 0; personIndex < n; personIndex++) {
+				if (personIdManager.personIndexExists(personIndex)) {
+					final PersonId personId = personIdManager.getBoxedPersonId(personIndex);
+					if (!holders.contains(personId)) {
+						result.add(personId);
+					}
+				}
+			}
+			return result;
+		}
+
 		/*
 		 * First, we loop through all possible person id values and determine
 		 * the exact size of the returned list.
@@ -200,6 +274,17 @@ public final class ResourceManagerImpl extends BaseElement implements ResourceMa
 
 	@Override
 	public List<PersonId> getPeopleWithResource(final ResourceId resourceId) {
+		final IntSet<PersonId> holders = resourceHolders.get(resourceId);
+		if (holders != null) {
+			/*
+			 * The order of the holders depends on the IntSet implementor, so
+			 * we sort them into the ascending order of person id returned when
+			 * the holders are not mapped
+			 */
+			final List<PersonId> result = holders.getValues();
+			Collections.sort(result);
+			return result;
+		}
 		/*
 		 * First, we loop through all possible person id values and determine
 		 * the exact size of the returned list.
@@ -234,11 +319,40 @@ public final class ResourceManagerImpl extends BaseElement implements ResourceMa
 
 	}
 
+	@Override
+	public int getPersonCountForResource(final ResourceId resourceId) {
+		final IntSet<PersonId> holders = resourceHolders.get(resourceId);
+		if (holders != null) {
+			return holders.size();
+		}
+		int count = 0;
+		final IntValueContainer intValueContainer = personResourceValues.get(resourceId);
+		final int n = personIdManager.getPersonIdLimit();
+		for (int personIndex = 0; personIndex < n; personIndex++) {
+			if (personIdManager.personIndexExists(personIndex)) {
+				if (intValueContainer.getValueAsLong(personIndex) > 0) {
+					count++;
+				}
+			}
+		}
+		return count;
+	}
+
 	@Override
 	public long getPersonResourceLevel(final ResourceId resourceId, final PersonId personId) {
 		return personResourceValues.get(resourceId).getValueAsLong(personId.getValue());
 	}
 
+	@Override
+	public void getPersonResourceLevels(final ResourceId resourceId, int firstPersonIdValue, long candidates, final long[] levels) {
+		final IntValueContainer intValueContainer = personResourceValues.get(resourceId);
+		while (candidates != 0) {
+			final int bit = Long.numberOfTrailingZeros(candidates);
+			candidates &= candidates - 1;
+			levels[bit] = intValueContainer.getValueAsLong(firstPersonIdValue + bit);
+		}
+	}
+
 	@Override
 	public double getPersonResourceTime(final ResourceId resourceId, final PersonId personId) {
 		final DoubleValueContainer doubleValueContainer = personResourceTimes.get(resourceId);
@@ -246,15 +360,25 @@ public final class ResourceManagerImpl extends BaseElement implements ResourceMa
 	}
 
 	@Override
-	public void incrementPersonResourceLevel(final ResourceId resourceId, final PersonId personId, final long resourceAmount) {		
-		personResourceValues.get(resourceId).incrementLongValue(personId.getValue(), resourceAmount);
+	public void incrementPersonResourceLevel(final ResourceId resourceId, final PersonId personId, final long resourceAmount) {
+		final IntValueContainer intValueContainer = personResourceValues.get(resourceId);
+		final long previousLevel = intValueContainer.getValueAsLong(personId.getValue());
+		intValueContainer.incrementLongValue(personId.getValue(), resourceAmount);
+		/*
+		 * if the resource holders are being mapped, then add the person once
+		 * their level becomes positive
+		 */
+		final IntSet<PersonId> holders = resourceHolders.get(resourceId);
+		if (holders != null && previousLevel <= 0 && intValueContainer.getValueAsLong(personId.getValue()) > 0) {
+			holders.add(personId);
+		}
 		/*
 		 * if the resource assignment times are being tracked, then record the
 		 * resource time.
 		 */
 		final DoubleValueContainer doubleValueContainer = personResourceTimes.get(resourceId);
 		if (doubleValueContainer != null) {
-			doubleValueContainer.setValue(personId.getValue(), eventManager.getTime());
+			doubleValueContainer.setValue(personId.getValue(), resourceTimeTrackingPolicies.get(resourceId).getRecordedTime(eventManager.getTime()));
 		}
 	}
 
@@ -313,4 +437,11 @@ public final class ResourceManagerImpl extends BaseElement implements ResourceMa
 		return resourceTimeTrackingPolicies.get(resourceId);
 	}
 
+	@Override
+	public void handlePersonRemoval(final PersonId personId) {
+		for (final IntSet<PersonId> holders : resourceHolders.values()) {
+			holders.remove(personId);
+		}
+	}
+
 }
@@ -0,0 +1,319 @@
+package gcm.simulation;
+
+import java.util.Objects;
+
+import gcm.scenario.BatchId;
+import gcm.scenario.BatchPropertyId;
+import gcm.scenario.CompartmentId;
+import gcm.scenario.CompartmentPropertyId;
+import gcm.scenario.GlobalComponentId;
+import gcm.scenario.GlobalPropertyId;
+import gcm.scenario.GroupId;
+import gcm.scenario.GroupPropertyId;
+import gcm.scenario.GroupTypeId;
+import gcm.scenario.MaterialId;
+import gcm.scenario.MaterialsProducerId;
+import gcm.scenario.MaterialsProducerPropertyId;
+import gcm.scenario.PersonId;
+import gcm.scenario.PersonPropertyId;
+import gcm.scenario.RegionId;
+import gcm.scenario.RegionPropertyId;
+import gcm.scenario.ResourceId;
+import gcm.scenario.ResourcePropertyId;
+import gcm.scenario.Scenario;
+import gcm.scenario.StageId;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+
+/**
+ * Static utilities for comparing the content of two scenarios. Scenarios are
+ * compared by their identifiers, component classes, property definitions,
+ * initial property values, initial people, groups, batches, stages and
+ * resource levels, and their tracking and map options. Scenario ids are not
+ * compared.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = Simulation.class)
+public final class ScenarioComparison {
+
+	private ScenarioComparison() {
+	}
+
+	/**
+	 * Returns true if and only if the two scenarios have the same content,
+	 * ignoring their scenario ids
+	 */
+	public static boolean isEquivalent(final Scenario scenario1, final Scenario scenario2) {
+		return compare(scenario1, scenario2, true);
+	}
+
+	/**
+	 * Returns true if and only if the two scenarios have the same content,
+	 * ignoring their scenario ids and the values of their global properties.
+	 * The global property definitions are compared.
+	 */
+	public static boolean isEquivalentExceptGlobalPropertyValues(final Scenario scenario1, final Scenario scenario2) {
+		return compare(scenario1, scenario2, false);
+	}
+
+	private static boolean compare(final Scenario a, final Scenario b, final boolean compareGlobalPropertyValues) {
+		if (a.getSuggestedPopulationSize() != b.getSuggestedPopulationSize()) {
+			return false;
+		}
+		if (!a.getRandomNumberGeneratorIds().equals(b.getRandomNumberGeneratorIds())) {
+			return false;
+		}
+		if (!Objects.equals(a.getPersonCompartmentArrivalTrackingPolicy(), b.getPersonCompartmentArrivalTrackingPolicy())) {
+			return false;
+		}
+		if (!Objects.equals(a.getPersonRegionArrivalTrackingPolicy(), b.getPersonRegionArrivalTrackingPolicy())) {
+			return false;
+		}
+		if (!Objects.equals(a.getCompartmentMapOption(), b.getCompartmentMapOption())) {
+			return false;
+		}
+		if (!Objects.equals(a.getRegionMapOption(), b.getRegionMapOption())) {
+			return false;
+		}
+
+		// global properties and components
+		if (!a.getGlobalPropertyIds().equals(b.getGlobalPropertyIds())) {
+			return false;
+		}
+		for (final GlobalPropertyId globalPropertyId : a.<GlobalPropertyId> getGlobalPropertyIds()) {
+			if (!Objects.equals(a.getGlobalPropertyDefinition(globalPropertyId), b.getGlobalPropertyDefinition(globalPropertyId))) {
+				return false;
+			}
+			if (compareGlobalPropertyValues && !Objects.equals(a.getGlobalPropertyValue(globalPropertyId), b.getGlobalPropertyValue(globalPropertyId))) {
+				return false;
+			}
+		}
+		if (!a.getGlobalComponentIds().equals(b.getGlobalComponentIds())) {
+			return false;
+		}
+		for (final GlobalComponentId globalComponentId : a.<GlobalComponentId> getGlobalComponentIds()) {
+			if (!Objects.equals(a.getGlobalComponentClass(globalComponentId), b.getGlobalComponentClass(globalComponentId))) {
+				return false;
+			}
+		}
+
+		// compartments
+		if (!a.getCompartmentIds().equals(b.getCompartmentIds())) {
+			return false;
+		}
+		for (final CompartmentId compartmentId : a.<CompartmentId> getCompartmentIds()) {
+			if (!Objects.equals(a.getCompartmentComponentClass(compartmentId), b.getCompartmentComponentClass(compartmentId))) {
+				return false;
+			}
+			if (!a.getCompartmentPropertyIds(compartmentId).equals(b.getCompartmentPropertyIds(compartmentId))) {
+				return false;
+			}
+			for (final CompartmentPropertyId compartmentPropertyId : a.<CompartmentPropertyId> getCompartmentPropertyIds(compartmentId)) {
+				if (!Objects.equals(a.getCompartmentPropertyDefinition(compartmentId, compartmentPropertyId), b.getCompartmentPropertyDefinition(compartmentId, compartmentPropertyId))) {
+					return false;
+				}
+				if (!Objects.equals(a.getCompartmentPropertyValue(compartmentId, compartmentPropertyId), b.getCompartmentPropertyValue(compartmentId, compartmentPropertyId))) {
+					return false;
+				}
+			}
+		}
+
+		// resources
+		if (!a.getResourceIds().equals(b.getResourceIds())) {
+			return false;
+		}
+		for (final ResourceId resourceId : a.<ResourceId> getResourceIds()) {
+			if (!Objects.equals(a.getPersonResourceTimeTrackingPolicy(resourceId), b.getPersonResourceTimeTrackingPolicy(resourceId))) {
+				return false;
+			}
+			if (!Objects.equals(a.getResourceMapOption(resourceId), b.getResourceMapOption(resourceId))) {
+				return false;
+			}
+			if (!a.getResourcePropertyIds(resourceId).equals(b.getResourcePropertyIds(resourceId))) {
+				return false;
+			}
+			for (final ResourcePropertyId resourcePropertyId : a.<ResourcePropertyId> getResourcePropertyIds(resourceId)) {
+				if (!Objects.equals(a.getResourcePropertyDefinition(resourceId, resourcePropertyId), b.getResourcePropertyDefinition(resourceId, resourcePropertyId))) {
+					return false;
+				}
+				if (!Objects.equals(a.getResourcePropertyValue(resourceId, resourcePropertyId), b.getResourcePropertyValue(resourceId, resourcePropertyId))) {
+					return false;
+				}
+			}
+		}
+
+		// regions
+		if (!a.getRegionIds().equals(b.getRegionIds())) {
+			return false;
+		}
+		if (!a.getRegionPropertyIds().equals(b.getRegionPropertyIds())) {
+			return false;
+		}
+		for (final RegionPropertyId regionPropertyId : a.<RegionPropertyId> getRegionPropertyIds()) {
+			if (!Objects.equals(a.getRegionPropertyDefinition(regionPropertyId), b.getRegionPropertyDefinition(regionPropertyId))) {
+				return false;
+			}
+		}
+		for (final RegionId regionId : a.getRegionIds()) {
+			if (!Objects.equals(a.getRegionComponentClass(regionId), b.getRegionComponentClass(regionId))) {
+				return false;
+			}
+			for (final RegionPropertyId regionPropertyId : a.<RegionPropertyId> getRegionPropertyIds()) {
+				if (!Objects.equals(a.getRegionPropertyValue(regionId, regionPropertyId), b.getRegionPropertyValue(regionId, regionPropertyId))) {
+					return false;
+				}
+			}
+			for (final ResourceId resourceId : a.<ResourceId> getResourceIds()) {
+				if (!Objects.equals(a.getRegionResourceLevel(regionId, resourceId), b.getRegionResourceLevel(regionId, resourceId))) {
+					return false;
+				}
+			}
+		}
+
+		// materials producers
+		if (!a.getMaterialsProducerIds().equals(b.getMaterialsProducerIds())) {
+			return false;
+		}
+		if (!a.getMaterialsProducerPropertyIds().equals(b.getMaterialsProducerPropertyIds())) {
+			return false;
+		}
+		for (final MaterialsProducerPropertyId materialsProducerPropertyId : a.<MaterialsProducerPropertyId> getMaterialsProducerPropertyIds()) {
+			if (!Objects.equals(a.getMaterialsProducerPropertyDefinition(materialsProducerPropertyId), b.getMaterialsProducerPropertyDefinition(materialsProducerPropertyId))) {
+				return false;
+			}
+		}
+		for (final MaterialsProducerId materialsProducerId : a.<MaterialsProducerId> getMaterialsProducerIds()) {
+			if (!Objects.equals(a.getMaterialsProducerComponentClass(materialsProducerId), b.getMaterialsProducerComponentClass(materialsProducerId))) {
+				return false;
+			}
+			for (final MaterialsProducerPropertyId materialsProducerPropertyId : a.<MaterialsProducerPropertyId> getMaterialsProducerPropertyIds()) {
+				if (!Objects.equals(a.getMaterialsProducerPropertyValue(materialsProducerId, materialsProducerPropertyId),
+						b.getMaterialsProducerPropertyValue(materialsProducerId, materialsProducerPropertyId))) {
+					return false;
+				}
+			}
+			for (final ResourceId resourceId : a.<ResourceId> getResourceIds()) {
+				if (!Objects.equals(a.getMaterialsProducerResourceLevel(materialsProducerId, resourceId), b.getMaterialsProducerResourceLevel(materialsProducerId, resourceId))) {
+					return false;
+				}
+			}
+		}
+
+		// materials, batches and stages
+		if (!a.getMaterialIds().equals(b.getMaterialIds())) {
+			return false;
+		}
+		for (final MaterialId materialId : a.<MaterialId> getMaterialIds()) {
+			if (!a.getBatchPropertyIds(materialId).equals(b.getBatchPropertyIds(materialId))) {
+				return false;
+			}
+			for (final BatchPropertyId batchPropertyId : a.<BatchPropertyId> getBatchPropertyIds(materialId)) {
+				if (!Objects.equals(a.getBatchPropertyDefinition(materialId, batchPropertyId), b.getBatchPropertyDefinition(materialId, batchPropertyId))) {
+					return false;
+				}
+			}
+		}
+		if (!a.getBatchIds().equals(b.getBatchIds())) {
+			return false;
+		}
+		for (final BatchId batchId : a.getBatchIds()) {
+			final MaterialId materialId = a.getBatchMaterial(batchId);
+			if (!Objects.equals(materialId, b.getBatchMaterial(batchId))) {
+				return false;
+			}
+			if (!Objects.equals(a.getBatchMaterialsProducer(batchId), b.getBatchMaterialsProducer(batchId))) {
+				return false;
+			}
+			if (!Objects.equals(a.getBatchAmount(batchId), b.getBatchAmount(batchId))) {
+				return false;
+			}
+			for (final BatchPropertyId batchPropertyId : a.<BatchPropertyId> getBatchPropertyIds(materialId)) {
+				if (!Objects.equals(a.getBatchPropertyValue(batchId, batchPropertyId), b.getBatchPropertyValue(batchId, batchPropertyId))) {
+					return false;
+				}
+			}
+		}
+		if (!a.getStageIds().equals(b.getStageIds())) {
+			return false;
+		}
+		for (final StageId stageId : a.getStageIds()) {
+			if (!Objects.equals(a.isStageOffered(stageId), b.isStageOffered(stageId))) {
+				return false;
+			}
+			if (!Objects.equals(a.getStageMaterialsProducer(stageId), b.getStageMaterialsProducer(stageId))) {
+				return false;
+			}
+			if (!a.getStageBatches(stageId).equals(b.getStageBatches(stageId))) {
+				return false;
+			}
+		}
+
+		// people
+		if (!a.getPersonPropertyIds().equals(b.getPersonPropertyIds())) {
+			return false;
+		}
+		for (final PersonPropertyId personPropertyId : a.<PersonPropertyId> getPersonPropertyIds()) {
+			if (!Objects.equals(a.getPersonPropertyDefinition(personPropertyId), b.getPersonPropertyDefinition(personPropertyId))) {
+				return false;
+			}
+		}
+		if (!a.getPeopleIds().equals(b.getPeopleIds())) {
+			return false;
+		}
+		for (final PersonId personId : a.getPeopleIds()) {
+			if (!Objects.equals(a.getPersonCompartment(personId), b.getPersonCompartment(personId))) {
+				return false;
+			}
+			if (!Objects.equals(a.getPersonRegion(personId), b.getPersonRegion(personId))) {
+				return false;
+			}
+			for (final PersonPropertyId personPropertyId : a.<PersonPropertyId> getPersonPropertyIds()) {
+				if (!Objects.equals(a.getPersonPropertyValue(personId, personPropertyId), b.getPersonPropertyValue(personId, personPropertyId))) {
+					return false;
+				}
+			}
+			for (final ResourceId resourceId : a.<ResourceId> getResourceIds()) {
+				if (!Objects.equals(a.getPersonResourceLevel(personId, resourceId), b.getPersonResourceLevel(personId, resourceId))) {
+					return false;
+				}
+			}
+		}
+
+		// groups
+		if (!a.getGroupTypeIds().equals(b.getGroupTypeIds())) {
+			return false;
+		}
+		for (final GroupTypeId groupTypeId : a.<GroupTypeId> getGroupTypeIds()) {
+			if (!a.getGroupPropertyIds(groupTypeId).equals(b.getGroupPropertyIds(groupTypeId))) {
+				return false;
+			}
+			for (final GroupPropertyId groupPropertyId : a.<GroupPropertyId> getGroupPropertyIds(groupTypeId)) {
+				if (!Objects.equals(a.getGroupPropertyDefinition(groupTypeId, groupPropertyId), b.getGroupPropertyDefinition(groupTypeId, groupPropertyId))) {
+					return false;
+				}
+			}
+		}
+		if (!a.getGroupIds().equals(b.getGroupIds())) {
+			return false;
+		}
+		for (final GroupId groupId : a.getGroupIds()) {
+			final GroupTypeId groupTypeId = a.getGroupTypeId(groupId);
+			if (!Objects.equals(groupTypeId, b.getGroupTypeId(groupId))) {
+				return false;
+			}
+			if (!a.getGroupMembers(groupId).equals(b.getGroupMembers(groupId))) {
+				return false;
+			}
+			for (final GroupPropertyId groupPropertyId : a.<GroupPropertyId> getGroupPropertyIds(groupTypeId)) {
+				if (!Objects.equals(a.getGroupPropertyValue(groupId, groupPropertyId), b.getGroupPropertyValue(groupId, groupPropertyId))) {
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+}
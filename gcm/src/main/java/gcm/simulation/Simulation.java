@@ -1,5 +1,8 @@
 package gcm.simulation;
 
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
 import gcm.output.OutputItemHandler;
 import gcm.output.reports.NIOReportItemHandler;
 import gcm.output.simstate.SimulationStatusItem;
@@ -70,6 +73,17 @@ import net.jcip.annotations.NotThreadSafe;
  * Time halts when there are no plans and no observations left to execute.
  * Reports are closed and the simulation terminates.
  *
+ * The simulation may periodically write checkpoints of its state to a
+ * checkpoint directory. A simulation that finds a checkpoint for its scenario
+ * and replication in that directory resumes from the checkpoint rather than
+ * starting over, so an interrupted simulation loses at most one checkpoint
+ * interval of progress.
+ *
+ * A simulation may also be executed to a snapshot time, producing a
+ * {@link SimulationSnapshot} of its state. Any number of simulations may then be
+ * forked from the snapshot, each continuing from the snapshot time under its
+ * own scenario and replication rather than repeating the warm-up period.
+ *
  * Reports register for passive observation of the Environment's state and have
  * access to same information as components.
  *
@@ -99,9 +113,41 @@ public final class Simulation {
 	 * @throws RuntimeException
 	 *             <li>if no scenario was set
 	 *             <li>if no replication was set
+	 *             <li>if a checkpoint interval was set without a checkpoint
+	 *             directory
 	 * 
 	 */
 	public void execute() {
+		executeContext();
+	}
+
+	/**
+	 * Executes the simulation from the collected data until all plans due
+	 * before the snapshot time have been executed and returns a snapshot of
+	 * its state. The output item handlers are then closed as if the simulation
+	 * had ended.
+	 * 
+	 * Snapshots are taken with Java serialization, so the components, plans,
+	 * property values, plan keys and reports of the simulation must be
+	 * serializable. Snapshots are not supported in combination with
+	 * checkpoints or profile reports.
+	 * 
+	 * @throws RuntimeException
+	 *             <li>if the snapshot time is not positive
+	 *             <li>if no scenario was set
+	 *             <li>if no replication was set
+	 *             <li>if a checkpoint interval was set
+	 *             <li>if the simulation ends before the snapshot time
+	 */
+	public SimulationSnapshot executeToSnapshot(final double snapshotTime) {
+		if (!(snapshotTime > 0)) {
+			throw new RuntimeException("Snapshot time is not positive");
+		}
+		contextBuilder.setSnapshotTime(snapshotTime);
+		return executeContext().getSnapshot();
+	}
+
+	private Context executeContext() {
 
 		Context context = contextBuilder.build();
 
@@ -140,6 +186,29 @@ public final class Simulation {
 		} else {
 			context.execute();
 		}
+		return context;
+	}
+
+	/**
+	 * Sets the {@link SimulationSnapshot} from which the simulation is forked.
+	 * The simulation continues from the snapshot time without re-initializing
+	 * its components. The scenario and replication become optional and
+	 * default to those of the snapshot. A scenario that is set may differ from
+	 * the snapshot's scenario only in its scenario id and its global property
+	 * values; all definitions, component classes, people, groups, batches,
+	 * stages, initial values and options must be the same. The global
+	 * property values that the scenario sets differently from the snapshot's
+	 * scenario are assigned at the snapshot time and are observable by the
+	 * components. A replication with a different seed reseeds the random
+	 * generators of the simulation. The planning queue type and observation
+	 * coalescing of the snapshot apply. The output item handlers receive only
+	 * the output items released after the snapshot time.
+	 * 
+	 * @throws RuntimeException
+	 *             if the snapshot is null
+	 */
+	public void setSnapshot(final SimulationSnapshot snapshot) {
+		contextBuilder.setSnapshot(snapshot);
 	}
 
 	/**
@@ -172,4 +241,81 @@ public final class Simulation {
 		contextBuilder.setScenario(scenario);
 	}
 
+	/**
+	 * Sets the {@link PlanningQueueType} for the simulation instance. Defaults
+	 * to {@link PlanningQueueType#RECORD}.
+	 * 
+	 * @throws RuntimeException
+	 *             if the planning queue type is null
+	 */
+	public void setPlanningQueueType(final PlanningQueueType planningQueueType) {
+		contextBuilder.setPlanningQueueType(planningQueueType);
+	}
+
+	/**
+	 * Sets whether observations are coalesced. When true, an observation that
+	 * is identical in observer, type and arguments to an observation that has
+	 * not yet been delivered is dropped, so that an observer sees a value
+	 * change repeated within a single plan execution only once. Defaults to
+	 * false.
+	 */
+	public void setObservationCoalescing(final boolean observationCoalescing) {
+		contextBuilder.setObservationCoalescing(observationCoalescing);
+	}
+
+	/**
+	 * Sets the directory for checkpoint files. If the directory contains a
+	 * checkpoint for the scenario and replication, the simulation resumes
+	 * from that checkpoint rather than starting from time zero. Checkpoint
+	 * files are deleted when the simulation completes.
+	 * 
+	 * @throws RuntimeException
+	 *             if the checkpoint directory is null
+	 */
+	public void setCheckpointDirectory(final Path checkpointDirectory) {
+		contextBuilder.setCheckpointDirectory(checkpointDirectory);
+	}
+
+	/**
+	 * Sets the interval in days between checkpoints. A checkpoint is written
+	 * after the first plan that executes at or beyond each multiple of the
+	 * interval, once all resulting observations have been delivered. A
+	 * non-positive value turns off checkpoints. Defaults to zero.
+	 * 
+	 * Checkpoints are written with Java serialization, so the components,
+	 * plans, property values, plan keys and reports of the simulation must be
+	 * serializable. Checkpoints are not supported in combination with profile
+	 * reports.
+	 */
+	public void setCheckpointInterval(final double checkpointInterval) {
+		contextBuilder.setCheckpointInterval(checkpointInterval);
+	}
+
+	/**
+	 * Sets the fork/join pool used to test large numbers of people against
+	 * filters concurrently, such as when a population index is created. The
+	 * pool is not shut down by the simulation and may be shared with other
+	 * simulations. Without a pool, all filter tests are sequential.
+	 * 
+	 * The concurrent tests only read the state of the simulation, which does
+	 * not change while they run on the simulation's thread.
+	 * 
+	 * @throws RuntimeException
+	 *             if the pool is null
+	 */
+	public void setFilterEvaluationPool(final ForkJoinPool filterEvaluationPool) {
+		contextBuilder.setFilterEvaluationPool(filterEvaluationPool);
+	}
+
+	/**
+	 * Sets the number of people at or above which a filter test uses the
+	 * filter evaluation pool. Defaults to 65536.
+	 * 
+	 * @throws RuntimeException
+	 *             if the threshold is less than one
+	 */
+	public void setParallelFilterEvaluationThreshold(final int parallelFilterEvaluationThreshold) {
+		contextBuilder.setParallelFilterEvaluationThreshold(parallelFilterEvaluationThreshold);
+	}
+
 }
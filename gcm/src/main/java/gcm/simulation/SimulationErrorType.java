@@ -32,10 +32,14 @@ public enum SimulationErrorType {
 	NON_FINITE_MATERIAL_AMOUNT("Material amount is not finite"),
 	MATERIAL_ARITHMETIC_EXCEPTION("Material arithmetic error due to non finite sum"),
 	NEGATIVE_RESOURCE_AMOUNT("Resource amount is negative"),
+	NEGATIVE_SAMPLE_COUNT("Sample count is negative"),
+	NON_POSITIVE_PLAN_INTERVAL("Recurring plan interval is not positive"),
+	NON_FINITE_PLAN_INTERVAL("Recurring plan interval is not finite"),
 	RESOURCE_ARITHMETIC_EXCEPTION("Resource arithmetic resulting in underflow/overflow"),
 	NO_ACTIVE_COMPONENT("There is no active component"),
 	UNKNOWN_POPULATION_INDEX_KEY("No indexed population found"),
 	NON_GROUP_MEMBERSHIP("Person is not currently assigned to group"),
+	NON_WEIGHTED_POPULATION_INDEX("Population index does not have a weighting function"),
 	NULL_BATCH_ID("Null batch id"),
 	NULL_BATCH_PROPERTY_ID("Null batch property id"),
 	NULL_BATCH_PROPERTY_VALUE("Null batch property value"),
@@ -0,0 +1,97 @@
+package gcm.simulation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import gcm.replication.Replication;
+import gcm.scenario.Scenario;
+import gcm.util.annotations.Source;
+import gcm.util.annotations.TestStatus;
+import net.jcip.annotations.Immutable;
+
+/**
+ * The state of a simulation suspended at a snapshot time, produced by
+ * {@link Simulation#executeToSnapshot(double)}. Any number of simulations may be
+ * forked from a single snapshot via {@link Simulation#setSnapshot(SimulationSnapshot)},
+ * each continuing from the snapshot time under its own scenario and
+ * replication.
+ *
+ * The state is held in serialized form and is never altered, so a snapshot may
+ * be shared by forks executing on separate threads. Each fork deserializes a
+ * private copy of the state as it starts.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source(status = TestStatus.PROXY, proxy = Simulation.class)
+@Immutable
+public final class SimulationSnapshot {
+
+	private final byte[] state;
+
+	private final Scenario scenario;
+
+	private final Replication replication;
+
+	private final double time;
+
+	/*
+	 * Serializes the context, which must be suspended between plans
+	 */
+	SimulationSnapshot(final Context context, final double time) {
+		scenario = context.getScenario();
+		replication = context.getReplication();
+		this.time = time;
+		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+			objectOutputStream.writeObject(context);
+		} catch (final IOException e) {
+			throw new RuntimeException(e);
+		}
+		state = byteArrayOutputStream.toByteArray();
+	}
+
+	/*
+	 * Returns a new copy of the context held by this snapshot
+	 */
+	Context restoreContext() {
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(state))) {
+			return (Context) objectInputStream.readObject();
+		} catch (IOException | ClassNotFoundException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Returns the scenario of the simulation that produced this snapshot
+	 */
+	public Scenario getScenario() {
+		return scenario;
+	}
+
+	/**
+	 * Returns the replication of the simulation that produced this snapshot
+	 */
+	public Replication getReplication() {
+		return replication;
+	}
+
+	/**
+	 * Returns the snapshot time. All plans due before this time have been
+	 * executed and no plan due at or after this time has been executed.
+	 */
+	public double getTime() {
+		return time;
+	}
+
+	/**
+	 * Returns the size in bytes of the serialized state of the snapshot
+	 */
+	public int getSize() {
+		return state.length;
+	}
+
+}
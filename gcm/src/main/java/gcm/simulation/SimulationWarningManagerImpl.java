@@ -9,14 +9,13 @@ import gcm.output.simstate.SimulationWarningItem;
 import gcm.scenario.CompartmentId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.RegionId;
-import gcm.scenario.ReplicationId;
-import gcm.scenario.ScenarioId;
 
 public class SimulationWarningManagerImpl extends BaseElement implements SimulationWarningManager {
 
+	private static final long serialVersionUID = 1L;
+
 	private OutputItemManager outputItemManager;
-	private ReplicationId replicationId;
-	private ScenarioId scenarioId;
+	private Context context;
 	private ComponentManager componentManager;
 
 	private boolean regionMapOptionWarned;
@@ -27,9 +26,8 @@ public class SimulationWarningManagerImpl extends BaseElement implements Simulat
 	public void init(Context context) {
 		super.init(context);
 		outputItemManager = context.getOutputItemManager();
-		replicationId = context.getReplication().getId();
+		this.context = context;
 		componentManager = context.getComponentManager();
-		scenarioId = context.getScenario().getScenarioId();
 
 	}
 
@@ -111,8 +109,8 @@ public class SimulationWarningManagerImpl extends BaseElement implements Simulat
 			sb.append(FilterDisplay.getPrettyPrint(populationIndexEfficiencyWarning.getFilterInfo()));
 
 			SimulationWarningItem simulationWarningItem = SimulationWarningItem	.builder()//
-																				.setReplicationId(replicationId)//
-																				.setScenarioId(scenarioId)//
+																				.setReplicationId(context.getReplication().getId())//
+																				.setScenarioId(context.getScenario().getScenarioId())//
 																				.setWarning(sb.toString())//
 																				.build();//
 
@@ -24,4 +24,13 @@ public interface StochasticsManager extends Element {
 	 */
 	public RandomGenerator getRandomGeneratorFromId(RandomNumberGeneratorId randomNumberGeneratorId);
 
+	/**
+	 * Reseeds each {@link RandomGenerator} instance of the simulation from the
+	 * given seed in the same manner as during initialization. The instances
+	 * themselves are retained so that references held by components remain
+	 * valid. Used when a simulation forked from a snapshot continues under a
+	 * replication with a different seed.
+	 */
+	public void reseed(long seed);
+
 }
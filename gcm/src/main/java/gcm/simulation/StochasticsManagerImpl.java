@@ -20,6 +20,8 @@ import gcm.util.annotations.TestStatus;
 @Source(status = TestStatus.PROXY, proxy = EnvironmentImpl.class)
 public final class StochasticsManagerImpl extends BaseElement implements StochasticsManager {
 
+	private static final long serialVersionUID = 1L;
+
 	private Map<RandomNumberGeneratorId, RandomGenerator> randomGeneratorMap = new LinkedHashMap<>();
 
 	private RandomGenerator randomGenerator;
@@ -42,6 +44,15 @@ public final class StochasticsManagerImpl extends BaseElement implements Stochas
 		randomGenerator = new Well44497b(replicationSeed);
 	}
 
+	@Override
+	public void reseed(long seed) {
+		for (RandomNumberGeneratorId randomNumberGeneratorId : randomGeneratorMap.keySet()) {
+			String name = randomNumberGeneratorId.toString();
+			randomGeneratorMap.get(randomNumberGeneratorId).setSeed(name.hashCode() + seed);
+		}
+		randomGenerator.setSeed(seed);
+	}
+
 	@Override
 	public RandomGenerator getRandomGenerator() {
 		return randomGenerator;
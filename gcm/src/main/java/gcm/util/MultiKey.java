@@ -1,5 +1,6 @@
 package gcm.util;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -15,7 +16,7 @@ import net.jcip.annotations.NotThreadSafe;
  */
 @NotThreadSafe
 @Source
-public final class MultiKey {
+public final class MultiKey implements Serializable {
 
 	/**
 	 * A convenience builder class for MultiKey for situations where it is not
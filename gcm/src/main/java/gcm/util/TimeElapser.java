@@ -1,5 +1,7 @@
 package gcm.util;
 
+import java.io.Serializable;
+
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 
@@ -10,7 +12,9 @@ import gcm.util.annotations.TestStatus;
  *
  */
 @Source(status = TestStatus.UNEXPECTED)
-public final class TimeElapser {
+public final class TimeElapser implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private long startTime;
 
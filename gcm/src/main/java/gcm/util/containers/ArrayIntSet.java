@@ -1,5 +1,6 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,7 +15,9 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public final class ArrayIntSet<T extends IntId> implements IntSet<T> {
+public final class ArrayIntSet<T extends IntId> implements IntSet<T>, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * The general best practice bucket depth for ArrayIntSets containing
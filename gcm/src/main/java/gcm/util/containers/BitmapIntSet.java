@@ -0,0 +1,278 @@
+package gcm.util.containers;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import gcm.scenario.IntId;
+import gcm.util.annotations.Source;
+
+/**
+ * An IntSet implementor that stores the int values of its members in a
+ * compressed bitmap rather than storing the members themselves. The int values
+ * are partitioned into chunks of 65536 values by their high 16 bits. Sparse
+ * chunks hold their low 16 bits in sorted char arrays and dense chunks hold
+ * them in bitmaps of 1024 longs, so a dense set costs little more than a bit
+ * per member. Members are reconstituted from their int values by a factory
+ * supplied at construction, which must be serializable if the set is to be
+ * serialized.
+ *
+ * Values are returned in the unsigned order of their int values.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public final class BitmapIntSet<T extends IntId> implements IntSet<T>, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The cardinality above which a chunk is stored as a bitmap. A bitmap
+	 * chunk occupies 8KB, which is the size of an array chunk of this
+	 * cardinality.
+	 */
+	private static final int ARRAY_CHUNK_LIMIT = 4096;
+
+	private static final int BITMAP_LENGTH = 1024;
+
+	/*
+	 * The high 16 bits of the values in each chunk, in ascending order
+	 */
+	private int[] keys = new int[4];
+
+	/*
+	 * The chunks corresponding to the keys. Each is either a char[] array
+	 * chunk or a long[] bitmap chunk.
+	 */
+	private Object[] chunks = new Object[4];
+
+	/*
+	 * The number of values in each chunk
+	 */
+	private int[] cardinalities = new int[4];
+
+	private int chunkCount;
+
+	private int size;
+
+	private final IntFunction<T> factory;
+
+	/**
+	 * Constructs an empty BitmapIntSet that reconstitutes its members from
+	 * their int values with the given factory
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the factory is null
+	 */
+	public BitmapIntSet(final IntFunction<T> factory) {
+		if (factory == null) {
+			throw new IllegalArgumentException("null factory");
+		}
+		this.factory = factory;
+	}
+
+	/*
+	 * Returns the index of the chunk with the given key, or -(insertion
+	 * point)-1 if there is no such chunk
+	 */
+	private int getChunkIndex(final int key) {
+		return Arrays.binarySearch(keys, 0, chunkCount, key);
+	}
+
+	private void insertChunk(final int index, final int key) {
+		if (chunkCount == keys.length) {
+			final int capacity = keys.length << 1;
+			keys = Arrays.copyOf(keys, capacity);
+			chunks = Arrays.copyOf(chunks, capacity);
+			cardinalities = Arrays.copyOf(cardinalities, capacity);
+		}
+		System.arraycopy(keys, index, keys, index + 1, chunkCount - index);
+		System.arraycopy(chunks, index, chunks, index + 1, chunkCount - index);
+		System.arraycopy(cardinalities, index, cardinalities, index + 1, chunkCount - index);
+		keys[index] = key;
+		chunks[index] = new char[4];
+		cardinalities[index] = 0;
+		chunkCount++;
+	}
+
+	private void removeChunk(final int index) {
+		System.arraycopy(keys, index + 1, keys, index, chunkCount - index - 1);
+		System.arraycopy(chunks, index + 1, chunks, index, chunkCount - index - 1);
+		System.arraycopy(cardinalities, index + 1, cardinalities, index, chunkCount - index - 1);
+		chunkCount--;
+		chunks[chunkCount] = null;
+	}
+
+	private static boolean bitmapContains(final long[] bitmap, final char low) {
+		return (bitmap[low >>> 6] & (1L << low)) != 0;
+	}
+
+	private static long[] toBitmap(final char[] array, final int cardinality) {
+		final long[] bitmap = new long[BITMAP_LENGTH];
+		for (int i = 0; i < cardinality; i++) {
+			final char low = array[i];
+			bitmap[low >>> 6] |= 1L << low;
+		}
+		return bitmap;
+	}
+
+	private static char[] toArray(final long[] bitmap, final int cardinality) {
+		final char[] array = new char[cardinality];
+		int index = 0;
+		for (int i = 0; i < BITMAP_LENGTH; i++) {
+			long word = bitmap[i];
+			while (word != 0) {
+				array[index++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+				word &= word - 1;
+			}
+		}
+		return array;
+	}
+
+	@Override
+	public void add(final T t) {
+		final int value = t.getValue();
+		final int key = value >>> 16;
+		final char low = (char) value;
+		int chunkIndex = getChunkIndex(key);
+		if (chunkIndex < 0) {
+			chunkIndex = -chunkIndex - 1;
+			insertChunk(chunkIndex, key);
+		}
+		final int cardinality = cardinalities[chunkIndex];
+		final Object chunk = chunks[chunkIndex];
+		if (chunk instanceof long[]) {
+			final long[] bitmap = (long[]) chunk;
+			if (bitmapContains(bitmap, low)) {
+				return;
+			}
+			bitmap[low >>> 6] |= 1L << low;
+		} else {
+			char[] array = (char[]) chunk;
+			int index = Arrays.binarySearch(array, 0, cardinality, low);
+			if (index >= 0) {
+				return;
+			}
+			if (cardinality == ARRAY_CHUNK_LIMIT) {
+				final long[] bitmap = toBitmap(array, cardinality);
+				bitmap[low >>> 6] |= 1L << low;
+				chunks[chunkIndex] = bitmap;
+			} else {
+				index = -index - 1;
+				if (cardinality == array.length) {
+					array = Arrays.copyOf(array, Math.min(ARRAY_CHUNK_LIMIT, cardinality << 1));
+					chunks[chunkIndex] = array;
+				}
+				System.arraycopy(array, index, array, index + 1, cardinality - index);
+				array[index] = low;
+			}
+		}
+		cardinalities[chunkIndex]++;
+		size++;
+	}
+
+	@Override
+	public void remove(final T t) {
+		final int value = t.getValue();
+		final int chunkIndex = getChunkIndex(value >>> 16);
+		if (chunkIndex < 0) {
+			return;
+		}
+		final char low = (char) value;
+		final int cardinality = cardinalities[chunkIndex];
+		final Object chunk = chunks[chunkIndex];
+		if (chunk instanceof long[]) {
+			final long[] bitmap = (long[]) chunk;
+			if (!bitmapContains(bitmap, low)) {
+				return;
+			}
+			bitmap[low >>> 6] &= ~(1L << low);
+			/*
+			 * Revert to an array chunk well below the limit so that values
+			 * alternately added and removed near the limit do not force
+			 * repeated conversions
+			 */
+			if (cardinality - 1 <= ARRAY_CHUNK_LIMIT / 2) {
+				chunks[chunkIndex] = toArray(bitmap, cardinality - 1);
+			}
+		} else {
+			final char[] array = (char[]) chunk;
+			final int index = Arrays.binarySearch(array, 0, cardinality, low);
+			if (index < 0) {
+				return;
+			}
+			System.arraycopy(array, index + 1, array, index, cardinality - index - 1);
+			/*
+			 * Release the excess capacity of arrays that have shrunk to a
+			 * quarter of their length
+			 */
+			if (array.length > 4 && (cardinality - 1) << 2 <= array.length) {
+				chunks[chunkIndex] = Arrays.copyOf(array, array.length >> 1);
+			}
+		}
+		size--;
+		if (cardinality == 1) {
+			removeChunk(chunkIndex);
+		} else {
+			cardinalities[chunkIndex]--;
+		}
+	}
+
+	@Override
+	public List<T> getValues() {
+		final List<T> result = new ArrayList<>(size);
+		for (int i = 0; i < chunkCount; i++) {
+			final int high = keys[i] << 16;
+			final Object chunk = chunks[i];
+			if (chunk instanceof long[]) {
+				final long[] bitmap = (long[]) chunk;
+				for (int j = 0; j < BITMAP_LENGTH; j++) {
+					long word = bitmap[j];
+					while (word != 0) {
+						result.add(factory.apply(high | ((j << 6) + Long.numberOfTrailingZeros(word))));
+						word &= word - 1;
+					}
+				}
+			} else {
+				final char[] array = (char[]) chunk;
+				final int cardinality = cardinalities[i];
+				for (int j = 0; j < cardinality; j++) {
+					result.add(factory.apply(high | array[j]));
+				}
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(final T t) {
+		final int value = t.getValue();
+		final int chunkIndex = getChunkIndex(value >>> 16);
+		if (chunkIndex < 0) {
+			return false;
+		}
+		final char low = (char) value;
+		final Object chunk = chunks[chunkIndex];
+		if (chunk instanceof long[]) {
+			return bitmapContains((long[]) chunk, low);
+		}
+		return Arrays.binarySearch((char[]) chunk, 0, cardinalities[chunkIndex], low) >= 0;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("IntSet");
+		builder.append(getValues());
+		return builder.toString();
+	}
+
+}
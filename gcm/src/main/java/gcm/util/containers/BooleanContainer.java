@@ -1,5 +1,6 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
 import java.util.BitSet;
 
 import gcm.util.annotations.Source;
@@ -14,7 +15,10 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public final class BooleanContainer {	
+public final class BooleanContainer implements Serializable {	
+
+	private static final long serialVersionUID = 1L;
+
 	/*
 	 * The default value to return for all indexes that are greater than or
 	 * equal to the bounding index.
@@ -0,0 +1,252 @@
+package gcm.util.containers;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import gcm.util.annotations.Source;
+
+/**
+ * A container that associates non-negative int indices with Objects and
+ * returns a default value when no value has been previously set for a
+ * particular index. Distinct values are interned in a dictionary and each
+ * index stores the int code of its value in a {@link PagedIntValueContainer},
+ * so that a container holding a small number of distinct values requires
+ * approximately 1 or 2 bytes per index rather than a 4 or 8 byte object
+ * reference.
+ *
+ * Values are interned by their equals() and hashCode() methods, so an index
+ * returns the first instance equal to the value set at that index rather than
+ * the value itself. The container is therefore intended for immutable value
+ * types, such as String, whose instances are interchangeable with any equal
+ * instance. A value that is no longer held by any index is dropped from the
+ * dictionary and its code is reused. Once the number of distinct values held
+ * exceeds the cardinality limit, the dictionary is abandoned and the values are
+ * stored directly in a {@link PagedObjectValueContainer}.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public final class DictionaryValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * The default number of distinct values that may be dictionary encoded
+	 */
+	public static final int DEFAULT_CARDINALITY_LIMIT = 4096;
+
+	private final Object defaultValue;
+
+	private final int cardinalityLimit;
+
+	/*
+	 * The distinct values, indexed by code. The default value has code zero.
+	 */
+	private List<Object> dictionary = new ArrayList<>();
+
+	/*
+	 * The codes of the distinct values
+	 */
+	private Map<Object, Integer> codes = new HashMap<>();
+
+	/*
+	 * The number of indices holding each code. The default value's code is
+	 * not counted since it is never dropped.
+	 */
+	private int[] codeCounts = new int[16];
+
+	/*
+	 * The codes of dropped values, available for reuse
+	 */
+	private int[] freeCodes = new int[16];
+
+	private int freeCodeCount;
+
+	/*
+	 * The code of the value at each index. Null once the dictionary is
+	 * abandoned.
+	 */
+	private PagedIntValueContainer intValueContainer;
+
+	/*
+	 * The value at each index. Null until the dictionary is abandoned.
+	 */
+	private PagedObjectValueContainer objectValueContainer;
+
+	private final int capacity;
+
+	/**
+	 * Constructs a new DictionaryValueContainer with the given default value,
+	 * initial capacity and cardinality limit. The default value may be null.
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the capacity is negative
+	 *             <li>if the cardinality limit is less than one
+	 */
+	public DictionaryValueContainer(Object defaultValue, int capacity, int cardinalityLimit) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("negative capacity: " + capacity);
+		}
+		if (cardinalityLimit < 1) {
+			throw new IllegalArgumentException("cardinality limit " + cardinalityLimit + " is less than one");
+		}
+		this.defaultValue = defaultValue;
+		this.capacity = capacity;
+		this.cardinalityLimit = cardinalityLimit;
+		dictionary.add(defaultValue);
+		codes.put(defaultValue, 0);
+		intValueContainer = new PagedIntValueContainer(0, capacity);
+	}
+
+	/**
+	 * Constructs a new DictionaryValueContainer with the given default value
+	 * and initial capacity, using the default cardinality limit. The default
+	 * value may be null.
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the capacity is negative
+	 */
+	public DictionaryValueContainer(Object defaultValue, int capacity) {
+		this(defaultValue, capacity, DEFAULT_CARDINALITY_LIMIT);
+	}
+
+	/*
+	 * Moves every value into a PagedObjectValueContainer and releases the
+	 * dictionary
+	 */
+	private void abandonDictionary() {
+		final int size = intValueContainer.size();
+		objectValueContainer = new PagedObjectValueContainer(defaultValue, Math.max(size, capacity));
+		for (int i = 0; i < size; i++) {
+			objectValueContainer.setValue(i, dictionary.get(intValueContainer.getValueAsInt(i)));
+		}
+		intValueContainer = null;
+		dictionary = null;
+		codes = null;
+		codeCounts = null;
+		freeCodes = null;
+	}
+
+	/*
+	 * Adds the value to the dictionary, reusing the code of a dropped value if
+	 * there is one, and returns its code
+	 */
+	private int addToDictionary(Object value) {
+		final int code;
+		if (freeCodeCount > 0) {
+			code = freeCodes[--freeCodeCount];
+			dictionary.set(code, value);
+		} else {
+			code = dictionary.size();
+			dictionary.add(value);
+			if (code == codeCounts.length) {
+				codeCounts = Arrays.copyOf(codeCounts, code << 1);
+			}
+		}
+		codes.put(value, code);
+		return code;
+	}
+
+	/*
+	 * Drops the value of the code from the dictionary once no index holds it
+	 */
+	private void releaseCode(int code) {
+		if (code == 0) {
+			return;
+		}
+		if (--codeCounts[code] == 0) {
+			codes.remove(dictionary.get(code));
+			dictionary.set(code, null);
+			if (freeCodeCount == freeCodes.length) {
+				freeCodes = Arrays.copyOf(freeCodes, freeCodeCount << 1);
+			}
+			freeCodes[freeCodeCount++] = code;
+		}
+	}
+
+	/**
+	 * Sets the value at the index.
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the index is negative
+	 */
+	public void setValue(int index, Object value) {
+		if (index < 0) {
+			throw new IllegalArgumentException("negative index: " + index);
+		}
+		if (objectValueContainer == null) {
+			Integer code = codes.get(value);
+			final int oldCode = intValueContainer.getValueAsInt(index);
+			if (code == null) {
+				/*
+				 * The value at the index does not count toward the limit if
+				 * the index is its last holder
+				 */
+				int cardinality = getCardinality();
+				if (oldCode != 0 && codeCounts[oldCode] == 1) {
+					cardinality--;
+				}
+				if (cardinality < cardinalityLimit) {
+					code = addToDictionary(value);
+				} else {
+					abandonDictionary();
+				}
+			}
+			if (code != null) {
+				if (code != oldCode) {
+					intValueContainer.setIntValue(index, code);
+					if (code != 0) {
+						codeCounts[code]++;
+					}
+					releaseCode(oldCode);
+				}
+				return;
+			}
+		}
+		objectValueContainer.setValue(index, value);
+	}
+
+	/**
+	 * Returns the Object value associated with the given index. If no object
+	 * value has been associated with the index, returns the default value.
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the index is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getValue(int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException("negative index: " + index);
+		}
+		if (objectValueContainer == null) {
+			return (T) dictionary.get(intValueContainer.getValueAsInt(index));
+		}
+		return objectValueContainer.getValue(index);
+	}
+
+	/**
+	 * Returns true if and only if the values are dictionary encoded, i.e. the
+	 * number of distinct values set has not exceeded the cardinality limit.
+	 */
+	public boolean isDictionaryEncoded() {
+		return objectValueContainer == null;
+	}
+
+	/**
+	 * Returns the number of distinct values in the dictionary, including the
+	 * default value. Values that are no longer held by any index are not
+	 * counted. Returns -1 if the values are no longer dictionary encoded.
+	 */
+	public int getCardinality() {
+		if (objectValueContainer == null) {
+			return dictionary.size() - freeCodeCount;
+		}
+		return -1;
+	}
+
+}
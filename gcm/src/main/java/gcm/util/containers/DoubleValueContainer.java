@@ -1,5 +1,6 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 import gcm.util.annotations.Source;
@@ -14,7 +15,9 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public final class DoubleValueContainer {
+public final class DoubleValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/*
 	 * The array for storing the values
@@ -1,5 +1,7 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
+
 import gcm.util.annotations.Source;
 
 /**
@@ -11,7 +13,9 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public final class EnumContainer {
+public final class EnumContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/*
 	 * We store the enum values by their ord equivalents.
@@ -120,4 +124,17 @@ public final class EnumContainer {
 		return objectValueContainer.getValue(ordinal);
 	}
 
+	/**
+	 * Returns the ordinal of the value at the given index.
+	 * 
+	 * @throws IllegalArgumentException
+	 *             <li>if the index is negative
+	 */
+	public int getOrdinal(int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException("negative index: " + index);
+		}
+		return intValueContainer.getValueAsInt(index);
+	}
+
 }
\ No newline at end of file
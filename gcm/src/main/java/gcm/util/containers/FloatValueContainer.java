@@ -1,5 +1,6 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 import gcm.util.annotations.Source;
@@ -15,7 +16,7 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public final class FloatValueContainer {
+public final class FloatValueContainer implements Serializable {
 	/*
 	 * The array for storing the values
 	 */
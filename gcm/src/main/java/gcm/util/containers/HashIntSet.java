@@ -1,5 +1,6 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -14,7 +15,9 @@ import gcm.util.annotations.Source;
  * overhead per element.
  */
 @Source
-public final class HashIntSet<T extends IntId> implements IntSet<T> {
+public final class HashIntSet<T extends IntId> implements IntSet<T>, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/*
 	 * Records the maximum size the values instance set. Used to rebuild the
@@ -1,5 +1,6 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 import gcm.util.annotations.Source;
@@ -16,7 +17,9 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public final class IntValueContainer {
+public final class IntValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * An enumeration representing the four int-based primitive data types in
@@ -88,7 +91,10 @@ public final class IntValueContainer {
 	/*
 	 * SubTypeArray implementor for longs
 	 */
-	private static class LongArray implements SubTypeArray {
+	private static class LongArray implements SubTypeArray, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private long[] values;
 		private long defaultValue;
 		private int size;
@@ -174,7 +180,10 @@ public final class IntValueContainer {
 	 * SubTypeArray implementor for ints
 	 */
 
-	private static class IntArray implements SubTypeArray {
+	private static class IntArray implements SubTypeArray, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private int[] values;
 		private int defaultValue;
 		private int size;
@@ -259,7 +268,10 @@ public final class IntValueContainer {
 	/*
 	 * SubTypeArray implementor for shorts
 	 */
-	private static class ShortArray implements SubTypeArray {
+	private static class ShortArray implements SubTypeArray, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private short[] values;
 		private short defaultValue;
 		private int size;
@@ -344,7 +356,10 @@ public final class IntValueContainer {
 	/*
 	 * SubTypeArray implementor for bytes
 	 */
-	private static class ByteArray implements SubTypeArray {
+	private static class ByteArray implements SubTypeArray, Serializable {
+
+		private static final long serialVersionUID = 1L;
+
 		private byte[] values;
 		private byte defaultValue;
 		private int size;
@@ -1,5 +1,6 @@
 package gcm.util.containers;
 
+import java.io.Serializable;
 import java.util.Arrays;
 
 import gcm.util.annotations.Source;
@@ -15,7 +16,9 @@ import gcm.util.annotations.Source;
  *
  */
 @Source
-public final class ObjectValueContainer {
+public final class ObjectValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private Object[] elements;
 
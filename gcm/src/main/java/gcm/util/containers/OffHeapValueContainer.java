@@ -0,0 +1,307 @@
+package gcm.util.containers;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import gcm.util.annotations.Source;
+import gcm.util.containers.IntValueContainer.IntValueType;
+
+/**
+ * A container that maps non-negative int index values to fixed width integral
+ * values held outside of the Java heap. The width is given by an
+ * {@link IntValueType} at construction and values are stored as bytes, shorts,
+ * ints or longs accordingly. Floating point and boolean values may be stored
+ * through their bit representations.
+ *
+ * Values are held in fixed size pages of direct buffers that are allocated
+ * only when a value other than the default value is first set within them.
+ * Only the page directory resides in the heap. The memory of the buffers is
+ * freed when they are garbage collected, which {@link #close()} allows to
+ * happen before the container itself is released.
+ *
+ * Serialization copies the values into the serialized form and
+ * deserialization places them in newly allocated direct buffers.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public final class OffHeapValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The number of values in each page is 1 << PAGE_SHIFT
+	 */
+	private static final int PAGE_SHIFT = 16;
+
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	private final IntValueType intValueType;
+
+	/*
+	 * The number of bytes per value
+	 */
+	private final int width;
+
+	private final long defaultValue;
+
+	/*
+	 * The pages of values. A null page holds only the default value. Not
+	 * serialized directly since direct buffers are not serializable.
+	 */
+	private transient ByteBuffer[] pages;
+
+	/*
+	 * Holds the logical size of the container based on the highest index used
+	 * in invocations of setValue().
+	 */
+	private int size;
+
+	private int allocatedPageCount;
+
+	/**
+	 * Constructs the OffHeapValueContainer with the given value type, default
+	 * value and initial capacity. No pages are allocated until values are set.
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the value type is null
+	 *             <li>if the default value is not compatible with the value
+	 *             type
+	 *             <li>if the capacity is negative
+	 */
+	public OffHeapValueContainer(IntValueType intValueType, long defaultValue, int capacity) {
+		if (intValueType == null) {
+			throw new IllegalArgumentException("null int value type");
+		}
+		if (capacity < 0) {
+			throw new IllegalArgumentException("negative capacity: " + capacity);
+		}
+		this.intValueType = intValueType;
+		width = getWidth(intValueType);
+		validateValue(defaultValue);
+		this.defaultValue = defaultValue;
+		pages = new ByteBuffer[getPageCount(capacity)];
+	}
+
+	private static int getPageCount(int capacity) {
+		return (int) ((capacity + (long) PAGE_MASK) >>> PAGE_SHIFT);
+	}
+
+	private static int getWidth(IntValueType intValueType) {
+		switch (intValueType) {
+		case BYTE:
+			return 1;
+		case SHORT:
+			return 2;
+		case INT:
+			return 4;
+		case LONG:
+			return 8;
+		default:
+			throw new RuntimeException("unhandled int value type " + intValueType);
+		}
+	}
+
+	private void validateValue(long value) {
+		final boolean compatible;
+		switch (intValueType) {
+		case BYTE:
+			compatible = value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE;
+			break;
+		case SHORT:
+			compatible = value >= Short.MIN_VALUE && value <= Short.MAX_VALUE;
+			break;
+		case INT:
+			compatible = value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE;
+			break;
+		default:
+			compatible = true;
+			break;
+		}
+		if (!compatible) {
+			throw new IllegalArgumentException("value " + value + " is not compatible with " + intValueType);
+		}
+	}
+
+	private long getPageValue(ByteBuffer page, int offset) {
+		switch (width) {
+		case 1:
+			return page.get(offset);
+		case 2:
+			return page.getShort(offset << 1);
+		case 4:
+			return page.getInt(offset << 2);
+		default:
+			return page.getLong(offset << 3);
+		}
+	}
+
+	private void setPageValue(ByteBuffer page, int offset, long value) {
+		switch (width) {
+		case 1:
+			page.put(offset, (byte) value);
+			break;
+		case 2:
+			page.putShort(offset << 1, (short) value);
+			break;
+		case 4:
+			page.putInt(offset << 2, (int) value);
+			break;
+		default:
+			page.putLong(offset << 3, value);
+			break;
+		}
+	}
+
+	/*
+	 * Returns a new direct page filled with the default value
+	 */
+	private ByteBuffer newPage() {
+		ByteBuffer page = ByteBuffer.allocateDirect(PAGE_SIZE * width).order(ByteOrder.LITTLE_ENDIAN);
+		if (defaultValue != 0) {
+			for (int i = 0; i < PAGE_SIZE; i++) {
+				setPageValue(page, i, defaultValue);
+			}
+		}
+		return page;
+	}
+
+	/**
+	 * Returns the value at the index
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the index is negative
+	 */
+	public long getValue(int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException("negative index: " + index);
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		if (pageIndex >= pages.length) {
+			return defaultValue;
+		}
+		ByteBuffer page = pages[pageIndex];
+		if (page == null) {
+			return defaultValue;
+		}
+		return getPageValue(page, index & PAGE_MASK);
+	}
+
+	/**
+	 * Sets the value at the index
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the index is negative
+	 *             <li>if the value is not compatible with the value type of
+	 *             this container
+	 */
+	public void setValue(int index, long value) {
+		if (index < 0) {
+			throw new IllegalArgumentException("negative index: " + index);
+		}
+		validateValue(value);
+		if (index >= size) {
+			size = index + 1;
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		if (pageIndex >= pages.length) {
+			if (value == defaultValue) {
+				return;
+			}
+			pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length + (pages.length >> 2)));
+		}
+		ByteBuffer page = pages[pageIndex];
+		if (page == null) {
+			if (value == defaultValue) {
+				return;
+			}
+			page = newPage();
+			pages[pageIndex] = page;
+			allocatedPageCount++;
+		}
+		setPageValue(page, index & PAGE_MASK, value);
+	}
+
+	/**
+	 * Returns the size of this container, determined by the highest index for
+	 * which a value assignment has occurred.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the IntValueType that determines the width of the stored values
+	 */
+	public IntValueType getIntValueType() {
+		return intValueType;
+	}
+
+	/**
+	 * Returns the default value
+	 */
+	public long getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the number of pages that have been allocated to hold values.
+	 */
+	public int getAllocatedPageCount() {
+		return allocatedPageCount;
+	}
+
+	/**
+	 * Returns the number of values held by each page
+	 */
+	public static int getPageSize() {
+		return PAGE_SIZE;
+	}
+
+	/**
+	 * Releases the direct buffers holding the values of this container so that
+	 * their memory may be reclaimed by the garbage collector. The container may
+	 * not be used once it is closed. Closing a closed container has no effect.
+	 */
+	public void close() {
+		pages = null;
+		allocatedPageCount = 0;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(pages.length);
+		byte[] bytes = new byte[PAGE_SIZE * width];
+		for (ByteBuffer page : pages) {
+			out.writeBoolean(page != null);
+			if (page != null) {
+				ByteBuffer source = page.duplicate();
+				source.clear();
+				source.get(bytes);
+				out.write(bytes);
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		pages = new ByteBuffer[in.readInt()];
+		byte[] bytes = new byte[PAGE_SIZE * width];
+		for (int i = 0; i < pages.length; i++) {
+			if (in.readBoolean()) {
+				in.readFully(bytes);
+				pages[i] = ByteBuffer.allocateDirect(bytes.length).order(ByteOrder.LITTLE_ENDIAN);
+				pages[i].put(bytes);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,162 @@
+package gcm.util.containers;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import gcm.util.annotations.Source;
+
+/**
+ * A paged variant of {@link DoubleValueContainer} that maps non-negative int
+ * index values to doubles. Values are held in fixed size pages that are
+ * allocated only when a value other than the default value is first set within
+ * them, so growth never copies values and indices that have only held the
+ * default value cost nothing. Returns a default double value for every
+ * non-negative int index value until the value is explicitly set by an
+ * invocation to the set() method.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public final class PagedDoubleValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The number of values in each page is 1 << PAGE_SHIFT
+	 */
+	private static final int PAGE_SHIFT = 12;
+
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	/*
+	 * The pages of values. A null page holds only the default value.
+	 */
+	private double[][] pages;
+
+	/*
+	 * The value returned for any non-negative index that has not been set via
+	 * an invocation of setValue().
+	 */
+	private final double defaultValue;
+
+	/*
+	 * Holds the logical size of the container based on the highest index used
+	 * in invocations of setValue().
+	 */
+	private int size;
+
+	private int allocatedPageCount;
+
+	/**
+	 * Constructs the PagedDoubleValueContainer with the given default value.
+	 */
+	public PagedDoubleValueContainer(double defaultValue) {
+		this(defaultValue, 0);
+	}
+
+	/**
+	 * Constructs the PagedDoubleValueContainer with the given default value
+	 * and initial capacity. No pages are allocated until values are set.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the capacity is negative
+	 */
+	public PagedDoubleValueContainer(double defaultValue, int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("negative capacity: " + capacity);
+		}
+		this.defaultValue = defaultValue;
+		pages = new double[(int) ((capacity + (long) PAGE_MASK) >>> PAGE_SHIFT)][];
+	}
+
+	/**
+	 * Returns the value at index
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 */
+	public double getValue(int index) {
+		if (index < 0) {
+			throw new RuntimeException("index out of bounds " + index);
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		if (pageIndex >= pages.length) {
+			return defaultValue;
+		}
+		double[] page = pages[pageIndex];
+		if (page == null) {
+			return defaultValue;
+		}
+		return page[index & PAGE_MASK];
+	}
+
+	/**
+	 * Sets the value at the index to the given value
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 */
+	public void setValue(int index, double value) {
+		if (index < 0) {
+			throw new RuntimeException("index out of bounds " + index);
+		}
+		if (index >= size) {
+			size = index + 1;
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		boolean isDefaultValue = Double.doubleToLongBits(value) == Double.doubleToLongBits(defaultValue);
+		if (pageIndex >= pages.length) {
+			if (isDefaultValue) {
+				return;
+			}
+			pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length + (pages.length >> 2)));
+		}
+		double[] page = pages[pageIndex];
+		if (page == null) {
+			if (isDefaultValue) {
+				return;
+			}
+			page = new double[PAGE_SIZE];
+			if (Double.doubleToLongBits(defaultValue) != 0L) {
+				Arrays.fill(page, defaultValue);
+			}
+			pages[pageIndex] = page;
+			allocatedPageCount++;
+		}
+		page[index & PAGE_MASK] = value;
+	}
+
+	/**
+	 * Returns the size of this container, determined by the highest index for
+	 * which a value assignment has occurred.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the default value
+	 */
+	public double getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the number of pages that have been allocated to hold values
+	 * other than the default value.
+	 */
+	public int getAllocatedPageCount() {
+		return allocatedPageCount;
+	}
+
+	/**
+	 * Returns the number of values held by each page
+	 */
+	public static int getPageSize() {
+		return PAGE_SIZE;
+	}
+
+}
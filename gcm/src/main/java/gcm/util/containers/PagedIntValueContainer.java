@@ -0,0 +1,391 @@
+package gcm.util.containers;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import gcm.util.annotations.Source;
+import gcm.util.containers.IntValueContainer.IntValueType;
+
+/**
+ * A paged variant of {@link IntValueContainer} that maps non-negative int
+ * index values to bytes, shorts, ints or longs. Values are held in fixed size
+ * pages that are allocated only when a value other than the default value is
+ * first set within them, so growth never copies values and indices that have
+ * only held the default value cost nothing. Each page independently stores its
+ * values as whatever int-type logically represents the highest value in that
+ * page, so widening a value rebuilds only its page.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public final class PagedIntValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The number of values in each page is 1 << PAGE_SHIFT
+	 */
+	private static final int PAGE_SHIFT = 12;
+
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	/*
+	 * The pages, each a byte[], short[], int[] or long[] of PAGE_SIZE values.
+	 * A null page holds only the default value.
+	 */
+	private Object[] pages;
+
+	private final long defaultValue;
+
+	/*
+	 * The widest IntValueType of any page
+	 */
+	private IntValueType intValueType;
+
+	/*
+	 * Holds the logical size of the container based on the highest index used
+	 * in invocations of the set methods.
+	 */
+	private int size;
+
+	private int allocatedPageCount;
+
+	/**
+	 * Constructs the PagedIntValueContainer with the given default value.
+	 */
+	public PagedIntValueContainer(long defaultValue) {
+		this(defaultValue, 0);
+	}
+
+	/**
+	 * Constructs the PagedIntValueContainer with the given default value and
+	 * initial capacity. No pages are allocated until values are set.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the capacity is negative
+	 */
+	public PagedIntValueContainer(long defaultValue, int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("negative capacity: " + capacity);
+		}
+		this.defaultValue = defaultValue;
+		intValueType = getCompatibleType(defaultValue);
+		pages = new Object[getPageCount(capacity)];
+	}
+
+	private static int getPageCount(int capacity) {
+		return (int) ((capacity + (long) PAGE_MASK) >>> PAGE_SHIFT);
+	}
+
+	private static IntValueType getCompatibleType(long value) {
+		if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+			return IntValueType.BYTE;
+		}
+		if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+			return IntValueType.SHORT;
+		}
+		if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+			return IntValueType.INT;
+		}
+		return IntValueType.LONG;
+	}
+
+	private static IntValueType getPageType(Object page) {
+		if (page instanceof byte[]) {
+			return IntValueType.BYTE;
+		}
+		if (page instanceof short[]) {
+			return IntValueType.SHORT;
+		}
+		if (page instanceof int[]) {
+			return IntValueType.INT;
+		}
+		return IntValueType.LONG;
+	}
+
+	/*
+	 * Returns a new page of the given type filled with the value
+	 */
+	private static Object newPage(IntValueType intValueType, long value) {
+		switch (intValueType) {
+		case BYTE:
+			byte[] bytes = new byte[PAGE_SIZE];
+			Arrays.fill(bytes, (byte) value);
+			return bytes;
+		case SHORT:
+			short[] shorts = new short[PAGE_SIZE];
+			Arrays.fill(shorts, (short) value);
+			return shorts;
+		case INT:
+			int[] ints = new int[PAGE_SIZE];
+			Arrays.fill(ints, (int) value);
+			return ints;
+		default:
+			long[] longs = new long[PAGE_SIZE];
+			Arrays.fill(longs, value);
+			return longs;
+		}
+	}
+
+	private static long getPageValue(Object page, int offset) {
+		if (page instanceof byte[]) {
+			return ((byte[]) page)[offset];
+		}
+		if (page instanceof short[]) {
+			return ((short[]) page)[offset];
+		}
+		if (page instanceof int[]) {
+			return ((int[]) page)[offset];
+		}
+		return ((long[]) page)[offset];
+	}
+
+	/*
+	 * Sets the value into a page known to be of a compatible type
+	 */
+	private static void setPageValue(Object page, int offset, long value) {
+		if (page instanceof byte[]) {
+			((byte[]) page)[offset] = (byte) value;
+		} else if (page instanceof short[]) {
+			((short[]) page)[offset] = (short) value;
+		} else if (page instanceof int[]) {
+			((int[]) page)[offset] = (int) value;
+		} else {
+			((long[]) page)[offset] = value;
+		}
+	}
+
+	/*
+	 * Returns a copy of the page widened to the given type
+	 */
+	private static Object widenPage(Object page, IntValueType intValueType) {
+		Object result = newPage(intValueType, 0);
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			setPageValue(result, i, getPageValue(page, i));
+		}
+		return result;
+	}
+
+	private long getValue(int index) {
+		if (index < 0) {
+			throw new RuntimeException("index out of bounds " + index);
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		if (pageIndex >= pages.length) {
+			return defaultValue;
+		}
+		Object page = pages[pageIndex];
+		if (page == null) {
+			return defaultValue;
+		}
+		return getPageValue(page, index & PAGE_MASK);
+	}
+
+	private void setValue(int index, long value) {
+		if (index < 0) {
+			throw new RuntimeException("index out of bounds " + index);
+		}
+		if (index >= size) {
+			size = index + 1;
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		if (pageIndex >= pages.length) {
+			if (value == defaultValue) {
+				return;
+			}
+			/*
+			 * Only the page directory is copied
+			 */
+			pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length + (pages.length >> 2)));
+		}
+		Object page = pages[pageIndex];
+		if (page == null) {
+			if (value == defaultValue) {
+				return;
+			}
+			page = newPage(getCompatibleType(defaultValue), defaultValue);
+			pages[pageIndex] = page;
+			allocatedPageCount++;
+		}
+		IntValueType valueType = getCompatibleType(value);
+		if (valueType.compareTo(getPageType(page)) > 0) {
+			page = widenPage(page, valueType);
+			pages[pageIndex] = page;
+			if (valueType.compareTo(intValueType) > 0) {
+				intValueType = valueType;
+			}
+		}
+		setPageValue(page, index & PAGE_MASK, value);
+	}
+
+	private static void validateCompatibility(IntValueType intValueType, long value) {
+		if (getCompatibleType(value).compareTo(intValueType) > 0) {
+			throw new RuntimeException("incompatible value found " + value);
+		}
+	}
+
+	/**
+	 * Returns the default value as a byte.
+	 *
+	 * @throws RuntimeException
+	 *             if the default value is not compatible with byte
+	 */
+	public byte getDefaultValueAsByte() {
+		validateCompatibility(IntValueType.BYTE, defaultValue);
+		return (byte) defaultValue;
+	}
+
+	/**
+	 * Returns the default value as a short.
+	 *
+	 * @throws RuntimeException
+	 *             if the default value is not compatible with short
+	 */
+	public short getDefaultValueAsShort() {
+		validateCompatibility(IntValueType.SHORT, defaultValue);
+		return (short) defaultValue;
+	}
+
+	/**
+	 * Returns the default value as an int.
+	 *
+	 * @throws RuntimeException
+	 *             if the default value is not compatible with int
+	 */
+	public int getDefaultValueAsInt() {
+		validateCompatibility(IntValueType.INT, defaultValue);
+		return (int) defaultValue;
+	}
+
+	/**
+	 * Returns the default value as a long.
+	 */
+	public long getDefaultValueAsLong() {
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the value at index as a byte.
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 *             <li>if the value to return is not compatible with byte
+	 */
+	public byte getValueAsByte(int index) {
+		long result = getValue(index);
+		validateCompatibility(IntValueType.BYTE, result);
+		return (byte) result;
+	}
+
+	/**
+	 * Returns the value at index as a short.
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 *             <li>if the value to return is not compatible with short
+	 */
+	public short getValueAsShort(int index) {
+		long result = getValue(index);
+		validateCompatibility(IntValueType.SHORT, result);
+		return (short) result;
+	}
+
+	/**
+	 * Returns the value at index as an int.
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 *             <li>if the value to return is not compatible with int
+	 */
+	public int getValueAsInt(int index) {
+		long result = getValue(index);
+		validateCompatibility(IntValueType.INT, result);
+		return (int) result;
+	}
+
+	/**
+	 * Returns the value at index as a long.
+	 *
+	 * @throws RuntimeException
+	 *             if index < 0
+	 */
+	public long getValueAsLong(int index) {
+		return getValue(index);
+	}
+
+	/**
+	 * Sets the value at the index to the given byte
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 */
+	public void setByteValue(int index, byte value) {
+		setValue(index, value);
+	}
+
+	/**
+	 * Sets the value at the index to the given short
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 */
+	public void setShortValue(int index, short value) {
+		setValue(index, value);
+	}
+
+	/**
+	 * Sets the value at the index to the given int
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 */
+	public void setIntValue(int index, int value) {
+		setValue(index, value);
+	}
+
+	/**
+	 * Sets the value at the index to the given long
+	 *
+	 * @throws RuntimeException
+	 *             <li>if index < 0
+	 */
+	public void setLongValue(int index, long value) {
+		setValue(index, value);
+	}
+
+	/**
+	 * Returns the size of this container, determined by the highest index for
+	 * which a value assignment has occurred.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the IntValueType of the widest page in this container. Pages are
+	 * never narrowed, so this is the widest IntValueType required by any value
+	 * set since the page was allocated.
+	 */
+	public IntValueType getIntValueType() {
+		return intValueType;
+	}
+
+	/**
+	 * Returns the number of pages that have been allocated to hold values
+	 * other than the default value.
+	 */
+	public int getAllocatedPageCount() {
+		return allocatedPageCount;
+	}
+
+	/**
+	 * Returns the number of values held by each page
+	 */
+	public static int getPageSize() {
+		return PAGE_SIZE;
+	}
+
+}
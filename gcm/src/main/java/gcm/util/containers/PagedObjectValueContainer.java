@@ -0,0 +1,128 @@
+package gcm.util.containers;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import gcm.util.annotations.Source;
+
+/**
+ * A paged variant of {@link ObjectValueContainer} that associates
+ * non-negative int indices with Objects and returns a default value when no
+ * value has been previously set for a particular index. Values are held in
+ * fixed size pages that are allocated only when a value other than the default
+ * value is first set within them, so growth never copies values and indices
+ * that have only held the default value cost nothing.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public final class PagedObjectValueContainer implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/*
+	 * The number of values in each page is 1 << PAGE_SHIFT
+	 */
+	private static final int PAGE_SHIFT = 12;
+
+	private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+	/*
+	 * The pages of values. A null page holds only the default value.
+	 */
+	private Object[][] pages;
+
+	private final Object defaultValue;
+
+	private int allocatedPageCount;
+
+	/**
+	 * Constructs a new PagedObjectValueContainer with the given default value
+	 * and initial capacity. The default value may be null. No pages are
+	 * allocated until values are set.
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if capacity is negative
+	 */
+	public PagedObjectValueContainer(Object defaultValue, int capacity) {
+		if (capacity < 0) {
+			throw new IllegalArgumentException("negative capacity: " + capacity);
+		}
+		this.defaultValue = defaultValue;
+		pages = new Object[(int) ((capacity + (long) PAGE_MASK) >>> PAGE_SHIFT)][];
+	}
+
+	/**
+	 * Sets the value at the index.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the index is negative
+	 */
+	public void setValue(int index, Object value) {
+		if (index < 0) {
+			throw new IllegalArgumentException("negative index: " + index);
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		if (pageIndex >= pages.length) {
+			if (value == defaultValue) {
+				return;
+			}
+			pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length + (pages.length >> 2)));
+		}
+		Object[] page = pages[pageIndex];
+		if (page == null) {
+			if (value == defaultValue) {
+				return;
+			}
+			page = new Object[PAGE_SIZE];
+			if (defaultValue != null) {
+				Arrays.fill(page, defaultValue);
+			}
+			pages[pageIndex] = page;
+			allocatedPageCount++;
+		}
+		page[index & PAGE_MASK] = value;
+	}
+
+	/**
+	 * Returns the Object value associated with the given index. If no object
+	 * value has been associated with the index, returns the default value.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the index is negative
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T getValue(int index) {
+		if (index < 0) {
+			throw new IllegalArgumentException("negative index: " + index);
+		}
+		int pageIndex = index >>> PAGE_SHIFT;
+		if (pageIndex >= pages.length) {
+			return (T) defaultValue;
+		}
+		Object[] page = pages[pageIndex];
+		if (page == null) {
+			return (T) defaultValue;
+		}
+		return (T) page[index & PAGE_MASK];
+	}
+
+	/**
+	 * Returns the number of pages that have been allocated to hold values
+	 * other than the default value.
+	 */
+	public int getAllocatedPageCount() {
+		return allocatedPageCount;
+	}
+
+	/**
+	 * Returns the number of values held by each page
+	 */
+	public static int getPageSize() {
+		return PAGE_SIZE;
+	}
+
+}
@@ -0,0 +1,386 @@
+package gcm.util.containers;
+
+import java.io.Serializable;
+
+import gcm.util.annotations.Source;
+
+/**
+ * An order statistic index of non-negative int values, each associated with a
+ * long key. Values are ordered by key and then by value. Counting the values
+ * whose keys fall in a range and selecting the value at a given position in
+ * the ordering run in logarithmic time. Listing the values at a range of
+ * positions runs in logarithmic time plus the length of the range.
+ *
+ * The index is a treap held in parallel arrays that are indexed by the values
+ * themselves, so it is best suited to dense values such as person ids and
+ * costs roughly 24 bytes per value of capacity. Node priorities are derived
+ * from a hash of the value rather than from a random source, so the shape of
+ * the tree depends only on its contents.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@Source
+public final class RangeIndex implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int NULL = -1;
+
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/*
+	 * The key of each value
+	 */
+	private long[] keys;
+
+	/*
+	 * The tree links of each value. NULL denotes no link.
+	 */
+	private int[] left;
+
+	private int[] right;
+
+	private int[] parent;
+
+	/*
+	 * The number of nodes in the subtree rooted at each value. A value is
+	 * contained in the index if and only if its subtree size is positive.
+	 */
+	private int[] sizes;
+
+	private int root = NULL;
+
+	/**
+	 * Constructs an empty RangeIndex
+	 */
+	public RangeIndex() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructs an empty RangeIndex sized to hold the values [0,
+	 * initialCapacity) without growth
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the initial capacity is negative
+	 */
+	public RangeIndex(final int initialCapacity) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("negative initial capacity: " + initialCapacity);
+		}
+		allocate(Math.max(initialCapacity, 1));
+	}
+
+	private void allocate(final int capacity) {
+		keys = new long[capacity];
+		left = new int[capacity];
+		right = new int[capacity];
+		parent = new int[capacity];
+		sizes = new int[capacity];
+	}
+
+	private void ensureCapacity(final int value) {
+		if (value < sizes.length) {
+			return;
+		}
+		int capacity = sizes.length;
+		while (capacity <= value) {
+			capacity = capacity + (capacity >> 1) + 1;
+			if (capacity < 0) {
+				capacity = Integer.MAX_VALUE;
+			}
+		}
+		final long[] oldKeys = keys;
+		final int[] oldLeft = left;
+		final int[] oldRight = right;
+		final int[] oldParent = parent;
+		final int[] oldSizes = sizes;
+		allocate(capacity);
+		System.arraycopy(oldKeys, 0, keys, 0, oldKeys.length);
+		System.arraycopy(oldLeft, 0, left, 0, oldLeft.length);
+		System.arraycopy(oldRight, 0, right, 0, oldRight.length);
+		System.arraycopy(oldParent, 0, parent, 0, oldParent.length);
+		System.arraycopy(oldSizes, 0, sizes, 0, oldSizes.length);
+	}
+
+	private static int priority(final int value) {
+		int h = value * 0x9E3779B9;
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		return h ^ (h >>> 13);
+	}
+
+	private static boolean hasHigherPriority(final int a, final int b) {
+		final int priorityA = priority(a);
+		final int priorityB = priority(b);
+		if (priorityA != priorityB) {
+			return priorityA > priorityB;
+		}
+		return a < b;
+	}
+
+	private int sizeOf(final int node) {
+		if (node == NULL) {
+			return 0;
+		}
+		return sizes[node];
+	}
+
+	private void updateSize(final int node) {
+		sizes[node] = 1 + sizeOf(left[node]) + sizeOf(right[node]);
+	}
+
+	/*
+	 * Returns true if and only if the value with the given key is ordered
+	 * before the node
+	 */
+	private boolean precedes(final long key, final int value, final int node) {
+		final long nodeKey = keys[node];
+		if (key != nodeKey) {
+			return key < nodeKey;
+		}
+		return value < node;
+	}
+
+	/*
+	 * Rotates the node above its parent, preserving the ordering
+	 */
+	private void rotateUp(final int node) {
+		final int p = parent[node];
+		final int g = parent[p];
+		if (left[p] == node) {
+			final int b = right[node];
+			left[p] = b;
+			if (b != NULL) {
+				parent[b] = p;
+			}
+			right[node] = p;
+		} else {
+			final int b = left[node];
+			right[p] = b;
+			if (b != NULL) {
+				parent[b] = p;
+			}
+			left[node] = p;
+		}
+		parent[p] = node;
+		parent[node] = g;
+		if (g == NULL) {
+			root = node;
+		} else if (left[g] == p) {
+			left[g] = node;
+		} else {
+			right[g] = node;
+		}
+		updateSize(p);
+		updateSize(node);
+	}
+
+	/**
+	 * Returns true if and only if the value is contained in the index
+	 */
+	public boolean contains(final int value) {
+		return value >= 0 && value < sizes.length && sizes[value] > 0;
+	}
+
+	/**
+	 * Returns the number of values contained in the index
+	 */
+	public int size() {
+		return sizeOf(root);
+	}
+
+	/**
+	 * Returns the key of the value
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the value is not contained in the index
+	 */
+	public long getKey(final int value) {
+		if (!contains(value)) {
+			throw new IllegalArgumentException("value not contained: " + value);
+		}
+		return keys[value];
+	}
+
+	/**
+	 * Adds the value with the given key, replacing the key of the value if it
+	 * is already contained in the index
+	 *
+	 * @throws IllegalArgumentException
+	 *             <li>if the value is negative
+	 */
+	public void add(final int value, final long key) {
+		if (value < 0) {
+			throw new IllegalArgumentException("negative value: " + value);
+		}
+		ensureCapacity(value);
+		if (sizes[value] > 0) {
+			if (keys[value] == key) {
+				return;
+			}
+			remove(value);
+		}
+		keys[value] = key;
+		left[value] = NULL;
+		right[value] = NULL;
+		sizes[value] = 1;
+		if (root == NULL) {
+			parent[value] = NULL;
+			root = value;
+			return;
+		}
+		int node = root;
+		while (true) {
+			sizes[node]++;
+			if (precedes(key, value, node)) {
+				if (left[node] == NULL) {
+					left[node] = value;
+					break;
+				}
+				node = left[node];
+			} else {
+				if (right[node] == NULL) {
+					right[node] = value;
+					break;
+				}
+				node = right[node];
+			}
+		}
+		parent[value] = node;
+		while (parent[value] != NULL && hasHigherPriority(value, parent[value])) {
+			rotateUp(value);
+		}
+	}
+
+	/**
+	 * Removes the value from the index. Has no effect if the value is not
+	 * contained in the index.
+	 */
+	public void remove(final int value) {
+		if (!contains(value)) {
+			return;
+		}
+		/*
+		 * Rotate the value down to a leaf, preserving the heap ordering of the
+		 * priorities, and then detach it
+		 */
+		while (left[value] != NULL || right[value] != NULL) {
+			final int child;
+			if (left[value] == NULL) {
+				child = right[value];
+			} else if (right[value] == NULL) {
+				child = left[value];
+			} else if (hasHigherPriority(left[value], right[value])) {
+				child = left[value];
+			} else {
+				child = right[value];
+			}
+			rotateUp(child);
+		}
+		final int p = parent[value];
+		if (p == NULL) {
+			root = NULL;
+		} else {
+			if (left[p] == value) {
+				left[p] = NULL;
+			} else {
+				right[p] = NULL;
+			}
+			for (int node = p; node != NULL; node = parent[node]) {
+				sizes[node]--;
+			}
+		}
+		parent[value] = NULL;
+		sizes[value] = 0;
+	}
+
+	/**
+	 * Returns the number of values whose keys are less than the given key.
+	 * Values whose keys are equal to the given key are included if inclusive
+	 * is true.
+	 */
+	public int rank(final long key, final boolean inclusive) {
+		int result = 0;
+		int node = root;
+		while (node != NULL) {
+			final long nodeKey = keys[node];
+			if (nodeKey < key || (inclusive && nodeKey == key)) {
+				result += sizeOf(left[node]) + 1;
+				node = right[node];
+			} else {
+				node = left[node];
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the value at the given zero-based position in the ordering of
+	 * the values
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             <li>if the position is negative or not less than the size of
+	 *             the index
+	 */
+	public int select(int position) {
+		if (position < 0 || position >= size()) {
+			throw new IndexOutOfBoundsException("position " + position + " is not in [0," + size() + ")");
+		}
+		int node = root;
+		while (true) {
+			final int leftSize = sizeOf(left[node]);
+			if (position < leftSize) {
+				node = left[node];
+			} else if (position == leftSize) {
+				return node;
+			} else {
+				position -= leftSize + 1;
+				node = right[node];
+			}
+		}
+	}
+
+	private int successor(int node) {
+		if (right[node] != NULL) {
+			node = right[node];
+			while (left[node] != NULL) {
+				node = left[node];
+			}
+			return node;
+		}
+		int p = parent[node];
+		while (p != NULL && right[p] == node) {
+			node = p;
+			p = parent[p];
+		}
+		return p;
+	}
+
+	/**
+	 * Returns the values at the positions [fromPosition, toPosition) in the
+	 * ordering of the values
+	 *
+	 * @throws IndexOutOfBoundsException
+	 *             <li>if fromPosition is negative
+	 *             <li>if toPosition exceeds the size of the index
+	 *             <li>if fromPosition exceeds toPosition
+	 */
+	public int[] getValues(final int fromPosition, final int toPosition) {
+		if (fromPosition < 0 || toPosition > size() || fromPosition > toPosition) {
+			throw new IndexOutOfBoundsException("positions [" + fromPosition + "," + toPosition + ") are not within [0," + size() + ")");
+		}
+		final int[] result = new int[toPosition - fromPosition];
+		if (result.length == 0) {
+			return result;
+		}
+		int node = select(fromPosition);
+		for (int i = 0; i < result.length; i++) {
+			result[i] = node;
+			node = successor(node);
+		}
+		return result;
+	}
+
+}
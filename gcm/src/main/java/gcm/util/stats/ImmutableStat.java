@@ -1,5 +1,6 @@
 package gcm.util.stats;
 
+import java.io.Serializable;
 import java.util.Optional;
 
 import gcm.util.annotations.Source;
@@ -16,7 +17,9 @@ import net.jcip.annotations.ThreadSafe;
  */
 @ThreadSafe
 @Source(status = TestStatus.UNEXPECTED)
-public final class ImmutableStat implements Stat {
+public final class ImmutableStat implements Stat, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	/**
 	 * A container for collecting the five characteristics of a Stat
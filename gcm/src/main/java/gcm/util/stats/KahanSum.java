@@ -1,5 +1,7 @@
 package gcm.util.stats;
 
+import java.io.Serializable;
+
 import gcm.util.annotations.Source;
 import gcm.util.annotations.TestStatus;
 
@@ -11,7 +13,9 @@ import gcm.util.annotations.TestStatus;
  *
  */
 @Source(status = TestStatus.UNEXPECTED)
-public final class KahanSum {
+public final class KahanSum implements Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	private double sum;
 
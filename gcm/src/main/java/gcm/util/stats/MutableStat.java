@@ -1,5 +1,6 @@
 package gcm.util.stats;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Optional;
 
@@ -19,7 +20,9 @@ import net.jcip.annotations.NotThreadSafe;
  */
 @NotThreadSafe
 @Source
-public final class MutableStat implements Stat {
+public final class MutableStat implements Stat, Serializable {
+
+	private static final long serialVersionUID = 1L;
 
 	public static Stat combineStatsCollection(Collection<? extends Stat> stats) {
 		Stat[] result = new Stat[stats.size()];
@@ -6,7 +6,9 @@ import org.junit.runners.Suite;
 import gcm.test.automated.AT_AbstractComponent;
 import gcm.test.automated.AT_ActionType;
 import gcm.test.automated.AT_ArrayIntSet;
+import gcm.test.automated.AT_BitmapIntSet;
 import gcm.test.automated.AT_BooleanContainer;
+import gcm.test.automated.AT_DictionaryValueContainer;
 import gcm.test.automated.AT_DimensionTree;
 import gcm.test.automated.AT_DoubleValueContainer;
 import gcm.test.automated.AT_ECC;
@@ -37,6 +39,7 @@ import gcm.test.automated.AT_EnvironmentImpl_22;
 import gcm.test.automated.AT_EnvironmentImpl_23;
 import gcm.test.automated.AT_Equality;
 import gcm.test.automated.AT_ExperimentBuilder;
+import gcm.test.automated.AT_FilterEvaluator;
 import gcm.test.automated.AT_Filters;
 import gcm.test.automated.AT_FloatValueContainer;
 import gcm.test.automated.AT_GraphPathSolver;
@@ -53,14 +56,21 @@ import gcm.test.automated.AT_MemoryReportItem;
 import gcm.test.automated.AT_MultiKey;
 import gcm.test.automated.AT_MutableStat;
 import gcm.test.automated.AT_ObjectValueContainer;
+import gcm.test.automated.AT_OffHeapValueContainer;
+import gcm.test.automated.AT_PagedDoubleValueContainer;
+import gcm.test.automated.AT_PagedFloatValueContainer;
+import gcm.test.automated.AT_PagedIntValueContainer;
+import gcm.test.automated.AT_PagedObjectValueContainer;
 import gcm.test.automated.AT_PlanningQueueReportItem;
 import gcm.test.automated.AT_PropertyDefinition;
+import gcm.test.automated.AT_RangeIndex;
 import gcm.test.automated.AT_ReplicationImpl;
 import gcm.test.automated.AT_ReportPeriod;
 import gcm.test.automated.AT_Simulation;
 import gcm.test.automated.AT_SimulationErrorType;
 import gcm.test.automated.AT_StateChange;
 import gcm.test.automated.AT_StochasticPersonSelection;
+import gcm.test.automated.AT_StorageOption;
 import gcm.test.automated.AT_StructuredScenarioBuilder;
 import gcm.test.automated.AT_TimeTrackingPolicy;
 import gcm.test.automated.AT_UnstructuredScenarioBuilder;
@@ -106,17 +116,27 @@ import gcm.test.automated.AT_Vector3D;
 	AT_EnvironmentImpl_23.class,
 	AT_MultiKey.class,
 	AT_Filters.class,
+	AT_FilterEvaluator.class,
 	AT_IntValueContainer.class,
 	AT_DoubleValueContainer.class,
 	AT_BooleanContainer.class,
 	AT_FloatValueContainer.class,
 	AT_ArrayIntSet.class,
 	AT_HashIntSet.class,
+	AT_BitmapIntSet.class,
+	AT_RangeIndex.class,
 	AT_ObjectValueContainer.class,
+	AT_DictionaryValueContainer.class,
+	AT_PagedIntValueContainer.class,
+	AT_PagedDoubleValueContainer.class,
+	AT_PagedFloatValueContainer.class,
+	AT_PagedObjectValueContainer.class,
+	AT_OffHeapValueContainer.class,
 	AT_EnumContainer.class,
 	AT_StructuredScenarioBuilder.class,
 	AT_UnstructuredScenarioBuilder.class,	
 	AT_TimeTrackingPolicy.class,
+	AT_StorageOption.class,
 	AT_ReportPeriod.class,
 	AT_StateChange.class,
 	AT_MapOption.class,
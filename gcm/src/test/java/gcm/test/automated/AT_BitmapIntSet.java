@@ -0,0 +1,279 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+
+import gcm.scenario.PersonId;
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.BitmapIntSet;
+import gcm.util.containers.IntSet;
+
+/**
+ * Test class for {@link BitmapIntSet}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = BitmapIntSet.class)
+public class AT_BitmapIntSet {
+
+	private static final IntFunction<PersonId> FACTORY = (IntFunction<PersonId> & Serializable) PersonId::new;
+
+	private static Set<PersonId> getPersonIds(Integer... values) {
+		Set<PersonId> result = new LinkedHashSet<>();
+		for (Integer value : values) {
+			result.add(new PersonId(value));
+		}
+		return result;
+	}
+
+	/**
+	 * Test for {@link BitmapIntSet#add(gcm.scenario.IntId)}
+	 */
+	@Test
+	public void testAdd() {
+
+		Set<PersonId> personIds = getPersonIds(45, 18, 23, 66);
+		IntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		for (PersonId personId : personIds) {
+			intSet.add(personId);
+		}
+		intSet.add(new PersonId(45));
+		assertEquals(4, intSet.size());
+		assertEquals(personIds, new LinkedHashSet<>(intSet.getValues()));
+
+		/*
+		 * Show that a chunk holding more values than an array chunk may hold
+		 * is converted to a bitmap without loss
+		 */
+		intSet = new BitmapIntSet<>(FACTORY);
+		Set<PersonId> expected = new LinkedHashSet<>();
+		for (int i = 0; i < 10000; i++) {
+			PersonId personId = new PersonId(65536 + i * 3);
+			intSet.add(personId);
+			expected.add(personId);
+		}
+		intSet.add(new PersonId(65536));
+		assertEquals(expected.size(), intSet.size());
+		assertEquals(expected, new LinkedHashSet<>(intSet.getValues()));
+	}
+
+	/**
+	 * Test for {@link BitmapIntSet#remove(gcm.scenario.IntId)}
+	 */
+	@Test
+	public void testRemove() {
+		IntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		intSet.add(new PersonId(300));
+		intSet.add(new PersonId(-67));
+		intSet.add(new PersonId(-4));
+		intSet.add(new PersonId(687));
+		intSet.add(new PersonId(213));
+		assertEquals(getPersonIds(300, -67, -4, 687, 213), new LinkedHashSet<>(intSet.getValues()));
+
+		// nothing should change since 100 is not contained
+		intSet.remove(new PersonId(100));
+		assertEquals(getPersonIds(300, -67, -4, 687, 213), new LinkedHashSet<>(intSet.getValues()));
+
+		intSet.remove(new PersonId(-4));
+		assertEquals(getPersonIds(300, -67, 687, 213), new LinkedHashSet<>(intSet.getValues()));
+
+		intSet.remove(new PersonId(213));
+		assertEquals(getPersonIds(300, -67, 687), new LinkedHashSet<>(intSet.getValues()));
+
+		intSet.remove(new PersonId(300));
+		assertEquals(getPersonIds(-67, 687), new LinkedHashSet<>(intSet.getValues()));
+
+		intSet.remove(new PersonId(687));
+		assertEquals(getPersonIds(-67), new LinkedHashSet<>(intSet.getValues()));
+
+		intSet.remove(new PersonId(-67));
+		assertEquals(getPersonIds(), new LinkedHashSet<>(intSet.getValues()));
+
+		/*
+		 * Show that removals from a bitmap chunk, including those that
+		 * convert it back to an array chunk, leave the set consistent
+		 */
+		Random random = new Random(7823461902374L);
+		intSet = new BitmapIntSet<>(FACTORY);
+		List<PersonId> personIds = new ArrayList<>();
+		for (int i = 0; i < 8000; i++) {
+			PersonId personId = new PersonId(i);
+			personIds.add(personId);
+			intSet.add(personId);
+		}
+		Collections.shuffle(personIds, random);
+		Set<PersonId> expected = new LinkedHashSet<>(personIds);
+		for (int i = 0; i < personIds.size(); i++) {
+			PersonId personId = personIds.get(i);
+			intSet.remove(personId);
+			expected.remove(personId);
+			assertFalse(intSet.contains(personId));
+			if (i % 500 == 0) {
+				assertEquals(expected.size(), intSet.size());
+				assertEquals(expected, new LinkedHashSet<>(intSet.getValues()));
+			}
+		}
+		assertEquals(0, intSet.size());
+		assertTrue(intSet.getValues().isEmpty());
+	}
+
+	/**
+	 * Test for {@link BitmapIntSet#getValues()}
+	 */
+	@Test
+	public void testGetValues() {
+
+		// Select 500 random values from 0..999
+		Random random = new Random(3453763452345345L);
+		List<PersonId> personIds = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			personIds.add(new PersonId(i));
+		}
+		Collections.shuffle(personIds, random);
+		List<PersonId> selectedPersonIds = new ArrayList<>();
+		for (int i = 0; i < 500; i++) {
+			selectedPersonIds.add(personIds.get(i));
+		}
+
+		// Add the selected values to an IntSet
+		IntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		for (PersonId selectedValue : selectedPersonIds) {
+			intSet.add(selectedValue);
+		}
+
+		// show that the values are returned in ascending order
+		List<PersonId> expected = new ArrayList<>(selectedPersonIds);
+		Collections.sort(expected, (a, b) -> Integer.compare(a.getValue(), b.getValue()));
+		assertEquals(expected, intSet.getValues());
+
+		// show that negative values follow non-negative values
+		intSet = new BitmapIntSet<>(FACTORY);
+		intSet.add(new PersonId(-1));
+		intSet.add(new PersonId(Integer.MIN_VALUE));
+		intSet.add(new PersonId(Integer.MAX_VALUE));
+		intSet.add(new PersonId(0));
+		List<PersonId> values = intSet.getValues();
+		assertEquals(new PersonId(0), values.get(0));
+		assertEquals(new PersonId(Integer.MAX_VALUE), values.get(1));
+		assertEquals(new PersonId(Integer.MIN_VALUE), values.get(2));
+		assertEquals(new PersonId(-1), values.get(3));
+	}
+
+	/**
+	 * Test for {@link BitmapIntSet#size()}
+	 */
+	@Test
+	public void testSize() {
+
+		Random random = new Random(3453763452345345L);
+		List<PersonId> personIds = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			personIds.add(new PersonId(i));
+		}
+		Collections.shuffle(personIds, random);
+
+		// first test that when there are no duplicates that the size of the
+		// IntSet matches the number of values.
+		IntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		for (PersonId value : personIds) {
+			intSet.add(value);
+		}
+		assertEquals(personIds.size(), intSet.size());
+
+		// Test that when there are duplicates the size of the
+		// IntSet matches the number of values
+		intSet = new BitmapIntSet<>(FACTORY);
+		for (PersonId personId : personIds) {
+			intSet.add(personId);
+		}
+		for (PersonId personId : personIds) {
+			intSet.add(personId);
+		}
+		assertEquals(personIds.size(), intSet.size());
+
+	}
+
+	/**
+	 * Test for {@link BitmapIntSet constructors}
+	 */
+	@Test
+	public void testConstructors() {
+		IntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		assertEquals(0, intSet.size());
+
+		// precondition : if the factory is null
+		assertException(() -> new BitmapIntSet<PersonId>(null), IllegalArgumentException.class);
+	}
+
+	/**
+	 * Test for {@link BitmapIntSet#contains(gcm.scenario.IntId)}
+	 */
+	@Test
+	public void testContains() {
+
+		Set<PersonId> personIds = getPersonIds(1, 4, 5, 7, 12, 14, 16, 17, 22, 23, 28, 70000);
+
+		IntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		for (PersonId personId : personIds) {
+			intSet.add(personId);
+		}
+		for (int i = 0; i < 30; i++) {
+			PersonId personId = new PersonId(i);
+			assertEquals(intSet.contains(personId), personIds.contains(personId));
+		}
+		assertTrue(intSet.contains(new PersonId(70000)));
+		assertFalse(intSet.contains(new PersonId(70001)));
+	}
+
+	/**
+	 * Test for {@link BitmapIntSet#toString()}
+	 */
+	@Test
+	public void testToString() {
+		IntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		intSet.add(new PersonId(7));
+		intSet.add(new PersonId(3));
+		assertEquals("IntSet" + intSet.getValues(), intSet.toString());
+	}
+
+	/**
+	 * Shows that a BitmapIntSet survives serialization
+	 */
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		BitmapIntSet<PersonId> intSet = new BitmapIntSet<>(FACTORY);
+		for (int i = 0; i < 5000; i++) {
+			intSet.add(new PersonId(i * 2));
+		}
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+			objectOutputStream.writeObject(intSet);
+		}
+		BitmapIntSet<PersonId> copy;
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+			copy = (BitmapIntSet<PersonId>) objectInputStream.readObject();
+		}
+		assertEquals(intSet.getValues(), copy.getValues());
+	}
+
+}
@@ -0,0 +1,211 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.DictionaryValueContainer;
+
+/**
+ * Test class for {@link DictionaryValueContainer}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = DictionaryValueContainer.class)
+public class AT_DictionaryValueContainer {
+
+	@Test
+	public void testConstructor() {
+		String defaultValue = "default";
+		DictionaryValueContainer dictionaryValueContainer = new DictionaryValueContainer(defaultValue, 20);
+		assertNotNull(dictionaryValueContainer);
+		assertEquals(1, dictionaryValueContainer.getCardinality());
+
+		dictionaryValueContainer = new DictionaryValueContainer(null, 20, 5);
+		assertNotNull(dictionaryValueContainer);
+
+		// pre-condition tests
+		assertException(() -> new DictionaryValueContainer(null, -4), IllegalArgumentException.class);
+		assertException(() -> new DictionaryValueContainer(null, 4, 0), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testSetValue() {
+		String defaultValue = "default";
+		DictionaryValueContainer dictionaryValueContainer = new DictionaryValueContainer(defaultValue, 20);
+		dictionaryValueContainer.setValue(3, "dog");
+		dictionaryValueContainer.setValue(1, "cat");
+		dictionaryValueContainer.setValue(4, "pig");
+		dictionaryValueContainer.setValue(7, "cow");
+		dictionaryValueContainer.setValue(3, "bat");
+		dictionaryValueContainer.setValue(5, null);
+		dictionaryValueContainer.setValue(50, "cat");
+
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(0));
+		assertEquals("cat", dictionaryValueContainer.getValue(1));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(2));
+		assertEquals("bat", dictionaryValueContainer.getValue(3));
+		assertEquals("pig", dictionaryValueContainer.getValue(4));
+		assertNull(dictionaryValueContainer.getValue(5));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(6));
+		assertEquals("cow", dictionaryValueContainer.getValue(7));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(8));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(9));
+		assertEquals("cat", dictionaryValueContainer.getValue(50));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(100));
+
+		// default, cat, pig, cow, bat and null, with dog dropped once replaced
+		assertEquals(6, dictionaryValueContainer.getCardinality());
+
+		// show that equal values are interned to the first instance
+		String first = new String("horse");
+		String second = new String("horse");
+		dictionaryValueContainer.setValue(10, first);
+		dictionaryValueContainer.setValue(11, second);
+		assertSame(first, dictionaryValueContainer.getValue(10));
+		assertSame(first, dictionaryValueContainer.getValue(11));
+
+		// test pre-conditions
+		assertException(() -> dictionaryValueContainer.setValue(-1, "frog"), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testGetValue() {
+
+		String defaultValue = "default";
+		DictionaryValueContainer dictionaryValueContainer = new DictionaryValueContainer(defaultValue, 0);
+		dictionaryValueContainer.setValue(3, "dog");
+		dictionaryValueContainer.setValue(1, "cat");
+		dictionaryValueContainer.setValue(4, "pig");
+		dictionaryValueContainer.setValue(7, "cow");
+		dictionaryValueContainer.setValue(3, "bat");
+		dictionaryValueContainer.setValue(5, null);
+
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(0));
+		assertEquals("cat", dictionaryValueContainer.getValue(1));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(2));
+		assertEquals("bat", dictionaryValueContainer.getValue(3));
+		assertEquals("pig", dictionaryValueContainer.getValue(4));
+		assertNull(dictionaryValueContainer.getValue(5));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(6));
+		assertEquals("cow", dictionaryValueContainer.getValue(7));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(8));
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(9));
+
+		// test pre-conditions
+		assertException(() -> dictionaryValueContainer.getValue(-1), IllegalArgumentException.class);
+	}
+
+	/**
+	 * Shows that values no longer held by any index are dropped from the
+	 * dictionary so that they neither count toward the cardinality limit nor
+	 * are retained by the container
+	 */
+	@Test
+	public void testDroppedValues() {
+		String defaultValue = "default";
+		DictionaryValueContainer dictionaryValueContainer = new DictionaryValueContainer(defaultValue, 0, 3);
+		dictionaryValueContainer.setValue(0, "dog");
+		dictionaryValueContainer.setValue(1, "dog");
+		dictionaryValueContainer.setValue(2, "cat");
+		assertEquals(3, dictionaryValueContainer.getCardinality());
+
+		// dog is still held by index 1
+		dictionaryValueContainer.setValue(0, defaultValue);
+		assertEquals(3, dictionaryValueContainer.getCardinality());
+
+		// dog is no longer held and is dropped
+		dictionaryValueContainer.setValue(1, "cat");
+		assertEquals(2, dictionaryValueContainer.getCardinality());
+
+		/*
+		 * Values may be replaced indefinitely without exceeding the limit as
+		 * long as few distinct values are held at once
+		 */
+		for (int i = 0; i < 100; i++) {
+			dictionaryValueContainer.setValue(3, "value " + i);
+			assertTrue(dictionaryValueContainer.isDictionaryEncoded());
+			assertEquals(3, dictionaryValueContainer.getCardinality());
+		}
+
+		assertEquals(defaultValue, dictionaryValueContainer.getValue(0));
+		assertEquals("cat", dictionaryValueContainer.getValue(1));
+		assertEquals("cat", dictionaryValueContainer.getValue(2));
+		assertEquals("value 99", dictionaryValueContainer.getValue(3));
+
+		// a dropped value that returns is interned to its new instance
+		dictionaryValueContainer.setValue(3, defaultValue);
+		String dog = new String("dog");
+		dictionaryValueContainer.setValue(1, dog);
+		assertSame(dog, dictionaryValueContainer.getValue(1));
+		assertTrue(dictionaryValueContainer.isDictionaryEncoded());
+		assertEquals(3, dictionaryValueContainer.getCardinality());
+	}
+
+	/**
+	 * Shows that the container abandons the dictionary once the cardinality
+	 * limit is exceeded and retains all values in doing so
+	 */
+	@Test
+	public void testCardinalityLimit() {
+		Random random = new Random(4589734598723645L);
+		int cardinalityLimit = 300;
+		DictionaryValueContainer dictionaryValueContainer = new DictionaryValueContainer(-1, 10, cardinalityLimit);
+		Integer[] expected = new Integer[1000];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = -1;
+		}
+
+		/*
+		 * Fill the dictionary to its limit, forcing the codes past the range of
+		 * a byte
+		 */
+		for (int i = 0; i < 2000; i++) {
+			int index = random.nextInt(expected.length);
+			int value = random.nextInt(cardinalityLimit - 1);
+			dictionaryValueContainer.setValue(index, value);
+			expected[index] = value;
+		}
+		for (int value = 0; value < cardinalityLimit - 1; value++) {
+			dictionaryValueContainer.setValue(2000 + value, value);
+		}
+		assertTrue(dictionaryValueContainer.isDictionaryEncoded());
+		assertEquals(cardinalityLimit, dictionaryValueContainer.getCardinality());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], dictionaryValueContainer.getValue(i));
+		}
+
+		// show that a value already in the dictionary does not exceed the limit
+		dictionaryValueContainer.setValue(3, 5);
+		expected[3] = 5;
+		assertTrue(dictionaryValueContainer.isDictionaryEncoded());
+
+		// show that a new value exceeds the limit
+		dictionaryValueContainer.setValue(4, 100000);
+		expected[4] = 100000;
+		assertFalse(dictionaryValueContainer.isDictionaryEncoded());
+		assertEquals(-1, dictionaryValueContainer.getCardinality());
+
+		for (int i = 0; i < 2000; i++) {
+			int index = random.nextInt(expected.length);
+			int value = random.nextInt();
+			dictionaryValueContainer.setValue(index, value);
+			expected[index] = value;
+		}
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], dictionaryValueContainer.getValue(i));
+		}
+		assertEquals(-1, (int) dictionaryValueContainer.getValue(5000));
+	}
+
+}
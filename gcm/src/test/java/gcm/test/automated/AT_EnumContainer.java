@@ -91,6 +91,29 @@ public class AT_EnumContainer {
 
 	}
 
+	@Test
+	public void testGetOrdinal() {
+		EnumContainer enumContainer = new EnumContainer(Animal.class, Animal.DOG);
+		enumContainer.setValue(3, Animal.CAT);
+		enumContainer.setValue(5, Animal.CAT);
+		enumContainer.setValue(2, Animal.SHEEP);
+		enumContainer.setValue(0, Animal.HORSE);
+		enumContainer.setValue(2, Animal.PIG);
+
+		assertEquals(Animal.HORSE.ordinal(), enumContainer.getOrdinal(0));
+		assertEquals(Animal.DOG.ordinal(), enumContainer.getOrdinal(1));
+		assertEquals(Animal.PIG.ordinal(), enumContainer.getOrdinal(2));
+		assertEquals(Animal.CAT.ordinal(), enumContainer.getOrdinal(3));
+		assertEquals(Animal.DOG.ordinal(), enumContainer.getOrdinal(4));
+		assertEquals(Animal.CAT.ordinal(), enumContainer.getOrdinal(5));
+		assertEquals(Animal.DOG.ordinal(), enumContainer.getOrdinal(6));
+
+		// Test pre-conditions
+
+		// if the index is negative
+		assertException(() -> enumContainer.getOrdinal(-1), IllegalArgumentException.class);
+	}
+
 	@Test
 	public void testSetValue() {
 		
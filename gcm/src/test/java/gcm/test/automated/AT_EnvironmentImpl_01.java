@@ -15,6 +15,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -39,11 +40,13 @@ import gcm.simulation.Environment;
 import gcm.simulation.EnvironmentImpl;
 import gcm.simulation.Equality;
 import gcm.simulation.Filter;
+import gcm.simulation.PlanningQueueType;
 import gcm.simulation.Simulation;
 import gcm.simulation.SimulationErrorType;
 import gcm.test.support.EmptyTaskPlan;
 import gcm.test.support.EnvironmentSupport;
 import gcm.test.support.SeedProvider;
+import gcm.test.support.TaskPlan;
 import gcm.test.support.TaskPlanContainer;
 import gcm.test.support.TestCompartmentId;
 import gcm.test.support.TestGlobalComponentId;
@@ -364,6 +367,102 @@ public class AT_EnvironmentImpl_01 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
+	/**
+	 * Tests
+	 * {@link Environment#addRecurringPlan(gcm.simulation.Plan, double, double, Object)}
+	 * for each {@link PlanningQueueType}
+	 */
+	@Test
+	public void testAddRecurringPlan() {
+		final long seed = SEED_PROVIDER.getSeedValue(8);
+		for (PlanningQueueType planningQueueType : PlanningQueueType.values()) {
+			testAddRecurringPlan(seed, planningQueueType);
+		}
+	}
+
+	private void testAddRecurringPlan(final long seed, final PlanningQueueType planningQueueType) {
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+		addStandardPropertyDefinitions(scenarioBuilder, PropertyAssignmentPolicy.RANDOM, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final Object recurringKey = "recurring key";
+		final double startTime = 2.5;
+		final double interval = 1.5;
+		final int occurrenceCount = 5;
+		final List<Double> executionTimes = new ArrayList<>();
+
+		/*
+		 * We demonstrate that a recurring plan is executed at each interval,
+		 * that it remains retrievable by its key while it recurs and that
+		 * removing it from within its own execution ends the recurrence. The
+		 * simulation would not end otherwise.
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			final TaskPlan recurringPlan = new TaskPlan(startTime, recurringKey, (env) -> {
+				executionTimes.add(env.getTime());
+				assertEquals(env.getTime() + interval, env.getPlanTime(recurringKey), 0);
+				assertTrue(env.getPlanKeys().contains(recurringKey));
+				if (executionTimes.size() == occurrenceCount) {
+					assertTrue(env.removePlan(recurringKey).isPresent());
+				}
+			});
+			environment.addRecurringPlan(recurringPlan, startTime, interval, recurringKey);
+			assertEquals(recurringPlan, environment.getPlan(recurringKey).get());
+			assertEquals(startTime, environment.getPlanTime(recurringKey), 0);
+		});
+
+		/*
+		 * We now test preconditions
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_2, 2, (environment) -> {
+
+			// if the plan is null
+			assertModelException(() -> environment.addRecurringPlan(null, 1000, 1, "key1"), SimulationErrorType.NULL_PLAN);
+
+			// if the start time is in the past
+			assertModelException(() -> environment.addRecurringPlan(new EmptyTaskPlan(0, "key2"), 0, 1, "key2"), SimulationErrorType.PAST_PLANNING_TIME);
+
+			// if the interval is not positive
+			assertModelException(() -> environment.addRecurringPlan(new EmptyTaskPlan(10, "key3"), 10, 0, "key3"), SimulationErrorType.NON_POSITIVE_PLAN_INTERVAL);
+			assertModelException(() -> environment.addRecurringPlan(new EmptyTaskPlan(10, "key3"), 10, -1, "key3"), SimulationErrorType.NON_POSITIVE_PLAN_INTERVAL);
+			assertModelException(() -> environment.addRecurringPlan(new EmptyTaskPlan(10, "key3"), 10, Double.NaN, "key3"), SimulationErrorType.NON_POSITIVE_PLAN_INTERVAL);
+
+			// if the interval is not finite
+			assertModelException(() -> environment.addRecurringPlan(new EmptyTaskPlan(10, "key3"), 10, Double.POSITIVE_INFINITY, "key3"), SimulationErrorType.NON_FINITE_PLAN_INTERVAL);
+
+			// if the key is null
+			assertModelException(() -> environment.addRecurringPlan(new EmptyTaskPlan(10, ""), 10, 1, null), SimulationErrorType.NULL_PLAN_KEY);
+
+			// if the key corresponds to an active plan
+			environment.addPlan(new EmptyTaskPlan(25, "key4"), 25, "key4");
+			assertModelException(() -> environment.addRecurringPlan(new EmptyTaskPlan(10, "key4"), 10, 1, "key4"), SimulationErrorType.DUPLICATE_PLAN_KEY);
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.setPlanningQueueType(planningQueueType);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+
+		final List<Double> expectedExecutionTimes = new ArrayList<>();
+		for (int i = 0; i < occurrenceCount; i++) {
+			expectedExecutionTimes.add(startTime + i * interval);
+		}
+		assertEquals(expectedExecutionTimes, executionTimes);
+	}
+
 	/**
 	 * Tests {@link Environment#addPopulationIndex(Filter, Object)}
 	 *
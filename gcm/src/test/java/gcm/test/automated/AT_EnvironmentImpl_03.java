@@ -42,6 +42,7 @@ import gcm.scenario.PropertyDefinition;
 import gcm.scenario.Scenario;
 import gcm.scenario.ScenarioBuilder;
 import gcm.scenario.StageId;
+import gcm.scenario.TimeTrackingPolicy;
 import gcm.scenario.UnstructuredScenarioBuilder;
 import gcm.simulation.Environment;
 import gcm.simulation.EnvironmentImpl;
@@ -1121,4 +1122,112 @@ public class AT_EnvironmentImpl_03 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
+	/**
+	 * Tests that batch property values and assignment times are retained by
+	 * material, that batches converted from stages hold the default values and
+	 * that assignment times are available only for properties whose time
+	 * tracking policy tracks them
+	 */
+	@Test
+	public void testBatchPropertyStorage() {
+
+		final long seed = SEED_PROVIDER.getSeedValue(12);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		BatchPropertyId[] batchPropertyIds = TestMaterialId.MATERIAL_1.getBatchPropertyIds();
+		BatchPropertyId doublePropertyId = batchPropertyIds[0];
+		BatchPropertyId stringPropertyId = batchPropertyIds[1];
+
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(doublePropertyId, PropertyDefinition	.builder()//
+																			.setType(Double.class)//
+																			.setDefaultValue(1.5)//
+																			.setTimeTrackingPolicy(TimeTrackingPolicy.TRACK_TIME)//
+																			.build());//
+		forcedPropertyDefinitions.put(stringPropertyId, PropertyDefinition	.builder()//
+																			.setType(String.class)//
+																			.setDefaultValue("default")//
+																			.setTimeTrackingPolicy(TimeTrackingPolicy.DO_NOT_TRACK_TIME)//
+																			.build());//
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		Map<BatchId, Double> expectedValues = new LinkedHashMap<>();
+		Map<BatchId, Double> expectedTimes = new LinkedHashMap<>();
+
+		/*
+		 * Create batches of each material, some of them from stages, and show
+		 * that they start with the default values assigned at their creation.
+		 * Set the values of half of the batches of the first material.
+		 */
+		taskPlanContainer.addTaskPlan(TestMaterialsProducerId.MATERIALS_PRODUCER_1, 1, (environment) -> {
+			for (int i = 0; i < 20; i++) {
+				for (TestMaterialId testMaterialId : TestMaterialId.values()) {
+					BatchId batchId = environment.createBatch(testMaterialId, 10);
+					if (testMaterialId == TestMaterialId.MATERIAL_1) {
+						if (i % 3 == 0) {
+							StageId stageId = environment.createStage();
+							environment.moveBatchToStage(batchId, stageId);
+							batchId = environment.convertStageToBatch(stageId, testMaterialId, 5);
+						}
+						assertEquals(1.5, environment.<Double> getBatchPropertyValue(batchId, doublePropertyId), 0);
+						assertEquals("default", environment.getBatchPropertyValue(batchId, stringPropertyId));
+						assertEquals(1, environment.getBatchPropertyTime(batchId, doublePropertyId), 0);
+						expectedValues.put(batchId, 1.5);
+						expectedTimes.put(batchId, 1.0);
+					}
+				}
+			}
+		});
+
+		taskPlanContainer.addTaskPlan(TestMaterialsProducerId.MATERIALS_PRODUCER_1, 2, (environment) -> {
+			int i = 0;
+			for (BatchId batchId : expectedValues.keySet()) {
+				if (i++ % 2 == 0) {
+					environment.setBatchPropertyValue(batchId, doublePropertyId, (double) i);
+					environment.setBatchPropertyValue(batchId, stringPropertyId, "value " + i);
+					expectedValues.put(batchId, (double) i);
+					expectedTimes.put(batchId, 2.0);
+				}
+			}
+		});
+
+		/*
+		 * Show that the values and assignment times are retained, that
+		 * destroyed batches do not disturb the others and that the untracked
+		 * property has no assignment times
+		 */
+		taskPlanContainer.addTaskPlan(TestMaterialsProducerId.MATERIALS_PRODUCER_1, 3, (environment) -> {
+			BatchId destroyedBatchId = expectedValues.keySet().iterator().next();
+			environment.destroyBatch(destroyedBatchId);
+			expectedValues.remove(destroyedBatchId);
+
+			for (BatchId batchId : expectedValues.keySet()) {
+				double expectedValue = expectedValues.get(batchId);
+				assertEquals(expectedValue, environment.<Double> getBatchPropertyValue(batchId, doublePropertyId), 0);
+				String expectedString = expectedValue == 1.5 ? "default" : "value " + (int) expectedValue;
+				assertEquals(expectedString, environment.getBatchPropertyValue(batchId, stringPropertyId));
+				assertEquals(expectedTimes.get(batchId), environment.getBatchPropertyTime(batchId, doublePropertyId), 0);
+				assertModelException(() -> environment.getBatchPropertyTime(batchId, stringPropertyId), SimulationErrorType.PROPERTY_ASSIGNMENT_TIME_NOT_TRACKED);
+			}
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
 }
@@ -11,6 +11,7 @@ import static gcm.test.support.EnvironmentSupport.getRandomGenerator;
 import static gcm.test.support.EnvironmentSupport.getReplication;
 import static gcm.test.support.ExceptionAssertion.assertModelException;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -34,6 +35,7 @@ import gcm.scenario.PersonId;
 import gcm.scenario.PropertyDefinition;
 import gcm.scenario.Scenario;
 import gcm.scenario.ScenarioBuilder;
+import gcm.scenario.TimeTrackingPolicy;
 import gcm.scenario.UnstructuredScenarioBuilder;
 import gcm.simulation.Environment;
 import gcm.simulation.EnvironmentImpl;
@@ -1161,5 +1163,97 @@ public class AT_EnvironmentImpl_05 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
-	
+	/**
+	 * Tests that group property values and assignment times are retained by
+	 * type and that assignment times are available only for properties whose
+	 * time tracking policy tracks them
+	 */
+	@Test
+	public void testGroupPropertyStorage() {
+
+		final long seed = SEED_PROVIDER.getSeedValue(13);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		GroupPropertyId[] groupPropertyIds = TestGroupTypeId.GROUP_TYPE_1.getGroupPropertyIds();
+		GroupPropertyId intPropertyId = groupPropertyIds[0];
+		GroupPropertyId booleanPropertyId = groupPropertyIds[1];
+
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(intPropertyId, PropertyDefinition	.builder()//
+																		.setType(Integer.class)//
+																		.setDefaultValue(7)//
+																		.setTimeTrackingPolicy(TimeTrackingPolicy.TRACK_TIME_DAYS)//
+																		.build());//
+		forcedPropertyDefinitions.put(booleanPropertyId, PropertyDefinition	.builder()//
+																			.setType(Boolean.class)//
+																			.setDefaultValue(false)//
+																			.setTimeTrackingPolicy(TimeTrackingPolicy.DO_NOT_TRACK_TIME)//
+																			.build());//
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		Map<GroupId, Integer> expectedValues = new LinkedHashMap<>();
+
+		/*
+		 * Add groups of each type and show that they start with the default
+		 * values. Set the values of half of the groups of the first type.
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1.5, (environment) -> {
+			for (int i = 0; i < 20; i++) {
+				for (TestGroupTypeId testGroupTypeId : TestGroupTypeId.values()) {
+					GroupId groupId = environment.addGroup(testGroupTypeId);
+					if (testGroupTypeId == TestGroupTypeId.GROUP_TYPE_1) {
+						assertEquals(7, environment.<Integer> getGroupPropertyValue(groupId, intPropertyId).intValue());
+						assertFalse(environment.getGroupPropertyValue(groupId, booleanPropertyId));
+						assertEquals(0, environment.getGroupPropertyTime(groupId, intPropertyId), 0);
+						if (i % 2 == 0) {
+							environment.setGroupPropertyValue(groupId, intPropertyId, i);
+							environment.setGroupPropertyValue(groupId, booleanPropertyId, true);
+							expectedValues.put(groupId, i);
+						} else {
+							expectedValues.put(groupId, 7);
+						}
+					}
+				}
+			}
+		});
+
+		/*
+		 * Show that the values and assignment days are retained, that removed
+		 * groups do not disturb the others and that the untracked property has
+		 * no assignment times
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 3.2, (environment) -> {
+			GroupId removedGroupId = expectedValues.keySet().iterator().next();
+			environment.removeGroup(removedGroupId);
+			expectedValues.remove(removedGroupId);
+
+			for (GroupId groupId : expectedValues.keySet()) {
+				int expectedValue = expectedValues.get(groupId);
+				assertEquals(expectedValue, environment.<Integer> getGroupPropertyValue(groupId, intPropertyId).intValue());
+				assertEquals(expectedValue != 7, environment.getGroupPropertyValue(groupId, booleanPropertyId));
+				double expectedTime = expectedValue != 7 ? 1 : 0;
+				assertEquals(expectedTime, environment.getGroupPropertyTime(groupId, intPropertyId), 0);
+				assertModelException(() -> environment.getGroupPropertyTime(groupId, booleanPropertyId), SimulationErrorType.PROPERTY_ASSIGNMENT_TIME_NOT_TRACKED);
+			}
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
 }
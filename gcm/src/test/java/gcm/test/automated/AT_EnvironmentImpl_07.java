@@ -1,5 +1,6 @@
 package gcm.test.automated;
 
+import static gcm.simulation.Filter.property;
 import static gcm.test.support.EnvironmentSupport.addStandardComponentsAndTypes;
 import static gcm.test.support.EnvironmentSupport.addStandardPeople;
 import static gcm.test.support.EnvironmentSupport.addStandardPropertyDefinitions;
@@ -11,14 +12,18 @@ import static gcm.test.support.EnvironmentSupport.getRandomGenerator;
 import static gcm.test.support.EnvironmentSupport.getReplication;
 import static gcm.test.support.ExceptionAssertion.assertModelException;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 
@@ -31,6 +36,7 @@ import gcm.replication.Replication;
 import gcm.scenario.CompartmentId;
 import gcm.scenario.GroupId;
 import gcm.scenario.GroupTypeId;
+import gcm.scenario.MapOption;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
@@ -42,6 +48,8 @@ import gcm.scenario.StageId;
 import gcm.scenario.UnstructuredScenarioBuilder;
 import gcm.simulation.Environment;
 import gcm.simulation.EnvironmentImpl;
+import gcm.simulation.Equality;
+import gcm.simulation.Filter;
 import gcm.simulation.ObservableEnvironment;
 import gcm.simulation.Simulation;
 import gcm.simulation.SimulationErrorType;
@@ -694,6 +702,190 @@ public class AT_EnvironmentImpl_07 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
+	/**
+	 * Tests
+	 * {@link Environment#getPeopleForPropertyComparison(PersonPropertyId, Equality, Object)},
+	 * {@link Environment#getPersonCountForPropertyComparison(PersonPropertyId, Equality, Object)}
+	 * and
+	 * {@link Environment#getRandomPersonForPropertyComparison(PersonPropertyId, Equality, Object)}
+	 */
+	@Test
+	public void testPropertyComparisons() {
+		/*
+		 * Define integer and double properties mapped with a range index along
+		 * with an array mapped and an unmapped property. Assign values that
+		 * include negative and signed zero values and show that the people
+		 * returned for every comparison match those found by direct
+		 * evaluation, both before and after people are added and removed.
+		 * Finally, show that population indices built from property filters on
+		 * range mapped properties contain the expected people.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(14);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 30);
+
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_1, PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).setMapOption(MapOption.RANGE).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_2, PropertyDefinition.builder().setType(Double.class).setDefaultValue(0.0).setMapOption(MapOption.RANGE).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_3, PropertyDefinition.builder().setType(Long.class).setDefaultValue(0L).setMapOption(MapOption.ARRAY).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_4, PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).build());
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final Map<TestPersonPropertyId, List<Object>> comparisonValues = new LinkedHashMap<>();
+		comparisonValues.put(TestPersonPropertyId.PERSON_PROPERTY_1, Arrays.asList(-6, -3, 0, 2, 5, 6));
+		comparisonValues.put(TestPersonPropertyId.PERSON_PROPERTY_2, Arrays.asList(-3.0, -2.5, -0.0, 0.0, 0.5, 1.5, 4.0));
+		comparisonValues.put(TestPersonPropertyId.PERSON_PROPERTY_3, Arrays.asList(-6L, -3L, 0L, 2L, 5L, 6L));
+		comparisonValues.put(TestPersonPropertyId.PERSON_PROPERTY_4, Arrays.asList(-6, -3, 0, 2, 5, 6));
+
+		int testTime = 1;
+
+		/*
+		 * Assign random values
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			final List<Double> doubleValues = Arrays.asList(-2.5, -1.0, -0.0, 0.0, 0.5, 1.5, 3.0);
+			for (final PersonId personId : environment.getPeople()) {
+				final RandomGenerator rg = environment.getRandomGenerator();
+				environment.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1, rg.nextInt(11) - 5);
+				environment.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_2, doubleValues.get(rg.nextInt(doubleValues.size())));
+				environment.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_3, (long) (rg.nextInt(11) - 5));
+				environment.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_4, rg.nextInt(11) - 5);
+			}
+			assertPropertyComparisons(environment, comparisonValues);
+		});
+
+		/*
+		 * Remove the people in compartment 1
+		 */
+		taskPlanContainer.addTaskPlan(TestCompartmentId.COMPARTMENT_1, testTime++, (environment) -> {
+			for (final PersonId personId : environment.getPeopleInCompartment(TestCompartmentId.COMPARTMENT_1)) {
+				environment.removePerson(personId);
+			}
+			assertPropertyComparisons(environment, comparisonValues);
+		});
+
+		/*
+		 * Add people with default values, change some values and show that
+		 * population indices agree with the comparisons
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			for (int i = 0; i < 5; i++) {
+				final PersonId personId = environment.addPerson(TestRegionId.REGION_1, TestCompartmentId.COMPARTMENT_2);
+				if (i % 2 == 0) {
+					environment.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1, 4);
+					environment.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_2, -1.0);
+				}
+			}
+			assertPropertyComparisons(environment, comparisonValues);
+
+			environment.addPopulationIndex(property(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.LESS_THAN, 2), "less than");
+			environment.addPopulationIndex(property(TestPersonPropertyId.PERSON_PROPERTY_2, Equality.GREATER_THAN_EQUAL, -0.0).negate(), "negated");
+			environment.addPopulationIndex(property(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.NOT_EQUAL, 0).and(property(TestPersonPropertyId.PERSON_PROPERTY_2, Equality.GREATER_THAN, 0.0)),
+					"compound");
+
+			assertEquals(new LinkedHashSet<>(environment.getPeopleForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.LESS_THAN, 2)),
+					new LinkedHashSet<>(environment.getIndexedPeople("less than")));
+			assertEquals(new LinkedHashSet<>(environment.getPeopleForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_2, Equality.LESS_THAN, -0.0)),
+					new LinkedHashSet<>(environment.getIndexedPeople("negated")));
+			final Set<PersonId> expectedPeople = new LinkedHashSet<>(environment.getPeopleForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.NOT_EQUAL, 0));
+			expectedPeople.retainAll(environment.getPeopleForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_2, Equality.GREATER_THAN, 0.0));
+			assertEquals(expectedPeople, new LinkedHashSet<>(environment.getIndexedPeople("compound")));
+		});
+
+		/*
+		 * Precondition tests
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			// if the property id is null
+			assertModelException(() -> environment.getPeopleForPropertyComparison(null, Equality.LESS_THAN, 5), SimulationErrorType.NULL_PERSON_PROPERTY_ID);
+			assertModelException(() -> environment.getPersonCountForPropertyComparison(null, Equality.LESS_THAN, 5), SimulationErrorType.NULL_PERSON_PROPERTY_ID);
+			assertModelException(() -> environment.getRandomPersonForPropertyComparison(null, Equality.LESS_THAN, 5), SimulationErrorType.NULL_PERSON_PROPERTY_ID);
+
+			// if the property id is not a person property
+			assertModelException(() -> environment.getPeopleForPropertyComparison(TestPersonPropertyId.getUnknownPersonPropertyId(), Equality.LESS_THAN, 5), SimulationErrorType.UNKNOWN_PERSON_PROPERTY_ID);
+			assertModelException(() -> environment.getPersonCountForPropertyComparison(TestPersonPropertyId.getUnknownPersonPropertyId(), Equality.LESS_THAN, 5),
+					SimulationErrorType.UNKNOWN_PERSON_PROPERTY_ID);
+			assertModelException(() -> environment.getRandomPersonForPropertyComparison(TestPersonPropertyId.getUnknownPersonPropertyId(), Equality.LESS_THAN, 5),
+					SimulationErrorType.UNKNOWN_PERSON_PROPERTY_ID);
+
+			// if the equality is null
+			assertModelException(() -> environment.getPeopleForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, null, 5), SimulationErrorType.NULL_EQUALITY_OPERATOR);
+			assertModelException(() -> environment.getPersonCountForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, null, 5), SimulationErrorType.NULL_EQUALITY_OPERATOR);
+			assertModelException(() -> environment.getRandomPersonForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, null, 5), SimulationErrorType.NULL_EQUALITY_OPERATOR);
+
+			// if the property value is null
+			assertModelException(() -> environment.getPeopleForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.LESS_THAN, null), SimulationErrorType.NULL_PERSON_PROPERTY_VALUE);
+			assertModelException(() -> environment.getPersonCountForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.LESS_THAN, null), SimulationErrorType.NULL_PERSON_PROPERTY_VALUE);
+			assertModelException(() -> environment.getRandomPersonForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.LESS_THAN, null), SimulationErrorType.NULL_PERSON_PROPERTY_VALUE);
+
+			// if the property value is not compatible with the property
+			// definition
+			assertModelException(() -> environment.getPeopleForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.LESS_THAN, 5.0), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.getPersonCountForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_2, Equality.LESS_THAN, 5), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.getRandomPersonForPropertyComparison(TestPersonPropertyId.PERSON_PROPERTY_3, Equality.LESS_THAN, 5), SimulationErrorType.INCOMPATIBLE_VALUE);
+
+			// if the random number generator id is null
+			assertModelException(() -> environment.getRandomPersonForPropertyComparisonFromGenerator(TestPersonPropertyId.PERSON_PROPERTY_1, Equality.LESS_THAN, 5, null),
+					SimulationErrorType.NULL_RANDOM_NUMBER_GENERATOR_ID);
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/*
+	 * Asserts that the people returned for each comparison of the given
+	 * properties to the given values are those found by direct evaluation
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static void assertPropertyComparisons(Environment environment, Map<TestPersonPropertyId, List<Object>> comparisonValues) {
+		for (final TestPersonPropertyId testPersonPropertyId : comparisonValues.keySet()) {
+			for (final Object comparisonValue : comparisonValues.get(testPersonPropertyId)) {
+				for (final Equality equality : Equality.values()) {
+					final Set<PersonId> expectedPeople = new LinkedHashSet<>();
+					for (final PersonId personId : environment.getPeople()) {
+						final Object value = environment.getPersonPropertyValue(personId, testPersonPropertyId);
+						boolean compatible;
+						if (equality == Equality.EQUAL) {
+							compatible = value.equals(comparisonValue);
+						} else if (equality == Equality.NOT_EQUAL) {
+							compatible = !value.equals(comparisonValue);
+						} else {
+							compatible = equality.isCompatibleComparisonValue(((Comparable) value).compareTo(comparisonValue));
+						}
+						if (compatible) {
+							expectedPeople.add(personId);
+						}
+					}
+					final List<PersonId> actualPeople = environment.getPeopleForPropertyComparison(testPersonPropertyId, equality, comparisonValue);
+					assertEquals(expectedPeople.size(), actualPeople.size());
+					assertEquals(expectedPeople, new LinkedHashSet<>(actualPeople));
+					assertEquals(expectedPeople.size(), environment.getPersonCountForPropertyComparison(testPersonPropertyId, equality, comparisonValue));
+					final Optional<PersonId> optional = environment.getRandomPersonForPropertyComparison(testPersonPropertyId, equality, comparisonValue);
+					if (expectedPeople.isEmpty()) {
+						assertFalse(optional.isPresent());
+					} else {
+						assertTrue(expectedPeople.contains(optional.get()));
+					}
+				}
+			}
+		}
+	}
+
 	/**
 	 * Tests {@link Environment#getPeopleWithResource(ResourceId)}
 	 */
@@ -760,6 +952,147 @@ public class AT_EnvironmentImpl_07 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
+	/**
+	 * Tests {@link Environment#getPeopleWithResource(ResourceId)},
+	 * {@link Environment#getPeopleWithoutResource(ResourceId)},
+	 * {@link Environment#getPersonCountForResource(ResourceId)} and resource
+	 * filters under each {@link MapOption} for the resource holders
+	 */
+	@Test
+	public void testResourceHolderMapping() {
+		/*
+		 * Distribute, transfer and remove a resource among the people and
+		 * remove some people. Show that the environment reports the holders
+		 * and non-holders we expect and that population indices built from
+		 * resource filters agree with a direct evaluation of each person.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(15);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		for (MapOption mapOption : MapOption.values()) {
+			ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+			addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+			addStandardComponentsAndTypes(scenarioBuilder);
+			addStandardPeople(scenarioBuilder, 30);
+			scenarioBuilder.setResourceMapOption(TestResourceId.RESOURCE1, mapOption);
+
+			TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+			Scenario scenario = scenarioBuilder.build();
+
+			Replication replication = getReplication(randomGenerator);
+
+			int testTime = 1;
+
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+				assertEquals(mapOption, environment.getResourceMapOption(TestResourceId.RESOURCE1));
+				assertEquals(MapOption.NONE, environment.getResourceMapOption(TestResourceId.RESOURCE2));
+
+				final RandomGenerator rng = environment.getRandomGenerator();
+				for (final PersonId personId : environment.getPeople()) {
+					final RegionId regionId = environment.getPersonRegion(personId);
+					final long amount = rng.nextInt(4);
+					if (amount > 0) {
+						environment.addResourceToRegion(TestResourceId.RESOURCE1, regionId, amount);
+						environment.transferResourceToPerson(TestResourceId.RESOURCE1, personId, amount);
+					}
+				}
+				for (final PersonId personId : environment.getPeople()) {
+					final long level = environment.getPersonResourceLevel(personId, TestResourceId.RESOURCE1);
+					if (level > 0 && rng.nextBoolean()) {
+						final long amount = rng.nextInt((int) level) + 1;
+						environment.transferResourceFromPerson(TestResourceId.RESOURCE1, personId, amount);
+					}
+				}
+			});
+
+			/*
+			 * Have each compartment remove some of the resource from its people
+			 * and remove some of its people
+			 */
+			for (final TestCompartmentId testCompartmentId : TestCompartmentId.values()) {
+				taskPlanContainer.addTaskPlan(testCompartmentId, testTime, (environment) -> {
+					final RandomGenerator rng = environment.getRandomGenerator();
+					for (final PersonId personId : environment.getPeopleInCompartment(testCompartmentId)) {
+						final long level = environment.getPersonResourceLevel(personId, TestResourceId.RESOURCE1);
+						if (level > 0 && rng.nextBoolean()) {
+							final long amount = rng.nextInt((int) level) + 1;
+							environment.removeResourceFromPerson(TestResourceId.RESOURCE1, personId, amount);
+						}
+						if (rng.nextInt(10) == 0) {
+							environment.removePerson(personId);
+						}
+					}
+				});
+			}
+			testTime++;
+
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+				final Set<PersonId> expectedHolders = new LinkedHashSet<>();
+				final Set<PersonId> expectedNonHolders = new LinkedHashSet<>();
+				for (final PersonId personId : environment.getPeople()) {
+					if (environment.getPersonResourceLevel(personId, TestResourceId.RESOURCE1) > 0) {
+						expectedHolders.add(personId);
+					} else {
+						expectedNonHolders.add(personId);
+					}
+				}
+				assertFalse(expectedHolders.isEmpty());
+				assertFalse(expectedNonHolders.isEmpty());
+
+				// the holders and non-holders are in ascending order of person id
+				assertEquals(new ArrayList<>(expectedHolders), environment.getPeopleWithResource(TestResourceId.RESOURCE1));
+				assertEquals(new ArrayList<>(expectedNonHolders), environment.getPeopleWithoutResource(TestResourceId.RESOURCE1));
+				assertEquals(expectedHolders.size(), environment.getPersonCountForResource(TestResourceId.RESOURCE1));
+
+				int key = 0;
+				for (final Equality equality : Equality.values()) {
+					for (long resourceValue = -1; resourceValue <= 4; resourceValue++) {
+						for (final boolean negate : new boolean[] { false, true }) {
+							Filter filter = Filter.resource(TestResourceId.RESOURCE1, equality, resourceValue);
+							if (negate) {
+								filter = filter.negate();
+							}
+							final Set<PersonId> expectedPeople = new LinkedHashSet<>();
+							for (final PersonId personId : environment.getPeople()) {
+								final long level = environment.getPersonResourceLevel(personId, TestResourceId.RESOURCE1);
+								if (equality.isCompatibleComparisonValue(Long.compare(level, resourceValue)) != negate) {
+									expectedPeople.add(personId);
+								}
+							}
+							final Object populationIndexKey = key++;
+							environment.addPopulationIndex(filter, populationIndexKey);
+							final List<PersonId> actualPeople = environment.getIndexedPeople(populationIndexKey);
+							assertEquals(expectedPeople.size(), actualPeople.size());
+							assertEquals(expectedPeople, new LinkedHashSet<>(actualPeople));
+							environment.removePopulationIndex(populationIndexKey);
+						}
+					}
+				}
+			});
+
+			/*
+			 * Precondition tests
+			 */
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+				// if the resource id is null
+				assertModelException(() -> environment.getPersonCountForResource(null), SimulationErrorType.NULL_RESOURCE_ID);
+				assertModelException(() -> environment.getResourceMapOption(null), SimulationErrorType.NULL_RESOURCE_ID);
+
+				// if the resource id is unknown
+				assertModelException(() -> environment.getPersonCountForResource(TestResourceId.getUnknownResourceId()), SimulationErrorType.UNKNOWN_RESOURCE_ID);
+				assertModelException(() -> environment.getResourceMapOption(TestResourceId.getUnknownResourceId()), SimulationErrorType.UNKNOWN_RESOURCE_ID);
+			});
+
+			Simulation simulation = new Simulation();
+			simulation.setReplication(replication);
+			simulation.setScenario(scenario);
+			simulation.execute();
+
+			assertAllPlansExecuted(taskPlanContainer);
+		}
+	}
+
 	/**
 	 * Tests {@link Environment#getPersonCompartment(PersonId)}
 	 */
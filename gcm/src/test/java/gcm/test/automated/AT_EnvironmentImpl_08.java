@@ -1,6 +1,8 @@
 package gcm.test.automated;
 
 import static gcm.simulation.Filter.compartment;
+import static gcm.simulation.Filter.groupMember;
+import static gcm.simulation.Filter.property;
 import static gcm.test.support.EnvironmentSupport.addStandardComponentsAndTypes;
 import static gcm.test.support.EnvironmentSupport.addStandardPeople;
 import static gcm.test.support.EnvironmentSupport.addStandardPropertyDefinitions;
@@ -16,10 +18,13 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
 
 import org.apache.commons.math3.random.RandomGenerator;
@@ -29,16 +34,21 @@ import org.junit.Test;
 
 import gcm.replication.Replication;
 import gcm.scenario.CompartmentId;
+import gcm.scenario.GroupId;
+import gcm.scenario.MapOption;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.RandomNumberGeneratorId;
 import gcm.scenario.ResourceId;
 import gcm.scenario.Scenario;
 import gcm.scenario.ScenarioBuilder;
+import gcm.scenario.StorageOption;
 import gcm.scenario.TimeTrackingPolicy;
 import gcm.scenario.UnstructuredScenarioBuilder;
 import gcm.simulation.Environment;
 import gcm.simulation.EnvironmentImpl;
+import gcm.simulation.Equality;
 import gcm.simulation.Simulation;
 import gcm.simulation.SimulationErrorType;
 import gcm.test.support.EnvironmentSupport;
@@ -47,6 +57,7 @@ import gcm.test.support.TaskPlan;
 import gcm.test.support.TaskPlanContainer;
 import gcm.test.support.TestCompartmentId;
 import gcm.test.support.TestGlobalComponentId;
+import gcm.test.support.TestGroupTypeId;
 import gcm.test.support.TestPersonPropertyId;
 import gcm.test.support.TestRegionId;
 import gcm.test.support.TestResourceId;
@@ -260,6 +271,470 @@ public class AT_EnvironmentImpl_08 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
+	/**
+	 * Tests the typed person property accessors
+	 * {@link Environment#getPersonPropertyInt(PersonId, PersonPropertyId)},
+	 * {@link Environment#getPersonPropertyLong(PersonId, PersonPropertyId)},
+	 * {@link Environment#getPersonPropertyDouble(PersonId, PersonPropertyId)},
+	 * {@link Environment#getPersonPropertyBoolean(PersonId, PersonPropertyId)}
+	 * and their corresponding setters
+	 */
+	@Test
+	public void testTypedPersonPropertyAccessors() {
+
+		/*
+		 * Force a property definition for each of the types handled by the
+		 * typed accessors, along with a String property that none of them may
+		 * access.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(15);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_1, PropertyDefinition.builder().setType(Integer.class).setDefaultValue(3).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_2, PropertyDefinition.builder().setType(Long.class).setDefaultValue(5L).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_3, PropertyDefinition.builder().setType(Double.class).setDefaultValue(2.5).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_4, PropertyDefinition.builder().setType(Boolean.class).setDefaultValue(true).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_5, PropertyDefinition.builder().setType(Short.class).setDefaultValue((short) 7).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_6, PropertyDefinition.builder().setType(Float.class).setDefaultValue(1.5f).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_7, PropertyDefinition.builder().setType(String.class).setDefaultValue("default value").build());
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		int testTime = 1;
+
+		/*
+		 * Show that the typed getters return the default values and that values
+		 * set through the typed setters are returned by both the typed getters
+		 * and getPersonPropertyValue()
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			for (final PersonId personId : environment.getPeople()) {
+				assertEquals(3, environment.getPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_1));
+				assertEquals(3L, environment.getPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_1));
+				assertEquals(5L, environment.getPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_2));
+				assertEquals(2.5, environment.getPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_3), 0);
+				assertTrue(environment.getPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_4));
+				assertEquals(7, environment.getPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_5));
+				assertEquals(7L, environment.getPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_5));
+				assertEquals(1.5, environment.getPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_6), 0);
+
+				final int intValue = environment.getRandomGenerator().nextInt();
+				final long longValue = environment.getRandomGenerator().nextLong();
+				final double doubleValue = environment.getRandomGenerator().nextDouble();
+				final boolean booleanValue = environment.getRandomGenerator().nextBoolean();
+
+				environment.setPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_1, intValue);
+				environment.setPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_2, longValue);
+				environment.setPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_3, doubleValue);
+				environment.setPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_4, booleanValue);
+
+				assertEquals(intValue, environment.getPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_1));
+				assertEquals(longValue, environment.getPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_2));
+				assertEquals(doubleValue, environment.getPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_3), 0);
+				assertEquals(booleanValue, environment.getPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_4));
+
+				assertEquals(Integer.valueOf(intValue), environment.getPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1));
+				assertEquals(Long.valueOf(longValue), environment.getPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_2));
+				assertEquals(Double.valueOf(doubleValue), environment.getPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_3));
+				assertEquals(Boolean.valueOf(booleanValue), environment.getPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_4));
+			}
+		});
+
+		/*
+		 * Test preconditions
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+
+			// make sure that person 1 actually exists
+			PersonId personId = new PersonId(1);
+			assertTrue(environment.personExists(personId));
+
+			// if the person is null
+			assertModelException(() -> environment.getPersonPropertyInt(null, TestPersonPropertyId.PERSON_PROPERTY_1), SimulationErrorType.NULL_PERSON_ID);
+			assertModelException(() -> environment.setPersonPropertyInt(null, TestPersonPropertyId.PERSON_PROPERTY_1, 0), SimulationErrorType.NULL_PERSON_ID);
+			// if the person is unknown
+			assertModelException(() -> environment.getPersonPropertyLong(new PersonId(-1), TestPersonPropertyId.PERSON_PROPERTY_2), SimulationErrorType.UNKNOWN_PERSON_ID);
+			assertModelException(() -> environment.setPersonPropertyLong(new PersonId(-1), TestPersonPropertyId.PERSON_PROPERTY_2, 0L), SimulationErrorType.UNKNOWN_PERSON_ID);
+			// if the property id is null
+			assertModelException(() -> environment.getPersonPropertyDouble(personId, null), SimulationErrorType.NULL_PERSON_PROPERTY_ID);
+			assertModelException(() -> environment.setPersonPropertyDouble(personId, null, 0), SimulationErrorType.NULL_PERSON_PROPERTY_ID);
+			// if the property is unknown
+			assertModelException(() -> environment.getPersonPropertyBoolean(personId, TestPersonPropertyId.getUnknownPersonPropertyId()), SimulationErrorType.UNKNOWN_PERSON_PROPERTY_ID);
+			assertModelException(() -> environment.setPersonPropertyBoolean(personId, TestPersonPropertyId.getUnknownPersonPropertyId(), false), SimulationErrorType.UNKNOWN_PERSON_PROPERTY_ID);
+
+			// if the property type is incompatible with the accessor
+			assertModelException(() -> environment.getPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_2), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.getPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_7), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.getPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_3), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.getPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_1), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.getPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_7), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.setPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_2, 0), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.setPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_5, 0), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.setPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_1, 0L), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.setPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_6, 0), SimulationErrorType.INCOMPATIBLE_VALUE);
+			assertModelException(() -> environment.setPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_7, false), SimulationErrorType.INCOMPATIBLE_VALUE);
+
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests that the typed person property setters
+	 * {@link Environment#setPersonPropertyInt(PersonId, PersonPropertyId, int)},
+	 * {@link Environment#setPersonPropertyLong(PersonId, PersonPropertyId, long)},
+	 * {@link Environment#setPersonPropertyDouble(PersonId, PersonPropertyId, double)}
+	 * and
+	 * {@link Environment#setPersonPropertyBoolean(PersonId, PersonPropertyId, boolean)}
+	 * maintain assignment times, value mappings and population indexes
+	 */
+	@Test
+	public void testTypedPersonPropertySetters() {
+
+		/*
+		 * Force tracked properties that are written without boxing, one of
+		 * them off heap, along with properties whose values are mapped to
+		 * people and a property that is indexed, all of which are written with
+		 * boxing.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(21);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 30);
+
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_1,
+				PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).setTimeTrackingPolicy(TimeTrackingPolicy.TRACK_TIME).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_2,
+				PropertyDefinition.builder().setType(Long.class).setDefaultValue(0L).setTimeTrackingPolicy(TimeTrackingPolicy.TRACK_TIME).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_3, PropertyDefinition.builder().setType(Double.class).setDefaultValue(0.0)
+				.setTimeTrackingPolicy(TimeTrackingPolicy.TRACK_TIME).setStorageOption(StorageOption.OFF_HEAP).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_4,
+				PropertyDefinition.builder().setType(Boolean.class).setDefaultValue(false).setTimeTrackingPolicy(TimeTrackingPolicy.TRACK_TIME).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_5,
+				PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).setMapOption(MapOption.ARRAY).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_6,
+				PropertyDefinition.builder().setType(Double.class).setDefaultValue(0.0).setMapOption(MapOption.RANGE).build());
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_7, PropertyDefinition.builder().setType(Boolean.class).setDefaultValue(false).build());
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.FALSE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final Object indexKey = new Object();
+
+		/*
+		 * Set a value for each person at time 1, recording the values
+		 */
+		final Map<PersonId, Integer> expectedValues = new LinkedHashMap<>();
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			environment.addPopulationIndex(property(TestPersonPropertyId.PERSON_PROPERTY_7, Equality.EQUAL, true), indexKey);
+			for (final PersonId personId : environment.getPeople()) {
+				final int value = environment.getRandomGenerator().nextInt(5);
+				expectedValues.put(personId, value);
+				environment.setPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_1, value);
+				environment.setPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_2, value);
+				environment.setPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_3, value);
+				environment.setPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_4, value != 0);
+				environment.setPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_5, value);
+				environment.setPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_6, value);
+				environment.setPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_7, value != 0);
+			}
+		});
+
+		/*
+		 * At time 2, assign the same values to the people with even values
+		 * and new values to the others. Show that the assignment times only
+		 * change with the values and that the value mappings and the index
+		 * agree with the values.
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 2, (environment) -> {
+			for (final PersonId personId : environment.getPeople()) {
+				final int oldValue = expectedValues.get(personId);
+				final int value = oldValue % 2 == 0 ? oldValue : oldValue + 1;
+				expectedValues.put(personId, value);
+				environment.setPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_1, value);
+				environment.setPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_2, value);
+				environment.setPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_3, value);
+				environment.setPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_5, value);
+				environment.setPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_6, value);
+				environment.setPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_7, value % 4 == 0);
+
+				final double expectedTime = value == oldValue ? (value == 0 ? 0 : 1) : 2;
+				assertEquals(expectedTime, environment.getPersonPropertyTime(personId, TestPersonPropertyId.PERSON_PROPERTY_1), 0);
+				assertEquals(expectedTime, environment.getPersonPropertyTime(personId, TestPersonPropertyId.PERSON_PROPERTY_2), 0);
+				assertEquals(expectedTime, environment.getPersonPropertyTime(personId, TestPersonPropertyId.PERSON_PROPERTY_3), 0);
+				assertEquals(oldValue == 0 ? 0 : 1, environment.getPersonPropertyTime(personId, TestPersonPropertyId.PERSON_PROPERTY_4), 0);
+
+				assertEquals(value, environment.getPersonPropertyInt(personId, TestPersonPropertyId.PERSON_PROPERTY_1));
+				assertEquals(value, environment.getPersonPropertyLong(personId, TestPersonPropertyId.PERSON_PROPERTY_2));
+				assertEquals(value, environment.getPersonPropertyDouble(personId, TestPersonPropertyId.PERSON_PROPERTY_3), 0);
+				assertEquals(oldValue != 0, environment.getPersonPropertyBoolean(personId, TestPersonPropertyId.PERSON_PROPERTY_4));
+			}
+
+			for (int value = 0; value <= 5; value++) {
+				final Set<PersonId> expectedPeople = new LinkedHashSet<>();
+				for (final PersonId personId : expectedValues.keySet()) {
+					if (expectedValues.get(personId) == value) {
+						expectedPeople.add(personId);
+					}
+				}
+				assertEquals(expectedPeople, new LinkedHashSet<>(environment.getPeopleWithPropertyValue(TestPersonPropertyId.PERSON_PROPERTY_5, value)));
+				assertEquals(expectedPeople, new LinkedHashSet<>(environment.getPeopleWithPropertyValue(TestPersonPropertyId.PERSON_PROPERTY_6, (double) value)));
+			}
+
+			final Set<PersonId> expectedIndexedPeople = new LinkedHashSet<>();
+			for (final PersonId personId : expectedValues.keySet()) {
+				if (expectedValues.get(personId) % 4 == 0) {
+					expectedIndexedPeople.add(personId);
+				}
+			}
+			assertEquals(expectedIndexedPeople, new LinkedHashSet<>(environment.getIndexedPeople(indexKey)));
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests that person properties stored with {@link StorageOption#OFF_HEAP}
+	 * retain their values and assignment times
+	 */
+	@Test
+	public void testOffHeapPersonPropertyStorage() {
+
+		/*
+		 * Force an off heap property definition for each of the types that
+		 * have off heap storage, all with tracked assignment times, along with
+		 * a String property that is stored in the heap regardless.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(16);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_1, getOffHeapPropertyDefinition(Integer.class, -3));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_2, getOffHeapPropertyDefinition(Long.class, 5L));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_3, getOffHeapPropertyDefinition(Double.class, 2.5));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_4, getOffHeapPropertyDefinition(Boolean.class, true));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_5, getOffHeapPropertyDefinition(Byte.class, (byte) -7));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_6, getOffHeapPropertyDefinition(Float.class, 1.5f));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_7, getOffHeapPropertyDefinition(TestRegionId.class, TestRegionId.REGION_2));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_8, getOffHeapPropertyDefinition(String.class, "default value"));
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		Map<PersonId, Map<PersonPropertyId, Object>> expectedValues = new LinkedHashMap<>();
+		Map<PersonId, Map<PersonPropertyId, Double>> expectedTimes = new LinkedHashMap<>();
+
+		/*
+		 * Show that the default values are returned
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			for (final PersonId personId : environment.getPeople()) {
+				Map<PersonPropertyId, Object> values = new LinkedHashMap<>();
+				Map<PersonPropertyId, Double> times = new LinkedHashMap<>();
+				for (Object key : forcedPropertyDefinitions.keySet()) {
+					TestPersonPropertyId personPropertyId = (TestPersonPropertyId) key;
+					Object defaultValue = forcedPropertyDefinitions.get(key).getDefaultValue().get();
+					assertEquals(defaultValue, environment.getPersonPropertyValue(personId, personPropertyId));
+					values.put(personPropertyId, defaultValue);
+					times.put(personPropertyId, 0.0);
+				}
+				expectedValues.put(personId, values);
+				expectedTimes.put(personId, times);
+			}
+		});
+
+		/*
+		 * Assign random values at several times and show that the values and
+		 * assignment times are retained
+		 */
+		for (int testTime = 2; testTime < 6; testTime++) {
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime, (environment) -> {
+				for (final PersonId personId : environment.getPeople()) {
+					for (Object key : forcedPropertyDefinitions.keySet()) {
+						TestPersonPropertyId personPropertyId = (TestPersonPropertyId) key;
+						if (environment.getRandomGenerator().nextBoolean()) {
+							Object value = generateOffHeapPropertyValue(forcedPropertyDefinitions.get(key).getType(), environment.getRandomGenerator());
+							environment.setPersonPropertyValue(personId, personPropertyId, value);
+							// times are recorded only when the value changes
+							Object oldValue = expectedValues.get(personId).put(personPropertyId, value);
+							if (!value.equals(oldValue)) {
+								expectedTimes.get(personId).put(personPropertyId, environment.getTime());
+							}
+						}
+					}
+				}
+				for (final PersonId personId : environment.getPeople()) {
+					for (Object key : forcedPropertyDefinitions.keySet()) {
+						TestPersonPropertyId personPropertyId = (TestPersonPropertyId) key;
+						assertEquals(expectedValues.get(personId).get(personPropertyId), environment.getPersonPropertyValue(personId, personPropertyId));
+						assertEquals(expectedTimes.get(personId).get(personPropertyId), environment.getPersonPropertyTime(personId, personPropertyId), 0);
+					}
+				}
+			});
+		}
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests that person property assignment times are recorded with the
+	 * precision of their {@link TimeTrackingPolicy} and are recorded only when
+	 * the value changes
+	 */
+	@Test
+	public void testPersonPropertyTimeTrackingPrecision() {
+
+		final long seed = SEED_PROVIDER.getSeedValue(17);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_1, getTimeTrackingPropertyDefinition(TimeTrackingPolicy.TRACK_TIME, StorageOption.HEAP));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_2, getTimeTrackingPropertyDefinition(TimeTrackingPolicy.TRACK_TIME_FLOAT, StorageOption.HEAP));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_3, getTimeTrackingPropertyDefinition(TimeTrackingPolicy.TRACK_TIME_DAYS, StorageOption.HEAP));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_4, getTimeTrackingPropertyDefinition(TimeTrackingPolicy.TRACK_TIME, StorageOption.OFF_HEAP));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_5, getTimeTrackingPropertyDefinition(TimeTrackingPolicy.TRACK_TIME_FLOAT, StorageOption.OFF_HEAP));
+		forcedPropertyDefinitions.put(TestPersonPropertyId.PERSON_PROPERTY_6, getTimeTrackingPropertyDefinition(TimeTrackingPolicy.TRACK_TIME_DAYS, StorageOption.OFF_HEAP));
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		Map<PersonId, Map<PersonPropertyId, Double>> expectedTimes = new LinkedHashMap<>();
+
+		/*
+		 * At several fractional times, either change each value or set it to
+		 * its current value and show that only the changes are recorded
+		 */
+		double[] testTimes = { 1.1, 2.7, 3.3333333333, 4.9, 6.0 };
+		for (double testTime : testTimes) {
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime, (environment) -> {
+				for (final PersonId personId : environment.getPeople()) {
+					Map<PersonPropertyId, Double> times = expectedTimes.get(personId);
+					if (times == null) {
+						times = new LinkedHashMap<>();
+						expectedTimes.put(personId, times);
+					}
+					for (Object key : forcedPropertyDefinitions.keySet()) {
+						TestPersonPropertyId personPropertyId = (TestPersonPropertyId) key;
+						if (!times.containsKey(personPropertyId)) {
+							times.put(personPropertyId, 0.0);
+						}
+						int value = environment.getPersonPropertyValue(personId, personPropertyId);
+						if (environment.getRandomGenerator().nextBoolean()) {
+							environment.setPersonPropertyValue(personId, personPropertyId, value + 1);
+							TimeTrackingPolicy timeTrackingPolicy = forcedPropertyDefinitions.get(key).getTimeTrackingPolicy();
+							times.put(personPropertyId, timeTrackingPolicy.getRecordedTime(environment.getTime()));
+						} else {
+							environment.setPersonPropertyValue(personId, personPropertyId, value);
+						}
+					}
+				}
+				for (final PersonId personId : environment.getPeople()) {
+					for (Object key : forcedPropertyDefinitions.keySet()) {
+						TestPersonPropertyId personPropertyId = (TestPersonPropertyId) key;
+						assertEquals(expectedTimes.get(personId).get(personPropertyId), environment.getPersonPropertyTime(personId, personPropertyId), 0);
+					}
+				}
+			});
+		}
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	private static PropertyDefinition getTimeTrackingPropertyDefinition(TimeTrackingPolicy timeTrackingPolicy, StorageOption storageOption) {
+		return PropertyDefinition	.builder()//
+									.setType(Integer.class)//
+									.setDefaultValue(0)//
+									.setTimeTrackingPolicy(timeTrackingPolicy)//
+									.setStorageOption(storageOption)//
+									.build();//
+	}
+
+	private static PropertyDefinition getOffHeapPropertyDefinition(Class<?> type, Object defaultValue) {
+		return PropertyDefinition	.builder()//
+									.setType(type)//
+									.setDefaultValue(defaultValue)//
+									.setTimeTrackingPolicy(TimeTrackingPolicy.TRACK_TIME)//
+									.setStorageOption(StorageOption.OFF_HEAP)//
+									.build();//
+	}
+
+	private static Object generateOffHeapPropertyValue(Class<?> type, RandomGenerator randomGenerator) {
+		if (type == Integer.class) {
+			return randomGenerator.nextInt();
+		} else if (type == Long.class) {
+			return randomGenerator.nextLong();
+		} else if (type == Double.class) {
+			return randomGenerator.nextDouble() - 0.5;
+		} else if (type == Boolean.class) {
+			return randomGenerator.nextBoolean();
+		} else if (type == Byte.class) {
+			return (byte) randomGenerator.nextInt();
+		} else if (type == Float.class) {
+			return randomGenerator.nextFloat() - 0.5f;
+		} else if (type == TestRegionId.class) {
+			return TestRegionId.values()[randomGenerator.nextInt(TestRegionId.values().length)];
+		} else {
+			return "String " + randomGenerator.nextInt();
+		}
+	}
+
 	/**
 	 * Tests {@link Environment#getPersonRegion(PersonId)}
 	 */
@@ -1062,6 +1537,367 @@ public class AT_EnvironmentImpl_08 {
 
 	}
 
+	/**
+	 * Tests
+	 * {@link Environment#addWeightedPopulationIndex(gcm.simulation.Filter, Object, gcm.simulation.IndexWeightingFunction, PersonPropertyId...)}
+	 * and {@link Environment#getWeightedRandomIndexedPerson(Object)}
+	 */
+	@Test
+	public void testGetWeightedRandomIndexedPerson() {
+		/*
+		 * Show that people are drawn from a weighted index in proportion to the
+		 * value of an integer person property and that the draws follow
+		 * changes to that property. The second index holds only the people
+		 * with positive weights, so people join and leave it as their weights
+		 * change.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(18);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 30);
+
+		final TestPersonPropertyId weightPropertyId = TestPersonPropertyId.PERSON_PROPERTY_1;
+		Map<Object, PropertyDefinition> forcedPropertyDefinitions = new LinkedHashMap<>();
+		forcedPropertyDefinitions.put(weightPropertyId, PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).build());
+		addStandardPropertyDefinitions(scenarioBuilder, forcedPropertyDefinitions, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final Object key = new Object();
+		final Object positiveKey = new Object();
+		final TestCompartmentId testCompartmentId = TestCompartmentId.COMPARTMENT_1;
+		final int sampleCount = 20000;
+
+		int testTime = 1;
+
+		for (int i = 0; i < 3; i++) {
+			final boolean addIndex = i == 0;
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+				/*
+				 * Assign random weights to everyone, leaving some with no
+				 * weight. Going in reverse order of person id means that people
+				 * leaving the index are generally replaced in the weight tree by
+				 * people whose weights have already been assigned.
+				 */
+				final List<PersonId> people = environment.getPeople();
+				Collections.reverse(people);
+				for (final PersonId personId : people) {
+					environment.setPersonPropertyValue(personId, weightPropertyId, environment.getRandomGenerator().nextInt(5));
+				}
+				if (addIndex) {
+					environment.addWeightedPopulationIndex(compartment(testCompartmentId), key, (observableEnvironment, personId) -> {
+						Integer weight = observableEnvironment.getPersonPropertyValue(personId, weightPropertyId);
+						return weight;
+					}, weightPropertyId);
+					environment.addWeightedPopulationIndex(compartment(testCompartmentId).and(property(weightPropertyId, Equality.GREATER_THAN, 0)), positiveKey,
+							(observableEnvironment, personId) -> {
+								Integer weight = observableEnvironment.getPersonPropertyValue(personId, weightPropertyId);
+								return weight;
+							}, weightPropertyId);
+				}
+
+				final Map<PersonId, Double> expectedWeights = new LinkedHashMap<>();
+				double totalWeight = 0;
+				for (final PersonId personId : environment.getPeopleInCompartment(testCompartmentId)) {
+					Integer weight = environment.getPersonPropertyValue(personId, weightPropertyId);
+					expectedWeights.put(personId, weight.doubleValue());
+					totalWeight += weight;
+				}
+
+				for (final Object indexKey : new Object[] { key, positiveKey }) {
+					final Map<PersonId, Counter> counterMap = new LinkedHashMap<>();
+					for (int j = 0; j < sampleCount; j++) {
+						final PersonId personId = environment.getWeightedRandomIndexedPerson(indexKey).get();
+						Counter counter = counterMap.get(personId);
+						if (counter == null) {
+							counter = new Counter();
+							counterMap.put(personId, counter);
+						}
+						counter.count++;
+					}
+
+					// only people in the index with positive weights are drawn
+					for (final PersonId personId : counterMap.keySet()) {
+						assertTrue(expectedWeights.containsKey(personId));
+						assertTrue(expectedWeights.get(personId) > 0);
+					}
+
+					// everyone with a positive weight is drawn
+					for (final PersonId personId : expectedWeights.keySet()) {
+						if (expectedWeights.get(personId) > 0) {
+							assertTrue(counterMap.containsKey(personId));
+						}
+					}
+
+					// the draws are proportional to the weights
+					for (final PersonId personId : expectedWeights.keySet()) {
+						final Counter counter = counterMap.get(personId);
+						final double observedFraction = counter == null ? 0 : (double) counter.count / sampleCount;
+						assertEquals(expectedWeights.get(personId) / totalWeight, observedFraction, 0.02);
+					}
+				}
+			});
+		}
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			// show that an index with no positive weights returns no person
+			for (final PersonId personId : environment.getPeople()) {
+				environment.setPersonPropertyValue(personId, weightPropertyId, 0);
+			}
+			assertFalse(environment.getWeightedRandomIndexedPerson(key).isPresent());
+			assertFalse(environment.getWeightedRandomIndexedPerson(positiveKey).isPresent());
+			assertEquals(0, environment.getIndexSize(positiveKey));
+			environment.removePopulationIndex(key);
+			environment.removePopulationIndex(positiveKey);
+
+			// show that a negative weight is reported as a malformed weighting
+			// function
+			final Object negativeKey = new Object();
+			environment.addWeightedPopulationIndex(compartment(testCompartmentId), negativeKey, (observableEnvironment, personId) -> -1);
+			assertModelException(() -> environment.getWeightedRandomIndexedPerson(negativeKey), SimulationErrorType.MALFORMED_WEIGHTING_FUNCTION);
+			environment.removePopulationIndex(negativeKey);
+		});
+
+		/*
+		 * Precondition tests
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			final Object unweightedKey = new Object();
+			environment.addPopulationIndex(compartment(testCompartmentId), unweightedKey);
+
+			// if the filter is null
+			assertModelException(() -> environment.addWeightedPopulationIndex(null, new Object(), (observableEnvironment, personId) -> 1), SimulationErrorType.NULL_FILTER);
+			// if the key is null
+			assertModelException(() -> environment.addWeightedPopulationIndex(compartment(testCompartmentId), null, (observableEnvironment, personId) -> 1), SimulationErrorType.NULL_POPULATION_INDEX_KEY);
+			// if the key is already in use
+			assertModelException(() -> environment.addWeightedPopulationIndex(compartment(testCompartmentId), unweightedKey, (observableEnvironment, personId) -> 1),
+					SimulationErrorType.DUPLICATE_INDEXED_POPULATION);
+			// if the weighting function is null
+			assertModelException(() -> environment.addWeightedPopulationIndex(compartment(testCompartmentId), new Object(), null), SimulationErrorType.NULL_WEIGHTING_FUNCTION);
+			// if a weight property id is null
+			assertModelException(() -> environment.addWeightedPopulationIndex(compartment(testCompartmentId), new Object(), (observableEnvironment, personId) -> 1, (PersonPropertyId) null),
+					SimulationErrorType.NULL_PERSON_PROPERTY_ID);
+			// if a weight property id is unknown
+			assertModelException(() -> environment.addWeightedPopulationIndex(compartment(testCompartmentId), new Object(), (observableEnvironment, personId) -> 1,
+					TestPersonPropertyId.getUnknownPersonPropertyId()), SimulationErrorType.UNKNOWN_PERSON_PROPERTY_ID);
+
+			// if the key is null
+			assertModelException(() -> environment.getWeightedRandomIndexedPerson(null), SimulationErrorType.NULL_POPULATION_INDEX_KEY);
+			// if the key does not correspond to an existing population index
+			assertModelException(() -> environment.getWeightedRandomIndexedPerson(new Object()), SimulationErrorType.UNKNOWN_POPULATION_INDEX_KEY);
+			// if the index is not weighted
+			assertModelException(() -> environment.getWeightedRandomIndexedPerson(unweightedKey), SimulationErrorType.NON_WEIGHTED_POPULATION_INDEX);
+
+			environment.removePopulationIndex(unweightedKey);
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/*
+	 * A random number generator identifier local to the sampling test
+	 */
+	private static enum LocalRandomNumberGeneratorId implements RandomNumberGeneratorId {
+		GENERATOR_1
+	}
+
+	/**
+	 * Tests {@link Environment#sampleIndexedPeople(Object, int, RandomNumberGeneratorId)}
+	 */
+	@Test
+	public void testSampleIndexedPeople() {
+		/*
+		 * Show that samples drawn from population indexes contain distinct
+		 * members of the index, that they are uniformly distributed and that
+		 * sampling leaves the index unchanged. A compartment index is large
+		 * enough to be held as a tree bit set while an index of a small group
+		 * is held as a map.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(19);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 1000);
+		scenarioBuilder.addRandomNumberGeneratorId(LocalRandomNumberGeneratorId.GENERATOR_1);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final RandomNumberGeneratorId generatorId = LocalRandomNumberGeneratorId.GENERATOR_1;
+		final Object compartmentKey = new Object();
+		final Object groupKey = new Object();
+		final int trialCount = 20000;
+
+		int testTime = 1;
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			environment.addPopulationIndex(compartment(TestCompartmentId.COMPARTMENT_1), compartmentKey);
+
+			GroupId groupId = environment.addGroup(TestGroupTypeId.GROUP_TYPE_1);
+			List<PersonId> people = environment.getPeople();
+			for (int i = 0; i < 4; i++) {
+				environment.addPersonToGroup(people.get(i), groupId);
+			}
+			environment.addPopulationIndex(groupMember(groupId), groupKey);
+
+			for (Object key : new Object[] { compartmentKey, groupKey }) {
+				final Set<PersonId> expectedPeople = new LinkedHashSet<>(environment.getIndexedPeople(key));
+				final int indexSize = expectedPeople.size();
+				assertTrue(indexSize > 0);
+
+				for (int sampleCount : new int[] { 0, 1, 3, indexSize, indexSize + 5 }) {
+					List<PersonId> sample = environment.sampleIndexedPeople(key, sampleCount, generatorId);
+					// the sample contains distinct members of the index
+					assertEquals(Math.min(sampleCount, indexSize), sample.size());
+					assertEquals(sample.size(), new LinkedHashSet<>(sample).size());
+					assertTrue(expectedPeople.containsAll(sample));
+					// the index is unchanged
+					assertEquals(indexSize, environment.getIndexSize(key));
+					assertEquals(expectedPeople, new LinkedHashSet<>(environment.getIndexedPeople(key)));
+				}
+
+				// each person appears in samples of three in proportion to
+				// the size of the index
+				final int sampleCount = Math.min(3, indexSize);
+				final Map<PersonId, Counter> counterMap = new LinkedHashMap<>();
+				for (PersonId personId : expectedPeople) {
+					counterMap.put(personId, new Counter());
+				}
+				for (int j = 0; j < trialCount; j++) {
+					for (PersonId personId : environment.sampleIndexedPeople(key, sampleCount, generatorId)) {
+						counterMap.get(personId).count++;
+					}
+				}
+				for (PersonId personId : expectedPeople) {
+					final double observedFraction = (double) counterMap.get(personId).count / trialCount;
+					assertEquals((double) sampleCount / indexSize, observedFraction, 0.02);
+				}
+			}
+		});
+
+		/*
+		 * Precondition tests
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, testTime++, (environment) -> {
+			// if the key is null
+			assertModelException(() -> environment.sampleIndexedPeople(null, 1, generatorId), SimulationErrorType.NULL_POPULATION_INDEX_KEY);
+			// if the key does not correspond to an existing population index
+			assertModelException(() -> environment.sampleIndexedPeople(new Object(), 1, generatorId), SimulationErrorType.UNKNOWN_POPULATION_INDEX_KEY);
+			// if the sample count is negative
+			assertModelException(() -> environment.sampleIndexedPeople(compartmentKey, -1, generatorId), SimulationErrorType.NEGATIVE_SAMPLE_COUNT);
+			// if the random number generator id is null
+			assertModelException(() -> environment.sampleIndexedPeople(compartmentKey, 1, null), SimulationErrorType.NULL_RANDOM_NUMBER_GENERATOR_ID);
+			// if the random number generator id is unknown
+			assertModelException(() -> environment.sampleIndexedPeople(compartmentKey, 1, new RandomNumberGeneratorId() {
+			}), SimulationErrorType.UNKNOWN_RANDOM_NUMBER_GENERATOR_ID);
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests {@link Environment#sampleIndexedPeople(Object, int, RandomNumberGeneratorId)}
+	 */
+	@Test
+	public void testSampleLargeMapIndexedPeople() {
+		/*
+		 * Show that samples drawn from a large index that is held as a map,
+		 * with people removed from it after they were added, contain distinct
+		 * members of the index and that every member of the index is drawn.
+		 * The population of 60000 keeps an index of up to 399 people in map
+		 * mode.
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(20);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 60000);
+		scenarioBuilder.addRandomNumberGeneratorId(LocalRandomNumberGeneratorId.GENERATOR_1);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final RandomNumberGeneratorId generatorId = LocalRandomNumberGeneratorId.GENERATOR_1;
+		final Object groupKey = new Object();
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			GroupId groupId = environment.addGroup(TestGroupTypeId.GROUP_TYPE_1);
+			environment.addPopulationIndex(groupMember(groupId), groupKey);
+
+			/*
+			 * Add 390 people to the group and then remove every third one,
+			 * leaving removed people scattered through the index
+			 */
+			List<PersonId> people = environment.getPeople();
+			Collections.shuffle(people, new Random(randomGenerator.nextLong()));
+			for (int i = 0; i < 390; i++) {
+				environment.addPersonToGroup(people.get(i), groupId);
+			}
+			for (int i = 0; i < 390; i += 3) {
+				environment.removePersonFromGroup(people.get(i), groupId);
+			}
+
+			final Set<PersonId> expectedPeople = new LinkedHashSet<>(environment.getIndexedPeople(groupKey));
+			final int indexSize = expectedPeople.size();
+			assertEquals(260, indexSize);
+
+			// a full sample is a permutation of the index
+			for (int sampleCount : new int[] { indexSize, indexSize + 5 }) {
+				List<PersonId> sample = environment.sampleIndexedPeople(groupKey, sampleCount, generatorId);
+				assertEquals(indexSize, sample.size());
+				assertEquals(expectedPeople, new LinkedHashSet<>(sample));
+			}
+
+			// repeated partial samples are distinct and cover the index
+			Set<PersonId> drawnPeople = new LinkedHashSet<>();
+			for (int j = 0; j < 1000; j++) {
+				List<PersonId> sample = environment.sampleIndexedPeople(groupKey, 10, generatorId);
+				assertEquals(10, sample.size());
+				assertEquals(10, new LinkedHashSet<>(sample).size());
+				assertTrue(expectedPeople.containsAll(sample));
+				drawnPeople.addAll(sample);
+			}
+			assertEquals(expectedPeople, drawnPeople);
+
+			// the index is unchanged
+			assertEquals(expectedPeople, new LinkedHashSet<>(environment.getIndexedPeople(groupKey)));
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
 	/**
 	 * Tests {@link Environment#getRegionIds()}
 	 */
@@ -18,8 +18,10 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -28,9 +30,11 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import gcm.components.BatchObservingComponent;
 import gcm.replication.Replication;
 import gcm.scenario.BatchId;
 import gcm.scenario.CompartmentId;
+import gcm.scenario.GlobalComponentId;
 import gcm.scenario.PersonId;
 import gcm.scenario.PersonPropertyId;
 import gcm.scenario.PropertyDefinition;
@@ -45,6 +49,7 @@ import gcm.simulation.EnvironmentImpl;
 import gcm.simulation.ObservationType;
 import gcm.simulation.Simulation;
 import gcm.simulation.SimulationErrorType;
+import gcm.test.support.BatchTaskComponent;
 import gcm.test.support.EnvironmentSupport;
 import gcm.test.support.ObservationContainer;
 import gcm.test.support.SeedProvider;
@@ -818,6 +823,147 @@ public class AT_EnvironmentImpl_14 {
 
 	}
 
+	/**
+	 * Tests {@link Simulation#setObservationCoalescing(boolean)} by showing that
+	 * repeated changes to a person's property value made within a single plan
+	 * are delivered to an observer once when coalescing and once per change
+	 * otherwise.
+	 */
+	@Test
+	public void testObservePersonPropertyChangeWithCoalescing() {
+		final long seed = SEED_PROVIDER.getSeedValue(6);
+		final int changeCount = 5;
+		assertEquals(changeCount, getPersonPropertyObservationCount(seed, changeCount, false));
+		assertEquals(1, getPersonPropertyObservationCount(seed, changeCount, true));
+	}
+
+	/*
+	 * Returns the number of observations made by Compartment 1 of a person's
+	 * property value that is changed the given number of times in a single
+	 * plan by Global Component 1
+	 */
+	private int getPersonPropertyObservationCount(final long seed, final int changeCount, final boolean observationCoalescing) {
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+		addStandardPropertyDefinitions(scenarioBuilder, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		ObservationContainer observationContainer = addObservationContainer(scenarioBuilder);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final PersonId selectedPersonId = scenario.getPeopleIds().iterator().next();
+		final TestPersonPropertyId selectedPersonPropertyId = TestPersonPropertyId.PERSON_PROPERTY_1;
+		final PropertyDefinition propertyDefinition = scenario.getPersonPropertyDefinition(selectedPersonPropertyId);
+
+		taskPlanContainer.addTaskPlan(TestCompartmentId.COMPARTMENT_1, 1, (environment) -> {
+			environment.observePersonPropertyChange(true, selectedPersonId, selectedPersonPropertyId);
+		});
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 2, (environment) -> {
+			for (int i = 0; i < changeCount; i++) {
+				environment.setPersonPropertyValue(selectedPersonId, selectedPersonPropertyId, generatePropertyValue(propertyDefinition, randomGenerator));
+			}
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.setObservationCoalescing(observationCoalescing);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+
+		return observationContainer.getObservationCount();
+	}
+
+	/**
+	 * Tests the batched delivery of person property change observations to a
+	 * {@link BatchObservingComponent}. The batching component receives all of
+	 * the changes made in a single plan in one invocation while a standard
+	 * component continues to receive each change individually.
+	 */
+	@Test
+	public void testObservePersonPropertyChangesInBatch() {
+		final long seed = SEED_PROVIDER.getSeedValue(7);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+		addStandardPropertyDefinitions(scenarioBuilder, PropertyAssignmentPolicy.TRUE, randomGenerator);
+
+		ObservationContainer observationContainer = addObservationContainer(scenarioBuilder);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		final TestPersonPropertyId selectedPersonPropertyId = TestPersonPropertyId.PERSON_PROPERTY_1;
+		final PropertyDefinition propertyDefinition = scenario.getPersonPropertyDefinition(selectedPersonPropertyId);
+		final GlobalComponentId batchComponentId = TestGlobalComponentId.getUnknownGlobalComponentId();
+		final List<PersonId> changedPeople = new ArrayList<>();
+		final Map<PersonId, Object> changedValues = new LinkedHashMap<>();
+
+		/*
+		 * Time 1 : Global Component 1 adds the batching component and
+		 * Compartment 1 starts observation of the property for all people
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			environment.addGlobalComponent(batchComponentId, BatchTaskComponent.class);
+		});
+
+		taskPlanContainer.addTaskPlan(TestCompartmentId.COMPARTMENT_1, 1, (environment) -> {
+			environment.observeGlobalPersonPropertyChange(true, selectedPersonPropertyId);
+		});
+
+		/*
+		 * Time 2 : The batching component starts observation of the property
+		 * for all people
+		 */
+		taskPlanContainer.addTaskPlan(batchComponentId, 2, (environment) -> {
+			environment.observeGlobalPersonPropertyChange(true, selectedPersonPropertyId);
+		});
+
+		/*
+		 * Time 3 : Global Component 2 changes the property for every person
+		 */
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_2, 3, (environment) -> {
+			for (PersonId personId : environment.getPeople()) {
+				Object propertyValue = generatePropertyValue(propertyDefinition, randomGenerator);
+				environment.setPersonPropertyValue(personId, selectedPersonPropertyId, propertyValue);
+				changedPeople.add(personId);
+				changedValues.put(personId, propertyValue);
+			}
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+
+		final Set<MultiKey> expectedObservations = new LinkedHashSet<>();
+		for (PersonId personId : changedPeople) {
+			expectedObservations.add(new MultiKey(3.0, TestCompartmentId.COMPARTMENT_1, ObservationType.PERSON_PROPERTY, personId, selectedPersonPropertyId, changedValues.get(personId)));
+		}
+		expectedObservations.add(new MultiKey(3.0, batchComponentId, ObservationType.PERSON_PROPERTY, selectedPersonPropertyId, changedPeople));
+
+		assertEquals(expectedObservations, observationContainer.getObservations());
+		assertEquals(changedPeople.size() + 1, observationContainer.getObservationCount());
+	}
+
 	/**
 	 * Tests {@link Environment#observePersonRegionChange(boolean, PersonId)}
 	 *
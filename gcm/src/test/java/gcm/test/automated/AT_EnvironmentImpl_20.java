@@ -19,6 +19,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -31,6 +32,11 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import gcm.experiment.ExperimentProgressLog;
+import gcm.output.OutputItem;
+import gcm.output.OutputItemHandler;
+import gcm.output.simstate.NIOPlanningQueueReportItemHandler;
+import gcm.output.simstate.PlanningQueueReportItem;
 import gcm.replication.Replication;
 import gcm.scenario.BatchId;
 import gcm.scenario.BatchPropertyId;
@@ -41,14 +47,17 @@ import gcm.scenario.MaterialId;
 import gcm.scenario.PersonId;
 import gcm.scenario.PropertyDefinition;
 import gcm.scenario.RegionId;
+import gcm.scenario.ReplicationId;
 import gcm.scenario.ResourceId;
 import gcm.scenario.Scenario;
 import gcm.scenario.ScenarioBuilder;
+import gcm.scenario.ScenarioId;
 import gcm.scenario.StageId;
 import gcm.scenario.UnstructuredScenarioBuilder;
 import gcm.simulation.Environment;
 import gcm.simulation.EnvironmentImpl;
 import gcm.simulation.Filter;
+import gcm.simulation.PlanningQueueType;
 import gcm.simulation.Simulation;
 import gcm.simulation.SimulationErrorType;
 import gcm.test.support.EnvironmentSupport;
@@ -426,6 +435,153 @@ public class AT_EnvironmentImpl_20 {
 		assertTrue(taskPlan3.planExecuted());
 	}
 
+	/**
+	 * Tests {@link Environment#removePlan(Object)} when the number of cancelled
+	 * plans is large enough to force the planning queue to compact itself
+	 */
+	@Test
+	public void testRemovePlanWithQueueCompaction() {
+		/*
+		 * Each planning queue type must produce the same execution order
+		 */
+		final long seed = SEED_PROVIDER.getSeedValue(12);
+		List<List<Integer>> executionOrders = new ArrayList<>();
+		for (PlanningQueueType planningQueueType : PlanningQueueType.values()) {
+			executionOrders.add(testRemovePlanWithQueueCompaction(seed, planningQueueType, false));
+			/*
+			 * With the planning queue report active, each cancellation must be
+			 * reported before the compaction purges its tombstone
+			 */
+			executionOrders.add(testRemovePlanWithQueueCompaction(seed, planningQueueType, true));
+		}
+		for (List<Integer> executionOrder : executionOrders) {
+			assertEquals(executionOrders.get(0), executionOrder);
+		}
+	}
+
+	private List<Integer> testRemovePlanWithQueueCompaction(long seed, PlanningQueueType planningQueueType, boolean reportPlanningQueue) {
+		/*
+		 * Create a test plan that adds a large number of keyed plans and then
+		 * cancels most of them. Show that the remaining plans are executed in
+		 * time order with ties broken by the order of addition and that the
+		 * cancelled plans are never executed.
+		 */
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+		addStandardPropertyDefinitions(scenarioBuilder, PropertyAssignmentPolicy.RANDOM, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		int planCount = 5000;
+		List<Integer> cancelledPlans = new ArrayList<>();
+		List<Integer> expectedExecutionOrder = new ArrayList<>();
+		List<Integer> actualExecutionOrder = new ArrayList<>();
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			List<Integer> planTimes = new ArrayList<>();
+			for (int i = 0; i < planCount; i++) {
+				int planTime = randomGenerator.nextInt(50) + 2;
+				planTimes.add(planTime);
+				final int index = i;
+				environment.addPlan(new TaskPlan(planTime, "compaction_" + i, (env) -> {
+					assertEquals(planTimes.get(index), env.getTime(), 0);
+					actualExecutionOrder.add(index);
+				}), planTime, "compaction_" + i);
+			}
+
+			for (int i = 0; i < planCount; i++) {
+				if (randomGenerator.nextDouble() < 0.9) {
+					assertTrue(environment.removePlan("compaction_" + i).isPresent());
+					cancelledPlans.add(i);
+				} else {
+					expectedExecutionOrder.add(i);
+				}
+			}
+
+			Collections.sort(expectedExecutionOrder, (a, b) -> {
+				int result = Integer.compare(planTimes.get(a), planTimes.get(b));
+				if (result == 0) {
+					result = Integer.compare(a, b);
+				}
+				return result;
+			});
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.setPlanningQueueType(planningQueueType);
+
+		/*
+		 * The NIO handler has no path and so writes nothing, but its threshold
+		 * activates the planning queue report. The report items are collected
+		 * by a second handler.
+		 */
+		List<PlanningQueueReportItem> planningQueueReportItems = new ArrayList<>();
+		if (reportPlanningQueue) {
+			simulation.addOutputItemHandler(new NIOPlanningQueueReportItemHandler(null, 100));
+			simulation.addOutputItemHandler(new OutputItemHandler() {
+
+				@Override
+				public void handle(OutputItem outputItem) {
+					planningQueueReportItems.add((PlanningQueueReportItem) outputItem);
+				}
+
+				@Override
+				public Set<Class<? extends OutputItem>> getHandledClasses() {
+					Set<Class<? extends OutputItem>> result = new LinkedHashSet<>();
+					result.add(PlanningQueueReportItem.class);
+					return result;
+				}
+
+				@Override
+				public void openSimulation(ScenarioId scenarioId, ReplicationId replicationId) {
+
+				}
+
+				@Override
+				public void openExperiment(ExperimentProgressLog experimentProgressLog) {
+
+				}
+
+				@Override
+				public void closeSimulation(ScenarioId scenarioId, ReplicationId replicationId) {
+
+				}
+
+				@Override
+				public void closeExperiment() {
+
+				}
+			});
+		}
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+		assertEquals(expectedExecutionOrder, actualExecutionOrder);
+
+		if (reportPlanningQueue) {
+			long cancellationCount = 0;
+			long purgeCount = 0;
+			for (PlanningQueueReportItem planningQueueReportItem : planningQueueReportItems) {
+				cancellationCount += planningQueueReportItem.getCancellationCount();
+				purgeCount += planningQueueReportItem.getPurgeCount();
+			}
+			assertEquals(cancelledPlans.size(), cancellationCount);
+			assertTrue(purgeCount > 0);
+			assertTrue(purgeCount <= cancellationCount);
+		}
+		return actualExecutionOrder;
+	}
+
 	/**
 	 * Tests {@link Environment#removePopulationIndex(Object)}
 	 */
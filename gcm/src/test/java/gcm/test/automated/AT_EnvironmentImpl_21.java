@@ -15,8 +15,10 @@ import static gcm.test.support.EnvironmentSupport.getReplication;
 import static gcm.test.support.ExceptionAssertion.assertModelException;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -804,6 +806,64 @@ public class AT_EnvironmentImpl_21 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
+	/**
+	 * Tests
+	 * {@link Environment#setPersonPropertyValue(PersonId, PersonPropertyId, Object)}
+	 * by showing that each person retains the very instance assigned to them
+	 * for a property of a mutable type, even when the instances assigned to
+	 * different people are equal.
+	 */
+	@Test
+	public void testSetPersonPropertyValueRetainsInstances() {
+		long seed = SEED_PROVIDER.getSeedValue(12);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 1);
+		PersonPropertyId listPropertyId = TestPersonPropertyId.PERSON_PROPERTY_1;
+		scenarioBuilder.definePersonProperty(listPropertyId, PropertyDefinition.builder().setType(ArrayList.class).setDefaultValue(new ArrayList<>()).build());
+		PersonPropertyId stringPropertyId = TestPersonPropertyId.PERSON_PROPERTY_2;
+		scenarioBuilder.definePersonProperty(stringPropertyId, PropertyDefinition.builder().setType(String.class).setDefaultValue("").build());
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			List<PersonId> people = environment.getPeople();
+			List<ArrayList<Integer>> lists = new ArrayList<>();
+			for (PersonId personId : people) {
+				ArrayList<Integer> list = new ArrayList<>();
+				list.add(1);
+				lists.add(list);
+				environment.setPersonPropertyValue(personId, listPropertyId, list);
+				environment.setPersonPropertyValue(personId, stringPropertyId, new String("value"));
+			}
+			for (int i = 0; i < people.size(); i++) {
+				assertSame(lists.get(i), environment.getPersonPropertyValue(people.get(i), listPropertyId));
+				assertEquals("value", environment.getPersonPropertyValue(people.get(i), stringPropertyId));
+			}
+
+			// a change to one person's list is not seen by the others
+			lists.get(0).add(2);
+			List<Integer> firstList = environment.getPersonPropertyValue(people.get(0), listPropertyId);
+			List<Integer> secondList = environment.getPersonPropertyValue(people.get(1), listPropertyId);
+			assertEquals(2, firstList.size());
+			assertEquals(1, secondList.size());
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
 	/**
 	 * Tests {@link Environment#setPersonRegion(PersonId, RegionId)}
 	 */
@@ -35,6 +35,7 @@ import org.junit.Test;
 
 import gcm.replication.Replication;
 import gcm.scenario.BatchId;
+import gcm.scenario.GroupId;
 import gcm.scenario.MaterialsProducerId;
 import gcm.scenario.PersonId;
 import gcm.scenario.PropertyDefinition;
@@ -48,6 +49,7 @@ import gcm.simulation.EnvironmentImpl;
 import gcm.simulation.Equality;
 import gcm.simulation.Filter;
 import gcm.simulation.ObservationType;
+import gcm.simulation.PlanningQueueType;
 import gcm.simulation.Simulation;
 import gcm.simulation.SimulationErrorType;
 import gcm.test.support.EnvironmentSupport;
@@ -145,6 +147,96 @@ public class AT_EnvironmentImpl_23 {
 		assertAllPlansExecuted(taskPlanContainer);
 	}
 
+	/**
+	 * Tests {@link Environment#getPlanKeys()}, {@link Environment#getPlan(Object)}
+	 * and {@link Environment#removePlan(Object)} for plans keyed by a mixture of
+	 * IntId and other keys for each {@link PlanningQueueType}. IntId keys of
+	 * different classes that share an int value must remain distinct.
+	 */
+	@Test
+	public void testPlanKeysWithIntIdKeys() {
+		final long seed = SEED_PROVIDER.getSeedValue(5);
+		for (PlanningQueueType planningQueueType : PlanningQueueType.values()) {
+			testPlanKeysWithIntIdKeys(seed, planningQueueType);
+		}
+	}
+
+	private void testPlanKeysWithIntIdKeys(final long seed, final PlanningQueueType planningQueueType) {
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, 10);
+		addStandardPropertyDefinitions(scenarioBuilder, PropertyAssignmentPolicy.RANDOM, randomGenerator);
+
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+
+		Scenario scenario = scenarioBuilder.build();
+
+		Replication replication = getReplication(randomGenerator);
+
+		Task emptyTask = new Task() {
+
+			@Override
+			public void execute(Environment environment) {
+
+			}
+		};
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			Map<Object, TaskPlan> expectedPlans = new LinkedHashMap<>();
+			List<Object> keys = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				keys.add(new PersonId(i));
+			}
+			for (int i = 0; i < 10; i++) {
+				keys.add(new GroupId(i));
+				keys.add("key " + i);
+			}
+			Collections.shuffle(keys, new Random(randomGenerator.nextLong()));
+
+			for (Object key : keys) {
+				double scheduledTime = 10 + randomGenerator.nextInt(100);
+				TaskPlan taskPlan = new TaskPlan(scheduledTime, key, emptyTask);
+				environment.addPlan(taskPlan, scheduledTime, key);
+				expectedPlans.put(key, taskPlan);
+			}
+
+			// show that each plan is retrievable by its key
+			for (Object key : keys) {
+				TaskPlan taskPlan = expectedPlans.get(key);
+				assertEquals(taskPlan, environment.getPlan(key).get());
+				assertEquals(taskPlan.getScheduledTime(), environment.getPlanTime(key), 0);
+			}
+
+			// remove half of the plans in random order
+			Collections.shuffle(keys, new Random(randomGenerator.nextLong()));
+			for (int i = 0; i < keys.size() / 2; i++) {
+				Object key = keys.get(i);
+				assertEquals(expectedPlans.remove(key), environment.removePlan(key).get());
+				assertFalse(environment.getPlan(key).isPresent());
+			}
+
+			// show that the remaining plans are intact
+			for (Object key : expectedPlans.keySet()) {
+				assertEquals(expectedPlans.get(key), environment.getPlan(key).get());
+			}
+
+			List<Object> actualPlanKeys = environment.getPlanKeys();
+			assertEquals(expectedPlans.size(), actualPlanKeys.size());
+			assertEquals(expectedPlans.keySet(), new LinkedHashSet<>(actualPlanKeys));
+		});
+
+		Simulation simulation = new Simulation();
+		simulation.setReplication(replication);
+		simulation.setScenario(scenario);
+		simulation.setPlanningQueueType(planningQueueType);
+		simulation.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
 	/**
 	 * Tests {@link Environment#observePopulationIndexChange(boolean, Object)}
 	 */
@@ -378,6 +378,10 @@ public class AT_ExperimentBuilder {
 		}
 		boolean propertyValuesMayOverrideDefaultValue = RANDOM_GENERATOR.nextBoolean();
 		MapOption mapOption = MapOption.values()[RANDOM_GENERATOR.nextInt(MapOption.values().length)];
+		if (mapOption == MapOption.RANGE && !Number.class.isAssignableFrom(type)) {
+			// range mapping is limited to numeric types
+			mapOption = MapOption.ARRAY;
+		}
 		TimeTrackingPolicy timeTrackingPolicy = TimeTrackingPolicy.values()[RANDOM_GENERATOR.nextInt(TimeTrackingPolicy.values().length)];
 
 		final PropertyDefinition result = PropertyDefinition.builder()//
@@ -2646,6 +2650,54 @@ public class AT_ExperimentBuilder {
 		}
 	}
 
+	/**
+	 * Tests
+	 * {@link ExperimentBuilder#setResourceMapOption(ResourceId, MapOption)}
+	 */
+	@Test
+	public void testSetResourceMapOption() {
+		refreshRandomGenerator(49);
+		ExperimentBuilder experimentBuilder = new ExperimentBuilder();
+		ResourceId resourceId = TestResourceId.RESOURCE5;
+		MapOption mapOption = MapOption.HASH;
+
+		// precondition: if the resource id is null
+		fillWithVariantGlobalProperties(experimentBuilder);
+		experimentBuilder.setResourceMapOption(null, mapOption);
+		experimentBuilder.addResource(resourceId);
+		assertScenarioException(() -> getScenarios(experimentBuilder.build()), ScenarioErrorType.NULL_RESOURCE_ID);
+
+		// precondition: if the resource id is unknown
+		fillWithVariantGlobalProperties(experimentBuilder);
+		experimentBuilder.setResourceMapOption(TestResourceId.getUnknownResourceId(), mapOption);
+		experimentBuilder.addResource(resourceId);
+		assertScenarioException(() -> getScenarios(experimentBuilder.build()), ScenarioErrorType.UNKNOWN_RESOURCE_ID);
+
+		// precondition: if the mapOption is null
+		fillWithVariantGlobalProperties(experimentBuilder);
+		experimentBuilder.setResourceMapOption(resourceId, null);
+		experimentBuilder.addResource(resourceId);
+		assertScenarioException(() -> getScenarios(experimentBuilder.build()), ScenarioErrorType.NULL_RESOURCE_MAP_OPTION);
+
+		// precondition: if the resource mapOption was previously set
+		fillWithVariantGlobalProperties(experimentBuilder);
+		experimentBuilder.setResourceMapOption(resourceId, mapOption);
+		experimentBuilder.setResourceMapOption(resourceId, mapOption);
+		experimentBuilder.addResource(resourceId);
+		assertScenarioException(() -> getScenarios(experimentBuilder.build()), ScenarioErrorType.PREVIOUSLY_ASSIGNED_VALUE);
+
+		// postcondition: the resource has the expected map option in all
+		// scenarios
+		fillWithVariantGlobalProperties(experimentBuilder);
+		experimentBuilder.setResourceMapOption(resourceId, mapOption);
+		experimentBuilder.addResource(resourceId);
+		List<Scenario> scenarios = getScenarios(experimentBuilder.build());
+		assertTrue(scenarios.size() > 0);
+		for (Scenario scenario : scenarios) {
+			assertEquals(mapOption, scenario.getResourceMapOption(resourceId));
+		}
+	}
+
 	/**
 	 * Tests
 	 * {@link ExperimentBuilder#setResourceTimeTracking(ResourceId, TimeTrackingPolicy)}
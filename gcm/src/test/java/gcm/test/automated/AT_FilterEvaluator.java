@@ -0,0 +1,806 @@
+package gcm.test.automated;
+
+import static gcm.simulation.Filter.allPeople;
+import static gcm.simulation.Filter.compartment;
+import static gcm.simulation.Filter.groupMember;
+import static gcm.simulation.Filter.groupTypesForPerson;
+import static gcm.simulation.Filter.groupsForPerson;
+import static gcm.simulation.Filter.groupsForPersonAndGroupType;
+import static gcm.simulation.Filter.noPeople;
+import static gcm.simulation.Filter.property;
+import static gcm.simulation.Filter.region;
+import static gcm.simulation.Filter.resource;
+import static gcm.test.support.EnvironmentSupport.addStandardComponentsAndTypes;
+import static gcm.test.support.EnvironmentSupport.addStandardPeople;
+import static gcm.test.support.EnvironmentSupport.addStandardTrackingAndScenarioId;
+import static gcm.test.support.EnvironmentSupport.addTaskPlanContainer;
+import static gcm.test.support.EnvironmentSupport.assertAllPlansExecuted;
+import static gcm.test.support.EnvironmentSupport.getRandomGenerator;
+import static gcm.test.support.EnvironmentSupport.getReplication;
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.math3.random.RandomGenerator;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import gcm.replication.Replication;
+import gcm.scenario.GroupId;
+import gcm.scenario.MapOption;
+import gcm.scenario.PersonId;
+import gcm.scenario.PersonPropertyId;
+import gcm.scenario.PropertyDefinition;
+import gcm.scenario.RegionId;
+import gcm.scenario.Scenario;
+import gcm.scenario.ScenarioBuilder;
+import gcm.scenario.StorageOption;
+import gcm.scenario.UnstructuredScenarioBuilder;
+import gcm.simulation.Context;
+import gcm.simulation.Context.ContextBuilder;
+import gcm.simulation.Environment;
+import gcm.simulation.Equality;
+import gcm.simulation.Filter;
+import gcm.simulation.FilterEvaluator;
+import gcm.simulation.FilterInfo;
+import gcm.simulation.FilterPopulationMatcher;
+import gcm.simulation.PersonIdManager;
+import gcm.test.support.BooleanType;
+import gcm.test.support.EnvironmentSupport;
+import gcm.test.support.SeedProvider;
+import gcm.test.support.TaskPlanContainer;
+import gcm.test.support.TestCompartmentId;
+import gcm.test.support.TestGlobalComponentId;
+import gcm.test.support.TestGroupTypeId;
+import gcm.test.support.TestPersonPropertyId;
+import gcm.test.support.TestRegionId;
+import gcm.test.support.TestResourceId;
+import gcm.util.annotations.UnitTest;
+
+/**
+ * Test unit for {@link FilterEvaluator}. The evaluators returned by
+ * {@link FilterEvaluator#compile(FilterInfo, Context)} are shown to agree with
+ * those returned by {@link FilterEvaluator#build(FilterInfo)} for every person
+ * across all filter types, equalities and person property types, and bulk
+ * evaluation is shown to agree with the evaluation of each person.
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = FilterEvaluator.class)
+public class AT_FilterEvaluator {
+
+	private static SeedProvider SEED_PROVIDER;
+
+	@BeforeClass
+	public static void beforeClass() {
+		SEED_PROVIDER = new SeedProvider(EnvironmentSupport.getMetaSeed(24));
+	}
+
+	/**
+	 * Internal test(not part of public tests) to show that there are no large
+	 * gaps in the seed cases generated by the SeedProvider.
+	 */
+	@AfterClass
+	public static void afterClass() {
+		// System.out.println(SEED_PROVIDER.generateUnusedSeedReport());
+	}
+
+	/*
+	 * The number of groups added to the scenario
+	 */
+	private static final int GROUP_COUNT = 10;
+
+	/*
+	 * The person property definitions of the test scenario, covering each of
+	 * the property types that the compiled evaluators treat distinctly
+	 */
+	private static Map<PersonPropertyId, PropertyDefinition> getPropertyDefinitions() {
+		Map<PersonPropertyId, PropertyDefinition> result = new LinkedHashMap<>();
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_1, PropertyDefinition.builder().setType(Boolean.class).setDefaultValue(false).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_2, PropertyDefinition.builder().setType(BooleanType.class).setDefaultValue(BooleanType.TRUE).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_3, PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).setMapOption(MapOption.RANGE).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_4, PropertyDefinition.builder().setType(Long.class).setDefaultValue(0L).setStorageOption(StorageOption.OFF_HEAP).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_5, PropertyDefinition.builder().setType(Double.class).setDefaultValue(0.0).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_6, PropertyDefinition.builder().setType(Float.class).setDefaultValue(0.0f).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_7, PropertyDefinition.builder().setType(String.class).setDefaultValue("A").setMapOption(MapOption.HASH).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_8, PropertyDefinition.builder().setType(Double.class).setDefaultValue(0.0).setStorageOption(StorageOption.OFF_HEAP).build());
+		result.put(TestPersonPropertyId.PERSON_PROPERTY_9, PropertyDefinition.builder().setType(Boolean.class).setDefaultValue(false).setStorageOption(StorageOption.OFF_HEAP).build());
+		return result;
+	}
+
+	/*
+	 * The candidate values of each type, used both as property values and as
+	 * the comparison values of the filters. The floating point values include
+	 * NaN and both signed zeros.
+	 */
+	private static Object[] getPropertyValues(PropertyDefinition propertyDefinition) {
+		Class<?> type = propertyDefinition.getType();
+		if (type == Boolean.class) {
+			return new Object[] { false, true };
+		}
+		if (type == BooleanType.class) {
+			return BooleanType.values();
+		}
+		if (type == Integer.class) {
+			return new Object[] { -2, -1, 0, 1, 2 };
+		}
+		if (type == Long.class) {
+			return new Object[] { Long.MIN_VALUE, -1L, 0L, 1L, Long.MAX_VALUE };
+		}
+		if (type == Double.class) {
+			return new Object[] { Double.NaN, -0.0, 0.0, -2.5, 1.5, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY };
+		}
+		if (type == Float.class) {
+			return new Object[] { Float.NaN, -0.0f, 0.0f, -2.5f, 1.5f, Float.POSITIVE_INFINITY };
+		}
+		if (type == String.class) {
+			return new Object[] { "A", "B", "C" };
+		}
+		throw new RuntimeException("unhandled type " + type);
+	}
+
+	/*
+	 * Returns a scenario builder loaded with the standard components and
+	 * people, the test person properties, random property values and
+	 * resource levels and randomly filled groups
+	 */
+	private static ScenarioBuilder getScenarioBuilder(RandomGenerator randomGenerator, int peoplePerRegionAndCompartmentPair) {
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		addStandardTrackingAndScenarioId(scenarioBuilder, randomGenerator);
+		addStandardComponentsAndTypes(scenarioBuilder);
+		addStandardPeople(scenarioBuilder, peoplePerRegionAndCompartmentPair);
+		int personCount = TestRegionId.values().length * TestCompartmentId.values().length * peoplePerRegionAndCompartmentPair;
+
+		Map<PersonPropertyId, PropertyDefinition> propertyDefinitions = getPropertyDefinitions();
+		for (PersonPropertyId personPropertyId : propertyDefinitions.keySet()) {
+			PropertyDefinition propertyDefinition = propertyDefinitions.get(personPropertyId);
+			scenarioBuilder.definePersonProperty(personPropertyId, propertyDefinition);
+			Object[] values = getPropertyValues(propertyDefinition);
+			for (int i = 0; i < personCount; i++) {
+				scenarioBuilder.setPersonPropertyValue(new PersonId(i), personPropertyId, values[randomGenerator.nextInt(values.length)]);
+			}
+		}
+
+		for (TestResourceId testResourceId : TestResourceId.values()) {
+			for (int i = 0; i < personCount; i++) {
+				if (randomGenerator.nextBoolean()) {
+					scenarioBuilder.setPersonResourceLevel(new PersonId(i), testResourceId, randomGenerator.nextInt(4));
+				}
+			}
+		}
+
+		for (int i = 0; i < GROUP_COUNT; i++) {
+			GroupId groupId = new GroupId(i);
+			TestGroupTypeId testGroupTypeId = TestGroupTypeId.values()[randomGenerator.nextInt(TestGroupTypeId.values().length)];
+			scenarioBuilder.addGroup(groupId, testGroupTypeId);
+			for (int j = 0; j < personCount; j++) {
+				if (randomGenerator.nextInt(4) == 0) {
+					scenarioBuilder.addPersonToGroup(groupId, new PersonId(j));
+				}
+			}
+		}
+		return scenarioBuilder;
+	}
+
+	private static Context getContext(Scenario scenario, Replication replication) {
+		ContextBuilder contextBuilder = new ContextBuilder();
+		contextBuilder.setScenario(scenario);
+		contextBuilder.setReplication(replication);
+		return contextBuilder.build();
+	}
+
+	/*
+	 * Returns the filters of each type for each equality and each candidate
+	 * value
+	 */
+	private static List<Filter> getLeafFilters() {
+		List<Filter> result = new ArrayList<>();
+		result.add(allPeople());
+		result.add(noPeople());
+
+		for (TestCompartmentId testCompartmentId : TestCompartmentId.values()) {
+			result.add(compartment(testCompartmentId));
+		}
+
+		result.add(region());
+		Set<RegionId> regionIds = new LinkedHashSet<>();
+		for (TestRegionId testRegionId : TestRegionId.values()) {
+			result.add(region(testRegionId));
+			regionIds.add(testRegionId);
+			result.add(region(new LinkedHashSet<>(regionIds)));
+		}
+
+		Map<PersonPropertyId, PropertyDefinition> propertyDefinitions = getPropertyDefinitions();
+		for (PersonPropertyId personPropertyId : propertyDefinitions.keySet()) {
+			for (Object value : getPropertyValues(propertyDefinitions.get(personPropertyId))) {
+				for (Equality equality : Equality.values()) {
+					result.add(property(personPropertyId, equality, value));
+				}
+			}
+		}
+
+		for (TestResourceId testResourceId : TestResourceId.values()) {
+			for (int value = 0; value < 4; value++) {
+				for (Equality equality : Equality.values()) {
+					result.add(resource(testResourceId, equality, value));
+				}
+			}
+		}
+
+		for (int i = 0; i < GROUP_COUNT; i++) {
+			result.add(groupMember(new GroupId(i)));
+		}
+		for (int count = 0; count < 3; count++) {
+			for (Equality equality : Equality.values()) {
+				result.add(groupsForPerson(equality, count));
+				result.add(groupTypesForPerson(equality, count));
+				for (TestGroupTypeId testGroupTypeId : TestGroupTypeId.values()) {
+					result.add(groupsForPersonAndGroupType(testGroupTypeId, equality, count));
+				}
+			}
+		}
+		return result;
+	}
+
+	/*
+	 * Returns the leaf filters along with their negations and random AND and
+	 * OR combinations of them, negated and not, nested to a depth of two
+	 */
+	private static List<Filter> getFilters(RandomGenerator randomGenerator) {
+		List<Filter> leafFilters = getLeafFilters();
+		List<Filter> result = new ArrayList<>(leafFilters);
+		for (Filter filter : leafFilters) {
+			result.add(filter.negate());
+		}
+		List<Filter> compositeFilters = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			Filter a = leafFilters.get(randomGenerator.nextInt(leafFilters.size()));
+			Filter b = leafFilters.get(randomGenerator.nextInt(leafFilters.size()));
+			compositeFilters.add(a.and(b));
+			compositeFilters.add(a.or(b));
+			compositeFilters.add(a.and(b).negate());
+			compositeFilters.add(a.or(b).negate());
+			compositeFilters.add(a.negate().and(b.negate()));
+		}
+		result.addAll(compositeFilters);
+		for (int i = 0; i < 300; i++) {
+			Filter a = compositeFilters.get(randomGenerator.nextInt(compositeFilters.size()));
+			Filter b = compositeFilters.get(randomGenerator.nextInt(compositeFilters.size()));
+			result.add(a.and(b));
+			result.add(a.or(b).negate());
+		}
+		return result;
+	}
+
+	/**
+	 * Tests {@link FilterEvaluator#compile(FilterInfo, Context)}
+	 */
+	@Test
+	public void testCompile() {
+		final long seed = SEED_PROVIDER.getSeedValue(0);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = getScenarioBuilder(randomGenerator, 3);
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+		Scenario scenario = scenarioBuilder.build();
+		Replication replication = getReplication(randomGenerator);
+		Context context = getContext(scenario, replication);
+		List<Filter> filters = getFilters(randomGenerator);
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			assertCompiledFiltersMatch(environment, context, filters);
+		});
+
+		/*
+		 * Show that the compiled evaluators follow changes to the state of the
+		 * simulation made after they were compiled
+		 */
+		List<FilterEvaluator> compiledFilterEvaluators = new ArrayList<>();
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 2, (environment) -> {
+			for (Filter filter : filters) {
+				compiledFilterEvaluators.add(FilterEvaluator.compile(FilterInfo.build(filter), context));
+			}
+			Map<PersonPropertyId, PropertyDefinition> propertyDefinitions = getPropertyDefinitions();
+			for (PersonId personId : environment.getPeople()) {
+				TestRegionId testRegionId = TestRegionId.values()[randomGenerator.nextInt(TestRegionId.values().length)];
+				if (!testRegionId.equals(environment.getPersonRegion(personId))) {
+					environment.setPersonRegion(personId, testRegionId);
+				}
+				TestCompartmentId testCompartmentId = TestCompartmentId.values()[randomGenerator.nextInt(TestCompartmentId.values().length)];
+				if (!testCompartmentId.equals(environment.getPersonCompartment(personId))) {
+					environment.setPersonCompartment(personId, testCompartmentId);
+				}
+				for (PersonPropertyId personPropertyId : propertyDefinitions.keySet()) {
+					Object[] values = getPropertyValues(propertyDefinitions.get(personPropertyId));
+					environment.setPersonPropertyValue(personId, personPropertyId, values[randomGenerator.nextInt(values.length)]);
+				}
+			}
+		});
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 3, (environment) -> {
+			for (int i = 0; i < filters.size(); i++) {
+				FilterEvaluator builtFilterEvaluator = FilterEvaluator.build(FilterInfo.build(filters.get(i)));
+				FilterEvaluator compiledFilterEvaluator = compiledFilterEvaluators.get(i);
+				for (PersonId personId : environment.getPeople()) {
+					assertEquals(builtFilterEvaluator.evaluate(environment, personId), compiledFilterEvaluator.evaluate(environment, personId));
+				}
+			}
+		});
+
+		context.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests {@link FilterEvaluator#compile(FilterInfo, Context)} by showing
+	 * that population indexes, which maintain their membership with compiled
+	 * evaluators, hold the people who pass the filter as the simulation state
+	 * changes.
+	 */
+	@Test
+	public void testCompiledPopulationIndexes() {
+		final long seed = SEED_PROVIDER.getSeedValue(4);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = getScenarioBuilder(randomGenerator, 3);
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+		Scenario scenario = scenarioBuilder.build();
+		Replication replication = getReplication(randomGenerator);
+		Context context = getContext(scenario, replication);
+
+		List<Filter> filters = new ArrayList<>();
+		for (Filter filter : getFilters(randomGenerator)) {
+			if (randomGenerator.nextInt(5) == 0) {
+				filters.add(filter);
+			}
+		}
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			for (int i = 0; i < filters.size(); i++) {
+				environment.addPopulationIndex(filters.get(i), i);
+			}
+			assertIndexedPeopleMatch(environment, filters);
+		});
+
+		/*
+		 * Change each attribute that the filters select on for randomly
+		 * selected people and show that the indexes follow the changes
+		 */
+		Map<PersonPropertyId, PropertyDefinition> propertyDefinitions = getPropertyDefinitions();
+		for (int time = 2; time < 12; time++) {
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, time, (environment) -> {
+				for (PersonId personId : environment.getPeople()) {
+					if (randomGenerator.nextInt(3) != 0) {
+						continue;
+					}
+					TestRegionId testRegionId = TestRegionId.values()[randomGenerator.nextInt(TestRegionId.values().length)];
+					if (!testRegionId.equals(environment.getPersonRegion(personId))) {
+						environment.setPersonRegion(personId, testRegionId);
+					}
+					TestCompartmentId testCompartmentId = TestCompartmentId.values()[randomGenerator.nextInt(TestCompartmentId.values().length)];
+					if (!testCompartmentId.equals(environment.getPersonCompartment(personId))) {
+						environment.setPersonCompartment(personId, testCompartmentId);
+					}
+					for (PersonPropertyId personPropertyId : propertyDefinitions.keySet()) {
+						Object[] values = getPropertyValues(propertyDefinitions.get(personPropertyId));
+						environment.setPersonPropertyValue(personId, personPropertyId, values[randomGenerator.nextInt(values.length)]);
+					}
+					for (TestResourceId testResourceId : TestResourceId.values()) {
+						long level = environment.getPersonResourceLevel(personId, testResourceId);
+						if (level > 0) {
+							environment.removeResourceFromPerson(testResourceId, personId, randomGenerator.nextInt((int) level) + 1);
+						}
+					}
+					GroupId groupId = new GroupId(randomGenerator.nextInt(GROUP_COUNT));
+					if (environment.isGroupMember(personId, groupId)) {
+						environment.removePersonFromGroup(personId, groupId);
+					} else {
+						environment.addPersonToGroup(personId, groupId);
+					}
+				}
+				assertIndexedPeopleMatch(environment, filters);
+			});
+		}
+
+		context.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests {@link FilterEvaluator#evaluate(Environment, PersonIdManager, long[])}
+	 */
+	@Test
+	public void testBulkEvaluate() {
+		final long seed = SEED_PROVIDER.getSeedValue(1);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		/*
+		 * 150 people, so that the last word of the mask is partially filled
+		 */
+		ScenarioBuilder scenarioBuilder = getScenarioBuilder(randomGenerator, 5);
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+		Scenario scenario = scenarioBuilder.build();
+		Replication replication = getReplication(randomGenerator);
+		Context context = getContext(scenario, replication);
+		List<Filter> filters = getFilters(randomGenerator);
+
+		/*
+		 * Remove some people so that the masks have gaps. People are removed
+		 * by their compartments.
+		 */
+		for (TestCompartmentId testCompartmentId : TestCompartmentId.values()) {
+			taskPlanContainer.addTaskPlan(testCompartmentId, 1, (environment) -> {
+				for (PersonId personId : environment.getPeopleInCompartment(testCompartmentId)) {
+					if (randomGenerator.nextInt(10) == 0) {
+						environment.removePerson(personId);
+					}
+				}
+			});
+		}
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 2, (environment) -> {
+			PersonIdManager personIdManager = context.getPersonIdManager();
+			List<PersonId> people = environment.getPeople();
+			int wordCount = (personIdManager.getPersonIdLimit() + 63) / 64;
+
+			/*
+			 * Candidate masks holding all people, a single person in the
+			 * partially filled last word and random subsets of the people
+			 */
+			List<long[]> masks = new ArrayList<>();
+			masks.add(getMask(people, wordCount));
+			PersonId lastPerson = people.get(people.size() - 1);
+			masks.add(getMask(Arrays.asList(lastPerson), wordCount));
+			for (int i = 0; i < 5; i++) {
+				List<PersonId> candidates = new ArrayList<>();
+				for (PersonId personId : people) {
+					if (randomGenerator.nextBoolean()) {
+						candidates.add(personId);
+					}
+				}
+				masks.add(getMask(candidates, wordCount));
+			}
+
+			for (Filter filter : filters) {
+				FilterInfo filterInfo = FilterInfo.build(filter);
+				for (FilterEvaluator filterEvaluator : Arrays.asList(FilterEvaluator.build(filterInfo), FilterEvaluator.compile(filterInfo, context))) {
+					for (long[] candidateMask : masks) {
+						long[] mask = candidateMask.clone();
+						filterEvaluator.evaluate(environment, personIdManager, mask);
+						for (int i = 0; i < wordCount * 64; i++) {
+							boolean expected = (candidateMask[i >> 6] & (1L << i)) != 0 && filterEvaluator.evaluate(environment, personIdManager.getBoxedPersonId(i));
+							assertEquals(filterInfo + " " + i, expected, (mask[i >> 6] & (1L << i)) != 0);
+						}
+					}
+				}
+			}
+		});
+
+		context.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests {@link FilterPopulationMatcher#getMatchingPeople(FilterInfo, Context)}
+	 * by showing that the bulk evaluation of the candidate people with the
+	 * compiled evaluator selects the people who pass the filter, in the same
+	 * order as the bulk evaluation with the built evaluator.
+	 */
+	@Test
+	public void testGetMatchingPeople() {
+		final long seed = SEED_PROVIDER.getSeedValue(5);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = getScenarioBuilder(randomGenerator, 5);
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+		Scenario scenario = scenarioBuilder.build();
+		Replication replication = getReplication(randomGenerator);
+		Context context = getContext(scenario, replication);
+		List<Filter> filters = getFilters(randomGenerator);
+
+		/*
+		 * Remove some people so that the masks have gaps
+		 */
+		for (TestCompartmentId testCompartmentId : TestCompartmentId.values()) {
+			taskPlanContainer.addTaskPlan(testCompartmentId, 1, (environment) -> {
+				for (PersonId personId : environment.getPeopleInCompartment(testCompartmentId)) {
+					if (randomGenerator.nextInt(10) == 0) {
+						environment.removePerson(personId);
+					}
+				}
+			});
+		}
+
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 2, (environment) -> {
+			for (Filter filter : filters) {
+				FilterInfo filterInfo = FilterInfo.build(filter);
+				FilterEvaluator filterEvaluator = FilterEvaluator.build(filterInfo);
+				Set<PersonId> expectedPeople = new LinkedHashSet<>();
+				for (PersonId personId : environment.getPeople()) {
+					if (filterEvaluator.evaluate(environment, personId)) {
+						expectedPeople.add(personId);
+					}
+				}
+				List<PersonId> matchingPeople = FilterPopulationMatcher.getMatchingPeople(filterInfo, context);
+				assertEquals(filterInfo.toString(), expectedPeople.size(), matchingPeople.size());
+				assertEquals(filterInfo.toString(), expectedPeople, new LinkedHashSet<>(matchingPeople));
+				assertEquals(filterInfo.toString(), FilterPopulationMatcher.getMatchingPeople(filterInfo, filterEvaluator, context), matchingPeople);
+			}
+		});
+
+		context.execute();
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests
+	 * {@link FilterEvaluator#evaluateInParallel(Environment, PersonIdManager, long[], ForkJoinPool)}
+	 */
+	@Test
+	public void testEvaluateInParallel() {
+		final long seed = SEED_PROVIDER.getSeedValue(2);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		/*
+		 * 66000 people, so that the mask is split into segments
+		 */
+		ScenarioBuilder scenarioBuilder = getScenarioBuilder(randomGenerator, 2200);
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+		Scenario scenario = scenarioBuilder.build();
+		Replication replication = getReplication(randomGenerator);
+		Context context = getContext(scenario, replication);
+
+		List<Filter> filters = new ArrayList<>();
+		for (Filter filter : getLeafFilters()) {
+			filters.add(filter);
+			filters.add(filter.negate());
+		}
+		List<Filter> leafFilters = getLeafFilters();
+		for (int i = 0; i < 100; i++) {
+			Filter a = leafFilters.get(randomGenerator.nextInt(leafFilters.size()));
+			Filter b = leafFilters.get(randomGenerator.nextInt(leafFilters.size()));
+			filters.add(a.and(b.negate()));
+			filters.add(a.or(b).negate());
+		}
+
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+				PersonIdManager personIdManager = context.getPersonIdManager();
+				int wordCount = (personIdManager.getPersonIdLimit() + 63) / 64;
+				long[] candidateMask = getMask(environment.getPeople(), wordCount);
+				for (Filter filter : filters) {
+					FilterEvaluator filterEvaluator = FilterEvaluator.compile(FilterInfo.build(filter), context);
+					long[] expectedMask = candidateMask.clone();
+					filterEvaluator.evaluate(environment, personIdManager, expectedMask);
+					long[] actualMask = candidateMask.clone();
+					filterEvaluator.evaluateInParallel(environment, personIdManager, actualMask, forkJoinPool);
+					assertArrayEquals(FilterInfo.build(filter).toString(), expectedMask, actualMask);
+				}
+
+				// precondition tests
+				FilterEvaluator filterEvaluator = FilterEvaluator.compile(FilterInfo.build(allPeople()), context);
+				assertException(() -> filterEvaluator.evaluateInParallel(environment, personIdManager, candidateMask.clone(), null), RuntimeException.class);
+			});
+
+			context.execute();
+		} finally {
+			forkJoinPool.shutdown();
+		}
+
+		assertAllPlansExecuted(taskPlanContainer);
+	}
+
+	/**
+	 * Tests {@link ContextBuilder#setFilterEvaluationPool(ForkJoinPool)} and
+	 * {@link ContextBuilder#setParallelFilterEvaluationThreshold(int)} by
+	 * showing that population indexes created with parallel filter evaluation
+	 * hold the people who pass the filter.
+	 */
+	@Test
+	public void testParallelFilterEvaluationThreshold() {
+		final long seed = SEED_PROVIDER.getSeedValue(3);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		ScenarioBuilder scenarioBuilder = getScenarioBuilder(randomGenerator, 5);
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+		Scenario scenario = scenarioBuilder.build();
+		Replication replication = getReplication(randomGenerator);
+		List<Filter> filters = getFilters(randomGenerator);
+
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			ContextBuilder contextBuilder = new ContextBuilder();
+			contextBuilder.setScenario(scenario);
+			contextBuilder.setReplication(replication);
+			contextBuilder.setFilterEvaluationPool(forkJoinPool);
+			contextBuilder.setParallelFilterEvaluationThreshold(1);
+			Context context = contextBuilder.build();
+			assertEquals(forkJoinPool, context.getFilterEvaluationPool());
+			assertEquals(1, context.getParallelFilterEvaluationThreshold());
+
+			taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+				for (Filter filter : filters) {
+					Object key = new Object();
+					FilterEvaluator filterEvaluator = FilterEvaluator.build(FilterInfo.build(filter));
+					Set<PersonId> expectedPeople = new LinkedHashSet<>();
+					for (PersonId personId : environment.getPeople()) {
+						if (filterEvaluator.evaluate(environment, personId)) {
+							expectedPeople.add(personId);
+						}
+					}
+					environment.addPopulationIndex(filter, key);
+					assertEquals(FilterInfo.build(filter).toString(), expectedPeople, new LinkedHashSet<>(environment.getIndexedPeople(key)));
+					environment.removePopulationIndex(key);
+				}
+			});
+
+			context.execute();
+		} finally {
+			forkJoinPool.shutdown();
+		}
+
+		assertAllPlansExecuted(taskPlanContainer);
+
+		// precondition tests
+		assertException(() -> new ContextBuilder().setFilterEvaluationPool(null), RuntimeException.class);
+		assertException(() -> new ContextBuilder().setParallelFilterEvaluationThreshold(0), RuntimeException.class);
+	}
+
+	/**
+	 * Tests {@link FilterPopulationMatcher#getMatchingPeople(FilterInfo, Context)}
+	 * with a filter evaluation pool and threshold by showing that the people
+	 * matched with parallel evaluation are the people matched sequentially, in
+	 * the same order.
+	 */
+	@Test
+	public void testGetMatchingPeopleInParallel() {
+		final long seed = SEED_PROVIDER.getSeedValue(6);
+		RandomGenerator randomGenerator = getRandomGenerator(seed);
+
+		/*
+		 * 66000 people, so that the mask is split into segments. The threshold
+		 * lies between the candidate counts of the region and compartment
+		 * indexes and the population count, so that both the sequential and
+		 * parallel paths of the parallel context are taken.
+		 */
+		ScenarioBuilder scenarioBuilder = getScenarioBuilder(randomGenerator, 2200);
+		TaskPlanContainer taskPlanContainer = addTaskPlanContainer(scenarioBuilder);
+		Scenario scenario = scenarioBuilder.build();
+		Replication replication = getReplication(randomGenerator);
+
+		List<Filter> filters = new ArrayList<>();
+		for (Filter filter : getLeafFilters()) {
+			filters.add(filter);
+			filters.add(filter.negate());
+		}
+		List<Filter> leafFilters = getLeafFilters();
+		for (int i = 0; i < 100; i++) {
+			Filter a = leafFilters.get(randomGenerator.nextInt(leafFilters.size()));
+			Filter b = leafFilters.get(randomGenerator.nextInt(leafFilters.size()));
+			filters.add(a.and(b.negate()));
+			filters.add(a.or(b).negate());
+		}
+
+		/*
+		 * The plan is executed once by each context, recording the matching
+		 * people of each filter
+		 */
+		List<List<List<PersonId>>> results = new ArrayList<>();
+		List<Context> contexts = new ArrayList<>();
+		taskPlanContainer.addTaskPlan(TestGlobalComponentId.GLOBAL_COMPONENT_1, 1, (environment) -> {
+			Context context = contexts.get(results.size());
+			List<List<PersonId>> result = new ArrayList<>();
+			for (Filter filter : filters) {
+				result.add(FilterPopulationMatcher.getMatchingPeople(FilterInfo.build(filter), context));
+			}
+			results.add(result);
+		});
+
+		ForkJoinPool forkJoinPool = new ForkJoinPool(4);
+		try {
+			contexts.add(getContext(scenario, replication));
+
+			ContextBuilder contextBuilder = new ContextBuilder();
+			contextBuilder.setScenario(scenario);
+			contextBuilder.setReplication(replication);
+			contextBuilder.setFilterEvaluationPool(forkJoinPool);
+			contextBuilder.setParallelFilterEvaluationThreshold(30000);
+			contexts.add(contextBuilder.build());
+
+			for (Context context : contexts) {
+				context.execute();
+			}
+
+			// show that the pool was used
+			assertTrue(forkJoinPool.getPoolSize() > 0);
+		} finally {
+			forkJoinPool.shutdown();
+		}
+
+		assertAllPlansExecuted(taskPlanContainer);
+		assertEquals(2, results.size());
+
+		List<List<PersonId>> sequentialResult = results.get(0);
+		List<List<PersonId>> parallelResult = results.get(1);
+		for (int i = 0; i < filters.size(); i++) {
+			assertEquals(FilterInfo.build(filters.get(i)).toString(), sequentialResult.get(i), parallelResult.get(i));
+		}
+	}
+
+	/*
+	 * Returns a mask of the given length with the bits of the people set
+	 */
+	private static long[] getMask(List<PersonId> people, int wordCount) {
+		long[] result = new long[wordCount];
+		for (PersonId personId : people) {
+			int value = personId.getValue();
+			result[value >> 6] |= 1L << value;
+		}
+		return result;
+	}
+
+	/*
+	 * Asserts that the compiled evaluator of each filter agrees with its built
+	 * evaluator for every person and that the filters are not trivially
+	 * passing or failing as a whole
+	 */
+	private static void assertCompiledFiltersMatch(Environment environment, Context context, List<Filter> filters) {
+		int passCount = 0;
+		int failCount = 0;
+		for (Filter filter : filters) {
+			FilterInfo filterInfo = FilterInfo.build(filter);
+			FilterEvaluator builtFilterEvaluator = FilterEvaluator.build(filterInfo);
+			FilterEvaluator compiledFilterEvaluator = FilterEvaluator.compile(filterInfo, context);
+			for (PersonId personId : environment.getPeople()) {
+				boolean expected = builtFilterEvaluator.evaluate(environment, personId);
+				assertEquals(filterInfo + " " + personId, expected, compiledFilterEvaluator.evaluate(environment, personId));
+				if (expected) {
+					passCount++;
+				} else {
+					failCount++;
+				}
+			}
+		}
+		assertTrue(passCount > 0);
+		assertTrue(failCount > 0);
+	}
+
+	/*
+	 * Asserts that the population index of each filter, keyed by the filter's
+	 * position in the list, holds exactly the people who pass the filter's
+	 * built evaluator
+	 */
+	private static void assertIndexedPeopleMatch(Environment environment, List<Filter> filters) {
+		for (int i = 0; i < filters.size(); i++) {
+			FilterInfo filterInfo = FilterInfo.build(filters.get(i));
+			FilterEvaluator filterEvaluator = FilterEvaluator.build(filterInfo);
+			Set<PersonId> expectedPeople = new LinkedHashSet<>();
+			for (PersonId personId : environment.getPeople()) {
+				if (filterEvaluator.evaluate(environment, personId)) {
+					expectedPeople.add(personId);
+				}
+			}
+			List<PersonId> indexedPeople = environment.getIndexedPeople(i);
+			assertEquals(filterInfo.toString(), expectedPeople.size(), indexedPeople.size());
+			assertEquals(filterInfo.toString(), expectedPeople, new LinkedHashSet<>(indexedPeople));
+		}
+	}
+
+}
@@ -18,8 +18,8 @@ public class AT_MapOption {
 
 	@Test
 	public void test() {
-		// show that there are three map options
-		assertEquals(3, MapOption.values().length);
+		// show that there are five map options
+		assertEquals(5, MapOption.values().length);
 	}
 	
 	@Test
@@ -0,0 +1,151 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.OffHeapValueContainer;
+
+/**
+ * Test class for {@link OffHeapValueContainer}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = OffHeapValueContainer.class)
+public class AT_OffHeapValueContainer {
+
+	private static long getRandomValue(Random random, IntValueType intValueType) {
+		switch (intValueType) {
+		case BYTE:
+			return (byte) random.nextInt();
+		case SHORT:
+			return (short) random.nextInt();
+		case INT:
+			return random.nextInt();
+		default:
+			return random.nextLong();
+		}
+	}
+
+	/*
+	 * Fills the container and the expected values with random values
+	 */
+	private static void setRandomValues(OffHeapValueContainer offHeapValueContainer, long[] expected, Random random) {
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = offHeapValueContainer.getDefaultValue();
+		}
+		for (int i = 0; i < 2000; i++) {
+			int index = random.nextInt(expected.length);
+			long value = getRandomValue(random, offHeapValueContainer.getIntValueType());
+			offHeapValueContainer.setValue(index, value);
+			expected[index] = value;
+		}
+	}
+
+	private static void assertValues(OffHeapValueContainer offHeapValueContainer, long[] expected) {
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], offHeapValueContainer.getValue(i));
+		}
+	}
+
+	@Test
+	public void testConstructor() {
+		OffHeapValueContainer offHeapValueContainer = new OffHeapValueContainer(IntValueType.SHORT, -4, 1000000);
+		assertNotNull(offHeapValueContainer);
+		assertEquals(IntValueType.SHORT, offHeapValueContainer.getIntValueType());
+		assertEquals(-4, offHeapValueContainer.getDefaultValue());
+		// show that no pages are allocated for the capacity
+		assertEquals(0, offHeapValueContainer.getAllocatedPageCount());
+
+		// pre conditions
+		assertException(() -> new OffHeapValueContainer(null, 0, 10), IllegalArgumentException.class);
+		assertException(() -> new OffHeapValueContainer(IntValueType.BYTE, 0, -1), IllegalArgumentException.class);
+		assertException(() -> new OffHeapValueContainer(IntValueType.BYTE, 128, 10), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testGetAndSetValue() {
+		Random random = new Random(6230498572304987L);
+		int pageSize = OffHeapValueContainer.getPageSize();
+		for (IntValueType intValueType : IntValueType.values()) {
+			long defaultValue = getRandomValue(random, intValueType);
+			OffHeapValueContainer offHeapValueContainer = new OffHeapValueContainer(intValueType, defaultValue, 0);
+
+			// show that setting the default value allocates no pages
+			offHeapValueContainer.setValue(3 * pageSize, defaultValue);
+			assertEquals(0, offHeapValueContainer.getAllocatedPageCount());
+			assertEquals(3 * pageSize + 1, offHeapValueContainer.size());
+
+			long[] expected = new long[2 * pageSize + 5];
+			setRandomValues(offHeapValueContainer, expected, random);
+			offHeapValueContainer.setValue(expected.length - 1, defaultValue ^ 1);
+			expected[expected.length - 1] = defaultValue ^ 1;
+			assertEquals(3, offHeapValueContainer.getAllocatedPageCount());
+			assertValues(offHeapValueContainer, expected);
+			assertEquals(defaultValue, offHeapValueContainer.getValue(100 * pageSize));
+		}
+
+		OffHeapValueContainer offHeapValueContainer = new OffHeapValueContainer(IntValueType.BYTE, 0, 10);
+
+		// pre conditions
+		assertException(() -> offHeapValueContainer.getValue(-1), IllegalArgumentException.class);
+		assertException(() -> offHeapValueContainer.setValue(-1, 0), IllegalArgumentException.class);
+		assertException(() -> offHeapValueContainer.setValue(0, 128), IllegalArgumentException.class);
+		assertException(() -> offHeapValueContainer.setValue(0, -129), IllegalArgumentException.class);
+	}
+
+	/**
+	 * Shows that an OffHeapValueContainer survives serialization
+	 */
+	@Test
+	public void testSerialization() throws IOException, ClassNotFoundException {
+		Random random = new Random(1209348720394857L);
+		OffHeapValueContainer offHeapValueContainer = new OffHeapValueContainer(IntValueType.LONG, 17, 0);
+		long[] expected = new long[OffHeapValueContainer.getPageSize() + 100];
+		setRandomValues(offHeapValueContainer, expected, random);
+
+		ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(byteArrayOutputStream)) {
+			objectOutputStream.writeObject(offHeapValueContainer);
+		}
+		OffHeapValueContainer copy;
+		try (ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(byteArrayOutputStream.toByteArray()))) {
+			copy = (OffHeapValueContainer) objectInputStream.readObject();
+		}
+		assertEquals(offHeapValueContainer.size(), copy.size());
+		assertEquals(offHeapValueContainer.getAllocatedPageCount(), copy.getAllocatedPageCount());
+		assertValues(copy, expected);
+	}
+
+	/**
+	 * Tests {@link OffHeapValueContainer#close()}
+	 */
+	@Test
+	public void testClose() {
+		Random random = new Random(8734509872345098L);
+		OffHeapValueContainer offHeapValueContainer = new OffHeapValueContainer(IntValueType.INT, -2, 0);
+		long[] expected = new long[3 * OffHeapValueContainer.getPageSize() + 100];
+		setRandomValues(offHeapValueContainer, expected, random);
+		offHeapValueContainer.setValue(expected.length - 1, 5);
+		assertEquals(4, offHeapValueContainer.getAllocatedPageCount());
+
+		// show that closing releases the pages and that closing again has no effect
+		offHeapValueContainer.close();
+		assertEquals(0, offHeapValueContainer.getAllocatedPageCount());
+		offHeapValueContainer.close();
+		assertEquals(0, offHeapValueContainer.getAllocatedPageCount());
+	}
+
+}
@@ -0,0 +1,98 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.PagedDoubleValueContainer;
+
+/**
+ * Test class for {@link PagedDoubleValueContainer}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = PagedDoubleValueContainer.class)
+public class AT_PagedDoubleValueContainer {
+
+	@Test
+	public void testConstructors() {
+		PagedDoubleValueContainer pagedDoubleValueContainer = new PagedDoubleValueContainer(0);
+		assertNotNull(pagedDoubleValueContainer);
+
+		pagedDoubleValueContainer = new PagedDoubleValueContainer(0, 1000000);
+		assertNotNull(pagedDoubleValueContainer);
+		// show that no pages are allocated for the capacity
+		assertEquals(0, pagedDoubleValueContainer.getAllocatedPageCount());
+
+		// pre conditions
+		assertException(() -> new PagedDoubleValueContainer(0, -1), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testGetDefaultValue() {
+		assertEquals(0, new PagedDoubleValueContainer(0).getDefaultValue(), 0);
+		assertEquals(-10, new PagedDoubleValueContainer(-10).getDefaultValue(), 0);
+		assertEquals(10, new PagedDoubleValueContainer(10).getDefaultValue(), 0);
+	}
+
+	@Test
+	public void testGetValue() {
+		double defaultValue = -345.34;
+		PagedDoubleValueContainer pagedDoubleValueContainer = new PagedDoubleValueContainer(defaultValue);
+		Random random = new Random(3409872340598723L);
+		double[] expected = new double[3 * PagedDoubleValueContainer.getPageSize() + 17];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = defaultValue;
+		}
+		for (int i = 0; i < 5000; i++) {
+			int index = random.nextInt(expected.length);
+			double value = random.nextDouble();
+			pagedDoubleValueContainer.setValue(index, value);
+			expected[index] = value;
+		}
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], pagedDoubleValueContainer.getValue(i), 0);
+		}
+		// show that indices beyond the pages hold the default value
+		assertEquals(defaultValue, pagedDoubleValueContainer.getValue(expected.length * 100), 0);
+
+		// pre conditions
+		assertException(() -> pagedDoubleValueContainer.getValue(-1), RuntimeException.class);
+	}
+
+	@Test
+	public void testSetValue() {
+		int pageSize = PagedDoubleValueContainer.getPageSize();
+		PagedDoubleValueContainer pagedDoubleValueContainer = new PagedDoubleValueContainer(2.5, 10);
+
+		// show that setting the default value allocates no pages
+		pagedDoubleValueContainer.setValue(5 * pageSize, 2.5);
+		assertEquals(0, pagedDoubleValueContainer.getAllocatedPageCount());
+		assertEquals(5 * pageSize + 1, pagedDoubleValueContainer.size());
+
+		// show that pages are allocated only as they are needed
+		pagedDoubleValueContainer.setValue(3, 7.5);
+		assertEquals(1, pagedDoubleValueContainer.getAllocatedPageCount());
+		pagedDoubleValueContainer.setValue(pageSize - 1, 8.5);
+		assertEquals(1, pagedDoubleValueContainer.getAllocatedPageCount());
+		pagedDoubleValueContainer.setValue(20 * pageSize, 9.5);
+		assertEquals(2, pagedDoubleValueContainer.getAllocatedPageCount());
+		assertEquals(20 * pageSize + 1, pagedDoubleValueContainer.size());
+
+		assertEquals(7.5, pagedDoubleValueContainer.getValue(3), 0);
+		assertEquals(8.5, pagedDoubleValueContainer.getValue(pageSize - 1), 0);
+		assertEquals(9.5, pagedDoubleValueContainer.getValue(20 * pageSize), 0);
+		assertEquals(2.5, pagedDoubleValueContainer.getValue(20 * pageSize + 1), 0);
+		assertEquals(2.5, pagedDoubleValueContainer.getValue(10 * pageSize), 0);
+
+		// pre conditions
+		assertException(() -> pagedDoubleValueContainer.setValue(-1, 0), RuntimeException.class);
+	}
+
+}
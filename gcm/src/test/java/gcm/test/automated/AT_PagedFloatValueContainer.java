@@ -0,0 +1,98 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.PagedFloatValueContainer;
+
+/**
+ * Test class for {@link PagedFloatValueContainer}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = PagedFloatValueContainer.class)
+public class AT_PagedFloatValueContainer {
+
+	@Test
+	public void testConstructors() {
+		PagedFloatValueContainer pagedFloatValueContainer = new PagedFloatValueContainer(0);
+		assertNotNull(pagedFloatValueContainer);
+
+		pagedFloatValueContainer = new PagedFloatValueContainer(0, 1000000);
+		assertNotNull(pagedFloatValueContainer);
+		// show that no pages are allocated for the capacity
+		assertEquals(0, pagedFloatValueContainer.getAllocatedPageCount());
+
+		// pre conditions
+		assertException(() -> new PagedFloatValueContainer(0, -1), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testGetDefaultValue() {
+		assertEquals(0, new PagedFloatValueContainer(0).getDefaultValue(), 0);
+		assertEquals(-10, new PagedFloatValueContainer(-10).getDefaultValue(), 0);
+		assertEquals(10, new PagedFloatValueContainer(10).getDefaultValue(), 0);
+	}
+
+	@Test
+	public void testGetValue() {
+		float defaultValue = -345.34f;
+		PagedFloatValueContainer pagedFloatValueContainer = new PagedFloatValueContainer(defaultValue);
+		Random random = new Random(9283740598237L);
+		float[] expected = new float[3 * PagedFloatValueContainer.getPageSize() + 17];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = defaultValue;
+		}
+		for (int i = 0; i < 5000; i++) {
+			int index = random.nextInt(expected.length);
+			float value = random.nextFloat();
+			pagedFloatValueContainer.setValue(index, value);
+			expected[index] = value;
+		}
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], pagedFloatValueContainer.getValue(i), 0);
+		}
+		// show that indices beyond the pages hold the default value
+		assertEquals(defaultValue, pagedFloatValueContainer.getValue(expected.length * 100), 0);
+
+		// pre conditions
+		assertException(() -> pagedFloatValueContainer.getValue(-1), RuntimeException.class);
+	}
+
+	@Test
+	public void testSetValue() {
+		int pageSize = PagedFloatValueContainer.getPageSize();
+		PagedFloatValueContainer pagedFloatValueContainer = new PagedFloatValueContainer(2.5f, 10);
+
+		// show that setting the default value allocates no pages
+		pagedFloatValueContainer.setValue(5 * pageSize, 2.5f);
+		assertEquals(0, pagedFloatValueContainer.getAllocatedPageCount());
+		assertEquals(5 * pageSize + 1, pagedFloatValueContainer.size());
+
+		// show that pages are allocated only as they are needed
+		pagedFloatValueContainer.setValue(3, 7.5f);
+		assertEquals(1, pagedFloatValueContainer.getAllocatedPageCount());
+		pagedFloatValueContainer.setValue(pageSize - 1, 8.5f);
+		assertEquals(1, pagedFloatValueContainer.getAllocatedPageCount());
+		pagedFloatValueContainer.setValue(20 * pageSize, 9.5f);
+		assertEquals(2, pagedFloatValueContainer.getAllocatedPageCount());
+		assertEquals(20 * pageSize + 1, pagedFloatValueContainer.size());
+
+		assertEquals(7.5f, pagedFloatValueContainer.getValue(3), 0);
+		assertEquals(8.5f, pagedFloatValueContainer.getValue(pageSize - 1), 0);
+		assertEquals(9.5f, pagedFloatValueContainer.getValue(20 * pageSize), 0);
+		assertEquals(2.5f, pagedFloatValueContainer.getValue(20 * pageSize + 1), 0);
+		assertEquals(2.5f, pagedFloatValueContainer.getValue(10 * pageSize), 0);
+
+		// pre conditions
+		assertException(() -> pagedFloatValueContainer.setValue(-1, 0), RuntimeException.class);
+	}
+
+}
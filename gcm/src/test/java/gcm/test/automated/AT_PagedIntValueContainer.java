@@ -0,0 +1,124 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.IntValueContainer.IntValueType;
+import gcm.util.containers.PagedIntValueContainer;
+
+/**
+ * Test class for {@link PagedIntValueContainer}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = PagedIntValueContainer.class)
+public class AT_PagedIntValueContainer {
+
+	@Test
+	public void testConstructors() {
+		PagedIntValueContainer pagedIntValueContainer = new PagedIntValueContainer(0);
+		assertNotNull(pagedIntValueContainer);
+
+		pagedIntValueContainer = new PagedIntValueContainer(0, 1000000);
+		assertNotNull(pagedIntValueContainer);
+		// show that no pages are allocated for the capacity
+		assertEquals(0, pagedIntValueContainer.getAllocatedPageCount());
+
+		// pre conditions
+		assertException(() -> new PagedIntValueContainer(0, -1), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testGetDefaultValue() {
+		PagedIntValueContainer pagedIntValueContainer = new PagedIntValueContainer(-12);
+		assertEquals(-12, pagedIntValueContainer.getDefaultValueAsByte());
+		assertEquals(-12, pagedIntValueContainer.getDefaultValueAsShort());
+		assertEquals(-12, pagedIntValueContainer.getDefaultValueAsInt());
+		assertEquals(-12, pagedIntValueContainer.getDefaultValueAsLong());
+
+		PagedIntValueContainer longContainer = new PagedIntValueContainer(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, longContainer.getDefaultValueAsLong());
+		assertEquals(IntValueType.LONG, longContainer.getIntValueType());
+
+		// pre conditions
+		assertException(() -> longContainer.getDefaultValueAsByte(), RuntimeException.class);
+		assertException(() -> longContainer.getDefaultValueAsShort(), RuntimeException.class);
+		assertException(() -> longContainer.getDefaultValueAsInt(), RuntimeException.class);
+	}
+
+	@Test
+	public void testGetValue() {
+		long defaultValue = 7;
+		PagedIntValueContainer pagedIntValueContainer = new PagedIntValueContainer(defaultValue);
+		Random random = new Random(5234098572340985L);
+		long[] expected = new long[4 * PagedIntValueContainer.getPageSize() + 3];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = defaultValue;
+		}
+
+		/*
+		 * Set values of every width, in increasing width so that pages are
+		 * widened while holding values
+		 */
+		long[] bounds = { Byte.MAX_VALUE, Short.MAX_VALUE, Integer.MAX_VALUE, Long.MAX_VALUE };
+		for (long bound : bounds) {
+			for (int i = 0; i < 3000; i++) {
+				int index = random.nextInt(expected.length);
+				long value = random.nextLong() % bound;
+				pagedIntValueContainer.setLongValue(index, value);
+				expected[index] = value;
+			}
+			for (int i = 0; i < expected.length; i++) {
+				assertEquals(expected[i], pagedIntValueContainer.getValueAsLong(i));
+			}
+		}
+		assertEquals(defaultValue, pagedIntValueContainer.getValueAsLong(expected.length * 100));
+
+		// pre conditions
+		assertException(() -> pagedIntValueContainer.getValueAsLong(-1), RuntimeException.class);
+	}
+
+	@Test
+	public void testSetValue() {
+		int pageSize = PagedIntValueContainer.getPageSize();
+		PagedIntValueContainer pagedIntValueContainer = new PagedIntValueContainer(0);
+
+		// show that setting the default value allocates no pages
+		pagedIntValueContainer.setIntValue(6 * pageSize, 0);
+		assertEquals(0, pagedIntValueContainer.getAllocatedPageCount());
+		assertEquals(6 * pageSize + 1, pagedIntValueContainer.size());
+
+		pagedIntValueContainer.setByteValue(1, (byte) 12);
+		pagedIntValueContainer.setShortValue(pageSize, (short) 1000);
+		pagedIntValueContainer.setIntValue(2 * pageSize, 100000);
+		pagedIntValueContainer.setLongValue(3 * pageSize, 10000000000L);
+		assertEquals(4, pagedIntValueContainer.getAllocatedPageCount());
+		assertEquals(IntValueType.LONG, pagedIntValueContainer.getIntValueType());
+
+		assertEquals(12, pagedIntValueContainer.getValueAsByte(1));
+		assertEquals(1000, pagedIntValueContainer.getValueAsShort(pageSize));
+		assertEquals(100000, pagedIntValueContainer.getValueAsInt(2 * pageSize));
+		assertEquals(10000000000L, pagedIntValueContainer.getValueAsLong(3 * pageSize));
+
+		// show that widening one page leaves the values of the others intact
+		assertEquals(12, pagedIntValueContainer.getValueAsByte(1));
+		assertEquals(0, pagedIntValueContainer.getValueAsByte(2));
+
+		// pre conditions
+		assertException(() -> pagedIntValueContainer.getValueAsByte(pageSize), RuntimeException.class);
+		assertException(() -> pagedIntValueContainer.getValueAsShort(2 * pageSize), RuntimeException.class);
+		assertException(() -> pagedIntValueContainer.getValueAsInt(3 * pageSize), RuntimeException.class);
+		assertException(() -> pagedIntValueContainer.setByteValue(-1, (byte) 0), RuntimeException.class);
+		assertException(() -> pagedIntValueContainer.setShortValue(-1, (short) 0), RuntimeException.class);
+		assertException(() -> pagedIntValueContainer.setIntValue(-1, 0), RuntimeException.class);
+		assertException(() -> pagedIntValueContainer.setLongValue(-1, 0), RuntimeException.class);
+	}
+
+}
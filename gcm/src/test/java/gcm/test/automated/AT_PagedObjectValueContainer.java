@@ -0,0 +1,84 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.PagedObjectValueContainer;
+
+/**
+ * Test class for {@link PagedObjectValueContainer}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = PagedObjectValueContainer.class)
+public class AT_PagedObjectValueContainer {
+
+	@Test
+	public void testConstructor() {
+		String defaultValue = "default";
+		PagedObjectValueContainer pagedObjectValueContainer = new PagedObjectValueContainer(defaultValue, 20);
+		assertNotNull(pagedObjectValueContainer);
+
+		pagedObjectValueContainer = new PagedObjectValueContainer(null, 20);
+		assertNotNull(pagedObjectValueContainer);
+
+		// pre-condition tests
+		assertException(() -> new PagedObjectValueContainer(null, -4), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testSetValue() {
+		int pageSize = PagedObjectValueContainer.getPageSize();
+		String defaultValue = "default";
+		PagedObjectValueContainer pagedObjectValueContainer = new PagedObjectValueContainer(defaultValue, 0);
+
+		// show that setting the default value allocates no pages
+		pagedObjectValueContainer.setValue(3 * pageSize, defaultValue);
+		assertEquals(0, pagedObjectValueContainer.getAllocatedPageCount());
+
+		pagedObjectValueContainer.setValue(3, "dog");
+		pagedObjectValueContainer.setValue(1, "cat");
+		pagedObjectValueContainer.setValue(pageSize + 4, "pig");
+		pagedObjectValueContainer.setValue(7 * pageSize, "cow");
+		pagedObjectValueContainer.setValue(3, "bat");
+		pagedObjectValueContainer.setValue(5, null);
+		assertEquals(3, pagedObjectValueContainer.getAllocatedPageCount());
+
+		assertEquals(defaultValue, pagedObjectValueContainer.getValue(0));
+		assertEquals("cat", pagedObjectValueContainer.getValue(1));
+		assertEquals(defaultValue, pagedObjectValueContainer.getValue(2));
+		assertEquals("bat", pagedObjectValueContainer.getValue(3));
+		assertEquals("pig", pagedObjectValueContainer.getValue(pageSize + 4));
+		assertNull(pagedObjectValueContainer.getValue(5));
+		assertEquals(defaultValue, pagedObjectValueContainer.getValue(6));
+		assertEquals("cow", pagedObjectValueContainer.getValue(7 * pageSize));
+		assertEquals(defaultValue, pagedObjectValueContainer.getValue(5 * pageSize));
+		assertEquals(defaultValue, pagedObjectValueContainer.getValue(100 * pageSize));
+
+		// test pre-conditions
+		assertException(() -> pagedObjectValueContainer.setValue(-1, "frog"), IllegalArgumentException.class);
+	}
+
+	@Test
+	public void testGetValue() {
+		PagedObjectValueContainer pagedObjectValueContainer = new PagedObjectValueContainer(null, 20);
+		pagedObjectValueContainer.setValue(3, "dog");
+		pagedObjectValueContainer.setValue(10000, "cat");
+
+		assertNull(pagedObjectValueContainer.getValue(0));
+		assertEquals("dog", pagedObjectValueContainer.getValue(3));
+		assertEquals("cat", pagedObjectValueContainer.getValue(10000));
+		assertNull(pagedObjectValueContainer.getValue(10001));
+		assertNull(pagedObjectValueContainer.getValue(1000000));
+
+		// test pre-conditions
+		assertException(() -> pagedObjectValueContainer.getValue(-1), IllegalArgumentException.class);
+	}
+
+}
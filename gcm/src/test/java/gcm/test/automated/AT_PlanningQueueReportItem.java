@@ -1,5 +1,6 @@
 package gcm.test.automated;
 
+import static gcm.test.support.ExceptionAssertion.assertException;
 import static org.junit.Assert.assertEquals;
 
 import org.junit.Test;
@@ -150,4 +151,32 @@ public class AT_PlanningQueueReportItem {
 		planningQueueReportItem = planningQueueReportItemBuilder.build();
 		assertEquals(isKeyed, planningQueueReportItem.isKeyed());
 	}
+
+	@Test
+	public void testGetTombstoneCount() {
+		PlanningQueueReportItemBuilder planningQueueReportItemBuilder = getPlanningQueueReportItemBuilder();
+		long tombstoneCount = 3457;
+		planningQueueReportItemBuilder.setTombstoneCount(tombstoneCount);
+		PlanningQueueReportItem planningQueueReportItem = planningQueueReportItemBuilder.build();
+		assertEquals(tombstoneCount, planningQueueReportItem.getTombstoneCount());
+
+		// precondition test: if the tombstone count is negative
+		planningQueueReportItemBuilder = getPlanningQueueReportItemBuilder();
+		planningQueueReportItemBuilder.setTombstoneCount(-1);
+		assertException(planningQueueReportItemBuilder::build, RuntimeException.class);
+	}
+
+	@Test
+	public void testGetPurgeCount() {
+		PlanningQueueReportItemBuilder planningQueueReportItemBuilder = getPlanningQueueReportItemBuilder();
+		long purgeCount = 1298;
+		planningQueueReportItemBuilder.setPurgeCount(purgeCount);
+		PlanningQueueReportItem planningQueueReportItem = planningQueueReportItemBuilder.build();
+		assertEquals(purgeCount, planningQueueReportItem.getPurgeCount());
+
+		// precondition test: if the purge count is negative
+		planningQueueReportItemBuilder = getPlanningQueueReportItemBuilder();
+		planningQueueReportItemBuilder.setPurgeCount(-1);
+		assertException(planningQueueReportItemBuilder::build, RuntimeException.class);
+	}
 }
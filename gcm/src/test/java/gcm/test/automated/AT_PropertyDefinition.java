@@ -13,6 +13,7 @@ import org.junit.Test;
 
 import gcm.scenario.MapOption;
 import gcm.scenario.PropertyDefinition;
+import gcm.scenario.StorageOption;
 import gcm.scenario.TimeTrackingPolicy;
 import gcm.scenario.PropertyDefinition.Builder;
 import gcm.test.support.BooleanType;
@@ -70,7 +71,12 @@ public class AT_PropertyDefinition {
 
 		boolean propertyValuesAreMutability = randomGenerator.nextBoolean();
 		MapOption mapOption = MapOption.values()[randomGenerator.nextInt(MapOption.values().length)];
+		if (mapOption == MapOption.RANGE && !Number.class.isAssignableFrom(type)) {
+			// range mapping is limited to numeric types
+			mapOption = MapOption.ARRAY;
+		}
 		TimeTrackingPolicy timeTrackingPolicy = TimeTrackingPolicy.values()[randomGenerator.nextInt(TimeTrackingPolicy.values().length)];
+		StorageOption storageOption = StorageOption.values()[randomGenerator.nextInt(StorageOption.values().length)];
 
 		return PropertyDefinition	.builder()//
 									.setType(type)//
@@ -78,6 +84,7 @@ public class AT_PropertyDefinition {
 									.setPropertyValueMutability(propertyValuesAreMutability)//
 									.setMapOption(mapOption)//
 									.setTimeTrackingPolicy(timeTrackingPolicy)//
+									.setStorageOption(storageOption)//
 									.build();//
 
 	}
@@ -99,6 +106,7 @@ public class AT_PropertyDefinition {
 
 			different |= !result.getMapOption().equals(propertyDefinition.getMapOption());
 			different |= !result.getTimeTrackingPolicy().equals(propertyDefinition.getTimeTrackingPolicy());
+			different |= !result.getStorageOption().equals(propertyDefinition.getStorageOption());
 			different |= !result.getType().equals(propertyDefinition.getType());
 			if (different) {
 				return result;
@@ -120,6 +128,7 @@ public class AT_PropertyDefinition {
 						.setPropertyValueMutability(propertyDefinition.getPropertyValueAreMutability())//
 						.setMapOption(propertyDefinition.getMapOption())//
 						.setTimeTrackingPolicy(propertyDefinition.getTimeTrackingPolicy())//
+						.setStorageOption(propertyDefinition.getStorageOption())//
 						.build();//
 	}
 
@@ -275,6 +284,25 @@ public class AT_PropertyDefinition {
 			assertEquals(mapOption, propertyDefinition.getMapOption());
 		}
 
+		/*
+		 * Show that the RANGE map option requires a numeric type
+		 */
+		assertException(() -> {
+			PropertyDefinition	.builder()//
+								.setType(String.class)//
+								.setDefaultValue("value")//
+								.setMapOption(MapOption.RANGE)//
+								.build();//
+		}, RuntimeException.class);
+
+		assertException(() -> {
+			PropertyDefinition	.builder()//
+								.setType(Boolean.class)//
+								.setDefaultValue(false)//
+								.setMapOption(MapOption.RANGE)//
+								.build();//
+		}, RuntimeException.class);
+
 	}
 
 	/**
@@ -299,6 +327,25 @@ public class AT_PropertyDefinition {
 
 	}
 
+	/**
+	 * test for {@link PropertyDefinition#getStorageOption()}
+	 */
+	@Test
+	public void testGetStorageOption() {
+		/*
+		 * Show that the StorageOption value used to form the property
+		 * definition is returned by the property definition
+		 */
+		for (StorageOption storageOption : StorageOption.values()) {
+			PropertyDefinition propertyDefinition = PropertyDefinition	.builder()//
+																		.setType(Integer.class)//
+																		.setDefaultValue(12)//
+																		.setStorageOption(storageOption)//
+																		.build();//
+			assertEquals(storageOption, propertyDefinition.getStorageOption());
+		}
+	}
+
 	/**
 	 * test for {@link PropertyDefinition#getType()}
 	 */
@@ -409,6 +456,7 @@ public class AT_PropertyDefinition {
 
 		assertEquals(MapOption.NONE, propertyDefinition.getMapOption());
 		assertEquals(TimeTrackingPolicy.DO_NOT_TRACK_TIME, propertyDefinition.getTimeTrackingPolicy());
+		assertEquals(StorageOption.HEAP, propertyDefinition.getStorageOption());
 		assertEquals(true, propertyDefinition.getPropertyValueAreMutability());
 
 		assertException(() -> {
@@ -488,6 +536,16 @@ public class AT_PropertyDefinition {
 		assertNotEquals(propertyDefinition1, propertyDefinition6);
 		assertNotEquals(propertyDefinition1, propertyDefinition7);
 
+		PropertyDefinition propertyDefinition8 = PropertyDefinition	.builder()//
+																	.setType(String.class)//
+																	.setDefaultValue("asdf")//
+																	.setPropertyValueMutability(true)//
+																	.setMapOption(MapOption.ARRAY)//
+																	.setTimeTrackingPolicy(TimeTrackingPolicy.DO_NOT_TRACK_TIME)//
+																	.setStorageOption(StorageOption.OFF_HEAP)//
+																	.build();//
+		assertNotEquals(propertyDefinition1, propertyDefinition8);
+
 	}
 
 	@Test
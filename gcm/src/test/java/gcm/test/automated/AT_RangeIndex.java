@@ -0,0 +1,248 @@
+package gcm.test.automated;
+
+import static gcm.test.support.ExceptionAssertion.assertException;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import gcm.util.annotations.UnitTest;
+import gcm.util.containers.RangeIndex;
+
+/**
+ * Test class for {@link RangeIndex}
+ *
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = RangeIndex.class)
+public class AT_RangeIndex {
+
+	/*
+	 * Returns the values of the map ordered by key and then by value
+	 */
+	private static List<Integer> getOrderedValues(Map<Integer, Long> map) {
+		List<Integer> result = new ArrayList<>(map.keySet());
+		result.sort((a, b) -> {
+			int comparison = Long.compare(map.get(a), map.get(b));
+			if (comparison == 0) {
+				comparison = Integer.compare(a, b);
+			}
+			return comparison;
+		});
+		return result;
+	}
+
+	/*
+	 * Asserts that the range index agrees with the expected map of values to
+	 * keys in every query
+	 */
+	private static void assertIndexContents(RangeIndex rangeIndex, Map<Integer, Long> expected) {
+		List<Integer> orderedValues = getOrderedValues(expected);
+		assertEquals(orderedValues.size(), rangeIndex.size());
+
+		for (int position = 0; position < orderedValues.size(); position++) {
+			assertEquals(orderedValues.get(position).intValue(), rangeIndex.select(position));
+		}
+
+		int[] values = rangeIndex.getValues(0, rangeIndex.size());
+		assertEquals(orderedValues.size(), values.length);
+		for (int i = 0; i < values.length; i++) {
+			assertEquals(orderedValues.get(i).intValue(), values[i]);
+		}
+
+		for (long key = -12; key <= 12; key++) {
+			int lessCount = 0;
+			int lessOrEqualCount = 0;
+			for (Long value : expected.values()) {
+				if (value < key) {
+					lessCount++;
+				}
+				if (value <= key) {
+					lessOrEqualCount++;
+				}
+			}
+			assertEquals(lessCount, rangeIndex.rank(key, false));
+			assertEquals(lessOrEqualCount, rangeIndex.rank(key, true));
+		}
+
+		for (Integer value : expected.keySet()) {
+			assertTrue(rangeIndex.contains(value));
+			assertEquals(expected.get(value).longValue(), rangeIndex.getKey(value));
+		}
+	}
+
+	/**
+	 * Tests {@link RangeIndex#add(int, long)}
+	 */
+	@Test
+	public void testAdd() {
+		Random random = new Random(2374509873645L);
+		RangeIndex rangeIndex = new RangeIndex();
+		Map<Integer, Long> expected = new LinkedHashMap<>();
+
+		/*
+		 * Show that added values are ordered by key and then value, that
+		 * re-adding a value replaces its key and that the index grows beyond
+		 * its initial capacity
+		 */
+		for (int i = 0; i < 300; i++) {
+			int value = random.nextInt(200);
+			long key = random.nextInt(21) - 10;
+			rangeIndex.add(value, key);
+			expected.put(value, key);
+			if (i % 25 == 0) {
+				assertIndexContents(rangeIndex, expected);
+			}
+		}
+		assertIndexContents(rangeIndex, expected);
+
+		// precondition : if the value is negative
+		assertException(() -> rangeIndex.add(-1, 0L), IllegalArgumentException.class);
+	}
+
+	/**
+	 * Tests {@link RangeIndex#remove(int)}
+	 */
+	@Test
+	public void testRemove() {
+		Random random = new Random(8347569834756L);
+		RangeIndex rangeIndex = new RangeIndex(100);
+		Map<Integer, Long> expected = new LinkedHashMap<>();
+		for (int value = 0; value < 100; value++) {
+			long key = random.nextInt(21) - 10;
+			rangeIndex.add(value, key);
+			expected.put(value, key);
+		}
+
+		/*
+		 * Show that removals, including of values that are not present, leave
+		 * the index consistent
+		 */
+		for (int i = 0; i < 150; i++) {
+			int value = random.nextInt(120) - 10;
+			rangeIndex.remove(value);
+			expected.remove(value);
+			assertFalse(rangeIndex.contains(value));
+			if (i % 10 == 0) {
+				assertIndexContents(rangeIndex, expected);
+			}
+		}
+		assertIndexContents(rangeIndex, expected);
+
+		/*
+		 * Show that the index may be emptied and refilled
+		 */
+		for (Integer value : new ArrayList<>(expected.keySet())) {
+			rangeIndex.remove(value);
+			expected.remove(value);
+		}
+		assertIndexContents(rangeIndex, expected);
+		rangeIndex.add(5, 3L);
+		expected.put(5, 3L);
+		assertIndexContents(rangeIndex, expected);
+	}
+
+	/**
+	 * Tests {@link RangeIndex#rank(long, boolean)}
+	 */
+	@Test
+	public void testRank() {
+		RangeIndex rangeIndex = new RangeIndex();
+		assertEquals(0, rangeIndex.rank(0L, true));
+
+		rangeIndex.add(3, 5L);
+		rangeIndex.add(1, 5L);
+		rangeIndex.add(7, -2L);
+		rangeIndex.add(2, Long.MAX_VALUE);
+		rangeIndex.add(4, Long.MIN_VALUE);
+
+		assertEquals(0, rangeIndex.rank(Long.MIN_VALUE, false));
+		assertEquals(1, rangeIndex.rank(Long.MIN_VALUE, true));
+		assertEquals(1, rangeIndex.rank(-2L, false));
+		assertEquals(2, rangeIndex.rank(-2L, true));
+		assertEquals(2, rangeIndex.rank(5L, false));
+		assertEquals(4, rangeIndex.rank(5L, true));
+		assertEquals(4, rangeIndex.rank(Long.MAX_VALUE, false));
+		assertEquals(5, rangeIndex.rank(Long.MAX_VALUE, true));
+	}
+
+	/**
+	 * Tests {@link RangeIndex#select(int)}
+	 */
+	@Test
+	public void testSelect() {
+		RangeIndex rangeIndex = new RangeIndex();
+		rangeIndex.add(3, 5L);
+		rangeIndex.add(1, 5L);
+		rangeIndex.add(7, -2L);
+
+		assertEquals(7, rangeIndex.select(0));
+		assertEquals(1, rangeIndex.select(1));
+		assertEquals(3, rangeIndex.select(2));
+
+		// precondition : if the position is negative
+		assertException(() -> rangeIndex.select(-1), IndexOutOfBoundsException.class);
+		// precondition : if the position is not less than the size
+		assertException(() -> rangeIndex.select(3), IndexOutOfBoundsException.class);
+	}
+
+	/**
+	 * Tests {@link RangeIndex#getValues(int, int)}
+	 */
+	@Test
+	public void testGetValues() {
+		RangeIndex rangeIndex = new RangeIndex();
+		for (int value = 0; value < 10; value++) {
+			rangeIndex.add(value, 10 - value);
+		}
+		int[] values = rangeIndex.getValues(2, 5);
+		assertEquals(3, values.length);
+		assertEquals(7, values[0]);
+		assertEquals(6, values[1]);
+		assertEquals(5, values[2]);
+
+		assertEquals(0, rangeIndex.getValues(4, 4).length);
+
+		// precondition : if fromPosition is negative
+		assertException(() -> rangeIndex.getValues(-1, 2), IndexOutOfBoundsException.class);
+		// precondition : if toPosition exceeds the size
+		assertException(() -> rangeIndex.getValues(0, 11), IndexOutOfBoundsException.class);
+		// precondition : if fromPosition exceeds toPosition
+		assertException(() -> rangeIndex.getValues(3, 2), IndexOutOfBoundsException.class);
+	}
+
+	/**
+	 * Tests {@link RangeIndex#contains(int)}, {@link RangeIndex#size()} and
+	 * {@link RangeIndex#getKey(int)}
+	 */
+	@Test
+	public void testContainsSizeAndGetKey() {
+		RangeIndex rangeIndex = new RangeIndex(0);
+		assertEquals(0, rangeIndex.size());
+		assertFalse(rangeIndex.contains(0));
+		assertFalse(rangeIndex.contains(-1));
+		assertFalse(rangeIndex.contains(1000));
+
+		rangeIndex.add(12, 4L);
+		rangeIndex.add(0, -4L);
+		assertEquals(2, rangeIndex.size());
+		assertTrue(rangeIndex.contains(12));
+		assertTrue(rangeIndex.contains(0));
+		assertEquals(4L, rangeIndex.getKey(12));
+		assertEquals(-4L, rangeIndex.getKey(0));
+
+		// precondition : if the value is not contained
+		assertException(() -> rangeIndex.getKey(5), IllegalArgumentException.class);
+
+		// precondition : if the initial capacity is negative
+		assertException(() -> new RangeIndex(-1), IllegalArgumentException.class);
+	}
+}
@@ -1,8 +1,16 @@
 package gcm.test.automated;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -12,6 +20,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.math3.random.RandomGenerator;
 import org.apache.commons.math3.random.Well44497b;
@@ -20,6 +30,13 @@ import org.junit.Test;
 
 import gcm.components.AbstractComponent;
 import gcm.components.Component;
+import gcm.experiment.ExperimentProgressLog;
+import gcm.output.OutputItem;
+import gcm.output.reports.NIOReportItemHandler;
+import gcm.output.reports.Report;
+import gcm.output.reports.ReportItem;
+import gcm.output.reports.commonreports.GlobalPropertyReport;
+import gcm.replication.Replication;
 import gcm.replication.ReplicationImpl;
 import gcm.scenario.BatchId;
 import gcm.scenario.BatchPropertyId;
@@ -49,7 +66,10 @@ import gcm.scenario.StageId;
 import gcm.scenario.TimeTrackingPolicy;
 import gcm.scenario.UnstructuredScenarioBuilder;
 import gcm.simulation.Environment;
+import gcm.simulation.Filter;
+import gcm.simulation.Plan;
 import gcm.simulation.Simulation;
+import gcm.simulation.SimulationSnapshot;
 import gcm.test.support.SeedProvider;
 import gcm.test.support.TestCompartmentId;
 import gcm.test.support.TestGlobalComponentId;
@@ -2590,4 +2610,478 @@ public class AT_Simulation {
 
 		});
 	}
+	/*
+	 * A serializable component that does nothing
+	 */
+	public static class SerializableEmptyComponent extends AbstractComponent implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public void init(Environment environment) {
+
+		}
+
+	}
+
+	/*
+	 * The plan executed daily by the CheckpointTestComponent
+	 */
+	private static class CheckpointTestPlan implements Plan, Serializable {
+		private static final long serialVersionUID = 1L;
+	}
+
+	private static double CHECKPOINT_TEST_CRASH_TIME;
+
+	private static int CHECKPOINT_TEST_INIT_COUNT;
+
+	private static List<String> CHECKPOINT_TEST_HISTORY;
+
+	private static final String CHECKPOINT_TEST_INDEX_KEY = "weighted index";
+
+	/*
+	 * A serializable global component that randomly alters a global property
+	 * and a person property each day for 100 days, recording each alteration
+	 * and a person selected from a weighted population index in a history
+	 * that is published on close. The component fails at the
+	 * crash time to simulate an interrupted simulation.
+	 */
+	public static class CheckpointTestComponent extends AbstractComponent implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<String> history = new ArrayList<>();
+
+		@Override
+		public void init(Environment environment) {
+			CHECKPOINT_TEST_INIT_COUNT++;
+			environment.addWeightedPopulationIndex(Filter.allPeople(), CHECKPOINT_TEST_INDEX_KEY, (observableEnvironment, personId) -> {
+				Integer personValue = observableEnvironment.getPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1);
+				return personValue + 1;
+			}, TestPersonPropertyId.PERSON_PROPERTY_1);
+			environment.addPlan(new CheckpointTestPlan(), 1);
+		}
+
+		@Override
+		public void executePlan(Environment environment, Plan plan) {
+			double time = environment.getTime();
+			if (time == CHECKPOINT_TEST_CRASH_TIME) {
+				throw new RuntimeException("simulated crash");
+			}
+			RandomGenerator randomGenerator = environment.getRandomGenerator();
+
+			Integer globalValue = environment.getGlobalPropertyValue(TestGlobalPropertyId.Global_Property_1);
+			globalValue += randomGenerator.nextInt(100);
+			environment.setGlobalPropertyValue(TestGlobalPropertyId.Global_Property_1, globalValue);
+
+			List<PersonId> people = environment.getPeople();
+			PersonId personId = people.get(randomGenerator.nextInt(people.size()));
+			Integer personValue = randomGenerator.nextInt(100);
+			environment.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1, personValue);
+
+			PersonId selectedPersonId = environment.getWeightedRandomIndexedPerson(CHECKPOINT_TEST_INDEX_KEY).get();
+
+			history.add(time + " " + globalValue + " " + personId + " " + personValue + " " + selectedPersonId);
+			if (time < 100) {
+				environment.addPlan(plan, time + 1);
+			}
+		}
+
+		@Override
+		public void close(Environment environment) {
+			for (PersonId personId : environment.getPeople()) {
+				Integer personValue = environment.getPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1);
+				history.add(personId + " " + personValue);
+			}
+			CHECKPOINT_TEST_HISTORY = new ArrayList<>(history);
+		}
+	}
+
+	/*
+	 * A report item handler that supplies a GlobalPropertyReport and records
+	 * the string form of the report items it receives
+	 */
+	private static class CheckpointTestReportItemHandler implements NIOReportItemHandler {
+
+		private final Report report = new GlobalPropertyReport();
+
+		private final List<String> reportItems = new ArrayList<>();
+
+		@Override
+		public void openSimulation(ScenarioId scenarioId, ReplicationId replicationId) {
+
+		}
+
+		@Override
+		public void openExperiment(ExperimentProgressLog experimentProgressLog) {
+
+		}
+
+		@Override
+		public void closeSimulation(ScenarioId scenarioId, ReplicationId replicationId) {
+
+		}
+
+		@Override
+		public void closeExperiment() {
+
+		}
+
+		@Override
+		public void handle(OutputItem outputItem) {
+			reportItems.add(outputItem.toString());
+		}
+
+		@Override
+		public Set<Class<? extends OutputItem>> getHandledClasses() {
+			Set<Class<? extends OutputItem>> result = new LinkedHashSet<>();
+			result.add(ReportItem.class);
+			return result;
+		}
+
+		@Override
+		public Set<Object> getInitializationData(Report report) {
+			return new LinkedHashSet<>();
+		}
+
+		@Override
+		public Set<Report> getReports() {
+			Set<Report> result = new LinkedHashSet<>();
+			result.add(report);
+			return result;
+		}
+	}
+
+	/*
+	 * Executes the checkpoint test scenario, returning the report items
+	 * received by the simulation's report item handler
+	 */
+	private static List<String> executeCheckpointTest(Scenario scenario, long replicationSeed, Path checkpointDirectory, double checkpointInterval) {
+		Simulation simulation = new Simulation();
+		simulation.setScenario(scenario);
+		simulation.setReplication(new ReplicationImpl(new ReplicationId(1), replicationSeed));
+		if (checkpointDirectory != null) {
+			simulation.setCheckpointDirectory(checkpointDirectory);
+		}
+		simulation.setCheckpointInterval(checkpointInterval);
+		CheckpointTestReportItemHandler checkpointTestReportItemHandler = new CheckpointTestReportItemHandler();
+		simulation.addOutputItemHandler(checkpointTestReportItemHandler);
+		simulation.execute();
+		return checkpointTestReportItemHandler.reportItems;
+	}
+
+	/**
+	 * Tests {@link Simulation#setCheckpointDirectory(Path)} and
+	 * {@link Simulation#setCheckpointInterval(double)}
+	 */
+	@Test
+	public void testCheckpoints() throws IOException {
+		RandomGenerator randomGenerator = getRandomGenerator(43);
+
+		UnstructuredScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		scenarioBuilder.setScenarioId(new ScenarioId(1));
+		scenarioBuilder.addGlobalComponentId(TestGlobalComponentId.GLOBAL_COMPONENT_1, CheckpointTestComponent.class);
+		scenarioBuilder.addRegionId(TestRegionId.REGION_1, SerializableEmptyComponent.class);
+		scenarioBuilder.addCompartmentId(TestCompartmentId.COMPARTMENT_1, SerializableEmptyComponent.class);
+		PropertyDefinition propertyDefinition = PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).build();
+		scenarioBuilder.defineGlobalProperty(TestGlobalPropertyId.Global_Property_1, propertyDefinition);
+		scenarioBuilder.definePersonProperty(TestPersonPropertyId.PERSON_PROPERTY_1, propertyDefinition);
+		for (int i = 0; i < 30; i++) {
+			PersonId personId = new PersonId(i);
+			scenarioBuilder.addPerson(personId, TestRegionId.REGION_1, TestCompartmentId.COMPARTMENT_1);
+			scenarioBuilder.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1, randomGenerator.nextInt(100));
+		}
+		Scenario scenario = scenarioBuilder.build();
+		long replicationSeed = randomGenerator.nextLong();
+
+		/*
+		 * A scenario with the same id that differs only by the initial
+		 * property value of a single person
+		 */
+		scenarioBuilder.setScenarioId(new ScenarioId(1));
+		scenarioBuilder.addGlobalComponentId(TestGlobalComponentId.GLOBAL_COMPONENT_1, CheckpointTestComponent.class);
+		scenarioBuilder.addRegionId(TestRegionId.REGION_1, SerializableEmptyComponent.class);
+		scenarioBuilder.addCompartmentId(TestCompartmentId.COMPARTMENT_1, SerializableEmptyComponent.class);
+		scenarioBuilder.defineGlobalProperty(TestGlobalPropertyId.Global_Property_1, propertyDefinition);
+		scenarioBuilder.definePersonProperty(TestPersonPropertyId.PERSON_PROPERTY_1, propertyDefinition);
+		for (PersonId personId : scenario.getPeopleIds()) {
+			scenarioBuilder.addPerson(personId, TestRegionId.REGION_1, TestCompartmentId.COMPARTMENT_1);
+			Integer personValue = scenario.getPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1);
+			if (personId.getValue() == 0) {
+				personValue++;
+			}
+			scenarioBuilder.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1, personValue);
+		}
+		Scenario alteredScenario = scenarioBuilder.build();
+
+		Path checkpointDirectory = Files.createTempDirectory("checkpoints");
+		try {
+			// execute the simulation without interruption
+			CHECKPOINT_TEST_CRASH_TIME = -1;
+			CHECKPOINT_TEST_INIT_COUNT = 0;
+			List<String> expectedReportItems = executeCheckpointTest(scenario, replicationSeed, null, 0);
+			List<String> expectedHistory = CHECKPOINT_TEST_HISTORY;
+			assertEquals(1, CHECKPOINT_TEST_INIT_COUNT);
+			assertEquals(130, expectedHistory.size());
+			assertEquals(101, expectedReportItems.size());
+
+			// interrupt the simulation after several checkpoints
+			CHECKPOINT_TEST_CRASH_TIME = 55;
+			CHECKPOINT_TEST_HISTORY = null;
+			try {
+				executeCheckpointTest(scenario, replicationSeed, checkpointDirectory, 10);
+				fail("the simulation should have failed");
+			} catch (RuntimeException e) {
+				// expected
+			}
+			assertEquals(2, CHECKPOINT_TEST_INIT_COUNT);
+			assertNull(CHECKPOINT_TEST_HISTORY);
+			assertTrue(Files.exists(checkpointDirectory.resolve("scenario_1_replication_1.checkpoint")));
+
+			/*
+			 * Show that the checkpoint is not resumed under an altered scenario
+			 * or a different replication seed that share its scenario and
+			 * replication ids
+			 */
+			CHECKPOINT_TEST_CRASH_TIME = -1;
+			try {
+				executeCheckpointTest(alteredScenario, replicationSeed, checkpointDirectory, 10);
+				fail("the checkpoint should not match the altered scenario");
+			} catch (RuntimeException e) {
+				// expected
+			}
+			try {
+				executeCheckpointTest(scenario, replicationSeed + 1, checkpointDirectory, 10);
+				fail("the checkpoint should not match the replication seed");
+			} catch (RuntimeException e) {
+				// expected
+			}
+			assertEquals(2, CHECKPOINT_TEST_INIT_COUNT);
+			assertNull(CHECKPOINT_TEST_HISTORY);
+			assertTrue(Files.exists(checkpointDirectory.resolve("scenario_1_replication_1.checkpoint")));
+
+			/*
+			 * Show that the simulation resumes from the last checkpoint without
+			 * re-initializing the components and that the results and report
+			 * items match those of the uninterrupted simulation
+			 */
+			CHECKPOINT_TEST_CRASH_TIME = -1;
+			List<String> actualReportItems = executeCheckpointTest(scenario, replicationSeed, checkpointDirectory, 10);
+			assertEquals(2, CHECKPOINT_TEST_INIT_COUNT);
+			assertEquals(expectedHistory, CHECKPOINT_TEST_HISTORY);
+			assertEquals(expectedReportItems, actualReportItems);
+
+			// show that the checkpoint files are deleted on completion
+			try (Stream<Path> stream = Files.list(checkpointDirectory)) {
+				assertEquals(0, stream.count());
+			}
+
+			// precondition tests
+			Simulation simulation = new Simulation();
+			simulation.setScenario(scenario);
+			simulation.setReplication(new ReplicationImpl(new ReplicationId(1), replicationSeed));
+			simulation.setCheckpointInterval(10);
+			try {
+				simulation.execute();
+				fail("checkpoint interval without checkpoint directory");
+			} catch (RuntimeException e) {
+				// expected
+			}
+
+			try {
+				new Simulation().setCheckpointDirectory(null);
+				fail("null checkpoint directory");
+			} catch (RuntimeException e) {
+				// expected
+			}
+		} finally {
+			try (Stream<Path> stream = Files.list(checkpointDirectory)) {
+				for (Path path : stream.collect(Collectors.toList())) {
+					Files.delete(path);
+				}
+			}
+			Files.delete(checkpointDirectory);
+		}
+	}
+
+	/*
+	 * Builds the scenario used by the snapshot tests, optionally setting the
+	 * global property value
+	 */
+	private static Scenario getSnapshotTestScenario(int scenarioId, RandomGenerator randomGenerator, Integer globalPropertyValue) {
+		UnstructuredScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		scenarioBuilder.setScenarioId(new ScenarioId(scenarioId));
+		scenarioBuilder.addGlobalComponentId(TestGlobalComponentId.GLOBAL_COMPONENT_1, CheckpointTestComponent.class);
+		scenarioBuilder.addRegionId(TestRegionId.REGION_1, SerializableEmptyComponent.class);
+		scenarioBuilder.addCompartmentId(TestCompartmentId.COMPARTMENT_1, SerializableEmptyComponent.class);
+		PropertyDefinition propertyDefinition = PropertyDefinition.builder().setType(Integer.class).setDefaultValue(0).build();
+		scenarioBuilder.defineGlobalProperty(TestGlobalPropertyId.Global_Property_1, propertyDefinition);
+		if (globalPropertyValue != null) {
+			scenarioBuilder.setGlobalPropertyValue(TestGlobalPropertyId.Global_Property_1, globalPropertyValue);
+		}
+		scenarioBuilder.definePersonProperty(TestPersonPropertyId.PERSON_PROPERTY_1, propertyDefinition);
+		for (int i = 0; i < 30; i++) {
+			PersonId personId = new PersonId(i);
+			scenarioBuilder.addPerson(personId, TestRegionId.REGION_1, TestCompartmentId.COMPARTMENT_1);
+			scenarioBuilder.setPersonPropertyValue(personId, TestPersonPropertyId.PERSON_PROPERTY_1, randomGenerator.nextInt(100));
+		}
+		return scenarioBuilder.build();
+	}
+
+	/*
+	 * Executes a simulation forked from the snapshot, returning the report
+	 * items received by the simulation's report item handler
+	 */
+	private static List<String> executeFork(SimulationSnapshot snapshot, Scenario scenario, Replication replication) {
+		Simulation simulation = new Simulation();
+		simulation.setSnapshot(snapshot);
+		if (scenario != null) {
+			simulation.setScenario(scenario);
+		}
+		if (replication != null) {
+			simulation.setReplication(replication);
+		}
+		CheckpointTestReportItemHandler checkpointTestReportItemHandler = new CheckpointTestReportItemHandler();
+		simulation.addOutputItemHandler(checkpointTestReportItemHandler);
+		simulation.execute();
+		return checkpointTestReportItemHandler.reportItems;
+	}
+
+	/**
+	 * Tests {@link Simulation#executeToSnapshot(double)} and
+	 * {@link Simulation#setSnapshot(SimulationSnapshot)}
+	 */
+	@Test
+	public void testSnapshots() {
+		RandomGenerator randomGenerator = getRandomGenerator(44);
+		long seed = randomGenerator.nextLong();
+		Scenario scenario = getSnapshotTestScenario(1, new Well44497b(seed), null);
+		Scenario alternateScenario = getSnapshotTestScenario(2, new Well44497b(seed), 1000);
+		Replication replication = new ReplicationImpl(new ReplicationId(1), randomGenerator.nextLong());
+
+		// execute the simulation without interruption
+		CHECKPOINT_TEST_CRASH_TIME = -1;
+		CHECKPOINT_TEST_INIT_COUNT = 0;
+		List<String> expectedReportItems = executeCheckpointTest(scenario, replication.getSeed(), null, 0);
+		List<String> expectedHistory = CHECKPOINT_TEST_HISTORY;
+		assertEquals(1, CHECKPOINT_TEST_INIT_COUNT);
+
+		/*
+		 * Execute the simulation to a snapshot. The components are not closed
+		 * and the report items released before the snapshot time are received.
+		 */
+		CHECKPOINT_TEST_HISTORY = null;
+		Simulation simulation = new Simulation();
+		simulation.setScenario(scenario);
+		simulation.setReplication(replication);
+		CheckpointTestReportItemHandler checkpointTestReportItemHandler = new CheckpointTestReportItemHandler();
+		simulation.addOutputItemHandler(checkpointTestReportItemHandler);
+		SimulationSnapshot snapshot = simulation.executeToSnapshot(40.5);
+		assertEquals(2, CHECKPOINT_TEST_INIT_COUNT);
+		assertNull(CHECKPOINT_TEST_HISTORY);
+		assertEquals(40.5, snapshot.getTime(), 0);
+		assertEquals(scenario, snapshot.getScenario());
+		assertEquals(replication, snapshot.getReplication());
+		assertTrue(snapshot.getSize() > 0);
+		List<String> snapshotReportItems = checkpointTestReportItemHandler.reportItems;
+		assertEquals(41, snapshotReportItems.size());
+		assertEquals(expectedReportItems.subList(0, 41), snapshotReportItems);
+
+		/*
+		 * Show that forks under the snapshot's scenario and replication
+		 * continue without re-initializing the components and match the
+		 * uninterrupted simulation. The snapshot may be reused.
+		 */
+		for (int i = 0; i < 2; i++) {
+			CHECKPOINT_TEST_HISTORY = null;
+			List<String> forkReportItems = executeFork(snapshot, null, null);
+			assertEquals(2, CHECKPOINT_TEST_INIT_COUNT);
+			assertEquals(expectedHistory, CHECKPOINT_TEST_HISTORY);
+			assertEquals(expectedReportItems.subList(41, expectedReportItems.size()), forkReportItems);
+		}
+
+		/*
+		 * Show that a fork under a replication with a different seed shares
+		 * the history before the snapshot time and then diverges
+		 */
+		CHECKPOINT_TEST_HISTORY = null;
+		executeFork(snapshot, null, new ReplicationImpl(new ReplicationId(2), randomGenerator.nextLong()));
+		assertEquals(2, CHECKPOINT_TEST_INIT_COUNT);
+		assertEquals(expectedHistory.size(), CHECKPOINT_TEST_HISTORY.size());
+		assertEquals(expectedHistory.subList(0, 40), CHECKPOINT_TEST_HISTORY.subList(0, 40));
+		assertNotEquals(expectedHistory.subList(40, 100), CHECKPOINT_TEST_HISTORY.subList(40, 100));
+
+		/*
+		 * Show that a fork under a scenario with a different global property
+		 * value has that value assigned at the snapshot time
+		 */
+		CHECKPOINT_TEST_HISTORY = null;
+		List<String> forkReportItems = executeFork(snapshot, alternateScenario, null);
+		assertEquals(2, CHECKPOINT_TEST_INIT_COUNT);
+		assertEquals(expectedHistory.subList(0, 40), CHECKPOINT_TEST_HISTORY.subList(0, 40));
+		String[] entry = CHECKPOINT_TEST_HISTORY.get(40).split(" ");
+		assertEquals("41.0", entry[0]);
+		assertTrue(Integer.parseInt(entry[1]) >= 1000);
+		assertEquals(61, forkReportItems.size());
+
+		// precondition tests
+		UnstructuredScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		scenarioBuilder.setScenarioId(new ScenarioId(3));
+		scenarioBuilder.addGlobalComponentId(TestGlobalComponentId.GLOBAL_COMPONENT_1, CheckpointTestComponent.class);
+		Scenario incompatibleScenario = scenarioBuilder.build();
+		try {
+			executeFork(snapshot, incompatibleScenario, null);
+			fail("incompatible scenario");
+		} catch (RuntimeException e) {
+			// expected
+		}
+
+		// a scenario that differs only in its initial person property values
+		incompatibleScenario = getSnapshotTestScenario(4, new Well44497b(seed + 1), null);
+		try {
+			executeFork(snapshot, incompatibleScenario, null);
+			fail("scenario with different person property values");
+		} catch (RuntimeException e) {
+			// expected
+		}
+
+		try {
+			new Simulation().setSnapshot(null);
+			fail("null snapshot");
+		} catch (RuntimeException e) {
+			// expected
+		}
+
+		simulation = new Simulation();
+		simulation.setScenario(scenario);
+		simulation.setReplication(replication);
+		try {
+			simulation.executeToSnapshot(0);
+			fail("non-positive snapshot time");
+		} catch (RuntimeException e) {
+			// expected
+		}
+
+		simulation = new Simulation();
+		simulation.setScenario(scenario);
+		simulation.setReplication(replication);
+		try {
+			simulation.executeToSnapshot(200);
+			fail("snapshot time after the end of the simulation");
+		} catch (RuntimeException e) {
+			// expected
+		}
+
+		simulation = new Simulation();
+		simulation.setScenario(scenario);
+		simulation.setReplication(replication);
+		simulation.setCheckpointDirectory(Paths.get("checkpoints"));
+		simulation.setCheckpointInterval(10);
+		try {
+			simulation.executeToSnapshot(40.5);
+			fail("snapshot with checkpoints");
+		} catch (RuntimeException e) {
+			// expected
+		}
+	}
 }
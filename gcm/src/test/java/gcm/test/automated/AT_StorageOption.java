@@ -0,0 +1,36 @@
+package gcm.test.automated;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import gcm.scenario.StorageOption;
+import gcm.util.annotations.UnitTest;
+
+/**
+ * Test class for {@link StorageOption}
+ * 
+ * @author Shawn Hatch
+ *
+ */
+@UnitTest(target = StorageOption.class)
+public class AT_StorageOption {
+
+	@Test
+	public void test() {
+		// there should be two storage options
+		assertEquals(2, StorageOption.values().length);
+	}
+	
+	@Test
+	public void testValueOf() {
+		//nothing to test
+
+	}
+	
+	@Test
+	public void testValues() {
+		//nothing to test
+	}
+
+}
@@ -1356,6 +1356,39 @@ public class AT_StructuredScenarioBuilder {
 		assertEquals(propertyValue, scenario.getResourcePropertyValue(resourceId, resourcePropertyId));
 	}
 
+	/**
+	 * Tests
+	 * {@link StructuredScenarioBuilder#setResourceMapOption(ResourceId, MapOption)}
+	 */
+	@Test
+	public void testSetResourceMapOption() {
+		ScenarioBuilder scenarioBuilder = new StructuredScenarioBuilder();
+		ResourceId resourceId = TestResourceId.RESOURCE1;
+
+		for (MapOption mapOption : MapOption.values()) {
+
+			// precondition : if the resource does not exist
+			assertScenarioException(() -> scenarioBuilder.setResourceMapOption(null, mapOption), ScenarioErrorType.NULL_RESOURCE_ID);
+			assertScenarioException(() -> scenarioBuilder.setResourceMapOption(resourceId, mapOption), ScenarioErrorType.UNKNOWN_RESOURCE_ID);
+			scenarioBuilder.addResource(resourceId);
+
+			// precondition : if the mapOption is null
+			assertScenarioException(() -> scenarioBuilder.setResourceMapOption(resourceId, null), ScenarioErrorType.NULL_RESOURCE_MAP_OPTION);
+
+			// precondition : if the resource mapOption was previously set
+			scenarioBuilder.setResourceMapOption(resourceId, mapOption);
+			assertScenarioException(() -> scenarioBuilder.setResourceMapOption(resourceId, mapOption), ScenarioErrorType.PREVIOUSLY_ASSIGNED_VALUE);
+
+			// postcondition :
+			Scenario scenario = scenarioBuilder.build();
+			assertEquals(mapOption, scenario.getResourceMapOption(resourceId));
+		}
+
+		// postcondition : the map option defaults to NONE
+		scenarioBuilder.addResource(resourceId);
+		assertEquals(MapOption.NONE, scenarioBuilder.build().getResourceMapOption(resourceId));
+	}
+
 	/**
 	 * Tests
 	 * {@link StructuredScenarioBuilder#setResourceTimeTracking(ResourceId, TimeTrackingPolicy)}
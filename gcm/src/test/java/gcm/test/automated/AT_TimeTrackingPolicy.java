@@ -1,6 +1,9 @@
 package gcm.test.automated;
 
+import static gcm.test.support.ExceptionAssertion.assertException;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
@@ -18,8 +21,28 @@ public class AT_TimeTrackingPolicy {
 
 	@Test
 	public void test() {
-		// there should be two tracking policies
-		assertEquals(2, TimeTrackingPolicy.values().length);
+		// there should be four tracking policies
+		assertEquals(4, TimeTrackingPolicy.values().length);
+	}
+
+	@Test
+	public void testIsTracked() {
+		assertTrue(TimeTrackingPolicy.TRACK_TIME.isTracked());
+		assertFalse(TimeTrackingPolicy.DO_NOT_TRACK_TIME.isTracked());
+		assertTrue(TimeTrackingPolicy.TRACK_TIME_FLOAT.isTracked());
+		assertTrue(TimeTrackingPolicy.TRACK_TIME_DAYS.isTracked());
+	}
+
+	@Test
+	public void testGetRecordedTime() {
+		double time = 12.123456789;
+		assertEquals(time, TimeTrackingPolicy.TRACK_TIME.getRecordedTime(time), 0);
+		assertEquals((float) time, TimeTrackingPolicy.TRACK_TIME_FLOAT.getRecordedTime(time), 0);
+		assertEquals(12, TimeTrackingPolicy.TRACK_TIME_DAYS.getRecordedTime(time), 0);
+		assertEquals(12, TimeTrackingPolicy.TRACK_TIME_DAYS.getRecordedTime(12), 0);
+
+		// pre conditions
+		assertException(() -> TimeTrackingPolicy.DO_NOT_TRACK_TIME.getRecordedTime(time), RuntimeException.class);
 	}
 	
 	@Test
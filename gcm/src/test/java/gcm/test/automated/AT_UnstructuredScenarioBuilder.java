@@ -695,6 +695,10 @@ public class AT_UnstructuredScenarioBuilder {
 		}
 		boolean propertyValuesAreMutability = random.nextBoolean();
 		MapOption mapOption = MapOption.values()[random.nextInt(MapOption.values().length)];
+		if (mapOption == MapOption.RANGE && !Number.class.isAssignableFrom(type)) {
+			// range mapping is limited to numeric types
+			mapOption = MapOption.ARRAY;
+		}
 		TimeTrackingPolicy timeTrackingPolicy = TimeTrackingPolicy.values()[random.nextInt(TimeTrackingPolicy.values().length)];
 
 		final PropertyDefinition result = PropertyDefinition.builder()//
@@ -2010,6 +2014,44 @@ public class AT_UnstructuredScenarioBuilder {
 		assertEquals(propertyValue, scenario.getResourcePropertyValue(resourceId, resourcePropertyId));
 	}
 
+	/**
+	 * Tests
+	 * {@link UnstructuredScenarioBuilder#setResourceMapOption(ResourceId, MapOption)}
+	 */
+	@Test
+	public void testSetResourceMapOption() {
+		ScenarioBuilder scenarioBuilder = new UnstructuredScenarioBuilder();
+		ResourceId resourceId = TestResourceId.RESOURCE5;
+		MapOption mapOption = MapOption.BITMAP;
+
+		// precondition: if the resource id is null
+		scenarioBuilder.setResourceMapOption(null, mapOption);
+		scenarioBuilder.addResource(resourceId);
+		assertScenarioException(() -> scenarioBuilder.build(), ScenarioErrorType.NULL_RESOURCE_ID);
+
+		// precondition: if the resource id is unknown
+		scenarioBuilder.setResourceMapOption(TestResourceId.getUnknownResourceId(), mapOption);
+		scenarioBuilder.addResource(resourceId);
+		assertScenarioException(() -> scenarioBuilder.build(), ScenarioErrorType.UNKNOWN_RESOURCE_ID);
+
+		// precondition: if the mapOption is null
+		scenarioBuilder.setResourceMapOption(resourceId, null);
+		scenarioBuilder.addResource(resourceId);
+		assertScenarioException(() -> scenarioBuilder.build(), ScenarioErrorType.NULL_RESOURCE_MAP_OPTION);
+
+		// precondition: if the resource mapOption was previously set
+		scenarioBuilder.setResourceMapOption(resourceId, mapOption);
+		scenarioBuilder.setResourceMapOption(resourceId, mapOption);
+		scenarioBuilder.addResource(resourceId);
+		assertScenarioException(() -> scenarioBuilder.build(), ScenarioErrorType.PREVIOUSLY_ASSIGNED_VALUE);
+
+		scenarioBuilder.setResourceMapOption(resourceId, mapOption);
+		scenarioBuilder.addResource(resourceId);
+		Scenario scenario = scenarioBuilder.build();
+		// postcondition: the resource has the expected map option
+		assertEquals(mapOption, scenario.getResourceMapOption(resourceId));
+	}
+
 	/**
 	 * Tests
 	 * {@link UnstructuredScenarioBuilder#setResourceTimeTracking(ResourceId, TimeTrackingPolicy)}
@@ -0,0 +1,78 @@
+package gcm.test.support;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import gcm.components.BatchObservingComponent;
+import gcm.scenario.CompartmentId;
+import gcm.scenario.PersonId;
+import gcm.scenario.PersonPropertyId;
+import gcm.scenario.RegionId;
+import gcm.scenario.ResourceId;
+import gcm.simulation.Environment;
+import gcm.simulation.ObservationType;
+import gcm.util.MultiKey;
+
+/**
+ * A TaskComponent that opts in to batched observation delivery. Each batch is
+ * recorded in the ObservationContainer as a single MultiKey composed of the
+ * time, the component id, the observation type, the batch identifier where
+ * applicable and the list of people in the batch.
+ */
+public class BatchTaskComponent extends TaskComponent implements BatchObservingComponent {
+
+	private void recordBatch(final Environment environment, final Object... values) {
+		final ObservationContainer observationContainer = environment.getGlobalPropertyValue(TestGlobalPropertyId.OBSERVATION_CONTAINER_PROPERTY_ID);
+		final Object[] keys = new Object[values.length + 2];
+		keys[0] = environment.getTime();
+		keys[1] = environment.getCurrentComponentId();
+		System.arraycopy(values, 0, keys, 2, values.length);
+		observationContainer.addObservation(new MultiKey(keys));
+	}
+
+	@Override
+	public void observeCompartmentPersonArrivals(final Environment environment, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.COMPARTMENT_PERSON_ARRIVAL, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observeCompartmentPersonDepartures(final Environment environment, final CompartmentId compartmentId, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.COMPARTMENT_PERSON_DEPARTURE, compartmentId, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observeGlobalPersonArrivals(final Environment environment, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.GLOBAL_PERSON_ARRIVAL, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observePersonCompartmentChanges(final Environment environment, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.PERSON_COMPARTMENT, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observePersonPropertyChanges(final Environment environment, final PersonPropertyId personPropertyId, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.PERSON_PROPERTY, personPropertyId, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observePersonRegionChanges(final Environment environment, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.PERSON_REGION, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observePersonResourceChanges(final Environment environment, final ResourceId resourceId, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.PERSON_RESOURCE, resourceId, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observeRegionPersonArrivals(final Environment environment, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.REGION_PERSON_ARRIVAL, new ArrayList<>(personIds));
+	}
+
+	@Override
+	public void observeRegionPersonDepartures(final Environment environment, final RegionId regionId, final List<PersonId> personIds) {
+		recordBatch(environment, ObservationType.REGION_PERSON_DEPARTURE, regionId, new ArrayList<>(personIds));
+	}
+
+}
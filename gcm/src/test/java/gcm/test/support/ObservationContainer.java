@@ -15,11 +15,21 @@ import gcm.util.MultiKey;
 public final class ObservationContainer {
 	private Set<MultiKey> observations = new LinkedHashSet<>();
 
+	private int observationCount;
+
 	public Set<MultiKey> getObservations() {
 		return new LinkedHashSet<>(observations);
 	}
 
+	/**
+	 * Returns the number of observations added, including any duplicates
+	 */
+	public int getObservationCount() {
+		return observationCount;
+	}
+
 	public void addObservation(MultiKey multiKey) {
 		observations.add(multiKey);
+		observationCount++;
 	}
 }